@@ -0,0 +1,58 @@
+#!/bin/bash
+
+# Compares bytes over the wire and latency of gateway responses: uncompressed, compressed and revalidated
+# with If-None-Match. Run against a local stack:
+#   TOKEN=<access token> ./scripts/response-load.sh [requests] [url...]
+
+GATEWAY_URL="${GATEWAY_URL:-http://localhost:8086}"
+REQUESTS="${1:-50}"
+shift
+
+if [ -z "$TOKEN" ]; then
+  echo "TOKEN must be set to an access token"
+  exit 1
+fi
+
+URLS=("$@")
+if [ ${#URLS[@]} -eq 0 ]; then
+  URLS=(
+    "$GATEWAY_URL/document-interaction/api/v1/master-data/MAJOR"
+    "$GATEWAY_URL/document-interaction/api/v1/master-data/COURSE_CODE"
+    "$GATEWAY_URL/document-search/api/v1/documents/recommendation?page=0&size=20"
+  )
+fi
+
+# Prints "<average bytes> <average seconds> <last status>" for REQUESTS requests with the given extra headers
+measure() {
+  local url="$1"
+  shift
+  local total_bytes=0
+  local total_time=0
+  local result status
+  for ((i = 0; i < REQUESTS; i++)); do
+    result=$(curl -s -o /dev/null -w "%{size_download} %{time_total} %{http_code}" \
+      -H "Authorization: Bearer $TOKEN" "$@" "$url")
+    read -r bytes time status <<< "$result"
+    total_bytes=$((total_bytes + bytes))
+    total_time=$(echo "$total_time + $time" | bc -l)
+  done
+  printf "%d %.4f %s" $((total_bytes / REQUESTS)) "$(echo "$total_time / $REQUESTS" | bc -l)" "$status"
+}
+
+printf "%-80s %-10s %10s %10s %6s\n" "URL" "MODE" "BYTES" "SECONDS" "STATUS"
+for url in "${URLS[@]}"; do
+  etag=$(curl -s -D - -o /dev/null -H "Authorization: Bearer $TOKEN" "$url" | tr -d '\r' | grep -i '^etag:' | cut -d' ' -f2-)
+
+  read -r bytes time status <<< "$(measure "$url" -H "Accept-Encoding: identity")"
+  printf "%-80s %-10s %10s %10s %6s\n" "$url" "identity" "$bytes" "$time" "$status"
+
+  for encoding in gzip br; do
+    read -r bytes time status <<< "$(measure "$url" -H "Accept-Encoding: $encoding")"
+    printf "%-80s %-10s %10s %10s %6s\n" "$url" "$encoding" "$bytes" "$time" "$status"
+  done
+
+  if [ -n "$etag" ]; then
+    read -r bytes time status <<< "$(measure "$url" -H "If-None-Match: $etag")"
+    printf "%-80s %-10s %10s %10s %6s\n" "$url" "etag" "$bytes" "$time" "$status"
+  fi
+done
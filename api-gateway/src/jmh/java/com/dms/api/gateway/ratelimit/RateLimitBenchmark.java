@@ -0,0 +1,85 @@
+package com.dms.api.gateway.ratelimit;
+
+import com.dms.api.gateway.filter.JwtIdentityFilter;
+import com.dms.api.gateway.filter.RateLimitGatewayFilterFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of the rate limiter: taking a token from the in-memory store for one hot key, for keys spread over
+ * {@code keyCount} users, and from 4 threads sharing one key; then the whole route filter against the same exchange
+ * passed straight down the chain, so the difference between {@code filter} and {@code baseline} is the overhead.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RateLimitBenchmark {
+    // Refills faster than a single thread can take tokens, so every call takes the allowed path
+    private static final RateLimitPolicy POLICY = new RateLimitPolicy(1_000, 1_000_000, Duration.ofMillis(1));
+    private static final GatewayFilterChain CHAIN = exchange -> Mono.empty();
+
+    @Param({"1000", "100000"})
+    private int keyCount;
+
+    private InMemoryTokenBucketStore store;
+    private String[] keys;
+    private int next;
+    private GatewayFilter filter;
+    private MockServerWebExchange exchange;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        store = new InMemoryTokenBucketStore(keyCount * 2L, Duration.ofMinutes(1));
+        keys = new String[keyCount];
+        for (int i = 0; i < keyCount; i++) {
+            keys[i] = "search|user:" + i;
+            store.tryConsume(keys[i], POLICY, System.nanoTime());
+        }
+
+        RateLimitProperties properties = new RateLimitProperties(true, keyCount * 2L, 0, Map.of("search", POLICY));
+        filter = new RateLimitGatewayFilterFactory(properties, new UserOrIpKeyResolver(0), store).apply("search");
+        // Reused, allowed requests only set a response header on it, and building one costs far more than the filter
+        exchange = MockServerWebExchange.from(MockServerHttpRequest.post("/document-search/api/v1/search")
+                .remoteAddress(new InetSocketAddress("10.0.0.1", 51234))
+                .header(JwtIdentityFilter.USER_ID_HEADER, "5b0f5c8e-9d3a-4a53-bb7e-4f1de1f5d1a0"));
+    }
+
+    @Benchmark
+    public RateLimitDecision storeHotKey() {
+        return store.tryConsume(keys[0], POLICY, System.nanoTime());
+    }
+
+    @Benchmark
+    public RateLimitDecision storeSpreadKeys() {
+        next = next + 1 == keyCount ? 0 : next + 1;
+        return store.tryConsume(keys[next], POLICY, System.nanoTime());
+    }
+
+    @Benchmark
+    @Threads(4)
+    public RateLimitDecision storeHotKeyContended() {
+        return store.tryConsume(keys[0], POLICY, System.nanoTime());
+    }
+
+    @Benchmark
+    public Object baseline() {
+        return CHAIN.filter(exchange).block();
+    }
+
+    @Benchmark
+    public Object filter() {
+        return filter.filter(exchange, CHAIN).block();
+    }
+}
@@ -1,10 +1,13 @@
 package com.dms.api.gateway.config;
 
+import com.dms.api.gateway.filter.RateLimitGatewayFilterFactory;
+import com.dms.api.gateway.filter.ResponseCacheFilter;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cloud.gateway.route.RouteLocator;
 import org.springframework.cloud.gateway.route.builder.RouteLocatorBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.reactive.CorsWebFilter;
 import org.springframework.web.cors.reactive.UrlBasedCorsConfigurationSource;
@@ -18,21 +21,51 @@ public class ApiGatewayConfiguration {
     private String frontendUrl;
 
     @Bean
-    public RouteLocator gatewayRouter(RouteLocatorBuilder builder) {
+    public RouteLocator gatewayRouter(RouteLocatorBuilder builder, ResponseCacheFilter responseCacheFilter,
+                                      RateLimitGatewayFilterFactory rateLimit) {
+        // Route ids tag the gateway.* meters
         return builder.routes()
                 // OAuth2 specific routes
-                .route(r -> r.path("/login/oauth2/code/google")
+                .route("oauth2-callback", r -> r.path("/login/oauth2/code/google")
                         .uri("lb://auth-service"))
-                .route(r -> r.path("/oauth2/authorization/google")
+                .route("oauth2-authorization", r -> r.path("/oauth2/authorization/google")
                         .uri("lb://auth-service"))
+                // Cacheable reads, matched before the service routes
+                .route("document-interaction-cached", r -> r.method(HttpMethod.GET)
+                        .and().path("/document-interaction/api/v1/master-data/**",
+                                "/document-interaction/api/v1/documents/*/thumbnail")
+                        .filters(f -> f.rewritePath("/document-interaction/(?<segment>.*)", "/${segment}")
+                                .filter(responseCacheFilter))
+                        .uri("lb://document-interaction-service"))
+                // Rate limited routes, matched before the service routes
+                .route("document-search-suggestions", r -> r.path("/document-search/api/v1/search/suggestions")
+                        .filters(f -> f.rewritePath("/document-search/(?<segment>.*)", "/${segment}")
+                                .filter(rateLimit.apply("typeahead")))
+                        .uri("lb://document-search-service"))
+                .route("document-interaction-tag-suggestions", r -> r
+                        .path("/document-interaction/api/v1/documents/tags/suggestions")
+                        .filters(f -> f.rewritePath("/document-interaction/(?<segment>.*)", "/${segment}")
+                                .filter(rateLimit.apply("typeahead")))
+                        .uri("lb://document-interaction-service"))
+                .route("document-search-search", r -> r
+                        .path("/document-search/api/v1/search", "/document-search/api/v1/documents/me/search")
+                        .filters(f -> f.rewritePath("/document-search/(?<segment>.*)", "/${segment}")
+                                .filter(rateLimit.apply("search")))
+                        .uri("lb://document-search-service"))
+                .route("document-interaction-download", r -> r.method(HttpMethod.GET)
+                        .and().path("/document-interaction/api/v1/documents/*/file",
+                                "/document-interaction/api/v1/documents/*/versions/*/file")
+                        .filters(f -> f.rewritePath("/document-interaction/(?<segment>.*)", "/${segment}")
+                                .filter(rateLimit.applyWithRangePolicy("download", "ranged-download")))
+                        .uri("lb://document-interaction-service"))
                 // Service routes
-                .route(r -> r.path("/auth/**")
+                .route("auth-service", r -> r.path("/auth/**")
                         .filters(f -> f.rewritePath("/auth/(?<segment>.*)", "/${segment}"))
                         .uri("lb://auth-service"))
-                .route(r -> r.path("/document-interaction/**")
+                .route("document-interaction-service", r -> r.path("/document-interaction/**")
                         .filters(f -> f.rewritePath("/document-interaction/(?<segment>.*)", "/${segment}"))
                         .uri("lb://document-interaction-service"))
-                .route(r -> r.path("/document-search/**")
+                .route("document-search-service", r -> r.path("/document-search/**")
                         .filters(f -> f.rewritePath("/document-search/(?<segment>.*)", "/${segment}"))
                         .uri("lb://document-search-service"))
                 .build();
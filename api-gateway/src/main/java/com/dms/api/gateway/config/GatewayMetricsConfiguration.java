@@ -0,0 +1,20 @@
+package com.dms.api.gateway.config;
+
+import org.springframework.cloud.gateway.config.HttpClientCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class GatewayMetricsConfiguration {
+    // Request paths carry document ids, the remote address tag already tells the service instances apart
+    private static final String UPSTREAM_URI_TAG = "upstream";
+
+    /**
+     * Enables Reactor Netty's client meters (connect, TLS handshake, response and data times per service instance),
+     * which are published with the application's meters.
+     */
+    @Bean
+    public HttpClientCustomizer httpClientMetricsCustomizer() {
+        return httpClient -> httpClient.metrics(true, uri -> UPSTREAM_URI_TAG);
+    }
+}
@@ -0,0 +1,69 @@
+package com.dms.api.gateway.filter;
+
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Answers GET requests with 304 Not Modified when the response ETag matches the request's If-None-Match, so the
+ * body is not sent to the client, whether it came from a service or from {@link ResponseCacheFilter}.
+ */
+@Component
+public class ConditionalRequestFilter implements GlobalFilter, Ordered {
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        List<String> ifNoneMatch = exchange.getRequest().getHeaders().getIfNoneMatch();
+        if (exchange.getRequest().getMethod() != HttpMethod.GET || ifNoneMatch.isEmpty()) {
+            return chain.filter(exchange);
+        }
+
+        ServerHttpResponse response = new ServerHttpResponseDecorator(exchange.getResponse()) {
+            @Override
+            public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+                if (HttpStatus.OK.equals(getStatusCode()) && matches(ifNoneMatch, getHeaders().getETag())) {
+                    getHeaders().remove(HttpHeaders.CONTENT_LENGTH);
+                    setStatusCode(HttpStatus.NOT_MODIFIED);
+                    return Flux.from(body)
+                            .doOnNext(DataBufferUtils::release)
+                            .then(getDelegate().setComplete());
+                }
+                return super.writeWith(body);
+            }
+        };
+        return chain.filter(exchange.mutate().response(response).build());
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE + 2;
+    }
+
+    static boolean matches(List<String> ifNoneMatch, String eTag) {
+        if (eTag == null) {
+            return false;
+        }
+        // If-None-Match uses the weak comparison
+        String opaqueTag = stripWeakPrefix(eTag);
+        return ifNoneMatch.stream()
+                .anyMatch(candidate -> candidate.equals("*") || stripWeakPrefix(candidate).equals(opaqueTag));
+    }
+
+    private static String stripWeakPrefix(String eTag) {
+        return eTag.startsWith("W/") ? eTag.substring(2) : eTag;
+    }
+}
@@ -0,0 +1,186 @@
+package com.dms.api.gateway.filter;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusReactiveJwtDecoder;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Validates the bearer token once at the edge and forwards the caller's identity as X-User-* headers, signed with
+ * {@code app.gateway-identity.secret}, so services can trust them instead of validating the token again. The signature
+ * covers a SHA-256 hash of the bearer token and the token's issue and expiry times, so the headers cannot be replayed
+ * with another token or outlive the one they were signed for. Verified tokens are cached until they expire, and the JWKS is only fetched again for an unknown key id. Identity headers sent
+ * by clients are always removed. A token that fails validation is forwarded without identity headers, so services still
+ * reject it and auth-service can still refresh it.
+ */
+@Component
+public class JwtIdentityFilter implements GlobalFilter, Ordered {
+    public static final String USER_ID_HEADER = "X-User-Id";
+    public static final String USERNAME_HEADER = "X-User-Name";
+    public static final String ROLES_HEADER = "X-User-Roles";
+    public static final String ISSUED_AT_HEADER = "X-Identity-Issued-At";
+    public static final String EXPIRES_AT_HEADER = "X-Identity-Expires-At";
+    public static final String TIMESTAMP_HEADER = "X-Identity-Timestamp";
+    public static final String SIGNATURE_HEADER = "X-Identity-Signature";
+    private static final List<String> IDENTITY_HEADERS =
+            List.of(USER_ID_HEADER, USERNAME_HEADER, ROLES_HEADER, ISSUED_AT_HEADER, EXPIRES_AT_HEADER,
+                    TIMESTAMP_HEADER, SIGNATURE_HEADER);
+    private static final String ISSUER = "dms-auth-service";
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    private final Logger log = LoggerFactory.getLogger(this.getClass());
+    private final ReactiveJwtDecoder jwtDecoder;
+    private final SecretKeySpec signingKey;
+    private final Cache<String, Identity> identities;
+
+    @Autowired
+    public JwtIdentityFilter(@Value("${app.gateway-identity.jwk-set-uri:}") String jwkSetUri,
+                             @Value("${app.gateway-identity.secret:}") String secret,
+                             @Value("${app.gateway-identity.cache-size:10000}") long cacheSize) {
+        this(jwtDecoder(jwkSetUri, secret), secret, cacheSize);
+    }
+
+    JwtIdentityFilter(ReactiveJwtDecoder jwtDecoder, String secret, long cacheSize) {
+        this.jwtDecoder = jwtDecoder;
+        this.signingKey = jwtDecoder == null ? null : new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), HMAC_ALGORITHM);
+        // Entries also expire with their token, this only bounds how long an expired one stays in memory
+        this.identities = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(Duration.ofHours(1))
+                .build();
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest().mutate()
+                .headers(headers -> IDENTITY_HEADERS.forEach(headers::remove))
+                .build();
+        String token = bearerToken(request);
+        if (jwtDecoder == null || token == null) {
+            return chain.filter(exchange.mutate().request(request).build());
+        }
+
+        Identity cached = identities.getIfPresent(token);
+        Mono<Identity> identity = cached != null && cached.expiresAt().isAfter(Instant.now())
+                ? Mono.just(cached)
+                : jwtDecoder.decode(token)
+                        .map(JwtIdentityFilter::toIdentity)
+                        .doOnNext(decoded -> {
+                            if (decoded.expiresAt() != null) {
+                                identities.put(token, decoded);
+                            }
+                        });
+
+        return identity
+                .map(verified -> request.mutate().headers(headers -> addIdentityHeaders(headers, verified, token)).build())
+                .onErrorResume(JwtException.class, e -> {
+                    log.debug("Forwarding request without identity, token is not valid: {}", e.getMessage());
+                    return Mono.empty();
+                })
+                .defaultIfEmpty(request)
+                .flatMap(forwarded -> chain.filter(exchange.mutate().request(forwarded).build()));
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE + 3;
+    }
+
+    private void addIdentityHeaders(HttpHeaders headers, Identity identity, String token) {
+        String issuedAt = epochSeconds(identity.issuedAt());
+        String expiresAt = epochSeconds(identity.expiresAt());
+        String timestamp = String.valueOf(Instant.now().toEpochMilli());
+        if (identity.userId() != null) {
+            headers.set(USER_ID_HEADER, identity.userId());
+        }
+        headers.set(USERNAME_HEADER, identity.username());
+        headers.set(ROLES_HEADER, identity.roles());
+        headers.set(ISSUED_AT_HEADER, issuedAt);
+        headers.set(EXPIRES_AT_HEADER, expiresAt);
+        headers.set(TIMESTAMP_HEADER, timestamp);
+        headers.set(SIGNATURE_HEADER,
+                sign(identity.userId(), identity.username(), identity.roles(), tokenHash(token), issuedAt, expiresAt, timestamp));
+    }
+
+    String sign(String userId, String username, String roles, String tokenHash, String issuedAt, String expiresAt,
+                String timestamp) {
+        // Services compute the same value, keep the field order in sync with their GatewayIdentityFilter
+        String payload = String.join("\n",
+                Objects.toString(userId, ""), username, roles, tokenHash, issuedAt, expiresAt, timestamp);
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(signingKey);
+            return Base64.getEncoder().encodeToString(mac.doFinal(payload.getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Failed to sign identity headers", e);
+        }
+    }
+
+    static String tokenHash(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Failed to hash bearer token", e);
+        }
+    }
+
+    private static String epochSeconds(Instant instant) {
+        return instant != null ? String.valueOf(instant.getEpochSecond()) : "";
+    }
+
+    private static ReactiveJwtDecoder jwtDecoder(String jwkSetUri, String secret) {
+        if (jwkSetUri.isBlank() || secret.isBlank()) {
+            LoggerFactory.getLogger(JwtIdentityFilter.class)
+                    .warn("Gateway identity headers are disabled, app.gateway-identity is not configured");
+            return null;
+        }
+        NimbusReactiveJwtDecoder decoder = NimbusReactiveJwtDecoder.withJwkSetUri(jwkSetUri).build();
+        decoder.setJwtValidator(JwtValidators.createDefaultWithIssuer(ISSUER));
+        return decoder;
+    }
+
+    private static String bearerToken(ServerHttpRequest request) {
+        String authorization = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (authorization != null && authorization.startsWith("Bearer ")) {
+            return authorization.substring(7);
+        }
+        return null;
+    }
+
+    private static Identity toIdentity(Jwt jwt) {
+        List<String> roles = Objects.requireNonNullElse(jwt.getClaimAsStringList("roles"), List.of());
+        return new Identity(jwt.getClaimAsString("uid"), jwt.getSubject(), String.join(",", roles),
+                jwt.getIssuedAt(), jwt.getExpiresAt());
+    }
+
+    private record Identity(String userId, String username, String roles, Instant issuedAt, Instant expiresAt) {
+    }
+}
@@ -0,0 +1,154 @@
+package com.dms.api.gateway.filter;
+
+import com.dms.api.gateway.ratelimit.RateLimitDecision;
+import com.dms.api.gateway.ratelimit.RateLimitPolicy;
+import com.dms.api.gateway.ratelimit.RateLimitProperties;
+import com.dms.api.gateway.ratelimit.TokenBucketStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.filter.ratelimit.KeyResolver;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Limits requests on a route with one of the token bucket policies under {@code app.rate-limit.policies}, per key from
+ * the {@link KeyResolver} (the user, or the client address). Requests over the limit get a 429 with Retry-After.
+ * Requests without a key are not limited, and neither are requests while the {@link TokenBucketStore} fails.
+ * Routes serving files can set a separate {@code rangePolicy} for chunked reads, so a viewer reading a file in chunks
+ * is not limited like a client downloading many whole files. Only a single bounded range that starts after the first
+ * byte and spans at most {@link #MAX_RANGED_READ_BYTES} counts as a chunk; any other request, including an open
+ * {@code bytes=0-} range, is charged to the main policy.
+ */
+@Component
+public class RateLimitGatewayFilterFactory extends AbstractGatewayFilterFactory<RateLimitGatewayFilterFactory.Config> {
+    public static final String REMAINING_HEADER = "X-RateLimit-Remaining";
+    private static final String NO_KEY = "";
+    public static final long MAX_RANGED_READ_BYTES = 8L * 1024 * 1024;
+    // A single range with both ends given, multiple ranges and suffix ranges are charged as downloads
+    private static final Pattern BOUNDED_RANGE = Pattern.compile("^bytes=(\\d{1,18})-(\\d{1,18})$");
+    private static final RateLimitDecision UNLIMITED = new RateLimitDecision(true, -1, Duration.ZERO);
+
+    private final Logger log = LoggerFactory.getLogger(this.getClass());
+    private final RateLimitProperties properties;
+    private final KeyResolver keyResolver;
+    private final TokenBucketStore tokenBucketStore;
+
+    public RateLimitGatewayFilterFactory(RateLimitProperties properties, KeyResolver keyResolver,
+                                         TokenBucketStore tokenBucketStore) {
+        super(Config.class);
+        this.properties = properties;
+        this.keyResolver = keyResolver;
+        this.tokenBucketStore = tokenBucketStore;
+    }
+
+    public GatewayFilter apply(String policyName) {
+        return applyWithRangePolicy(policyName, null);
+    }
+
+    public GatewayFilter applyWithRangePolicy(String policyName, String rangePolicyName) {
+        Config config = new Config();
+        config.setPolicy(policyName);
+        config.setRangePolicy(rangePolicyName);
+        return apply(config);
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        // Fails on startup for a policy missing from the configuration
+        RateLimitPolicy policy = properties.policy(config.getPolicy());
+        RateLimitPolicy rangePolicy = config.getRangePolicy() != null ? properties.policy(config.getRangePolicy()) : null;
+        return (exchange, chain) -> {
+            if (!properties.enabled()) {
+                return chain.filter(exchange);
+            }
+            boolean ranged = rangePolicy != null && isChunkRequest(exchange);
+            String policyName = ranged ? config.getRangePolicy() : config.getPolicy();
+            return keyResolver.resolve(exchange)
+                    .defaultIfEmpty(NO_KEY)
+                    .flatMap(key -> NO_KEY.equals(key)
+                            ? Mono.just(UNLIMITED)
+                            : consume(policyName + "|" + key, ranged ? rangePolicy : policy))
+                    .flatMap(decision -> decision.allowed()
+                            ? forward(exchange, chain, decision)
+                            : reject(exchange, policyName, decision));
+        };
+    }
+
+    @Override
+    public List<String> shortcutFieldOrder() {
+        return List.of("policy", "rangePolicy");
+    }
+
+    static boolean isChunkRequest(ServerWebExchange exchange) {
+        List<String> ranges = exchange.getRequest().getHeaders().get(HttpHeaders.RANGE);
+        if (ranges == null || ranges.size() != 1) {
+            return false;
+        }
+        Matcher range = BOUNDED_RANGE.matcher(ranges.get(0).trim());
+        if (!range.matches()) {
+            return false;
+        }
+        long first = Long.parseLong(range.group(1));
+        long last = Long.parseLong(range.group(2));
+        return first > 0 && last >= first && last - first < MAX_RANGED_READ_BYTES;
+    }
+
+    private Mono<RateLimitDecision> consume(String key, RateLimitPolicy policy) {
+        return tokenBucketStore.tryConsume(key, policy)
+                .onErrorResume(e -> {
+                    log.warn("Rate limit store failed, letting the request through: {}", e.getMessage());
+                    return Mono.just(UNLIMITED);
+                });
+    }
+
+    private Mono<Void> forward(ServerWebExchange exchange, GatewayFilterChain chain, RateLimitDecision decision) {
+        if (decision.remaining() >= 0) {
+            exchange.getResponse().getHeaders().set(REMAINING_HEADER, String.valueOf(decision.remaining()));
+        }
+        return chain.filter(exchange);
+    }
+
+    private Mono<Void> reject(ServerWebExchange exchange, String policyName, RateLimitDecision decision) {
+        log.debug("Rate limit {} exceeded for {}", policyName, exchange.getRequest().getPath());
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+        // Whole seconds, rounded up so a client retrying right on time finds a token
+        long retryAfterSeconds = Math.max(1, (decision.retryAfter().toMillis() + 999) / 1000);
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.getHeaders().set(REMAINING_HEADER, "0");
+        return response.setComplete();
+    }
+
+    public static class Config {
+        private String policy;
+        private String rangePolicy;
+
+        public String getPolicy() {
+            return policy;
+        }
+
+        public void setPolicy(String policy) {
+            this.policy = policy;
+        }
+
+        public String getRangePolicy() {
+            return rangePolicy;
+        }
+
+        public void setRangePolicy(String rangePolicy) {
+            this.rangePolicy = rangePolicy;
+        }
+    }
+}
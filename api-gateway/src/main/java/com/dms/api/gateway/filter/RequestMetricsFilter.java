@@ -0,0 +1,154 @@
+package com.dms.api.gateway.filter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+/**
+ * Records {@code gateway.requests}, the time from receiving a routed request until its last byte is written, as a
+ * percentile histogram by route id and status, and {@code gateway.response.size}, the body size before compression, by
+ * route id. {@link UpstreamTimingFilter} records the part spent waiting for the service, so the gateway's own share is
+ * the difference.
+ * <p>
+ * Requests slower than {@code app.gateway-metrics.slow-request-threshold} are counted in {@code gateway.requests.slow},
+ * and a {@code slow-request-sample-rate} fraction of them is logged with the route, timings, size and trace id.
+ */
+@Component
+public class RequestMetricsFilter implements GlobalFilter, Ordered {
+    static final String UPSTREAM_NANOS_ATTRIBUTE = RequestMetricsFilter.class.getName() + ".upstreamNanos";
+    private static final String UNMATCHED_ROUTE = "unmatched";
+
+    private final Logger log = LoggerFactory.getLogger(this.getClass());
+    private final Meter.MeterProvider<Timer> requestTimer;
+    private final Meter.MeterProvider<DistributionSummary> responseSize;
+    private final Meter.MeterProvider<Counter> slowRequests;
+    private final long slowRequestThresholdNanos;
+    private final double slowRequestSampleRate;
+
+    public RequestMetricsFilter(MeterRegistry meterRegistry,
+                                @Value("${app.gateway-metrics.slow-request-threshold:2s}") Duration slowRequestThreshold,
+                                @Value("${app.gateway-metrics.slow-request-sample-rate:1.0}") double slowRequestSampleRate) {
+        this.requestTimer = Timer.builder("gateway.requests")
+                .description("Time from receiving a routed request until its response is written")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofSeconds(30))
+                .withRegistry(meterRegistry);
+        this.responseSize = DistributionSummary.builder("gateway.response.size")
+                .description("Response body size before compression")
+                .baseUnit("bytes")
+                // Fixed buckets from 256B to 64MB, a percentile histogram would publish ~90 per route
+                .serviceLevelObjectives(256, 1024, 4096, 16384, 65536, 262144, 1048576, 4194304, 16777216, 67108864)
+                .withRegistry(meterRegistry);
+        this.slowRequests = Counter.builder("gateway.requests.slow")
+                .description("Requests slower than app.gateway-metrics.slow-request-threshold")
+                .withRegistry(meterRegistry);
+        this.slowRequestThresholdNanos = slowRequestThreshold.toNanos();
+        this.slowRequestSampleRate = slowRequestSampleRate;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        long start = System.nanoTime();
+        AtomicLong bytes = new AtomicLong();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        ServerHttpResponse response = new ServerHttpResponseDecorator(exchange.getResponse()) {
+            @Override
+            public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+                return super.writeWith(Flux.from(body).doOnNext(buffer -> bytes.addAndGet(buffer.readableByteCount())));
+            }
+
+            @Override
+            public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+                return super.writeAndFlushWith(Flux.from(body).map(chunk ->
+                        Flux.from(chunk).doOnNext(buffer -> bytes.addAndGet(buffer.readableByteCount()))));
+            }
+        };
+        return chain.filter(exchange.mutate().response(response).build())
+                .doOnError(failure::set)
+                .doFinally(signal -> record(exchange, System.nanoTime() - start, bytes.get(), signal, failure.get()));
+    }
+
+    @Override
+    public int getOrder() {
+        // Right after TraceContextFilter, so 304s and rejected requests are measured as sent
+        return Ordered.HIGHEST_PRECEDENCE + 1;
+    }
+
+    private void record(ServerWebExchange exchange, long nanos, long bytes, SignalType signal, Throwable failure) {
+        String route = routeId(exchange);
+        String status = status(exchange.getResponse(), signal, failure);
+        requestTimer.withTags("route", route, "status", status).record(nanos, TimeUnit.NANOSECONDS);
+        responseSize.withTags("route", route).record(bytes);
+
+        if (nanos < slowRequestThresholdNanos) {
+            return;
+        }
+        slowRequests.withTags("route", route).increment();
+        if (slowRequestSampleRate < 1 && ThreadLocalRandom.current().nextDouble() >= slowRequestSampleRate) {
+            return;
+        }
+        Long upstreamNanos = exchange.getAttribute(UPSTREAM_NANOS_ATTRIBUTE);
+        URI upstream = exchange.getAttribute(GATEWAY_REQUEST_URL_ATTR);
+        log.warn("Slow request {} {} route={} status={} totalMs={} upstreamMs={} gatewayMs={} bytes={} upstream={} traceId={}",
+                exchange.getRequest().getMethod(), exchange.getRequest().getPath(), route, status,
+                TimeUnit.NANOSECONDS.toMillis(nanos),
+                upstreamNanos != null ? TimeUnit.NANOSECONDS.toMillis(upstreamNanos) : "-",
+                upstreamNanos != null ? TimeUnit.NANOSECONDS.toMillis(nanos - upstreamNanos) : "-",
+                bytes,
+                upstream != null ? upstream.getHost() + ":" + upstream.getPort() : "-",
+                exchange.getAttributeOrDefault(TraceContextFilter.TRACE_ID_ATTRIBUTE, "-"));
+    }
+
+    static String routeId(ServerWebExchange exchange) {
+        Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+        return route != null ? route.getId() : UNMATCHED_ROUTE;
+    }
+
+    /**
+     * The status the client gets. On an error the response is not written yet, so it is the one the error handler
+     * will set.
+     */
+    static String status(ServerHttpResponse response, SignalType signal, Throwable failure) {
+        if (failure != null) {
+            return failure instanceof ResponseStatusException statusException
+                    ? String.valueOf(statusException.getStatusCode().value())
+                    : "500";
+        }
+        if (signal == SignalType.CANCEL) {
+            return "CANCELLED";
+        }
+        HttpStatusCode statusCode = response.getStatusCode();
+        return statusCode != null ? String.valueOf(statusCode.value()) : "200";
+    }
+}
@@ -0,0 +1,144 @@
+package com.dms.api.gateway.filter;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory cache of GET responses for the routes it is applied to. A response is stored only when it is a 200 whose
+ * Cache-Control allows a shared cache to reuse it, for its max-age capped at {@code app.response-cache.max-time-to-live}
+ * (the cap alone when the service sends no max-age). Entries are keyed by the request URI and Authorization header, so a
+ * user is only ever served responses fetched with their own token.
+ */
+@Component
+public class ResponseCacheFilter implements GatewayFilter, Ordered {
+    private static final Pattern MAX_AGE = Pattern.compile("(?:^|,)\\s*(?:s-maxage|max-age)=(\\d+)");
+
+    private final Logger log = LoggerFactory.getLogger(this.getClass());
+    private final Cache<String, CachedResponse> cache;
+    private final Duration maxTimeToLive;
+    private final long maxEntrySize;
+
+    public ResponseCacheFilter(@Value("${app.response-cache.max-time-to-live:5m}") Duration maxTimeToLive,
+                               @Value("${app.response-cache.max-size:64MB}") DataSize maxSize,
+                               @Value("${app.response-cache.max-entry-size:1MB}") DataSize maxEntrySize) {
+        this.maxTimeToLive = maxTimeToLive;
+        this.maxEntrySize = maxEntrySize.toBytes();
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .<String, CachedResponse>weigher((key, response) -> key.length() + response.body().length)
+                .expireAfterWrite(maxTimeToLive)
+                .build();
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        String requestCacheControl = Objects.toString(request.getHeaders().getCacheControl(), "");
+        if (request.getMethod() != HttpMethod.GET || requestCacheControl.contains("no-store")) {
+            return chain.filter(exchange);
+        }
+
+        String key = request.getURI() + "|" + Objects.toString(request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION), "");
+        CachedResponse cached = requestCacheControl.contains("no-cache") ? null : cache.getIfPresent(key);
+        if (cached != null && cached.expiresAt().isAfter(Instant.now())) {
+            return writeCached(exchange.getResponse(), cached);
+        }
+
+        // Always fetch the full body, the client's conditional headers are answered by ConditionalRequestFilter
+        ServerHttpRequest upstreamRequest = request.mutate()
+                .headers(headers -> {
+                    headers.remove(HttpHeaders.IF_NONE_MATCH);
+                    headers.remove(HttpHeaders.IF_MODIFIED_SINCE);
+                })
+                .build();
+        ServerHttpResponse response = new ServerHttpResponseDecorator(exchange.getResponse()) {
+            @Override
+            public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+                Duration timeToLive = timeToLive(this);
+                if (timeToLive == null) {
+                    return super.writeWith(body);
+                }
+                return DataBufferUtils.join(body).flatMap(joined -> {
+                    byte[] bytes = new byte[joined.readableByteCount()];
+                    joined.read(bytes);
+                    DataBufferUtils.release(joined);
+                    if (bytes.length <= maxEntrySize) {
+                        HttpHeaders headers = new HttpHeaders();
+                        headers.addAll(getHeaders());
+                        headers.remove(HttpHeaders.TRANSFER_ENCODING);
+                        cache.put(key, new CachedResponse(HttpHeaders.readOnlyHttpHeaders(headers), bytes,
+                                Instant.now().plus(timeToLive)));
+                    }
+                    return super.writeWith(Mono.just(bufferFactory().wrap(bytes)));
+                });
+            }
+        };
+        return chain.filter(exchange.mutate().request(upstreamRequest).response(response).build());
+    }
+
+    @Override
+    public int getOrder() {
+        // Must decorate the response before NettyWriteResponseFilter writes it
+        return NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1;
+    }
+
+    private Duration timeToLive(ServerHttpResponse response) {
+        if (!HttpStatus.OK.equals(response.getStatusCode())) {
+            return null;
+        }
+        HttpHeaders headers = response.getHeaders();
+        String cacheControl = Objects.toString(headers.getCacheControl(), "").toLowerCase(Locale.ROOT);
+        if (cacheControl.contains("no-store") || cacheControl.contains("no-cache") || cacheControl.contains("private")
+                || headers.getVary().contains("*") || headers.containsKey(HttpHeaders.SET_COOKIE)) {
+            return null;
+        }
+
+        Matcher maxAge = MAX_AGE.matcher(cacheControl);
+        if (!maxAge.find()) {
+            return maxTimeToLive;
+        }
+        Duration timeToLive = Duration.ofSeconds(Long.parseLong(maxAge.group(1)));
+        if (timeToLive.isZero()) {
+            return null;
+        }
+        return timeToLive.compareTo(maxTimeToLive) < 0 ? timeToLive : maxTimeToLive;
+    }
+
+    private Mono<Void> writeCached(ServerHttpResponse response, CachedResponse cached) {
+        log.debug("Serving cached response, expires at {}", cached.expiresAt());
+        response.setStatusCode(HttpStatus.OK);
+        response.getHeaders().putAll(cached.headers());
+        response.getHeaders().setContentLength(cached.body().length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(cached.body())));
+    }
+
+    private record CachedResponse(HttpHeaders headers, byte[] body, Instant expiresAt) {
+    }
+}
@@ -0,0 +1,69 @@
+package com.dms.api.gateway.filter;
+
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.HexFormat;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Propagates a W3C trace context to the services. A valid incoming {@code traceparent} keeps its trace id, otherwise a
+ * new trace is started; either way the gateway forwards its own span id as the parent. Spans are not recorded, the
+ * trace id only correlates log lines, and it is returned to the client as X-Trace-Id for reporting problems.
+ */
+@Component
+public class TraceContextFilter implements GlobalFilter, Ordered {
+    public static final String TRACEPARENT_HEADER = "traceparent";
+    public static final String TRACE_ID_HEADER = "X-Trace-Id";
+    public static final String TRACE_ID_ATTRIBUTE = TraceContextFilter.class.getName() + ".traceId";
+    private static final Pattern TRACEPARENT = Pattern.compile("00-([0-9a-f]{32})-([0-9a-f]{16})-([0-9a-f]{2})");
+    private static final String INVALID_TRACE_ID = "0".repeat(32);
+    private static final String INVALID_SPAN_ID = "0".repeat(16);
+    // Not sampled, nothing is recorded here
+    private static final String NEW_TRACE_FLAGS = "00";
+    private static final HexFormat HEX = HexFormat.of();
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        String traceId = null;
+        String flags = NEW_TRACE_FLAGS;
+        String incoming = exchange.getRequest().getHeaders().getFirst(TRACEPARENT_HEADER);
+        if (incoming != null) {
+            Matcher matcher = TRACEPARENT.matcher(incoming.trim());
+            if (matcher.matches() && !INVALID_TRACE_ID.equals(matcher.group(1))
+                    && !INVALID_SPAN_ID.equals(matcher.group(2))) {
+                traceId = matcher.group(1);
+                flags = matcher.group(3);
+            }
+        }
+        if (traceId == null) {
+            traceId = randomHex() + randomHex();
+        }
+
+        String traceparent = "00-" + traceId + "-" + randomHex() + "-" + flags;
+        exchange.getAttributes().put(TRACE_ID_ATTRIBUTE, traceId);
+        exchange.getResponse().getHeaders().set(TRACE_ID_HEADER, traceId);
+        return chain.filter(exchange.mutate()
+                .request(request -> request.headers(headers -> headers.set(TRACEPARENT_HEADER, traceparent)))
+                .build());
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    private static String randomHex() {
+        long value;
+        do {
+            value = ThreadLocalRandom.current().nextLong();
+        } while (value == 0);
+        return HEX.toHexDigits(value);
+    }
+}
@@ -0,0 +1,56 @@
+package com.dms.api.gateway.filter;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.NettyRoutingFilter;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Records {@code gateway.upstream}, the time from handing a request to {@link NettyRoutingFilter} until the service's
+ * response headers arrive, by route id and status. It includes taking a pooled connection or connecting; Reactor
+ * Netty's {@code reactor.netty.http.client.*} meters break that down per service instance. The response body is
+ * streamed afterwards and counts towards {@code gateway.requests} only.
+ */
+@Component
+public class UpstreamTimingFilter implements GlobalFilter, Ordered {
+    private final Meter.MeterProvider<Timer> upstreamTimer;
+
+    public UpstreamTimingFilter(MeterRegistry meterRegistry) {
+        this.upstreamTimer = Timer.builder("gateway.upstream")
+                .description("Time until the service's response headers arrive, including connecting")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofSeconds(30))
+                .withRegistry(meterRegistry);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        long start = System.nanoTime();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        return chain.filter(exchange)
+                .doOnError(failure::set)
+                .doFinally(signal -> {
+                    long nanos = System.nanoTime() - start;
+                    exchange.getAttributes().put(RequestMetricsFilter.UPSTREAM_NANOS_ATTRIBUTE, nanos);
+                    upstreamTimer.withTags("route", RequestMetricsFilter.routeId(exchange),
+                                    "status", RequestMetricsFilter.status(exchange.getResponse(), signal, failure.get()))
+                            .record(nanos, TimeUnit.NANOSECONDS);
+                });
+    }
+
+    @Override
+    public int getOrder() {
+        return NettyRoutingFilter.ORDER - 1;
+    }
+}
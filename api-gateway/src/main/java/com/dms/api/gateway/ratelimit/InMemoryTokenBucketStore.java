@@ -0,0 +1,61 @@
+package com.dms.api.gateway.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * Token buckets kept in this gateway node's memory. Buckets are refilled lazily when a token is taken, so there is no
+ * background work per key. A bucket left idle for {@code idleTimeout} is dropped; that must be at least the time the
+ * slowest policy takes to fill up, so a dropped bucket would have been full anyway.
+ */
+public class InMemoryTokenBucketStore implements TokenBucketStore {
+    private final Cache<String, TokenBucket> buckets;
+
+    public InMemoryTokenBucketStore(long maxKeys, Duration idleTimeout) {
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(idleTimeout)
+                .build();
+    }
+
+    @Override
+    public Mono<RateLimitDecision> tryConsume(String key, RateLimitPolicy policy) {
+        return Mono.just(tryConsume(key, policy, System.nanoTime()));
+    }
+
+    RateLimitDecision tryConsume(String key, RateLimitPolicy policy, long nowNanos) {
+        return buckets.get(key, k -> new TokenBucket(policy.capacity(), nowNanos)).tryConsume(policy, nowNanos);
+    }
+
+    long size() {
+        buckets.cleanUp();
+        return buckets.estimatedSize();
+    }
+
+    private static final class TokenBucket {
+        private double tokens;
+        private long refilledAtNanos;
+
+        private TokenBucket(double tokens, long refilledAtNanos) {
+            this.tokens = tokens;
+            this.refilledAtNanos = refilledAtNanos;
+        }
+
+        private synchronized RateLimitDecision tryConsume(RateLimitPolicy policy, long nowNanos) {
+            double tokensPerNano = (double) policy.refillTokens() / policy.refillPeriod().toNanos();
+            long elapsed = nowNanos - refilledAtNanos;
+            if (elapsed > 0) {
+                tokens = Math.min(policy.capacity(), tokens + elapsed * tokensPerNano);
+                refilledAtNanos = nowNanos;
+            }
+            if (tokens >= 1) {
+                tokens -= 1;
+                return RateLimitDecision.allow((long) tokens);
+            }
+            return RateLimitDecision.reject(Duration.ofNanos((long) Math.ceil((1 - tokens) / tokensPerNano)));
+        }
+    }
+}
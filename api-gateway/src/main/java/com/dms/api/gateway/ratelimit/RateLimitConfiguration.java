@@ -0,0 +1,23 @@
+package com.dms.api.gateway.ratelimit;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.gateway.filter.ratelimit.KeyResolver;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(RateLimitProperties.class)
+public class RateLimitConfiguration {
+    @Bean
+    @ConditionalOnMissingBean
+    public KeyResolver rateLimitKeyResolver(RateLimitProperties properties) {
+        return new UserOrIpKeyResolver(properties.trustedProxies());
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public TokenBucketStore tokenBucketStore(RateLimitProperties properties) {
+        return new InMemoryTokenBucketStore(properties.maxKeys(), properties.idleTimeout());
+    }
+}
@@ -0,0 +1,17 @@
+package com.dms.api.gateway.ratelimit;
+
+import java.time.Duration;
+
+/**
+ * Outcome of taking a token: whether the request may pass, the tokens left, and when the next token is available if
+ * it may not.
+ */
+public record RateLimitDecision(boolean allowed, long remaining, Duration retryAfter) {
+    public static RateLimitDecision allow(long remaining) {
+        return new RateLimitDecision(true, remaining, Duration.ZERO);
+    }
+
+    public static RateLimitDecision reject(Duration retryAfter) {
+        return new RateLimitDecision(false, 0, retryAfter);
+    }
+}
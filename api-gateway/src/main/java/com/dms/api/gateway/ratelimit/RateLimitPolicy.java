@@ -0,0 +1,22 @@
+package com.dms.api.gateway.ratelimit;
+
+import java.time.Duration;
+
+/**
+ * Token bucket holding up to {@code capacity} requests, refilled with {@code refillTokens} every {@code refillPeriod}.
+ * The capacity is the burst a client may send at once, the refill is its sustained rate.
+ */
+public record RateLimitPolicy(int capacity, int refillTokens, Duration refillPeriod) {
+    public RateLimitPolicy {
+        if (capacity < 1 || refillTokens < 1 || refillPeriod == null || refillPeriod.isNegative() || refillPeriod.isZero()) {
+            throw new IllegalArgumentException("Rate limit policy needs a positive capacity, refill-tokens and refill-period");
+        }
+    }
+
+    /**
+     * Time an empty bucket takes to fill up again, after which an idle bucket is the same as a new one.
+     */
+    public Duration timeToFill() {
+        return refillPeriod.multipliedBy(capacity).dividedBy(refillTokens).plus(refillPeriod);
+    }
+}
@@ -0,0 +1,38 @@
+package com.dms.api.gateway.ratelimit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Rate limit policies by name, applied to routes in {@link com.dms.api.gateway.config.ApiGatewayConfiguration}.
+ */
+@ConfigurationProperties(prefix = "app.rate-limit")
+public record RateLimitProperties(@DefaultValue("true") boolean enabled,
+                                  @DefaultValue("100000") long maxKeys,
+                                  @DefaultValue("0") int trustedProxies,
+                                  Map<String, RateLimitPolicy> policies) {
+    public RateLimitProperties {
+        policies = policies == null ? Map.of() : Map.copyOf(policies);
+    }
+
+    public RateLimitPolicy policy(String name) {
+        RateLimitPolicy policy = policies.get(name);
+        if (policy == null) {
+            throw new IllegalArgumentException("Unknown rate limit policy '" + name + "', add it under app.rate-limit.policies");
+        }
+        return policy;
+    }
+
+    /**
+     * How long a bucket must be kept after its last request before it is certainly full again.
+     */
+    public Duration idleTimeout() {
+        return policies.values().stream()
+                .map(RateLimitPolicy::timeToFill)
+                .max(Duration::compareTo)
+                .orElse(Duration.ofMinutes(1));
+    }
+}
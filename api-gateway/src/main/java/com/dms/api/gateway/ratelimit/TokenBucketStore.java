@@ -0,0 +1,16 @@
+package com.dms.api.gateway.ratelimit;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Holds the token buckets behind {@link com.dms.api.gateway.filter.RateLimitGatewayFilterFactory}.
+ * {@link InMemoryTokenBucketStore} is used unless another bean is defined, which limits each gateway node on its own.
+ * When several gateway nodes run behind a load balancer, a store shared between them (e.g. Redis) can be provided
+ * instead; it must take the token atomically, since requests for the same key arrive on different nodes at once.
+ */
+public interface TokenBucketStore {
+    /**
+     * Takes one token from the bucket for {@code key}, creating a full bucket for {@code policy} if there is none.
+     */
+    Mono<RateLimitDecision> tryConsume(String key, RateLimitPolicy policy);
+}
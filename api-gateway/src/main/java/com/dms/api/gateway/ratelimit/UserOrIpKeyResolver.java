@@ -0,0 +1,42 @@
+package com.dms.api.gateway.ratelimit;
+
+import com.dms.api.gateway.filter.JwtIdentityFilter;
+import org.springframework.cloud.gateway.filter.ratelimit.KeyResolver;
+import org.springframework.cloud.gateway.support.ipresolver.RemoteAddressResolver;
+import org.springframework.cloud.gateway.support.ipresolver.XForwardedRemoteAddressResolver;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+
+/**
+ * Limits signed-in users by their id and everyone else by client address. The user id is read from the header
+ * {@link JwtIdentityFilter} adds after validating the token, which also removes any value a client sent, so it runs
+ * before this resolver. With {@code trustedProxies} set, the address is taken from the X-Forwarded-For entry the
+ * outermost of those proxies appended; entries before it are ignored because clients can set them.
+ */
+public class UserOrIpKeyResolver implements KeyResolver {
+    private final RemoteAddressResolver remoteAddressResolver;
+
+    public UserOrIpKeyResolver(int trustedProxies) {
+        this.remoteAddressResolver = trustedProxies > 0
+                ? XForwardedRemoteAddressResolver.maxTrustedIndex(trustedProxies)
+                : new RemoteAddressResolver() {
+                };
+    }
+
+    @Override
+    public Mono<String> resolve(ServerWebExchange exchange) {
+        String userId = exchange.getRequest().getHeaders().getFirst(JwtIdentityFilter.USER_ID_HEADER);
+        if (userId != null) {
+            return Mono.just("user:" + userId);
+        }
+        InetSocketAddress remoteAddress = remoteAddressResolver.resolve(exchange);
+        if (remoteAddress == null) {
+            return Mono.empty();
+        }
+        return Mono.just("ip:" + (remoteAddress.getAddress() != null
+                ? remoteAddress.getAddress().getHostAddress()
+                : remoteAddress.getHostString()));
+    }
+}
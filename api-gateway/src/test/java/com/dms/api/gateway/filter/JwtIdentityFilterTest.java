@@ -0,0 +1,117 @@
+package com.dms.api.gateway.filter;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.dms.api.gateway.filter.JwtIdentityFilter.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class JwtIdentityFilterTest {
+    private static final String TOKEN = "header.payload.signature";
+    private static final String USER_ID = "5b0f5c8e-9d3a-4a53-bb7e-4f1de1f5d1a0";
+    private static final Instant ISSUED_AT = Instant.now().minusSeconds(60);
+    private static final Instant EXPIRES_AT = ISSUED_AT.plusSeconds(900);
+
+    private ReactiveJwtDecoder jwtDecoder;
+    private JwtIdentityFilter jwtIdentityFilter;
+    private AtomicReference<ServerHttpRequest> forwarded;
+
+    @BeforeEach
+    void setUp() {
+        jwtDecoder = mock(ReactiveJwtDecoder.class);
+        jwtIdentityFilter = new JwtIdentityFilter(jwtDecoder, "test-secret", 100);
+        forwarded = new AtomicReference<>();
+    }
+
+    @Test
+    void filter_ValidToken_AddsSignedIdentityHeaders() {
+        when(jwtDecoder.decode(TOKEN)).thenReturn(Mono.just(jwt()));
+
+        send(MockServerHttpRequest.get("/document-interaction/api/v1/documents")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + TOKEN));
+
+        HttpHeaders headers = forwarded.get().getHeaders();
+        assertEquals(USER_ID, headers.getFirst(USER_ID_HEADER));
+        assertEquals("testuser", headers.getFirst(USERNAME_HEADER));
+        assertEquals("ROLE_USER", headers.getFirst(ROLES_HEADER));
+        assertEquals(String.valueOf(ISSUED_AT.getEpochSecond()), headers.getFirst(ISSUED_AT_HEADER));
+        assertEquals(String.valueOf(EXPIRES_AT.getEpochSecond()), headers.getFirst(EXPIRES_AT_HEADER));
+        assertEquals(jwtIdentityFilter.sign(USER_ID, "testuser", "ROLE_USER", tokenHash(TOKEN),
+                        headers.getFirst(ISSUED_AT_HEADER), headers.getFirst(EXPIRES_AT_HEADER), headers.getFirst(TIMESTAMP_HEADER)),
+                headers.getFirst(SIGNATURE_HEADER));
+        // The signature is bound to the token it was issued for
+        assertNotEquals(jwtIdentityFilter.sign(USER_ID, "testuser", "ROLE_USER", tokenHash("other.token.value"),
+                        headers.getFirst(ISSUED_AT_HEADER), headers.getFirst(EXPIRES_AT_HEADER), headers.getFirst(TIMESTAMP_HEADER)),
+                headers.getFirst(SIGNATURE_HEADER));
+    }
+
+    @Test
+    void filter_SameToken_DecodedOnce() {
+        when(jwtDecoder.decode(TOKEN)).thenReturn(Mono.just(jwt()));
+
+        send(MockServerHttpRequest.get("/auth/api/v1/users/me").header(HttpHeaders.AUTHORIZATION, "Bearer " + TOKEN));
+        send(MockServerHttpRequest.get("/auth/api/v1/users/me").header(HttpHeaders.AUTHORIZATION, "Bearer " + TOKEN));
+
+        verify(jwtDecoder, times(1)).decode(TOKEN);
+        assertEquals("testuser", forwarded.get().getHeaders().getFirst(USERNAME_HEADER));
+    }
+
+    @Test
+    void filter_InvalidToken_ForwardedWithoutIdentity() {
+        when(jwtDecoder.decode(TOKEN)).thenReturn(Mono.error(new BadJwtException("Jwt expired")));
+
+        send(MockServerHttpRequest.post("/auth/api/v1/auth/refresh-token")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + TOKEN));
+
+        assertNotNull(forwarded.get());
+        assertNull(forwarded.get().getHeaders().getFirst(SIGNATURE_HEADER));
+        assertEquals("Bearer " + TOKEN, forwarded.get().getHeaders().getFirst(HttpHeaders.AUTHORIZATION));
+    }
+
+    @Test
+    void filter_ClientIdentityHeaders_Removed() {
+        send(MockServerHttpRequest.get("/document-search/api/v1/search")
+                .header(USERNAME_HEADER, "admin")
+                .header(ROLES_HEADER, "ROLE_ADMIN")
+                .header(EXPIRES_AT_HEADER, "4102444800")
+                .header(SIGNATURE_HEADER, "forged"));
+
+        HttpHeaders headers = forwarded.get().getHeaders();
+        assertNull(headers.getFirst(USERNAME_HEADER));
+        assertNull(headers.getFirst(ROLES_HEADER));
+        assertNull(headers.getFirst(EXPIRES_AT_HEADER));
+        assertNull(headers.getFirst(SIGNATURE_HEADER));
+        verifyNoInteractions(jwtDecoder);
+    }
+
+    private void send(MockServerHttpRequest.BaseBuilder<?> request) {
+        jwtIdentityFilter.filter(MockServerWebExchange.from(request), exchange -> {
+            forwarded.set(exchange.getRequest());
+            return Mono.empty();
+        }).block();
+    }
+
+    private static Jwt jwt() {
+        return Jwt.withTokenValue(TOKEN)
+                .header("alg", "RS256")
+                .subject("testuser")
+                .claim("uid", USER_ID)
+                .claim("roles", List.of("ROLE_USER"))
+                .issuedAt(ISSUED_AT)
+                .expiresAt(EXPIRES_AT)
+                .build();
+    }
+}
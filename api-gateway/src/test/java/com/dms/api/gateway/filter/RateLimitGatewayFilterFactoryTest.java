@@ -0,0 +1,216 @@
+package com.dms.api.gateway.filter;
+
+import com.dms.api.gateway.ratelimit.InMemoryTokenBucketStore;
+import com.dms.api.gateway.ratelimit.RateLimitPolicy;
+import com.dms.api.gateway.ratelimit.RateLimitProperties;
+import com.dms.api.gateway.ratelimit.TokenBucketStore;
+import com.dms.api.gateway.ratelimit.UserOrIpKeyResolver;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RateLimitGatewayFilterFactoryTest {
+    private static final String PATH = "/document-search/api/v1/search/suggestions";
+
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+
+    @Test
+    void filter_OverLimit_RespondsTooManyRequestsWithRetryAfter() {
+        GatewayFilter filter = filter(new InMemoryTokenBucketStore(100, Duration.ofMinutes(1)));
+
+        MockServerWebExchange first = send(filter, request("user-1"));
+        MockServerWebExchange second = send(filter, request("user-1"));
+        MockServerWebExchange third = send(filter, request("user-1"));
+
+        assertEquals("1", first.getResponse().getHeaders().getFirst(RateLimitGatewayFilterFactory.REMAINING_HEADER));
+        assertNull(second.getResponse().getStatusCode());
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, third.getResponse().getStatusCode());
+        assertEquals("60", third.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertEquals(2, upstreamCalls.get());
+    }
+
+    @Test
+    void filter_DifferentUsersSameAddress_LimitedSeparately() {
+        GatewayFilter filter = filter(new InMemoryTokenBucketStore(100, Duration.ofMinutes(1)));
+
+        send(filter, request("user-1"));
+        send(filter, request("user-1"));
+        MockServerWebExchange otherUser = send(filter, request("user-2"));
+
+        assertNull(otherUser.getResponse().getStatusCode());
+        assertEquals(3, upstreamCalls.get());
+    }
+
+    @Test
+    void filter_AnonymousRequests_LimitedByAddress() {
+        GatewayFilter filter = filter(new InMemoryTokenBucketStore(100, Duration.ofMinutes(1)));
+
+        send(filter, request(null));
+        send(filter, request(null));
+        MockServerWebExchange third = send(filter, request(null));
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, third.getResponse().getStatusCode());
+    }
+
+    @Test
+    void filter_BehindTrustedProxy_LimitedByForwardedAddress() {
+        RateLimitProperties properties = new RateLimitProperties(true, 100, 1,
+                Map.of("typeahead", new RateLimitPolicy(2, 1, Duration.ofMinutes(1))));
+        GatewayFilter filter = new RateLimitGatewayFilterFactory(properties, new UserOrIpKeyResolver(1),
+                new InMemoryTokenBucketStore(100, Duration.ofMinutes(1))).apply("typeahead");
+
+        send(filter, forwardedRequest("203.0.113.7"));
+        send(filter, forwardedRequest("203.0.113.7"));
+        MockServerWebExchange sameClient = send(filter, forwardedRequest("spoofed, 203.0.113.7"));
+        MockServerWebExchange otherClient = send(filter, forwardedRequest("198.51.100.2"));
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, sameClient.getResponse().getStatusCode());
+        assertNull(otherClient.getResponse().getStatusCode());
+    }
+
+    @Test
+    void filter_ChunkRequests_ChargedToRangePolicy() {
+        GatewayFilter filter = downloadFilter();
+
+        MockServerWebExchange download = send(filter, downloadRequest(null, false));
+        MockServerWebExchange firstChunk = send(filter, downloadRequest("bytes=65536-131071", false));
+        send(filter, downloadRequest("bytes=131072-196607", true));
+        send(filter, downloadRequest("bytes=196608-262143", false));
+        MockServerWebExchange fourthChunk = send(filter, downloadRequest("bytes=262144-327679", false));
+        MockServerWebExchange secondDownload = send(filter, downloadRequest(null, false));
+
+        assertNull(download.getResponse().getStatusCode());
+        assertEquals("2", firstChunk.getResponse().getHeaders().getFirst(RateLimitGatewayFilterFactory.REMAINING_HEADER));
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, fourthChunk.getResponse().getStatusCode());
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, secondDownload.getResponse().getStatusCode());
+        assertEquals(4, upstreamCalls.get());
+    }
+
+    @Test
+    void filter_OpenRangeFromStart_ChargedToDownloadPolicy() {
+        GatewayFilter filter = downloadFilter();
+
+        send(filter, downloadRequest("bytes=0-", false));
+        MockServerWebExchange second = send(filter, downloadRequest("bytes=0-", false));
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, second.getResponse().getStatusCode());
+        assertEquals(1, upstreamCalls.get());
+    }
+
+    @Test
+    void filter_IfRangeWithoutRange_ChargedToDownloadPolicy() {
+        GatewayFilter filter = downloadFilter();
+
+        send(filter, downloadRequest(null, true));
+        MockServerWebExchange second = send(filter, downloadRequest(null, true));
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, second.getResponse().getStatusCode());
+        assertEquals(1, upstreamCalls.get());
+    }
+
+    @Test
+    void isChunkRequest_OnlyBoundedRangesPastFirstByte() {
+        assertTrue(isChunk("bytes=1-65536"));
+        assertFalse(isChunk("bytes=0-65535"));
+        assertFalse(isChunk("bytes=65536-"));
+        assertFalse(isChunk("bytes=-65536"));
+        assertFalse(isChunk("bytes=1-10, 20-30"));
+        assertFalse(isChunk("bytes=100-50"));
+        assertTrue(isChunk("bytes=1-" + RateLimitGatewayFilterFactory.MAX_RANGED_READ_BYTES));
+        assertFalse(isChunk("bytes=1-" + (RateLimitGatewayFilterFactory.MAX_RANGED_READ_BYTES + 1)));
+        assertFalse(isChunk("items=1-10"));
+    }
+
+    @Test
+    void filter_StoreFails_RequestAllowed() {
+        TokenBucketStore store = mock(TokenBucketStore.class);
+        when(store.tryConsume(anyString(), any())).thenReturn(Mono.error(new IllegalStateException("store down")));
+
+        MockServerWebExchange exchange = send(filter(store), request("user-1"));
+
+        assertNull(exchange.getResponse().getStatusCode());
+        assertNull(exchange.getResponse().getHeaders().getFirst(RateLimitGatewayFilterFactory.REMAINING_HEADER));
+        assertEquals(1, upstreamCalls.get());
+    }
+
+    @Test
+    void apply_UnknownPolicy_Throws() {
+        RateLimitGatewayFilterFactory factory = new RateLimitGatewayFilterFactory(
+                new RateLimitProperties(true, 100, 0, Map.of()), new UserOrIpKeyResolver(0), mock(TokenBucketStore.class));
+
+        assertThrows(IllegalArgumentException.class, () -> factory.apply("typeahead"));
+    }
+
+    private GatewayFilter filter(TokenBucketStore store) {
+        RateLimitProperties properties = new RateLimitProperties(true, 100, 0,
+                Map.of("typeahead", new RateLimitPolicy(2, 1, Duration.ofMinutes(1))));
+        return new RateLimitGatewayFilterFactory(properties, new UserOrIpKeyResolver(0), store).apply("typeahead");
+    }
+
+    private MockServerWebExchange send(GatewayFilter filter, MockServerHttpRequest request) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(request);
+        filter.filter(exchange, forwarded -> {
+            upstreamCalls.incrementAndGet();
+            return Mono.empty();
+        }).block();
+        return exchange;
+    }
+
+    private static MockServerHttpRequest request(String userId) {
+        MockServerHttpRequest.BaseBuilder<?> request = MockServerHttpRequest.post(PATH)
+                .remoteAddress(new InetSocketAddress("10.0.0.1", 51234));
+        if (userId != null) {
+            request.header(JwtIdentityFilter.USER_ID_HEADER, userId);
+        }
+        return request.build();
+    }
+
+    private static GatewayFilter downloadFilter() {
+        RateLimitProperties properties = new RateLimitProperties(true, 100, 0, Map.of(
+                "download", new RateLimitPolicy(1, 1, Duration.ofMinutes(1)),
+                "ranged-download", new RateLimitPolicy(3, 3, Duration.ofMinutes(1))));
+        return new RateLimitGatewayFilterFactory(properties, new UserOrIpKeyResolver(0),
+                new InMemoryTokenBucketStore(100, Duration.ofMinutes(1))).applyWithRangePolicy("download", "ranged-download");
+    }
+
+    private static boolean isChunk(String range) {
+        return RateLimitGatewayFilterFactory.isChunkRequest(MockServerWebExchange.from(MockServerHttpRequest
+                .get("/document-interaction/api/v1/documents/doc-1/file")
+                .header(HttpHeaders.RANGE, range)));
+    }
+
+    private static MockServerHttpRequest downloadRequest(String range, boolean ifRange) {
+        MockServerHttpRequest.BaseBuilder<?> request = MockServerHttpRequest
+                .get("/document-interaction/api/v1/documents/doc-1/file")
+                .header(JwtIdentityFilter.USER_ID_HEADER, "user-1");
+        if (range != null) {
+            request.header(HttpHeaders.RANGE, range);
+        }
+        if (ifRange) {
+            request.header(HttpHeaders.IF_RANGE, "\"v1\"");
+        }
+        return request.build();
+    }
+
+    private static MockServerHttpRequest forwardedRequest(String forwardedFor) {
+        return MockServerHttpRequest.post(PATH)
+                .remoteAddress(new InetSocketAddress("127.0.0.1", 51234))
+                .header("X-Forwarded-For", forwardedFor)
+                .build();
+    }
+}
@@ -0,0 +1,88 @@
+package com.dms.api.gateway.filter;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+class RequestMetricsFilterTest {
+    private static final String ROUTE_ID = "document-search-service";
+
+    private SimpleMeterRegistry meterRegistry;
+    private RequestMetricsFilter requestMetricsFilter;
+    private UpstreamTimingFilter upstreamTimingFilter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        requestMetricsFilter = new RequestMetricsFilter(meterRegistry, Duration.ofSeconds(2), 1.0);
+        upstreamTimingFilter = new UpstreamTimingFilter(meterRegistry);
+    }
+
+    @Test
+    void filter_RoutedResponse_RecordsTimeSizeAndUpstreamByRouteAndStatus() {
+        MockServerWebExchange exchange = exchange();
+
+        requestMetricsFilter.filter(exchange, forwarded -> upstreamTimingFilter.filter(forwarded, upstream -> {
+            upstream.getResponse().setStatusCode(HttpStatus.OK);
+            return Mono.empty();
+        }).then(Mono.defer(() -> {
+            DataBuffer body = forwarded.getResponse().bufferFactory().wrap("[\"a\",\"b\"]".getBytes(StandardCharsets.UTF_8));
+            return forwarded.getResponse().writeWith(Mono.just(body));
+        }))).block();
+
+        Timer requests = meterRegistry.find("gateway.requests").tags("route", ROUTE_ID, "status", "200").timer();
+        Timer upstream = meterRegistry.find("gateway.upstream").tags("route", ROUTE_ID, "status", "200").timer();
+        DistributionSummary size = meterRegistry.find("gateway.response.size").tags("route", ROUTE_ID).summary();
+        assertEquals(1, requests.count());
+        assertEquals(1, upstream.count());
+        assertEquals(9, size.totalAmount());
+        assertNotNull(exchange.getAttribute(RequestMetricsFilter.UPSTREAM_NANOS_ATTRIBUTE));
+        assertNull(meterRegistry.find("gateway.requests.slow").counter());
+    }
+
+    @Test
+    void filter_UpstreamError_RecordsErrorStatus() {
+        GatewayFilterChain failing = forwarded -> Mono.error(
+                new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Unable to find instance"));
+
+        assertThrows(ResponseStatusException.class, () -> requestMetricsFilter.filter(exchange(), failing).block());
+
+        assertEquals(1, meterRegistry.find("gateway.requests").tags("route", ROUTE_ID, "status", "503").timer().count());
+    }
+
+    @Test
+    void filter_SlowRequest_Counted() {
+        requestMetricsFilter = new RequestMetricsFilter(meterRegistry, Duration.ZERO, 1.0);
+
+        requestMetricsFilter.filter(exchange(), forwarded -> Mono.empty()).block();
+
+        assertEquals(1, meterRegistry.find("gateway.requests.slow").tags("route", ROUTE_ID).counter().count());
+    }
+
+    private static MockServerWebExchange exchange() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(
+                MockServerHttpRequest.post("/document-search/api/v1/search/suggestions"));
+        exchange.getAttributes().put(GATEWAY_ROUTE_ATTR, Route.async()
+                .id(ROUTE_ID)
+                .uri("lb://document-search-service")
+                .predicate(e -> true)
+                .build());
+        return exchange;
+    }
+}
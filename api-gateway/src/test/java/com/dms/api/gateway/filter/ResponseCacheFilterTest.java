@@ -0,0 +1,104 @@
+package com.dms.api.gateway.filter;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResponseCacheFilterTest {
+    private static final String PATH = "/document-interaction/api/v1/master-data/MAJOR";
+    private static final String ETAG = "\"v1\"";
+
+    private ResponseCacheFilter responseCacheFilter;
+    private ConditionalRequestFilter conditionalRequestFilter;
+    private AtomicInteger upstreamCalls;
+
+    @BeforeEach
+    void setUp() {
+        responseCacheFilter = new ResponseCacheFilter(Duration.ofMinutes(5), DataSize.ofMegabytes(1), DataSize.ofKilobytes(10));
+        conditionalRequestFilter = new ConditionalRequestFilter();
+        upstreamCalls = new AtomicInteger();
+    }
+
+    @Test
+    void filter_SameUserAndUri_ServedFromCache() {
+        MockServerWebExchange first = send(request("token-1"), "max-age=60");
+        MockServerWebExchange second = send(request("token-1"), "max-age=60");
+
+        assertEquals(1, upstreamCalls.get());
+        assertEquals(HttpStatus.OK, second.getResponse().getStatusCode());
+        assertEquals("[\"MAJOR\"]", second.getResponse().getBodyAsString().block());
+        assertEquals(first.getResponse().getHeaders().getETag(), second.getResponse().getHeaders().getETag());
+    }
+
+    @Test
+    void filter_OtherUser_NotServedFromCache() {
+        send(request("token-1"), "max-age=60");
+        send(request("token-2"), "max-age=60");
+
+        assertEquals(2, upstreamCalls.get());
+    }
+
+    @Test
+    void filter_NoStoreResponse_NotCached() {
+        send(request("token-1"), "no-cache, no-store, max-age=0, must-revalidate");
+        send(request("token-1"), "no-cache, no-store, max-age=0, must-revalidate");
+
+        assertEquals(2, upstreamCalls.get());
+    }
+
+    @Test
+    void filter_MatchingIfNoneMatch_ReturnsNotModifiedWithoutBody() {
+        send(request("token-1"), "max-age=60");
+        MockServerWebExchange revalidation = send(request("token-1").header(HttpHeaders.IF_NONE_MATCH, "W/" + ETAG),
+                "max-age=60");
+
+        assertEquals(1, upstreamCalls.get());
+        assertEquals(HttpStatus.NOT_MODIFIED, revalidation.getResponse().getStatusCode());
+        assertEquals(ETAG, revalidation.getResponse().getHeaders().getETag());
+        assertEquals("", revalidation.getResponse().getBodyAsString().defaultIfEmpty("").block());
+    }
+
+    @Test
+    void filter_StaleIfNoneMatch_ReturnsFullResponse() {
+        MockServerWebExchange exchange = send(request("token-1").header(HttpHeaders.IF_NONE_MATCH, "\"v0\""),
+                "max-age=60");
+
+        assertEquals(HttpStatus.OK, exchange.getResponse().getStatusCode());
+        assertEquals("[\"MAJOR\"]", exchange.getResponse().getBodyAsString().block());
+    }
+
+    private MockServerHttpRequest.BaseBuilder<?> request(String token) {
+        return MockServerHttpRequest.get(PATH).header(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+    }
+
+    private MockServerWebExchange send(MockServerHttpRequest.BaseBuilder<?> request, String cacheControl) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(request);
+        GatewayFilterChain upstream = upstreamExchange -> {
+            upstreamCalls.incrementAndGet();
+            assertNull(upstreamExchange.getRequest().getHeaders().getFirst(HttpHeaders.IF_NONE_MATCH));
+            ServerHttpResponse response = upstreamExchange.getResponse();
+            response.setStatusCode(HttpStatus.OK);
+            response.getHeaders().setETag(ETAG);
+            response.getHeaders().setCacheControl(cacheControl);
+            return response.writeWith(Mono.just(response.bufferFactory()
+                    .wrap("[\"MAJOR\"]".getBytes(StandardCharsets.UTF_8))));
+        };
+        conditionalRequestFilter.filter(exchange,
+                        conditionalExchange -> responseCacheFilter.filter(conditionalExchange, upstream))
+                .block();
+        return exchange;
+    }
+}
@@ -0,0 +1,60 @@
+package com.dms.api.gateway.filter;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.dms.api.gateway.filter.TraceContextFilter.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class TraceContextFilterTest {
+    private static final String TRACE_ID = "4bf92f3577b34da6a3ce929d0e0e4736";
+
+    private final TraceContextFilter traceContextFilter = new TraceContextFilter();
+    private final AtomicReference<ServerHttpRequest> forwarded = new AtomicReference<>();
+
+    @Test
+    void filter_IncomingTraceparent_KeepsTraceIdWithGatewaySpan() {
+        MockServerWebExchange exchange = send(MockServerHttpRequest.get("/auth/api/v1/users/me")
+                .header(TRACEPARENT_HEADER, "00-" + TRACE_ID + "-00f067aa0ba902b7-01"));
+
+        String traceparent = forwarded.get().getHeaders().getFirst(TRACEPARENT_HEADER);
+        assertTrue(traceparent.matches("00-" + TRACE_ID + "-[0-9a-f]{16}-01"));
+        assertFalse(traceparent.contains("00f067aa0ba902b7"));
+        assertEquals(TRACE_ID, exchange.getResponse().getHeaders().getFirst(TRACE_ID_HEADER));
+        assertEquals(TRACE_ID, exchange.getAttribute(TRACE_ID_ATTRIBUTE));
+    }
+
+    @Test
+    void filter_NoTraceparent_StartsTrace() {
+        MockServerWebExchange exchange = send(MockServerHttpRequest.get("/auth/api/v1/users/me"));
+
+        String traceparent = forwarded.get().getHeaders().getFirst(TRACEPARENT_HEADER);
+        String traceId = exchange.getResponse().getHeaders().getFirst(TRACE_ID_HEADER);
+        assertTrue(traceparent.matches("00-[0-9a-f]{32}-[0-9a-f]{16}-00"));
+        assertEquals(traceparent.substring(3, 35), traceId);
+    }
+
+    @Test
+    void filter_InvalidTraceparent_Replaced() {
+        send(MockServerHttpRequest.get("/auth/api/v1/users/me")
+                .header(TRACEPARENT_HEADER, "00-" + "0".repeat(32) + "-00f067aa0ba902b7-01"));
+
+        String traceparent = forwarded.get().getHeaders().getFirst(TRACEPARENT_HEADER);
+        assertFalse(traceparent.startsWith("00-" + "0".repeat(32)));
+        assertTrue(traceparent.endsWith("-00"));
+    }
+
+    private MockServerWebExchange send(MockServerHttpRequest.BaseBuilder<?> request) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(request);
+        traceContextFilter.filter(exchange, forwardedExchange -> {
+            forwarded.set(forwardedExchange.getRequest());
+            return Mono.empty();
+        }).block();
+        return exchange;
+    }
+}
@@ -0,0 +1,60 @@
+package com.dms.api.gateway.ratelimit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemoryTokenBucketStoreTest {
+    private static final RateLimitPolicy POLICY = new RateLimitPolicy(3, 1, Duration.ofSeconds(1));
+
+    private InMemoryTokenBucketStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new InMemoryTokenBucketStore(100, Duration.ofMinutes(1));
+    }
+
+    @Test
+    void tryConsume_WithinCapacity_Allowed() {
+        assertEquals(2, store.tryConsume("user:1", POLICY, 0).remaining());
+        assertEquals(1, store.tryConsume("user:1", POLICY, 0).remaining());
+        assertEquals(0, store.tryConsume("user:1", POLICY, 0).remaining());
+    }
+
+    @Test
+    void tryConsume_BucketEmpty_RejectedUntilRefilled() {
+        for (int i = 0; i < 3; i++) {
+            store.tryConsume("user:1", POLICY, 0);
+        }
+
+        RateLimitDecision rejected = store.tryConsume("user:1", POLICY, Duration.ofMillis(400).toNanos());
+        RateLimitDecision allowed = store.tryConsume("user:1", POLICY, Duration.ofSeconds(1).toNanos());
+
+        assertFalse(rejected.allowed());
+        assertEquals(Duration.ofMillis(600), rejected.retryAfter());
+        assertTrue(allowed.allowed());
+    }
+
+    @Test
+    void tryConsume_Refill_CappedAtCapacity() {
+        store.tryConsume("user:1", POLICY, 0);
+
+        RateLimitDecision decision = store.tryConsume("user:1", POLICY, Duration.ofMinutes(5).toNanos());
+
+        assertEquals(2, decision.remaining());
+    }
+
+    @Test
+    void tryConsume_OtherKey_HasOwnBucket() {
+        for (int i = 0; i < 3; i++) {
+            store.tryConsume("user:1", POLICY, 0);
+        }
+
+        assertFalse(store.tryConsume("user:1", POLICY, 0).allowed());
+        assertTrue(store.tryConsume("ip:10.0.0.1", POLICY, 0).allowed());
+        assertEquals(2, store.size());
+    }
+}
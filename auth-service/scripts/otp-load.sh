@@ -0,0 +1,64 @@
+#!/bin/bash
+
+# Load test of the login -> OTP verification flow that credential stuffing goes through. Each client logs in to one
+# of the given unverified accounts and then submits wrong OTPs, so the run shows the latency of each step and how
+# many guesses are answered as locked. Run against a local stack, with accounts that share a password:
+#   PASSWORD=<password> ./scripts/otp-load.sh [clients] [attempts per client] username...
+
+AUTH_URL="${AUTH_URL:-http://localhost:8086/auth}"
+CLIENTS="${1:-20}"
+ATTEMPTS="${2:-20}"
+shift 2
+
+if [ -z "$PASSWORD" ]; then
+  echo "PASSWORD must be set to the accounts' password"
+  exit 1
+fi
+
+USERNAMES=("$@")
+if [ ${#USERNAMES[@]} -eq 0 ]; then
+  echo "At least one unverified username is required"
+  exit 1
+fi
+
+RESULTS=$(mktemp)
+trap 'rm -f "$RESULTS"' EXIT
+
+# Appends "<step> <status> <seconds> <locked>" for the request
+request() {
+  local step="$1" url="$2" body="$3"
+  local response status time locked
+  response=$(curl -s -w "\n%{http_code} %{time_total}" -H "Content-Type: application/json" -d "$body" "$url")
+  read -r status time <<< "$(tail -n 1 <<< "$response")"
+  locked=$(grep -Eq '"locked": *true' <<< "$response" && echo 1 || echo 0)
+  echo "$step $status $time $locked" >> "$RESULTS"
+}
+
+client() {
+  local username="$1"
+  request login "$AUTH_URL/api/v1/auth/login" "{\"identifier\":\"$username\",\"password\":\"$PASSWORD\"}"
+  for ((i = 0; i < ATTEMPTS; i++)); do
+    # Never the real OTP, which only goes out by email
+    request otp "$AUTH_URL/api/v1/auth/otp/verify" "{\"username\":\"$username\",\"otp\":\"$(printf "%06d" $((RANDOM % 1000000)))\"}"
+  done
+}
+
+start=$(date +%s%N)
+for ((c = 0; c < CLIENTS; c++)); do
+  client "${USERNAMES[$((c % ${#USERNAMES[@]}))]}" &
+done
+wait
+elapsed_ms=$((($(date +%s%N) - start) / 1000000))
+
+printf "%-6s %8s %8s %8s %8s %8s %8s %8s\n" "STEP" "REQUESTS" "ERRORS" "LOCKED" "AVG" "P50" "P95" "P99"
+for step in login otp; do
+  grep "^$step " "$RESULTS" | sort -k3 -n | awk -v step="$step" '
+    function percentile(p,   rank) { rank = int(NR * p); if (rank < NR * p) rank++; return times[rank > 0 ? rank : 1] }
+    { times[NR] = $3; total += $3; if ($2 !~ /^2/) errors++; locked += $4 }
+    END {
+      if (NR == 0) exit
+      printf "%-6s %8d %8d %8d %8.4f %8.4f %8.4f %8.4f\n", step, NR, errors, locked, total / NR,
+        percentile(0.50), percentile(0.95), percentile(0.99)
+    }'
+done
+echo "$(wc -l < "$RESULTS") requests in ${elapsed_ms}ms"
@@ -0,0 +1,149 @@
+package com.dms.auth.service.impl;
+
+import com.dms.auth.dto.UserSearchResponse;
+import com.dms.auth.dto.UserSummary;
+import com.dms.auth.dto.request.UserSummaryRequest;
+import com.dms.auth.repository.UserRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.flywaydb.core.Flyway;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the previous {@code /users/details} lookup, loading whole users with their role, with the summary
+ * projection behind {@code /users/summaries}, for 1 to 1000 ids out of {@code USERS}. Runs against a PostgreSQL
+ * container.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UserSummaryBenchmark {
+    private static final int USERS = 20_000;
+    private static final int INSERT_BATCH = 1_000;
+
+    @Param({"1", "10", "100", "1000"})
+    private int idCount;
+
+    private PostgreSQLContainer<?> postgres;
+    private HikariDataSource dataSource;
+    private EntityManagerFactory entityManagerFactory;
+    private EntityManager entityManager;
+    private UserServiceImpl userService;
+    private List<UUID> ids;
+    private UserSummaryRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        postgres = new PostgreSQLContainer<>(DockerImageName.parse("postgres:16-alpine"));
+        postgres.start();
+        Flyway.configure()
+                .dataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword())
+                .schemas("dms")
+                .table("schema_history")
+                .load()
+                .migrate();
+
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(postgres.getJdbcUrl() + "&currentSchema=dms");
+        dataSource.setUsername(postgres.getUsername());
+        dataSource.setPassword(postgres.getPassword());
+        List<UUID> userIds = seed();
+
+        LocalContainerEntityManagerFactoryBean factoryBean = new LocalContainerEntityManagerFactoryBean();
+        factoryBean.setDataSource(dataSource);
+        factoryBean.setPackagesToScan("com.dms.auth.entity");
+        factoryBean.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        factoryBean.afterPropertiesSet();
+        entityManagerFactory = factoryBean.getObject();
+        entityManager = entityManagerFactory.createEntityManager();
+
+        userService = new UserServiceImpl();
+        ReflectionTestUtils.setField(userService, "userRepository",
+                new JpaRepositoryFactory(entityManager).getRepository(UserRepository.class));
+
+        Collections.shuffle(userIds, new Random(42));
+        ids = List.copyOf(userIds.subList(0, idCount));
+        request = new UserSummaryRequest();
+        request.setUserIds(ids);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        entityManager.close();
+        entityManagerFactory.close();
+        dataSource.close();
+        postgres.stop();
+    }
+
+    @Benchmark
+    public List<UserSearchResponse> previousLookup() {
+        List<UserSearchResponse> users = userService.getUsersByIds(ids);
+        // Each request starts with an empty persistence context
+        entityManager.clear();
+        return users;
+    }
+
+    @Benchmark
+    public List<UserSummary> summaryLookup() {
+        List<UserSummary> summaries = userService.getUserSummaries(request);
+        entityManager.clear();
+        return summaries;
+    }
+
+    private List<UUID> seed() throws Exception {
+        List<UUID> userIds = new ArrayList<>(USERS);
+        Timestamp now = Timestamp.from(Instant.now());
+        try (Connection connection = dataSource.getConnection()) {
+            UUID roleId;
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "SELECT role_id FROM roles WHERE role_name = 'ROLE_USER'");
+                 ResultSet resultSet = statement.executeQuery()) {
+                resultSet.next();
+                roleId = resultSet.getObject(1, UUID.class);
+            }
+
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "INSERT INTO users (user_id, username, email, password, role_id, created_by, created_at, updated_by, updated_at) " +
+                            "VALUES (?, ?, ?, ?, ?, 'benchmark', ?, 'benchmark', ?)")) {
+                for (int i = 0; i < USERS; i++) {
+                    UUID userId = UUID.randomUUID();
+                    userIds.add(userId);
+                    statement.setObject(1, userId);
+                    statement.setString(2, "user" + i);
+                    statement.setString(3, "user" + i + "@example.com");
+                    statement.setString(4, "$2a$10$benchmarkbenchmarkbenchmarkbenchmarkbenchmarkbenchmark");
+                    statement.setObject(5, roleId);
+                    statement.setTimestamp(6, now);
+                    statement.setTimestamp(7, now);
+                    statement.addBatch();
+                    if ((i + 1) % INSERT_BATCH == 0) {
+                        statement.executeBatch();
+                    }
+                }
+            }
+        }
+        return userIds;
+    }
+}
@@ -1,8 +1,14 @@
 package com.dms.auth.config;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.amqp.core.AnonymousQueue;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.FanoutExchange;
+import org.springframework.amqp.core.Queue;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
 import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -11,6 +17,9 @@ public class RabbitMQConfig {
 
     private final ObjectMapper objectMapper;
 
+    @Value("${rabbitmq.exchanges.auth-revocation}")
+    private String revocationExchange;
+
     public RabbitMQConfig(ObjectMapper objectMapper) {
         this.objectMapper = objectMapper;
     }
@@ -20,4 +29,22 @@ public class RabbitMQConfig {
         return new Jackson2JsonMessageConverter(objectMapper);
     }
 
-}
\ No newline at end of file
+    @Bean
+    public FanoutExchange revocationExchange() {
+        return new FanoutExchange(revocationExchange);
+    }
+
+    /**
+     * Every auth-service instance gets its own auto-deleted queue, so each one receives every revocation
+     */
+    @Bean
+    public Queue revocationQueue() {
+        return new AnonymousQueue();
+    }
+
+    @Bean
+    public Binding revocationBinding(Queue revocationQueue, FanoutExchange revocationExchange) {
+        return BindingBuilder.bind(revocationQueue).to(revocationExchange);
+    }
+
+}
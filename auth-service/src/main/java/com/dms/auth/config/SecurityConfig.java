@@ -2,8 +2,13 @@ package com.dms.auth.config;
 
 import com.dms.auth.security.jwt.AuthEntryPointJwt;
 import com.dms.auth.security.jwt.AuthTokenFilter;
-import com.dms.auth.security.jwt.JwtUtils;
 import com.dms.auth.security.oauth2.OAuth2AuthenticationSuccessHandler;
+import com.dms.auth.service.JwtKeyService;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -41,7 +46,7 @@ public class SecurityConfig {
     private AuthTokenFilter authenticationJwtTokenFilter;
 
     @Autowired
-    private JwtUtils jwtUtils;
+    private JwtKeyService jwtKeyService;
 
     @Bean
     public AuthTokenFilter authenticationJwtTokenFilter() {
@@ -78,8 +83,11 @@ public class SecurityConfig {
 
     @Bean
     public JwtDecoder jwtDecoder() {
-        return NimbusJwtDecoder.withPublicKey(jwtUtils.getPublicKey())
-                .build();
+        // Selects among all published keys by kid, so rotation does not require rebuilding the decoder
+        JWKSource<SecurityContext> jwkSource = (jwkSelector, context) -> jwkSelector.select(jwtKeyService.getJwkSet());
+        DefaultJWTProcessor<SecurityContext> jwtProcessor = new DefaultJWTProcessor<>();
+        jwtProcessor.setJWSKeySelector(new JWSVerificationKeySelector<>(JWSAlgorithm.RS256, jwkSource));
+        return new NimbusJwtDecoder(jwtProcessor);
     }
 
     @Bean
@@ -0,0 +1,21 @@
+package com.dms.auth.consumer;
+
+import com.dms.auth.dto.RevocationEvent;
+import com.dms.auth.service.TokenRevocationService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RevocationEventConsumer {
+    private final TokenRevocationService tokenRevocationService;
+
+    @RabbitListener(queues = "#{revocationQueue.name}")
+    public void consumeRevocationEvent(RevocationEvent event) {
+        log.debug("Received {} revocation for user {}", event.getType(), event.getUsername());
+        tokenRevocationService.apply(event);
+    }
+}
@@ -1,11 +1,10 @@
 package com.dms.auth.controller;
 
-import com.dms.auth.dto.UserDto;
 import com.dms.auth.dto.request.UserSearchRequest;
+import com.dms.auth.dto.response.UserListResponse;
 import com.dms.auth.entity.Role;
 import com.dms.auth.service.AdminService;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.http.ResponseEntity;
@@ -22,7 +21,7 @@ public class AdminController {
     private final AdminService adminService;
 
     @PostMapping("/users")
-    public ResponseEntity<Page<UserDto>> getAllUsers(
+    public ResponseEntity<UserListResponse> getAllUsers(
             @RequestBody UserSearchRequest userSearchRequest) {
         return ResponseEntity.ok(
                 adminService.getAllUsers(userSearchRequest)
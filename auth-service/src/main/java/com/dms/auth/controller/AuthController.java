@@ -43,8 +43,9 @@ public class AuthController {
 
     @PostMapping("/logout")
     public ResponseEntity<Void> logout(
-            @Valid @RequestBody RefreshTokenRequest request) {
-        userService.logout(request.getRefreshToken());
+            @Valid @RequestBody RefreshTokenRequest request,
+            HttpServletRequest httpRequest) {
+        userService.logout(request.getRefreshToken(), httpRequest);
         return ResponseEntity.ok().build();
     }
 
@@ -2,10 +2,13 @@ package com.dms.auth.controller;
 
 import com.dms.auth.security.jwt.JwtUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.time.Duration;
 import java.util.Map;
 
 @RestController
@@ -13,8 +16,14 @@ public class JwkSetRestController {
     @Autowired
     private JwtUtils jwtUtils;
 
+    // Keys are published ahead of use, so resource servers and proxies may cache the set this long
+    @Value("${app.jwt.keystore.jwks-max-age:15m}")
+    private Duration jwksMaxAge;
+
     @GetMapping("/.well-known/jwks.json")
     public ResponseEntity<Map<String, Object>> jwks() {
-        return ResponseEntity.ok(jwtUtils.getJwks());
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(jwksMaxAge).cachePublic())
+                .body(jwtUtils.getJwks());
     }
 }
\ No newline at end of file
@@ -2,10 +2,12 @@ package com.dms.auth.controller;
 
 import com.dms.auth.dto.UserDto;
 import com.dms.auth.dto.UserSearchResponse;
+import com.dms.auth.dto.UserSummary;
 import com.dms.auth.dto.request.UpdatePasswordRequest;
 import com.dms.auth.dto.request.UpdateProfileRequest;
 import com.dms.auth.dto.request.UpdateStatusRequest;
 import com.dms.auth.dto.request.UpdateUserRequest;
+import com.dms.auth.dto.request.UserSummaryRequest;
 import com.dms.auth.exception.InvalidRequestException;
 import com.dms.auth.security.request.Verify2FARequest;
 import com.dms.auth.security.response.UserInfoResponse;
@@ -14,12 +16,19 @@ import com.warrenstrange.googleauth.GoogleAuthenticatorKey;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.*;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.List;
 import java.util.UUID;
 
@@ -29,6 +38,9 @@ import java.util.UUID;
 public class UserController {
     private final UserService userService;
 
+    @Value("${app.user-summary.max-age:30s}")
+    private Duration summaryMaxAge;
+
     @GetMapping
     @PreAuthorize("@userSecurity.isCurrentUsername()")
     public ResponseEntity<UserDto> getUserByUsername(@RequestParam String username) {
@@ -134,4 +146,37 @@ public class UserController {
     public ResponseEntity<List<UserSearchResponse>> getUsersByIds(@RequestBody @Valid @Size(max = 100) List<UUID> userIds) {
         return ResponseEntity.ok(userService.getUsersByIds(userIds));
     }
+
+    // GET requests with a matching If-None-Match are answered with 304 by Spring
+    @GetMapping("/summaries")
+    @PreAuthorize("hasRole('SERVICE')")
+    public ResponseEntity<UserSummary> getUserSummary(@RequestParam String username) {
+        UserSummary summary = userService.getUserSummary(username);
+        return ResponseEntity.ok()
+                .eTag(summariesETag(List.of(summary)))
+                .cacheControl(CacheControl.maxAge(summaryMaxAge).cachePrivate())
+                .body(summary);
+    }
+
+    @PostMapping("/summaries")
+    @PreAuthorize("hasRole('SERVICE')")
+    public ResponseEntity<List<UserSummary>> getUserSummaries(
+            @RequestBody @Valid UserSummaryRequest request,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        List<UserSummary> summaries = userService.getUserSummaries(request);
+        String eTag = summariesETag(summaries);
+        if (eTag.equals(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .cacheControl(CacheControl.maxAge(summaryMaxAge).cachePrivate())
+                .body(summaries);
+    }
+
+    private static String summariesETag(List<UserSummary> summaries) {
+        StringBuilder versions = new StringBuilder(summaries.size() * 52);
+        summaries.forEach(summary -> versions.append(summary.userId()).append(':').append(summary.version()).append(','));
+        return "\"" + DigestUtils.md5DigestAsHex(versions.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
 }
\ No newline at end of file
@@ -1,6 +1,9 @@
 package com.dms.auth.cronjob;
 
+import com.dms.auth.service.OtpService;
+import com.dms.auth.service.TokenRevocationService;
 import com.dms.auth.service.TokenService;
+import com.dms.auth.service.UserService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Configuration;
@@ -13,12 +16,28 @@ import org.springframework.scheduling.annotation.Scheduled;
 @Configuration
 public class ClearExpiredTokenJob {
     private final TokenService tokenService;
+    private final TokenRevocationService tokenRevocationService;
+    private final OtpService otpService;
+    private final UserService userService;
 
 //    @Scheduled(cron = "0 0 * * * *")
     @Scheduled(cron = "0 0 */6 * * *")
     public void clearExpiredToken() {
         log.info("Clear Expired Token Job Start");
         tokenService.removeExpiredTokens();
+        tokenRevocationService.removeExpiredRevocations();
+        otpService.removeExpiredOtps();
+        userService.removeExpiredPasswordResetTokens();
         log.info("Clear Expired Token Job End");
     }
+
+    @Scheduled(fixedDelayString = "${app.auth.revocation.reload-interval:300000}",
+            initialDelayString = "${app.auth.revocation.reload-interval:300000}")
+    public void reloadRevocations() {
+        try {
+            tokenRevocationService.reloadRevocations();
+        } catch (Exception e) {
+            log.error("Failed to reload token revocations", e);
+        }
+    }
 }
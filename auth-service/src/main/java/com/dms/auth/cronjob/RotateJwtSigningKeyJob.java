@@ -0,0 +1,37 @@
+package com.dms.auth.cronjob;
+
+import com.dms.auth.service.JwtKeyService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Rotates the signing keys shared by all instances, and reloads them so that every instance signs with a new key
+ * once it activates. The reload interval plus the JWKS max age must stay below {@code app.jwt.keystore.publish-ahead}.
+ */
+@RequiredArgsConstructor
+@Slf4j
+@EnableScheduling
+@Configuration
+public class RotateJwtSigningKeyJob {
+    private final JwtKeyService jwtKeyService;
+
+    @Scheduled(cron = "${app.jwt.keystore.rotation-cron:0 0 * * * *}")
+    public void rotateJwtSigningKeys() {
+        log.info("Rotate JWT Signing Key Job Start");
+        jwtKeyService.rotateKeys();
+        log.info("Rotate JWT Signing Key Job End");
+    }
+
+    @Scheduled(fixedDelayString = "${app.jwt.keystore.reload-interval:300000}",
+            initialDelayString = "${app.jwt.keystore.reload-interval:300000}")
+    public void reloadJwtSigningKeys() {
+        try {
+            jwtKeyService.reloadKeys();
+        } catch (Exception e) {
+            log.error("Failed to reload JWT signing keys", e);
+        }
+    }
+}
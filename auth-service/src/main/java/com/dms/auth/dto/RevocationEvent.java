@@ -0,0 +1,21 @@
+package com.dms.auth.dto;
+
+import com.dms.auth.enums.RevocationType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RevocationEvent {
+    private RevocationType type;
+    private String username;
+    private String tokenId;
+    private Instant revokedBefore;
+    private Instant expiresAt;
+}
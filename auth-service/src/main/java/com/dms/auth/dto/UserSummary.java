@@ -0,0 +1,13 @@
+package com.dms.auth.dto;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Slim view of a user for other services. {@code version} changes whenever the user row is updated.
+ */
+public record UserSummary(UUID userId, String username, String email, long version) {
+    public UserSummary(UUID userId, String username, String email, Instant updatedAt) {
+        this(userId, username, email, updatedAt != null ? updatedAt.toEpochMilli() : 0L);
+    }
+}
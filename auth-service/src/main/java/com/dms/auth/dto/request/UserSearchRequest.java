@@ -1,12 +1,13 @@
 package com.dms.auth.dto.request;
 
+/**
+ * @param cursor {@code nextCursor} of the previous page, empty for the first page
+ */
 public record UserSearchRequest(
         String search,
         Boolean enabled,
         String role,
-        String sortField,
-        String sortDirection,
-        int page,
+        String cursor,
         int size
 ) {
 }
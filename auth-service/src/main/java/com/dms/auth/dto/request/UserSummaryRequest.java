@@ -0,0 +1,16 @@
+package com.dms.auth.dto.request;
+
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+public class UserSummaryRequest {
+    @Size(max = 1000, message = "At most 1000 user ids per request")
+    private List<UUID> userIds;
+
+    @Size(max = 1000, message = "At most 1000 usernames per request")
+    private List<String> usernames;
+}
@@ -0,0 +1,18 @@
+package com.dms.auth.dto.response;
+
+import com.dms.auth.dto.UserDto;
+
+import java.util.List;
+
+/**
+ * A page of users ordered by username.
+ *
+ * @param nextCursor cursor for the following page, null on the last page
+ * @param totalUsers users matching the filters, only counted for the first page
+ */
+public record UserListResponse(
+        List<UserDto> users,
+        String nextCursor,
+        Long totalUsers
+) {
+}
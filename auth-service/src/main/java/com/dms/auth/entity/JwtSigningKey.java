@@ -0,0 +1,37 @@
+package com.dms.auth.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Setter
+@Getter
+@Entity
+@Table(name = "jwt_signing_keys")
+public class JwtSigningKey {
+    @Id
+    @Column(name = "kid", updatable = false, nullable = false, length = 64)
+    private String kid;
+
+    // Base64 X.509 encoding
+    @Column(name = "public_key", nullable = false, columnDefinition = "TEXT")
+    private String publicKey;
+
+    // Base64 of the IV followed by the AES-GCM encrypted PKCS#8 encoding
+    @Column(name = "private_key", nullable = false, columnDefinition = "TEXT")
+    private String privateKey;
+
+    @Column(name = "active_from", nullable = false)
+    private Instant activeFrom;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+}
@@ -0,0 +1,10 @@
+package com.dms.auth.enums;
+
+public enum RevocationType {
+    // A single access token, by jti
+    TOKEN,
+    // Every access token of a user issued up to a point in time
+    USER_TOKENS,
+    // The user's roles, lock or credentials changed, cached details must be reloaded
+    USER_DETAILS
+}
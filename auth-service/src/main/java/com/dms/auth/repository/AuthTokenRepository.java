@@ -34,6 +34,8 @@ public interface AuthTokenRepository extends JpaRepository<AuthToken, UUID> {
     void revokeAllUserTokensByType(User user, TokenType tokenType);
 
     @Modifying
-    @Query("DELETE FROM AuthToken t WHERE t.expiryDate < :now")
-    void deleteAllExpiredTokens(Instant now);
+    @Query(value = "DELETE FROM auth_tokens WHERE id IN " +
+            "(SELECT id FROM auth_tokens WHERE expiry_date < :now ORDER BY expiry_date LIMIT :batchSize)",
+            nativeQuery = true)
+    int deleteExpiredTokens(Instant now, int batchSize);
 }
\ No newline at end of file
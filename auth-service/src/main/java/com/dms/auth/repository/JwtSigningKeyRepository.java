@@ -0,0 +1,19 @@
+package com.dms.auth.repository;
+
+import com.dms.auth.entity.JwtSigningKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface JwtSigningKeyRepository extends JpaRepository<JwtSigningKey, String> {
+    List<JwtSigningKey> findAllByOrderByActiveFromAsc();
+
+    /**
+     * Takes a transaction scoped advisory lock, so only one instance rotates keys at a time.
+     */
+    @Query(value = "SELECT pg_try_advisory_xact_lock(:lockId)", nativeQuery = true)
+    boolean tryAdvisoryLock(long lockId);
+}
@@ -2,6 +2,7 @@ package com.dms.auth.repository;
 
 import com.dms.auth.entity.OtpVerification;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
@@ -11,10 +12,45 @@ import java.util.UUID;
 
 @Repository
 public interface OtpVerificationRepository extends JpaRepository<OtpVerification, UUID> {
+    // The attempt count after this attempt, starting over once an earlier lock has ended
+    String ATTEMPTS = "(CASE WHEN o.locked_until IS NULL THEN o.attempt_count ELSE 0 END + 1)";
+
     Optional<OtpVerification> findByEmailAndValidatedFalse(String email);
 
     @Query("SELECT o FROM OtpVerification o WHERE o.user.username = :username AND o.validated = false")
     Optional<OtpVerification> findValidOtpByUsername(String username);
 
-    boolean existsByEmailAndLockedUntilAfter(String email, Instant now);
-}
\ No newline at end of file
+    /**
+     * Counts an attempt against the user's pending OTP in one statement: locks it when the attempt reaches
+     * {@code maxAttempts}, otherwise validates it if {@code otp} matches. Only an OTP that is neither locked nor
+     * expired is updated, and concurrent attempts are serialized on its row.
+     *
+     * @return the state after the attempt, empty if the user has no OTP that can be attempted
+     */
+    @Query(value = "UPDATE otp_verifications o SET " +
+            "attempt_count = " + ATTEMPTS + ", " +
+            "locked_until = CASE WHEN " + ATTEMPTS + " >= :maxAttempts THEN CAST(:lockUntil AS timestamptz) END, " +
+            "is_validated = " + ATTEMPTS + " < :maxAttempts AND o.otp = :otp, " +
+            "updated_at = :now " +
+            "FROM users u " +
+            "WHERE u.username = :username AND o.user_id = u.user_id AND o.is_validated = false " +
+            "AND (o.locked_until IS NULL OR o.locked_until <= :now) AND o.expiry_time >= :now " +
+            "RETURNING o.attempt_count AS attempts, o.locked_until IS NOT NULL AS locked, o.is_validated AS validated",
+            nativeQuery = true)
+    Optional<OtpAttempt> recordAttempt(String username, String otp, int maxAttempts, Instant now, Instant lockUntil);
+
+    @Modifying
+    @Query(value = "DELETE FROM otp_verifications WHERE id IN " +
+            "(SELECT id FROM otp_verifications WHERE expiry_time < :before " +
+            "AND (locked_until IS NULL OR locked_until < :before) ORDER BY expiry_time LIMIT :batchSize)",
+            nativeQuery = true)
+    int deleteExpired(Instant before, int batchSize);
+
+    interface OtpAttempt {
+        int getAttempts();
+
+        boolean getLocked();
+
+        boolean getValidated();
+    }
+}
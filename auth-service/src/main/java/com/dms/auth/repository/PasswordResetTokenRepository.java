@@ -3,10 +3,11 @@ package com.dms.auth.repository;
 import com.dms.auth.entity.PasswordResetToken;
 import feign.Param;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
-import java.util.List;
+import java.time.Instant;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -17,6 +18,13 @@ public interface PasswordResetTokenRepository extends JpaRepository<PasswordRese
     @Query("SELECT t FROM PasswordResetToken t WHERE t.user.email = :email AND t.used = false ORDER BY t.createdAt DESC LIMIT 1")
     Optional<PasswordResetToken> findLatestByUserEmail(@Param("email") String email);
 
-    @Query(value = "SELECT t.* FROM password_reset_token t WHERE t.user_id = :userId", nativeQuery = true)
-    List<PasswordResetToken> findAllByUserId(UUID userId);
+    @Modifying
+    @Query("UPDATE PasswordResetToken t SET t.used = true, t.updatedAt = :now WHERE t.user.userId = :userId AND t.used = false")
+    int markUnusedTokensUsed(UUID userId, Instant now);
+
+    @Modifying
+    @Query(value = "DELETE FROM password_reset_token WHERE id IN " +
+            "(SELECT id FROM password_reset_token WHERE expiry_date < :before ORDER BY expiry_date LIMIT :batchSize)",
+            nativeQuery = true)
+    int deleteExpired(Instant before, int batchSize);
 }
@@ -1,12 +1,15 @@
 package com.dms.auth.repository;
 
+import com.dms.auth.dto.UserSummary;
 import com.dms.auth.entity.Role;
 import com.dms.auth.entity.User;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -19,9 +22,25 @@ public interface UserRepository extends JpaRepository<User, UUID>, JpaSpecificat
     boolean existsByUsername(String username);
     boolean existsByEmail(String email);
 
+    // Only the secret is needed to check a TOTP code, the role and the rest of the user are not loaded
+    @Query("SELECT u.twoFactorSecret FROM User u WHERE u.username = :username")
+    Optional<String> findTwoFactorSecretByUsername(String username);
+
     @Query("SELECT COUNT(u) FROM User u WHERE u.role = :role")
     long countByRole(Role role);
 
-    List<User> findByUsernameContainingIgnoreCaseOrEmailContainingIgnoreCase(
-            String username, String email);
+    // Served by the trigram indexes on lower(username) and lower(email)
+    @Query("SELECT new com.dms.auth.dto.UserSummary(u.userId, u.username, u.email, u.updatedAt) FROM User u " +
+            "WHERE lower(u.username) LIKE :pattern ESCAPE '\\' OR lower(u.email) LIKE :pattern ESCAPE '\\' " +
+            "ORDER BY u.username")
+    List<UserSummary> searchSummaries(String pattern, Limit limit);
+
+    // Summaries select only user columns, without loading the role
+    @Query("SELECT new com.dms.auth.dto.UserSummary(u.userId, u.username, u.email, u.updatedAt) " +
+            "FROM User u WHERE u.userId IN :userIds")
+    List<UserSummary> findSummariesByUserIdIn(Collection<UUID> userIds);
+
+    @Query("SELECT new com.dms.auth.dto.UserSummary(u.userId, u.username, u.email, u.updatedAt) " +
+            "FROM User u WHERE u.username IN :usernames")
+    List<UserSummary> findSummariesByUsernameIn(Collection<String> usernames);
 }
\ No newline at end of file
@@ -47,7 +47,7 @@ public class AuthTokenFilter extends OncePerRequestFilter {
 
             if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
                 String username = jwtUtils.getUserNameFromJwtToken(jwt);
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+                UserDetails userDetails = userDetailsService.loadCachedUserByUsername(username);
 
                 // Get existing authorities
                 Collection<? extends GrantedAuthority> existingAuthorities = userDetails.getAuthorities();
@@ -1,27 +1,16 @@
 package com.dms.auth.security.jwt;
 
-import com.dms.auth.entity.AuthToken;
-import com.dms.auth.enums.TokenType;
-import com.dms.auth.service.TokenService;
-import com.nimbusds.jose.JWSAlgorithm;
-import com.nimbusds.jose.jwk.JWKSet;
-import com.nimbusds.jose.jwk.KeyUse;
-import com.nimbusds.jose.jwk.RSAKey;
+import com.dms.auth.service.JwtKeyService;
+import com.dms.auth.service.TokenRevocationService;
 import com.dms.auth.security.service.CustomUserDetails;
 import io.jsonwebtoken.*;
-import jakarta.annotation.PostConstruct;
 import jakarta.servlet.http.HttpServletRequest;
-import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.codec.digest.DigestUtils;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.stereotype.Component;
 
-import java.security.KeyPair;
-import java.security.KeyPairGenerator;
-import java.security.interfaces.RSAPrivateKey;
-import java.security.interfaces.RSAPublicKey;
+import java.security.Key;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -31,31 +20,20 @@ public class JwtUtils {
     @Value("${spring.app.accessTokenExpirationMs}")
     private int accessTokenExpirationMs;
 
-    private final TokenService tokenService;
+    private final TokenRevocationService tokenRevocationService;
+    private final JwtKeyService jwtKeyService;
 
-    private RSAPrivateKey privateKey;
-    @Getter
-    private RSAPublicKey publicKey;
-    private String keyId;
-
-    public JwtUtils(TokenService tokenService) {
-        this.tokenService = tokenService;
-    }
-
-    @PostConstruct
-    public void init() {
-        try {
-            KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("RSA");
-            keyPairGenerator.initialize(2048);
-            KeyPair keyPair = keyPairGenerator.generateKeyPair();
-
-            this.privateKey = (RSAPrivateKey) keyPair.getPrivate();
-            this.publicKey = (RSAPublicKey) keyPair.getPublic();
-            this.keyId = UUID.randomUUID().toString();
-        } catch (Exception e) {
-            log.error("Failed to initialize JWT keys", e);
-            throw new RuntimeException("Failed to initialize JWT keys", e);
+    // Tokens name the key they were signed with, so tokens from earlier keys stay valid after a rotation
+    private final Locator<Key> keyLocator = new LocatorAdapter<>() {
+        @Override
+        protected Key locate(JwsHeader header) {
+            return header.getKeyId() != null ? jwtKeyService.findPublicKey(header.getKeyId()) : null;
         }
+    };
+
+    public JwtUtils(TokenRevocationService tokenRevocationService, JwtKeyService jwtKeyService) {
+        this.tokenRevocationService = tokenRevocationService;
+        this.jwtKeyService = jwtKeyService;
     }
 
     public String getJwtFromHeader(HttpServletRequest request) {
@@ -67,15 +45,19 @@ public class JwtUtils {
     }
 
     public String generateTokenFromUsername(CustomUserDetails userDetails) {
+        SigningKey signingKey = jwtKeyService.getSigningKey();
         Map<String, Object> headers = new HashMap<>();
-        headers.put("kid", keyId);
+        headers.put("kid", signingKey.keyId());
         headers.put("typ", "JWT");
 
         return Jwts.builder()
                 .header().add(headers)
                 .and()
                 .issuer("dms-auth-service")
+                .id(UUID.randomUUID().toString())
                 .subject(userDetails.getUsername())
+                // Lets the gateway and services identify the user without looking up the username
+                .claim("uid", userDetails.getId() != null ? userDetails.getId().toString() : null)
                 .claim("is2faEnabled", userDetails.is2faEnabled())
                 .claim("accountNonLocked", userDetails.isAccountNonLocked())
                 .claim("enabled", userDetails.isEnabled())
@@ -84,42 +66,55 @@ public class JwtUtils {
                         .collect(Collectors.toList()))
                 .issuedAt(new Date())
                 .expiration(new Date((new Date()).getTime() + accessTokenExpirationMs))
-                .signWith(privateKey, SignatureAlgorithm.RS256)
+                .signWith(signingKey.privateKey(), SignatureAlgorithm.RS256)
                 .compact();
     }
 
     public String getUserNameFromJwtToken(String token) {
         return Jwts.parser()
-                .verifyWith(publicKey)
+                .keyLocator(keyLocator)
                 .build()
                 .parseSignedClaims(token)
                 .getPayload()
                 .getSubject();
     }
 
-    public Map<String, Object> getJwks() {
-        RSAKey.Builder builder = new RSAKey.Builder(publicKey)
-                .keyID(keyId)
-                .algorithm(JWSAlgorithm.RS256)
-                .keyUse(KeyUse.SIGNATURE);
+    /**
+     * Reads the claims of a token signed by this service, including one that has expired.
+     *
+     * @return empty if the token is malformed or its signature does not verify
+     */
+    public Optional<Claims> getVerifiedClaims(String token) {
+        try {
+            return Optional.of(Jwts.parser()
+                    .keyLocator(keyLocator)
+                    .build()
+                    .parseSignedClaims(token)
+                    .getPayload());
+        } catch (ExpiredJwtException e) {
+            return Optional.of(e.getClaims());
+        } catch (JwtException | IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
 
-        JWKSet jwkSet = new JWKSet(builder.build());
-        return jwkSet.toJSONObject();
+    public Map<String, Object> getJwks() {
+        return jwtKeyService.getJwkSet().toJSONObject();
     }
 
     public boolean validateJwtToken(String authToken) {
         try {
-            // Perform existing signature validation
-            Jwts.parser()
-                    .verifyWith(publicKey)
+            Claims claims = Jwts.parser()
+                    .keyLocator(keyLocator)
                     .build()
-                    .parseSignedClaims(authToken);
-
-            // Check if token has been revoked by its hash
-            String tokenHash = DigestUtils.sha256Hex(authToken);
-            Optional<AuthToken> storedToken = tokenService.findByTokenAndType(tokenHash, TokenType.ACCESS);
-            if (storedToken.isPresent() && storedToken.get().isRevoked()) {
-                log.info("JWT token is revoked: {}", authToken);
+                    .parseSignedClaims(authToken)
+                    .getPayload();
+
+            // Revocations are held in memory, so validating a token never queries the database
+            Date issuedAt = claims.getIssuedAt();
+            if (tokenRevocationService.isRevoked(claims.getSubject(), claims.getId(),
+                    issuedAt != null ? issuedAt.toInstant() : null)) {
+                log.info("JWT token is revoked for user {}", claims.getSubject());
                 return false;
             }
 
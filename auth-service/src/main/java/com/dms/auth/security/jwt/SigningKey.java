@@ -0,0 +1,11 @@
+package com.dms.auth.security.jwt;
+
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Instant;
+
+/**
+ * A decrypted signing key as held in memory.
+ */
+public record SigningKey(String keyId, RSAPrivateKey privateKey, RSAPublicKey publicKey, Instant activeFrom) {
+}
@@ -156,9 +156,6 @@ public class OAuth2AuthenticationSuccessHandler extends SavedRequestAwareAuthent
         Set<SimpleGrantedAuthority> authorities = getUpdatedAuthorities(oauth2User, user);
         String jwtToken = generateJwtToken(user, email, authorities);
 
-        // Save access token
-        tokenService.createAccessToken(user, jwtToken, request);
-
         // Generate refresh token
         AuthToken refreshToken = tokenService.createRefreshToken(user, request);
 
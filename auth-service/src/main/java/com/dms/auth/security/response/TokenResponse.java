@@ -32,6 +32,10 @@ public class TokenResponse {
     @With
     private boolean expired;
 
+    // Set when the attempt was refused by the per-instance attempt limiter, the OTP itself is not locked
+    @With
+    private boolean rateLimited;
+
     public TokenResponse(String accessToken, String refreshToken, String tokenType, String username, List<String> roles) {
         this.accessToken = accessToken;
         this.refreshToken = refreshToken;
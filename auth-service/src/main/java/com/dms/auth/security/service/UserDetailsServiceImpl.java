@@ -2,19 +2,42 @@ package com.dms.auth.security.service;
 
 import com.dms.auth.entity.User;
 import com.dms.auth.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
+
 
 @Service
 public class UserDetailsServiceImpl implements UserDetailsService {
     @Autowired
     private UserRepository userRepository;
 
+    @Value("${app.auth.user-details-cache.ttl:5m}")
+    private Duration cacheTtl;
+
+    @Value("${app.auth.user-details-cache.max-size:10000}")
+    private int cacheMaxSize;
+
+    private Cache<String, UserDetails> cache;
+
+    @PostConstruct
+    public void init() {
+        // Evicts the least recently used users when full, rather than dropping every cached entry at once
+        cache = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfterWrite(cacheTtl)
+                .build();
+    }
+
     @Override
     @Transactional
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
@@ -23,4 +46,17 @@ public class UserDetailsServiceImpl implements UserDetailsService {
 
         return CustomUserDetails.build(user);
     }
+
+    /**
+     * Details of an authenticated request's user. Entries are evicted on role, lock, password or 2FA changes,
+     * on any instance, and expire after the TTL in case an eviction event was missed.
+     * Logins keep using {@link #loadUserByUsername} so the password is always checked against the database.
+     */
+    public UserDetails loadCachedUserByUsername(String username) throws UsernameNotFoundException {
+        return cache.get(username, this::loadUserByUsername);
+    }
+
+    public void evict(String username) {
+        cache.invalidate(username);
+    }
 }
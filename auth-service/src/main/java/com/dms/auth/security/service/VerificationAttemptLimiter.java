@@ -0,0 +1,106 @@
+package com.dms.auth.security.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Caps OTP and TOTP verification attempts per username on this instance, so guesses over the limit and guesses
+ * against an OTP known to be locked are rejected without a database round trip. The lockout stored on the OTP row
+ * stays authoritative across instances; this only keeps repeated attempts from reaching it.
+ */
+@Component
+public class VerificationAttemptLimiter {
+    private final int maxAttempts;
+    private final Duration window;
+    private final int maxKeys;
+
+    // Username -> attempts in the current window and the OTP lock seen for it
+    private final Map<String, Attempts> attempts = new ConcurrentHashMap<>();
+
+    public VerificationAttemptLimiter(@Value("${app.otp.limiter.max-attempts:10}") int maxAttempts,
+                                      @Value("${app.otp.limiter.window:5m}") Duration window,
+                                      @Value("${app.otp.limiter.max-keys:100000}") int maxKeys) {
+        this.maxAttempts = maxAttempts;
+        this.window = window;
+        this.maxKeys = maxKeys;
+    }
+
+    /**
+     * Counts an attempt for the username.
+     *
+     * @return false if the username is locked or has used up its attempts in the current window
+     */
+    public boolean tryAcquire(String username) {
+        return tryAcquire(username, Instant.now());
+    }
+
+    boolean tryAcquire(String username, Instant now) {
+        if (attempts.size() >= maxKeys && !attempts.containsKey(username)) {
+            attempts.values().removeIf(current -> current.isOver(now));
+            if (attempts.size() >= maxKeys) {
+                // Every tracked username is still active, leave new ones to the database lockout
+                return true;
+            }
+        }
+
+        boolean[] acquired = new boolean[1];
+        attempts.compute(username, (key, current) -> {
+            if (current == null || current.isOver(now)) {
+                acquired[0] = true;
+                return new Attempts(now.plus(window), 1, null);
+            }
+            if (current.isLocked(now) || current.count() >= maxAttempts) {
+                return current;
+            }
+            acquired[0] = true;
+            return new Attempts(current.windowEnd(), current.count() + 1, current.lockedUntil());
+        });
+        return acquired[0];
+    }
+
+    /**
+     * Rejects attempts for the username until the lock stored for its OTP ends.
+     */
+    public void lock(String username, Instant lockedUntil) {
+        attempts.compute(username, (key, current) -> new Attempts(
+                current != null ? current.windowEnd() : lockedUntil, current != null ? current.count() : 0, lockedUntil));
+    }
+
+    /**
+     * Whether attempts for the username are rejected because of a lock seen for its OTP, rather than the attempt cap.
+     */
+    public boolean isLocked(String username) {
+        return isLocked(username, Instant.now());
+    }
+
+    boolean isLocked(String username, Instant now) {
+        Attempts current = attempts.get(username);
+        return current != null && current.isLocked(now);
+    }
+
+    /**
+     * Forgets the username's attempts after a successful verification or when a new OTP is issued.
+     */
+    public void reset(String username) {
+        attempts.remove(username);
+    }
+
+    int size() {
+        return attempts.size();
+    }
+
+    private record Attempts(Instant windowEnd, int count, Instant lockedUntil) {
+        boolean isLocked(Instant now) {
+            return lockedUntil != null && now.isBefore(lockedUntil);
+        }
+
+        boolean isOver(Instant now) {
+            return !now.isBefore(windowEnd) && !isLocked(now);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.dms.auth.service;
+
+import com.dms.auth.security.jwt.SigningKey;
+import com.nimbusds.jose.jwk.JWKSet;
+
+import java.security.interfaces.RSAPublicKey;
+
+public interface JwtKeyService {
+    /**
+     * Returns the key new tokens are signed with, the latest one whose activation time has passed
+     */
+    SigningKey getSigningKey();
+
+    /**
+     * Finds the public key with the given key id, reloading the keys once when it is not known yet
+     */
+    RSAPublicKey findPublicKey(String keyId);
+
+    /**
+     * Returns the public keys that tokens may currently be verified with: the upcoming key, the signing key and
+     * earlier keys whose tokens have not expired yet
+     */
+    JWKSet getJwkSet();
+
+    /**
+     * Publishes the next signing key ahead of its activation once the current one is due for rotation,
+     * and removes keys whose tokens have all expired
+     */
+    void rotateKeys();
+
+    /**
+     * Reloads the keys from the database to pick up rotations made by other instances
+     */
+    void reloadKeys();
+}
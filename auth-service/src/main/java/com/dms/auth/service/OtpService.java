@@ -36,4 +36,9 @@ public interface OtpService {
      * @throws IllegalStateException if no valid OTP found
      */
     TokenResponse verifyOtp(String username, String otp, HttpServletRequest request);
+
+    /**
+     * Removes OTPs that expired before the purge retention, in small batches.
+     */
+    void removeExpiredOtps();
 }
\ No newline at end of file
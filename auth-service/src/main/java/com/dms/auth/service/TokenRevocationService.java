@@ -0,0 +1,42 @@
+package com.dms.auth.service;
+
+import com.dms.auth.dto.RevocationEvent;
+
+import java.time.Instant;
+
+public interface TokenRevocationService {
+    /**
+     * Checks an access token against the revocations held in memory, without a database query
+     */
+    boolean isRevoked(String username, String tokenId, Instant issuedAt);
+
+    /**
+     * Revokes a single access token until it expires, on every instance
+     */
+    void revokeToken(String username, String tokenId, Instant expiresAt);
+
+    /**
+     * Revokes every access token issued to the user so far, on every instance
+     */
+    void revokeUserTokens(String username);
+
+    /**
+     * Evicts the cached details of a user whose roles, lock or credentials changed, on every instance
+     */
+    void userDetailsChanged(String username);
+
+    /**
+     * Applies a revocation published by any instance, this one included
+     */
+    void apply(RevocationEvent event);
+
+    /**
+     * Reloads unexpired revocations from the database, covering events missed while disconnected
+     */
+    void reloadRevocations();
+
+    /**
+     * Drops revocations whose tokens have all expired, in memory and in the database
+     */
+    void removeExpiredRevocations();
+}
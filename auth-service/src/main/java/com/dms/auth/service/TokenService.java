@@ -9,11 +9,6 @@ import java.util.List;
 import java.util.Optional;
 
 public interface TokenService {
-    /**
-     * Creates a new access token for the user
-     */
-    AuthToken createAccessToken(User user, String jwtToken, HttpServletRequest request);
-
     /**
      * Creates a new refresh token for the user
      */
@@ -50,7 +45,7 @@ public interface TokenService {
     void revokeAllUserTokens(User user);
 
     /**
-     * Revokes all tokens of a specific type for a user
+     * Revokes all tokens of a specific type for a user. Access tokens are not stored, so they are revoked by user.
      */
     void revokeAllUserTokensByType(User user, TokenType tokenType);
 
@@ -65,7 +60,7 @@ public interface TokenService {
     List<AuthToken> findActiveTokensByUserAndType(User user, TokenType tokenType);
 
     /**
-     * Removes all expired tokens from the database
+     * Removes all expired tokens from the database, in small batches
      */
     void removeExpiredTokens();
 }
\ No newline at end of file
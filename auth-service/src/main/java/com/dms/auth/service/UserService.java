@@ -2,6 +2,7 @@ package com.dms.auth.service;
 
 import com.dms.auth.dto.UserDto;
 import com.dms.auth.dto.UserSearchResponse;
+import com.dms.auth.dto.UserSummary;
 import com.dms.auth.dto.request.*;
 import com.dms.auth.exception.InvalidRequestException;
 import com.dms.auth.security.request.Verify2FARequest;
@@ -17,7 +18,7 @@ import java.util.UUID;
 public interface UserService {
     TokenResponse authenticateUser(LoginRequest loginRequest, HttpServletRequest request);
     TokenResponse refreshToken(String refreshToken);
-    void logout(String refreshToken);
+    void logout(String refreshToken, HttpServletRequest request);
     void registerUser(SignupRequest signupRequest);
     UserInfoResponse getUserInfo(UserDetails userDetails);
 
@@ -25,6 +26,11 @@ public interface UserService {
     void resetPassword(String token, String newPassword);
     void updatePassword(UUID userId, UpdatePasswordRequest request, UserDetails currentUser) throws InvalidRequestException;
 
+    /**
+     * Removes password reset tokens that expired before the purge retention, in small batches
+     */
+    void removeExpiredPasswordResetTokens();
+
     UserDto getUserById(UUID id);
     void updateUserRole(UUID userId, String roleName, UserDetails currentUser);
     UserDto getUserByUsername(String username);
@@ -42,4 +48,10 @@ public interface UserService {
 
     List<UserSearchResponse> searchUsers(String query);
     List<UserSearchResponse> getUsersByIds(List<UUID> userIds);
+
+    /**
+     * Summaries of the users matching any of the given ids or usernames, ordered by user id
+     */
+    List<UserSummary> getUserSummaries(UserSummaryRequest request);
+    UserSummary getUserSummary(String username);
 }
\ No newline at end of file
@@ -1,7 +1,7 @@
 package com.dms.auth.service.impl;
 
-import com.dms.auth.dto.UserDto;
 import com.dms.auth.dto.request.UserSearchRequest;
+import com.dms.auth.dto.response.UserListResponse;
 import com.dms.auth.entity.Role;
 import com.dms.auth.entity.User;
 import com.dms.auth.enums.AppRole;
@@ -9,13 +9,16 @@ import com.dms.auth.mapper.UserMapper;
 import com.dms.auth.repository.RoleRepository;
 import com.dms.auth.repository.UserRepository;
 import com.dms.auth.service.AdminService;
+import com.dms.auth.util.SearchPatterns;
 import lombok.RequiredArgsConstructor;
 import org.apache.commons.lang3.BooleanUtils;
 import org.apache.commons.lang3.StringUtils;
-import org.springframework.data.domain.*;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
 import java.util.Collections;
 import java.util.List;
 import java.util.regex.Pattern;
@@ -23,6 +26,9 @@ import java.util.regex.Pattern;
 @Service
 @RequiredArgsConstructor
 public class AdminServiceImpl implements AdminService {
+    private static final int DEFAULT_PAGE_SIZE = 10;
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final UserMapper userMapper;
     private final UserRepository userRepository;
     private final RoleRepository roleRepository;
@@ -31,7 +37,7 @@ public class AdminServiceImpl implements AdminService {
     private static final Pattern SEARCH_VALIDATION_PATTERN = Pattern.compile("^[a-zA-Z0-9.@_\\-\\s]*$");
 
     @Override
-    public Page<UserDto> getAllUsers(UserSearchRequest userSearchRequest) {
+    public UserListResponse getAllUsers(UserSearchRequest userSearchRequest) {
         Specification<User> spec = Specification.where(null);
 
         if (StringUtils.isNotEmpty(userSearchRequest.search()) && !userSearchRequest.search().trim().isEmpty()) {
@@ -40,18 +46,14 @@ public class AdminServiceImpl implements AdminService {
             // Validate search term to ensure it doesn't contain unsafe characters
             if (!SEARCH_VALIDATION_PATTERN.matcher(searchTerm).matches()) {
                 // If invalid characters, return empty result set
-                return new PageImpl<>(Collections.emptyList(), PageRequest.of(userSearchRequest.page(), userSearchRequest.size()), 0);
+                return new UserListResponse(Collections.emptyList(), null, 0L);
             }
 
-            // Escape special SQL LIKE characters if needed
-            String escapedSearchTerm = searchTerm
-                    .replace("%", "\\%")
-                    .replace("_", "\\_");
-
+            String pattern = SearchPatterns.contains(searchTerm);
             spec = spec.and((root, query, cb) ->
                     cb.or(
-                            cb.like(cb.lower(root.get("username")), "%" + escapedSearchTerm.toLowerCase() + "%", '\\'),
-                            cb.like(cb.lower(root.get("email")), "%" + escapedSearchTerm.toLowerCase() + "%", '\\')
+                            cb.like(cb.lower(root.get("username")), pattern, SearchPatterns.ESCAPE),
+                            cb.like(cb.lower(root.get("email")), pattern, SearchPatterns.ESCAPE)
                     )
             );
         }
@@ -66,21 +68,43 @@ public class AdminServiceImpl implements AdminService {
             );
         }
 
-        Pageable pageable = PageRequest.ofSize(10);
-        // Add default sort by username if no sort is specified
-        if (StringUtils.isEmpty(userSearchRequest.sortField()) || StringUtils.isEmpty(userSearchRequest.sortDirection())) {
-            pageable = PageRequest.of(
-                    userSearchRequest.page(),
-                    userSearchRequest.size(),
-                    Sort.by(Sort.Direction.ASC, "username")
-            );
+        // Only the first page is counted, following pages seek past the last username instead of skipping rows
+        Long totalUsers = null;
+        Specification<User> pageSpec = spec;
+        if (StringUtils.isEmpty(userSearchRequest.cursor())) {
+            totalUsers = userRepository.count(spec);
+        } else {
+            String after = decodeCursor(userSearchRequest.cursor());
+            pageSpec = spec.and((root, query, cb) -> cb.greaterThan(root.get("username"), after));
         }
 
-        return userRepository.findAll(spec, pageable).map(userMapper::convertToDto);
+        int size = userSearchRequest.size() > 0 ? Math.min(userSearchRequest.size(), MAX_PAGE_SIZE) : DEFAULT_PAGE_SIZE;
+        List<User> users = userRepository.findBy(pageSpec, query -> query
+                .sortBy(Sort.by(Sort.Direction.ASC, "username"))
+                .limit(size + 1)
+                .all());
+
+        boolean hasMore = users.size() > size;
+        List<User> page = hasMore ? users.subList(0, size) : users;
+        String nextCursor = hasMore ? encodeCursor(page.get(page.size() - 1).getUsername()) : null;
+
+        return new UserListResponse(page.stream().map(userMapper::convertToDto).toList(), nextCursor, totalUsers);
     }
 
     @Override
     public List<Role> getAllRoles() {
         return roleRepository.findAll();
     }
-}
\ No newline at end of file
+
+    private static String encodeCursor(String username) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(username.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decodeCursor(String cursor) {
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("INVALID_CURSOR");
+        }
+    }
+}
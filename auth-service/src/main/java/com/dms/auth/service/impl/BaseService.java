@@ -24,9 +24,6 @@ public abstract class BaseService {
         // Generate JWT token
         String jwt = jwtUtils.generateTokenFromUsername(userDetails);
 
-        // Save access token
-        tokenService.createAccessToken(user, jwt, request);
-
         // Create refresh token
         AuthToken refreshToken = tokenService.createRefreshToken(user, request);
 
@@ -0,0 +1,209 @@
+package com.dms.auth.service.impl;
+
+import com.dms.auth.entity.JwtSigningKey;
+import com.dms.auth.repository.JwtSigningKeyRepository;
+import com.dms.auth.security.jwt.JwtKeyCipher;
+import com.dms.auth.security.jwt.SigningKey;
+import com.dms.auth.service.JwtKeyService;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.KeyUse;
+import com.nimbusds.jose.jwk.RSAKey;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class JwtKeyServiceImpl implements JwtKeyService {
+    private static final long ROTATION_LOCK_ID = 4_120_731_905L;
+    // Tokens with an unknown key id reload the keys at most this often
+    private static final Duration RELOAD_ON_MISS_INTERVAL = Duration.ofSeconds(30);
+
+    private final JwtSigningKeyRepository jwtSigningKeyRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.jwt.keystore.encryption-key}")
+    private String encryptionKey;
+
+    @Value("${app.jwt.keystore.rotation-period:30d}")
+    private Duration rotationPeriod;
+
+    @Value("${app.jwt.keystore.publish-ahead:1h}")
+    private Duration publishAhead;
+
+    @Value("${spring.app.accessTokenExpirationMs}")
+    private long accessTokenExpirationMs;
+
+    private JwtKeyCipher keyCipher;
+    // Ordered by activation time
+    private volatile List<SigningKey> keys = List.of();
+    private volatile Instant lastReload = Instant.EPOCH;
+
+    @PostConstruct
+    public void init() {
+        if (StringUtils.isBlank(encryptionKey)) {
+            throw new IllegalStateException("app.jwt.keystore.encryption-key must be set");
+        }
+        keyCipher = new JwtKeyCipher(encryptionKey);
+        reloadKeys();
+        if (keys.isEmpty()) {
+            rotateKeys();
+        }
+    }
+
+    @Override
+    public SigningKey getSigningKey() {
+        SigningKey signingKey = findSigningKey(keys, Instant.now());
+        if (signingKey == null) {
+            // The first key may just have been created by another instance
+            reloadKeys();
+            signingKey = findSigningKey(keys, Instant.now());
+        }
+        if (signingKey == null) {
+            throw new IllegalStateException("No active JWT signing key");
+        }
+        return signingKey;
+    }
+
+    @Override
+    public RSAPublicKey findPublicKey(String keyId) {
+        SigningKey key = findKey(keys, keyId);
+        if (key == null && Instant.now().isAfter(lastReload.plus(RELOAD_ON_MISS_INTERVAL))) {
+            reloadKeys();
+            key = findKey(keys, keyId);
+        }
+        return key != null ? key.publicKey() : null;
+    }
+
+    @Override
+    public JWKSet getJwkSet() {
+        List<SigningKey> current = keys;
+        Instant now = Instant.now();
+        List<JWK> published = new ArrayList<>();
+        for (int i = 0; i < current.size(); i++) {
+            Instant signingEnded = i + 1 < current.size() ? current.get(i + 1).activeFrom() : null;
+            if (signingEnded == null || signingEnded.plus(tokenLifetime()).isAfter(now)) {
+                published.add(new RSAKey.Builder(current.get(i).publicKey())
+                        .keyID(current.get(i).keyId())
+                        .algorithm(JWSAlgorithm.RS256)
+                        .keyUse(KeyUse.SIGNATURE)
+                        .build());
+            }
+        }
+        return new JWKSet(published);
+    }
+
+    @Override
+    public void rotateKeys() {
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!jwtSigningKeyRepository.tryAdvisoryLock(ROTATION_LOCK_ID)) {
+                log.info("JWT signing keys are being rotated by another instance");
+                return;
+            }
+            Instant now = Instant.now();
+            List<JwtSigningKey> stored = jwtSigningKeyRepository.findAllByOrderByActiveFromAsc();
+
+            List<JwtSigningKey> expired = new ArrayList<>();
+            for (int i = 0; i + 1 < stored.size(); i++) {
+                if (!stored.get(i + 1).getActiveFrom().plus(tokenLifetime()).isAfter(now)) {
+                    expired.add(stored.get(i));
+                }
+            }
+            if (!expired.isEmpty()) {
+                jwtSigningKeyRepository.deleteAllInBatch(expired);
+                log.info("Removed {} JWT signing keys whose tokens have expired", expired.size());
+            }
+
+            JwtSigningKey latest = stored.isEmpty() ? null : stored.get(stored.size() - 1);
+            if (latest == null) {
+                JwtSigningKey created = jwtSigningKeyRepository.save(generateKey(now, now));
+                log.info("Created JWT signing key {}", created.getKid());
+            } else if (!latest.getActiveFrom().plus(rotationPeriod).isAfter(now.plus(publishAhead))) {
+                // Published now, signing only once resource servers have had time to fetch it
+                JwtSigningKey created = jwtSigningKeyRepository.save(generateKey(now.plus(publishAhead), now));
+                log.info("Created JWT signing key {} active from {}", created.getKid(), created.getActiveFrom());
+            }
+        });
+        reloadKeys();
+    }
+
+    @Override
+    public void reloadKeys() {
+        keys = jwtSigningKeyRepository.findAllByOrderByActiveFromAsc().stream()
+                .map(this::toSigningKey)
+                .toList();
+        lastReload = Instant.now();
+    }
+
+    private JwtSigningKey generateKey(Instant activeFrom, Instant now) {
+        try {
+            KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("RSA");
+            keyPairGenerator.initialize(2048);
+            KeyPair keyPair = keyPairGenerator.generateKeyPair();
+            return JwtSigningKey.builder()
+                    .kid(UUID.randomUUID().toString())
+                    .publicKey(Base64.getEncoder().encodeToString(keyPair.getPublic().getEncoded()))
+                    .privateKey(keyCipher.encrypt(keyPair.getPrivate().getEncoded()))
+                    .activeFrom(activeFrom)
+                    .createdAt(now)
+                    .build();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Failed to generate JWT signing key", e);
+        }
+    }
+
+    private SigningKey toSigningKey(JwtSigningKey stored) {
+        try {
+            KeyFactory keyFactory = KeyFactory.getInstance("RSA");
+            RSAPublicKey publicKey = (RSAPublicKey) keyFactory.generatePublic(
+                    new X509EncodedKeySpec(Base64.getDecoder().decode(stored.getPublicKey())));
+            RSAPrivateKey privateKey = (RSAPrivateKey) keyFactory.generatePrivate(
+                    new PKCS8EncodedKeySpec(keyCipher.decrypt(stored.getPrivateKey())));
+            return new SigningKey(stored.getKid(), privateKey, publicKey, stored.getActiveFrom());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Failed to load JWT signing key " + stored.getKid(), e);
+        }
+    }
+
+    private Duration tokenLifetime() {
+        return Duration.ofMillis(accessTokenExpirationMs);
+    }
+
+    private static SigningKey findSigningKey(List<SigningKey> keys, Instant now) {
+        for (int i = keys.size() - 1; i >= 0; i--) {
+            if (!keys.get(i).activeFrom().isAfter(now)) {
+                return keys.get(i);
+            }
+        }
+        return null;
+    }
+
+    private static SigningKey findKey(List<SigningKey> keys, String keyId) {
+        return keys.stream()
+                .filter(key -> key.keyId().equals(keyId))
+                .findFirst()
+                .orElse(null);
+    }
+}
@@ -7,17 +7,19 @@ import com.dms.auth.repository.OtpVerificationRepository;
 import com.dms.auth.repository.UserRepository;
 import com.dms.auth.security.response.TokenResponse;
 import com.dms.auth.security.service.CustomUserDetails;
+import com.dms.auth.security.service.VerificationAttemptLimiter;
 import com.dms.auth.service.OtpService;
 import com.dms.auth.service.PublishEventService;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.security.SecureRandom;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.Objects;
@@ -35,12 +37,27 @@ public class OtpServiceImpl extends BaseService implements OtpService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private VerificationAttemptLimiter attemptLimiter;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
     @Value("${app.otp.expiry-minutes:5}")
     private int otpExpiryMinutes;
 
     @Value("${app.otp.lock-minutes:30}")
     private int lockMinutes;
 
+    @Value("${app.otp.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${app.auth.token-purge.batch-size:1000}")
+    private int purgeBatchSize;
+
+    @Value("${app.auth.token-purge.retention:1d}")
+    private Duration purgeRetention;
+
     private final Random random = new SecureRandom();
 
     @Override
@@ -58,20 +75,17 @@ public class OtpServiceImpl extends BaseService implements OtpService {
 
     @Override
     public void generateAndSendOtp(User user) {
-        // Check if user is locked
-        if (otpVerificationRepository.existsByEmailAndLockedUntilAfter(
-                user.getEmail(), Instant.now())) {
+        // The pending OTP carries the lock, so one lookup both checks it and finds the row to reuse
+        OtpVerification verification = otpVerificationRepository
+                .findByEmailAndValidatedFalse(user.getEmail())
+                .orElse(new OtpVerification());
+        if (verification.isLocked()) {
             throw new IllegalStateException("Account is temporarily locked. Please try again later.");
         }
 
         // Generate 6-digit OTP
         String otp = String.format("%06d", random.nextInt(1000000));
 
-        // Save or update OTP
-        OtpVerification verification = otpVerificationRepository
-                .findByEmailAndValidatedFalse(user.getEmail())
-                .orElse(new OtpVerification());
-
         verification.setOtp(otp);
         verification.setEmail(user.getEmail());
         verification.setUser(user);
@@ -84,6 +98,8 @@ public class OtpServiceImpl extends BaseService implements OtpService {
         verification.setUpdatedBy(user.getUsername());
 
         otpVerificationRepository.save(verification);
+        // A new OTP starts with a fresh attempt budget, as its database attempt count does
+        attemptLimiter.reset(user.getUsername());
 
         // Send OTP
         publishEventService.sendOtpEmail(user, otp);
@@ -92,77 +108,80 @@ public class OtpServiceImpl extends BaseService implements OtpService {
     @Override
     @Transactional
     public TokenResponse verifyOtp(String username, String otp, HttpServletRequest request) {
-        OtpVerification verification = otpVerificationRepository
-                .findValidOtpByUsername(username)
-                .orElseThrow(() -> new IllegalStateException("No valid OTP found"));
-
-        // Check if verification is locked
-        if (verification.isLocked()) {
-            return new TokenResponse(
-                    verification.getAttemptCount(),
-                    verification.isLocked(),
-                    verification.isValidated(),
-                    verification.isExpired()
-            );
-        } else {
-            if (Objects.nonNull(verification.getLockedUntil())) { // If locked before then reset
-                verification.setLockedUntil(null);
-                verification.setAttemptCount(0);
+        // Attempts over the limit, or against an OTP this instance saw locked, do not reach the database
+        if (!attemptLimiter.tryAcquire(username)) {
+            if (attemptLimiter.isLocked(username)) {
+                return new TokenResponse(maxAttempts, true, false, false);
             }
+            // Only the attempt cap was hit, the OTP is not locked and its attempt count is unknown here
+            return new TokenResponse(0, false, false, false).withRateLimited(true);
         }
 
-        // Check if OTP is expired
-        if (verification.isExpired()) {
-            log.info("OTP expired for user: {}", username);
-            return new TokenResponse(
-                    verification.getAttemptCount(),
-                    false,
-                    false,
-                    verification.isExpired()
-            );
+        Instant now = Instant.now();
+        Instant lockUntil = now.plus(lockMinutes, ChronoUnit.MINUTES);
+        OtpVerificationRepository.OtpAttempt attempt = otpVerificationRepository
+                .recordAttempt(username, otp, maxAttempts, now, lockUntil)
+                .orElse(null);
+        if (Objects.isNull(attempt)) {
+            // Nothing was counted, report why from the pending OTP
+            return otpStatus(username);
         }
 
-        // Increase attempt times
-        verification.setAttemptCount(verification.getAttemptCount() + 1);
-
-        if (verification.hasExceededMaxAttempts()) {
-            verification.setLockedUntil(Instant.now().plus(lockMinutes, ChronoUnit.MINUTES));
-            OtpVerification savedOtp = otpVerificationRepository.save(verification);
-            return new TokenResponse(
-                    savedOtp.getAttemptCount(),
-                    savedOtp.isLocked(),
-                    savedOtp.isValidated(),
-                    savedOtp.isExpired()
-            );
+        if (attempt.getLocked()) {
+            attemptLimiter.lock(username, lockUntil);
+        }
+        TokenResponse status = new TokenResponse(attempt.getAttempts(), attempt.getLocked(), attempt.getValidated(), false);
+        if (!attempt.getValidated()) {
+            return status;
         }
 
-        TokenResponse tokenResponse = null;
-        if (StringUtils.equals(verification.getOtp(), otp)) {
-            verification.setValidated(true);
+        attemptLimiter.reset(username);
+        User user = userRepository.findByUsername(username)
+                .orElse(null);
+        if (Objects.isNull(user)) {
+            return status;
+        }
 
-            User user = userRepository.findByUsername(username)
-                    .orElse(null);
-            if (Objects.nonNull(user)) {
-                // Save verified status
-                user.setEnabled(true);
-                userRepository.save(user);
+        // Save verified status
+        user.setEnabled(true);
+        userRepository.save(user);
 
-                CustomUserDetails userDetails = CustomUserDetails.build(user);
-                tokenResponse = createToken(user, userDetails, request);
-            }
-        }
+        CustomUserDetails userDetails = CustomUserDetails.build(user);
+        return createToken(user, userDetails, request)
+                .withOtpCount(status.getOtpCount())
+                .withVerified(true)
+                .withLocked(false)
+                .withExpired(false);
+    }
+
+    @Override
+    public void removeExpiredOtps() {
+        Instant before = Instant.now().minus(purgeRetention);
+        int removed = 0;
+        Integer deleted;
+        // One short transaction per batch, so the purge never holds locks on a large part of the table
+        do {
+            deleted = transactionTemplate.execute(status -> otpVerificationRepository.deleteExpired(before, purgeBatchSize));
+            removed += deleted != null ? deleted : 0;
+        } while (deleted != null && deleted == purgeBatchSize);
+        log.info("Removed {} expired OTPs", removed);
+    }
 
-        OtpVerification savedOtp = otpVerificationRepository.save(verification);
-
-        return Objects.isNull(tokenResponse) ? new TokenResponse(
-                savedOtp.getAttemptCount(),
-                savedOtp.isLocked(),
-                savedOtp.isValidated(),
-                savedOtp.isExpired()
-        ) : tokenResponse
-                .withOtpCount(savedOtp.getAttemptCount())
-                .withVerified(verification.isValidated())
-                .withLocked(verification.isLocked())
-                .withExpired(verification.isExpired());
+    private TokenResponse otpStatus(String username) {
+        OtpVerification verification = otpVerificationRepository
+                .findValidOtpByUsername(username)
+                .orElseThrow(() -> new IllegalStateException("No valid OTP found"));
+
+        if (verification.isLocked()) {
+            attemptLimiter.lock(username, verification.getLockedUntil());
+        } else if (verification.isExpired()) {
+            log.info("OTP expired for user: {}", username);
+        }
+        return new TokenResponse(
+                verification.getAttemptCount(),
+                verification.isLocked(),
+                verification.isValidated(),
+                verification.isExpired()
+        );
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,168 @@
+package com.dms.auth.service.impl;
+
+import com.dms.auth.dto.RevocationEvent;
+import com.dms.auth.entity.TokenRevocation;
+import com.dms.auth.enums.RevocationType;
+import com.dms.auth.producer.RabbitMQMessageProducer;
+import com.dms.auth.repository.TokenRevocationRepository;
+import com.dms.auth.security.service.UserDetailsServiceImpl;
+import com.dms.auth.service.TokenRevocationService;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TokenRevocationServiceImpl implements TokenRevocationService {
+    private final TokenRevocationRepository tokenRevocationRepository;
+    private final RabbitMQMessageProducer rabbitMQMessageProducer;
+    private final UserDetailsServiceImpl userDetailsService;
+
+    @Value("${rabbitmq.exchanges.auth-revocation}")
+    private String revocationExchange;
+
+    @Value("${spring.app.accessTokenExpirationMs}")
+    private long accessTokenExpirationMs;
+
+    // Token id -> expiry of the revoked token. Bounded by the tokens revoked within one access token lifetime.
+    private final Map<String, Instant> revokedTokens = new ConcurrentHashMap<>();
+    // Username -> latest revocation of every token issued to the user
+    private final Map<String, UserRevocation> revokedUsers = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        reloadRevocations();
+    }
+
+    @Override
+    public boolean isRevoked(String username, String tokenId, Instant issuedAt) {
+        Instant now = Instant.now();
+        if (tokenId != null) {
+            Instant expiresAt = revokedTokens.get(tokenId);
+            if (expiresAt != null && expiresAt.isAfter(now)) {
+                return true;
+            }
+        }
+
+        UserRevocation userRevocation = revokedUsers.get(username);
+        if (userRevocation == null || !userRevocation.expiresAt().isAfter(now)) {
+            return false;
+        }
+        // iat only has second precision, so a token issued in the same second as the revocation is kept: it is far
+        // more likely the one issued by signing straight back in than one that was in use before
+        return issuedAt == null
+                || issuedAt.isBefore(userRevocation.revokedBefore().truncatedTo(ChronoUnit.SECONDS));
+    }
+
+    @Override
+    public void revokeToken(String username, String tokenId, Instant expiresAt) {
+        tokenRevocationRepository.save(TokenRevocation.builder()
+                .username(username)
+                .tokenId(tokenId)
+                .expiresAt(expiresAt)
+                .createdAt(Instant.now())
+                .build());
+
+        publish(RevocationEvent.builder()
+                .type(RevocationType.TOKEN)
+                .username(username)
+                .tokenId(tokenId)
+                .expiresAt(expiresAt)
+                .build());
+    }
+
+    @Override
+    public void revokeUserTokens(String username) {
+        Instant now = Instant.now();
+        // Compared with iat, which has second precision
+        Instant revokedBefore = now.truncatedTo(ChronoUnit.SECONDS);
+        Instant expiresAt = now.plusMillis(accessTokenExpirationMs);
+        tokenRevocationRepository.save(TokenRevocation.builder()
+                .username(username)
+                .revokedBefore(revokedBefore)
+                .expiresAt(expiresAt)
+                .createdAt(now)
+                .build());
+
+        publish(RevocationEvent.builder()
+                .type(RevocationType.USER_TOKENS)
+                .username(username)
+                .revokedBefore(revokedBefore)
+                .expiresAt(expiresAt)
+                .build());
+    }
+
+    @Override
+    public void userDetailsChanged(String username) {
+        publish(RevocationEvent.builder()
+                .type(RevocationType.USER_DETAILS)
+                .username(username)
+                .build());
+    }
+
+    @Override
+    public void apply(RevocationEvent event) {
+        switch (event.getType()) {
+            case TOKEN -> revokedTokens.merge(event.getTokenId(), event.getExpiresAt(),
+                    (current, added) -> added.isAfter(current) ? added : current);
+            case USER_TOKENS -> {
+                revokedUsers.merge(event.getUsername(),
+                        new UserRevocation(event.getRevokedBefore(), event.getExpiresAt()),
+                        (current, added) -> added.revokedBefore().isAfter(current.revokedBefore()) ? added : current);
+                userDetailsService.evict(event.getUsername());
+            }
+            case USER_DETAILS -> userDetailsService.evict(event.getUsername());
+        }
+    }
+
+    @Override
+    public void reloadRevocations() {
+        tokenRevocationRepository.findByExpiresAtAfter(Instant.now()).stream()
+                .map(this::toEvent)
+                .forEach(this::apply);
+    }
+
+    @Override
+    @Transactional
+    public void removeExpiredRevocations() {
+        Instant now = Instant.now();
+        revokedTokens.values().removeIf(expiresAt -> !expiresAt.isAfter(now));
+        revokedUsers.values().removeIf(revocation -> !revocation.expiresAt().isAfter(now));
+
+        int removed = tokenRevocationRepository.deleteAllExpired(now);
+        log.info("Removed {} expired token revocations", removed);
+    }
+
+    private void publish(RevocationEvent event) {
+        // Applied here first, so this instance never depends on the broker for its own revocations
+        apply(event);
+        try {
+            rabbitMQMessageProducer.publish(event, revocationExchange, "");
+        } catch (Exception e) {
+            // Other instances catch up on their next reload, or when cached user details expire
+            log.error("Failed to publish {} revocation for user {}", event.getType(), event.getUsername(), e);
+        }
+    }
+
+    private RevocationEvent toEvent(TokenRevocation revocation) {
+        return RevocationEvent.builder()
+                .type(revocation.getTokenId() != null ? RevocationType.TOKEN : RevocationType.USER_TOKENS)
+                .username(revocation.getUsername())
+                .tokenId(revocation.getTokenId())
+                .revokedBefore(revocation.getRevokedBefore())
+                .expiresAt(revocation.getExpiresAt())
+                .build();
+    }
+
+    private record UserRevocation(Instant revokedBefore, Instant expiresAt) {
+    }
+}
@@ -4,51 +4,34 @@ import com.dms.auth.entity.AuthToken;
 import com.dms.auth.entity.User;
 import com.dms.auth.enums.TokenType;
 import com.dms.auth.repository.AuthTokenRepository;
+import com.dms.auth.service.TokenRevocationService;
 import com.dms.auth.service.TokenService;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
-import org.apache.commons.codec.digest.DigestUtils;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class TokenServiceImpl implements TokenService {
     private final AuthTokenRepository authTokenRepository;
+    private final TokenRevocationService tokenRevocationService;
+    private final TransactionTemplate transactionTemplate;
 
     @Value("${spring.app.refreshTokenExpirationMs}")
     private Long refreshTokenDurationMs;
 
-    @Value("${spring.app.accessTokenExpirationMs}")
-    private Long accessTokenDurationMs;
-
-    @Override
-    @Transactional
-    public AuthToken createAccessToken(User user, String jwtToken, HttpServletRequest request) {
-        // Generate a hash of the token for storage
-        String tokenHash = DigestUtils.sha256Hex(jwtToken);
-
-        AuthToken authToken = AuthToken.builder()
-                .user(user)
-                .token(tokenHash)
-                .tokenType(TokenType.ACCESS)
-                .expiryDate(Instant.now().plusMillis(accessTokenDurationMs))
-                .userAgent(request.getHeader("User-Agent"))
-                .ipAddress(request.getRemoteAddr())
-                .revoked(false)
-                .createdAt(Instant.now())
-                .createdBy(user.getUsername())
-                .updatedBy(user.getUsername())
-                .build();
-
-        return authTokenRepository.save(authToken);
-    }
+    @Value("${app.auth.token-purge.batch-size:1000}")
+    private int purgeBatchSize;
 
     @Override
     @Transactional
@@ -121,11 +104,16 @@ public class TokenServiceImpl implements TokenService {
     @Transactional
     public void revokeAllUserTokens(User user) {
         authTokenRepository.revokeAllUserTokens(user);
+        tokenRevocationService.revokeUserTokens(user.getUsername());
     }
 
     @Override
     @Transactional
     public void revokeAllUserTokensByType(User user, TokenType tokenType) {
+        if (tokenType == TokenType.ACCESS) {
+            tokenRevocationService.revokeUserTokens(user.getUsername());
+            return;
+        }
         authTokenRepository.revokeAllUserTokensByType(user, tokenType);
     }
 
@@ -140,8 +128,15 @@ public class TokenServiceImpl implements TokenService {
     }
 
     @Override
-    @Transactional
     public void removeExpiredTokens() {
-        authTokenRepository.deleteAllExpiredTokens(Instant.now());
+        Instant now = Instant.now();
+        int removed = 0;
+        Integer deleted;
+        // One short transaction per batch, so the purge never holds locks on a large part of the table
+        do {
+            deleted = transactionTemplate.execute(status -> authTokenRepository.deleteExpiredTokens(now, purgeBatchSize));
+            removed += deleted != null ? deleted : 0;
+        } while (deleted != null && deleted == purgeBatchSize);
+        log.info("Removed {} expired tokens", removed);
     }
 }
\ No newline at end of file
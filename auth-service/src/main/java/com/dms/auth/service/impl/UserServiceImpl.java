@@ -3,6 +3,7 @@ package com.dms.auth.service.impl;
 import com.dms.auth.dto.RoleDto;
 import com.dms.auth.dto.UserDto;
 import com.dms.auth.dto.UserSearchResponse;
+import com.dms.auth.dto.UserSummary;
 import com.dms.auth.dto.request.*;
 import com.dms.auth.entity.PasswordResetToken;
 import com.dms.auth.entity.AuthToken;
@@ -21,12 +22,18 @@ import com.dms.auth.security.request.Verify2FARequest;
 import com.dms.auth.security.response.TokenResponse;
 import com.dms.auth.security.response.UserInfoResponse;
 import com.dms.auth.security.service.CustomUserDetails;
+import com.dms.auth.security.service.VerificationAttemptLimiter;
 import com.dms.auth.service.*;
+import com.dms.auth.util.SearchPatterns;
 import com.dms.auth.util.SecurityUtils;
 import com.warrenstrange.googleauth.GoogleAuthenticatorKey;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.LockedException;
@@ -37,15 +44,23 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
+@Slf4j
 @Service
 public class UserServiceImpl extends BaseService implements UserService {
     @Autowired
@@ -63,6 +78,9 @@ public class UserServiceImpl extends BaseService implements UserService {
     @Autowired
     private TokenService tokenService;
 
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
     @Autowired
     private PasswordEncoder passwordEncoder;
 
@@ -81,6 +99,21 @@ public class UserServiceImpl extends BaseService implements UserService {
     @Autowired
     private PublishEventService publishEventService;
 
+    @Autowired
+    private VerificationAttemptLimiter attemptLimiter;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${app.user-search.max-results:50}")
+    private int searchMaxResults;
+
+    @Value("${app.auth.token-purge.batch-size:1000}")
+    private int purgeBatchSize;
+
+    @Value("${app.auth.token-purge.retention:1d}")
+    private Duration purgeRetention;
+
     @Override
     public TokenResponse authenticateUser(LoginRequest loginRequest, HttpServletRequest request) {
         // Check if user exists and get user status before authentication
@@ -131,7 +164,7 @@ public class UserServiceImpl extends BaseService implements UserService {
     }
 
     @Override
-    public void logout(String refreshToken) {
+    public void logout(String refreshToken, HttpServletRequest request) {
         // Get the user from the refresh token
         AuthToken token = tokenService.findByTokenAndType(refreshToken, TokenType.REFRESH)
                 .orElse(null);
@@ -139,15 +172,31 @@ public class UserServiceImpl extends BaseService implements UserService {
         // Revoke the specific refresh token
         tokenService.revokeToken(refreshToken, TokenType.REFRESH);
 
-        // If we found the token, revoke all access tokens for the user too
         if (token != null && token.getUser() != null) {
-            tokenService.revokeAllUserTokensByType(token.getUser(), TokenType.ACCESS);
+            revokeSessionAccessToken(token.getUser(), request);
         }
 
         // Clear security context
         SecurityContextHolder.clearContext();
     }
 
+    private void revokeSessionAccessToken(User user, HttpServletRequest request) {
+        String accessToken = jwtUtils.getJwtFromHeader(request);
+        Optional<Claims> claims = accessToken != null ? jwtUtils.getVerifiedClaims(accessToken) : Optional.empty();
+        if (claims.isEmpty() || claims.get().getId() == null || claims.get().getExpiration() == null
+                || !user.getUsername().equals(claims.get().getSubject())) {
+            // Without the session's access token, end every session of the user
+            tokenService.revokeAllUserTokensByType(user, TokenType.ACCESS);
+            return;
+        }
+
+        // Only this session's access token is revoked, by jti until it expires, other sessions stay signed in
+        Instant expiresAt = claims.get().getExpiration().toInstant();
+        if (expiresAt.isAfter(Instant.now())) {
+            tokenRevocationService.revokeToken(user.getUsername(), claims.get().getId(), expiresAt);
+        }
+    }
+
     @Override
     public void registerUser(SignupRequest request) {
         if (userRepository.existsByUsername(request.getUsername())) {
@@ -202,6 +251,7 @@ public class UserServiceImpl extends BaseService implements UserService {
     }
 
     @Override
+    @Transactional
     public void generatePasswordResetToken(String email) {
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new ResourceNotFoundException("User", "email", email));
@@ -216,9 +266,7 @@ public class UserServiceImpl extends BaseService implements UserService {
         }
 
         // Mark all others tokens used
-        List<PasswordResetToken> passwordResetTokens = passwordResetTokenRepository.findAllByUserId(user.getUserId());
-        passwordResetTokens.forEach(passwordResetToken -> passwordResetToken.setUsed(true));
-        passwordResetTokenRepository.saveAllAndFlush(passwordResetTokens);
+        passwordResetTokenRepository.markUnusedTokensUsed(user.getUserId(), Instant.now());
 
         String token = UUID.randomUUID().toString();
         // Set expiry to 5 hours from now
@@ -254,6 +302,7 @@ public class UserServiceImpl extends BaseService implements UserService {
 
         userRepository.save(user);
         passwordResetTokenRepository.save(resetToken);
+        tokenRevocationService.userDetailsChanged(user.getUsername());
     }
 
     @Override
@@ -279,9 +328,11 @@ public class UserServiceImpl extends BaseService implements UserService {
         user.setRole(role);
         user.setUpdatedBy(SecurityUtils.getUserIdentifier());
         userRepository.save(user);
+        tokenRevocationService.userDetailsChanged(user.getUsername());
     }
 
     @Override
+    @Transactional
     public void updatePassword(UUID userId, UpdatePasswordRequest request, UserDetails currentUser) throws InvalidRequestException {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User", "id", userId));
@@ -300,15 +351,24 @@ public class UserServiceImpl extends BaseService implements UserService {
         user.setPassword(passwordEncoder.encode(request.getNewPassword()));
         user.setUpdatedBy(SecurityUtils.getUserIdentifier());
 
-        // Optionally invalidate any existing password reset tokens
-        passwordResetTokenRepository.findAll().stream()
-                .filter(token -> token.getUser().equals(user) && !token.isUsed())
-                .forEach(token -> {
-                    token.setUsed(true);
-                    passwordResetTokenRepository.save(token);
-                });
+        // Invalidate any existing password reset tokens
+        passwordResetTokenRepository.markUnusedTokensUsed(user.getUserId(), Instant.now());
 
         userRepository.save(user);
+        tokenRevocationService.userDetailsChanged(user.getUsername());
+    }
+
+    @Override
+    public void removeExpiredPasswordResetTokens() {
+        Instant before = Instant.now().minus(purgeRetention);
+        int removed = 0;
+        Integer deleted;
+        // One short transaction per batch, so the purge never holds locks on a large part of the table
+        do {
+            deleted = transactionTemplate.execute(status -> passwordResetTokenRepository.deleteExpired(before, purgeBatchSize));
+            removed += deleted != null ? deleted : 0;
+        } while (deleted != null && deleted == purgeBatchSize);
+        log.info("Removed {} expired password reset tokens", removed);
     }
 
     // 2FA operations
@@ -338,6 +398,7 @@ public class UserServiceImpl extends BaseService implements UserService {
         user.setTwoFactorEnabled(true);
         user.setUpdatedBy(SecurityUtils.getUserIdentifier());
         userRepository.save(user);
+        tokenRevocationService.userDetailsChanged(user.getUsername());
     }
 
     @Override
@@ -350,9 +411,18 @@ public class UserServiceImpl extends BaseService implements UserService {
             throw new IllegalArgumentException("Invalid username");
         }
 
-        User user = userRepository.findByUsername(verify2FARequest.getUsername())
+        // The endpoint is public, so guesses are capped per username before the secret is loaded
+        if (!attemptLimiter.tryAcquire(verify2FARequest.getUsername())) {
+            throw new LockedException("TOO_MANY_ATTEMPTS");
+        }
+
+        String twoFactorSecret = userRepository.findTwoFactorSecretByUsername(verify2FARequest.getUsername())
                 .orElseThrow(() -> new ResourceNotFoundException("User", "id", verify2FARequest.getUsername()));
-        return totpService.verifyCode(user.getTwoFactorSecret(), Integer.parseInt(verify2FARequest.getCode()));
+        boolean isValid = totpService.verifyCode(twoFactorSecret, Integer.parseInt(verify2FARequest.getCode()));
+        if (isValid) {
+            attemptLimiter.reset(verify2FARequest.getUsername());
+        }
+        return isValid;
     }
 
     @Override
@@ -362,6 +432,7 @@ public class UserServiceImpl extends BaseService implements UserService {
         user.setTwoFactorEnabled(true);
         user.setUpdatedBy(username);
         userRepository.save(user);
+        tokenRevocationService.userDetailsChanged(username);
     }
 
     @Override
@@ -372,6 +443,7 @@ public class UserServiceImpl extends BaseService implements UserService {
         user.setTwoFactorSecret(null);
         user.setUpdatedBy(SecurityUtils.getUserIdentifier());
         userRepository.save(user);
+        tokenRevocationService.userDetailsChanged(user.getUsername());
     }
 
     @Override
@@ -404,10 +476,12 @@ public class UserServiceImpl extends BaseService implements UserService {
             throw new IllegalArgumentException("Email is already in use");
         }
 
+        String previousUsername = user.getUsername();
         user.setUsername(request.getUsername());
         user.setEmail(request.getEmail());
         user.setUpdatedBy(SecurityUtils.getUserIdentifier());
         userRepository.save(user);
+        tokenRevocationService.userDetailsChanged(previousUsername);
     }
 
     @Override
@@ -437,6 +511,7 @@ public class UserServiceImpl extends BaseService implements UserService {
         user.setUpdatedBy(SecurityUtils.getUserIdentifier());
 
         userRepository.save(user);
+        tokenRevocationService.userDetailsChanged(user.getUsername());
     }
 
     @Override
@@ -454,17 +529,44 @@ public class UserServiceImpl extends BaseService implements UserService {
 
     @Override
     public List<UserSearchResponse> searchUsers(String query) {
-        return userRepository.findByUsernameContainingIgnoreCaseOrEmailContainingIgnoreCase(
-                        query, query)
+        if (StringUtils.isBlank(query)) {
+            return List.of();
+        }
+        return userRepository.searchSummaries(SearchPatterns.contains(query.trim()), Limit.of(searchMaxResults))
                 .stream()
                 .map(user -> new UserSearchResponse(
-                        user.getUserId().toString(),
-                        user.getUsername(),
-                        user.getEmail())
+                        user.userId().toString(),
+                        user.username(),
+                        user.email())
                 )
                 .toList();
     }
 
+    @Override
+    public List<UserSummary> getUserSummaries(UserSummaryRequest request) {
+        Map<UUID, UserSummary> summaries = new HashMap<>();
+        if (Objects.nonNull(request.getUserIds()) && !request.getUserIds().isEmpty()) {
+            userRepository.findSummariesByUserIdIn(new HashSet<>(request.getUserIds()))
+                    .forEach(summary -> summaries.put(summary.userId(), summary));
+        }
+        if (Objects.nonNull(request.getUsernames()) && !request.getUsernames().isEmpty()) {
+            userRepository.findSummariesByUsernameIn(new HashSet<>(request.getUsernames()))
+                    .forEach(summary -> summaries.put(summary.userId(), summary));
+        }
+
+        // A stable order keeps the ETag of an unchanged result the same
+        return summaries.values().stream()
+                .sorted(Comparator.comparing(UserSummary::userId))
+                .toList();
+    }
+
+    @Override
+    public UserSummary getUserSummary(String username) {
+        return userRepository.findSummariesByUsernameIn(List.of(username)).stream()
+                .findFirst()
+                .orElseThrow(() -> new ResourceNotFoundException("User", "username", username));
+    }
+
     @Override
     public List<UserSearchResponse> getUsersByIds(List<UUID> userIds) {
         return userRepository.findAllById(userIds)
@@ -0,0 +1,19 @@
+package com.dms.auth.util;
+
+public final class SearchPatterns {
+    public static final char ESCAPE = '\\';
+
+    private SearchPatterns() {
+    }
+
+    /**
+     * LIKE pattern matching the term anywhere in a lower-cased column, served by the trigram indexes on users
+     */
+    public static String contains(String term) {
+        String escaped = term.toLowerCase()
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        return "%" + escaped + "%";
+    }
+}
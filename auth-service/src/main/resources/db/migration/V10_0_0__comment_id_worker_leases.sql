@@ -0,0 +1,11 @@
+-- Worker ids of the comment id generator, leased by document-interaction-service instances
+CREATE TABLE comment_id_worker_leases
+(
+    worker_id   SMALLINT PRIMARY KEY,
+    instance_id VARCHAR(100),
+    expires_at  TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT '-infinity'
+);
+
+-- One row per worker id the 6 bit field can hold
+INSERT INTO comment_id_worker_leases (worker_id)
+SELECT generate_series(0, 63);
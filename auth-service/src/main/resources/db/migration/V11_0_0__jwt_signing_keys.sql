@@ -0,0 +1,13 @@
+-- RSA keys signing access tokens, shared by every auth-service instance
+CREATE TABLE jwt_signing_keys
+(
+    kid         VARCHAR(64) PRIMARY KEY,
+    public_key  TEXT                     NOT NULL,
+    -- AES-GCM encrypted PKCS#8 private key, the encryption key is not stored in the database
+    private_key TEXT                     NOT NULL,
+    -- Tokens are signed with the latest key whose active_from has passed
+    active_from TIMESTAMP WITH TIME ZONE NOT NULL,
+    created_at  TIMESTAMP WITH TIME ZONE NOT NULL
+);
+
+CREATE INDEX idx_jwt_signing_keys_active_from ON jwt_signing_keys (active_from);
@@ -0,0 +1,14 @@
+-- Access token revocations, held in memory by every auth-service instance and reloaded from here at startup
+CREATE TABLE token_revocations
+(
+    id             BIGSERIAL PRIMARY KEY,
+    username       VARCHAR(255)             NOT NULL,
+    -- jti of a single revoked token, null when all tokens of the user issued up to revoked_before are revoked
+    token_id       VARCHAR(64),
+    revoked_before TIMESTAMP WITH TIME ZONE,
+    -- Once every token the entry covers has expired, the entry is dropped
+    expires_at     TIMESTAMP WITH TIME ZONE NOT NULL,
+    created_at     TIMESTAMP WITH TIME ZONE NOT NULL
+);
+
+CREATE INDEX idx_token_revocations_expires_at ON token_revocations (expires_at);
@@ -0,0 +1,8 @@
+-- Access tokens are stateless JWTs revoked through token_revocations, only refresh tokens are stored
+DELETE FROM auth_tokens WHERE token_type = 'ACCESS';
+
+-- Already covered by the unique constraint on token
+DROP INDEX IF EXISTS idx_auth_tokens_token;
+
+-- Expired tokens are purged oldest first, in small batches
+CREATE INDEX idx_auth_tokens_expiry_date ON auth_tokens (expiry_date);
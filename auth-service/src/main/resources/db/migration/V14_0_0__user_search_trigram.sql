@@ -0,0 +1,5 @@
+-- Substring search on username and email, used by the sharing dialog and the admin user list, without scanning users
+CREATE EXTENSION IF NOT EXISTS pg_trgm SCHEMA dms;
+
+CREATE INDEX idx_users_username_trgm ON users USING gin (lower(username) gin_trgm_ops);
+CREATE INDEX idx_users_email_trgm ON users USING gin (lower(email) gin_trgm_ops);
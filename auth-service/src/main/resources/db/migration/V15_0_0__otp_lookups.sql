@@ -0,0 +1,13 @@
+-- A new OTP replaces the pending one of the same email, validated rows are never looked up by email
+DROP INDEX IF EXISTS idx_otp_email;
+CREATE INDEX idx_otp_verifications_pending_email ON otp_verifications (email) WHERE is_validated = false;
+
+-- Unused reset tokens of a user are marked used when a password changes or another reset is requested
+CREATE INDEX idx_password_reset_token_unused_user ON password_reset_token (user_id) WHERE used = false;
+
+-- Already covered by the unique constraint on token
+DROP INDEX IF EXISTS idx_password_reset_token;
+
+-- Expired OTPs and reset tokens are purged oldest first, in small batches
+CREATE INDEX idx_otp_verifications_expiry_time ON otp_verifications (expiry_time);
+CREATE INDEX idx_password_reset_token_expiry_date ON password_reset_token (expiry_date);
@@ -0,0 +1,27 @@
+-- Top-level ancestor of every reply, so a thread is loaded without walking parent_id
+ALTER TABLE document_comments
+    ADD COLUMN root_id BIGINT;
+
+WITH RECURSIVE thread AS (SELECT id, id AS root_id
+                          FROM document_comments
+                          WHERE parent_id IS NULL
+                          UNION ALL
+                          SELECT c.id, t.root_id
+                          FROM document_comments c
+                                   INNER JOIN thread t ON c.parent_id = t.id)
+UPDATE document_comments c
+SET root_id = t.root_id
+FROM thread t
+WHERE c.id = t.id
+  AND c.parent_id IS NOT NULL;
+
+-- Keyset pages of visible top-level comments, newest first
+CREATE INDEX idx_document_comments_roots ON document_comments (document_id, created_at DESC, id DESC)
+    WHERE parent_id IS NULL AND flag = 1;
+
+-- Replies of the roots on a page
+CREATE INDEX idx_document_comments_root_id ON document_comments (root_id, created_at, id)
+    WHERE root_id IS NOT NULL;
+
+-- Subtree lookups when a reply is deleted
+CREATE INDEX idx_document_comments_parent_id ON document_comments (parent_id);
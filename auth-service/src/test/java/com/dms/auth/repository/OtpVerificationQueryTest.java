@@ -0,0 +1,311 @@
+package com.dms.auth.repository;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Runs the OTP attempt, reset token and purge statements against a PostgreSQL migrated by Flyway, and checks the
+ * lookups they depend on use the partial indexes. Skipped when Docker is not available.
+ */
+class OtpVerificationQueryTest {
+    private static final String USERNAME = "otp-user";
+    private static final String OTP = "123456";
+    private static final int MAX_ATTEMPTS = 5;
+
+    private static PostgreSQLContainer<?> postgres;
+    private static HikariDataSource dataSource;
+    private static EntityManagerFactory entityManagerFactory;
+    private static UUID userId;
+
+    @BeforeAll
+    static void startPostgres() throws Exception {
+        assumeTrue(DockerClientFactory.instance().isDockerAvailable(), "Docker is not available");
+        postgres = new PostgreSQLContainer<>(DockerImageName.parse("postgres:16-alpine"));
+        postgres.start();
+        Flyway.configure()
+                .dataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword())
+                .schemas("dms")
+                .table("schema_history")
+                .load()
+                .migrate();
+
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(postgres.getJdbcUrl() + "&currentSchema=dms");
+        dataSource.setUsername(postgres.getUsername());
+        dataSource.setPassword(postgres.getPassword());
+        userId = insertUser(USERNAME);
+
+        LocalContainerEntityManagerFactoryBean factoryBean = new LocalContainerEntityManagerFactoryBean();
+        factoryBean.setDataSource(dataSource);
+        factoryBean.setPackagesToScan("com.dms.auth.entity");
+        factoryBean.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        factoryBean.afterPropertiesSet();
+        entityManagerFactory = factoryBean.getObject();
+    }
+
+    @AfterAll
+    static void stopPostgres() {
+        if (postgres == null) {
+            return;
+        }
+        entityManagerFactory.close();
+        dataSource.close();
+        postgres.stop();
+    }
+
+    @BeforeEach
+    void clearRows() throws Exception {
+        execute("DELETE FROM otp_verifications");
+        execute("DELETE FROM password_reset_token");
+    }
+
+    @Test
+    void recordAttempt_WrongOtp_CountsAttempt() throws Exception {
+        insertOtp(userId, 0, null, Instant.now().plus(5, ChronoUnit.MINUTES));
+
+        OtpVerificationRepository.OtpAttempt attempt = recordAttempt("654321").orElseThrow();
+
+        assertEquals(1, attempt.getAttempts());
+        assertFalse(attempt.getLocked());
+        assertFalse(attempt.getValidated());
+    }
+
+    @Test
+    void recordAttempt_MatchingOtp_Validates() throws Exception {
+        insertOtp(userId, 2, null, Instant.now().plus(5, ChronoUnit.MINUTES));
+
+        OtpVerificationRepository.OtpAttempt attempt = recordAttempt(OTP).orElseThrow();
+
+        assertEquals(3, attempt.getAttempts());
+        assertTrue(attempt.getValidated());
+        // A validated OTP cannot be attempted again
+        assertTrue(recordAttempt(OTP).isEmpty());
+    }
+
+    @Test
+    void recordAttempt_LastAttempt_LocksWithoutValidating() throws Exception {
+        insertOtp(userId, MAX_ATTEMPTS - 1, null, Instant.now().plus(5, ChronoUnit.MINUTES));
+
+        OtpVerificationRepository.OtpAttempt attempt = recordAttempt(OTP).orElseThrow();
+
+        assertEquals(MAX_ATTEMPTS, attempt.getAttempts());
+        assertTrue(attempt.getLocked());
+        assertFalse(attempt.getValidated());
+        assertTrue(recordAttempt(OTP).isEmpty());
+    }
+
+    @Test
+    void recordAttempt_EndedLock_StartsCountOver() throws Exception {
+        insertOtp(userId, MAX_ATTEMPTS, Instant.now().minus(1, ChronoUnit.MINUTES), Instant.now().plus(5, ChronoUnit.MINUTES));
+
+        OtpVerificationRepository.OtpAttempt attempt = recordAttempt("654321").orElseThrow();
+
+        assertEquals(1, attempt.getAttempts());
+        assertFalse(attempt.getLocked());
+    }
+
+    @Test
+    void recordAttempt_ExpiredOtp_NotCounted() throws Exception {
+        insertOtp(userId, 0, null, Instant.now().minus(1, ChronoUnit.MINUTES));
+
+        assertTrue(recordAttempt(OTP).isEmpty());
+    }
+
+    @Test
+    void recordAttempt_ConcurrentAttempts_CountedOnceEach() throws Exception {
+        insertOtp(userId, 0, null, Instant.now().plus(5, ChronoUnit.MINUTES));
+
+        ExecutorService executor = Executors.newFixedThreadPool(MAX_ATTEMPTS * 2);
+        List<Future<Optional<OtpVerificationRepository.OtpAttempt>>> attempts = new ArrayList<>();
+        for (int i = 0; i < MAX_ATTEMPTS * 2; i++) {
+            attempts.add(executor.submit(() -> recordAttempt("654321")));
+        }
+        int counted = 0;
+        for (Future<Optional<OtpVerificationRepository.OtpAttempt>> attempt : attempts) {
+            counted += attempt.get().isPresent() ? 1 : 0;
+        }
+        executor.shutdown();
+
+        // Attempts after the one that locked the OTP are rejected
+        assertEquals(MAX_ATTEMPTS, counted);
+        assertEquals(MAX_ATTEMPTS, queryInt("SELECT attempt_count FROM otp_verifications"));
+    }
+
+    @Test
+    void markUnusedTokensUsed_OnlyMarksUsersTokens() throws Exception {
+        UUID otherUserId = insertUser("reset-other-" + UUID.randomUUID());
+        insertResetToken(userId, false, Instant.now().plus(5, ChronoUnit.HOURS));
+        insertResetToken(userId, false, Instant.now().plus(5, ChronoUnit.HOURS));
+        insertResetToken(otherUserId, false, Instant.now().plus(5, ChronoUnit.HOURS));
+
+        int marked = inTransaction(PasswordResetTokenRepository.class,
+                repository -> repository.markUnusedTokensUsed(userId, Instant.now()));
+
+        assertEquals(2, marked);
+        assertEquals(1, queryInt("SELECT count(*) FROM password_reset_token WHERE used = false"));
+    }
+
+    @Test
+    void deleteExpired_RemovesBatchesAndKeepsLockedOtps() throws Exception {
+        Instant now = Instant.now();
+        for (int i = 0; i < 5; i++) {
+            UUID expiredUserId = insertUser("otp-expired-" + UUID.randomUUID());
+            insertOtp(expiredUserId, 0, null, now.minus(2, ChronoUnit.DAYS));
+            insertResetToken(expiredUserId, false, now.minus(2, ChronoUnit.DAYS));
+        }
+        insertOtp(userId, MAX_ATTEMPTS, now.plus(1, ChronoUnit.HOURS), now.minus(2, ChronoUnit.DAYS));
+        insertResetToken(userId, false, now.plus(5, ChronoUnit.HOURS));
+        Instant before = now.minus(1, ChronoUnit.DAYS);
+
+        assertEquals(3, (int) inTransaction(OtpVerificationRepository.class, repository -> repository.deleteExpired(before, 3)));
+        assertEquals(2, (int) inTransaction(OtpVerificationRepository.class, repository -> repository.deleteExpired(before, 3)));
+        assertEquals(5, (int) inTransaction(PasswordResetTokenRepository.class, repository -> repository.deleteExpired(before, 10)));
+
+        assertEquals(1, queryInt("SELECT count(*) FROM otp_verifications"));
+        assertEquals(1, queryInt("SELECT count(*) FROM password_reset_token"));
+    }
+
+    @Test
+    void pendingOtpByEmail_UsesPartialIndex() throws Exception {
+        String plan = explain("SELECT id FROM otp_verifications WHERE email = 'otp-user@example.com' AND is_validated = false");
+        assertTrue(plan.contains("idx_otp_verifications_pending_email"), plan);
+    }
+
+    @Test
+    void unusedResetTokensByUser_UsesPartialIndex() throws Exception {
+        String plan = explain("UPDATE password_reset_token SET used = true WHERE user_id = '" + userId + "' AND used = false");
+        assertTrue(plan.contains("idx_password_reset_token_unused_user"), plan);
+    }
+
+    private static Optional<OtpVerificationRepository.OtpAttempt> recordAttempt(String otp) {
+        Instant now = Instant.now();
+        return inTransaction(OtpVerificationRepository.class, repository ->
+                repository.recordAttempt(USERNAME, otp, MAX_ATTEMPTS, now, now.plus(30, ChronoUnit.MINUTES)));
+    }
+
+    private static <R, T> T inTransaction(Class<R> repositoryInterface, Function<R, T> work) {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            entityManager.getTransaction().begin();
+            T result = work.apply(new JpaRepositoryFactory(entityManager).getRepository(repositoryInterface));
+            entityManager.getTransaction().commit();
+            return result;
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    private static String explain(String sql) throws Exception {
+        StringBuilder plan = new StringBuilder();
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            // The table is small enough that the planner could prefer a scan, so rule scans out to see the index paths
+            statement.execute("SET enable_seqscan = off");
+            try (ResultSet resultSet = statement.executeQuery("EXPLAIN " + sql)) {
+                while (resultSet.next()) {
+                    plan.append(resultSet.getString(1)).append('\n');
+                }
+            }
+        }
+        return plan.toString();
+    }
+
+    private static void execute(String sql) throws Exception {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    private static int queryInt(String sql) throws Exception {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(sql)) {
+            resultSet.next();
+            return resultSet.getInt(1);
+        }
+    }
+
+    private static UUID insertUser(String username) throws Exception {
+        Timestamp now = Timestamp.from(Instant.now());
+        UUID id = UUID.randomUUID();
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(
+                     "INSERT INTO users (user_id, username, email, password, role_id, created_by, created_at, updated_by, updated_at) " +
+                             "SELECT ?, ?, ?, 'password', role_id, 'test', ?, 'test', ? FROM roles WHERE role_name = 'ROLE_USER'")) {
+            statement.setObject(1, id);
+            statement.setString(2, username);
+            statement.setString(3, username + "@example.com");
+            statement.setTimestamp(4, now);
+            statement.setTimestamp(5, now);
+            statement.executeUpdate();
+        }
+        return id;
+    }
+
+    private static void insertOtp(UUID userId, int attemptCount, Instant lockedUntil, Instant expiryTime) throws Exception {
+        Timestamp now = Timestamp.from(Instant.now());
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(
+                     "INSERT INTO otp_verifications (id, otp, email, expiry_time, attempt_count, locked_until, user_id, created_at, updated_at) " +
+                             "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)")) {
+            statement.setObject(1, UUID.randomUUID());
+            statement.setString(2, OTP);
+            statement.setString(3, userId + "@example.com");
+            statement.setTimestamp(4, Timestamp.from(expiryTime));
+            statement.setInt(5, attemptCount);
+            statement.setTimestamp(6, lockedUntil != null ? Timestamp.from(lockedUntil) : null);
+            statement.setObject(7, userId);
+            statement.setTimestamp(8, now);
+            statement.setTimestamp(9, now);
+            statement.executeUpdate();
+        }
+    }
+
+    private static void insertResetToken(UUID userId, boolean used, Instant expiryDate) throws Exception {
+        Timestamp now = Timestamp.from(Instant.now());
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(
+                     "INSERT INTO password_reset_token (token, user_id, expiry_date, used, created_by, created_at, updated_by, updated_at) " +
+                             "VALUES (?, ?, ?, ?, 'test', ?, 'test', ?)")) {
+            statement.setString(1, UUID.randomUUID().toString());
+            statement.setObject(2, userId);
+            statement.setTimestamp(3, Timestamp.from(expiryDate));
+            statement.setBoolean(4, used);
+            statement.setTimestamp(5, now);
+            statement.setTimestamp(6, now);
+            statement.executeUpdate();
+        }
+    }
+}
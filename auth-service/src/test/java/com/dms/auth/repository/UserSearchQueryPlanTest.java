@@ -0,0 +1,179 @@
+package com.dms.auth.repository;
+
+import com.dms.auth.dto.UserSummary;
+import com.dms.auth.entity.User;
+import com.dms.auth.util.SearchPatterns;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Runs the user search and admin listing queries against a PostgreSQL migrated by Flyway, and checks their plans use
+ * the trigram and username indexes instead of scanning {@code users}. Skipped when Docker is not available.
+ */
+class UserSearchQueryPlanTest {
+    private static final int USERS = 2_000;
+
+    private static PostgreSQLContainer<?> postgres;
+    private static HikariDataSource dataSource;
+    private static EntityManagerFactory entityManagerFactory;
+    private static EntityManager entityManager;
+    private static UserRepository userRepository;
+
+    @BeforeAll
+    static void startPostgres() throws Exception {
+        assumeTrue(DockerClientFactory.instance().isDockerAvailable(), "Docker is not available");
+        postgres = new PostgreSQLContainer<>(DockerImageName.parse("postgres:16-alpine"));
+        postgres.start();
+        Flyway.configure()
+                .dataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword())
+                .schemas("dms")
+                .table("schema_history")
+                .load()
+                .migrate();
+
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(postgres.getJdbcUrl() + "&currentSchema=dms");
+        dataSource.setUsername(postgres.getUsername());
+        dataSource.setPassword(postgres.getPassword());
+        seed();
+
+        LocalContainerEntityManagerFactoryBean factoryBean = new LocalContainerEntityManagerFactoryBean();
+        factoryBean.setDataSource(dataSource);
+        factoryBean.setPackagesToScan("com.dms.auth.entity");
+        factoryBean.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        factoryBean.afterPropertiesSet();
+        entityManagerFactory = factoryBean.getObject();
+        entityManager = entityManagerFactory.createEntityManager();
+        userRepository = new JpaRepositoryFactory(entityManager).getRepository(UserRepository.class);
+    }
+
+    @AfterAll
+    static void stopPostgres() {
+        if (postgres == null) {
+            return;
+        }
+        entityManager.close();
+        entityManagerFactory.close();
+        dataSource.close();
+        postgres.stop();
+    }
+
+    @Test
+    void searchSummaries_ReturnsBoundedEscapedMatches() {
+        List<UserSummary> summaries = userRepository.searchSummaries(SearchPatterns.contains("USER1"), Limit.of(5));
+        assertEquals(5, summaries.size());
+        assertTrue(summaries.stream().allMatch(summary -> summary.username().startsWith("user1")));
+
+        // "_" is escaped, so it does not match any single character
+        assertTrue(userRepository.searchSummaries(SearchPatterns.contains("user_1"), Limit.of(5)).isEmpty());
+    }
+
+    @Test
+    void usernameSearch_UsesTrigramIndex() throws Exception {
+        String plan = explain("SELECT user_id FROM users WHERE lower(username) LIKE '%ser12%' ESCAPE '\\' " +
+                "OR lower(email) LIKE '%ser12%' ESCAPE '\\'");
+        assertTrue(plan.contains("idx_users_username_trgm"), plan);
+        assertTrue(plan.contains("idx_users_email_trgm"), plan);
+    }
+
+    @Test
+    void keysetPage_UsesUsernameIndex() throws Exception {
+        String plan = explain("SELECT user_id FROM users WHERE username > 'user1500' ORDER BY username LIMIT 11");
+        assertFalse(plan.contains("Seq Scan"), plan);
+        assertFalse(plan.contains("Sort"), plan);
+    }
+
+    @Test
+    void keysetPages_ReturnEveryUserOnce() {
+        String after = "";
+        int seen = 0;
+        while (true) {
+            String cursor = after;
+            List<User> page = userRepository.findBy(
+                    (Specification<User>) (root, query, cb) -> cb.greaterThan(root.get("username"), cursor),
+                    query -> query.sortBy(Sort.by(Sort.Direction.ASC, "username")).limit(500).all());
+            entityManager.clear();
+            if (page.isEmpty()) {
+                break;
+            }
+            assertTrue(page.get(0).getUsername().compareTo(after) > 0);
+            seen += page.size();
+            after = page.get(page.size() - 1).getUsername();
+        }
+        assertEquals(userRepository.count(), seen);
+    }
+
+    private static String explain(String sql) throws Exception {
+        StringBuilder plan = new StringBuilder();
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            // The table is small enough that the planner could prefer a scan, so rule scans out to see the index paths
+            statement.execute("SET enable_seqscan = off");
+            try (ResultSet resultSet = statement.executeQuery("EXPLAIN " + sql)) {
+                while (resultSet.next()) {
+                    plan.append(resultSet.getString(1)).append('\n');
+                }
+            }
+        }
+        return plan.toString();
+    }
+
+    private static void seed() throws Exception {
+        Timestamp now = Timestamp.from(Instant.now());
+        try (Connection connection = dataSource.getConnection()) {
+            UUID roleId;
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "SELECT role_id FROM roles WHERE role_name = 'ROLE_USER'");
+                 ResultSet resultSet = statement.executeQuery()) {
+                resultSet.next();
+                roleId = resultSet.getObject(1, UUID.class);
+            }
+
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "INSERT INTO users (user_id, username, email, password, role_id, created_by, created_at, updated_by, updated_at) " +
+                            "VALUES (?, ?, ?, ?, ?, 'test', ?, 'test', ?)")) {
+                for (int i = 0; i < USERS; i++) {
+                    statement.setObject(1, UUID.randomUUID());
+                    statement.setString(2, "user" + i);
+                    statement.setString(3, "user" + i + "@example.com");
+                    statement.setString(4, "$2a$10$testtesttesttesttesttesttesttesttesttesttesttesttestte");
+                    statement.setObject(5, roleId);
+                    statement.setTimestamp(6, now);
+                    statement.setTimestamp(7, now);
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("ANALYZE users");
+            }
+        }
+    }
+}
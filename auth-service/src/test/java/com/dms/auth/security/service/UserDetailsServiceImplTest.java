@@ -0,0 +1,91 @@
+package com.dms.auth.security.service;
+
+import com.dms.auth.entity.Role;
+import com.dms.auth.entity.User;
+import com.dms.auth.enums.AppRole;
+import com.dms.auth.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserDetailsServiceImplTest {
+    private static final String USERNAME = "testuser";
+
+    @Mock
+    private UserRepository userRepository;
+
+    @InjectMocks
+    private UserDetailsServiceImpl userDetailsService;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(userDetailsService, "cacheTtl", Duration.ofMinutes(5));
+        ReflectionTestUtils.setField(userDetailsService, "cacheMaxSize", 100);
+        userDetailsService.init();
+
+        Role role = new Role();
+        role.setRoleId(UUID.randomUUID());
+        role.setRoleName(AppRole.ROLE_USER);
+
+        user = new User();
+        user.setUserId(UUID.randomUUID());
+        user.setUsername(USERNAME);
+        user.setEmail("test@example.com");
+        user.setRole(role);
+    }
+
+    @Test
+    void loadCachedUserByUsername_RepeatedLookups_QueryDatabaseOnce() {
+        // Arrange
+        when(userRepository.findByUsernameOrEmail(USERNAME, USERNAME)).thenReturn(Optional.of(user));
+
+        // Act
+        UserDetails first = userDetailsService.loadCachedUserByUsername(USERNAME);
+        UserDetails second = userDetailsService.loadCachedUserByUsername(USERNAME);
+
+        // Assert
+        assertSame(first, second);
+        verify(userRepository, times(1)).findByUsernameOrEmail(USERNAME, USERNAME);
+    }
+
+    @Test
+    void evict_NextLookupReloadsUser() {
+        // Arrange
+        when(userRepository.findByUsernameOrEmail(USERNAME, USERNAME)).thenReturn(Optional.of(user));
+        userDetailsService.loadCachedUserByUsername(USERNAME);
+
+        // Act
+        userDetailsService.evict(USERNAME);
+        userDetailsService.loadCachedUserByUsername(USERNAME);
+
+        // Assert
+        verify(userRepository, times(2)).findByUsernameOrEmail(USERNAME, USERNAME);
+    }
+
+    @Test
+    void loadCachedUserByUsername_UnknownUser_ThrowsAndIsNotCached() {
+        // Arrange
+        when(userRepository.findByUsernameOrEmail(USERNAME, USERNAME)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(UsernameNotFoundException.class, () -> userDetailsService.loadCachedUserByUsername(USERNAME));
+        assertThrows(UsernameNotFoundException.class, () -> userDetailsService.loadCachedUserByUsername(USERNAME));
+        verify(userRepository, times(2)).findByUsernameOrEmail(USERNAME, USERNAME);
+    }
+}
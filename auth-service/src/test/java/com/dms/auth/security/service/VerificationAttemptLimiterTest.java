@@ -0,0 +1,86 @@
+package com.dms.auth.security.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VerificationAttemptLimiterTest {
+    private static final String USERNAME = "testuser";
+
+    private final Instant now = Instant.parse("2024-01-01T00:00:00Z");
+
+    @Test
+    void tryAcquire_ShouldRejectAttemptsOverLimit_UntilWindowEnds() {
+        // Arrange
+        VerificationAttemptLimiter limiter = new VerificationAttemptLimiter(3, Duration.ofMinutes(5), 100);
+
+        // Act & Assert
+        for (int i = 0; i < 3; i++) {
+            assertTrue(limiter.tryAcquire(USERNAME, now));
+        }
+        assertFalse(limiter.tryAcquire(USERNAME, now.plusSeconds(60)));
+        assertTrue(limiter.tryAcquire("otheruser", now.plusSeconds(60)));
+        assertTrue(limiter.tryAcquire(USERNAME, now.plus(Duration.ofMinutes(5))));
+    }
+
+    @Test
+    void tryAcquire_ShouldRejectAttempts_WhileLocked() {
+        // Arrange
+        VerificationAttemptLimiter limiter = new VerificationAttemptLimiter(3, Duration.ofMinutes(5), 100);
+        limiter.tryAcquire(USERNAME, now);
+        limiter.lock(USERNAME, now.plus(Duration.ofMinutes(30)));
+
+        // Act & Assert
+        assertFalse(limiter.tryAcquire(USERNAME, now.plus(Duration.ofMinutes(10))));
+        assertTrue(limiter.tryAcquire(USERNAME, now.plus(Duration.ofMinutes(30))));
+    }
+
+    @Test
+    void isLocked_ShouldOnlyReportLocks_NotAttemptCap() {
+        // Arrange
+        VerificationAttemptLimiter limiter = new VerificationAttemptLimiter(1, Duration.ofMinutes(5), 100);
+        limiter.tryAcquire(USERNAME, now);
+        limiter.tryAcquire(USERNAME, now);
+
+        // Act & Assert
+        assertFalse(limiter.isLocked(USERNAME, now));
+        limiter.lock(USERNAME, now.plus(Duration.ofMinutes(30)));
+        assertTrue(limiter.isLocked(USERNAME, now));
+        assertFalse(limiter.isLocked(USERNAME, now.plus(Duration.ofMinutes(30))));
+    }
+
+    @Test
+    void reset_ShouldForgetAttempts() {
+        // Arrange
+        VerificationAttemptLimiter limiter = new VerificationAttemptLimiter(1, Duration.ofMinutes(5), 100);
+        limiter.tryAcquire(USERNAME, now);
+
+        // Act
+        limiter.reset(USERNAME);
+
+        // Assert
+        assertTrue(limiter.tryAcquire(USERNAME, now));
+    }
+
+    @Test
+    void tryAcquire_ShouldEvictEndedWindows_WhenFull() {
+        // Arrange
+        VerificationAttemptLimiter limiter = new VerificationAttemptLimiter(1, Duration.ofMinutes(5), 2);
+        limiter.tryAcquire("user1", now);
+        limiter.tryAcquire("user2", now.plus(Duration.ofMinutes(3)));
+
+        // Act & Assert
+        // Full of active usernames, new ones are let through to the database without being tracked
+        assertTrue(limiter.tryAcquire("user3", now.plus(Duration.ofMinutes(4))));
+        assertTrue(limiter.tryAcquire("user3", now.plus(Duration.ofMinutes(4))));
+        assertEquals(2, limiter.size());
+
+        // user1's window has ended, so it makes room
+        assertTrue(limiter.tryAcquire("user3", now.plus(Duration.ofMinutes(6))));
+        assertFalse(limiter.tryAcquire("user3", now.plus(Duration.ofMinutes(6))));
+        assertEquals(2, limiter.size());
+    }
+}
@@ -3,6 +3,7 @@ package com.dms.auth.service.impl;
 import com.dms.auth.dto.RoleDto;
 import com.dms.auth.dto.UserDto;
 import com.dms.auth.dto.request.UserSearchRequest;
+import com.dms.auth.dto.response.UserListResponse;
 import com.dms.auth.entity.Role;
 import com.dms.auth.entity.User;
 import com.dms.auth.enums.AppRole;
@@ -15,17 +16,17 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.*;
 import org.springframework.data.jpa.domain.Specification;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.util.Arrays;
+import java.util.Base64;
 import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
@@ -51,7 +52,6 @@ public class AdminServiceImplTest {
     private Role role1;
     private Role role2;
     private List<User> userList;
-    private Page<User> userPage;
     private List<Role> roleList;
 
     @BeforeEach
@@ -101,7 +101,6 @@ public class AdminServiceImplTest {
                 .build();
 
         userList = Arrays.asList(user1, user2);
-        userPage = new PageImpl<>(userList);
         roleList = Arrays.asList(role1, role2);
     }
 
@@ -110,20 +109,20 @@ public class AdminServiceImplTest {
         // Arrange
         UserSearchRequest request = new UserSearchRequest(
                 null, null, null,
-                null, null, 0, 10
+                null, 10
         );
 
-        doReturn(userPage).when(userRepository).findAll(any(Specification.class), any(Pageable.class));
+        stubUsers(userList);
         when(userMapper.convertToDto(user1)).thenReturn(userDto1);
         when(userMapper.convertToDto(user2)).thenReturn(userDto2);
 
         // Act
-        Page<UserDto> result = adminService.getAllUsers(request);
+        UserListResponse result = adminService.getAllUsers(request);
 
         // Assert
         assertNotNull(result);
-        assertEquals(2, result.getTotalElements());
-        verify(userRepository).findAll(any(Specification.class), any(Pageable.class));
+        assertEquals(2L, result.totalUsers());
+        verify(userRepository).findBy(any(Specification.class), any());
         verify(userMapper).convertToDto(user1);
         verify(userMapper).convertToDto(user2);
     }
@@ -133,20 +132,20 @@ public class AdminServiceImplTest {
         // Arrange
         UserSearchRequest request = new UserSearchRequest(
                 "   ", null, null,
-                null, null, 0, 10
+                null, 10
         );
 
-        doReturn(userPage).when(userRepository).findAll(any(Specification.class), any(Pageable.class));
+        stubUsers(userList);
         when(userMapper.convertToDto(user1)).thenReturn(userDto1);
         when(userMapper.convertToDto(user2)).thenReturn(userDto2);
 
         // Act - Testing with empty search string
-        Page<UserDto> result = adminService.getAllUsers(request);
+        UserListResponse result = adminService.getAllUsers(request);
 
         // Assert
         assertNotNull(result);
-        assertEquals(2, result.getTotalElements());
-        verify(userRepository).findAll(any(Specification.class), any(Pageable.class));
+        assertEquals(2L, result.totalUsers());
+        verify(userRepository).findBy(any(Specification.class), any());
     }
 
     @Test
@@ -154,20 +153,20 @@ public class AdminServiceImplTest {
         // Arrange
         UserSearchRequest request = new UserSearchRequest(
                 "user1", null, null,
-                null, null, 0, 10
+                null, 10
         );
 
-        Page<User> filteredUserPage = new PageImpl<>(List.of(user1));
-        doReturn(filteredUserPage).when(userRepository).findAll(any(Specification.class), any(Pageable.class));
+        List<User> filteredUserPage = List.of(user1);
+        stubUsers(filteredUserPage);
         when(userMapper.convertToDto(user1)).thenReturn(userDto1);
 
         // Act
-        Page<UserDto> result = adminService.getAllUsers(request);
+        UserListResponse result = adminService.getAllUsers(request);
 
         // Assert
         assertNotNull(result);
-        assertEquals(1, result.getTotalElements());
-        verify(userRepository).findAll(any(Specification.class), any(Pageable.class));
+        assertEquals(1L, result.totalUsers());
+        verify(userRepository).findBy(any(Specification.class), any());
         verify(userMapper).convertToDto(user1);
         verify(userMapper, never()).convertToDto(user2);
     }
@@ -177,16 +176,16 @@ public class AdminServiceImplTest {
         // Arrange
         UserSearchRequest request = new UserSearchRequest(
                 "user1;DROP TABLE users;", null, null,
-                null, null, 0, 10
+                null, 10
         );
 
         // Act
-        Page<UserDto> result = adminService.getAllUsers(request);
+        UserListResponse result = adminService.getAllUsers(request);
 
         // Assert
         assertNotNull(result);
-        assertEquals(0, result.getTotalElements());
-        verify(userRepository, never()).findAll(any(Specification.class), any(Pageable.class));
+        assertEquals(0L, result.totalUsers());
+        verify(userRepository, never()).findBy(any(Specification.class), any());
     }
 
     @Test
@@ -194,20 +193,20 @@ public class AdminServiceImplTest {
         // Arrange
         UserSearchRequest request = new UserSearchRequest(
                 null, true, null,
-                null, null, 0, 10
+                null, 10
         );
 
-        Page<User> filteredUserPage = new PageImpl<>(List.of(user1));
-        doReturn(filteredUserPage).when(userRepository).findAll(any(Specification.class), any(Pageable.class));
+        List<User> filteredUserPage = List.of(user1);
+        stubUsers(filteredUserPage);
         when(userMapper.convertToDto(user1)).thenReturn(userDto1);
 
         // Act
-        Page<UserDto> result = adminService.getAllUsers(request);
+        UserListResponse result = adminService.getAllUsers(request);
 
         // Assert
         assertNotNull(result);
-        assertEquals(1, result.getTotalElements());
-        verify(userRepository).findAll(any(Specification.class), any(Pageable.class));
+        assertEquals(1L, result.totalUsers());
+        verify(userRepository).findBy(any(Specification.class), any());
         verify(userMapper).convertToDto(user1);
         verify(userMapper, never()).convertToDto(user2);
     }
@@ -217,20 +216,20 @@ public class AdminServiceImplTest {
         // Arrange
         UserSearchRequest request = new UserSearchRequest(
                 null, false, null,
-                null, null, 0, 10
+                null, 10
         );
 
-        Page<User> filteredUserPage = new PageImpl<>(List.of(user2));
-        doReturn(filteredUserPage).when(userRepository).findAll(any(Specification.class), any(Pageable.class));
+        List<User> filteredUserPage = List.of(user2);
+        stubUsers(filteredUserPage);
         when(userMapper.convertToDto(user2)).thenReturn(userDto2);
 
         // Act
-        Page<UserDto> result = adminService.getAllUsers(request);
+        UserListResponse result = adminService.getAllUsers(request);
 
         // Assert
         assertNotNull(result);
-        assertEquals(1, result.getTotalElements());
-        verify(userRepository).findAll(any(Specification.class), any(Pageable.class));
+        assertEquals(1L, result.totalUsers());
+        verify(userRepository).findBy(any(Specification.class), any());
         verify(userMapper).convertToDto(user2);
         verify(userMapper, never()).convertToDto(user1);
     }
@@ -240,20 +239,20 @@ public class AdminServiceImplTest {
         // Arrange
         UserSearchRequest request = new UserSearchRequest(
                 null, null, "   ",
-                null, null, 0, 10
+                null, 10
         );
 
-        doReturn(userPage).when(userRepository).findAll(any(Specification.class), any(Pageable.class));
+        stubUsers(userList);
         when(userMapper.convertToDto(user1)).thenReturn(userDto1);
         when(userMapper.convertToDto(user2)).thenReturn(userDto2);
 
         // Act
-        Page<UserDto> result = adminService.getAllUsers(request);
+        UserListResponse result = adminService.getAllUsers(request);
 
         // Assert
         assertNotNull(result);
-        assertEquals(2, result.getTotalElements());
-        verify(userRepository).findAll(any(Specification.class), any(Pageable.class));
+        assertEquals(2L, result.totalUsers());
+        verify(userRepository).findBy(any(Specification.class), any());
     }
 
     @Test
@@ -261,43 +260,76 @@ public class AdminServiceImplTest {
         // Arrange
         UserSearchRequest request = new UserSearchRequest(
                 null, null, "ROLE_ADMIN",
-                null, null, 0, 10
+                null, 10
         );
 
-        Page<User> filteredUserPage = new PageImpl<>(List.of(user2));
-        doReturn(filteredUserPage).when(userRepository).findAll(any(Specification.class), any(Pageable.class));
+        List<User> filteredUserPage = List.of(user2);
+        stubUsers(filteredUserPage);
         when(userMapper.convertToDto(user2)).thenReturn(userDto2);
 
         // Act
-        Page<UserDto> result = adminService.getAllUsers(request);
+        UserListResponse result = adminService.getAllUsers(request);
 
         // Assert
         assertNotNull(result);
-        assertEquals(1, result.getTotalElements());
-        verify(userRepository).findAll(any(Specification.class), any(Pageable.class));
+        assertEquals(1L, result.totalUsers());
+        verify(userRepository).findBy(any(Specification.class), any());
         verify(userMapper).convertToDto(user2);
         verify(userMapper, never()).convertToDto(user1);
     }
 
     @Test
-    void getAllUsers_WithCustomSorting_ShouldApplySorting() {
+    void getAllUsers_WithMoreUsersThanSize_ShouldReturnNextCursor() {
         // Arrange
         UserSearchRequest request = new UserSearchRequest(
                 null, null, null,
-                "email", "DESC", 0, 10
+                null, 1
         );
 
-        doReturn(userPage).when(userRepository).findAll(any(Specification.class), any(Pageable.class));
+        stubUsers(userList);
         when(userMapper.convertToDto(user1)).thenReturn(userDto1);
+
+        // Act
+        UserListResponse result = adminService.getAllUsers(request);
+
+        // Assert
+        assertEquals(List.of(userDto1), result.users());
+        assertNotNull(result.nextCursor());
+        verify(userMapper, never()).convertToDto(user2);
+    }
+
+    @Test
+    void getAllUsers_WithCursor_ShouldSeekWithoutCounting() {
+        // Arrange
+        String cursor = Base64.getUrlEncoder().withoutPadding().encodeToString("testuser1".getBytes(StandardCharsets.UTF_8));
+        UserSearchRequest request = new UserSearchRequest(
+                null, null, null,
+                cursor, 10
+        );
+
+        doReturn(List.of(user2)).when(userRepository).findBy(any(Specification.class), any());
         when(userMapper.convertToDto(user2)).thenReturn(userDto2);
 
         // Act
-        Page<UserDto> result = adminService.getAllUsers(request);
+        UserListResponse result = adminService.getAllUsers(request);
 
         // Assert
-        assertNotNull(result);
-        assertEquals(2, result.getTotalElements());
-        verify(userRepository).findAll(any(Specification.class), any(Pageable.class));
+        assertEquals(List.of(userDto2), result.users());
+        assertNull(result.nextCursor());
+        assertNull(result.totalUsers());
+        verify(userRepository, never()).count(any(Specification.class));
+    }
+
+    @Test
+    void getAllUsers_WithInvalidCursor_ShouldThrow() {
+        // Arrange
+        UserSearchRequest request = new UserSearchRequest(
+                null, null, null,
+                "not base64!", 10
+        );
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> adminService.getAllUsers(request));
     }
 
     @Test
@@ -305,20 +337,20 @@ public class AdminServiceImplTest {
         // Arrange
         UserSearchRequest request = new UserSearchRequest(
                 "user2", false, "ROLE_ADMIN",
-                "username", "ASC", 0, 10
+                null, 10
         );
 
-        Page<User> filteredUserPage = new PageImpl<>(List.of(user2));
-        doReturn(filteredUserPage).when(userRepository).findAll(any(Specification.class), any(Pageable.class));
+        List<User> filteredUserPage = List.of(user2);
+        stubUsers(filteredUserPage);
         when(userMapper.convertToDto(user2)).thenReturn(userDto2);
 
         // Act
-        Page<UserDto> result = adminService.getAllUsers(request);
+        UserListResponse result = adminService.getAllUsers(request);
 
         // Assert
         assertNotNull(result);
-        assertEquals(1, result.getTotalElements());
-        verify(userRepository).findAll(any(Specification.class), any(Pageable.class));
+        assertEquals(1L, result.totalUsers());
+        verify(userRepository).findBy(any(Specification.class), any());
         verify(userMapper).convertToDto(user2);
         verify(userMapper, never()).convertToDto(user1);
     }
@@ -328,19 +360,19 @@ public class AdminServiceImplTest {
         // Arrange
         UserSearchRequest request = new UserSearchRequest(
                 "nonexistent", null, null,
-                null, null, 0, 10
+                null, 10
         );
 
-        Page<User> emptyPage = new PageImpl<>(Collections.emptyList());
-        doReturn(emptyPage).when(userRepository).findAll(any(Specification.class), any(Pageable.class));
+        List<User> emptyPage = Collections.emptyList();
+        stubUsers(emptyPage);
 
         // Act
-        Page<UserDto> result = adminService.getAllUsers(request);
+        UserListResponse result = adminService.getAllUsers(request);
 
         // Assert
         assertNotNull(result);
-        assertEquals(0, result.getTotalElements());
-        verify(userRepository).findAll(any(Specification.class), any(Pageable.class));
+        assertEquals(0L, result.totalUsers());
+        verify(userRepository).findBy(any(Specification.class), any());
         // No mapper calls should be made
         verify(userMapper, never()).convertToDto(any());
     }
@@ -374,4 +406,9 @@ public class AdminServiceImplTest {
         assertEquals(0, result.size());
         verify(roleRepository).findAll();
     }
-}
\ No newline at end of file
+
+    private void stubUsers(List<User> users) {
+        doReturn((long) users.size()).when(userRepository).count(any(Specification.class));
+        doReturn(users).when(userRepository).findBy(any(Specification.class), any());
+    }
+}
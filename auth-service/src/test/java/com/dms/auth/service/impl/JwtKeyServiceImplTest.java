@@ -0,0 +1,250 @@
+package com.dms.auth.service.impl;
+
+import com.dms.auth.entity.JwtSigningKey;
+import com.dms.auth.repository.JwtSigningKeyRepository;
+import com.dms.auth.security.jwt.JwtKeyCipher;
+import com.dms.auth.security.jwt.SigningKey;
+import com.nimbusds.jose.jwk.JWK;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class JwtKeyServiceImplTest {
+    private static final String ENCRYPTION_KEY = "test-keystore-key";
+    private static final long ACCESS_TOKEN_EXPIRATION_MS = Duration.ofHours(6).toMillis();
+    private static KeyPair keyPair;
+
+    @Mock
+    private JwtSigningKeyRepository jwtSigningKeyRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @InjectMocks
+    private JwtKeyServiceImpl jwtKeyService;
+
+    @BeforeAll
+    static void generateKeyPair() throws Exception {
+        KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("RSA");
+        keyPairGenerator.initialize(2048);
+        keyPair = keyPairGenerator.generateKeyPair();
+    }
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(jwtKeyService, "encryptionKey", ENCRYPTION_KEY);
+        ReflectionTestUtils.setField(jwtKeyService, "rotationPeriod", Duration.ofDays(30));
+        ReflectionTestUtils.setField(jwtKeyService, "publishAhead", Duration.ofHours(1));
+        ReflectionTestUtils.setField(jwtKeyService, "accessTokenExpirationMs", ACCESS_TOKEN_EXPIRATION_MS);
+    }
+
+    @Test
+    void init_NoStoredKeys_CreatesEncryptedSigningKey() {
+        // Arrange
+        List<JwtSigningKey> stored = new ArrayList<>();
+        when(jwtSigningKeyRepository.findAllByOrderByActiveFromAsc()).thenAnswer(invocation -> List.copyOf(stored));
+        when(jwtSigningKeyRepository.save(any(JwtSigningKey.class))).thenAnswer(invocation -> {
+            stored.add(invocation.getArgument(0));
+            return invocation.getArgument(0);
+        });
+        runTransactions(true);
+
+        // Act
+        jwtKeyService.init();
+
+        // Assert
+        assertEquals(1, stored.size());
+        JwtSigningKey created = stored.get(0);
+        assertFalse(created.getActiveFrom().isAfter(Instant.now()));
+        assertNotEquals(created.getPublicKey(), created.getPrivateKey());
+        SigningKey signingKey = jwtKeyService.getSigningKey();
+        assertEquals(created.getKid(), signingKey.keyId());
+        assertEquals(Base64.getEncoder().encodeToString(signingKey.privateKey().getEncoded()),
+                Base64.getEncoder().encodeToString(new JwtKeyCipher(ENCRYPTION_KEY).decrypt(created.getPrivateKey())));
+    }
+
+    @Test
+    void init_StoredKeys_LoadsWithoutRotating() {
+        // Arrange
+        JwtSigningKey current = storedKey(Instant.now().minus(1, ChronoUnit.DAYS));
+        when(jwtSigningKeyRepository.findAllByOrderByActiveFromAsc()).thenReturn(List.of(current));
+
+        // Act
+        jwtKeyService.init();
+
+        // Assert
+        assertEquals(current.getKid(), jwtKeyService.getSigningKey().keyId());
+        verifyNoInteractions(transactionTemplate);
+    }
+
+    @Test
+    void init_WrongEncryptionKey_Throws() {
+        // Arrange
+        JwtSigningKey current = storedKey(Instant.now().minus(1, ChronoUnit.DAYS));
+        when(jwtSigningKeyRepository.findAllByOrderByActiveFromAsc()).thenReturn(List.of(current));
+        ReflectionTestUtils.setField(jwtKeyService, "encryptionKey", "another-key");
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> jwtKeyService.init());
+    }
+
+    @Test
+    void rotateKeys_CurrentKeyDue_PublishesNextKeyBeforeItSigns() {
+        // Arrange
+        JwtSigningKey current = storedKey(Instant.now().minus(Duration.ofDays(30)).plus(Duration.ofMinutes(30)));
+        List<JwtSigningKey> stored = new ArrayList<>(List.of(current));
+        when(jwtSigningKeyRepository.findAllByOrderByActiveFromAsc()).thenAnswer(invocation -> List.copyOf(stored));
+        when(jwtSigningKeyRepository.save(any(JwtSigningKey.class))).thenAnswer(invocation -> {
+            stored.add(invocation.getArgument(0));
+            return invocation.getArgument(0);
+        });
+        jwtKeyService.init();
+        runTransactions(true);
+
+        // Act
+        jwtKeyService.rotateKeys();
+
+        // Assert
+        assertEquals(2, stored.size());
+        Instant activeFrom = stored.get(1).getActiveFrom();
+        assertTrue(activeFrom.isAfter(Instant.now().plus(Duration.ofMinutes(59))));
+        assertEquals(current.getKid(), jwtKeyService.getSigningKey().keyId());
+        assertEquals(List.of(current.getKid(), stored.get(1).getKid()), publishedKeyIds());
+    }
+
+    @Test
+    void rotateKeys_CurrentKeyNotDue_CreatesNothing() {
+        // Arrange
+        when(jwtSigningKeyRepository.findAllByOrderByActiveFromAsc())
+                .thenReturn(List.of(storedKey(Instant.now().minus(Duration.ofDays(10)))));
+        jwtKeyService.init();
+        runTransactions(true);
+
+        // Act
+        jwtKeyService.rotateKeys();
+
+        // Assert
+        verify(jwtSigningKeyRepository, never()).save(any());
+        verify(jwtSigningKeyRepository, never()).deleteAllInBatch(any());
+    }
+
+    @Test
+    void rotateKeys_LockHeldByAnotherInstance_OnlyReloads() {
+        // Arrange
+        when(jwtSigningKeyRepository.findAllByOrderByActiveFromAsc())
+                .thenReturn(List.of(storedKey(Instant.now().minus(Duration.ofDays(40)))));
+        jwtKeyService.init();
+        runTransactions(false);
+
+        // Act
+        jwtKeyService.rotateKeys();
+
+        // Assert
+        verify(jwtSigningKeyRepository, never()).save(any());
+        verify(jwtSigningKeyRepository, times(2)).findAllByOrderByActiveFromAsc();
+    }
+
+    @Test
+    void rotateKeys_KeysWhoseTokensExpired_AreRemoved() {
+        // Arrange
+        JwtSigningKey oldest = storedKey(Instant.now().minus(Duration.ofDays(50)));
+        JwtSigningKey previous = storedKey(Instant.now().minus(Duration.ofDays(20)));
+        JwtSigningKey current = storedKey(Instant.now().minus(Duration.ofHours(1)));
+        when(jwtSigningKeyRepository.findAllByOrderByActiveFromAsc()).thenReturn(List.of(oldest, previous, current));
+        jwtKeyService.init();
+        runTransactions(true);
+
+        // Act
+        jwtKeyService.rotateKeys();
+
+        // Assert - tokens of the previous key may still be valid for another five hours
+        verify(jwtSigningKeyRepository).deleteAllInBatch(List.of(oldest));
+        verify(jwtSigningKeyRepository, never()).save(any());
+    }
+
+    @Test
+    void getJwkSet_PublishesUpcomingCurrentAndUnexpiredPreviousKeys() {
+        // Arrange
+        JwtSigningKey oldest = storedKey(Instant.now().minus(Duration.ofDays(50)));
+        JwtSigningKey previous = storedKey(Instant.now().minus(Duration.ofDays(20)));
+        JwtSigningKey current = storedKey(Instant.now().minus(Duration.ofHours(1)));
+        JwtSigningKey upcoming = storedKey(Instant.now().plus(Duration.ofMinutes(30)));
+        when(jwtSigningKeyRepository.findAllByOrderByActiveFromAsc()).thenReturn(List.of(oldest, previous, current, upcoming));
+
+        // Act
+        jwtKeyService.init();
+
+        // Assert
+        assertEquals(current.getKid(), jwtKeyService.getSigningKey().keyId());
+        assertEquals(List.of(previous.getKid(), current.getKid(), upcoming.getKid()), publishedKeyIds());
+        assertTrue(jwtKeyService.getJwkSet().getKeys().stream().noneMatch(JWK::isPrivate));
+    }
+
+    @Test
+    void findPublicKey_UnknownKeyId_ReloadsAtMostOncePerInterval() {
+        // Arrange
+        JwtSigningKey current = storedKey(Instant.now().minus(Duration.ofDays(1)));
+        JwtSigningKey rotatedElsewhere = storedKey(Instant.now());
+        when(jwtSigningKeyRepository.findAllByOrderByActiveFromAsc())
+                .thenReturn(List.of(current), List.of(current, rotatedElsewhere));
+        jwtKeyService.init();
+        ReflectionTestUtils.setField(jwtKeyService, "lastReload", Instant.now().minus(Duration.ofMinutes(1)));
+
+        // Act
+        boolean found = jwtKeyService.findPublicKey(rotatedElsewhere.getKid()) != null;
+        boolean forgedFound = jwtKeyService.findPublicKey(UUID.randomUUID().toString()) != null;
+
+        // Assert
+        assertTrue(found);
+        assertFalse(forgedFound);
+        verify(jwtSigningKeyRepository, times(2)).findAllByOrderByActiveFromAsc();
+    }
+
+    private List<String> publishedKeyIds() {
+        return jwtKeyService.getJwkSet().getKeys().stream().map(JWK::getKeyID).toList();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void runTransactions(boolean lockAcquired) {
+        when(jwtSigningKeyRepository.tryAdvisoryLock(anyLong())).thenReturn(lockAcquired);
+        doAnswer(invocation -> {
+            ((Consumer<TransactionStatus>) invocation.getArgument(0)).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    private static JwtSigningKey storedKey(Instant activeFrom) {
+        return JwtSigningKey.builder()
+                .kid(UUID.randomUUID().toString())
+                .publicKey(Base64.getEncoder().encodeToString(keyPair.getPublic().getEncoded()))
+                .privateKey(new JwtKeyCipher(ENCRYPTION_KEY).encrypt(keyPair.getPrivate().getEncoded()))
+                .activeFrom(activeFrom)
+                .createdAt(activeFrom)
+                .build();
+    }
+}
@@ -11,6 +11,7 @@ import com.dms.auth.repository.UserRepository;
 import com.dms.auth.security.jwt.JwtUtils;
 import com.dms.auth.security.response.TokenResponse;
 import com.dms.auth.security.service.CustomUserDetails;
+import com.dms.auth.security.service.VerificationAttemptLimiter;
 import com.dms.auth.service.PublishEventService;
 import com.dms.auth.service.TokenService;
 import jakarta.servlet.http.HttpServletRequest;
@@ -21,7 +22,10 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.Optional;
@@ -52,6 +56,9 @@ public class OtpServiceImplTest {
     @Mock
     private HttpServletRequest httpServletRequest;
 
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
     @InjectMocks
     private OtpServiceImpl otpService;
 
@@ -87,6 +94,11 @@ public class OtpServiceImplTest {
         // Set private fields using ReflectionTestUtils
         ReflectionTestUtils.setField(otpService, "otpExpiryMinutes", 5);
         ReflectionTestUtils.setField(otpService, "lockMinutes", 30);
+        ReflectionTestUtils.setField(otpService, "maxAttempts", 5);
+        ReflectionTestUtils.setField(otpService, "purgeBatchSize", 1000);
+        ReflectionTestUtils.setField(otpService, "purgeRetention", Duration.ofDays(1));
+        ReflectionTestUtils.setField(otpService, "attemptLimiter",
+                new VerificationAttemptLimiter(10, Duration.ofMinutes(5), 1000));
     }
 
     @Test
@@ -129,23 +141,39 @@ public class OtpServiceImplTest {
         verify(publishEventService).sendOtpEmail(eq(user), anyString());
     }
 
+    @Test
+    void resendOtp_ShouldResetAttemptLimiter_WhenNewOtpIssued() {
+        // Arrange
+        VerificationAttemptLimiter limiter = new VerificationAttemptLimiter(1, Duration.ofMinutes(5), 1000);
+        ReflectionTestUtils.setField(otpService, "attemptLimiter", limiter);
+        limiter.tryAcquire(USERNAME);
+        when(userRepository.findByUsername(USERNAME)).thenReturn(Optional.of(user));
+        when(otpVerificationRepository.save(any(OtpVerification.class))).thenReturn(otpVerification);
+
+        // Act
+        otpService.resendOtp(USERNAME);
+
+        // Assert
+        assertTrue(limiter.tryAcquire(USERNAME));
+    }
+
     @Test
     void generateAndSendOtp_ShouldThrowIllegalStateException_WhenUserLocked() {
         // Arrange
-        when(otpVerificationRepository.existsByEmailAndLockedUntilAfter(eq(EMAIL), any(Instant.class)))
-                .thenReturn(true);
+        otpVerification.setLockedUntil(Instant.now().plus(30, ChronoUnit.MINUTES));
+        when(otpVerificationRepository.findByEmailAndValidatedFalse(EMAIL))
+                .thenReturn(Optional.of(otpVerification));
 
         // Act & Assert
         assertThrows(IllegalStateException.class, () -> otpService.generateAndSendOtp(user));
-        verify(otpVerificationRepository).existsByEmailAndLockedUntilAfter(eq(EMAIL), any(Instant.class));
+        verify(otpVerificationRepository).findByEmailAndValidatedFalse(EMAIL);
+        verify(otpVerificationRepository, never()).save(any(OtpVerification.class));
         verifyNoInteractions(publishEventService);
     }
 
     @Test
     void generateAndSendOtp_ShouldCreateNewOtp_WhenNoExistingOtp() {
         // Arrange
-        when(otpVerificationRepository.existsByEmailAndLockedUntilAfter(eq(EMAIL), any(Instant.class)))
-                .thenReturn(false);
         when(otpVerificationRepository.findByEmailAndValidatedFalse(EMAIL))
                 .thenReturn(Optional.empty());
         when(otpVerificationRepository.save(any(OtpVerification.class)))
@@ -156,7 +184,6 @@ public class OtpServiceImplTest {
         otpService.generateAndSendOtp(user);
 
         // Assert
-        verify(otpVerificationRepository).existsByEmailAndLockedUntilAfter(eq(EMAIL), any(Instant.class));
         verify(otpVerificationRepository).findByEmailAndValidatedFalse(EMAIL);
         verify(otpVerificationRepository).save(any(OtpVerification.class));
         verify(publishEventService).sendOtpEmail(eq(user), anyString());
@@ -165,8 +192,6 @@ public class OtpServiceImplTest {
     @Test
     void generateAndSendOtp_ShouldUpdateExistingOtp_WhenOtpExists() {
         // Arrange
-        when(otpVerificationRepository.existsByEmailAndLockedUntilAfter(eq(EMAIL), any(Instant.class)))
-                .thenReturn(false);
         when(otpVerificationRepository.findByEmailAndValidatedFalse(EMAIL))
                 .thenReturn(Optional.of(otpVerification));
         when(otpVerificationRepository.save(any(OtpVerification.class)))
@@ -177,7 +202,6 @@ public class OtpServiceImplTest {
         otpService.generateAndSendOtp(user);
 
         // Assert
-        verify(otpVerificationRepository).existsByEmailAndLockedUntilAfter(eq(EMAIL), any(Instant.class));
         verify(otpVerificationRepository).findByEmailAndValidatedFalse(EMAIL);
         verify(otpVerificationRepository).save(any(OtpVerification.class));
         verify(publishEventService).sendOtpEmail(eq(user), anyString());
@@ -186,6 +210,8 @@ public class OtpServiceImplTest {
     @Test
     void verifyOtp_ShouldThrowIllegalStateException_WhenNoValidOtpFound() {
         // Arrange
+        when(otpVerificationRepository.recordAttempt(eq(USERNAME), eq(OTP), eq(5), any(Instant.class), any(Instant.class)))
+                .thenReturn(Optional.empty());
         when(otpVerificationRepository.findValidOtpByUsername(USERNAME))
                 .thenReturn(Optional.empty());
 
@@ -198,6 +224,8 @@ public class OtpServiceImplTest {
     void verifyOtp_ShouldReturnTokenResponse_WhenOtpLocked() {
         // Arrange
         otpVerification.setLockedUntil(Instant.now().plus(30, ChronoUnit.MINUTES));
+        when(otpVerificationRepository.recordAttempt(eq(USERNAME), eq(OTP), eq(5), any(Instant.class), any(Instant.class)))
+                .thenReturn(Optional.empty());
         when(otpVerificationRepository.findValidOtpByUsername(USERNAME))
                 .thenReturn(Optional.of(otpVerification));
 
@@ -210,144 +238,114 @@ public class OtpServiceImplTest {
         assertEquals(0, response.getOtpCount());
         assertFalse(response.isVerified());
         assertFalse(response.isExpired());
-        verifyNoMoreInteractions(otpVerificationRepository);
+        verify(otpVerificationRepository, never()).save(any(OtpVerification.class));
     }
 
     @Test
-    void verifyOtp_ShouldReturnTokenResponse_WhenOtpExpired() {
+    void verifyOtp_ShouldNotQueryDatabase_WhenLockAlreadySeen() {
         // Arrange
-        otpVerification.setExpiryTime(Instant.now().minus(1, ChronoUnit.MINUTES));
+        otpVerification.setLockedUntil(Instant.now().plus(30, ChronoUnit.MINUTES));
+        when(otpVerificationRepository.recordAttempt(eq(USERNAME), eq(OTP), eq(5), any(Instant.class), any(Instant.class)))
+                .thenReturn(Optional.empty());
         when(otpVerificationRepository.findValidOtpByUsername(USERNAME))
                 .thenReturn(Optional.of(otpVerification));
+        otpService.verifyOtp(USERNAME, OTP, httpServletRequest);
 
         // Act
         TokenResponse response = otpService.verifyOtp(USERNAME, OTP, httpServletRequest);
 
         // Assert
-        verify(otpVerificationRepository).findValidOtpByUsername(USERNAME);
-        assertFalse(response.isLocked());
-        assertEquals(0, response.getOtpCount());
+        assertTrue(response.isLocked());
         assertFalse(response.isVerified());
-        assertTrue(response.isExpired());
-        verifyNoMoreInteractions(otpVerificationRepository);
+        verify(otpVerificationRepository, times(1)).recordAttempt(anyString(), anyString(), anyInt(), any(), any());
+        verify(otpVerificationRepository, times(1)).findValidOtpByUsername(USERNAME);
     }
 
     @Test
-    void verifyOtp_ShouldResetLockAndAttemptCount_WhenPreviouslyLockedButNowUnlocked() {
+    void verifyOtp_ShouldNotQueryDatabase_WhenAttemptLimitReached() {
         // Arrange
-        otpVerification.setLockedUntil(Instant.now().minus(1, ChronoUnit.HOURS)); // Locked in the past
-        otpVerification.setAttemptCount(3);
+        ReflectionTestUtils.setField(otpService, "attemptLimiter",
+                new VerificationAttemptLimiter(2, Duration.ofMinutes(5), 1000));
+        when(otpVerificationRepository.recordAttempt(eq(USERNAME), eq("000000"), eq(5), any(Instant.class), any(Instant.class)))
+                .thenReturn(Optional.of(attempt(1, false, false)));
 
-        OtpVerification savedOtp = new OtpVerification();
-        savedOtp.setAttemptCount(1); // Incremented from 0 to 1
-        savedOtp.setValidated(false);
-        savedOtp.setLockedUntil(null);
-        savedOtp.setExpiryTime(Instant.now().plus(5, ChronoUnit.MINUTES)); // Not expired
+        // Act
+        otpService.verifyOtp(USERNAME, "000000", httpServletRequest);
+        otpService.verifyOtp(USERNAME, "000000", httpServletRequest);
+        TokenResponse response = otpService.verifyOtp(USERNAME, "000000", httpServletRequest);
 
+        // Assert
+        assertTrue(response.isRateLimited());
+        assertFalse(response.isLocked());
+        assertFalse(response.isVerified());
+        verify(otpVerificationRepository, times(2)).recordAttempt(anyString(), anyString(), anyInt(), any(), any());
+    }
+
+    @Test
+    void verifyOtp_ShouldReturnTokenResponse_WhenOtpExpired() {
+        // Arrange
+        otpVerification.setExpiryTime(Instant.now().minus(1, ChronoUnit.MINUTES));
+        when(otpVerificationRepository.recordAttempt(eq(USERNAME), eq(OTP), eq(5), any(Instant.class), any(Instant.class)))
+                .thenReturn(Optional.empty());
         when(otpVerificationRepository.findValidOtpByUsername(USERNAME))
                 .thenReturn(Optional.of(otpVerification));
-        when(otpVerificationRepository.save(any(OtpVerification.class)))
-                .thenReturn(savedOtp);
 
         // Act
-        TokenResponse response = otpService.verifyOtp(USERNAME, "wrongOtp", httpServletRequest);
+        TokenResponse response = otpService.verifyOtp(USERNAME, OTP, httpServletRequest);
 
         // Assert
         verify(otpVerificationRepository).findValidOtpByUsername(USERNAME);
-        verify(otpVerificationRepository).save(otpVerification);
-
-        assertEquals(1, response.getOtpCount());
         assertFalse(response.isLocked());
+        assertEquals(0, response.getOtpCount());
         assertFalse(response.isVerified());
-        assertFalse(response.isExpired());
-
-        // Verify the OTP entity was updated
-        assertNull(otpVerification.getLockedUntil());
-        assertEquals(1, otpVerification.getAttemptCount());
+        assertTrue(response.isExpired());
+        verify(otpVerificationRepository, never()).save(any(OtpVerification.class));
     }
 
     @Test
     void verifyOtp_ShouldLockAccount_WhenMaxAttemptsExceeded() {
         // Arrange
-        otpVerification.setAttemptCount(4); // One more attempt will exceed the max
-
-        OtpVerification savedOtp = new OtpVerification();
-        savedOtp.setAttemptCount(5);
-        savedOtp.setValidated(false);
-        savedOtp.setExpiryTime(Instant.now().plus(5, ChronoUnit.MINUTES)); // Not expired
-        // This is important - we need to make isLocked() return true for the saved OTP
-        Instant lockTime = Instant.now().plus(30, ChronoUnit.MINUTES);
-        savedOtp.setLockedUntil(lockTime);
-
-        when(otpVerificationRepository.findValidOtpByUsername(USERNAME))
-                .thenReturn(Optional.of(otpVerification));
-        when(otpVerificationRepository.save(any(OtpVerification.class))).thenAnswer(invocation -> {
-            OtpVerification savedVerification = invocation.getArgument(0);
-            // Update the mutable otpVerification that's passed to save()
-            savedVerification.setAttemptCount(5);
-            savedVerification.setLockedUntil(lockTime);
-            return savedOtp;
-        });
+        when(otpVerificationRepository.recordAttempt(eq(USERNAME), eq("000000"), eq(5), any(Instant.class), any(Instant.class)))
+                .thenReturn(Optional.of(attempt(5, true, false)));
 
         // Act
-        TokenResponse response = otpService.verifyOtp(USERNAME, "wrongOtp", httpServletRequest);
+        TokenResponse response = otpService.verifyOtp(USERNAME, "000000", httpServletRequest);
 
         // Assert
-        verify(otpVerificationRepository).findValidOtpByUsername(USERNAME);
-        verify(otpVerificationRepository).save(otpVerification);
-
-        // The TokenResponse is created based on the saved entity
         assertEquals(5, response.getOtpCount());
         assertTrue(response.isLocked());
         assertFalse(response.isVerified());
         assertFalse(response.isExpired());
+        verifyNoInteractions(userRepository);
 
-        // Verify the OTP entity was updated with a lock time
-        assertNotNull(otpVerification.getLockedUntil());
-        assertEquals(5, otpVerification.getAttemptCount());
-
-        // Double check that the saved object has the correct values
-        assertTrue(savedOtp.isLocked());
+        // Later attempts are rejected by the limiter until the lock ends
+        assertTrue(otpService.verifyOtp(USERNAME, OTP, httpServletRequest).isLocked());
+        verify(otpVerificationRepository, times(1)).recordAttempt(anyString(), anyString(), anyInt(), any(), any());
     }
 
     @Test
     void verifyOtp_ShouldReturnTokenResponse_WhenOtpInvalid() {
         // Arrange
-        OtpVerification savedOtp = new OtpVerification();
-        savedOtp.setAttemptCount(1);
-        savedOtp.setValidated(false);
-        savedOtp.setExpiryTime(Instant.now().plus(5, ChronoUnit.MINUTES)); // Not expired
-
-        when(otpVerificationRepository.findValidOtpByUsername(USERNAME))
-                .thenReturn(Optional.of(otpVerification));
-        when(otpVerificationRepository.save(any(OtpVerification.class)))
-                .thenReturn(savedOtp);
+        when(otpVerificationRepository.recordAttempt(eq(USERNAME), eq("000000"), eq(5), any(Instant.class), any(Instant.class)))
+                .thenReturn(Optional.of(attempt(1, false, false)));
 
         // Act
-        TokenResponse response = otpService.verifyOtp(USERNAME, "wrongOtp", httpServletRequest);
+        TokenResponse response = otpService.verifyOtp(USERNAME, "000000", httpServletRequest);
 
         // Assert
-        verify(otpVerificationRepository).findValidOtpByUsername(USERNAME);
-        verify(otpVerificationRepository).save(otpVerification);
-
         assertEquals(1, response.getOtpCount());
         assertFalse(response.isLocked());
         assertFalse(response.isVerified());
         assertFalse(response.isExpired());
+        verifyNoInteractions(userRepository);
+        verify(otpVerificationRepository, never()).findValidOtpByUsername(anyString());
     }
 
     @Test
     void verifyOtp_ShouldCreateTokenAndUpdateUser_WhenOtpValid() {
         // Arrange
-        OtpVerification savedOtp = new OtpVerification();
-        savedOtp.setAttemptCount(1);
-        savedOtp.setValidated(true);
-        savedOtp.setExpiryTime(Instant.now().plus(5, ChronoUnit.MINUTES)); // Not expired
-
-        when(otpVerificationRepository.findValidOtpByUsername(USERNAME))
-                .thenReturn(Optional.of(otpVerification));
-        when(otpVerificationRepository.save(any(OtpVerification.class)))
-                .thenReturn(savedOtp);
+        when(otpVerificationRepository.recordAttempt(eq(USERNAME), eq(OTP), eq(5), any(Instant.class), any(Instant.class)))
+                .thenReturn(Optional.of(attempt(1, false, true)));
 
         when(userRepository.findByUsername(USERNAME))
                 .thenReturn(Optional.of(user));
@@ -368,12 +366,11 @@ public class OtpServiceImplTest {
         TokenResponse response = otpService.verifyOtp(USERNAME, OTP, httpServletRequest);
 
         // Assert
-        verify(otpVerificationRepository).findValidOtpByUsername(USERNAME);
         verify(userRepository).findByUsername(USERNAME);
         verify(userRepository).save(user);
         verify(tokenService).createRefreshToken(eq(user), eq(httpServletRequest));
         verify(jwtUtils).generateTokenFromUsername(any(CustomUserDetails.class));
-        verify(otpVerificationRepository).save(otpVerification);
+        verify(otpVerificationRepository, never()).save(any(OtpVerification.class));
 
         // Verify user was updated
         assertTrue(user.isEnabled());
@@ -387,4 +384,39 @@ public class OtpServiceImplTest {
         assertFalse(response.isLocked());
         assertFalse(response.isExpired());
     }
-}
\ No newline at end of file
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void removeExpiredOtps_ShouldDeleteInBatches() {
+        // Arrange
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                ((TransactionCallback<Integer>) invocation.getArgument(0)).doInTransaction(null));
+        when(otpVerificationRepository.deleteExpired(any(Instant.class), eq(1000))).thenReturn(1000, 7);
+
+        // Act
+        otpService.removeExpiredOtps();
+
+        // Assert
+        verify(otpVerificationRepository, times(2)).deleteExpired(
+                argThat(before -> before.isBefore(Instant.now().minus(Duration.ofHours(23)))), eq(1000));
+    }
+
+    private static OtpVerificationRepository.OtpAttempt attempt(int attempts, boolean locked, boolean validated) {
+        return new OtpVerificationRepository.OtpAttempt() {
+            @Override
+            public int getAttempts() {
+                return attempts;
+            }
+
+            @Override
+            public boolean getLocked() {
+                return locked;
+            }
+
+            @Override
+            public boolean getValidated() {
+                return validated;
+            }
+        };
+    }
+}
@@ -0,0 +1,178 @@
+package com.dms.auth.service.impl;
+
+import com.dms.auth.dto.RevocationEvent;
+import com.dms.auth.entity.TokenRevocation;
+import com.dms.auth.enums.RevocationType;
+import com.dms.auth.producer.RabbitMQMessageProducer;
+import com.dms.auth.repository.TokenRevocationRepository;
+import com.dms.auth.security.service.UserDetailsServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.AmqpException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TokenRevocationServiceImplTest {
+    private static final String EXCHANGE = "auth.revocation.exchange";
+    private static final String USERNAME = "testuser";
+
+    @Mock
+    private TokenRevocationRepository tokenRevocationRepository;
+
+    @Mock
+    private RabbitMQMessageProducer rabbitMQMessageProducer;
+
+    @Mock
+    private UserDetailsServiceImpl userDetailsService;
+
+    @InjectMocks
+    private TokenRevocationServiceImpl tokenRevocationService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(tokenRevocationService, "revocationExchange", EXCHANGE);
+        ReflectionTestUtils.setField(tokenRevocationService, "accessTokenExpirationMs", Duration.ofHours(6).toMillis());
+    }
+
+    @Test
+    void revokeUserTokens_RevokesTokensIssuedBeforeOnly() {
+        // Arrange
+        Instant issuedBefore = Instant.now().minusSeconds(60).truncatedTo(ChronoUnit.SECONDS);
+
+        // Act
+        tokenRevocationService.revokeUserTokens(USERNAME);
+
+        // Assert
+        assertTrue(tokenRevocationService.isRevoked(USERNAME, "token-id", issuedBefore));
+        assertFalse(tokenRevocationService.isRevoked(USERNAME, "token-id", Instant.now().plusSeconds(1)));
+        assertFalse(tokenRevocationService.isRevoked("otheruser", "token-id", issuedBefore));
+        verify(tokenRevocationRepository).save(any(TokenRevocation.class));
+        verify(rabbitMQMessageProducer).publish(any(RevocationEvent.class), eq(EXCHANGE), eq(""));
+        verify(userDetailsService).evict(USERNAME);
+    }
+
+    @Test
+    void revokeToken_RevokesOnlyThatTokenUntilItExpires() {
+        // Arrange
+        Instant issuedAt = Instant.now().minusSeconds(60);
+
+        // Act
+        tokenRevocationService.revokeToken(USERNAME, "revoked-id", Instant.now().plusSeconds(60));
+        tokenRevocationService.revokeToken(USERNAME, "expired-id", Instant.now().minusSeconds(1));
+
+        // Assert
+        assertTrue(tokenRevocationService.isRevoked(USERNAME, "revoked-id", issuedAt));
+        assertFalse(tokenRevocationService.isRevoked(USERNAME, "expired-id", issuedAt));
+        assertFalse(tokenRevocationService.isRevoked(USERNAME, "other-id", issuedAt));
+    }
+
+    @Test
+    void revokeUserTokens_TokenIssuedInSameSecondAfterRevocation_NotRevoked() {
+        // Arrange - signing straight back in after a logout issues a token with iat in the same second
+        Instant revokedAt = Instant.now();
+
+        // Act
+        tokenRevocationService.revokeUserTokens(USERNAME);
+
+        // Assert
+        Instant sameSecond = revokedAt.truncatedTo(ChronoUnit.SECONDS);
+        assertFalse(tokenRevocationService.isRevoked(USERNAME, "new-token-id", sameSecond));
+        assertTrue(tokenRevocationService.isRevoked(USERNAME, "old-token-id", sameSecond.minusSeconds(1)));
+    }
+
+    @Test
+    void apply_SubSecondCutoff_ComparedInWholeSeconds() {
+        // Arrange - revocations stored before cutoffs were truncated keep their sub-second part
+        Instant revokedBefore = Instant.parse("2030-01-01T00:00:00.750Z");
+        tokenRevocationService.apply(RevocationEvent.builder()
+                .type(RevocationType.USER_TOKENS)
+                .username(USERNAME)
+                .revokedBefore(revokedBefore)
+                .expiresAt(Instant.now().plusSeconds(60))
+                .build());
+
+        // Act & Assert
+        assertFalse(tokenRevocationService.isRevoked(USERNAME, "token-id", Instant.parse("2030-01-01T00:00:00Z")));
+        assertTrue(tokenRevocationService.isRevoked(USERNAME, "token-id", Instant.parse("2029-12-31T23:59:59Z")));
+    }
+
+    @Test
+    void revokeUserTokens_PublishFails_StillRevokedLocally() {
+        // Arrange
+        doThrow(new AmqpException("Broker unavailable"))
+                .when(rabbitMQMessageProducer).publish(any(), anyString(), anyString());
+
+        // Act
+        tokenRevocationService.revokeUserTokens(USERNAME);
+
+        // Assert
+        assertTrue(tokenRevocationService.isRevoked(USERNAME, null, Instant.now().minusSeconds(60)));
+    }
+
+    @Test
+    void apply_UserDetailsEvent_EvictsCachedUserDetails() {
+        // Arrange
+        RevocationEvent event = RevocationEvent.builder()
+                .type(RevocationType.USER_DETAILS)
+                .username(USERNAME)
+                .build();
+
+        // Act
+        tokenRevocationService.apply(event);
+
+        // Assert
+        verify(userDetailsService).evict(USERNAME);
+        assertFalse(tokenRevocationService.isRevoked(USERNAME, null, Instant.now().minusSeconds(60)));
+    }
+
+    @Test
+    void init_LoadsUnexpiredRevocations() {
+        // Arrange
+        Instant now = Instant.now();
+        when(tokenRevocationRepository.findByExpiresAtAfter(any(Instant.class))).thenReturn(List.of(
+                TokenRevocation.builder().username("other").tokenId("revoked-id").expiresAt(now.plusSeconds(60)).build(),
+                TokenRevocation.builder().username(USERNAME).revokedBefore(now).expiresAt(now.plusSeconds(60)).build()));
+
+        // Act
+        tokenRevocationService.init();
+
+        // Assert
+        assertTrue(tokenRevocationService.isRevoked("other", "revoked-id", now.minusSeconds(60)));
+        assertTrue(tokenRevocationService.isRevoked(USERNAME, "token-id", now.minusSeconds(60)));
+        verifyNoInteractions(rabbitMQMessageProducer);
+    }
+
+    @Test
+    void removeExpiredRevocations_RemovesExpiredEntries() {
+        // Arrange
+        tokenRevocationService.apply(RevocationEvent.builder()
+                .type(RevocationType.USER_TOKENS)
+                .username(USERNAME)
+                .revokedBefore(Instant.now().minus(Duration.ofHours(7)))
+                .expiresAt(Instant.now().minusSeconds(1))
+                .build());
+
+        // Act
+        tokenRevocationService.removeExpiredRevocations();
+
+        // Assert
+        verify(tokenRevocationRepository).deleteAllExpired(any(Instant.class));
+        assertTrue(((Map<?, ?>) ReflectionTestUtils.getField(tokenRevocationService, "revokedUsers")).isEmpty());
+    }
+}
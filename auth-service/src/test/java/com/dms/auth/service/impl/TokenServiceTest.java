@@ -6,6 +6,7 @@ import com.dms.auth.entity.User;
 import com.dms.auth.enums.AppRole;
 import com.dms.auth.enums.TokenType;
 import com.dms.auth.repository.AuthTokenRepository;
+import com.dms.auth.service.TokenRevocationService;
 import jakarta.servlet.http.HttpServletRequest;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -14,6 +15,8 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.Instant;
 import java.util.Arrays;
@@ -23,6 +26,7 @@ import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -31,6 +35,12 @@ public class TokenServiceTest {
     @Mock
     private AuthTokenRepository authTokenRepository;
 
+    @Mock
+    private TokenRevocationService tokenRevocationService;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
     @InjectMocks
     private TokenServiceImpl tokenService;
 
@@ -52,7 +62,7 @@ public class TokenServiceTest {
     void setUp() {
         // Set token expiration times
         ReflectionTestUtils.setField(tokenService, "refreshTokenDurationMs", 86400000L); // 24 hours
-        ReflectionTestUtils.setField(tokenService, "accessTokenDurationMs", 3600000L); // 1 hour
+        ReflectionTestUtils.setField(tokenService, "purgeBatchSize", 1000);
 
         // Setup test user
         Role role = new Role();
@@ -162,35 +172,6 @@ public class TokenServiceTest {
         verify(authTokenRepository).save(any(AuthToken.class));
     }
 
-    @Test
-    void testCreateAccessToken() {
-        // Given
-        String jwtToken = "sampleJwtToken";
-        String expectedTokenHash = org.apache.commons.codec.digest.DigestUtils.sha256Hex(jwtToken);
-        when(httpServletRequest.getHeader("User-Agent")).thenReturn(userAgent);
-        when(httpServletRequest.getRemoteAddr()).thenReturn(ipAddress);
-        when(authTokenRepository.save(any(AuthToken.class))).thenAnswer(i -> i.getArgument(0));
-
-        // When
-        AuthToken result = tokenService.createAccessToken(testUser, jwtToken, httpServletRequest);
-
-        // Then
-        assertNotNull(result);
-        assertEquals(testUser, result.getUser());
-        assertEquals(TokenType.ACCESS, result.getTokenType());
-        assertEquals(expectedTokenHash, result.getToken());
-        assertEquals(userAgent, result.getUserAgent());
-        assertEquals(ipAddress, result.getIpAddress());
-        assertFalse(result.isRevoked());
-
-        // Verify token expiry
-        long expectedExpiryEpochMilli = Instant.now().plusMillis(3600000L).toEpochMilli();
-        long actualExpiryEpochMilli = result.getExpiryDate().toEpochMilli();
-        assertTrue(Math.abs(expectedExpiryEpochMilli - actualExpiryEpochMilli) < 1000);
-
-        verify(authTokenRepository).save(any(AuthToken.class));
-    }
-
     @Test
     void testFindByToken_TokenExists() {
         // Given
@@ -347,6 +328,7 @@ public class TokenServiceTest {
 
         // Then
         verify(authTokenRepository).revokeAllUserTokens(testUser);
+        verify(tokenRevocationService).revokeUserTokens(testUser.getUsername());
     }
 
     @Test
@@ -356,6 +338,17 @@ public class TokenServiceTest {
 
         // Then
         verify(authTokenRepository).revokeAllUserTokensByType(testUser, TokenType.REFRESH);
+        verifyNoInteractions(tokenRevocationService);
+    }
+
+    @Test
+    void testRevokeAllUserAccessTokens() {
+        // When
+        tokenService.revokeAllUserTokensByType(testUser, TokenType.ACCESS);
+
+        // Then
+        verify(tokenRevocationService).revokeUserTokens(testUser.getUsername());
+        verifyNoInteractions(authTokenRepository);
     }
 
     @Test
@@ -389,19 +382,34 @@ public class TokenServiceTest {
 
     @Test
     void testRemoveExpiredTokens() {
+        // Given
+        runTransactions();
+        when(authTokenRepository.deleteExpiredTokens(any(Instant.class), eq(1000))).thenReturn(1000, 1000, 42);
+
         // When
         tokenService.removeExpiredTokens();
 
         // Then
-        verify(authTokenRepository).deleteAllExpiredTokens(any(Instant.class));
+        verify(authTokenRepository, times(3)).deleteExpiredTokens(any(Instant.class), eq(1000));
+        verify(transactionTemplate, times(3)).execute(any());
     }
 
     @Test
     void testRemoveExpiredTokens_NoExpiredTokens() {
+        // Given
+        runTransactions();
+        when(authTokenRepository.deleteExpiredTokens(any(Instant.class), eq(1000))).thenReturn(0);
+
         // When
         tokenService.removeExpiredTokens();
 
         // Then
-        verify(authTokenRepository).deleteAllExpiredTokens(any(Instant.class));
+        verify(authTokenRepository, times(1)).deleteExpiredTokens(any(Instant.class), eq(1000));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void runTransactions() {
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                ((TransactionCallback<Integer>) invocation.getArgument(0)).doInTransaction(null));
     }
-}
\ No newline at end of file
+}
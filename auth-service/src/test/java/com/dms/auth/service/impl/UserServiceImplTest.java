@@ -3,6 +3,7 @@ package com.dms.auth.service.impl;
 import com.dms.auth.dto.RoleDto;
 import com.dms.auth.dto.UserDto;
 import com.dms.auth.dto.UserSearchResponse;
+import com.dms.auth.dto.UserSummary;
 import com.dms.auth.dto.request.*;
 import com.dms.auth.entity.AuthToken;
 import com.dms.auth.entity.PasswordResetToken;
@@ -21,11 +22,15 @@ import com.dms.auth.security.request.Verify2FARequest;
 import com.dms.auth.security.response.TokenResponse;
 import com.dms.auth.security.response.UserInfoResponse;
 import com.dms.auth.security.service.CustomUserDetails;
+import com.dms.auth.security.service.VerificationAttemptLimiter;
 import com.dms.auth.service.OtpService;
 import com.dms.auth.service.PublishEventService;
+import com.dms.auth.service.TokenRevocationService;
 import com.dms.auth.service.TokenService;
 import com.dms.auth.service.TotpService;
 import com.warrenstrange.googleauth.GoogleAuthenticatorKey;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
 import jakarta.servlet.http.HttpServletRequest;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -34,15 +39,22 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.LockedException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
 import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -68,6 +80,9 @@ public class UserServiceImplTest {
     @Mock
     private TokenService authTokenService;
 
+    @Mock
+    private TokenRevocationService tokenRevocationService;
+
     @Mock
     private PasswordEncoder passwordEncoder;
 
@@ -92,6 +107,9 @@ public class UserServiceImplTest {
     @Mock
     private Authentication authentication;
 
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -152,6 +170,11 @@ public class UserServiceImplTest {
         passwordResetToken.setUser(testUser);
         passwordResetToken.setExpiryDate(Instant.now().plusSeconds(3600));
         passwordResetToken.setUsed(false);
+
+        ReflectionTestUtils.setField(userService, "attemptLimiter",
+                new VerificationAttemptLimiter(10, Duration.ofMinutes(5), 1000));
+        ReflectionTestUtils.setField(userService, "purgeBatchSize", 1000);
+        ReflectionTestUtils.setField(userService, "purgeRetention", Duration.ofDays(1));
     }
 
     @Test
@@ -366,6 +389,7 @@ public class UserServiceImplTest {
         verify(passwordEncoder).matches("currentPassword", originalPassword);
         verify(passwordEncoder).matches("NewPassword1@", originalPassword);
         verify(passwordEncoder).encode("NewPassword1@");
+        verify(passwordResetTokenRepository).markUnusedTokensUsed(eq(userId), any(Instant.class));
         verify(userRepository).save(testUser);
 
         // Verify that the password was updated in the user object
@@ -422,6 +446,7 @@ public class UserServiceImplTest {
     void testUpdateProfile_Success() {
         // Arrange
         UUID userId = testUser.getUserId();
+        String previousUsername = testUser.getUsername();
         UpdateProfileRequest request = new UpdateProfileRequest();
         request.setUsername("updatedUsername");
         request.setEmail("updated@example.com");
@@ -440,6 +465,7 @@ public class UserServiceImplTest {
         verify(userRepository).save(testUser);
         assertEquals("updatedUsername", testUser.getUsername());
         assertEquals("updated@example.com", testUser.getEmail());
+        verify(tokenRevocationService).userDetailsChanged(previousUsername);
     }
 
     @Test
@@ -488,12 +514,11 @@ public class UserServiceImplTest {
     @Test
     void testSearchUsers_Success() {
         // Arrange
-        String query = "test";
-        List<User> users = new ArrayList<>();
-        users.add(testUser);
+        String query = "Te_st ";
+        UserSummary summary = new UserSummary(testUser.getUserId(), testUser.getUsername(), testUser.getEmail(), 0L);
 
-        when(userRepository.findByUsernameContainingIgnoreCaseOrEmailContainingIgnoreCase(query, query))
-                .thenReturn(users);
+        when(userRepository.searchSummaries(eq("%te\\_st%"), any(Limit.class)))
+                .thenReturn(List.of(summary));
 
         // Act
         List<UserSearchResponse> result = userService.searchUsers(query);
@@ -505,7 +530,17 @@ public class UserServiceImplTest {
         assertEquals(testUser.getUsername(), result.get(0).username());
         assertEquals(testUser.getEmail(), result.get(0).email());
 
-        verify(userRepository).findByUsernameContainingIgnoreCaseOrEmailContainingIgnoreCase(query, query);
+        verify(userRepository).searchSummaries(eq("%te\\_st%"), any(Limit.class));
+    }
+
+    @Test
+    void testSearchUsers_BlankQuery() {
+        // Act
+        List<UserSearchResponse> result = userService.searchUsers("  ");
+
+        // Assert
+        assertTrue(result.isEmpty());
+        verifyNoInteractions(userRepository);
     }
 
     @Test
@@ -532,6 +567,35 @@ public class UserServiceImplTest {
         verify(userRepository).findAllById(userIds);
     }
 
+    @Test
+    void testGetUserSummaries_MergesIdAndUsernameMatches() {
+        // Arrange
+        UserSummary byId = new UserSummary(UUID.fromString("00000000-0000-0000-0000-000000000002"), "second", "second@example.com", 2L);
+        UserSummary both = new UserSummary(UUID.fromString("00000000-0000-0000-0000-000000000001"), "first", "first@example.com", 1L);
+        UserSummaryRequest request = new UserSummaryRequest();
+        request.setUserIds(List.of(byId.userId(), both.userId(), byId.userId()));
+        request.setUsernames(List.of("first"));
+
+        when(userRepository.findSummariesByUserIdIn(Set.of(byId.userId(), both.userId()))).thenReturn(List.of(byId, both));
+        when(userRepository.findSummariesByUsernameIn(Set.of("first"))).thenReturn(List.of(both));
+
+        // Act
+        List<UserSummary> result = userService.getUserSummaries(request);
+
+        // Assert
+        assertEquals(List.of(both, byId), result);
+        verify(userRepository, never()).findAllById(any());
+    }
+
+    @Test
+    void testGetUserSummary_NotFound() {
+        // Arrange
+        when(userRepository.findSummariesByUsernameIn(List.of("missing"))).thenReturn(List.of());
+
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class, () -> userService.getUserSummary("missing"));
+    }
+
     @Test
     void testRefreshToken_Success() {
         // Arrange
@@ -587,7 +651,7 @@ public class UserServiceImplTest {
                 .thenReturn(Optional.empty());
 
         // Act
-        userService.logout(refreshTokenString);
+        userService.logout(refreshTokenString, httpServletRequest);
 
         // Assert
         verify(authTokenService).findByTokenAndType(refreshTokenString, TokenType.REFRESH);
@@ -600,7 +664,6 @@ public class UserServiceImplTest {
         String email = "test@example.com";
         when(userRepository.findByEmail(email)).thenReturn(Optional.of(testUser));
         when(passwordResetTokenRepository.findLatestByUserEmail(email)).thenReturn(Optional.empty());
-        when(passwordResetTokenRepository.findAllByUserId(testUser.getUserId())).thenReturn(new ArrayList<>());
 
         // Act
         userService.generatePasswordResetToken(email);
@@ -608,7 +671,7 @@ public class UserServiceImplTest {
         // Assert
         verify(userRepository).findByEmail(email);
         verify(passwordResetTokenRepository).findLatestByUserEmail(email);
-        verify(passwordResetTokenRepository).findAllByUserId(testUser.getUserId());
+        verify(passwordResetTokenRepository).markUnusedTokensUsed(eq(testUser.getUserId()), any(Instant.class));
         verify(passwordResetTokenRepository).save(any(PasswordResetToken.class));
         verify(publishEventService).sendPasswordResetEmail(eq(testUser), anyString(), anyInt());
     }
@@ -630,7 +693,7 @@ public class UserServiceImplTest {
 
         verify(userRepository).findByEmail(email);
         verify(passwordResetTokenRepository).findLatestByUserEmail(email);
-        verify(passwordResetTokenRepository, never()).findAllByUserId(any());
+        verify(passwordResetTokenRepository, never()).markUnusedTokensUsed(any(), any());
         verify(passwordResetTokenRepository, never()).save(any());
     }
 
@@ -744,7 +807,7 @@ public class UserServiceImplTest {
         verify(userRepository).findById(userId);
         verify(roleRepository).findByRoleName(AppRole.ROLE_ADMIN);
         verify(userRepository).save(testUser);
-        assertEquals(adminRole, testUser.getRole());
+        assertEquals(adminRole, testUser.getRole());        verify(tokenRevocationService).userDetailsChanged(testUser.getUsername());
     }
 
     @Test
@@ -1025,7 +1088,7 @@ public class UserServiceImplTest {
         // Set the two-factor secret on the test user
         testUser.setTwoFactorSecret("TESTSECRET");
 
-        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
+        when(userRepository.findTwoFactorSecretByUsername("testuser")).thenReturn(Optional.of("TESTSECRET"));
         // Use doReturn().when() syntax to avoid argument matching issues
         doReturn(true).when(totpService).verifyCode(anyString(), anyInt());
 
@@ -1034,7 +1097,8 @@ public class UserServiceImplTest {
 
         // Assert
         assertTrue(result);
-        verify(userRepository).findByUsername("testuser");
+        verify(userRepository).findTwoFactorSecretByUsername("testuser");
+        verify(userRepository, never()).findByUsername(anyString());
         verify(totpService).verifyCode("TESTSECRET", 123456);
     }
 
@@ -1048,7 +1112,7 @@ public class UserServiceImplTest {
         // Set the two-factor secret on the test user
         testUser.setTwoFactorSecret("TESTSECRET");
 
-        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
+        when(userRepository.findTwoFactorSecretByUsername("testuser")).thenReturn(Optional.of("TESTSECRET"));
         // Use doReturn().when() syntax to avoid argument matching issues
         doReturn(false).when(totpService).verifyCode(anyString(), anyInt());
 
@@ -1057,10 +1121,46 @@ public class UserServiceImplTest {
 
         // Assert
         assertFalse(result);
-        verify(userRepository).findByUsername("testuser");
+        verify(userRepository).findTwoFactorSecretByUsername("testuser");
         verify(totpService).verifyCode("TESTSECRET", 123456);
     }
 
+    @Test
+    void testValidate2FACode_TooManyAttempts() {
+        // Arrange
+        ReflectionTestUtils.setField(userService, "attemptLimiter",
+                new VerificationAttemptLimiter(2, Duration.ofMinutes(5), 1000));
+        Verify2FARequest request = new Verify2FARequest();
+        request.setUsername("testuser");
+        request.setCode("123456");
+
+        when(userRepository.findTwoFactorSecretByUsername("testuser")).thenReturn(Optional.of("TESTSECRET"));
+        doReturn(false).when(totpService).verifyCode(anyString(), anyInt());
+        userService.validate2FACode(request);
+        userService.validate2FACode(request);
+
+        // Act & Assert
+        LockedException exception = assertThrows(LockedException.class, () -> userService.validate2FACode(request));
+        assertEquals("TOO_MANY_ATTEMPTS", exception.getMessage());
+        verify(userRepository, times(2)).findTwoFactorSecretByUsername("testuser");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testRemoveExpiredPasswordResetTokens() {
+        // Arrange
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                ((TransactionCallback<Integer>) invocation.getArgument(0)).doInTransaction(null));
+        when(passwordResetTokenRepository.deleteExpired(any(Instant.class), eq(1000))).thenReturn(1000, 1000, 3);
+
+        // Act
+        userService.removeExpiredPasswordResetTokens();
+
+        // Assert
+        verify(passwordResetTokenRepository, times(3)).deleteExpired(any(Instant.class), eq(1000));
+        verify(transactionTemplate, times(3)).execute(any());
+    }
+
     @Test
     void testEnable2FA_Success() {
         // Arrange
@@ -1154,7 +1254,7 @@ public class UserServiceImplTest {
     }
 
     @Test
-    void testLogout_TokenExists_RevokesAccessTokens() {
+    void testLogout_WithoutAccessToken_RevokesAllAccessTokens() {
         // Arrange
         String refreshTokenString = "refresh-token";
         AuthToken authToken = new AuthToken();
@@ -1166,37 +1266,55 @@ public class UserServiceImplTest {
                 .thenReturn(Optional.of(authToken));
 
         // Act
-        userService.logout(refreshTokenString);
+        userService.logout(refreshTokenString, httpServletRequest);
 
         // Assert
         verify(authTokenService).findByTokenAndType(refreshTokenString, TokenType.REFRESH);
         verify(authTokenService).revokeToken(refreshTokenString, TokenType.REFRESH);
         verify(authTokenService).revokeAllUserTokensByType(testUser, TokenType.ACCESS);
+        verify(tokenRevocationService, never()).revokeToken(anyString(), anyString(), any());
+    }
+
+    @Test
+    void testLogout_WithAccessToken_RevokesOnlyThatToken() {
+        // Arrange
+        String refreshTokenString = "refresh-token";
+        AuthToken authToken = new AuthToken();
+        authToken.setToken(refreshTokenString);
+        authToken.setUser(testUser);
+        authToken.setTokenType(TokenType.REFRESH);
+        Date expiresAt = Date.from(Instant.now().plusSeconds(60).truncatedTo(ChronoUnit.SECONDS));
+        Claims claims = Jwts.claims().subject(testUser.getUsername()).id("token-id").expiration(expiresAt).build();
+
+        when(authTokenService.findByTokenAndType(refreshTokenString, TokenType.REFRESH))
+                .thenReturn(Optional.of(authToken));
+        when(jwtUtils.getJwtFromHeader(httpServletRequest)).thenReturn("access-token");
+        when(jwtUtils.getVerifiedClaims("access-token")).thenReturn(Optional.of(claims));
+
+        // Act
+        userService.logout(refreshTokenString, httpServletRequest);
+
+        // Assert
+        verify(authTokenService).revokeToken(refreshTokenString, TokenType.REFRESH);
+        verify(tokenRevocationService).revokeToken(testUser.getUsername(), "token-id", expiresAt.toInstant());
+        verify(authTokenService, never()).revokeAllUserTokensByType(any(), any());
     }
 
     @Test
     void testGeneratePasswordResetToken_MultipleOldTokens() {
         // Arrange
         String email = "test@example.com";
-        PasswordResetToken oldToken1 = new PasswordResetToken();
-        oldToken1.setUser(testUser);
-        oldToken1.setUsed(false);
-        PasswordResetToken oldToken2 = new PasswordResetToken();
-        oldToken2.setUser(testUser);
-        oldToken2.setUsed(false);
-
         when(userRepository.findByEmail(email)).thenReturn(Optional.of(testUser));
         when(passwordResetTokenRepository.findLatestByUserEmail(email)).thenReturn(Optional.empty());
-        when(passwordResetTokenRepository.findAllByUserId(testUser.getUserId()))
-                .thenReturn(Arrays.asList(oldToken1, oldToken2));
+        when(passwordResetTokenRepository.markUnusedTokensUsed(eq(testUser.getUserId()), any(Instant.class)))
+                .thenReturn(2);
 
         // Act
         userService.generatePasswordResetToken(email);
 
         // Assert
-        assertTrue(oldToken1.isUsed());
-        assertTrue(oldToken2.isUsed());
-        verify(passwordResetTokenRepository).saveAllAndFlush(Arrays.asList(oldToken1, oldToken2));
+        verify(passwordResetTokenRepository).markUnusedTokensUsed(eq(testUser.getUserId()), any(Instant.class));
+        verify(passwordResetTokenRepository, never()).findAll();
         verify(passwordResetTokenRepository).save(any(PasswordResetToken.class));
         verify(publishEventService).sendPasswordResetEmail(eq(testUser), anyString(), eq(5 * 60));
     }
@@ -0,0 +1,109 @@
+package com.dms.document.interaction.load;
+
+import io.gatling.javaapi.core.*;
+import io.gatling.javaapi.http.HttpProtocolBuilder;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import static io.gatling.javaapi.core.CoreDsl.*;
+import static io.gatling.javaapi.http.HttpDsl.http;
+import static io.gatling.javaapi.http.HttpDsl.status;
+
+/**
+ * Concurrent favorite and recommendation toggles on a handful of hot documents. Users flip random documents on and
+ * off at a fixed rate, so many requests race for the same (user, document) pair; a duplicate favorite answers 409 and
+ * an unchanged recommendation 204, both expected.
+ * <p>
+ * When the simulation starts its own service, it checks afterwards that the counter stored on every document equals
+ * the number of favorite and recommendation rows, and fails the run otherwise. Rates are requests per second, e.g.
+ * {@code -Dload.favorite-rps=200 -Dload.recommendation-rps=50 -Dload.hot-documents=5}.
+ * Results land in {@code target/gatling/<run>/js/stats.json}.
+ */
+public class ConcurrentToggleSimulation extends Simulation {
+    private static final int PORT = Integer.getInteger("load.port", 18085);
+    private static final String BASE_URL = System.getProperty("load.base-url");
+    private static final int HOT_DOCUMENTS = Integer.getInteger("load.hot-documents", 5);
+    private static final int USER_COUNT = Integer.getInteger("load.users", 200);
+    private static final int MENTOR_COUNT = Integer.getInteger("load.mentors", 50);
+    private static final double FAVORITE_RPS = Double.parseDouble(System.getProperty("load.favorite-rps", "100"));
+    private static final double RECOMMENDATION_RPS = Double.parseDouble(System.getProperty("load.recommendation-rps", "25"));
+    private static final Duration RAMP = Duration.ofSeconds(Long.getLong("load.ramp", 10L));
+    private static final Duration DURATION = Duration.ofSeconds(Long.getLong("load.duration", 60L));
+
+    private InteractionLoadTestEnvironment environment;
+
+    private final HttpProtocolBuilder httpProtocol = http
+            .baseUrl(BASE_URL != null ? BASE_URL : "http://localhost:" + PORT)
+            .acceptHeader("application/json")
+            .header("Authorization", "Bearer #{username}")
+            .shareConnections();
+
+    private final ScenarioBuilder favorites = scenario("favorite-toggle")
+            .feed(toggles("user-", USER_COUNT))
+            .exec(http("favorite")
+                    .post("/api/v1/documents/#{documentId}/favorites")
+                    .queryParam("favorite", "#{on}")
+                    .check(status().in(200, 409)));
+
+    private final ScenarioBuilder recommendations = scenario("recommendation-toggle")
+            .feed(toggles("mentor-", MENTOR_COUNT))
+            .exec(http("recommendation")
+                    .post("/api/v1/documents/#{documentId}/recommendations")
+                    .queryParam("recommend", "#{on}")
+                    .check(status().in(200, 204)));
+
+    {
+        setUp(
+                favorites.injectOpen(rampUsersPerSec(1).to(FAVORITE_RPS).during(RAMP), constantUsersPerSec(FAVORITE_RPS).during(DURATION)),
+                recommendations.injectOpen(rampUsersPerSec(1).to(RECOMMENDATION_RPS).during(RAMP), constantUsersPerSec(RECOMMENDATION_RPS).during(DURATION))
+        ).protocols(httpProtocol)
+                .assertions(global().failedRequests().count().is(0L));
+    }
+
+    @Override
+    public void before() {
+        if (BASE_URL != null) {
+            return;
+        }
+        environment = new InteractionLoadTestEnvironment(PORT, HOT_DOCUMENTS);
+        try {
+            environment.start();
+        } catch (Exception e) {
+            environment.close();
+            throw new IllegalStateException("Failed to start load test environment", e);
+        }
+    }
+
+    @Override
+    public void after() {
+        if (environment == null) {
+            return;
+        }
+        try {
+            List<String> mismatches = environment.counterMismatches();
+            if (!mismatches.isEmpty()) {
+                throw new IllegalStateException("Counters out of step with their rows: " + mismatches);
+            }
+            System.out.println("Counters match their rows on all " + HOT_DOCUMENTS + " documents");
+        } finally {
+            environment.close();
+        }
+    }
+
+    private static Iterator<Map<String, Object>> toggles(String usernamePrefix, int userCount) {
+        Supplier<Map<String, Object>> next = () -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            return Map.of(
+                    "username", usernamePrefix + random.nextInt(userCount),
+                    "documentId", InteractionLoadTestEnvironment.documentId(random.nextInt(HOT_DOCUMENTS)),
+                    "on", random.nextBoolean());
+        };
+        return Stream.generate(next).iterator();
+    }
+}
@@ -0,0 +1,172 @@
+package com.dms.document.interaction.load;
+
+import com.dms.document.interaction.DocumentInteractionServiceApplication;
+import com.dms.document.interaction.enums.DocumentStatus;
+import com.dms.document.interaction.enums.DocumentType;
+import com.dms.document.interaction.enums.SharingType;
+import com.dms.document.interaction.model.DocumentInformation;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.containers.RabbitMQContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Starts the interaction service against throwaway PostgreSQL, MongoDB and RabbitMQ containers, creates the
+ * favorite and recommendation tables with the unique constraints of the auth-service migrations and seeds
+ * public documents with zero counters. Requires a local Docker daemon.
+ */
+public class InteractionLoadTestEnvironment implements AutoCloseable {
+    private static final String FAVORITES_DDL = """
+            CREATE TABLE document_favorites
+            (
+                id          BIGSERIAL PRIMARY KEY,
+                user_id     UUID                     NOT NULL,
+                document_id VARCHAR                  NOT NULL,
+                created_at  TIMESTAMP WITH TIME ZONE NOT NULL,
+                UNIQUE (user_id, document_id)
+            )
+            """;
+    private static final String RECOMMENDATIONS_DDL = """
+            CREATE TABLE document_recommendations
+            (
+                id          BIGSERIAL PRIMARY KEY,
+                document_id VARCHAR(255)             NOT NULL,
+                mentor_id   UUID                     NOT NULL,
+                created_at  TIMESTAMP WITH TIME ZONE NOT NULL,
+                CONSTRAINT document_mentor_unique UNIQUE (document_id, mentor_id)
+            )
+            """;
+
+    private final int port;
+    private final int documentCount;
+
+    private PostgreSQLContainer<?> postgres;
+    private MongoDBContainer mongo;
+    private RabbitMQContainer rabbit;
+    private ConfigurableApplicationContext context;
+
+    public InteractionLoadTestEnvironment(int port, int documentCount) {
+        this.port = port;
+        this.documentCount = documentCount;
+    }
+
+    public static String documentId(int index) {
+        return "load-doc-" + index;
+    }
+
+    public void start() {
+        postgres = new PostgreSQLContainer<>(DockerImageName.parse("postgres:16-alpine"));
+        mongo = new MongoDBContainer(DockerImageName.parse("mongo:7.0"));
+        rabbit = new RabbitMQContainer(DockerImageName.parse("rabbitmq:3.13-management-alpine"));
+        postgres.start();
+        mongo.start();
+        rabbit.start();
+
+        context = new SpringApplicationBuilder(DocumentInteractionServiceApplication.class, LoadTestStubs.class)
+                .run(applicationArguments());
+
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        jdbcTemplate.execute(FAVORITES_DDL);
+        jdbcTemplate.execute(RECOMMENDATIONS_DDL);
+        seedDocuments(context.getBean(MongoTemplate.class));
+    }
+
+    /**
+     * Compares the stored counters of every seeded document with the rows they are derived from.
+     *
+     * @return descriptions of the documents whose counters drifted, empty if all match
+     */
+    public List<String> counterMismatches() {
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        Map<String, Long> favorites = rowCounts(jdbcTemplate,
+                "SELECT document_id, COUNT(*) AS cnt FROM document_favorites GROUP BY document_id");
+        Map<String, Long> recommendations = rowCounts(jdbcTemplate,
+                "SELECT document_id, COUNT(*) AS cnt FROM document_recommendations GROUP BY document_id");
+
+        List<String> mismatches = new ArrayList<>();
+        for (DocumentInformation document : context.getBean(MongoTemplate.class).findAll(DocumentInformation.class)) {
+            long favoriteRows = favorites.getOrDefault(document.getId(), 0L);
+            long recommendationRows = recommendations.getOrDefault(document.getId(), 0L);
+            if (!Objects.equals(document.getFavoriteCount(), (int) favoriteRows)
+                    || !Objects.equals(document.getRecommendationCount(), (int) recommendationRows)) {
+                mismatches.add("%s: favorites %s/%d, recommendations %s/%d".formatted(document.getId(),
+                        document.getFavoriteCount(), favoriteRows, document.getRecommendationCount(), recommendationRows));
+            }
+        }
+        return mismatches;
+    }
+
+    @Override
+    public void close() {
+        if (context != null) {
+            context.close();
+        }
+        if (rabbit != null) {
+            rabbit.stop();
+        }
+        if (mongo != null) {
+            mongo.stop();
+        }
+        if (postgres != null) {
+            postgres.stop();
+        }
+    }
+
+    private String[] applicationArguments() {
+        return new String[]{
+                "--server.port=" + port,
+                "--spring.profiles.active=local",
+                "--spring.datasource.url=" + postgres.getJdbcUrl(),
+                "--spring.datasource.username=" + postgres.getUsername(),
+                "--spring.datasource.password=" + postgres.getPassword(),
+                "--spring.jpa.show-sql=false",
+                "--spring.data.mongodb.uri=" + mongo.getReplicaSetUrl("dms"),
+                "--spring.rabbitmq.host=" + rabbit.getHost(),
+                "--spring.rabbitmq.port=" + rabbit.getAmqpPort(),
+                "--spring.rabbitmq.username=" + rabbit.getAdminUsername(),
+                "--spring.rabbitmq.password=" + rabbit.getAdminPassword(),
+                "--spring.security.oauth2.resourceserver.jwt.jwk-set-uri=http://localhost/.well-known/jwks.json",
+                "--spring.cloud.discovery.enabled=false",
+                "--eureka.client.enabled=false",
+                "--logging.level.root=WARN",
+                "--logging.level.org.springframework=WARN",
+                "--logging.level.com.dms=INFO"
+        };
+    }
+
+    private void seedDocuments(MongoTemplate mongoTemplate) {
+        List<DocumentInformation> documents = new ArrayList<>(documentCount);
+        for (int i = 0; i < documentCount; i++) {
+            documents.add(DocumentInformation.builder()
+                    .id(documentId(i))
+                    .userId(LoadTestStubs.userId("owner").toString())
+                    .status(DocumentStatus.COMPLETED)
+                    .filename("load-" + i + ".pdf")
+                    .documentType(DocumentType.PDF)
+                    .sharingType(SharingType.PUBLIC)
+                    .currentVersion(0)
+                    .favoriteCount(0)
+                    .recommendationCount(0)
+                    .createdAt(Instant.now())
+                    .createdBy("owner")
+                    .build());
+        }
+        mongoTemplate.insertAll(documents);
+    }
+
+    private static Map<String, Long> rowCounts(JdbcTemplate jdbcTemplate, String sql) {
+        return jdbcTemplate.queryForList(sql).stream()
+                .collect(Collectors.toMap(row -> (String) row.get("document_id"), row -> ((Number) row.get("cnt")).longValue()));
+    }
+}
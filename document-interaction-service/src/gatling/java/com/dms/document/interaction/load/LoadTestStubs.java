@@ -0,0 +1,68 @@
+package com.dms.document.interaction.load;
+
+import com.dms.document.interaction.client.UserClient;
+import com.dms.document.interaction.dto.RoleResponse;
+import com.dms.document.interaction.dto.UserResponse;
+import com.dms.document.interaction.enums.AppRole;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Replaces the auth-service dependencies of the interaction service for load tests.
+ * The bearer token is the username; usernames starting with {@code mentor-} resolve to ROLE_MENTOR accounts,
+ * all others to ROLE_USER. Beans are swapped after initialization, so SecurityConfig and the Feign client stay untouched.
+ */
+public class LoadTestStubs implements BeanPostProcessor {
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof JwtDecoder) {
+            return (JwtDecoder) token -> Jwt.withTokenValue(token)
+                    .header("alg", "none")
+                    .subject(token)
+                    .claim("roles", List.of(role(token).name()))
+                    .issuedAt(Instant.now())
+                    .expiresAt(Instant.now().plusSeconds(3600))
+                    .build();
+        }
+        if (bean instanceof UserClient) {
+            return new UserClient() {
+                @Override
+                public ResponseEntity<UserResponse> getUserByUsername(String username) {
+                    return ResponseEntity.ok(user(username));
+                }
+
+                @Override
+                public ResponseEntity<List<UserResponse>> getUsersByIds(List<UUID> userIds) {
+                    return ResponseEntity.ok(List.of());
+                }
+
+                @Override
+                public ResponseEntity<List<UserResponse>> searchUsers(String query) {
+                    return ResponseEntity.ok(List.of());
+                }
+            };
+        }
+        return bean;
+    }
+
+    static UUID userId(String username) {
+        return UUID.nameUUIDFromBytes(username.getBytes());
+    }
+
+    private static UserResponse user(String username) {
+        AppRole role = role(username);
+        return new UserResponse(userId(username), username, username + "@load.test",
+                new RoleResponse(UUID.nameUUIDFromBytes(role.name().getBytes()), role));
+    }
+
+    private static AppRole role(String username) {
+        return username.startsWith("mentor-") ? AppRole.ROLE_MENTOR : AppRole.ROLE_USER;
+    }
+}
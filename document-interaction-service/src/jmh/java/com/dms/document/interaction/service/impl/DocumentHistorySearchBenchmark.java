@@ -0,0 +1,193 @@
+package com.dms.document.interaction.service.impl;
+
+import com.dms.document.interaction.client.UserClient;
+import com.dms.document.interaction.config.MongoIndexInitializer;
+import com.dms.document.interaction.dto.UserHistoryResponse;
+import com.dms.document.interaction.dto.UserResponse;
+import com.dms.document.interaction.enums.UserDocumentActionType;
+import com.dms.document.interaction.model.DocumentInformation;
+import com.dms.document.interaction.model.DocumentStats;
+import com.dms.document.interaction.model.DocumentUserHistory;
+import com.dms.document.interaction.repository.*;
+import com.dms.document.interaction.utils.HistorySearchTerms;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.client.MongoCollection;
+import org.bson.Document;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.SimpleMongoClientDatabaseFactory;
+import org.springframework.data.mongodb.core.convert.DefaultDbRefResolver;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.repository.support.MongoRepositoryFactory;
+import org.springframework.data.repository.core.support.RepositoryComposition.RepositoryFragments;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Compares the previous history search, a filename regex over all documents feeding an {@code $in} on history
+ * with a detail regex next to it, with the prefix match on the denormalized {@code search_terms}.
+ * The searching user owns {@code USER_ROWS} of the {@code HISTORY_ROWS} records. Runs against a MongoDB container.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DocumentHistorySearchBenchmark {
+    private static final String DATABASE = "dms_history_search_benchmark";
+    private static final UUID USER_ID = UUID.fromString("00000000-0000-0000-0000-000000000001");
+    private static final String USERNAME = "reader";
+    private static final int DOCUMENTS = 50_000;
+    private static final int HISTORY_ROWS = 500_000;
+    private static final int USER_ROWS = 5_000;
+    private static final int INSERT_BATCH = 10_000;
+    private static final String[] WORDS = {"lecture", "slides", "exam", "notes", "report", "algebra", "thesis", "lab"};
+
+    // A single letter matched nearly every filename with the previous search
+    @Param({"a", "lecture 12"})
+    private String searchTerm;
+
+    private MongoDBContainer mongo;
+    private MongoClient client;
+    private MongoTemplate mongoTemplate;
+    private DocumentHistoryServiceImpl documentHistoryService;
+    private final PageRequest firstPage = PageRequest.of(0, 20);
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        mongo = new MongoDBContainer(DockerImageName.parse("mongo:7.0"));
+        mongo.start();
+        client = MongoClients.create(mongo.getConnectionString());
+
+        MongoCustomConversions conversions = new MongoCustomConversions(List.of());
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        mappingContext.setInitialEntitySet(Set.of(DocumentInformation.class, DocumentUserHistory.class, DocumentStats.class));
+        mappingContext.initialize();
+        MongoDatabaseFactory databaseFactory = new SimpleMongoClientDatabaseFactory(client, DATABASE);
+        MappingMongoConverter converter = new MappingMongoConverter(new DefaultDbRefResolver(databaseFactory), mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+        mongoTemplate = new MongoTemplate(databaseFactory, converter);
+        new MongoIndexInitializer(mongoTemplate).ensureIndexes();
+
+        MongoRepositoryFactory repositoryFactory = new MongoRepositoryFactory(mongoTemplate);
+        DocumentUserHistoryRepository documentUserHistoryRepository = repositoryFactory.getRepository(
+                DocumentUserHistoryRepository.class,
+                RepositoryFragments.just(new DocumentUserHistoryRepositoryCustomImpl(mongoTemplate)));
+        DocumentRepository documentRepository = repositoryFactory.getRepository(DocumentRepository.class,
+                RepositoryFragments.just(new DocumentRepositoryCustomImpl(mongoTemplate)));
+        DocumentStatsRepository documentStatsRepository = repositoryFactory.getRepository(DocumentStatsRepository.class,
+                RepositoryFragments.just(new DocumentStatsRepositoryCustomImpl(mongoTemplate)));
+        UserClient userClient = mock(UserClient.class);
+        when(userClient.getUserByUsername(USERNAME))
+                .thenReturn(ResponseEntity.ok(new UserResponse(USER_ID, USERNAME, "reader@example.com", null)));
+        documentHistoryService = new DocumentHistoryServiceImpl(mongoTemplate, documentUserHistoryRepository,
+                documentRepository, new DocumentStatsServiceImpl(documentStatsRepository, documentRepository), userClient);
+        ReflectionTestUtils.setField(documentHistoryService, "maxSearchMatches", 1000);
+
+        seed();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        client.close();
+        mongo.stop();
+    }
+
+    @Benchmark
+    public long previousSearch() {
+        Query documentQuery = Query.query(Criteria.where("filename").regex(searchTerm, "i").and("deleted").ne(true));
+        documentQuery.fields().include("_id");
+        List<String> documentIds = mongoTemplate.find(documentQuery, Document.class, "documents").stream()
+                .map(document -> document.get("_id").toString())
+                .toList();
+
+        List<Criteria> orCriteria = new ArrayList<>();
+        if (!documentIds.isEmpty()) {
+            orCriteria.add(Criteria.where("documentId").in(documentIds));
+        }
+        orCriteria.add(Criteria.where("detail").regex(searchTerm, "i"));
+        Query query = Query.query(Criteria.where("userId").is(USER_ID.toString())
+                        .andOperator(new Criteria().orOperator(orCriteria.toArray(new Criteria[0]))))
+                .with(Sort.by(Sort.Direction.DESC, "createdAt"));
+        List<DocumentUserHistory> histories = mongoTemplate.find(Query.of(query).with(firstPage), DocumentUserHistory.class);
+        return histories.size() + mongoTemplate.count(query, DocumentUserHistory.class);
+    }
+
+    @Benchmark
+    public Page<UserHistoryResponse> indexedSearch() {
+        return documentHistoryService.getUserHistory(USERNAME, null, null, null, searchTerm, firstPage);
+    }
+
+    private void seed() {
+        Random random = new Random(42);
+        Instant now = Instant.now();
+
+        List<Document> documents = new ArrayList<>(INSERT_BATCH);
+        MongoCollection<Document> documentCollection = mongoTemplate.getCollection("documents");
+        for (int i = 0; i < DOCUMENTS; i++) {
+            documents.add(new Document("_id", documentId(i))
+                    .append("filename", filename(i))
+                    .append("deleted", false));
+            if (documents.size() == INSERT_BATCH) {
+                documentCollection.insertMany(documents);
+                documents = new ArrayList<>(INSERT_BATCH);
+            }
+        }
+        if (!documents.isEmpty()) {
+            documentCollection.insertMany(documents);
+        }
+
+        UserDocumentActionType[] actionTypes = UserDocumentActionType.values();
+        MongoCollection<Document> histories = mongoTemplate.getCollection("document_user_histories");
+        List<Document> batch = new ArrayList<>(INSERT_BATCH);
+        for (int i = 0; i < HISTORY_ROWS; i++) {
+            String userId = i < USER_ROWS ? USER_ID.toString() : "user-" + random.nextInt(10_000);
+            int document = random.nextInt(DOCUMENTS);
+            String detail = WORDS[random.nextInt(WORDS.length)] + " " + random.nextInt(100);
+            batch.add(new Document("user_id", userId)
+                    .append("document_id", documentId(document))
+                    .append("document_name", filename(document))
+                    .append("search_terms", HistorySearchTerms.of(filename(document), detail))
+                    .append("action_type", actionTypes[random.nextInt(actionTypes.length)].name())
+                    .append("detail", detail)
+                    .append("created_at", Date.from(now.minus(random.nextInt(365 * 24), ChronoUnit.HOURS))));
+            if (batch.size() == INSERT_BATCH) {
+                histories.insertMany(batch);
+                batch = new ArrayList<>(INSERT_BATCH);
+            }
+        }
+        if (!batch.isEmpty()) {
+            histories.insertMany(batch);
+        }
+    }
+
+    private static String documentId(int index) {
+        return String.format("doc-%06d", index);
+    }
+
+    private static String filename(int index) {
+        return WORDS[index % WORDS.length] + "_" + (index % 40) + "_" + index + ".pdf";
+    }
+}
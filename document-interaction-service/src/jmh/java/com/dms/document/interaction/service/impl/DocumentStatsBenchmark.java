@@ -0,0 +1,151 @@
+package com.dms.document.interaction.service.impl;
+
+import com.dms.document.interaction.config.MongoIndexInitializer;
+import com.dms.document.interaction.enums.UserDocumentActionType;
+import com.dms.document.interaction.model.DocumentInformation;
+import com.dms.document.interaction.model.DocumentStats;
+import com.dms.document.interaction.model.DocumentUserHistory;
+import com.dms.document.interaction.model.projection.ActionCountResult;
+import com.dms.document.interaction.repository.*;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.client.MongoCollection;
+import org.bson.Document;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.SimpleMongoClientDatabaseFactory;
+import org.springframework.data.mongodb.core.convert.DefaultDbRefResolver;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.repository.support.MongoRepositoryFactory;
+import org.springframework.data.repository.core.support.RepositoryComposition.RepositoryFragments;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares reading document statistics by grouping the raw history, as {@code getActionCountsForDocument} does,
+ * with summing the daily {@code document_stats} rollups. One popular document holds {@code rows} history records
+ * spread over a year, next to a tenth as many records on other documents. Runs against a MongoDB container.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DocumentStatsBenchmark {
+    private static final String DATABASE = "dms_stats_benchmark";
+    private static final String POPULAR_DOCUMENT = "doc-popular";
+    private static final int OTHER_DOCUMENTS = 100;
+    private static final int DAYS = 365;
+    private static final int INSERT_BATCH = 10_000;
+
+    @Param({"100000", "1000000"})
+    private int rows;
+
+    private MongoDBContainer mongo;
+    private MongoClient client;
+    private DocumentUserHistoryRepository documentUserHistoryRepository;
+    private DocumentStatsServiceImpl documentStatsService;
+    private Instant lastWeek;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        mongo = new MongoDBContainer(DockerImageName.parse("mongo:7.0"));
+        mongo.start();
+        client = MongoClients.create(mongo.getConnectionString());
+
+        MongoCustomConversions conversions = new MongoCustomConversions(List.of());
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        mappingContext.setInitialEntitySet(Set.of(DocumentInformation.class, DocumentUserHistory.class, DocumentStats.class));
+        mappingContext.initialize();
+        MongoDatabaseFactory databaseFactory = new SimpleMongoClientDatabaseFactory(client, DATABASE);
+        MappingMongoConverter converter = new MappingMongoConverter(new DefaultDbRefResolver(databaseFactory), mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+        MongoTemplate mongoTemplate = new MongoTemplate(databaseFactory, converter);
+        new MongoIndexInitializer(mongoTemplate).ensureIndexes();
+
+        MongoRepositoryFactory repositoryFactory = new MongoRepositoryFactory(mongoTemplate);
+        documentUserHistoryRepository = repositoryFactory.getRepository(DocumentUserHistoryRepository.class,
+                RepositoryFragments.just(new DocumentUserHistoryRepositoryCustomImpl(mongoTemplate)));
+        DocumentRepository documentRepository = repositoryFactory.getRepository(DocumentRepository.class,
+                RepositoryFragments.just(new DocumentRepositoryCustomImpl(mongoTemplate)));
+        DocumentStatsRepository documentStatsRepository = repositoryFactory.getRepository(DocumentStatsRepository.class,
+                RepositoryFragments.just(new DocumentStatsRepositoryCustomImpl(mongoTemplate)));
+        documentStatsService = new DocumentStatsServiceImpl(documentStatsRepository, documentRepository);
+        ReflectionTestUtils.setField(documentStatsService, "rebuildBatchSize", 20);
+        ReflectionTestUtils.setField(documentStatsService, "rebuildParallelism", 4);
+
+        seed(mongoTemplate);
+        documentStatsService.rebuildStats();
+        lastWeek = Instant.now().minus(6, ChronoUnit.DAYS);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        client.close();
+        mongo.stop();
+    }
+
+    @Benchmark
+    public List<ActionCountResult> aggregateHistory() {
+        return documentUserHistoryRepository.getActionCountsForDocument(POPULAR_DOCUMENT);
+    }
+
+    @Benchmark
+    public Map<String, Integer> readRollups() {
+        return documentStatsService.getActionCounts(POPULAR_DOCUMENT, null);
+    }
+
+    @Benchmark
+    public Map<String, Integer> readRollupsLast7Days() {
+        return documentStatsService.getActionCounts(POPULAR_DOCUMENT, lastWeek);
+    }
+
+    private void seed(MongoTemplate mongoTemplate) {
+        List<Document> documents = new ArrayList<>();
+        documents.add(new Document("_id", POPULAR_DOCUMENT).append("deleted", false));
+        for (int i = 0; i < OTHER_DOCUMENTS; i++) {
+            documents.add(new Document("_id", otherDocument(i)).append("deleted", false));
+        }
+        mongoTemplate.getCollection("documents").insertMany(documents);
+
+        MongoCollection<Document> histories = mongoTemplate.getCollection("document_user_histories");
+        UserDocumentActionType[] actionTypes = UserDocumentActionType.values();
+        Random random = new Random(42);
+        Instant today = Instant.now().truncatedTo(ChronoUnit.DAYS);
+        int total = rows + rows / 10;
+        List<Document> batch = new ArrayList<>(INSERT_BATCH);
+        for (int i = 0; i < total; i++) {
+            String documentId = i < rows ? POPULAR_DOCUMENT : otherDocument(random.nextInt(OTHER_DOCUMENTS));
+            Instant createdAt = today.minus(1 + random.nextInt(DAYS), ChronoUnit.DAYS)
+                    .plusSeconds(random.nextInt(86_400));
+            batch.add(new Document("user_id", "user-" + random.nextInt(10_000))
+                    .append("document_id", documentId)
+                    .append("action_type", actionTypes[random.nextInt(actionTypes.length)].name())
+                    .append("detail", "benchmark")
+                    .append("created_at", Date.from(createdAt)));
+            if (batch.size() == INSERT_BATCH) {
+                histories.insertMany(batch);
+                batch = new ArrayList<>(INSERT_BATCH);
+            }
+        }
+        if (!batch.isEmpty()) {
+            histories.insertMany(batch);
+        }
+    }
+
+    private static String otherDocument(int index) {
+        return String.format("doc-%03d", index);
+    }
+}
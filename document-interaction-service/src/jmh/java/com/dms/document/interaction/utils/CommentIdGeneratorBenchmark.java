@@ -0,0 +1,36 @@
+package com.dms.document.interaction.utils;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Id throughput of the previous comment id scheme, which wrapped every second, against the Snowflake generator
+ * under contention. The Snowflake generator is capped at 64 ids per millisecond per worker id, so with enough
+ * threads it measures that cap rather than the CAS loop.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class CommentIdGeneratorBenchmark {
+    private final AtomicInteger previousSequence = new AtomicInteger();
+    private final SnowflakeIdGenerator snowflakeIdGenerator = new SnowflakeIdGenerator(1, 5000);
+
+    @Benchmark
+    public long previousGenerator() {
+        long timestampPart = (Instant.now().toEpochMilli() * 1000) % 1000000;
+        int sequencePart = previousSequence.updateAndGet(current -> current >= 9999 ? 0 : current + 1);
+        return timestampPart * 10000 + sequencePart;
+    }
+
+    @Benchmark
+    public long snowflakeGenerator() {
+        return snowflakeIdGenerator.nextId();
+    }
+}
@@ -4,6 +4,8 @@ import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
+
 @Data
 @Configuration
 @ConfigurationProperties(prefix = "app.file-storage")
@@ -11,6 +13,7 @@ public class FileStorageProperties {
     private StorageType type = StorageType.S3; // Default to S3
     private LocalStorage local = new LocalStorage();
     private S3Storage s3 = new S3Storage();
+    private Download download = new Download();
 
     public enum StorageType {
         LOCAL, S3
@@ -28,4 +31,11 @@ public class FileStorageProperties {
         private String accessKey;
         private String secretKey;
     }
-}
\ No newline at end of file
+
+    @Data
+    public static class Download {
+        private boolean presignedRedirect = false; // Redirect downloads to a pre-signed storage URL when supported
+        private Duration presignedUrlTtl = Duration.ofMinutes(5);
+        private int maxRanges = 8; // Larger multi-range requests are answered with the full file
+    }
+}
@@ -0,0 +1,71 @@
+package com.dms.document.interaction.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.stereotype.Component;
+
+/**
+ * Creates the indexes declared with {@code @Indexed} and {@code @CompoundIndex} on the mapped collections.
+ * <p>
+ * Spring Data's automatic index creation is off by default and aborts startup on the first conflict, so this runs
+ * once the application is ready and only logs an index it cannot create, e.g. a unique index over existing
+ * duplicates or an index of the same keys created with other options by another service.
+ */
+@Component
+@Slf4j
+public class MongoIndexInitializer {
+    private final MongoTemplate mongoTemplate;
+    private final MongoMappingContext mappingContext;
+
+    @Value("${app.mongo.ensure-indexes:true}")
+    private boolean enabled = true;
+
+    public MongoIndexInitializer(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+        this.mappingContext = (MongoMappingContext) mongoTemplate.getConverter().getMappingContext();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (enabled) {
+            ensureIndexes();
+        }
+    }
+
+    /**
+     * @return number of indexes that could not be created
+     */
+    public int ensureIndexes() {
+        MongoPersistentEntityIndexResolver indexResolver = new MongoPersistentEntityIndexResolver(mappingContext);
+        int created = 0;
+        int failed = 0;
+        for (MongoPersistentEntity<?> entity : mappingContext.getPersistentEntities()) {
+            if (!entity.isAnnotationPresent(Document.class)) {
+                continue;
+            }
+            IndexOperations indexOps = mongoTemplate.indexOps(entity.getCollection());
+            for (IndexDefinition index : indexResolver.resolveIndexFor(entity.getTypeInformation())) {
+                try {
+                    indexOps.ensureIndex(index);
+                    created++;
+                } catch (DataAccessException e) {
+                    failed++;
+                    log.warn("Failed to create index {} on collection {}: {}",
+                            index.getIndexKeys(), entity.getCollection(), e.getMessage());
+                }
+            }
+        }
+        log.info("Ensured {} MongoDB indexes, {} failed", created, failed);
+        return failed;
+    }
+}
@@ -9,6 +9,8 @@ import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
 import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
 import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3Configuration;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
 
 import java.net.URI;
 
@@ -43,4 +45,26 @@ public class S3Config {
                 .credentialsProvider(StaticCredentialsProvider.create(awsCredentials))
                 .build();
     }
-}
\ No newline at end of file
+
+    @Bean(destroyMethod = "close")
+    public S3Presigner s3Presigner() {
+        AwsBasicCredentials awsCredentials = AwsBasicCredentials.create(
+                fileStorageProperties.getS3().getAccessKey(),
+                fileStorageProperties.getS3().getSecretKey()
+        );
+
+        if ("local".equals(activeProfile)) {
+            return S3Presigner.builder()
+                    .region(Region.of(fileStorageProperties.getS3().getRegion()))
+                    .endpointOverride(URI.create("http://localhost:4566")) // LocalStack endpoint
+                    .credentialsProvider(StaticCredentialsProvider.create(awsCredentials))
+                    .serviceConfiguration(S3Configuration.builder().pathStyleAccessEnabled(true).build())
+                    .build();
+        }
+
+        return S3Presigner.builder()
+                .region(Region.of(fileStorageProperties.getS3().getRegion()))
+                .credentialsProvider(StaticCredentialsProvider.create(awsCredentials))
+                .build();
+    }
+}
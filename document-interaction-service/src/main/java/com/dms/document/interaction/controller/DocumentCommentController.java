@@ -1,6 +1,7 @@
 package com.dms.document.interaction.controller;
 
 import com.dms.document.interaction.constant.ApiConstant;
+import com.dms.document.interaction.dto.CommentPageResponse;
 import com.dms.document.interaction.dto.CommentReportRequest;
 import com.dms.document.interaction.dto.CommentReportResponse;
 import com.dms.document.interaction.dto.CommentRequest;
@@ -11,8 +12,6 @@ import com.dms.document.interaction.service.DocumentCommentService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.oauth2.jwt.Jwt;
@@ -37,13 +36,15 @@ public class DocumentCommentController {
     }
 
     @Operation(summary = "Get document comments",
-            description = "Retrieve paginated list of comments for a document")
+            description = "Retrieve top-level comments of a document newest first, with their replies. " +
+                          "Pass the returned nextCursor to get the following page")
     @GetMapping
-    public ResponseEntity<Page<CommentResponse>> getDocumentComments(
+    public ResponseEntity<CommentPageResponse> getDocumentComments(
             @PathVariable String id,
-            Pageable pageable,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
             @AuthenticationPrincipal Jwt jwt) {
-        return ResponseEntity.ok(commentService.getDocumentComments(id, pageable, jwt.getSubject()));
+        return ResponseEntity.ok(commentService.getDocumentComments(id, cursor, size, jwt.getSubject()));
     }
 
     @Operation(summary = "Update comment",
@@ -5,6 +5,7 @@ import com.dms.document.interaction.dto.*;
 import com.dms.document.interaction.enums.UserDocumentActionType;
 import com.dms.document.interaction.model.DocumentInformation;
 import com.dms.document.interaction.model.DocumentVersion;
+import com.dms.document.interaction.service.DocumentDownloadService;
 import com.dms.document.interaction.service.DocumentHistoryService;
 import com.dms.document.interaction.service.DocumentService;
 import com.dms.document.interaction.service.DocumentShareService;
@@ -21,9 +22,11 @@ import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
 import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.Set;
 import java.util.UUID;
@@ -35,6 +38,7 @@ import java.util.concurrent.TimeUnit;
 @Tag(name = "Document Operations", description = "APIs for core document operations")
 public class DocumentController {
     private final DocumentService documentService;
+    private final DocumentDownloadService documentDownloadService;
     private final DocumentShareService documentShareService;
     private final DocumentHistoryService documentHistoryService;
 
@@ -66,19 +70,23 @@ public class DocumentController {
 
     @Operation(
             summary = "Download document file",
-            description = "Download the current version of a document's content as a byte array. " +
+            description = "Stream the current version of a document's content. Supports Range requests, " +
+                    "ETag/Last-Modified revalidation and, when enabled, a redirect to a pre-signed storage URL. " +
                     "Optionally records the download action in user history."
     )
     @GetMapping("/{id}/file")
-    public ResponseEntity<byte[]> downloadDocument(
+    public ResponseEntity<StreamingResponseBody> downloadDocument(
             @PathVariable String id,
             @RequestParam(required = false) String action,
             @RequestParam(required = false) boolean history,
+            @RequestHeader HttpHeaders headers,
             @AuthenticationPrincipal Jwt jwt) throws IOException {
-        byte[] content = documentService.getDocumentContent(id, jwt.getSubject(), action, history);
-        return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"document\"")
-                .body(content);
+        DocumentFileResponse file = documentService.getDocumentFile(id, jwt.getSubject(), action, history);
+        ResponseEntity<StreamingResponseBody> response = documentDownloadService.buildDownloadResponse(file, headers);
+        if (documentDownloadService.isDownloadStart(response)) {
+            documentService.recordDownload(file);
+        }
+        return response;
     }
 
     @Operation(
@@ -219,10 +227,17 @@ public class DocumentController {
     }
 
     @Operation(summary = "Get document statistics",
-            description = "Retrieve document statistics including counts for views, downloads, updates, etc.")
+            description = "Retrieve document statistics including counts for views, downloads, updates, etc. " +
+                    "With days, only the last given number of days (including today, in UTC) are counted.")
     @GetMapping("/{id}/statistics")
-    public ResponseEntity<DocumentStatisticsResponse> getDocumentStatistics(@PathVariable String id) {
-        return ResponseEntity.ok(documentHistoryService.getDocumentStatistics(id));
+    public ResponseEntity<DocumentStatisticsResponse> getDocumentStatistics(
+            @PathVariable String id,
+            @RequestParam(required = false) Integer days) {
+        if (days != null && days < 1) {
+            return ResponseEntity.badRequest().build();
+        }
+        Instant since = days != null ? Instant.now().minus(days - 1L, ChronoUnit.DAYS) : null;
+        return ResponseEntity.ok(documentHistoryService.getDocumentStatistics(id, since));
     }
 
     @Operation(
@@ -1,7 +1,9 @@
 package com.dms.document.interaction.controller;
 
 import com.dms.document.interaction.constant.ApiConstant;
+import com.dms.document.interaction.dto.DocumentFileResponse;
 import com.dms.document.interaction.model.DocumentInformation;
+import com.dms.document.interaction.service.DocumentDownloadService;
 import com.dms.document.interaction.service.DocumentService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -11,6 +13,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
 
@@ -20,20 +23,24 @@ import java.io.IOException;
 @Tag(name = "Document Versions", description = "APIs for managing document versions")
 public class DocumentVersionController {
     private final DocumentService documentService;
+    private final DocumentDownloadService documentDownloadService;
 
     @Operation(summary = "Download specific document version",
-            description = "Download document file for a specific version number")
+            description = "Stream the document file for a specific version number. Supports Range requests and revalidation.")
     @GetMapping("/{versionNumber}/file")
-    public ResponseEntity<byte[]> downloadDocumentVersion(
+    public ResponseEntity<StreamingResponseBody> downloadDocumentVersion(
             @PathVariable String id,
             @PathVariable Integer versionNumber,
             @RequestParam(required = false) String action,
             @RequestParam(required = false) boolean history,
+            @RequestHeader HttpHeaders headers,
             @AuthenticationPrincipal Jwt jwt) throws IOException {
-        byte[] content = documentService.getDocumentVersionContent(id, versionNumber, jwt.getSubject(), action, history);
-        return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"document\"")
-                .body(content);
+        DocumentFileResponse file = documentService.getDocumentVersionFile(id, versionNumber, jwt.getSubject(), action, history);
+        ResponseEntity<StreamingResponseBody> response = documentDownloadService.buildDownloadResponse(file, headers);
+        if (documentDownloadService.isDownloadStart(response)) {
+            documentService.recordDownload(file);
+        }
+        return response;
     }
 
     @Operation(summary = "Revert to previous version",
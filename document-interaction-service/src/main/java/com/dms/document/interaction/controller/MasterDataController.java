@@ -11,18 +11,23 @@ import com.dms.document.interaction.service.MasterDataService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping(ApiConstant.API_VERSION + ApiConstant.MASTER_DATA)
 @RequiredArgsConstructor
 @Tag(name = "Master Data", description = "APIs for managing system master data like majors, course codes, levels, and categories")
 public class MasterDataController {
+    // Lets browsers and the gateway reuse master data briefly, changes show up within this time
+    private static final CacheControl MASTER_DATA_CACHE_CONTROL = CacheControl.maxAge(1, TimeUnit.MINUTES);
+
     private final MasterDataService masterDataService;
     private final DocumentReportService documentReportService;
     private final CommentReportService commentReportService;
@@ -32,7 +37,9 @@ public class MasterDataController {
     @GetMapping("/{type}")
     public ResponseEntity<List<MasterDataResponse>> getAllByType(@PathVariable MasterDataType type,
                                                                  @RequestParam(required = false) Boolean active) {
-        return ResponseEntity.ok(masterDataService.getAllByType(type, active));
+        return ResponseEntity.ok()
+                .cacheControl(MASTER_DATA_CACHE_CONTROL)
+                .body(masterDataService.getAllByType(type, active));
     }
 
     @Operation(summary = "Get master data by type and code",
@@ -42,7 +49,9 @@ public class MasterDataController {
             @PathVariable MasterDataType type,
             @PathVariable String code) {
         return masterDataService.getByTypeAndCode(type, code)
-                .map(ResponseEntity::ok)
+                .map(masterData -> ResponseEntity.ok()
+                        .cacheControl(MASTER_DATA_CACHE_CONTROL)
+                        .body(masterData))
                 .orElse(ResponseEntity.notFound().build());
     }
 
@@ -54,7 +63,9 @@ public class MasterDataController {
             @PathVariable MasterDataType type,
             @PathVariable String parentId,
             @RequestParam(required = false) Boolean active) {
-        return ResponseEntity.ok(masterDataService.getAllByTypeAndParentId(type, parentId, active));
+        return ResponseEntity.ok()
+                .cacheControl(MASTER_DATA_CACHE_CONTROL)
+                .body(masterDataService.getAllByTypeAndParentId(type, parentId, active));
     }
 
     @Operation(summary = "Search master data",
@@ -92,13 +103,17 @@ public class MasterDataController {
             description = "Get list of available document report types with translations")
     @GetMapping("/documents/reports/types")
     public ResponseEntity<List<ReportTypeResponse>> getDocumentReportTypes() {
-        return ResponseEntity.ok(documentReportService.getReportTypes());
+        return ResponseEntity.ok()
+                .cacheControl(MASTER_DATA_CACHE_CONTROL)
+                .body(documentReportService.getReportTypes());
     }
 
     @Operation(summary = "Get available comment report types",
             description = "Get list of available comment report types with translations")
     @GetMapping("/comments/reports/types")
     public ResponseEntity<List<ReportTypeResponse>> getCommentReportTypes() {
-        return ResponseEntity.ok(commentReportService.getReportTypes());
+        return ResponseEntity.ok()
+                .cacheControl(MASTER_DATA_CACHE_CONTROL)
+                .body(commentReportService.getReportTypes());
     }
 }
\ No newline at end of file
@@ -0,0 +1,40 @@
+package com.dms.document.interaction.cronjob;
+
+import com.dms.document.interaction.service.DocumentHistoryService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * History records written before the document name was denormalized cannot be found by search.
+ * This job fills them in once at startup; it can be disabled after a run reports no updates.
+ */
+@RequiredArgsConstructor
+@Slf4j
+@Configuration
+public class BackfillHistorySearchTermsJob {
+    private final DocumentHistoryService documentHistoryService;
+
+    @Value("${app.history.search.backfill-on-startup:true}")
+    private boolean backfillOnStartup;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillSearchTerms() {
+        if (!backfillOnStartup) {
+            return;
+        }
+        CompletableFuture.runAsync(() -> {
+            log.info("Backfill History Search Terms Job Start");
+            int updated = documentHistoryService.backfillSearchTerms();
+            log.info("Backfill History Search Terms Job End, records: {}", updated);
+        }).exceptionally(e -> {
+            log.error("Failed to backfill history search terms", e);
+            return null;
+        });
+    }
+}
@@ -0,0 +1,44 @@
+package com.dms.document.interaction.cronjob;
+
+import com.dms.document.interaction.repository.DocumentStatsRepository;
+import com.dms.document.interaction.service.DocumentStatsService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Document statistics are incremented as history is written, which misses records whose increment failed.
+ * This job recomputes past days from the raw history, and backfills the rollups once when none exist yet.
+ */
+@RequiredArgsConstructor
+@Slf4j
+@EnableScheduling
+@Configuration
+public class RebuildDocumentStatsJob {
+    private final DocumentStatsService documentStatsService;
+    private final DocumentStatsRepository documentStatsRepository;
+
+    @Scheduled(cron = "${app.stats.rebuild-cron:0 30 4 * * *}")
+    public void rebuildDocumentStats() {
+        log.info("Rebuild Document Stats Job Start");
+        int documents = documentStatsService.rebuildStats();
+        log.info("Rebuild Document Stats Job End, documents: {}", documents);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillDocumentStats() {
+        if (documentStatsRepository.count() == 0) {
+            CompletableFuture.runAsync(this::rebuildDocumentStats)
+                    .exceptionally(e -> {
+                        log.error("Failed to backfill document statistics", e);
+                        return null;
+                    });
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.dms.document.interaction.cronjob;
+
+import com.dms.document.interaction.service.DocumentCounterService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Favorite, recommendation and comment counters are incremented after the row change commits, so a crash or a failed
+ * Mongo write in between leaves them off by one. This job recomputes them from the rows.
+ */
+@RequiredArgsConstructor
+@Slf4j
+@EnableScheduling
+@Configuration
+public class ReconcileDocumentCountersJob {
+    private final DocumentCounterService documentCounterService;
+
+    @Scheduled(cron = "${app.counters.reconcile-cron:0 30 3 * * *}")
+    public void reconcileDocumentCounters() {
+        log.info("Reconcile Document Counters Job Start");
+        int corrected = documentCounterService.reconcileCounters();
+        log.info("Reconcile Document Counters Job End, corrected: {}", corrected);
+    }
+}
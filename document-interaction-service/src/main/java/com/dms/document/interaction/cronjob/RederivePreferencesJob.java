@@ -0,0 +1,27 @@
+package com.dms.document.interaction.cronjob;
+
+import com.dms.document.interaction.service.DocumentPreferencesService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Implicit preferences are maintained with increments on every interaction, which drift when an update fails
+ * or a document changes its attributes or is deleted. This job re-derives them from the interaction rows.
+ */
+@RequiredArgsConstructor
+@Slf4j
+@EnableScheduling
+@Configuration
+public class RederivePreferencesJob {
+    private final DocumentPreferencesService documentPreferencesService;
+
+    @Scheduled(cron = "${app.preferences.rederive-cron:0 0 4 * * *}")
+    public void rederivePreferences() {
+        log.info("Rederive Preferences Job Start");
+        int users = documentPreferencesService.rederiveImplicitPreferences();
+        log.info("Rederive Preferences Job End, users: {}", users);
+    }
+}
@@ -0,0 +1,31 @@
+package com.dms.document.interaction.cronjob;
+
+import com.dms.document.interaction.service.CommentIdWorkerService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Keeps the lease on the comment id worker alive. The interval must stay well below {@code app.comment-id.lease-ttl}.
+ */
+@RequiredArgsConstructor
+@Slf4j
+@EnableScheduling
+@Configuration
+public class RenewCommentIdWorkerLeaseJob {
+    private final CommentIdWorkerService commentIdWorkerService;
+
+    @Scheduled(fixedDelayString = "${app.comment-id.renew-interval:60000}",
+            initialDelayString = "${app.comment-id.renew-interval:60000}")
+    public void renewCommentIdWorkerLease() {
+        log.debug("Renew Comment Id Worker Lease Job Start");
+        try {
+            commentIdWorkerService.renewLease();
+        } catch (Exception e) {
+            log.error("Failed to renew comment id worker lease", e);
+        }
+        log.debug("Renew Comment Id Worker Lease Job End");
+    }
+}
@@ -0,0 +1,16 @@
+package com.dms.document.interaction.dto;
+
+import java.util.List;
+
+/**
+ * A page of top-level comments, newest first, each with its visible replies nested.
+ *
+ * @param nextCursor cursor for the following page, null on the last page
+ * @param totalComments visible comments on the document, replies included
+ */
+public record CommentPageResponse(
+        List<CommentResponse> comments,
+        String nextCursor,
+        long totalComments
+) {
+}
@@ -0,0 +1,16 @@
+package com.dms.document.interaction.dto;
+
+import com.dms.document.interaction.model.DocumentUserHistory;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class DocumentFileResponse {
+    private String filePath;
+    private String filename;
+    private String contentType;
+    private StoredFileMetadata metadata;
+    // Stored once the response actually delivers the file, null when no history was requested
+    private DocumentUserHistory downloadHistory;
+}
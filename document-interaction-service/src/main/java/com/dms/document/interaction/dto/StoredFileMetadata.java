@@ -0,0 +1,15 @@
+package com.dms.document.interaction.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.Instant;
+
+@Data
+@Builder
+public class StoredFileMetadata {
+    private long contentLength;
+    private String eTag;
+    private Instant lastModified;
+    private String contentType;
+}
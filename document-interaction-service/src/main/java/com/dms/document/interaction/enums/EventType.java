@@ -7,6 +7,7 @@ public enum EventType {
     UPDATE_EVENT_WITH_FILE,
     DELETE_EVENT,
     REVERT_EVENT,
+    FAVORITE_EVENT,
     FAVORITE_NOTIFICATION,
     DOCUMENT_REPORT_PROCESS_EVENT,
     COMMENT_REPORT_PROCESS_EVENT,
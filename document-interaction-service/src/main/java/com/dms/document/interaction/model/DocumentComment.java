@@ -34,6 +34,10 @@ public class DocumentComment {
     @Column(name = "parent_id")
     private Long parentId;
 
+    // Top-level comment of the thread, null for top-level comments themselves
+    @Column(name = "root_id")
+    private Long rootId;
+
     @Column(name = "created_at")
     private Instant createdAt;
 
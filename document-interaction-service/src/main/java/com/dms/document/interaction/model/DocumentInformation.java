@@ -7,6 +7,7 @@ import com.dms.document.interaction.enums.SharingType;
 import lombok.*;
 import org.apache.commons.collections4.CollectionUtils;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field;
@@ -16,6 +17,7 @@ import java.util.*;
 
 
 @Document(collection = "documents")
+@CompoundIndex(name = "owner_active", def = "{'user_id': 1, 'created_at': -1}", partialFilter = "{'deleted': false}")
 @Data
 @Builder
 @NoArgsConstructor
@@ -70,7 +72,6 @@ public class DocumentInformation {
     private Integer currentVersion;
 
     @Field("versions")
-    @Indexed
     private List<DocumentVersion> versions;
 
     // Version fields
@@ -124,6 +125,10 @@ public class DocumentInformation {
     @Field("favorite_count")
     private Integer favoriteCount;
 
+    // Visible comments including replies
+    @Field("comment_count")
+    private Integer commentCount;
+
     public Optional<DocumentVersion> getLatestVersion() {
         if (CollectionUtils.isEmpty(versions)) {
             return Optional.empty();
@@ -3,6 +3,7 @@ package com.dms.document.interaction.model;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field;
@@ -12,12 +13,13 @@ import java.util.Map;
 
 @Data
 @Document(collection = "document_interactions")
+@CompoundIndex(name = "user_document", def = "{'user_id': 1, 'document_id': 1}", unique = true)
+@CompoundIndex(name = "user_last_interaction", def = "{'user_id': 1, 'last_interaction_date': -1}")
 public class DocumentInteraction {
     @Id
     private String id;
 
     @Field("user_id")
-    @Indexed
     private String userId;
 
     @Field("document_id")
@@ -31,7 +33,6 @@ public class DocumentInteraction {
     private Instant firstInteractionDate;
 
     @Field("last_interaction_date")
-    @Indexed
     private Instant lastInteractionDate;
 
     @Data
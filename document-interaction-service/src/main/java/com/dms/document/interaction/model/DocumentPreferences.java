@@ -42,6 +42,10 @@ public class DocumentPreferences {
     @Field("content_type_weights")
     private Map<String, Double> contentTypeWeights;
 
+    // Undecayed content type scores, see PreferenceWeights
+    @Field("content_type_scores")
+    private Map<String, Double> contentTypeScores;
+
     // Interaction history aggregates
     @Field("major_interaction_counts")
     private Map<String, Integer> majorInteractionCounts;
@@ -0,0 +1,52 @@
+package com.dms.document.interaction.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Map;
+
+/**
+ * Number of history records per action type for one document on one UTC day.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "document_stats")
+@CompoundIndex(name = "document_day", def = "{'document_id': 1, 'day': -1}")
+public class DocumentStats {
+    // <document id>:<yyyy-MM-dd>
+    @Id
+    private String id;
+
+    @Field("document_id")
+    private String documentId;
+
+    // Start of the day in UTC
+    @Field("day")
+    private Instant day;
+
+    @Field("action_counts")
+    private Map<String, Integer> actionCounts;
+
+    public static String bucketId(String documentId, LocalDate day) {
+        return documentId + ":" + day;
+    }
+
+    public static LocalDate dayOf(Instant instant) {
+        return LocalDate.ofInstant(instant, ZoneOffset.UTC);
+    }
+
+    public static Instant startOf(LocalDate day) {
+        return day.atStartOfDay(ZoneOffset.UTC).toInstant();
+    }
+}
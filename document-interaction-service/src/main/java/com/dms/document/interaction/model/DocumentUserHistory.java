@@ -4,14 +4,20 @@ import com.dms.document.interaction.enums.UserDocumentActionType;
 import lombok.Builder;
 import lombok.Data;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field;
 
 import java.time.Instant;
+import java.util.List;
 
 @Data
 @Builder
 @Document(collection = "document_user_histories")
+@CompoundIndex(name = "user_created", def = "{'user_id': 1, 'created_at': -1}")
+@CompoundIndex(name = "user_action_created", def = "{'user_id': 1, 'action_type': 1, 'created_at': -1}")
+@CompoundIndex(name = "document_action", def = "{'document_id': 1, 'action_type': 1}")
+@CompoundIndex(name = "user_search_created", def = "{'user_id': 1, 'search_terms': 1, 'created_at': -1}")
 public class DocumentUserHistory {
     @Id
     private String id;
@@ -27,6 +33,13 @@ public class DocumentUserHistory {
     @Field("document_id")
     private String documentId;
 
+    // Filename at the time of the action, kept so searching history does not need the documents collection
+    @Field("document_name")
+    private String documentName;
+
+    @Field("search_terms")
+    private List<String> searchTerms;
+
     private Integer version;
 
     @Field("created_at")
@@ -0,0 +1,6 @@
+package com.dms.document.interaction.model.projection;
+
+public interface DocumentCountProjection {
+    String getDocumentId();
+    Long getCount();
+}
@@ -1,13 +1,15 @@
 package com.dms.document.interaction.repository;
 
 import com.dms.document.interaction.model.DocumentComment;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import com.dms.document.interaction.model.projection.DocumentCountProjection;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -17,50 +19,43 @@ public interface DocumentCommentRepository extends JpaRepository<DocumentComment
     Optional<DocumentComment> findByDocumentIdAndId(String documentId, Long id);
 
     @Query(value = """
-            WITH RECURSIVE CommentHierarchy AS (
-                -- Base case: get top-level comments
-                SELECT 
-                    c.*, 
-                    0 as level,
-                    c.created_at as thread_order
-                FROM document_comments c
-                WHERE c.document_id = :documentId 
-                AND c.parent_id IS NULL AND c.flag = 1
-                UNION ALL
-            
-                -- Recursive case: get replies
-                SELECT 
-                    c.*,
-                    ch.level + 1,
-                    ch.thread_order
-                FROM document_comments c
-                INNER JOIN CommentHierarchy ch ON c.parent_id = ch.id
-                WHERE c.flag = 1
-            )
-            SELECT * FROM CommentHierarchy
-            ORDER BY thread_order DESC, level ASC, created_at ASC
-            """,
-            countQuery = """
-                    WITH RECURSIVE CommentHierarchy AS (
-                        -- Base case: get top-level comments
-                        SELECT 
-                            c.id
-                        FROM document_comments c
-                        WHERE c.document_id = :documentId 
-                        AND c.parent_id IS NULL AND c.flag = 1
-                        UNION ALL
-                    
-                        -- Recursive case: get replies
-                        SELECT 
-                            c.id
-                        FROM document_comments c
-                        INNER JOIN CommentHierarchy ch ON c.parent_id = ch.id
-                        WHERE c.flag = 1
-                    )
-                    SELECT COUNT(*) FROM CommentHierarchy
-                    """,
-            nativeQuery = true)
-    Page<DocumentComment> findCommentsWithReplies(String documentId, Pageable pageable);
+            SELECT * FROM document_comments c
+            WHERE c.document_id = :documentId
+            AND c.parent_id IS NULL AND c.flag = 1
+            ORDER BY c.created_at DESC, c.id DESC
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<DocumentComment> findFirstRootComments(@Param("documentId") String documentId, @Param("limit") int limit);
+
+    @Query(value = """
+            SELECT * FROM document_comments c
+            WHERE c.document_id = :documentId
+            AND c.parent_id IS NULL AND c.flag = 1
+            AND (c.created_at, c.id) < (:createdAt, :id)
+            ORDER BY c.created_at DESC, c.id DESC
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<DocumentComment> findRootCommentsBefore(@Param("documentId") String documentId,
+                                                 @Param("createdAt") Instant createdAt,
+                                                 @Param("id") Long id,
+                                                 @Param("limit") int limit);
+
+    @Query("""
+            SELECT c FROM DocumentComment c
+            WHERE c.rootId IN :rootIds AND c.flag = 1
+            ORDER BY c.createdAt ASC, c.id ASC
+            """)
+    List<DocumentComment> findRepliesByRootIds(@Param("rootIds") Collection<Long> rootIds);
+
+    long countByDocumentIdAndFlag(String documentId, Integer flag);
+
+    @Query("""
+            SELECT c.documentId AS documentId, COUNT(c) AS count
+            FROM DocumentComment c
+            WHERE c.documentId IN :documentIds AND c.flag = 1
+            GROUP BY c.documentId
+            """)
+    List<DocumentCountProjection> countByDocumentIds(@Param("documentIds") Collection<String> documentIds);
 
     @Query(value = """
             WITH RECURSIVE CommentHierarchy AS (
@@ -85,9 +80,9 @@ public interface DocumentCommentRepository extends JpaRepository<DocumentComment
             SET c.flag = 0, 
                 c.content = '[deleted]',
                 c.updatedAt = CURRENT_TIMESTAMP 
-            WHERE c.id IN :commentIds
+            WHERE c.id IN :commentIds AND c.flag = 1
             """)
-    void markCommentsAsDeleted(List<Long> commentIds);
+    int markCommentsAsDeleted(List<Long> commentIds);
 
     boolean existsByDocumentIdAndUserIdAndIdNot(String documentId, UUID userId, Long id);
 }
\ No newline at end of file
@@ -1,23 +1,50 @@
 package com.dms.document.interaction.repository;
 
 import com.dms.document.interaction.model.DocumentFavorite;
+import com.dms.document.interaction.model.projection.DocumentCountProjection;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
 @Repository
 public interface DocumentFavoriteRepository extends JpaRepository<DocumentFavorite, Long> {
     boolean existsByUserIdAndDocumentId(UUID userId, String documentId);
-    void deleteByUserIdAndDocumentId(UUID userId, String documentId);
     Page<DocumentFavorite> findByUserId(UUID userId, Pageable pageable);
     List<DocumentFavorite> findByDocumentId(String documentId);
 
     @Query("SELECT COUNT(df) FROM DocumentFavorite df WHERE df.documentId = :documentId")
     long countByDocumentId(@Param("documentId") String documentId);
-}
\ No newline at end of file
+
+    /**
+     * Inserts the favorite unless the (user_id, document_id) row already exists.
+     *
+     * @return 1 if the row was inserted, 0 if it already existed
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO document_favorites (user_id, document_id, created_at)
+            VALUES (:userId, :documentId, now())
+            ON CONFLICT (user_id, document_id) DO NOTHING
+            """, nativeQuery = true)
+    int insertIfAbsent(@Param("userId") UUID userId, @Param("documentId") String documentId);
+
+    @Modifying
+    @Query("DELETE FROM DocumentFavorite df WHERE df.userId = :userId AND df.documentId = :documentId")
+    int deleteByUserIdAndDocumentId(@Param("userId") UUID userId, @Param("documentId") String documentId);
+
+    @Query("""
+            SELECT df.documentId AS documentId, COUNT(df) AS count
+            FROM DocumentFavorite df
+            WHERE df.documentId IN :documentIds
+            GROUP BY df.documentId
+            """)
+    List<DocumentCountProjection> countByDocumentIds(@Param("documentIds") Collection<String> documentIds);
+}
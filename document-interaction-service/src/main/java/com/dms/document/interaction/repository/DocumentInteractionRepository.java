@@ -12,7 +12,7 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface DocumentInteractionRepository extends MongoRepository<DocumentInteraction, String> {
+public interface DocumentInteractionRepository extends MongoRepository<DocumentInteraction, String>, DocumentInteractionRepositoryCustom {
 
     Optional<DocumentInteraction> findByUserIdAndDocumentId(String userId, String documentId);
 
@@ -0,0 +1,21 @@
+package com.dms.document.interaction.repository;
+
+import com.dms.document.interaction.enums.InteractionType;
+import com.dms.document.interaction.model.DocumentInteraction;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+public interface DocumentInteractionRepositoryCustom {
+
+    /**
+     * Atomically counts one interaction of {@code type}, creating the user/document record on first use.
+     */
+    void incrementInteraction(String userId, String documentId, InteractionType type, Instant at);
+
+    /**
+     * Reads the interaction records of several users, with only the user, document and interaction stats loaded.
+     */
+    List<DocumentInteraction> findByUserIdIn(Collection<String> userIds);
+}
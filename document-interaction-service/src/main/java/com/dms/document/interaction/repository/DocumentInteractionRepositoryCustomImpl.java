@@ -0,0 +1,42 @@
+package com.dms.document.interaction.repository;
+
+import com.dms.document.interaction.enums.InteractionType;
+import com.dms.document.interaction.model.DocumentInteraction;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class DocumentInteractionRepositoryCustomImpl implements DocumentInteractionRepositoryCustom {
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public void incrementInteraction(String userId, String documentId, InteractionType type, Instant at) {
+        Query query = Query.query(Criteria.where("userId").is(userId).and("documentId").is(documentId));
+        Update update = new Update()
+                .inc("interactions." + type.name() + ".count", 1)
+                .set("interactions." + type.name() + ".lastUpdate", at)
+                .set("lastInteractionDate", at)
+                .setOnInsert("firstInteractionDate", at);
+        try {
+            mongoTemplate.upsert(query, update, DocumentInteraction.class);
+        } catch (DuplicateKeyException e) {
+            // A concurrent first interaction inserted the record, the retry updates it
+            mongoTemplate.upsert(query, update, DocumentInteraction.class);
+        }
+    }
+
+    @Override
+    public List<DocumentInteraction> findByUserIdIn(Collection<String> userIds) {
+        Query query = Query.query(Criteria.where("userId").in(userIds));
+        query.fields().include("userId", "documentId", "interactions", "lastInteractionDate");
+        return mongoTemplate.find(query, DocumentInteraction.class);
+    }
+}
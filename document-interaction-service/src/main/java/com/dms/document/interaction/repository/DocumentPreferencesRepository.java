@@ -8,7 +8,7 @@ import org.springframework.stereotype.Repository;
 import java.util.Optional;
 
 @Repository
-public interface DocumentPreferencesRepository extends MongoRepository<DocumentPreferences, String> {
+public interface DocumentPreferencesRepository extends MongoRepository<DocumentPreferences, String>, DocumentPreferencesRepositoryCustom {
     Optional<DocumentPreferences> findByUserId(String userId);
 
     @Query(value = "{'preferredMajors': ?0}", exists = true)
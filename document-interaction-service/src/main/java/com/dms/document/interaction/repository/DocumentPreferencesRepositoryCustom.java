@@ -0,0 +1,53 @@
+package com.dms.document.interaction.repository;
+
+import com.dms.document.interaction.dto.UpdateDocumentPreferencesRequest;
+import com.dms.document.interaction.model.DocumentInformation;
+import com.dms.document.interaction.model.DocumentPreferences;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Field-level updates of user preferences, so explicit and interaction derived fields never overwrite each other.
+ * Map keys that MongoDB cannot store as field names, those containing a dot or starting with a dollar sign, are skipped.
+ */
+public interface DocumentPreferencesRepositoryCustom {
+
+    /**
+     * Atomically counts one interaction with {@code document} against its majors, course codes, level, categories
+     * and tags, and adds {@code scoreIncrement} to the score of {@code contentType}. Creates default preferences
+     * for a user that has none.
+     *
+     * @param recentDocumentId document to take out of the recent documents, re-added by {@link #updateRecentAndWeights}
+     * @return the content type scores after the update
+     */
+    Map<String, Double> incrementInteractionCounts(String userId, DocumentInformation document, String contentType,
+                                                   double scoreIncrement, String recentDocumentId, Instant at);
+
+    /**
+     * Appends {@code recentDocumentId}, if any, to the recent documents keeping the last {@code maxRecent},
+     * and replaces the content type weights.
+     */
+    void updateRecentAndWeights(String userId, String recentDocumentId, int maxRecent, Map<String, Double> contentTypeWeights);
+
+    /**
+     * Sets the explicit preferences of a user from {@code request}, leaving the interaction derived fields untouched.
+     *
+     * @return true if the user has preferences to update
+     */
+    boolean updateExplicitPreferences(String userId, UpdateDocumentPreferencesRequest request, Instant at);
+
+    /**
+     * Reads the next batch of preferences ordered by id, with only the id and user id loaded.
+     *
+     * @param afterId id of the last preferences of the previous batch, or null for the first batch
+     */
+    List<DocumentPreferences> findUserIdsAfter(String afterId, int batchSize);
+
+    /**
+     * Overwrites the interaction counts, content type scores and weights of each user with the given values,
+     * in a single bulk write.
+     */
+    void replaceImplicitPreferences(List<DocumentPreferences> preferences);
+}
@@ -0,0 +1,145 @@
+package com.dms.document.interaction.repository;
+
+import com.dms.document.interaction.dto.UpdateDocumentPreferencesRequest;
+import com.dms.document.interaction.model.DocumentInformation;
+import com.dms.document.interaction.model.DocumentPreferences;
+import lombok.RequiredArgsConstructor;
+import org.apache.commons.collections4.CollectionUtils;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Instant;
+import java.util.*;
+
+@RequiredArgsConstructor
+public class DocumentPreferencesRepositoryCustomImpl implements DocumentPreferencesRepositoryCustom {
+    private final MongoTemplate mongoTemplate;
+
+    // Paths into map keys are not translated by the update mapper, so they use the stored field names
+    @Override
+    public Map<String, Double> incrementInteractionCounts(String userId, DocumentInformation document, String contentType,
+                                                          double scoreIncrement, String recentDocumentId, Instant at) {
+        Update update = new Update();
+        incrementEach(update, "major_interaction_counts", document.getMajors());
+        incrementEach(update, "course_code_interaction_counts", document.getCourseCodes());
+        incrementEach(update, "level_interaction_counts",
+                document.getCourseLevel() != null ? Set.of(document.getCourseLevel()) : Set.of());
+        incrementEach(update, "category_interaction_counts", document.getCategories());
+        incrementEach(update, "tag_interaction_counts", document.getTags());
+        if (contentType != null && scoreIncrement > 0) {
+            update.inc("content_type_scores." + contentType, scoreIncrement);
+        }
+        if (recentDocumentId != null) {
+            update.pull("recentViewedDocuments", recentDocumentId);
+        }
+        update.set("updatedAt", at)
+                .setOnInsert("preferredMajors", Set.of())
+                .setOnInsert("preferredCourseCodes", Set.of())
+                .setOnInsert("preferredLevels", Set.of())
+                .setOnInsert("preferredCategories", Set.of())
+                .setOnInsert("preferredTags", Set.of())
+                .setOnInsert("languagePreferences", Set.of("en"))
+                .setOnInsert("createdAt", at);
+
+        Query query = byUserId(userId);
+        query.fields().include("contentTypeScores");
+        FindAndModifyOptions options = FindAndModifyOptions.options().upsert(true).returnNew(true);
+        DocumentPreferences updated;
+        try {
+            updated = mongoTemplate.findAndModify(query, update, options, DocumentPreferences.class);
+        } catch (DuplicateKeyException e) {
+            // A concurrent first interaction created the preferences, the retry updates them
+            updated = mongoTemplate.findAndModify(query, update, options, DocumentPreferences.class);
+        }
+        return updated != null && updated.getContentTypeScores() != null ? updated.getContentTypeScores() : Map.of();
+    }
+
+    @Override
+    public void updateRecentAndWeights(String userId, String recentDocumentId, int maxRecent,
+                                       Map<String, Double> contentTypeWeights) {
+        Update update = new Update().set("contentTypeWeights", contentTypeWeights);
+        if (recentDocumentId != null) {
+            update.push("recentViewedDocuments").slice(-maxRecent).each(recentDocumentId);
+        }
+        mongoTemplate.updateFirst(byUserId(userId), update, DocumentPreferences.class);
+    }
+
+    @Override
+    public boolean updateExplicitPreferences(String userId, UpdateDocumentPreferencesRequest request, Instant at) {
+        Update update = new Update()
+                .set("preferredMajors", request.preferredMajors())
+                .set("preferredCourseCodes", request.preferredCourseCodes())
+                .set("preferredLevels", request.preferredLevels())
+                .set("preferredCategories", request.preferredCategories())
+                .set("preferredTags", request.preferredTags())
+                .set("languagePreferences", request.languagePreferences())
+                .set("updatedAt", at);
+        return mongoTemplate.updateFirst(byUserId(userId), update, DocumentPreferences.class).getMatchedCount() > 0;
+    }
+
+    @Override
+    public List<DocumentPreferences> findUserIdsAfter(String afterId, int batchSize) {
+        Query query = afterId != null ? Query.query(Criteria.where("id").gt(afterId)) : new Query();
+        query.with(Sort.by(Sort.Direction.ASC, "id")).limit(batchSize);
+        query.fields().include("id", "userId");
+        return mongoTemplate.find(query, DocumentPreferences.class);
+    }
+
+    @Override
+    public void replaceImplicitPreferences(List<DocumentPreferences> preferences) {
+        if (preferences.isEmpty()) {
+            return;
+        }
+        BulkOperations bulkOperations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, DocumentPreferences.class);
+        for (DocumentPreferences derived : preferences) {
+            Update update = new Update()
+                    .set("majorInteractionCounts", storable(derived.getMajorInteractionCounts()))
+                    .set("courseCodeInteractionCounts", storable(derived.getCourseCodeInteractionCounts()))
+                    .set("levelInteractionCounts", storable(derived.getLevelInteractionCounts()))
+                    .set("categoryInteractionCounts", storable(derived.getCategoryInteractionCounts()))
+                    .set("tagInteractionCounts", storable(derived.getTagInteractionCounts()))
+                    .set("contentTypeScores", storable(derived.getContentTypeScores()))
+                    .set("contentTypeWeights", storable(derived.getContentTypeWeights()))
+                    .set("updatedAt", derived.getUpdatedAt());
+            bulkOperations.updateOne(byUserId(derived.getUserId()), update);
+        }
+        bulkOperations.execute();
+    }
+
+    private static Query byUserId(String userId) {
+        return Query.query(Criteria.where("userId").is(userId));
+    }
+
+    private static void incrementEach(Update update, String field, Collection<String> keys) {
+        if (CollectionUtils.isEmpty(keys)) {
+            return;
+        }
+        for (String key : keys) {
+            if (isStorableKey(key)) {
+                update.inc(field + "." + key, 1);
+            }
+        }
+    }
+
+    private static <V> Map<String, V> storable(Map<String, V> values) {
+        Map<String, V> result = new HashMap<>();
+        if (values != null) {
+            values.forEach((key, value) -> {
+                if (isStorableKey(key)) {
+                    result.put(key, value);
+                }
+            });
+        }
+        return result;
+    }
+
+    private static boolean isStorableKey(String key) {
+        return key != null && !key.isEmpty() && !key.contains(".") && !key.startsWith("$");
+    }
+}
@@ -1,13 +1,15 @@
 package com.dms.document.interaction.repository;
 
 import com.dms.document.interaction.model.DocumentRecommendation;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import com.dms.document.interaction.model.projection.DocumentCountProjection;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -18,4 +20,28 @@ public interface DocumentRecommendationRepository extends JpaRepository<Document
 
     Optional<DocumentRecommendation> findByDocumentIdAndMentorId(String documentId, UUID mentorId);
 
-}
\ No newline at end of file
+    /**
+     * Inserts the recommendation unless the (document_id, mentor_id) row already exists.
+     *
+     * @return 1 if the row was inserted, 0 if it already existed
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO document_recommendations (document_id, mentor_id, created_at)
+            VALUES (:documentId, :mentorId, now())
+            ON CONFLICT (document_id, mentor_id) DO NOTHING
+            """, nativeQuery = true)
+    int insertIfAbsent(@Param("documentId") String documentId, @Param("mentorId") UUID mentorId);
+
+    @Modifying
+    @Query("DELETE FROM DocumentRecommendation dr WHERE dr.documentId = :documentId AND dr.mentorId = :mentorId")
+    int deleteByDocumentIdAndMentorId(@Param("documentId") String documentId, @Param("mentorId") UUID mentorId);
+
+    @Query("""
+            SELECT dr.documentId AS documentId, COUNT(dr) AS count
+            FROM DocumentRecommendation dr
+            WHERE dr.documentId IN :documentIds
+            GROUP BY dr.documentId
+            """)
+    List<DocumentCountProjection> countByDocumentIds(@Param("documentIds") Collection<String> documentIds);
+}
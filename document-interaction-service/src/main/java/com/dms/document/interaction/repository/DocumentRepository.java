@@ -6,21 +6,39 @@ import com.dms.document.interaction.model.DocumentInformation;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.mongodb.repository.Query;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
-public interface DocumentRepository extends MongoRepository<DocumentInformation, String> {
+/**
+ * Reads exclude the extracted {@code content}, which can be megabytes of text and is never used by this service.
+ * Documents loaded through these finders must not be written back with {@code save}, as that would drop the
+ * content; use the targeted updates of {@link DocumentRepositoryCustom} instead.
+ */
+public interface DocumentRepository extends MongoRepository<DocumentInformation, String>, DocumentRepositoryCustom {
+    @Query(value = "{ '_id': ?0, 'user_id': ?1 }", fields = "{ 'content': 0 }")
     Optional<DocumentInformation> findByIdAndUserId(String id, String userId);
 
+    @Query(value = "{ '_id': ?0 }", fields = "{ 'content': 0, 'versions': 0 }")
+    Optional<DocumentInformation> findSummaryById(String id);
+
+    @Query(value = "{ '_id': { '$in': ?0 } }", fields = "{ 'content': 0, 'versions': 0 }")
     List<DocumentInformation> findByIdIn(List<String> ids);
 
+    @Query(value = "{ '_id': { '$in': ?0 } }",
+            fields = "{ 'document_type': 1, 'majors': 1, 'course_codes': 1, 'course_level': 1, 'categories': 1, 'tags': 1 }")
+    List<DocumentInformation> findPreferenceAttributesByIdIn(Collection<String> ids);
+
+    @Query(value = "{ '_id': { '$in': ?0 } }", fields = "{ 'filename': 1 }")
+    List<DocumentInformation> findFilenamesByIdIn(Collection<String> ids);
+
     @Query(value = "{'tags': {'$regex': ?0, '$options': 'i'}, 'deleted': {'$ne': true}}", fields = "{'_id': 0, 'tags': 1}")
     List<TagsResponse> findDistinctTagsByPattern(String pattern);
 
     @Query(value = "{'tags': {'$exists': true}, 'deleted': {'$ne': true}}", fields = "{'_id': 0, 'tags': 1}")
     List<TagsResponse> findAllTags();
 
-    @Query("""
+    @Query(value = """
             { '_id': ?0, '$or': [
             { 'user_id': ?1 },
             { 'sharing_type': 'PUBLIC' },
@@ -32,15 +50,15 @@ public interface DocumentRepository extends MongoRepository<DocumentInformation,
             'deleted': {'$ne': true},
             'report_status': {$ne: 'RESOLVED'}
             }
-            """)
+            """, fields = "{ 'content': 0 }")
     Optional<DocumentInformation> findAccessibleDocumentByIdAndUserId(String id, String userId);
 
-    @Query("""
+    @Query(value = """
             { '_id': ?0,
             'deleted': {'$ne': true},
             'report_status': {$ne: 'RESOLVED'}
             }
-            """)
+            """, fields = "{ 'content': 0 }")
     Optional<DocumentInformation> findAccessibleDocumentById(String id);
 
     @Query(value = "{'majors': ?0, 'deleted': {$ne: true}}", exists = true)
@@ -55,12 +73,12 @@ public interface DocumentRepository extends MongoRepository<DocumentInformation,
     @Query(value = "{'categories': ?0, 'deleted': {$ne: true}}", exists = true)
     boolean existsByCategoryCode(String code);
 
-    @Query(value = "{'filename': {'$regex': ?0, '$options': 'i'}, 'deleted': {'$ne': true}}")
+    @Query(value = "{'filename': {'$regex': ?0, '$options': 'i'}, 'deleted': {'$ne': true}}", fields = "{'_id': 1}")
     List<DocumentInformation> findByFilenameLikeIgnoreCase(String filename);
 
-    @Query(value = "{'user_id': ?0, 'deleted': {'$ne': true}}")
+    @Query(value = "{'user_id': ?0, 'deleted': false}", fields = "{'_id': 1}")
     List<DocumentInformation> findByUserIdAndNotDeleted(String userId);
 
-    @Query(value = "{'filename': {'$regex': ?0, '$options': 'i'}, 'user_id': ?1, 'deleted': {'$ne': true}}")
+    @Query(value = "{'filename': {'$regex': ?0, '$options': 'i'}, 'user_id': ?1, 'deleted': false}", fields = "{'_id': 1}")
     List<DocumentInformation> findByFilenameLikeIgnoreCaseAndUserId(String filename, String userId);
 }
\ No newline at end of file
@@ -0,0 +1,105 @@
+package com.dms.document.interaction.repository;
+
+import com.dms.document.interaction.enums.DocumentReportStatus;
+import com.dms.document.interaction.enums.SharingType;
+import com.dms.document.interaction.model.DocumentInformation;
+import com.dms.document.interaction.model.DocumentVersion;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Field-level updates for documents. Each method sends a single update for the fields it changes,
+ * so the extracted content and the version history are neither read nor rewritten.
+ */
+public interface DocumentRepositoryCustom {
+
+    /**
+     * Atomically adds {@code delta} to the favorite count. A decrement only applies while the count is large
+     * enough, so the counter never goes negative.
+     *
+     * @return true if the count was changed
+     */
+    boolean incrementFavoriteCount(String documentId, int delta);
+
+    /**
+     * Atomically adds {@code delta} to the recommendation count, with the same lower bound as
+     * {@link #incrementFavoriteCount(String, int)}.
+     *
+     * @return true if the count was changed
+     */
+    boolean incrementRecommendationCount(String documentId, int delta);
+
+    /**
+     * Atomically adds {@code delta} to the comment count, with the same lower bound as
+     * {@link #incrementFavoriteCount(String, int)}.
+     *
+     * @return true if the count was changed
+     */
+    boolean incrementCommentCount(String documentId, int delta);
+
+    /**
+     * Reads the next batch of documents ordered by id, with only the id and the interaction counters loaded.
+     *
+     * @param afterId id of the last document of the previous batch, or null for the first batch
+     */
+    List<DocumentInformation> findCountersAfter(String afterId, int batchSize);
+
+    /**
+     * Reads the ids of the next batch of documents ordered by id.
+     *
+     * @param afterId last id of the previous batch, or null for the first batch
+     */
+    List<String> findIdsAfter(String afterId, int batchSize);
+
+    /**
+     * Overwrites the interaction counters, provided they still hold the values the caller observed,
+     * so increments that land in between are not lost.
+     *
+     * @return true if the counters were replaced
+     */
+    boolean replaceCounters(String documentId, Integer observedFavoriteCount, Integer observedRecommendationCount,
+                            Integer observedCommentCount, int favoriteCount, int recommendationCount, int commentCount);
+
+    /**
+     * Replaces the sharing settings of a document owned by {@code userId}.
+     *
+     * @return the updated document without content, or empty if it does not exist or is not owned by the user
+     */
+    Optional<DocumentInformation> updateSharing(String documentId, String userId, SharingType sharingType,
+                                                Set<String> sharedWith, String updatedBy);
+
+    /**
+     * Replaces the descriptive metadata of a document owned by {@code userId}.
+     *
+     * @return the updated document without content, or empty if it does not exist or is not owned by the user
+     */
+    Optional<DocumentInformation> updateMetadata(String documentId, String userId, String summary, Set<String> courseCodes,
+                                                 Set<String> majors, String courseLevel, Set<String> categories,
+                                                 Set<String> tags, String updatedBy);
+
+    /**
+     * Soft deletes a document owned by {@code userId}.
+     *
+     * @return true if the document was found
+     */
+    boolean markDeleted(String documentId, String userId, String updatedBy);
+
+    /**
+     * Sets the report status of a document.
+     *
+     * @return true if the document exists
+     */
+    boolean updateReportStatus(String documentId, DocumentReportStatus reportStatus);
+
+    /**
+     * Appends a version and copies the current-version fields of {@code document} (file, type, metadata, audit)
+     * onto the stored document. The update only applies while the stored current version still equals
+     * {@code expectedCurrentVersion}, so concurrent version changes cannot both succeed.
+     *
+     * @param clearContent whether to remove the extracted content, which belongs to the previous file
+     * @return true if the version was added
+     */
+    boolean addVersion(DocumentInformation document, Integer expectedCurrentVersion, DocumentVersion version, boolean clearContent);
+}
@@ -0,0 +1,166 @@
+package com.dms.document.interaction.repository;
+
+import com.dms.document.interaction.enums.DocumentReportStatus;
+import com.dms.document.interaction.enums.SharingType;
+import com.dms.document.interaction.model.DocumentInformation;
+import com.dms.document.interaction.model.DocumentVersion;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+@RequiredArgsConstructor
+public class DocumentRepositoryCustomImpl implements DocumentRepositoryCustom {
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public boolean incrementFavoriteCount(String documentId, int delta) {
+        return increment(documentId, "favoriteCount", delta);
+    }
+
+    @Override
+    public boolean incrementRecommendationCount(String documentId, int delta) {
+        return increment(documentId, "recommendationCount", delta);
+    }
+
+    @Override
+    public boolean incrementCommentCount(String documentId, int delta) {
+        return increment(documentId, "commentCount", delta);
+    }
+
+    @Override
+    public List<DocumentInformation> findCountersAfter(String afterId, int batchSize) {
+        Query query = afterId != null ? Query.query(Criteria.where("id").gt(afterId)) : new Query();
+        query.with(Sort.by(Sort.Direction.ASC, "id")).limit(batchSize);
+        query.fields().include("id", "favoriteCount", "recommendationCount", "commentCount");
+        return mongoTemplate.find(query, DocumentInformation.class);
+    }
+
+    @Override
+    public List<String> findIdsAfter(String afterId, int batchSize) {
+        Query query = afterId != null ? Query.query(Criteria.where("id").gt(afterId)) : new Query();
+        query.with(Sort.by(Sort.Direction.ASC, "id")).limit(batchSize);
+        query.fields().include("id");
+        return mongoTemplate.find(query, DocumentInformation.class).stream()
+                .map(DocumentInformation::getId)
+                .toList();
+    }
+
+    @Override
+    public boolean replaceCounters(String documentId, Integer observedFavoriteCount, Integer observedRecommendationCount,
+                                   Integer observedCommentCount, int favoriteCount, int recommendationCount, int commentCount) {
+        Query query = Query.query(Criteria.where("id").is(documentId)
+                .and("favoriteCount").is(observedFavoriteCount)
+                .and("recommendationCount").is(observedRecommendationCount)
+                .and("commentCount").is(observedCommentCount));
+        Update update = new Update()
+                .set("favoriteCount", favoriteCount)
+                .set("recommendationCount", recommendationCount)
+                .set("commentCount", commentCount);
+        return updateFirst(query, update);
+    }
+
+    @Override
+    public Optional<DocumentInformation> updateSharing(String documentId, String userId, SharingType sharingType,
+                                                       Set<String> sharedWith, String updatedBy) {
+        Update update = new Update()
+                .set("sharingType", sharingType)
+                .set("sharedWith", sharedWith)
+                .set("updatedAt", Instant.now())
+                .set("updatedBy", updatedBy);
+        return findAndModify(byIdAndOwner(documentId, userId), update);
+    }
+
+    @Override
+    public Optional<DocumentInformation> updateMetadata(String documentId, String userId, String summary, Set<String> courseCodes,
+                                                        Set<String> majors, String courseLevel, Set<String> categories,
+                                                        Set<String> tags, String updatedBy) {
+        Update update = new Update()
+                .set("summary", summary)
+                .set("courseCodes", courseCodes)
+                .set("majors", majors)
+                .set("courseLevel", courseLevel)
+                .set("categories", categories)
+                .set("tags", tags)
+                .set("updatedAt", Instant.now())
+                .set("updatedBy", updatedBy);
+        return findAndModify(byIdAndOwner(documentId, userId), update);
+    }
+
+    @Override
+    public boolean markDeleted(String documentId, String userId, String updatedBy) {
+        Update update = new Update()
+                .set("deleted", true)
+                .set("updatedAt", Instant.now())
+                .set("updatedBy", updatedBy);
+        return updateFirst(byIdAndOwner(documentId, userId), update);
+    }
+
+    @Override
+    public boolean updateReportStatus(String documentId, DocumentReportStatus reportStatus) {
+        return updateFirst(byId(documentId), new Update().set("reportStatus", reportStatus));
+    }
+
+    @Override
+    public boolean addVersion(DocumentInformation document, Integer expectedCurrentVersion, DocumentVersion version, boolean clearContent) {
+        Query query = byId(document.getId()).addCriteria(Criteria.where("currentVersion").is(expectedCurrentVersion));
+        Update update = new Update()
+                .set("status", document.getStatus())
+                .set("filename", document.getFilename())
+                .set("filePath", document.getFilePath())
+                .set("thumbnailPath", document.getThumbnailPath())
+                .set("fileSize", document.getFileSize())
+                .set("mimeType", document.getMimeType())
+                .set("documentType", document.getDocumentType())
+                .set("language", document.getLanguage())
+                .set("extractedMetadata", document.getExtractedMetadata())
+                .set("summary", document.getSummary())
+                .set("courseCodes", document.getCourseCodes())
+                .set("majors", document.getMajors())
+                .set("courseLevel", document.getCourseLevel())
+                .set("categories", document.getCategories())
+                .set("tags", document.getTags())
+                .set("currentVersion", document.getCurrentVersion())
+                .set("updatedAt", document.getUpdatedAt())
+                .set("updatedBy", document.getUpdatedBy())
+                .push("versions", version);
+        if (clearContent) {
+            update.unset("content");
+        }
+        return updateFirst(query, update);
+    }
+
+    private boolean increment(String documentId, String counter, int delta) {
+        Query query = byId(documentId);
+        if (delta < 0) {
+            query.addCriteria(Criteria.where(counter).gte(-delta));
+        }
+        return updateFirst(query, new Update().inc(counter, delta));
+    }
+
+    private boolean updateFirst(Query query, Update update) {
+        return mongoTemplate.updateFirst(query, update, DocumentInformation.class).getMatchedCount() > 0;
+    }
+
+    private Optional<DocumentInformation> findAndModify(Query query, Update update) {
+        query.fields().exclude("content");
+        return Optional.ofNullable(mongoTemplate.findAndModify(
+                query, update, FindAndModifyOptions.options().returnNew(true), DocumentInformation.class));
+    }
+
+    private static Query byId(String documentId) {
+        return Query.query(Criteria.where("id").is(documentId));
+    }
+
+    private static Query byIdAndOwner(String documentId, String userId) {
+        return Query.query(Criteria.where("id").is(documentId).and("userId").is(userId));
+    }
+}
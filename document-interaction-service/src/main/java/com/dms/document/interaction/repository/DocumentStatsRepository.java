@@ -0,0 +1,14 @@
+package com.dms.document.interaction.repository;
+
+import com.dms.document.interaction.model.DocumentStats;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface DocumentStatsRepository extends MongoRepository<DocumentStats, String>, DocumentStatsRepositoryCustom {
+
+    @Query(value = "{ 'document_id': ?0, 'day': { '$gte': ?1 } }", fields = "{ 'action_counts': 1 }")
+    List<DocumentStats> findCountsSince(String documentId, Instant since);
+}
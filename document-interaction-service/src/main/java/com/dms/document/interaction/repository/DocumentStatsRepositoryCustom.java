@@ -0,0 +1,31 @@
+package com.dms.document.interaction.repository;
+
+import com.dms.document.interaction.model.DocumentStats;
+import com.dms.document.interaction.model.DocumentUserHistory;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Maintenance of the daily document statistics rollups.
+ */
+public interface DocumentStatsRepositoryCustom {
+
+    /**
+     * Adds the given history records to the daily buckets of their documents, with one upsert per bucket
+     * in a single bulk write. Records without a document, action type or creation time are ignored.
+     */
+    void incrementCounts(Collection<DocumentUserHistory> histories);
+
+    /**
+     * Counts the history records of the given documents created before {@code before}, grouped into daily buckets.
+     */
+    List<DocumentStats> aggregateDailyCounts(Collection<String> documentIds, Instant before);
+
+    /**
+     * Makes the buckets of the given documents before {@code before} equal to {@code buckets}: listed buckets are
+     * overwritten and other buckets in that range are removed. Later buckets are left to the incremental updates.
+     */
+    void replaceCounts(Collection<String> documentIds, List<DocumentStats> buckets, Instant before);
+}
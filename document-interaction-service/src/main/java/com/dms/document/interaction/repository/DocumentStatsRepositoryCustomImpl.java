@@ -0,0 +1,110 @@
+package com.dms.document.interaction.repository;
+
+import com.dms.document.interaction.model.DocumentStats;
+import com.dms.document.interaction.model.DocumentUserHistory;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.*;
+
+@RequiredArgsConstructor
+public class DocumentStatsRepositoryCustomImpl implements DocumentStatsRepositoryCustom {
+    // Paths into map keys are not translated by the update mapper, so they use the stored field name
+    private static final String ACTION_COUNTS = "action_counts";
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public void incrementCounts(Collection<DocumentUserHistory> histories) {
+        Map<String, DocumentStats> buckets = new HashMap<>();
+        for (DocumentUserHistory history : histories) {
+            if (history.getDocumentId() == null || history.getUserDocumentActionType() == null
+                    || history.getCreatedAt() == null) {
+                continue;
+            }
+            LocalDate day = DocumentStats.dayOf(history.getCreatedAt());
+            DocumentStats bucket = buckets.computeIfAbsent(DocumentStats.bucketId(history.getDocumentId(), day),
+                    id -> DocumentStats.builder()
+                            .id(id)
+                            .documentId(history.getDocumentId())
+                            .day(DocumentStats.startOf(day))
+                            .actionCounts(new HashMap<>())
+                            .build());
+            bucket.getActionCounts().merge(history.getUserDocumentActionType().name(), 1, Integer::sum);
+        }
+        if (buckets.isEmpty()) {
+            return;
+        }
+
+        BulkOperations bulkOperations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, DocumentStats.class);
+        for (DocumentStats bucket : buckets.values()) {
+            Update update = new Update()
+                    .setOnInsert("documentId", bucket.getDocumentId())
+                    .setOnInsert("day", bucket.getDay());
+            bucket.getActionCounts().forEach((action, count) -> update.inc(ACTION_COUNTS + "." + action, count));
+            bulkOperations.upsert(byId(bucket.getId()), update);
+        }
+        bulkOperations.execute();
+    }
+
+    @Override
+    public List<DocumentStats> aggregateDailyCounts(Collection<String> documentIds, Instant before) {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("document_id").in(documentIds).and("created_at").lt(before)),
+                context -> new Document("$group", new Document("_id", new Document()
+                        .append("document_id", "$document_id")
+                        .append("day", new Document("$dateToString", new Document("format", "%Y-%m-%d")
+                                .append("date", "$created_at")))
+                        .append("action", "$action_type"))
+                        .append("count", new Document("$sum", 1))));
+
+        Map<String, DocumentStats> buckets = new HashMap<>();
+        for (Document row : mongoTemplate.aggregate(aggregation, "document_user_histories", Document.class)) {
+            Document key = row.get("_id", Document.class);
+            String documentId = key.getString("document_id");
+            LocalDate day = LocalDate.parse(key.getString("day"));
+            DocumentStats bucket = buckets.computeIfAbsent(DocumentStats.bucketId(documentId, day),
+                    id -> DocumentStats.builder()
+                            .id(id)
+                            .documentId(documentId)
+                            .day(DocumentStats.startOf(day))
+                            .actionCounts(new HashMap<>())
+                            .build());
+            bucket.getActionCounts().put(key.getString("action"), ((Number) row.get("count")).intValue());
+        }
+        return new ArrayList<>(buckets.values());
+    }
+
+    @Override
+    public void replaceCounts(Collection<String> documentIds, List<DocumentStats> buckets, Instant before) {
+        if (!buckets.isEmpty()) {
+            BulkOperations bulkOperations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, DocumentStats.class);
+            for (DocumentStats bucket : buckets) {
+                Update update = new Update()
+                        .set("actionCounts", bucket.getActionCounts())
+                        .setOnInsert("documentId", bucket.getDocumentId())
+                        .setOnInsert("day", bucket.getDay());
+                bulkOperations.upsert(byId(bucket.getId()), update);
+            }
+            bulkOperations.execute();
+        }
+
+        List<String> bucketIds = buckets.stream().map(DocumentStats::getId).toList();
+        Query stale = Query.query(Criteria.where("documentId").in(documentIds)
+                .and("day").lt(before)
+                .and("id").nin(bucketIds));
+        mongoTemplate.remove(stale, DocumentStats.class);
+    }
+
+    private static Query byId(String id) {
+        return Query.query(Criteria.where("id").is(id));
+    }
+}
@@ -7,7 +7,7 @@ import org.springframework.data.mongodb.repository.MongoRepository;
 
 import java.util.List;
 
-public interface DocumentUserHistoryRepository extends MongoRepository<DocumentUserHistory, String> {
+public interface DocumentUserHistoryRepository extends MongoRepository<DocumentUserHistory, String>, DocumentUserHistoryRepositoryCustom {
     @Aggregation(pipeline = {
             "{ $match: { 'document_id': ?0 } }",
             """
@@ -0,0 +1,22 @@
+package com.dms.document.interaction.repository;
+
+import com.dms.document.interaction.model.DocumentUserHistory;
+
+import java.util.List;
+
+/**
+ * Maintenance of the denormalized search fields of history records.
+ */
+public interface DocumentUserHistoryRepositoryCustom {
+
+    /**
+     * Next records after {@code afterId} in id order that were written before search terms were stored,
+     * with only their document id and detail loaded. A {@code null} id starts from the beginning.
+     */
+    List<DocumentUserHistory> findWithoutSearchTermsAfter(String afterId, int batchSize);
+
+    /**
+     * Stores the document name and search terms of the given records in a single bulk write.
+     */
+    void updateSearchFields(List<DocumentUserHistory> histories);
+}
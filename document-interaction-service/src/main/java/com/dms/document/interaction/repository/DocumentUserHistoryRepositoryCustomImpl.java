@@ -0,0 +1,47 @@
+package com.dms.document.interaction.repository;
+
+import com.dms.document.interaction.model.DocumentUserHistory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.List;
+
+@RequiredArgsConstructor
+public class DocumentUserHistoryRepositoryCustomImpl implements DocumentUserHistoryRepositoryCustom {
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public List<DocumentUserHistory> findWithoutSearchTermsAfter(String afterId, int batchSize) {
+        // Walks the _id index, the filter alone would rescan the already filled records on every batch
+        Criteria criteria = Criteria.where("searchTerms").exists(false);
+        if (afterId != null) {
+            criteria.and("id").gt(afterId);
+        }
+        Query query = Query.query(criteria)
+                .with(Sort.by(Sort.Direction.ASC, "id"))
+                .limit(batchSize);
+        query.fields().include("id", "documentId", "detail");
+        return mongoTemplate.find(query, DocumentUserHistory.class);
+    }
+
+    @Override
+    public void updateSearchFields(List<DocumentUserHistory> histories) {
+        if (histories.isEmpty()) {
+            return;
+        }
+        BulkOperations bulkOperations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, DocumentUserHistory.class);
+        for (DocumentUserHistory history : histories) {
+            Update update = new Update().set("searchTerms", history.getSearchTerms());
+            if (history.getDocumentName() != null) {
+                update.set("documentName", history.getDocumentName());
+            }
+            bulkOperations.updateOne(Query.query(Criteria.where("id").is(history.getId())), update);
+        }
+        bulkOperations.execute();
+    }
+}
@@ -0,0 +1,14 @@
+package com.dms.document.interaction.service;
+
+/**
+ * Service interface for the worker id used by the comment id generator. Unless a worker id is configured,
+ * each instance leases a free one from Postgres at startup and gives it back on shutdown.
+ */
+public interface CommentIdWorkerService {
+
+    /**
+     * Extends the lease on the current worker id. If another instance took it over after the lease expired,
+     * id generation stops until a new worker id is leased.
+     */
+    void renewLease();
+}
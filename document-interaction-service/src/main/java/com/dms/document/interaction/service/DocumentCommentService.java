@@ -1,20 +1,20 @@
 package com.dms.document.interaction.service;
 
+import com.dms.document.interaction.dto.CommentPageResponse;
 import com.dms.document.interaction.dto.CommentRequest;
 import com.dms.document.interaction.dto.CommentResponse;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
 
 public interface DocumentCommentService {
     /**
-     * Retrieves all comments for a document with pagination
+     * Retrieves a page of top-level comments for a document, newest first, with their replies
      *
      * @param documentId The document ID
-     * @param pageable Pagination parameters
+     * @param cursor Cursor returned with the previous page, or null for the first page
+     * @param size Maximum number of top-level comments
      * @param username The username of the requesting user
-     * @return Page of comment responses
+     * @return Page of comment threads
      */
-    Page<CommentResponse> getDocumentComments(String documentId, Pageable pageable, String username);
+    CommentPageResponse getDocumentComments(String documentId, String cursor, int size, String username);
 
     /**
      * Creates a new comment or reply on a document
@@ -0,0 +1,15 @@
+package com.dms.document.interaction.service;
+
+/**
+ * Service interface for keeping the denormalized document counters in line with their source rows.
+ */
+public interface DocumentCounterService {
+
+    /**
+     * Recomputes the favorite, recommendation and comment counts of every document from the favorite,
+     * recommendation and visible comment rows, and overwrites the counters that drifted.
+     *
+     * @return The number of documents whose counters were corrected
+     */
+    int reconcileCounters();
+}
@@ -0,0 +1,32 @@
+package com.dms.document.interaction.service;
+
+import com.dms.document.interaction.dto.DocumentFileResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * Service interface for serving stored document files over HTTP.
+ */
+public interface DocumentDownloadService {
+
+    /**
+     * Builds the response for a file download. Handles conditional requests (If-None-Match, If-Modified-Since),
+     * single and multiple byte ranges (Range, If-Range) and the optional redirect to a pre-signed storage URL.
+     * Content is streamed from storage while the response is written and never buffered as a whole.
+     *
+     * @param file The file to serve, as resolved by the document service
+     * @param requestHeaders Headers of the download request
+     * @return 200, 206, 302, 304 or 416 response; the body is empty unless content is sent
+     */
+    ResponseEntity<StreamingResponseBody> buildDownloadResponse(DocumentFileResponse file, HttpHeaders requestHeaders);
+
+    /**
+     * Whether a download response starts handing the file to the client: a full body, a redirect to storage
+     * or a single range beginning at the first byte. Revalidations and later chunks are not download starts.
+     *
+     * @param response Response built by {@link #buildDownloadResponse}
+     * @return true if the response counts as a download
+     */
+    boolean isDownloadStart(ResponseEntity<?> response);
+}
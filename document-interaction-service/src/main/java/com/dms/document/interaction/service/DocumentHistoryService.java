@@ -17,9 +17,10 @@ public interface DocumentHistoryService {
      * Gets statistics for a document.
      *
      * @param documentId The document ID
+     * @param since Optional start of the window, counted in whole UTC days
      * @return DocumentStatisticsResponse containing aggregated statistics
      */
-    DocumentStatisticsResponse getDocumentStatistics(String documentId);
+    DocumentStatisticsResponse getDocumentStatistics(String documentId, Instant since);
 
     /**
      * Gets a user's history with documents.
@@ -28,7 +29,7 @@ public interface DocumentHistoryService {
      * @param actionType Optional action type to filter by
      * @param fromDate Optional start date for filtering
      * @param toDate Optional end date for filtering
-     * @param searchTerm Optional search term for filtering by document name or detail
+     * @param searchTerm Optional search term, each of its words must start a word of the document name or detail
      * @param pageable Pagination information
      * @return Page of user history responses
      */
@@ -39,4 +40,11 @@ public interface DocumentHistoryService {
             Instant toDate,
             String searchTerm,
             Pageable pageable);
-}
\ No newline at end of file
+
+    /**
+     * Stores the document name and search terms on history records written before they were denormalized.
+     *
+     * @return Number of records updated
+     */
+    int backfillSearchTerms();
+}
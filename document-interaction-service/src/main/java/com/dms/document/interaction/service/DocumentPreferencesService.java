@@ -57,6 +57,14 @@ public interface DocumentPreferencesService {
      */
     Map<String, Double> getCalculateContentTypeWeights(String username);
 
+    /**
+     * Recompute the interaction counts and content type scores of every user from their interactions,
+     * correcting drift of the incremental updates
+     *
+     * @return Number of users processed
+     */
+    int rederiveImplicitPreferences();
+
     /**
      * Create default preferences for a new user
      *
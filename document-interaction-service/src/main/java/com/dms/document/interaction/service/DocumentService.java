@@ -1,5 +1,6 @@
 package com.dms.document.interaction.service;
 
+import com.dms.document.interaction.dto.DocumentFileResponse;
 import com.dms.document.interaction.dto.DocumentUpdateRequest;
 import com.dms.document.interaction.dto.ThumbnailResponse;
 import com.dms.document.interaction.model.DocumentInformation;
@@ -47,16 +48,25 @@ public interface DocumentService {
     ThumbnailResponse getDocumentThumbnail(String documentId, String username) throws IOException;
 
     /**
-     * Retrieve document content.
+     * Resolve the stored file of a document for streaming. The content itself is not read.
      *
      * @param documentId Document identifier
      * @param username Username requesting the content
      * @param action Action being performed (e.g., "download")
-     * @param history Whether to record history of this action
-     * @return Document content as byte array
-     * @throws IOException If file operations fail
+     * @param history Whether to prepare a history record of this action, stored by {@link #recordDownload}
+     * @return Storage location, name, content type and metadata of the file
+     * @throws IOException If the file metadata cannot be read
+     */
+    DocumentFileResponse getDocumentFile(String documentId, String username, String action, Boolean history) throws IOException;
+
+    /**
+     * Record a download in user history and preferences. Called only once the response delivers the file,
+     * so revalidations and later chunks of a ranged download are not counted.
+     *
+     * @param file File resolved by {@link #getDocumentFile} or {@link #getDocumentVersionFile}; nothing is recorded
+     *             unless history was requested
      */
-    byte[] getDocumentContent(String documentId, String username, String action, Boolean history) throws IOException;
+    void recordDownload(DocumentFileResponse file);
 
     /**
      * Get document details.
@@ -110,17 +120,17 @@ public interface DocumentService {
     Set<String> getPopularTags(String prefix);
 
     /**
-     * Get content of a specific document version.
+     * Resolve the stored file of a specific document version for streaming. The content itself is not read.
      *
      * @param documentId Document identifier
      * @param versionNumber Version number to retrieve
      * @param username Username requesting the version
      * @param action Action being performed (e.g., "download")
-     * @param history Whether to record history of this action
-     * @return Document version content as byte array
-     * @throws IOException If file operations fail
+     * @param history Whether to prepare a history record of this action, stored by {@link #recordDownload}
+     * @return Storage location, name, content type and metadata of the version file
+     * @throws IOException If the file metadata cannot be read
      */
-    byte[] getDocumentVersionContent(String documentId, Integer versionNumber, String username, String action, Boolean history) throws IOException;
+    DocumentFileResponse getDocumentVersionFile(String documentId, Integer versionNumber, String username, String action, Boolean history) throws IOException;
 
     /**
      * Revert document to a previous version.
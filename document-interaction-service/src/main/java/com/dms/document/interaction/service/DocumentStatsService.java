@@ -0,0 +1,36 @@
+package com.dms.document.interaction.service;
+
+import com.dms.document.interaction.model.DocumentUserHistory;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Service interface for the daily per-document statistics rolled up from user history.
+ */
+public interface DocumentStatsService {
+
+    /**
+     * Adds written history records to the rollups.
+     *
+     * @param histories History records that were stored
+     */
+    void recordHistory(Collection<DocumentUserHistory> histories);
+
+    /**
+     * Gets the number of history records per action type for a document.
+     *
+     * @param documentId The document ID
+     * @param since Optional start of the window, rounded down to the start of its UTC day
+     * @return Map of action type names to counts
+     */
+    Map<String, Integer> getActionCounts(String documentId, Instant since);
+
+    /**
+     * Recomputes the rollups of every document from the raw history, for all days before the current one.
+     *
+     * @return The number of documents processed
+     */
+    int rebuildStats();
+}
@@ -0,0 +1,24 @@
+package com.dms.document.interaction.service;
+
+import com.dms.document.interaction.model.DocumentUserHistory;
+
+/**
+ * Write-behind sink for user history records. Records are queued and inserted in batches by a single writer,
+ * so callers never wait on MongoDB.
+ */
+public interface DocumentUserHistoryWriter {
+
+    /**
+     * Queues a history record for insertion. When the queue is full the caller waits up to the configured offer
+     * timeout, after which the record is dropped and counted.
+     *
+     * @param history The record to store
+     * @return true if the record was accepted
+     */
+    boolean record(DocumentUserHistory history);
+
+    /**
+     * Writes every queued record before returning.
+     */
+    void flush();
+}
@@ -1,8 +1,12 @@
 package com.dms.document.interaction.service;
 
+import com.dms.document.interaction.dto.StoredFileMetadata;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.Optional;
 
 public interface FileStorageService {
 
@@ -25,6 +29,39 @@ public interface FileStorageService {
      */
     byte[] downloadFile(String filePathOrKey) throws IOException;
 
+    /**
+     * Reads size, ETag and last modification time of a stored file without fetching its content
+     *
+     * @param filePathOrKey the file path or key of the file
+     * @return the file metadata
+     * @throws IOException if the file does not exist or cannot be read
+     */
+    StoredFileMetadata getFileMetadata(String filePathOrKey) throws IOException;
+
+    /**
+     * Opens a stream over a byte range of a stored file. The caller must close the stream.
+     *
+     * @param filePathOrKey the file path or key of the file
+     * @param start the first byte to read, zero based
+     * @param end the last byte to read, inclusive
+     * @return a stream positioned at {@code start} with at least {@code end - start + 1} bytes remaining
+     * @throws IOException if the file cannot be opened
+     */
+    InputStream openFile(String filePathOrKey, long start, long end) throws IOException;
+
+    /**
+     * Creates a short-lived URL the client can download the file from directly
+     *
+     * @param filePathOrKey the file path or key of the file
+     * @param filename the filename to suggest in the Content-Disposition of the download
+     * @param contentType the content type the storage should respond with
+     * @param ttl how long the URL stays valid
+     * @return the URL, or empty if the storage cannot serve files directly
+     */
+    default Optional<String> generatePresignedDownloadUrl(String filePathOrKey, String filename, String contentType, Duration ttl) {
+        return Optional.empty();
+    }
+
     /**
      * Deletes a file from the configured storage
      *
@@ -0,0 +1,134 @@
+package com.dms.document.interaction.service.impl;
+
+import com.dms.document.interaction.service.CommentIdWorkerService;
+import com.dms.document.interaction.utils.CommentIdGenerator;
+import com.dms.document.interaction.utils.SnowflakeIdGenerator;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CommentIdWorkerServiceImpl implements CommentIdWorkerService {
+    // Takes the worker id that expired longest ago, so an id just given back is reused last
+    private static final String ACQUIRE_SQL = """
+            UPDATE comment_id_worker_leases
+            SET instance_id = ?, expires_at = now() + make_interval(secs => ?)
+            WHERE worker_id = (SELECT worker_id
+                               FROM comment_id_worker_leases
+                               WHERE expires_at < now()
+                               ORDER BY expires_at, worker_id
+                               LIMIT 1 FOR UPDATE SKIP LOCKED)
+            RETURNING worker_id
+            """;
+    private static final String RENEW_SQL = """
+            UPDATE comment_id_worker_leases
+            SET expires_at = now() + make_interval(secs => ?)
+            WHERE worker_id = ? AND instance_id = ?
+            """;
+    private static final String RELEASE_SQL = """
+            UPDATE comment_id_worker_leases
+            SET instance_id = NULL, expires_at = now()
+            WHERE worker_id = ? AND instance_id = ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String instanceId = UUID.randomUUID().toString();
+
+    @Value("${app.comment-id.worker-id:-1}")
+    private int configuredWorkerId;
+
+    @Value("${app.comment-id.lease-ttl:5m}")
+    private Duration leaseTtl;
+
+    @Value("${app.comment-id.max-clock-rollback:5s}")
+    private Duration maxClockRollback;
+
+    private volatile Integer leasedWorkerId;
+    private volatile Instant leaseDeadline;
+
+    @PostConstruct
+    public void assignWorker() {
+        if (configuredWorkerId >= 0) {
+            CommentIdGenerator.use(new SnowflakeIdGenerator(configuredWorkerId, maxClockRollback.toMillis()));
+            log.info("Using configured comment id worker {}", configuredWorkerId);
+            return;
+        }
+        acquireLease();
+    }
+
+    @Override
+    public void renewLease() {
+        if (configuredWorkerId >= 0) {
+            return;
+        }
+        if (leasedWorkerId == null) {
+            acquireLease();
+            return;
+        }
+
+        Instant requestedAt = Instant.now();
+        try {
+            int updated = jdbcTemplate.update(RENEW_SQL, leaseTtl.toSeconds(), leasedWorkerId, instanceId);
+            if (updated == 1) {
+                leaseDeadline = requestedAt.plus(leaseTtl);
+                return;
+            }
+            log.warn("Lease on comment id worker {} was lost, leasing another", leasedWorkerId);
+            stopGenerating();
+            acquireLease();
+        } catch (DataAccessException e) {
+            // Keep generating while the lease is surely still ours, the next renewal may get through
+            if (Instant.now().isBefore(leaseDeadline)) {
+                log.warn("Failed to renew lease on comment id worker {}", leasedWorkerId, e);
+                return;
+            }
+            log.error("Lease on comment id worker {} expired without renewal", leasedWorkerId, e);
+            stopGenerating();
+        }
+    }
+
+    @PreDestroy
+    public void releaseLease() {
+        Integer workerId = leasedWorkerId;
+        if (workerId == null) {
+            return;
+        }
+        stopGenerating();
+        try {
+            jdbcTemplate.update(RELEASE_SQL, workerId, instanceId);
+        } catch (DataAccessException e) {
+            log.warn("Failed to release comment id worker {}, it frees up when the lease expires", workerId, e);
+        }
+    }
+
+    private void acquireLease() {
+        Instant requestedAt = Instant.now();
+        List<Integer> workerIds = jdbcTemplate.query(ACQUIRE_SQL, (rs, rowNum) -> rs.getInt("worker_id"),
+                instanceId, leaseTtl.toSeconds());
+        if (workerIds.isEmpty()) {
+            throw new IllegalStateException("No free comment id worker");
+        }
+        int workerId = workerIds.get(0);
+        leasedWorkerId = workerId;
+        leaseDeadline = requestedAt.plus(leaseTtl);
+        CommentIdGenerator.use(new SnowflakeIdGenerator(workerId, maxClockRollback.toMillis()));
+        log.info("Leased comment id worker {}", workerId);
+    }
+
+    private void stopGenerating() {
+        CommentIdGenerator.use(null);
+        leasedWorkerId = null;
+    }
+}
@@ -12,6 +12,7 @@ import com.dms.document.interaction.model.MasterData;
 import com.dms.document.interaction.model.projection.CommentReportProjection;
 import com.dms.document.interaction.repository.CommentReportRepository;
 import com.dms.document.interaction.repository.DocumentCommentRepository;
+import com.dms.document.interaction.repository.DocumentRepository;
 import com.dms.document.interaction.repository.MasterDataRepository;
 import com.dms.document.interaction.service.CommentReportService;
 import com.dms.document.interaction.service.DocumentNotificationService;
@@ -34,12 +35,15 @@ import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
+import static com.dms.document.interaction.utils.TransactionUtils.runAfterCommit;
+
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class CommentReportServiceImpl implements CommentReportService {
     private final CommentReportRepository commentReportRepository;
     private final DocumentCommentRepository documentCommentRepository;
+    private final DocumentRepository documentRepository;
     private final MasterDataRepository masterDataRepository;
     private final UserClient userClient;
     private final ReportTypeMapper reportTypeMapper;
@@ -166,6 +170,7 @@ public class CommentReportServiceImpl implements CommentReportService {
                 .flatMap(cmr -> documentCommentRepository.findByDocumentIdAndId(cmr.getDocumentId(), commentId))
                 .ifPresent(dc -> {
                     documentId.set(dc.getDocumentId());
+                    boolean wasVisible = Objects.equals(dc.getFlag(), 1);
                     if (newStatus == CommentReportStatus.RESOLVED) {
                         dc.setContent("[deleted]");
                         dc.setFlag(-1); // Flag -1 is deleted by reporter
@@ -174,6 +179,18 @@ public class CommentReportServiceImpl implements CommentReportService {
                         dc.setFlag(1);
                     }
                     documentCommentRepository.save(dc);
+
+                    int delta = (Objects.equals(dc.getFlag(), 1) ? 1 : 0) - (wasVisible ? 1 : 0);
+                    if (delta != 0) {
+                        runAfterCommit(() -> {
+                            try {
+                                documentRepository.incrementCommentCount(dc.getDocumentId(), delta);
+                            } catch (Exception e) {
+                                // Repaired by ReconcileDocumentCountersJob
+                                log.warn("Failed to update comment count for document: {}", dc.getDocumentId(), e);
+                            }
+                        });
+                    }
                 });
 
         CompletableFuture.runAsync(() -> {
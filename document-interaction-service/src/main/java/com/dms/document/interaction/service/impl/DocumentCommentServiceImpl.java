@@ -1,6 +1,7 @@
 package com.dms.document.interaction.service.impl;
 
 import com.dms.document.interaction.client.UserClient;
+import com.dms.document.interaction.dto.CommentPageResponse;
 import com.dms.document.interaction.dto.CommentRequest;
 import com.dms.document.interaction.dto.CommentResponse;
 import com.dms.document.interaction.dto.UserResponse;
@@ -15,43 +16,45 @@ import com.dms.document.interaction.model.DocumentUserHistory;
 import com.dms.document.interaction.repository.CommentReportRepository;
 import com.dms.document.interaction.repository.DocumentCommentRepository;
 import com.dms.document.interaction.repository.DocumentRepository;
-import com.dms.document.interaction.repository.DocumentUserHistoryRepository;
 import com.dms.document.interaction.service.DocumentCommentService;
 import com.dms.document.interaction.service.DocumentNotificationService;
 import com.dms.document.interaction.service.DocumentPreferencesService;
+import com.dms.document.interaction.service.DocumentUserHistoryWriter;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
 import org.springframework.dao.InvalidDataAccessResourceUsageException;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
+import static com.dms.document.interaction.utils.TransactionUtils.runAfterCommit;
+
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class DocumentCommentServiceImpl implements DocumentCommentService {
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final UserClient userClient;
     private final DocumentCommentRepository documentCommentRepository;
     private final DocumentRepository documentRepository;
     private final DocumentNotificationService documentNotificationService;
     private final DocumentPreferencesService documentPreferencesService;
-    private final DocumentUserHistoryRepository documentUserHistoryRepository;
+    private final DocumentUserHistoryWriter documentUserHistoryWriter;
     private final CommentReportRepository commentReportRepository;
 
     @Transactional(readOnly = true)
     @Override
-    public Page<CommentResponse> getDocumentComments(String documentId, Pageable pageable, String username) {
+    public CommentPageResponse getDocumentComments(String documentId, String cursor, int size, String username) {
         UserResponse userResponse = getUserByUsername(username);
 
         DocumentInformation documentInformation;
@@ -63,19 +66,31 @@ public class DocumentCommentServiceImpl implements DocumentCommentService {
                     .orElseThrow(() -> new InvalidDocumentException("Document not found"));
         }
 
-        // Get all comments with their replies using recursive query
-        Page<DocumentComment> allComments = documentCommentRepository.findCommentsWithReplies(
-                documentInformation.getId(),
-                pageable
-        );
+        // One extra root tells whether another page follows
+        int limit = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        List<DocumentComment> roots;
+        if (StringUtils.isEmpty(cursor)) {
+            roots = documentCommentRepository.findFirstRootComments(documentInformation.getId(), limit + 1);
+        } else {
+            DocumentComment after = decodeCursor(cursor);
+            roots = documentCommentRepository.findRootCommentsBefore(
+                    documentInformation.getId(), after.getCreatedAt(), after.getId(), limit + 1);
+        }
+        boolean hasMore = roots.size() > limit;
+        if (hasMore) {
+            roots = roots.subList(0, limit);
+        }
 
-        // Get all unique user IDs from all comments
-        Set<UUID> userIds = allComments.stream()
-                .map(DocumentComment::getUserId)
-                .collect(Collectors.toSet());
+        // Replies of all visible roots in one query through root_id
+        List<DocumentComment> replies = roots.isEmpty()
+                ? Collections.emptyList()
+                : documentCommentRepository.findRepliesByRootIds(roots.stream().map(DocumentComment::getId).toList());
 
-        // Batch fetch user data
-        Map<UUID, UserResponse> userMap = batchFetchUsers(userIds);
+        // Batch fetch user data for the page
+        Set<UUID> userIds = new HashSet<>();
+        roots.forEach(comment -> userIds.add(comment.getUserId()));
+        replies.forEach(comment -> userIds.add(comment.getUserId()));
+        Map<UUID, UserResponse> userMap = userIds.isEmpty() ? new HashMap<>() : batchFetchUsers(userIds);
 
         // Get all comment reports by the current user for this document
         List<CommentReport> userReports = commentReportRepository.findReportsByUserAndDocument(
@@ -90,9 +105,14 @@ public class DocumentCommentServiceImpl implements DocumentCommentService {
                 ));
 
         // Build comment tree structure, including report information
-        List<CommentResponse> commentTree = buildCommentTree(allComments.getContent(), userMap, commentReportMap);
-
-        return new PageImpl<>(commentTree, pageable, allComments.getTotalElements());
+        List<CommentResponse> commentTree = buildCommentTree(roots, replies, userMap, commentReportMap);
+
+        String nextCursor = hasMore ? encodeCursor(roots.get(roots.size() - 1)) : null;
+        long totalComments = Objects.nonNull(documentInformation.getCommentCount())
+                ? documentInformation.getCommentCount()
+                // Not reconciled yet
+                : documentCommentRepository.countByDocumentIdAndFlag(documentInformation.getId(), 1);
+        return new CommentPageResponse(commentTree, nextCursor, totalComments);
     }
 
     @Transactional
@@ -104,12 +124,16 @@ public class DocumentCommentServiceImpl implements DocumentCommentService {
                 .orElseThrow(() -> new InvalidDocumentException("Document not found"));
 
         // Check parent id is still valid
+        Long rootId = null;
         if (Objects.nonNull(request.parentId())) {
             Optional<DocumentComment> parentComment = documentCommentRepository.findById(request.parentId());
             if (parentComment.isPresent() &&
                 (parentComment.get().getFlag() == 0 || parentComment.get().getFlag() == -1)) {
                 throw new InvalidDocumentException("PARENT_COMMENT_DELETED");
             }
+            rootId = parentComment
+                    .map(parent -> Objects.requireNonNullElse(parent.getRootId(), parent.getId()))
+                    .orElse(null);
         }
 
         DocumentComment comment = new DocumentComment();
@@ -117,22 +141,25 @@ public class DocumentCommentServiceImpl implements DocumentCommentService {
         comment.setUserId(userResponse.userId());
         comment.setContent(request.content());
         comment.setParentId(request.parentId());
+        comment.setRootId(rootId);
         comment.setFlag(1);
         comment.setCreatedAt(Instant.now());
 
         DocumentComment savedComment = documentCommentRepository.save(comment);
+        runAfterCommit(() -> updateCommentCount(documentId, 1));
+
+        // History
+        documentUserHistoryWriter.record(DocumentUserHistory.builder()
+                .userId(userResponse.userId().toString())
+                .documentId(documentId)
+                .userDocumentActionType(UserDocumentActionType.COMMENT)
+                .version(documentInformation.getCurrentVersion())
+                .documentName(documentInformation.getFilename())
+                .detail(comment.getContent())
+                .createdAt(Instant.now())
+                .build());
 
         CompletableFuture.runAsync(() -> {
-            // History
-            documentUserHistoryRepository.save(DocumentUserHistory.builder()
-                    .userId(userResponse.userId().toString())
-                    .documentId(documentId)
-                    .userDocumentActionType(UserDocumentActionType.COMMENT)
-                    .version(documentInformation.getCurrentVersion())
-                    .detail(comment.getContent())
-                    .createdAt(Instant.now())
-                    .build());
-
             // Only notify if this is a new commenter
             documentNotificationService.handleCommentNotification(
                     documentInformation,
@@ -187,7 +214,19 @@ public class DocumentCommentServiceImpl implements DocumentCommentService {
         List<Long> descendantIds = documentCommentRepository.findAllDescendantIds(commentId);
 
         // Bulk update all affected comments in a single transaction
-        documentCommentRepository.markCommentsAsDeleted(descendantIds);
+        int deleted = documentCommentRepository.markCommentsAsDeleted(descendantIds);
+        if (deleted > 0) {
+            runAfterCommit(() -> updateCommentCount(documentId, -deleted));
+        }
+    }
+
+    private void updateCommentCount(String documentId, int delta) {
+        try {
+            documentRepository.incrementCommentCount(documentId, delta);
+        } catch (Exception e) {
+            // Repaired by ReconcileDocumentCountersJob
+            log.warn("Failed to update comment count for document: {}", documentId, e);
+        }
     }
 
     private Map<UUID, UserResponse> batchFetchUsers(Set<UUID> userIds) {
@@ -208,22 +247,55 @@ public class DocumentCommentServiceImpl implements DocumentCommentService {
     }
 
     private List<CommentResponse> buildCommentTree(
-            List<DocumentComment> comments,
+            List<DocumentComment> roots,
+            List<DocumentComment> replies,
             Map<UUID, UserResponse> userMap,
             Map<Long, CommentReport> commentReportMap) {
-        // Use LinkedHashMap to maintain order
         List<CommentResponse> rootComments = new ArrayList<>();
-
-        // Single pass comment tree building
-        for (DocumentComment comment : comments) {
+        Map<Long, CommentResponse> visibleComments = new HashMap<>();
+        for (DocumentComment comment : roots) {
             CommentResponse response = mapToCommentResponse(comment, userMap, commentReportMap);
-
+            response.setReplies(new ArrayList<>());
             rootComments.add(response);
+            visibleComments.put(comment.getId(), response);
         }
 
+        // Replies come oldest first, so a parent is always placed before its replies.
+        // Replies under a hidden or deleted parent have no visible parent and are left out
+        for (DocumentComment reply : replies) {
+            CommentResponse parent = visibleComments.get(reply.getParentId());
+            if (parent == null) {
+                continue;
+            }
+            CommentResponse response = mapToCommentResponse(reply, userMap, commentReportMap);
+            response.setReplies(new ArrayList<>());
+            parent.getReplies().add(response);
+            visibleComments.put(reply.getId(), response);
+        }
         return rootComments;
     }
 
+    private static String encodeCursor(DocumentComment comment) {
+        Instant createdAt = comment.getCreatedAt();
+        String value = createdAt.getEpochSecond() + "." + createdAt.getNano() + ":" + comment.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static DocumentComment decodeCursor(String cursor) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = value.indexOf(':');
+            int dot = value.indexOf('.');
+            DocumentComment after = new DocumentComment();
+            after.setCreatedAt(Instant.ofEpochSecond(
+                    Long.parseLong(value.substring(0, dot)), Long.parseLong(value.substring(dot + 1, separator))));
+            after.setId(Long.parseLong(value.substring(separator + 1)));
+            return after;
+        } catch (RuntimeException e) {
+            throw new InvalidDocumentException("Invalid comment cursor");
+        }
+    }
+
     private UserResponse getUserByUsername(String username) {
         ResponseEntity<UserResponse> response = userClient.getUserByUsername(username);
         if (!response.getStatusCode().is2xxSuccessful() || Objects.isNull(response.getBody())) {
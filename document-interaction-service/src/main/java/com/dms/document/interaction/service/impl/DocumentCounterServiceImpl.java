@@ -0,0 +1,81 @@
+package com.dms.document.interaction.service.impl;
+
+import com.dms.document.interaction.model.DocumentInformation;
+import com.dms.document.interaction.model.projection.DocumentCountProjection;
+import com.dms.document.interaction.repository.DocumentCommentRepository;
+import com.dms.document.interaction.repository.DocumentFavoriteRepository;
+import com.dms.document.interaction.repository.DocumentRecommendationRepository;
+import com.dms.document.interaction.repository.DocumentRepository;
+import com.dms.document.interaction.service.DocumentCounterService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DocumentCounterServiceImpl implements DocumentCounterService {
+    private final DocumentRepository documentRepository;
+    private final DocumentFavoriteRepository documentFavoriteRepository;
+    private final DocumentRecommendationRepository documentRecommendationRepository;
+    private final DocumentCommentRepository documentCommentRepository;
+
+    @Value("${app.counters.reconcile-batch-size:500}")
+    private int batchSize;
+
+    @Override
+    public int reconcileCounters() {
+        int corrected = 0;
+        String lastId = null;
+        List<DocumentInformation> batch;
+        do {
+            batch = documentRepository.findCountersAfter(lastId, batchSize);
+            if (batch.isEmpty()) {
+                break;
+            }
+            corrected += reconcileBatch(batch);
+            lastId = batch.get(batch.size() - 1).getId();
+        } while (batch.size() == batchSize);
+        return corrected;
+    }
+
+    private int reconcileBatch(List<DocumentInformation> documents) {
+        List<String> documentIds = documents.stream().map(DocumentInformation::getId).toList();
+        Map<String, Long> favoriteCounts = toCountMap(documentFavoriteRepository.countByDocumentIds(documentIds));
+        Map<String, Long> recommendationCounts = toCountMap(documentRecommendationRepository.countByDocumentIds(documentIds));
+        Map<String, Long> commentCounts = toCountMap(documentCommentRepository.countByDocumentIds(documentIds));
+
+        int corrected = 0;
+        for (DocumentInformation document : documents) {
+            int favoriteCount = favoriteCounts.getOrDefault(document.getId(), 0L).intValue();
+            int recommendationCount = recommendationCounts.getOrDefault(document.getId(), 0L).intValue();
+            int commentCount = commentCounts.getOrDefault(document.getId(), 0L).intValue();
+            if (Objects.equals(document.getFavoriteCount(), favoriteCount)
+                    && Objects.equals(document.getRecommendationCount(), recommendationCount)
+                    && Objects.equals(document.getCommentCount(), commentCount)) {
+                continue;
+            }
+
+            // Skipped when a toggle changed the counters in the meantime, the next run picks it up again
+            if (documentRepository.replaceCounters(document.getId(), document.getFavoriteCount(), document.getRecommendationCount(),
+                    document.getCommentCount(), favoriteCount, recommendationCount, commentCount)) {
+                log.info("Corrected counters for document: {}, favorites {} -> {}, recommendations {} -> {}, comments {} -> {}",
+                        document.getId(), document.getFavoriteCount(), favoriteCount,
+                        document.getRecommendationCount(), recommendationCount,
+                        document.getCommentCount(), commentCount);
+                corrected++;
+            }
+        }
+        return corrected;
+    }
+
+    private static Map<String, Long> toCountMap(List<DocumentCountProjection> counts) {
+        return counts.stream().collect(Collectors.toMap(DocumentCountProjection::getDocumentId, DocumentCountProjection::getCount));
+    }
+}
@@ -0,0 +1,285 @@
+package com.dms.document.interaction.service.impl;
+
+import com.dms.document.interaction.config.FileStorageProperties;
+import com.dms.document.interaction.dto.DocumentFileResponse;
+import com.dms.document.interaction.dto.StoredFileMetadata;
+import com.dms.document.interaction.service.DocumentDownloadService;
+import com.dms.document.interaction.service.FileStorageService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.http.*;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DocumentDownloadServiceImpl implements DocumentDownloadService {
+    private static final String CONTENT_DISPOSITION = "attachment; filename=\"document\"";
+    private static final String BYTES_UNIT = "bytes";
+    private static final String CRLF = "\r\n";
+
+    private final FileStorageService fileStorageService;
+    private final FileStorageProperties fileStorageProperties;
+
+    @Override
+    public ResponseEntity<StreamingResponseBody> buildDownloadResponse(DocumentFileResponse file, HttpHeaders requestHeaders) {
+        StoredFileMetadata metadata = file.getMetadata();
+        String contentType = resolveContentType(file);
+
+        if (isNotModified(requestHeaders, metadata)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .headers(validatorHeaders(metadata))
+                    .build();
+        }
+
+        FileStorageProperties.Download download = fileStorageProperties.getDownload();
+        if (download.isPresignedRedirect()) {
+            Optional<String> presignedUrl = fileStorageService.generatePresignedDownloadUrl(
+                    file.getFilePath(), file.getFilename(), contentType, download.getPresignedUrlTtl());
+            if (presignedUrl.isPresent()) {
+                return ResponseEntity.status(HttpStatus.FOUND)
+                        .header(HttpHeaders.LOCATION, presignedUrl.get())
+                        .cacheControl(CacheControl.noStore())
+                        .build();
+            }
+        }
+
+        long length = metadata.getContentLength();
+        List<ByteSpan> spans = requestedSpans(requestHeaders, metadata);
+
+        if (spans == null) {
+            return ResponseEntity.ok()
+                    .headers(contentHeaders(metadata, contentType))
+                    .contentLength(length)
+                    .body(outputStream -> {
+                        if (length > 0) {
+                            copy(file.getFilePath(), new ByteSpan(0, length - 1), outputStream);
+                        }
+                    });
+        }
+
+        if (spans.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+                    .header(HttpHeaders.CONTENT_RANGE, BYTES_UNIT + " */" + length)
+                    .build();
+        }
+
+        if (spans.size() == 1) {
+            ByteSpan span = spans.get(0);
+            return ResponseEntity.status(HttpStatus.PARTIAL_CONTENT)
+                    .headers(contentHeaders(metadata, contentType))
+                    .header(HttpHeaders.CONTENT_RANGE, span.contentRange(length))
+                    .contentLength(span.length())
+                    .body(outputStream -> copy(file.getFilePath(), span, outputStream));
+        }
+
+        return multipartResponse(file, metadata, contentType, spans);
+    }
+
+    @Override
+    public boolean isDownloadStart(ResponseEntity<?> response) {
+        HttpStatusCode status = response.getStatusCode();
+        if (status.isSameCodeAs(HttpStatus.OK) || status.isSameCodeAs(HttpStatus.FOUND)) {
+            return true;
+        }
+        // Multipart responses carry no top-level Content-Range and are never the start of a plain download
+        String contentRange = response.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE);
+        return status.isSameCodeAs(HttpStatus.PARTIAL_CONTENT)
+                && StringUtils.startsWith(contentRange, BYTES_UNIT + " 0-");
+    }
+
+    private ResponseEntity<StreamingResponseBody> multipartResponse(DocumentFileResponse file, StoredFileMetadata metadata,
+                                                                    String contentType, List<ByteSpan> spans) {
+        String boundary = UUID.randomUUID().toString().replace("-", "");
+        long length = metadata.getContentLength();
+
+        List<byte[]> partHeaders = new ArrayList<>(spans.size());
+        long contentLength = 0;
+        for (ByteSpan span : spans) {
+            byte[] partHeader = (CRLF + "--" + boundary + CRLF
+                    + HttpHeaders.CONTENT_TYPE + ": " + contentType + CRLF
+                    + HttpHeaders.CONTENT_RANGE + ": " + span.contentRange(length) + CRLF
+                    + CRLF).getBytes(StandardCharsets.US_ASCII);
+            partHeaders.add(partHeader);
+            contentLength += partHeader.length + span.length();
+        }
+        byte[] closingBoundary = (CRLF + "--" + boundary + "--" + CRLF).getBytes(StandardCharsets.US_ASCII);
+        contentLength += closingBoundary.length;
+
+        HttpHeaders headers = contentHeaders(metadata, contentType);
+        headers.setContentType(MediaType.parseMediaType("multipart/byteranges; boundary=" + boundary));
+        headers.setContentLength(contentLength);
+
+        return ResponseEntity.status(HttpStatus.PARTIAL_CONTENT)
+                .headers(headers)
+                .body(outputStream -> {
+                    // Each part is its own ranged read, so storage never sends bytes between the parts
+                    for (int i = 0; i < spans.size(); i++) {
+                        outputStream.write(partHeaders.get(i));
+                        copy(file.getFilePath(), spans.get(i), outputStream);
+                    }
+                    outputStream.write(closingBoundary);
+                });
+    }
+
+    private void copy(String filePath, ByteSpan span, OutputStream outputStream) throws IOException {
+        try (InputStream inputStream = fileStorageService.openFile(filePath, span.start(), span.end())) {
+            StreamUtils.copyRange(inputStream, outputStream, 0, span.length() - 1);
+        }
+    }
+
+    /**
+     * Returns null when the whole file should be sent, otherwise the satisfiable ranges in ascending order
+     * with overlapping and adjacent ranges merged. An empty list means none of the ranges can be satisfied.
+     */
+    private List<ByteSpan> requestedSpans(HttpHeaders requestHeaders, StoredFileMetadata metadata) {
+        String rangeHeader = requestHeaders.getFirst(HttpHeaders.RANGE);
+        if (StringUtils.isBlank(rangeHeader) || !ifRangeMatches(requestHeaders, metadata)) {
+            return null;
+        }
+
+        List<HttpRange> ranges;
+        try {
+            ranges = HttpRange.parseRanges(rangeHeader);
+        } catch (IllegalArgumentException e) {
+            // An invalid Range header is ignored and the full file is sent
+            log.debug("Ignoring invalid Range header: {}", rangeHeader);
+            return null;
+        }
+
+        long length = metadata.getContentLength();
+        List<ByteSpan> spans = new ArrayList<>(ranges.size());
+        for (HttpRange range : ranges) {
+            try {
+                long start = range.getRangeStart(length);
+                long end = range.getRangeEnd(length);
+                if (start <= end) {
+                    spans.add(new ByteSpan(start, end));
+                }
+            } catch (IllegalArgumentException e) {
+                // Range starts past the end of the file
+            }
+        }
+
+        List<ByteSpan> merged = merge(spans);
+        if (merged.size() > fileStorageProperties.getDownload().getMaxRanges()) {
+            return null;
+        }
+        return merged;
+    }
+
+    private List<ByteSpan> merge(List<ByteSpan> spans) {
+        if (spans.size() < 2) {
+            return spans;
+        }
+        List<ByteSpan> sorted = new ArrayList<>(spans);
+        sorted.sort(Comparator.comparingLong(ByteSpan::start));
+
+        List<ByteSpan> merged = new ArrayList<>(sorted.size());
+        ByteSpan current = sorted.get(0);
+        for (ByteSpan span : sorted.subList(1, sorted.size())) {
+            if (span.start() <= current.end() + 1) {
+                current = new ByteSpan(current.start(), Math.max(current.end(), span.end()));
+            } else {
+                merged.add(current);
+                current = span;
+            }
+        }
+        merged.add(current);
+        return merged;
+    }
+
+    private boolean isNotModified(HttpHeaders requestHeaders, StoredFileMetadata metadata) {
+        List<String> ifNoneMatch = requestHeaders.getIfNoneMatch();
+        if (!ifNoneMatch.isEmpty()) {
+            String eTag = stripWeakPrefix(metadata.getETag());
+            return ifNoneMatch.stream().anyMatch(tag -> "*".equals(tag) || stripWeakPrefix(tag).equals(eTag));
+        }
+
+        long ifModifiedSince = dateHeader(requestHeaders, HttpHeaders.IF_MODIFIED_SINCE);
+        return ifModifiedSince >= 0 && metadata.getLastModified() != null
+                && truncateToSeconds(metadata.getLastModified()) <= ifModifiedSince;
+    }
+
+    private boolean ifRangeMatches(HttpHeaders requestHeaders, StoredFileMetadata metadata) {
+        String ifRange = requestHeaders.getFirst(HttpHeaders.IF_RANGE);
+        if (StringUtils.isBlank(ifRange)) {
+            return true;
+        }
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            // If-Range requires a strong comparison
+            return ifRange.equals(metadata.getETag()) && !ifRange.startsWith("W/");
+        }
+        long date = dateHeader(requestHeaders, HttpHeaders.IF_RANGE);
+        return date >= 0 && metadata.getLastModified() != null
+                && truncateToSeconds(metadata.getLastModified()) == date;
+    }
+
+    private HttpHeaders validatorHeaders(StoredFileMetadata metadata) {
+        HttpHeaders headers = new HttpHeaders();
+        if (metadata.getETag() != null) {
+            headers.setETag(metadata.getETag());
+        }
+        if (metadata.getLastModified() != null) {
+            headers.setLastModified(metadata.getLastModified());
+        }
+        // Clients may keep the file but must revalidate, which the ETag makes cheap
+        headers.setCacheControl(CacheControl.noCache().cachePrivate());
+        return headers;
+    }
+
+    private HttpHeaders contentHeaders(StoredFileMetadata metadata, String contentType) {
+        HttpHeaders headers = validatorHeaders(metadata);
+        headers.set(HttpHeaders.ACCEPT_RANGES, BYTES_UNIT);
+        headers.set(HttpHeaders.CONTENT_DISPOSITION, CONTENT_DISPOSITION);
+        headers.setContentType(MediaType.parseMediaType(contentType));
+        return headers;
+    }
+
+    private String resolveContentType(DocumentFileResponse file) {
+        if (StringUtils.isNotBlank(file.getContentType())) {
+            return file.getContentType();
+        }
+        if (StringUtils.isNotBlank(file.getMetadata().getContentType())) {
+            return file.getMetadata().getContentType();
+        }
+        return MediaType.APPLICATION_OCTET_STREAM_VALUE;
+    }
+
+    private static long dateHeader(HttpHeaders requestHeaders, String headerName) {
+        try {
+            return requestHeaders.getFirstDate(headerName);
+        } catch (IllegalArgumentException e) {
+            return -1;
+        }
+    }
+
+    private static long truncateToSeconds(Instant instant) {
+        return instant.truncatedTo(ChronoUnit.SECONDS).toEpochMilli();
+    }
+
+    private static String stripWeakPrefix(String eTag) {
+        return eTag != null && eTag.startsWith("W/") ? eTag.substring(2) : String.valueOf(eTag);
+    }
+
+    private record ByteSpan(long start, long end) {
+        long length() {
+            return end - start + 1;
+        }
+
+        String contentRange(long totalLength) {
+            return BYTES_UNIT + " " + start + "-" + end + "/" + totalLength;
+        }
+    }
+}
@@ -10,17 +10,16 @@ import com.dms.document.interaction.enums.InteractionType;
 import com.dms.document.interaction.enums.UserDocumentActionType;
 import com.dms.document.interaction.exception.DuplicateFavoriteException;
 import com.dms.document.interaction.exception.InvalidDocumentException;
-import com.dms.document.interaction.model.DocumentFavorite;
 import com.dms.document.interaction.model.DocumentInformation;
-import com.dms.document.interaction.model.DocumentRecommendation;
 import com.dms.document.interaction.model.DocumentUserHistory;
 import com.dms.document.interaction.repository.DocumentFavoriteRepository;
 import com.dms.document.interaction.repository.DocumentRepository;
-import com.dms.document.interaction.repository.DocumentUserHistoryRepository;
 import com.dms.document.interaction.service.DocumentFavoriteService;
 import com.dms.document.interaction.service.DocumentPreferencesService;
+import com.dms.document.interaction.service.DocumentUserHistoryWriter;
 import com.dms.document.interaction.service.PublishEventService;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.InvalidDataAccessResourceUsageException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
@@ -28,18 +27,20 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
 import java.util.Objects;
-import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 
+import static com.dms.document.interaction.utils.TransactionUtils.runAfterCommit;
+
 @Service
 @Transactional
 @RequiredArgsConstructor
+@Slf4j
 public class DocumentFavoriteServiceImpl implements DocumentFavoriteService {
     private final DocumentFavoriteRepository documentFavoriteRepository;
     private final DocumentRepository documentRepository;
     private final UserClient userClient;
     private final DocumentPreferencesService documentPreferencesService;
-    private final DocumentUserHistoryRepository documentUserHistoryRepository;
+    private final DocumentUserHistoryWriter documentUserHistoryWriter;
     private final PublishEventService publishEventService;
 
     @Override
@@ -55,52 +56,44 @@ public class DocumentFavoriteServiceImpl implements DocumentFavoriteService {
         }
 
         // Check if document exists
-        DocumentInformation document = documentRepository.findById(documentId)
+        DocumentInformation document = documentRepository.findSummaryById(documentId)
                 .orElseThrow(() -> new InvalidDocumentException("Document not found"));
 
-        // Check if recommended
-        boolean isFavorited = documentFavoriteRepository.existsByUserIdAndDocumentId(userResponse.userId(), documentId);
-
-        // Update document favorite count
+        // The unique (user_id, document_id) row decides concurrent toggles, the counter only follows successful row changes
         if (favorite) {
-            // Check for existing favorite
-            if (isFavorited) {
+            if (documentFavoriteRepository.insertIfAbsent(userResponse.userId(), documentId) == 0) {
                 throw new DuplicateFavoriteException("Document already favorited");
             }
+        } else if (documentFavoriteRepository.deleteByUserIdAndDocumentId(userResponse.userId(), documentId) == 0) {
+            throw new DuplicateFavoriteException("Document not favorited");
+        }
 
-            DocumentFavorite documentfavorite = new DocumentFavorite();
-            documentfavorite.setUserId(userResponse.userId());
-            documentfavorite.setDocumentId(documentId);
-            documentFavoriteRepository.save(documentfavorite);
-
-            document.setFavoriteCount(Objects.nonNull(document.getFavoriteCount()) ? document.getFavoriteCount() + 1 : 0);
-        } else {
-            // Check for existing favorite
-            if (!isFavorited) {
-                throw new DuplicateFavoriteException("Document not favorited");
+        // The counter and the reindex follow the committed favorite row, so a rollback never shows up in either
+        runAfterCommit(() -> {
+            try {
+                documentRepository.incrementFavoriteCount(documentId, favorite ? 1 : -1);
+            } catch (Exception e) {
+                // Repaired by ReconcileDocumentCountersJob
+                log.warn("Failed to update favorite count for document: {}", documentId, e);
             }
 
-            documentFavoriteRepository.deleteByUserIdAndDocumentId(userResponse.userId(), documentId);
-
-            document.setFavoriteCount(document.getFavoriteCount() - 1);
-        }
-        documentRepository.save(document);
-
-        CompletableFuture.runAsync(() -> {
             // History
-            documentUserHistoryRepository.save(DocumentUserHistory.builder()
+            documentUserHistoryWriter.record(DocumentUserHistory.builder()
                     .userId(userResponse.userId().toString())
                     .documentId(documentId)
                     .userDocumentActionType(UserDocumentActionType.FAVORITE)
                     .version(document.getCurrentVersion())
+                    .documentName(document.getFilename())
                     .detail(favorite ? "ADD" : "REMOVE")
                     .createdAt(Instant.now())
                     .build());
 
-            documentPreferencesService.recordInteraction(userResponse.userId(), documentId, InteractionType.FAVORITE);
+            CompletableFuture.runAsync(() -> {
+                documentPreferencesService.recordInteraction(userResponse.userId(), documentId, InteractionType.FAVORITE);
 
-            // Notify reindexing
-            sendSyncEvent(document, userResponse.userId().toString());
+                // Notify reindexing
+                sendSyncEvent(document, userResponse.userId().toString());
+            });
         });
     }
 
@@ -127,7 +120,7 @@ public class DocumentFavoriteServiceImpl implements DocumentFavoriteService {
                         .eventId(java.util.UUID.randomUUID().toString())
                         .userId(userId)
                         .documentId(document.getId())
-                        .subject(EventType.UPDATE_EVENT.name())
+                        .subject(EventType.FAVORITE_EVENT.name())
                         .triggerAt(Instant.now())
                         .build()
         );
@@ -7,13 +7,15 @@ import com.dms.document.interaction.dto.UserResponse;
 import com.dms.document.interaction.enums.UserDocumentActionType;
 import com.dms.document.interaction.model.DocumentInformation;
 import com.dms.document.interaction.model.DocumentUserHistory;
-import com.dms.document.interaction.model.projection.ActionCountResult;
 import com.dms.document.interaction.repository.DocumentRepository;
 import com.dms.document.interaction.repository.DocumentUserHistoryRepository;
 import com.dms.document.interaction.service.DocumentHistoryService;
+import com.dms.document.interaction.service.DocumentStatsService;
+import com.dms.document.interaction.utils.HistorySearchTerms;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.dao.InvalidDataAccessResourceUsageException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -38,21 +40,20 @@ public class DocumentHistoryServiceImpl implements DocumentHistoryService {
     private final MongoTemplate mongoTemplate;
     private final DocumentUserHistoryRepository documentUserHistoryRepository;
     private final DocumentRepository documentRepository;
+    private final DocumentStatsService documentStatsService;
     private final UserClient userClient;
 
+    @Value("${app.history.search.max-matches:1000}")
+    private int maxSearchMatches;
+
+    @Value("${app.history.search.backfill-batch-size:500}")
+    private int backfillBatchSize;
+
     @Transactional(readOnly = true)
     @Override
-    public DocumentStatisticsResponse getDocumentStatistics(String documentId) {
-        // Get all action counts in a single query
-        List<ActionCountResult> actionCounts = documentUserHistoryRepository.getActionCountsForDocument(documentId);
-
-        // Convert to map for easier lookup
-        Map<String, Integer> countsByType = actionCounts.stream()
-                .collect(Collectors.toMap(
-                        ActionCountResult::getActionType,
-                        ActionCountResult::getCount,
-                        (a, b) -> a  // In case of duplicates, keep first value
-                ));
+    public DocumentStatisticsResponse getDocumentStatistics(String documentId, Instant since) {
+        // Read the daily rollups instead of grouping the raw history
+        Map<String, Integer> countsByType = documentStatsService.getActionCounts(documentId, since);
 
         // Helper function to safely get count
         Function<String, Integer> getCount = type -> countsByType.getOrDefault(type, 0);
@@ -92,13 +93,17 @@ public class DocumentHistoryServiceImpl implements DocumentHistoryService {
         UserResponse user = getUserFromUsername(username);
         String userId = user.userId().toString();
 
-        // Find document IDs matching the search term in filename (if provided)
-        List<String> matchingDocumentIds = StringUtils.isNotEmpty(searchTerm)
-                ? findDocumentIdsByName(searchTerm)
+        // Searches match word prefixes of the stored document name and detail
+        List<String> searchTokens = StringUtils.isNotEmpty(searchTerm)
+                ? HistorySearchTerms.tokenize(searchTerm)
                 : Collections.emptyList();
+        boolean searching = StringUtils.isNotEmpty(searchTerm);
+        if (searching && (searchTokens.isEmpty() || pageable.getOffset() >= maxSearchMatches)) {
+            return Page.empty(pageable);
+        }
 
         // Build dynamic query with criteria for history
-        Query query = buildHistoryQuery(userId, actionType, fromDate, toDate, searchTerm, matchingDocumentIds);
+        Query query = buildHistoryQuery(userId, actionType, fromDate, toDate, searchTokens);
 
         // Set pagination and sorting
         query.with(pageable);
@@ -106,8 +111,11 @@ public class DocumentHistoryServiceImpl implements DocumentHistoryService {
         // Execute query
         List<DocumentUserHistory> histories = mongoTemplate.find(query, DocumentUserHistory.class);
 
-        // Count query for total elements (without pagination)
-        Query countQuery = buildHistoryQuery(userId, actionType, fromDate, toDate, searchTerm, matchingDocumentIds);
+        // Count query for total elements (without pagination), capped for searches
+        Query countQuery = buildHistoryQuery(userId, actionType, fromDate, toDate, searchTokens);
+        if (searching) {
+            countQuery.limit(maxSearchMatches);
+        }
 
         // Enrich with document titles
         List<UserHistoryResponse> responses = enrichWithDocumentTitles(histories);
@@ -125,8 +133,7 @@ public class DocumentHistoryServiceImpl implements DocumentHistoryService {
             UserDocumentActionType actionType,
             Instant fromDate,
             Instant toDate,
-            String searchTerm,
-            List<String> matchingDocumentIds) {
+            List<String> searchTokens) {
 
         // Start with base criteria for user
         Criteria criteria = Criteria.where("userId").is(userId);
@@ -145,19 +152,12 @@ public class DocumentHistoryServiceImpl implements DocumentHistoryService {
             criteria.and("createdAt").lte(toDate);
         }
 
-        // Add search term filter for filename (via document IDs) and detail
-        if (StringUtils.isNotEmpty(searchTerm)) {
-            List<Criteria> orCriteria = new ArrayList<>();
-
-            // Match documents by IDs from filename search
-            if (!matchingDocumentIds.isEmpty()) {
-                orCriteria.add(Criteria.where("documentId").in(matchingDocumentIds));
-            }
-
-            // Match detail field with regex (case-insensitive)
-            orCriteria.add(Criteria.where("detail").regex(searchTerm, "i"));
-
-            criteria.andOperator(new Criteria().orOperator(orCriteria.toArray(new Criteria[0])));
+        // Every word of the search term must prefix a stored term. Tokens are letters and digits only,
+        // so the anchored regex needs no escaping and becomes an index range on search_terms
+        if (!searchTokens.isEmpty()) {
+            criteria.andOperator(searchTokens.stream()
+                    .map(token -> Criteria.where("searchTerms").regex("^" + token))
+                    .toArray(Criteria[]::new));
         }
 
         // Create and return query with sort by createdAt descending
@@ -167,6 +167,37 @@ public class DocumentHistoryServiceImpl implements DocumentHistoryService {
         return query;
     }
 
+    @Override
+    public int backfillSearchTerms() {
+        int updated = 0;
+        String lastId = null;
+        List<DocumentUserHistory> histories;
+        do {
+            histories = documentUserHistoryRepository.findWithoutSearchTermsAfter(lastId, backfillBatchSize);
+            if (histories.isEmpty()) {
+                break;
+            }
+            lastId = histories.get(histories.size() - 1).getId();
+
+            // Current filenames stand in for the names at the time of the action
+            Set<String> documentIds = histories.stream()
+                    .map(DocumentUserHistory::getDocumentId)
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toSet());
+            Map<String, String> filenames = documentRepository.findFilenamesByIdIn(documentIds).stream()
+                    .filter(document -> document.getFilename() != null)
+                    .collect(Collectors.toMap(DocumentInformation::getId, DocumentInformation::getFilename));
+            histories.forEach(history -> {
+                history.setDocumentName(filenames.get(history.getDocumentId()));
+                history.setSearchTerms(HistorySearchTerms.of(history.getDocumentName(), history.getDetail()));
+            });
+
+            documentUserHistoryRepository.updateSearchFields(histories);
+            updated += histories.size();
+        } while (histories.size() == backfillBatchSize);
+        return updated;
+    }
+
     private List<UserHistoryResponse> enrichWithDocumentTitles(List<DocumentUserHistory> histories) {
         if (histories.isEmpty()) {
             return Collections.emptyList();
@@ -193,7 +224,8 @@ public class DocumentHistoryServiceImpl implements DocumentHistoryService {
 
         // Map to response DTOs
         return histories.stream()
-                .map(history -> mapToResponse(history, documentTitles.getOrDefault(history.getDocumentId(), "Unknown Document")))
+                .map(history -> mapToResponse(history, documentTitles.getOrDefault(history.getDocumentId(),
+                        Objects.requireNonNullElse(history.getDocumentName(), "Unknown Document"))))
                 .collect(Collectors.toList());
     }
 
@@ -216,18 +248,4 @@ public class DocumentHistoryServiceImpl implements DocumentHistoryService {
         }
         return response.getBody();
     }
-
-    private List<String> findDocumentIdsByName(String searchTerm) {
-        Criteria criteria = Criteria.where("filename").regex(searchTerm, "i")
-                .and("deleted").ne(true);
-
-        Query query = Query.query(criteria);
-        query.fields().include("_id");
-
-        // Use raw Document to avoid instantiation issues
-        return mongoTemplate.find(query, org.bson.Document.class, "documents")
-                .stream()
-                .map(doc -> doc.get("_id").toString())
-                .collect(Collectors.toList());
-    }
 }
\ No newline at end of file
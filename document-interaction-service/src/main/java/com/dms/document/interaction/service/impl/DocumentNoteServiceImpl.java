@@ -12,8 +12,8 @@ import com.dms.document.interaction.model.DocumentNote;
 import com.dms.document.interaction.model.DocumentUserHistory;
 import com.dms.document.interaction.repository.DocumentNoteRepository;
 import com.dms.document.interaction.repository.DocumentRepository;
-import com.dms.document.interaction.repository.DocumentUserHistoryRepository;
 import com.dms.document.interaction.service.DocumentNoteService;
+import com.dms.document.interaction.service.DocumentUserHistoryWriter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.InvalidDataAccessResourceUsageException;
@@ -23,7 +23,6 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
 import java.util.*;
-import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 @Service
@@ -33,7 +32,7 @@ public class DocumentNoteServiceImpl implements DocumentNoteService {
     private final DocumentNoteRepository documentNoteRepository;
     private final DocumentRepository documentRepository;
     private final UserClient userClient;
-    private final DocumentUserHistoryRepository documentUserHistoryRepository;
+    private final DocumentUserHistoryWriter documentUserHistoryWriter;
 
     @Transactional
     @Override
@@ -87,17 +86,15 @@ public class DocumentNoteServiceImpl implements DocumentNoteService {
         DocumentNote savedNote = documentNoteRepository.save(note);
 
         // Record this action in history
-        final boolean isNewNote = isNew;
-        CompletableFuture.runAsync(() -> {
-            documentUserHistoryRepository.save(DocumentUserHistory.builder()
-                    .userId(mentor.userId().toString())
-                    .documentId(documentId)
-                    .userDocumentActionType(UserDocumentActionType.NOTE)
-                    .version(document.getCurrentVersion())
-                    .detail(isNewNote ? "ADD" : "UPDATE")
-                    .createdAt(Instant.now())
-                    .build());
-        });
+        documentUserHistoryWriter.record(DocumentUserHistory.builder()
+                .userId(mentor.userId().toString())
+                .documentId(documentId)
+                .userDocumentActionType(UserDocumentActionType.NOTE)
+                .version(document.getCurrentVersion())
+                .documentName(document.getFilename())
+                .detail(isNew ? "ADD" : "UPDATE")
+                .createdAt(Instant.now())
+                .build());
 
         return mapToNoteResponse(savedNote, mentor.username());
     }
@@ -12,14 +12,18 @@ import com.dms.document.interaction.repository.DocumentInteractionRepository;
 import com.dms.document.interaction.repository.DocumentPreferencesRepository;
 import com.dms.document.interaction.repository.DocumentRepository;
 import com.dms.document.interaction.service.DocumentPreferencesService;
+import com.dms.document.interaction.utils.PreferenceWeights;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.collections4.CollectionUtils;
+import org.apache.commons.lang3.EnumUtils;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.dao.InvalidDataAccessResourceUsageException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
@@ -35,12 +39,14 @@ public class DocumentPreferencesServiceImpl implements DocumentPreferencesServic
 
     private static final int MAX_RECENT_DOCUMENTS = 50;
     private static final int DAYS_FOR_RECENT_INTERACTIONS = 30;
-    private static final double FAVORITE_WEIGHT = 3.0;
-    private static final double COMMENT_WEIGHT = 2.0;
-    private static final double DOWNLOAD_WEIGHT = 2.0;
-    private static final double VIEW_WEIGHT = 1.0;
     private final UserClient userClient;
 
+    @Value("${app.preferences.score-half-life:30d}")
+    private Duration scoreHalfLife;
+
+    @Value("${app.preferences.rederive-batch-size:100}")
+    private int rederiveBatchSize;
+
     @Transactional(readOnly = true)
     @Override
     public DocumentPreferences getDocumentPreferences(String username) {
@@ -58,20 +64,21 @@ public class DocumentPreferencesServiceImpl implements DocumentPreferencesServic
     @Override
     public DocumentPreferences updateExplicitPreferences(String userId, UpdateDocumentPreferencesRequest request) {
         DocumentPreferences existing = getDocumentPreferences(userId);
+        Instant now = Instant.now();
+
+        // Only the explicit fields are written, so concurrent interaction updates are never overwritten
+        documentPreferencesRepository.updateExplicitPreferences(existing.getUserId(), request, now);
 
-        // Update explicit preferences while preserving implicit data
         existing.setPreferredMajors(request.preferredMajors());
         existing.setPreferredCourseCodes(request.preferredCourseCodes());
         existing.setPreferredLevels(request.preferredLevels());
         existing.setPreferredCategories(request.preferredCategories());
         existing.setPreferredTags(request.preferredTags());
         existing.setLanguagePreferences(request.languagePreferences());
-
-        existing.setUpdatedAt(Instant.now());
-        return documentPreferencesRepository.save(existing);
+        existing.setUpdatedAt(now);
+        return existing;
     }
 
-    @Transactional
     @Override
     public void recordInteraction(UUID userId, String documentId, InteractionType type) {
         // Validate document access
@@ -80,185 +87,149 @@ public class DocumentPreferencesServiceImpl implements DocumentPreferencesServic
                 userId.toString()
         ).orElseThrow(() -> new IllegalArgumentException("Document not found or not accessible"));
 
-        // Find or create interaction document
-        DocumentInteraction interaction = documentInteractionRepository
-                .findByUserIdAndDocumentId(userId.toString(), documentId)
-                .orElseGet(() -> {
-                    DocumentInteraction newInteraction = new DocumentInteraction();
-                    newInteraction.setUserId(userId.toString());
-                    newInteraction.setDocumentId(documentId);
-                    newInteraction.setInteractions(new HashMap<>());
-                    newInteraction.setFirstInteractionDate(Instant.now());
-                    return newInteraction;
-                });
-
-        // Update interaction stats
-        Map<String, DocumentInteraction.InteractionStats> stats = interaction.getInteractions();
-        DocumentInteraction.InteractionStats typeStats = stats.computeIfAbsent(
-                type.name(),
-                k -> new DocumentInteraction.InteractionStats()
-        );
-
-        typeStats.setCount(typeStats.getCount() + 1);
-        typeStats.setLastUpdate(Instant.now());
-        interaction.setLastInteractionDate(Instant.now());
-
-        documentInteractionRepository.save(interaction);
+        documentInteractionRepository.incrementInteraction(userId.toString(), documentId, type, Instant.now());
 
         // Update preferences based on interaction
         updateImplicitPreferences(userId, document, type);
     }
 
-
-    @Transactional
     @Override
     public void updateImplicitPreferences(UUID userId, DocumentInformation document,
                                           InteractionType type) {
-        DocumentPreferences preferences = documentPreferencesRepository.findByUserId(userId.toString())
-                .orElseGet(() -> createDefaultPreferences(userId.toString()));
-
-        // Update recent views for view/download interactions
-        if (type == InteractionType.VIEW ||
-            type == InteractionType.DOWNLOAD) {
-            updateRecentDocuments(preferences, document.getId());
-        }
-
-        // Update interaction counts
-        updateInteractionCounts(preferences, document);
-
-        // Calculate new content type weights
-        Map<String, Double> newWeights = calculateContentTypeWeights(userId);
-        preferences.setContentTypeWeights(newWeights);
-
-        preferences.setUpdatedAt(Instant.now());
-        documentPreferencesRepository.save(preferences);
+        Instant now = Instant.now();
+        String contentType = Objects.nonNull(document.getDocumentType()) ? document.getDocumentType().name() : null;
+        double scoreIncrement = PreferenceWeights.scoreIncrement(PreferenceWeights.interactionWeight(type), now, scoreHalfLife);
+
+        // Recent views are only moved for view/download interactions
+        String recentDocumentId = type == InteractionType.VIEW || type == InteractionType.DOWNLOAD
+                ? document.getId()
+                : null;
+
+        Map<String, Double> scores = documentPreferencesRepository.incrementInteractionCounts(
+                userId.toString(), document, contentType, scoreIncrement, recentDocumentId, now);
+        documentPreferencesRepository.updateRecentAndWeights(
+                userId.toString(), recentDocumentId, MAX_RECENT_DOCUMENTS, PreferenceWeights.normalize(scores));
     }
 
-    private void updateRecentDocuments(DocumentPreferences preferences, String documentId) {
-        Set<String> recentDocs = preferences.getRecentViewedDocuments();
-        if (recentDocs == null) {
-            recentDocs = new LinkedHashSet<>();
-        }
-
-        // Remove if already exists (to move to end)
-        recentDocs.remove(documentId);
-
-        // Remove oldest if at capacity
-        if (recentDocs.size() >= MAX_RECENT_DOCUMENTS) {
-            recentDocs.remove(recentDocs.iterator().next());
+    @Override
+    public Map<String, Double> getCalculateContentTypeWeights(String username) {
+        ResponseEntity<UserResponse> response = userClient.getUserByUsername(username);
+        if (!response.getStatusCode().is2xxSuccessful() || Objects.isNull(response.getBody())) {
+            throw new InvalidDataAccessResourceUsageException("User not found");
         }
+        UserResponse userResponse = response.getBody();
 
-        // Add to end
-        recentDocs.add(documentId);
-        preferences.setRecentViewedDocuments(recentDocs);
+        return documentPreferencesRepository.findByUserId(userResponse.userId().toString())
+                .map(this::calculateContentTypeWeights)
+                .orElseGet(HashMap::new);
     }
 
-    private void updateInteractionCounts(DocumentPreferences preferences, DocumentInformation document) {
-        // Update major counts
-        Map<String, Integer> majorCounts = preferences.getMajorInteractionCounts();
-        if (majorCounts == null) {
-            majorCounts = new HashMap<>();
+    protected Map<String, Double> calculateContentTypeWeights(DocumentPreferences preferences) {
+        if (Objects.isNull(preferences.getContentTypeScores())) {
+            // Not rederived since scores were introduced
+            return Optional.ofNullable(preferences.getContentTypeWeights()).orElseGet(HashMap::new);
         }
+        return PreferenceWeights.normalize(
+                PreferenceWeights.decay(preferences.getContentTypeScores(), Instant.now(), scoreHalfLife));
+    }
 
-        if (CollectionUtils.isNotEmpty(document.getMajors())) {
-            for (String major : document.getMajors()) {
-                majorCounts.merge(major, 1, Integer::sum);
+    @Override
+    public int rederiveImplicitPreferences() {
+        int users = 0;
+        String afterId = null;
+        List<DocumentPreferences> batch;
+        do {
+            batch = documentPreferencesRepository.findUserIdsAfter(afterId, rederiveBatchSize);
+            if (batch.isEmpty()) {
+                break;
             }
-        }
+            afterId = batch.get(batch.size() - 1).getId();
+            documentPreferencesRepository.replaceImplicitPreferences(rederiveBatch(batch));
+            users += batch.size();
+        } while (batch.size() == rederiveBatchSize);
 
-        preferences.setMajorInteractionCounts(majorCounts);
+        log.info("Rederived implicit preferences of {} users", users);
+        return users;
+    }
 
-        // Update course code counts
-        Map<String, Integer> courseCodeCounts = preferences.getCourseCodeInteractionCounts();
-        if (courseCodeCounts == null) {
-            courseCodeCounts = new HashMap<>();
-        }
+    private List<DocumentPreferences> rederiveBatch(List<DocumentPreferences> batch) {
+        Set<String> userIds = batch.stream().map(DocumentPreferences::getUserId).collect(Collectors.toSet());
+        Map<String, List<DocumentInteraction>> interactionsByUser = documentInteractionRepository.findByUserIdIn(userIds)
+                .stream()
+                .collect(Collectors.groupingBy(DocumentInteraction::getUserId));
 
-        if (CollectionUtils.isNotEmpty(document.getCourseCodes())) {
-            for (String course : document.getCourseCodes()) {
-                courseCodeCounts.merge(course, 1, Integer::sum);
+        Set<String> documentIds = interactionsByUser.values().stream()
+                .flatMap(List::stream)
+                .map(DocumentInteraction::getDocumentId)
+                .collect(Collectors.toSet());
+        Map<String, DocumentInformation> documents = documentIds.isEmpty()
+                ? Map.of()
+                : documentRepository.findPreferenceAttributesByIdIn(documentIds).stream()
+                .collect(Collectors.toMap(DocumentInformation::getId, document -> document));
+
+        Instant now = Instant.now();
+        List<DocumentPreferences> derived = new ArrayList<>(batch.size());
+        for (DocumentPreferences preferences : batch) {
+            DocumentPreferences result = new DocumentPreferences();
+            result.setUserId(preferences.getUserId());
+            result.setMajorInteractionCounts(new HashMap<>());
+            result.setCourseCodeInteractionCounts(new HashMap<>());
+            result.setLevelInteractionCounts(new HashMap<>());
+            result.setCategoryInteractionCounts(new HashMap<>());
+            result.setTagInteractionCounts(new HashMap<>());
+            result.setContentTypeScores(new HashMap<>());
+
+            for (DocumentInteraction interaction : interactionsByUser.getOrDefault(preferences.getUserId(), List.of())) {
+                DocumentInformation document = documents.get(interaction.getDocumentId());
+                // Interactions with documents that no longer exist are dropped
+                if (document != null && interaction.getInteractions() != null) {
+                    addInteraction(result, document, interaction);
+                }
             }
-        }
 
-        preferences.setCourseCodeInteractionCounts(courseCodeCounts);
-
-        // Update level counts
-        Map<String, Integer> levelCounts = preferences.getLevelInteractionCounts();
-        if (levelCounts == null) {
-            levelCounts = new HashMap<>();
-        }
-        levelCounts.merge(document.getCourseLevel(), 1, Integer::sum);
-        preferences.setLevelInteractionCounts(levelCounts);
-
-        // Update category counts
-        Map<String, Integer> categoryCounts = preferences.getCategoryInteractionCounts();
-        if (categoryCounts == null) {
-            categoryCounts = new HashMap<>();
+            result.setContentTypeWeights(PreferenceWeights.normalize(result.getContentTypeScores()));
+            result.setUpdatedAt(now);
+            derived.add(result);
         }
+        return derived;
+    }
 
-        if (CollectionUtils.isNotEmpty(document.getCategories())) {
-            for (String category : document.getCategories()) {
-                categoryCounts.merge(category, 1, Integer::sum);
+    private void addInteraction(DocumentPreferences result, DocumentInformation document, DocumentInteraction interaction) {
+        int total = 0;
+        double score = 0;
+        for (Map.Entry<String, DocumentInteraction.InteractionStats> entry : interaction.getInteractions().entrySet()) {
+            InteractionType type = EnumUtils.getEnum(InteractionType.class, entry.getKey());
+            DocumentInteraction.InteractionStats stats = entry.getValue();
+            if (type == null || stats == null) {
+                continue;
+            }
+            total += stats.getCount();
+            Instant at = Optional.ofNullable(stats.getLastUpdate()).orElse(interaction.getLastInteractionDate());
+            if (at != null) {
+                score += PreferenceWeights.scoreIncrement(
+                        stats.getCount() * PreferenceWeights.interactionWeight(type), at, scoreHalfLife);
             }
         }
+        if (total == 0) {
+            return;
+        }
 
-        preferences.setCategoryInteractionCounts(categoryCounts);
-
-        // Update tag counts
-        Map<String, Integer> tagCounts = preferences.getTagInteractionCounts();
-        if (tagCounts == null) {
-            tagCounts = new HashMap<>();
+        mergeCounts(result.getMajorInteractionCounts(), document.getMajors(), total);
+        mergeCounts(result.getCourseCodeInteractionCounts(), document.getCourseCodes(), total);
+        if (document.getCourseLevel() != null) {
+            result.getLevelInteractionCounts().merge(document.getCourseLevel(), total, Integer::sum);
         }
-        if (document.getTags() != null) {
-            for (String tag : document.getTags()) {
-                tagCounts.merge(tag, 1, Integer::sum);
-            }
+        mergeCounts(result.getCategoryInteractionCounts(), document.getCategories(), total);
+        mergeCounts(result.getTagInteractionCounts(), document.getTags(), total);
+        if (document.getDocumentType() != null && score > 0) {
+            result.getContentTypeScores().merge(document.getDocumentType().name(), score, Double::sum);
         }
-        preferences.setTagInteractionCounts(tagCounts);
     }
 
-    @Override
-    public Map<String, Double> getCalculateContentTypeWeights(String username) {
-        ResponseEntity<UserResponse> response = userClient.getUserByUsername(username);
-        if (!response.getStatusCode().is2xxSuccessful() || Objects.isNull(response.getBody())) {
-            throw new InvalidDataAccessResourceUsageException("User not found");
+    private static void mergeCounts(Map<String, Integer> counts, Set<String> keys, int count) {
+        if (CollectionUtils.isNotEmpty(keys)) {
+            keys.forEach(key -> counts.merge(key, count, Integer::sum));
         }
-        UserResponse userResponse = response.getBody();
-
-        return calculateContentTypeWeights(userResponse.userId());
-    }
-
-    protected Map<String, Double> calculateContentTypeWeights(UUID userId) {
-        Date recentDate = Date.from(Instant.now().minus(DAYS_FOR_RECENT_INTERACTIONS, ChronoUnit.DAYS));
-        List<DocumentInteraction> recentInteractions =
-                documentInteractionRepository.findRecentInteractions(userId.toString(), recentDate);
-
-        Map<String, Map<String, Double>> typeWeights = new HashMap<>();
-
-        for (DocumentInteraction interaction : recentInteractions) {
-            DocumentInformation doc = documentRepository.findById(interaction.getDocumentId())
-                    .orElse(null);
-
-            if (doc != null) {
-                String docType = doc.getDocumentType().name();
-                Map<String, Double> weights = typeWeights.computeIfAbsent(docType, k -> new HashMap<>());
-
-                // Calculate weights based on interaction counts
-                Map<String, DocumentInteraction.InteractionStats> stats = interaction.getInteractions();
-
-                weights.merge(InteractionType.VIEW.name(),
-                        getInteractionCount(stats, InteractionType.VIEW.name()) * VIEW_WEIGHT, Double::sum);
-                weights.merge(InteractionType.DOWNLOAD.name(),
-                        getInteractionCount(stats, InteractionType.DOWNLOAD.name()) * DOWNLOAD_WEIGHT, Double::sum);
-                weights.merge(InteractionType.COMMENT.name(),
-                        getInteractionCount(stats, InteractionType.COMMENT.name()) * COMMENT_WEIGHT, Double::sum);
-                weights.merge(InteractionType.SHARE.name(),
-                        getInteractionCount(stats, InteractionType.SHARE.name()) * FAVORITE_WEIGHT, Double::sum);
-            }
-        }
-
-        // Normalize weights
-        return normalizeWeights(typeWeights);
     }
 
     @Transactional
@@ -279,6 +250,7 @@ public class DocumentPreferencesServiceImpl implements DocumentPreferencesServic
 
         // Initialize tracking maps
         preferences.setContentTypeWeights(new HashMap<>());
+        preferences.setContentTypeScores(new HashMap<>());
         preferences.setCategoryInteractionCounts(new HashMap<>());
         preferences.setTagInteractionCounts(new HashMap<>());
         preferences.setMajorInteractionCounts(new HashMap<>());
@@ -340,60 +312,4 @@ public class DocumentPreferencesServiceImpl implements DocumentPreferencesServic
         }
         return result;
     }
-
-    private double getInteractionCount(Map<String, DocumentInteraction.InteractionStats> stats,
-                                       String type) {
-        return Optional.ofNullable(stats.get(type))
-                .map(DocumentInteraction.InteractionStats::getCount)
-                .orElse(0);
-    }
-
-    private Map<String, Double> normalizeWeights(Map<String, Map<String, Double>> typeWeights) {
-        Map<String, Double> normalizedWeights = new HashMap<>();
-
-        // Calculate total weight for each document type
-        typeWeights.forEach((docType, interactionWeights) -> {
-            double totalTypeWeight = interactionWeights.values()
-                    .stream()
-                    .mapToDouble(Double::doubleValue)
-                    .sum();
-            normalizedWeights.put(docType, totalTypeWeight);
-        });
-
-        // Calculate the sum of all weights
-        double totalSum = normalizedWeights.values()
-                .stream()
-                .mapToDouble(Double::doubleValue)
-                .sum();
-
-        // If there are no interactions, return equal weights
-        if (totalSum == 0) {
-            double equalWeight = 1.0 / typeWeights.size();
-            typeWeights.keySet().forEach(type ->
-                    normalizedWeights.put(type, equalWeight)
-            );
-            return normalizedWeights;
-        }
-
-        // Normalize weights to sum to 1.0
-        normalizedWeights.forEach((docType, weight) -> {
-            double normalizedWeight = weight / totalSum;
-            // Apply min threshold to ensure no weight is too small
-            normalizedWeight = Math.max(normalizedWeight, 0.01);
-            normalizedWeights.put(docType, normalizedWeight);
-        });
-
-        // Re-normalize after applying minimum threshold
-        double finalSum = normalizedWeights.values()
-                .stream()
-                .mapToDouble(Double::doubleValue)
-                .sum();
-
-        // Final normalization to ensure sum is exactly 1.0
-        normalizedWeights.forEach((docType, weight) ->
-                normalizedWeights.put(docType, weight / finalSum)
-        );
-
-        return normalizedWeights;
-    }
 }
\ No newline at end of file
@@ -6,12 +6,11 @@ import com.dms.document.interaction.dto.UserResponse;
 import com.dms.document.interaction.enums.EventType;
 import com.dms.document.interaction.exception.InvalidDocumentException;
 import com.dms.document.interaction.model.DocumentInformation;
-import com.dms.document.interaction.model.DocumentRecommendation;
 import com.dms.document.interaction.model.DocumentUserHistory;
 import com.dms.document.interaction.repository.DocumentRecommendationRepository;
 import com.dms.document.interaction.repository.DocumentRepository;
-import com.dms.document.interaction.repository.DocumentUserHistoryRepository;
 import com.dms.document.interaction.service.DocumentRecommendationService;
+import com.dms.document.interaction.service.DocumentUserHistoryWriter;
 import com.dms.document.interaction.service.PublishEventService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -22,9 +21,10 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
 import java.util.Objects;
-import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 
+import static com.dms.document.interaction.utils.TransactionUtils.runAfterCommit;
+
 @Service
 @RequiredArgsConstructor
 @Slf4j
@@ -32,7 +32,7 @@ public class DocumentRecommendationServiceImpl implements DocumentRecommendation
     private final DocumentRecommendationRepository documentRecommendationRepository;
     private final DocumentRepository documentRepository;
     private final UserClient userClient;
-    private final DocumentUserHistoryRepository documentUserHistoryRepository;
+    private final DocumentUserHistoryWriter documentUserHistoryWriter;
     private final PublishEventService publishEventService;
 
 
@@ -44,52 +44,38 @@ public class DocumentRecommendationServiceImpl implements DocumentRecommendation
         DocumentInformation document = documentRepository.findAccessibleDocumentByIdAndUserId(documentId, userResponse.userId().toString())
                 .orElseThrow(() -> new InvalidDocumentException("Document not found or not accessible"));
 
-        // Check if recommended
-        Optional<DocumentRecommendation> documentRecommendation = documentRecommendationRepository.findByDocumentIdAndMentorId(
-                documentId, userResponse.userId());
-
-        if (recommend) {
-            if (documentRecommendation.isPresent()) {
-                return false; // Already recommended
-            }
-
-            // Create recommendation
-            DocumentRecommendation recommendation = new DocumentRecommendation();
-            recommendation.setDocumentId(documentId);
-            recommendation.setMentorId(userResponse.userId());
-            recommendation.setCreatedAt(Instant.now());
-            documentRecommendationRepository.save(recommendation);
-
-            // Update document recommendation count
-            document.setRecommendationCount(Objects.nonNull(document.getRecommendationCount()) ? document.getRecommendationCount() + 1 : 0);
-
-        } else {
-            if (documentRecommendation.isEmpty()) {
-                return false; // Not recommended
-            }
-
-            // Delete recommendation
-            documentRecommendationRepository.delete(documentRecommendation.get());
-
-            // Update document recommendation count
-            document.setRecommendationCount(document.getRecommendationCount() - 1);
+        // The unique (document_id, mentor_id) row decides concurrent toggles, the counter only follows successful row changes
+        int changed = recommend
+                ? documentRecommendationRepository.insertIfAbsent(documentId, userResponse.userId())
+                : documentRecommendationRepository.deleteByDocumentIdAndMentorId(documentId, userResponse.userId());
+        if (changed == 0) {
+            return false; // Already recommended / not recommended
         }
 
-        documentRepository.save(document);
+        // The counter, history and reindex follow the committed recommendation row
+        runAfterCommit(() -> {
+            try {
+                documentRepository.incrementRecommendationCount(documentId, recommend ? 1 : -1);
+            } catch (Exception e) {
+                // Repaired by ReconcileDocumentCountersJob
+                log.warn("Failed to update recommendation count for document: {}", documentId, e);
+            }
 
-        // Record history asynchronously
-        CompletableFuture.runAsync(() -> {
-            documentUserHistoryRepository.save(DocumentUserHistory.builder()
+            // History
+            documentUserHistoryWriter.record(DocumentUserHistory.builder()
                     .userId(userResponse.userId().toString())
                     .documentId(documentId)
                     .userDocumentActionType(com.dms.document.interaction.enums.UserDocumentActionType.RECOMMENDATION)
                     .version(document.getCurrentVersion())
+                    .documentName(document.getFilename())
                     .detail(recommend ? "ADD" : "REMOVE")
                     .createdAt(Instant.now())
                     .build());
 
-            // Notify reindexing
-            sendSyncEvent(document, userResponse.userId().toString());
+            CompletableFuture.runAsync(() -> {
+                // Notify reindexing
+                sendSyncEvent(document, userResponse.userId().toString());
+            });
         });
 
         return true;
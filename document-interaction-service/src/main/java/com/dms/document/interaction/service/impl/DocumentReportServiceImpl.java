@@ -101,8 +101,9 @@ public class DocumentReportServiceImpl implements DocumentReportService {
         }
 
         // Check document existence first
-        DocumentInformation document = documentRepository.findById(documentId)
-                .orElseThrow(() -> new IllegalArgumentException("Document not found"));
+        if (!documentRepository.existsById(documentId)) {
+            throw new IllegalArgumentException("Document not found");
+        }
 
         DocumentReport currentReport = documentReportRepository.findByDocumentIdAndProcessed(documentId, false)
                 .stream()
@@ -134,8 +135,7 @@ public class DocumentReportServiceImpl implements DocumentReportService {
         documentReportRepository.saveAll(documentReports);
 
         // Update main document status
-        document.setReportStatus(newStatus);
-        documentRepository.save(document);
+        documentRepository.updateReportStatus(documentId, newStatus);
 
         // Send sync event
         CompletableFuture.runAsync(() ->
@@ -267,7 +267,7 @@ public class DocumentReportServiceImpl implements DocumentReportService {
                 .collect(Collectors.toList());
 
         // Load all documents for these IDs
-        Map<String, DocumentInformation> documentMap = documentRepository.findAllById(documentIds).stream()
+        Map<String, DocumentInformation> documentMap = documentRepository.findByIdIn(documentIds).stream()
                 .collect(Collectors.toMap(DocumentInformation::getId, Function.identity()));
 
         // Cache for usernames to avoid repeated API calls
@@ -1,7 +1,9 @@
 package com.dms.document.interaction.service.impl;
 
 import com.dms.document.interaction.client.UserClient;
+import com.dms.document.interaction.dto.DocumentFileResponse;
 import com.dms.document.interaction.dto.DocumentUpdateRequest;
+import com.dms.document.interaction.dto.StoredFileMetadata;
 import com.dms.document.interaction.dto.SyncEventRequest;
 import com.dms.document.interaction.dto.ThumbnailResponse;
 import com.dms.document.interaction.dto.UserResponse;
@@ -12,7 +14,6 @@ import com.dms.document.interaction.model.DocumentInformation;
 import com.dms.document.interaction.model.DocumentUserHistory;
 import com.dms.document.interaction.model.DocumentVersion;
 import com.dms.document.interaction.repository.DocumentRepository;
-import com.dms.document.interaction.repository.DocumentUserHistoryRepository;
 import com.dms.document.interaction.service.*;
 import com.dms.document.interaction.utils.DocumentUtils;
 import lombok.RequiredArgsConstructor;
@@ -51,7 +52,7 @@ public class DocumentServiceImpl implements DocumentService {
     private Resource errorPlaceholder;
 
     private final DocumentRepository documentRepository;
-    private final DocumentUserHistoryRepository documentUserHistoryRepository;
+    private final DocumentUserHistoryWriter documentUserHistoryWriter;
     private final DocumentNotificationService documentNotificationService;
     private final FileStorageService fileStorageService;
     private final PublishEventService publishEventService;
@@ -136,21 +137,22 @@ public class DocumentServiceImpl implements DocumentService {
         DocumentInformation savedDocument = documentRepository.save(document);
         log.info("Saved document: {}", savedDocument.getFilename());
 
+        // History
+        documentUserHistoryWriter.record(DocumentUserHistory.builder()
+                .userId(userResponse.userId().toString())
+                .documentId(savedDocument.getId())
+                .userDocumentActionType(UserDocumentActionType.UPLOAD_DOCUMENT)
+                .version(savedDocument.getCurrentVersion())
+                .documentName(savedDocument.getFilename())
+                .detail(String.format("%s - %s KB",
+                        savedDocument.getFilename(),
+                        savedDocument.getFileSize())
+                )
+                .createdAt(Instant.now())
+                .build());
+
         // Send sync event for processing
         CompletableFuture.runAsync(() -> {
-            // History
-            documentUserHistoryRepository.save(DocumentUserHistory.builder()
-                    .userId(userResponse.userId().toString())
-                    .documentId(savedDocument.getId())
-                    .userDocumentActionType(UserDocumentActionType.UPLOAD_DOCUMENT)
-                    .version(savedDocument.getCurrentVersion())
-                    .detail(String.format("%s - %s KB",
-                            savedDocument.getFilename(),
-                            savedDocument.getFileSize())
-                    )
-                    .createdAt(Instant.now())
-                    .build());
-
             publishEventService.sendSyncEvent(
                     SyncEventRequest.builder()
                             .eventId(UUID.randomUUID().toString())
@@ -225,7 +227,7 @@ public class DocumentServiceImpl implements DocumentService {
     }
 
     @Override
-    public byte[] getDocumentContent(String documentId, String username, String action, Boolean history) throws IOException {
+    public DocumentFileResponse getDocumentFile(String documentId, String username, String action, Boolean history) throws IOException {
         ResponseEntity<UserResponse> response = userClient.getUserByUsername(username);
         if (!response.getStatusCode().is2xxSuccessful() || Objects.isNull(response.getBody())) {
             throw new InvalidDataAccessResourceUsageException("User not found");
@@ -241,27 +243,43 @@ public class DocumentServiceImpl implements DocumentService {
                     .orElseThrow(() -> new InvalidDocumentException("Document not found"));
         }
 
-        byte[] fileContent = fileStorageService.downloadFile(documentInformation.getFilePath());
-        if (Objects.nonNull(fileContent) && StringUtils.equals(action, "download") && BooleanUtils.isTrue(history)) {
-            CompletableFuture.runAsync(() -> {
-                // History
-                documentUserHistoryRepository.save(DocumentUserHistory.builder()
-                        .userId(userResponse.userId().toString())
-                        .documentId(documentId)
-                        .userDocumentActionType(UserDocumentActionType.DOWNLOAD_FILE)
-                        .version(documentInformation.getCurrentVersion())
-                        .detail(String.format("%s - %s - %s KB",
-                                documentInformation.getFilename(),
-                                documentInformation.getLanguage(),
-                                documentInformation.getFileSize())
-                        )
-                        .createdAt(Instant.now())
-                        .build());
-
-                documentPreferencesService.recordInteraction(userResponse.userId(), documentId, InteractionType.DOWNLOAD);
-            });
+        StoredFileMetadata metadata = fileStorageService.getFileMetadata(documentInformation.getFilePath());
+        DocumentUserHistory downloadHistory = null;
+        if (Objects.nonNull(metadata) && StringUtils.equals(action, "download") && BooleanUtils.isTrue(history)) {
+            downloadHistory = DocumentUserHistory.builder()
+                    .userId(userResponse.userId().toString())
+                    .documentId(documentId)
+                    .userDocumentActionType(UserDocumentActionType.DOWNLOAD_FILE)
+                    .version(documentInformation.getCurrentVersion())
+                    .documentName(documentInformation.getFilename())
+                    .detail(String.format("%s - %s - %s KB",
+                            documentInformation.getFilename(),
+                            documentInformation.getLanguage(),
+                            documentInformation.getFileSize())
+                    )
+                    .build();
+        }
+        return DocumentFileResponse.builder()
+                .filePath(documentInformation.getFilePath())
+                .filename(documentInformation.getFilename())
+                .contentType(documentInformation.getMimeType())
+                .metadata(metadata)
+                .downloadHistory(downloadHistory)
+                .build();
+    }
+
+    @Override
+    public void recordDownload(DocumentFileResponse file) {
+        DocumentUserHistory downloadHistory = file.getDownloadHistory();
+        if (Objects.isNull(downloadHistory)) {
+            return;
         }
-        return fileContent;
+        // History
+        downloadHistory.setCreatedAt(Instant.now());
+        documentUserHistoryWriter.record(downloadHistory);
+
+        UUID userId = UUID.fromString(downloadHistory.getUserId());
+        CompletableFuture.runAsync(() -> documentPreferencesService.recordInteraction(userId, downloadHistory.getDocumentId(), InteractionType.DOWNLOAD));
     }
 
     @Override
@@ -283,20 +301,21 @@ public class DocumentServiceImpl implements DocumentService {
         documentInformation.setContent(null);
 
         if (BooleanUtils.isTrue(history)) {
-            CompletableFuture.runAsync(() -> {
-                // History
-                documentUserHistoryRepository.save(DocumentUserHistory.builder()
-                        .userId(userResponse.userId().toString())
-                        .documentId(documentId)
-                        .userDocumentActionType(UserDocumentActionType.VIEW_DOCUMENT)
-                        .version(documentInformation.getCurrentVersion())
-                        .detail(String.format("%s - %s - %s KB",
-                                documentInformation.getFilename(),
-                                documentInformation.getLanguage(),
-                                documentInformation.getFileSize()))
-                        .createdAt(Instant.now())
-                        .build());
+            // History
+            documentUserHistoryWriter.record(DocumentUserHistory.builder()
+                    .userId(userResponse.userId().toString())
+                    .documentId(documentId)
+                    .userDocumentActionType(UserDocumentActionType.VIEW_DOCUMENT)
+                    .version(documentInformation.getCurrentVersion())
+                    .documentName(documentInformation.getFilename())
+                    .detail(String.format("%s - %s - %s KB",
+                            documentInformation.getFilename(),
+                            documentInformation.getLanguage(),
+                            documentInformation.getFileSize()))
+                    .createdAt(Instant.now())
+                    .build());
 
+            CompletableFuture.runAsync(() -> {
                 // Interaction for pref
                 documentPreferencesService.recordInteraction(userResponse.userId(), documentId, InteractionType.VIEW);
             });
@@ -317,33 +336,30 @@ public class DocumentServiceImpl implements DocumentService {
         }
         UserResponse userResponse = response.getBody();
 
-        DocumentInformation document = documentRepository.findByIdAndUserId(documentId, userResponse.userId().toString())
+        // Only the metadata fields are written, the stored content and versions are left untouched
+        DocumentInformation updatedDocument = documentRepository.updateMetadata(
+                        documentId,
+                        userResponse.userId().toString(),
+                        documentUpdateRequest.summary(),
+                        documentUpdateRequest.courseCodes(),
+                        documentUpdateRequest.majors(),
+                        documentUpdateRequest.level(),
+                        documentUpdateRequest.categories(),
+                        documentUpdateRequest.tags(),
+                        username)
                 .orElseThrow(() -> new InvalidDocumentException("Document not found"));
 
-        // Update fields if provided
-        if (Objects.nonNull(document)) {
-            document.setSummary(documentUpdateRequest.summary());
-            document.setCourseCodes(documentUpdateRequest.courseCodes());
-            document.setMajors(documentUpdateRequest.majors());
-            document.setCourseLevel(documentUpdateRequest.level());
-            document.setCategories(documentUpdateRequest.categories());
-            document.setTags(documentUpdateRequest.tags());
-        }
-        document.setUpdatedAt(Instant.now());
-        document.setUpdatedBy(username);
-
-        DocumentInformation updatedDocument = documentRepository.save(document);
+        // History
+        documentUserHistoryWriter.record(DocumentUserHistory.builder()
+                .userId(updatedDocument.getUserId())
+                .documentId(documentId)
+                .userDocumentActionType(UserDocumentActionType.UPDATE_DOCUMENT)
+                .version(updatedDocument.getCurrentVersion())
+                .documentName(updatedDocument.getFilename())
+                .createdAt(Instant.now())
+                .build());
 
         CompletableFuture.runAsync(() -> {
-            // History
-            documentUserHistoryRepository.save(DocumentUserHistory.builder()
-                    .userId(document.getUserId())
-                    .documentId(documentId)
-                    .userDocumentActionType(UserDocumentActionType.UPDATE_DOCUMENT)
-                    .version(document.getCurrentVersion())
-                    .createdAt(Instant.now())
-                    .build());
-
             // Send sync event for indexing update
             publishEventService.sendSyncEvent(SyncEventRequest.builder()
                     .eventId(UUID.randomUUID().toString())
@@ -354,7 +370,7 @@ public class DocumentServiceImpl implements DocumentService {
                     .build());
         });
 
-        return updatedDocument.withContent(null);
+        return updatedDocument;
     }
 
     @Override
@@ -375,7 +391,8 @@ public class DocumentServiceImpl implements DocumentService {
         String filePathOrKey = fileStorageService.uploadFile(file, "documents");
 
         // Create new version metadata
-        int nextVersion = (document.getCurrentVersion() != null ? document.getCurrentVersion() : 0) + 1;
+        Integer previousVersion = document.getCurrentVersion();
+        int nextVersion = (previousVersion != null ? previousVersion : 0) + 1;
         DocumentVersion newVersion = DocumentVersion.builder()
                 .versionNumber(nextVersion)
                 .filePath(filePathOrKey)
@@ -418,21 +435,25 @@ public class DocumentServiceImpl implements DocumentService {
         document.setUpdatedAt(Instant.now());
         document.setUpdatedBy(username);
 
-        // Save all changes
-        DocumentInformation updatedDocument = documentRepository.save(document);
+        // Save all changes - the extracted content belongs to the previous file and is dropped
+        if (!documentRepository.addVersion(document, previousVersion, newVersion, true)) {
+            throw new InvalidDocumentException("Document was modified concurrently, please retry");
+        }
+        DocumentInformation updatedDocument = document;
+
+        // History
+        documentUserHistoryWriter.record(DocumentUserHistory.builder()
+                .userId(document.getUserId())
+                .documentId(documentId)
+                .userDocumentActionType(UserDocumentActionType.UPDATE_DOCUMENT_FILE)
+                .version(document.getCurrentVersion())
+                .documentName(document.getFilename())
+                .detail(file.getOriginalFilename())
+                .createdAt(Instant.now())
+                .build());
 
         // Send sync event for reprocessing
         CompletableFuture.runAsync(() -> {
-            // History
-            documentUserHistoryRepository.save(DocumentUserHistory.builder()
-                    .userId(document.getUserId())
-                    .documentId(documentId)
-                    .userDocumentActionType(UserDocumentActionType.UPDATE_DOCUMENT_FILE)
-                    .version(document.getCurrentVersion())
-                    .detail(file.getOriginalFilename())
-                    .createdAt(Instant.now())
-                    .build());
-
             publishEventService.sendSyncEvent(
                     SyncEventRequest.builder()
                             .eventId(UUID.randomUUID().toString())
@@ -465,23 +486,21 @@ public class DocumentServiceImpl implements DocumentService {
                 .orElseThrow(() -> new InvalidDocumentException("Document not found"));
 
         // Soft delete in database
-        document.setDeleted(true);
-        document.setUpdatedAt(Instant.now());
-        document.setUpdatedBy(username);
-        documentRepository.save(document);
+        documentRepository.markDeleted(documentId, userResponse.userId().toString(), username);
+
+        // History
+        documentUserHistoryWriter.record(DocumentUserHistory.builder()
+                .userId(document.getUserId())
+                .documentId(documentId)
+                .userDocumentActionType(UserDocumentActionType.DELETE_DOCUMENT)
+                .version(document.getCurrentVersion())
+                .documentName(document.getFilename())
+                .detail(String.format("%s - v%s", document.getFilename(), document.getCurrentVersion()))
+                .createdAt(Instant.now())
+                .build());
 
         // Send delete event
         CompletableFuture.runAsync(() -> {
-            // History
-            documentUserHistoryRepository.save(DocumentUserHistory.builder()
-                    .userId(document.getUserId())
-                    .documentId(documentId)
-                    .userDocumentActionType(UserDocumentActionType.DELETE_DOCUMENT)
-                    .version(document.getCurrentVersion())
-                    .detail(String.format("%s - v%s", document.getFilename(), document.getCurrentVersion()))
-                    .createdAt(Instant.now())
-                    .build());
-
             publishEventService.sendSyncEvent(
                     SyncEventRequest.builder()
                             .eventId(UUID.randomUUID().toString())
@@ -509,7 +528,7 @@ public class DocumentServiceImpl implements DocumentService {
     }
 
     @Override
-    public byte[] getDocumentVersionContent(String documentId, Integer versionNumber, String username, String action, Boolean history) throws IOException {
+    public DocumentFileResponse getDocumentVersionFile(String documentId, Integer versionNumber, String username, String action, Boolean history) throws IOException {
         ResponseEntity<UserResponse> response = userClient.getUserByUsername(username);
         if (!response.getStatusCode().is2xxSuccessful() || Objects.isNull(response.getBody())) {
             throw new InvalidDataAccessResourceUsageException("User not found");
@@ -523,26 +542,30 @@ public class DocumentServiceImpl implements DocumentService {
         DocumentVersion targetVersion = documentInformation.getVersion(versionNumber)
                 .orElseThrow(() -> new InvalidDocumentException("Version not found"));
 
-        byte[] fileContent = fileStorageService.downloadFile(targetVersion.getFilePath());
-        if (Objects.nonNull(fileContent) && StringUtils.equals(action, "download") && BooleanUtils.isTrue(history)) {
-            // History
-            documentUserHistoryRepository.save(DocumentUserHistory.builder()
+        StoredFileMetadata metadata = fileStorageService.getFileMetadata(targetVersion.getFilePath());
+        DocumentUserHistory downloadHistory = null;
+        if (Objects.nonNull(metadata) && StringUtils.equals(action, "download") && BooleanUtils.isTrue(history)) {
+            downloadHistory = DocumentUserHistory.builder()
                     .userId(userResponse.userId().toString())
                     .documentId(documentId)
                     .userDocumentActionType(UserDocumentActionType.DOWNLOAD_VERSION)
                     .version(documentInformation.getCurrentVersion())
+                    .documentName(documentInformation.getFilename())
                     .detail(String.format("%s - %s - %s KB - v%s",
                             targetVersion.getFilename(),
                             targetVersion.getLanguage(),
                             targetVersion.getFileSize(),
                             targetVersion.getVersionNumber())
                     )
-                    .createdAt(Instant.now())
-                    .build());
-
-            CompletableFuture.runAsync(() -> documentPreferencesService.recordInteraction(userResponse.userId(), documentId, InteractionType.DOWNLOAD));
+                    .build();
         }
-        return fileContent;
+        return DocumentFileResponse.builder()
+                .filePath(targetVersion.getFilePath())
+                .filename(targetVersion.getFilename())
+                .contentType(targetVersion.getMimeType())
+                .metadata(metadata)
+                .downloadHistory(downloadHistory)
+                .build();
     }
 
     @Override
@@ -557,7 +580,8 @@ public class DocumentServiceImpl implements DocumentService {
         DocumentVersion versionToRevert = document.getVersion(versionNumber)
                 .orElseThrow(() -> new InvalidDocumentException("Version not found"));
 
-        int nextVersion = document.getCurrentVersion() + 1;
+        Integer previousVersion = document.getCurrentVersion();
+        int nextVersion = previousVersion + 1;
 
         // Create new version metadata - reuse existing file and content
         DocumentVersion newVersion = DocumentVersion.builder()
@@ -595,19 +619,23 @@ public class DocumentServiceImpl implements DocumentService {
         document.setVersions(versions);
 
         // Save changes
-        DocumentInformation savedDocument = documentRepository.save(document);
+        if (!documentRepository.addVersion(document, previousVersion, newVersion, false)) {
+            throw new InvalidDocumentException("Document was modified concurrently, please retry");
+        }
+        DocumentInformation savedDocument = document;
+
+        // History
+        documentUserHistoryWriter.record(DocumentUserHistory.builder()
+                .userId(document.getUserId())
+                .documentId(documentId)
+                .userDocumentActionType(UserDocumentActionType.REVERT_VERSION)
+                .version(document.getCurrentVersion())
+                .documentName(document.getFilename())
+                .detail("Version " + versionToRevert.getVersionNumber())
+                .createdAt(Instant.now())
+                .build());
 
         CompletableFuture.runAsync(() -> {
-            // History
-            documentUserHistoryRepository.save(DocumentUserHistory.builder()
-                    .userId(document.getUserId())
-                    .documentId(documentId)
-                    .userDocumentActionType(UserDocumentActionType.REVERT_VERSION)
-                    .version(document.getCurrentVersion())
-                    .detail("Version " + versionToRevert.getVersionNumber())
-                    .createdAt(Instant.now())
-                    .build());
-
             // Send sync event for indexing document
             publishEventService.sendSyncEvent(
                     SyncEventRequest.builder()
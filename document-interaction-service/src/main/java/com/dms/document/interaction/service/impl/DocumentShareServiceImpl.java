@@ -10,9 +10,9 @@ import com.dms.document.interaction.exception.InvalidDocumentException;
 import com.dms.document.interaction.model.DocumentInformation;
 import com.dms.document.interaction.model.DocumentUserHistory;
 import com.dms.document.interaction.repository.DocumentRepository;
-import com.dms.document.interaction.repository.DocumentUserHistoryRepository;
 import com.dms.document.interaction.service.DocumentPreferencesService;
 import com.dms.document.interaction.service.DocumentShareService;
+import com.dms.document.interaction.service.DocumentUserHistoryWriter;
 import com.dms.document.interaction.service.PublishEventService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -36,7 +36,7 @@ public class DocumentShareServiceImpl implements DocumentShareService {
     private final PublishEventService publishEventService;
     private final DocumentRepository documentRepository;
     private final DocumentPreferencesService documentPreferencesService;
-    private final DocumentUserHistoryRepository documentUserHistoryRepository;
+    private final DocumentUserHistoryWriter documentUserHistoryWriter;
 
     @Value("${app.auth-service.api-key}")
     private String serviceApiKey;
@@ -73,46 +73,39 @@ public class DocumentShareServiceImpl implements DocumentShareService {
             validateSharedUsers(request.sharedWith(), userDetailsForHistory);
         }
 
-        // Update sharing settings
-        doc.setSharingType(request.isPublic() ? SharingType.PUBLIC :
+        // Update only the sharing settings and audit fields
+        SharingType sharingType = request.isPublic() ? SharingType.PUBLIC :
                 CollectionUtils.isEmpty(request.sharedWith()) ?
-                        SharingType.PRIVATE : SharingType.SPECIFIC);
-        doc.setSharedWith(CollectionUtils.isNotEmpty(request.sharedWith()) ?
+                        SharingType.PRIVATE : SharingType.SPECIFIC;
+        Set<String> sharedWith = CollectionUtils.isNotEmpty(request.sharedWith()) ?
                 request.sharedWith().stream().map(UUID::toString).collect(Collectors.toSet()) :
-                new HashSet<>());
+                new HashSet<>();
 
-        // Update audit fields
-        doc.setUpdatedAt(Instant.now());
-        doc.setUpdatedBy(username);
+        DocumentInformation updatedDoc = documentRepository.updateSharing(documentId, doc.getUserId(), sharingType, sharedWith, username)
+                .orElseThrow(() -> new InvalidDocumentException("Document not found or access denied"));
 
-        // Save changes
-        DocumentInformation updatedDoc = documentRepository.save(doc);
-        updatedDoc.setContent(null);
+        // History
+        StringBuilder sharingDetail = new StringBuilder();
+        sharingDetail.append(updatedDoc.getSharingType());
 
+        if (CollectionUtils.isNotEmpty(userDetailsForHistory)) {
+            String sharedUsernames = String.join(", ", userDetailsForHistory.stream()
+                    .map(UserResponse::username).toList());
+            sharingDetail.append(" - ").append(sharedUsernames);
+        }
 
-        final List<UserResponse> finalUserDetails = userDetailsForHistory;
+        documentUserHistoryWriter.record(DocumentUserHistory.builder()
+                .userId(doc.getUserId())
+                .documentId(documentId)
+                .userDocumentActionType(UserDocumentActionType.SHARE)
+                .version(doc.getCurrentVersion())
+                .documentName(doc.getFilename())
+                .detail(sharingDetail.toString())
+                .createdAt(Instant.now())
+                .build());
 
         // Send sync event to indexing document
         CompletableFuture.runAsync(() -> {
-            // History
-            StringBuilder sharingDetail = new StringBuilder();
-            sharingDetail.append(doc.getSharingType());
-
-            if (CollectionUtils.isNotEmpty(finalUserDetails)) {
-                String sharedWith = String.join(", ", finalUserDetails.stream()
-                        .map(UserResponse::username).toList());
-                sharingDetail.append(" - ").append(sharedWith);
-            }
-
-            documentUserHistoryRepository.save(DocumentUserHistory.builder()
-                    .userId(doc.getUserId())
-                    .documentId(documentId)
-                    .userDocumentActionType(UserDocumentActionType.SHARE)
-                    .version(doc.getCurrentVersion())
-                    .detail(sharingDetail.toString())
-                    .createdAt(Instant.now())
-                    .build());
-
             publishEventService.sendSyncEvent(
                     SyncEventRequest.builder()
                             .eventId(UUID.randomUUID().toString())
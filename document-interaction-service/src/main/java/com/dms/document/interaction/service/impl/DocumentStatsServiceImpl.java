@@ -0,0 +1,94 @@
+package com.dms.document.interaction.service.impl;
+
+import com.dms.document.interaction.model.DocumentStats;
+import com.dms.document.interaction.model.DocumentUserHistory;
+import com.dms.document.interaction.repository.DocumentRepository;
+import com.dms.document.interaction.repository.DocumentStatsRepository;
+import com.dms.document.interaction.service.DocumentStatsService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Statistics are kept in one {@link DocumentStats} bucket per document and day. The history writer increments
+ * them for every batch it stores, so reads sum a handful of small buckets instead of grouping all history rows.
+ * The rebuild recomputes past days from the history in parallel batches of documents; the current day is left
+ * to the increments, which it would otherwise race with.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DocumentStatsServiceImpl implements DocumentStatsService {
+    private final DocumentStatsRepository documentStatsRepository;
+    private final DocumentRepository documentRepository;
+
+    @Value("${app.stats.rebuild-batch-size:200}")
+    private int rebuildBatchSize;
+
+    @Value("${app.stats.rebuild-parallelism:4}")
+    private int rebuildParallelism;
+
+    @Override
+    public void recordHistory(Collection<DocumentUserHistory> histories) {
+        documentStatsRepository.incrementCounts(histories);
+    }
+
+    @Override
+    public Map<String, Integer> getActionCounts(String documentId, Instant since) {
+        Instant from = since != null ? DocumentStats.startOf(DocumentStats.dayOf(since)) : Instant.EPOCH;
+        Map<String, Integer> counts = new HashMap<>();
+        for (DocumentStats bucket : documentStatsRepository.findCountsSince(documentId, from)) {
+            if (bucket.getActionCounts() != null) {
+                bucket.getActionCounts().forEach((action, count) -> counts.merge(action, count, Integer::sum));
+            }
+        }
+        return counts;
+    }
+
+    @Override
+    public int rebuildStats() {
+        Instant before = LocalDate.now(ZoneOffset.UTC).atStartOfDay(ZoneOffset.UTC).toInstant();
+        ExecutorService executor = Executors.newFixedThreadPool(rebuildParallelism);
+        List<Future<Integer>> batches = new ArrayList<>();
+        try {
+            String lastId = null;
+            List<String> documentIds;
+            do {
+                documentIds = documentRepository.findIdsAfter(lastId, rebuildBatchSize);
+                if (documentIds.isEmpty()) {
+                    break;
+                }
+                List<String> batch = documentIds;
+                batches.add(executor.submit(() -> rebuildBatch(batch, before)));
+                lastId = documentIds.get(documentIds.size() - 1);
+            } while (documentIds.size() == rebuildBatchSize);
+
+            int documents = 0;
+            for (Future<Integer> batch : batches) {
+                documents += batch.get();
+            }
+            log.info("Rebuilt statistics of {} documents before {}", documents, before);
+            return documents;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Statistics rebuild interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Statistics rebuild failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private int rebuildBatch(List<String> documentIds, Instant before) {
+        List<DocumentStats> buckets = documentStatsRepository.aggregateDailyCounts(documentIds, before);
+        documentStatsRepository.replaceCounts(documentIds, buckets, before);
+        return documentIds.size();
+    }
+}
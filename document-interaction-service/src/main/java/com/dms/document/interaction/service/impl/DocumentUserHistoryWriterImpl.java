@@ -0,0 +1,207 @@
+package com.dms.document.interaction.service.impl;
+
+import com.dms.document.interaction.model.DocumentUserHistory;
+import com.dms.document.interaction.service.DocumentStatsService;
+import com.dms.document.interaction.service.DocumentUserHistoryWriter;
+import com.dms.document.interaction.utils.HistorySearchTerms;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded write-behind queue for history records. A single writer thread drains the queue and inserts a batch
+ * with one {@code insertMany} once it holds {@code batch-size} records or the oldest record has waited
+ * {@code flush-interval}. A full queue blocks callers for at most {@code offer-timeout} before dropping the record.
+ * Search terms are derived just before the insert, and each stored batch is then added to the daily document statistics.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DocumentUserHistoryWriterImpl implements DocumentUserHistoryWriter {
+    private static final String METRIC_PREFIX = "dms.history.write-behind";
+    // Queued on shutdown to wake an idle writer, never written
+    private static final DocumentUserHistory STOP = DocumentUserHistory.builder().build();
+
+    private final MongoTemplate mongoTemplate;
+    private final DocumentStatsService documentStatsService;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.history.write-behind.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${app.history.write-behind.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.history.write-behind.flush-interval:1s}")
+    private Duration flushInterval;
+
+    @Value("${app.history.write-behind.offer-timeout:50ms}")
+    private Duration offerTimeout;
+
+    @Value("${app.history.write-behind.shutdown-timeout:10s}")
+    private Duration shutdownTimeout;
+
+    private BlockingQueue<DocumentUserHistory> queue;
+    private Thread writerThread;
+    private volatile boolean running;
+
+    private Counter writtenCounter;
+    private Counter overflowCounter;
+    private Counter interruptedCounter;
+    private Counter failedCounter;
+    private Timer flushTimer;
+
+    @PostConstruct
+    public void start() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        writtenCounter = Counter.builder(METRIC_PREFIX + ".written")
+                .description("History records inserted")
+                .register(meterRegistry);
+        overflowCounter = Counter.builder(METRIC_PREFIX + ".dropped")
+                .description("History records dropped")
+                .tag("reason", "overflow")
+                .register(meterRegistry);
+        interruptedCounter = Counter.builder(METRIC_PREFIX + ".dropped")
+                .description("History records dropped")
+                .tag("reason", "interrupted")
+                .register(meterRegistry);
+        failedCounter = Counter.builder(METRIC_PREFIX + ".dropped")
+                .description("History records dropped")
+                .tag("reason", "write-error")
+                .register(meterRegistry);
+        flushTimer = Timer.builder(METRIC_PREFIX + ".flush")
+                .description("Time taken to insert a batch of history records")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".queue-size", queue, BlockingQueue::size)
+                .description("History records waiting to be written")
+                .register(meterRegistry);
+
+        running = true;
+        writerThread = new Thread(this::runWriter, "history-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+        log.info("History write-behind started with capacity: {}, batch size: {}, flush interval: {}",
+                queueCapacity, batchSize, flushInterval);
+    }
+
+    @Override
+    public boolean record(DocumentUserHistory history) {
+        if (!running) {
+            // Late records during shutdown are written directly so they are not lost
+            writeBatch(List.of(history));
+            return true;
+        }
+        try {
+            if (queue.offer(history, offerTimeout.toNanos(), TimeUnit.NANOSECONDS)) {
+                return true;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            interruptedCounter.increment();
+            log.warn("Interrupted while queueing, dropped {} record for document: {}",
+                    history.getUserDocumentActionType(), history.getDocumentId());
+            return false;
+        }
+        overflowCounter.increment();
+        log.warn("History queue full, dropped {} record for document: {}",
+                history.getUserDocumentActionType(), history.getDocumentId());
+        return false;
+    }
+
+    @Override
+    public void flush() {
+        List<DocumentUserHistory> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            writeDrained(batch);
+            batch = new ArrayList<>(batchSize);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // The writer is woken rather than interrupted, so an insert in flight completes
+        running = false;
+        queue.offer(STOP);
+        try {
+            writerThread.join(shutdownTimeout.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+        log.info("History write-behind stopped");
+    }
+
+    private void runWriter() {
+        while (running) {
+            List<DocumentUserHistory> batch = new ArrayList<>(batchSize);
+            try {
+                DocumentUserHistory first = queue.poll(flushInterval.toNanos(), TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                fillBatch(batch, System.nanoTime() + flushInterval.toNanos());
+            } catch (InterruptedException e) {
+                // Unexpected, stop taking records and write what was collected; shutdown() flushes the rest
+                running = false;
+            }
+            writeDrained(batch);
+        }
+    }
+
+    private void fillBatch(List<DocumentUserHistory> batch, long deadline) throws InterruptedException {
+        while (batch.size() < batchSize) {
+            queue.drainTo(batch, batchSize - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= batchSize || remaining <= 0 || !running) {
+                return;
+            }
+            DocumentUserHistory next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void writeDrained(List<DocumentUserHistory> batch) {
+        batch.removeIf(history -> history == STOP);
+        if (!batch.isEmpty()) {
+            writeBatch(batch);
+        }
+    }
+
+    private void writeBatch(List<DocumentUserHistory> batch) {
+        batch.forEach(history -> history.setSearchTerms(
+                HistorySearchTerms.of(history.getDocumentName(), history.getDetail())));
+        try {
+            flushTimer.record(() -> mongoTemplate.insert(batch, DocumentUserHistory.class));
+            writtenCounter.increment(batch.size());
+        } catch (Exception e) {
+            failedCounter.increment(batch.size());
+            log.error("Failed to write {} history records", batch.size(), e);
+            return;
+        }
+        try {
+            documentStatsService.recordHistory(batch);
+        } catch (Exception e) {
+            // The nightly rebuild recomputes the missed counts from the stored records
+            log.error("Failed to update statistics for {} history records", batch.size(), e);
+        }
+    }
+}
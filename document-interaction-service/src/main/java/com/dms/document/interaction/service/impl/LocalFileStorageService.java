@@ -1,6 +1,7 @@
 package com.dms.document.interaction.service.impl;
 
 import com.dms.document.interaction.config.FileStorageProperties;
+import com.dms.document.interaction.dto.StoredFileMetadata;
 import com.dms.document.interaction.service.FileStorageService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -10,10 +11,12 @@ import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.time.Instant;
 import java.time.LocalDate;
 
@@ -58,6 +61,38 @@ public class LocalFileStorageService implements FileStorageService {
         }
     }
 
+    @Override
+    public StoredFileMetadata getFileMetadata(String filePath) throws IOException {
+        try {
+            Path targetLocation = getUploadPath().resolve(filePath);
+            BasicFileAttributes attributes = Files.readAttributes(targetLocation, BasicFileAttributes.class);
+            long lastModified = attributes.lastModifiedTime().toMillis();
+
+            return StoredFileMetadata.builder()
+                    .contentLength(attributes.size())
+                    .eTag(String.format("\"%x-%x\"", attributes.size(), lastModified))
+                    .lastModified(Instant.ofEpochMilli(lastModified))
+                    .contentType(Files.probeContentType(targetLocation))
+                    .build();
+        } catch (IOException e) {
+            log.error("Error reading file metadata from local storage: {}", e.getMessage());
+            throw new IOException("Failed to read file metadata from local storage", e);
+        }
+    }
+
+    @Override
+    public InputStream openFile(String filePath, long start, long end) throws IOException {
+        InputStream inputStream = Files.newInputStream(getUploadPath().resolve(filePath));
+        try {
+            // Skipping a file channel stream repositions it instead of reading the skipped bytes
+            inputStream.skipNBytes(start);
+            return inputStream;
+        } catch (IOException e) {
+            inputStream.close();
+            throw e;
+        }
+    }
+
     @Override
     public void deleteFile(String filePath) {
         try {
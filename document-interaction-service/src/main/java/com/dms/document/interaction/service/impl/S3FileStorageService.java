@@ -1,20 +1,30 @@
 package com.dms.document.interaction.service.impl;
 
 import com.dms.document.interaction.config.FileStorageProperties;
+import com.dms.document.interaction.dto.StoredFileMetadata;
 import com.dms.document.interaction.service.FileStorageService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ContentDisposition;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
+import software.amazon.awssdk.core.ResponseInputStream;
 import software.amazon.awssdk.core.sync.RequestBody;
 import software.amazon.awssdk.core.sync.ResponseTransformer;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.model.*;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+import software.amazon.awssdk.services.s3.presigner.model.GetObjectPresignRequest;
 
+import java.io.FilterInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDate;
+import java.util.Optional;
 
 @Slf4j
 @Service
@@ -23,6 +33,7 @@ import java.time.LocalDate;
 public class S3FileStorageService implements FileStorageService {
 
     private final S3Client s3Client;
+    private final S3Presigner s3Presigner;
     private final FileStorageProperties fileStorageProperties;
 
     @Override
@@ -56,6 +67,62 @@ public class S3FileStorageService implements FileStorageService {
         }
     }
 
+    @Override
+    public StoredFileMetadata getFileMetadata(String key) throws IOException {
+        try {
+            HeadObjectResponse headObjectResponse = s3Client.headObject(HeadObjectRequest.builder()
+                    .bucket(fileStorageProperties.getS3().getBucketName())
+                    .key(key)
+                    .build());
+
+            return StoredFileMetadata.builder()
+                    .contentLength(headObjectResponse.contentLength())
+                    .eTag(headObjectResponse.eTag())
+                    .lastModified(headObjectResponse.lastModified())
+                    .contentType(headObjectResponse.contentType())
+                    .build();
+        } catch (S3Exception e) {
+            log.error("Error reading file metadata from S3: {}", e.getMessage());
+            throw new IOException("Failed to read file metadata from S3", e);
+        }
+    }
+
+    @Override
+    public InputStream openFile(String key, long start, long end) throws IOException {
+        try {
+            GetObjectRequest getObjectRequest = GetObjectRequest.builder()
+                    .bucket(fileStorageProperties.getS3().getBucketName())
+                    .key(key)
+                    .range("bytes=" + start + "-" + end)
+                    .build();
+
+            return new AbortOnCloseInputStream(s3Client.getObject(getObjectRequest), end - start + 1);
+        } catch (S3Exception e) {
+            log.error("Error opening file from S3: {}", e.getMessage());
+            throw new IOException("Failed to open file from S3", e);
+        }
+    }
+
+    @Override
+    public Optional<String> generatePresignedDownloadUrl(String key, String filename, String contentType, Duration ttl) {
+        GetObjectRequest getObjectRequest = GetObjectRequest.builder()
+                .bucket(fileStorageProperties.getS3().getBucketName())
+                .key(key)
+                .responseContentType(contentType)
+                .responseContentDisposition(ContentDisposition.attachment()
+                        .filename(filename, StandardCharsets.UTF_8)
+                        .build()
+                        .toString())
+                .build();
+
+        GetObjectPresignRequest presignRequest = GetObjectPresignRequest.builder()
+                .signatureDuration(ttl)
+                .getObjectRequest(getObjectRequest)
+                .build();
+
+        return Optional.of(s3Presigner.presignGetObject(presignRequest).url().toString());
+    }
+
     @Override
     public void deleteFile(String key) {
         try {
@@ -78,4 +145,52 @@ public class S3FileStorageService implements FileStorageService {
 
         return String.format("%s/%s/%s-%s", prefix, datePath, uniqueId, originalFilename);
     }
-}
\ No newline at end of file
+
+    /**
+     * Closing an S3 response stream drains whatever is left of the object so the connection can be reused.
+     * When the client goes away halfway through a large file, the connection is aborted instead.
+     */
+    private static class AbortOnCloseInputStream extends FilterInputStream {
+        private final ResponseInputStream<GetObjectResponse> responseInputStream;
+        private long remaining;
+
+        AbortOnCloseInputStream(ResponseInputStream<GetObjectResponse> responseInputStream, long length) {
+            super(responseInputStream);
+            this.responseInputStream = responseInputStream;
+            this.remaining = length;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int value = super.read();
+            if (value >= 0) {
+                remaining--;
+            }
+            return value;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = super.read(buffer, offset, length);
+            if (read > 0) {
+                remaining -= read;
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            remaining -= skipped;
+            return skipped;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (remaining > 0) {
+                responseInputStream.abort();
+            }
+            super.close();
+        }
+    }
+}
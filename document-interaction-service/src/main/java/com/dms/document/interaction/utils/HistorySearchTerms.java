@@ -0,0 +1,56 @@
+package com.dms.document.interaction.utils;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * Normalized words of a history record, stored with the record so a search can match word prefixes through the
+ * {@code user_id, search_terms} index instead of regexing filenames across all documents.
+ * Words are lower-cased with accents removed, so "Bài_Giảng.pdf" yields {@code bai, giang, pdf}.
+ */
+public final class HistorySearchTerms {
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    // Comment details can be long, only their first words are searchable
+    private static final int MAX_TERMS = 50;
+    private static final int MAX_TERM_LENGTH = 32;
+
+    private HistorySearchTerms() {
+    }
+
+    /**
+     * Distinct words of the document name followed by those of the detail.
+     */
+    public static List<String> of(String documentName, String detail) {
+        Set<String> terms = new LinkedHashSet<>(tokenize(documentName));
+        for (String term : tokenize(detail)) {
+            if (terms.size() >= MAX_TERMS) {
+                break;
+            }
+            terms.add(term);
+        }
+        return new ArrayList<>(terms);
+    }
+
+    /**
+     * Normalized words of the text, each cut to the stored length.
+     */
+    public static List<String> tokenize(String text) {
+        if (StringUtils.isBlank(text)) {
+            return Collections.emptyList();
+        }
+        String normalized = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .replace('đ', 'd')
+                .replace('Đ', 'D')
+                .toLowerCase(Locale.ROOT);
+        return SEPARATORS.splitAsStream(normalized)
+                .filter(StringUtils::isNotEmpty)
+                .map(term -> StringUtils.left(term, MAX_TERM_LENGTH))
+                .distinct()
+                .limit(MAX_TERMS)
+                .toList();
+    }
+}
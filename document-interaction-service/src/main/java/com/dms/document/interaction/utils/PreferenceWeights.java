@@ -0,0 +1,84 @@
+package com.dms.document.interaction.utils;
+
+import com.dms.document.interaction.enums.InteractionType;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Time-decayed content type scores.
+ * <p>
+ * An interaction at time {@code t} adds {@code weight * 2^((t - EPOCH) / halfLife)} to the score of the document type,
+ * so stored scores only ever grow and are updated with a plain {@code $inc}. The decayed value at {@code now} is the
+ * stored score divided by the same factor taken at {@code now}, which is applied lazily on read by {@link #decay}.
+ * All scores of a user share that divisor, so the normalized weights are the same whenever they are computed.
+ */
+public final class PreferenceWeights {
+    private static final Instant EPOCH = Instant.parse("2024-01-01T00:00:00Z");
+    private static final double FAVORITE_WEIGHT = 3.0;
+    private static final double COMMENT_WEIGHT = 2.0;
+    private static final double DOWNLOAD_WEIGHT = 2.0;
+    private static final double VIEW_WEIGHT = 1.0;
+    private static final double MIN_WEIGHT = 0.01;
+
+    private PreferenceWeights() {
+    }
+
+    public static double interactionWeight(InteractionType type) {
+        return switch (type) {
+            case VIEW -> VIEW_WEIGHT;
+            case DOWNLOAD -> DOWNLOAD_WEIGHT;
+            case COMMENT -> COMMENT_WEIGHT;
+            case FAVORITE, SHARE -> FAVORITE_WEIGHT;
+        };
+    }
+
+    /**
+     * Score to add for an interaction of the given weight happening at {@code at}.
+     */
+    public static double scoreIncrement(double weight, Instant at, Duration halfLife) {
+        return weight * growthFactor(at, halfLife);
+    }
+
+    /**
+     * Scores as of {@code now}, with the decay since each interaction applied.
+     */
+    public static Map<String, Double> decay(Map<String, Double> scores, Instant now, Duration halfLife) {
+        double factor = growthFactor(now, halfLife);
+        Map<String, Double> decayed = new HashMap<>();
+        scores.forEach((type, score) -> decayed.put(type, score / factor));
+        return decayed;
+    }
+
+    /**
+     * Turns scores into weights that sum to 1.0, with every type getting at least a small share.
+     */
+    public static Map<String, Double> normalize(Map<String, Double> scores) {
+        Map<String, Double> normalizedWeights = new HashMap<>();
+        if (scores == null || scores.isEmpty()) {
+            return normalizedWeights;
+        }
+
+        double totalSum = scores.values().stream().mapToDouble(Double::doubleValue).sum();
+
+        // If there are no interactions, return equal weights
+        if (totalSum <= 0) {
+            double equalWeight = 1.0 / scores.size();
+            scores.keySet().forEach(type -> normalizedWeights.put(type, equalWeight));
+            return normalizedWeights;
+        }
+
+        // Apply min threshold to ensure no weight is too small, then re-normalize
+        scores.forEach((type, score) -> normalizedWeights.put(type, Math.max(score / totalSum, MIN_WEIGHT)));
+        double finalSum = normalizedWeights.values().stream().mapToDouble(Double::doubleValue).sum();
+        normalizedWeights.replaceAll((type, weight) -> weight / finalSum);
+        return normalizedWeights;
+    }
+
+    private static double growthFactor(Instant at, Duration halfLife) {
+        double halfLives = (double) Duration.between(EPOCH, at).toSeconds() / halfLife.toSeconds();
+        return Math.pow(2, halfLives);
+    }
+}
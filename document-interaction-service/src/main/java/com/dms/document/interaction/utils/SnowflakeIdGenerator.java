@@ -0,0 +1,80 @@
+package com.dms.document.interaction.utils;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Time-ordered ids made of milliseconds since {@link #EPOCH}, a worker id and a per-millisecond sequence.
+ * The layout is 41 + 6 + 6 bits, so ids stay below 2^53 and survive a round trip through JSON numbers in the browser.
+ * The last timestamp and sequence share one {@link AtomicLong}, so concurrent callers never take a lock.
+ */
+public class SnowflakeIdGenerator {
+    public static final Instant EPOCH = Instant.parse("2024-01-01T00:00:00Z");
+    public static final int WORKER_ID_BITS = 6;
+    public static final int SEQUENCE_BITS = 6;
+    public static final int MAX_WORKER_ID = (1 << WORKER_ID_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final int TIMESTAMP_SHIFT = WORKER_ID_BITS + SEQUENCE_BITS;
+    private static final long MAX_TIMESTAMP = (1L << 41) - 1;
+
+    private final long workerId;
+    private final long maxBackwardMillis;
+    private final LongSupplier clock;
+    // Last timestamp shifted left by SEQUENCE_BITS, plus the sequence used within it
+    private final AtomicLong state = new AtomicLong();
+
+    public SnowflakeIdGenerator(int workerId, long maxBackwardMillis) {
+        this(workerId, maxBackwardMillis, System::currentTimeMillis);
+    }
+
+    public SnowflakeIdGenerator(int workerId, long maxBackwardMillis, LongSupplier clock) {
+        if (workerId < 0 || workerId > MAX_WORKER_ID) {
+            throw new IllegalArgumentException("Worker id must be between 0 and " + MAX_WORKER_ID);
+        }
+        this.workerId = workerId;
+        this.maxBackwardMillis = maxBackwardMillis;
+        this.clock = clock;
+    }
+
+    public int getWorkerId() {
+        return (int) workerId;
+    }
+
+    public long nextId() {
+        while (true) {
+            long current = state.get();
+            long lastTimestamp = current >>> SEQUENCE_BITS;
+            long now = clock.getAsLong() - EPOCH.toEpochMilli();
+            long next;
+            if (now > lastTimestamp) {
+                if (now > MAX_TIMESTAMP) {
+                    throw new IllegalStateException("Id timestamp exhausted");
+                }
+                next = now << SEQUENCE_BITS;
+            } else {
+                // A small step back keeps counting within the last timestamp instead of reusing earlier ones
+                if (lastTimestamp - now > maxBackwardMillis) {
+                    throw new IllegalStateException("Clock moved backwards by %d ms".formatted(lastTimestamp - now));
+                }
+                if ((current & SEQUENCE_MASK) == SEQUENCE_MASK) {
+                    Thread.onSpinWait();
+                    continue;
+                }
+                next = current + 1;
+            }
+            if (state.compareAndSet(current, next)) {
+                return (next >>> SEQUENCE_BITS) << TIMESTAMP_SHIFT
+                        | workerId << SEQUENCE_BITS
+                        | next & SEQUENCE_MASK;
+            }
+        }
+    }
+
+    /**
+     * Creation time encoded in an id from this generator.
+     */
+    public static Instant timestampOf(long id) {
+        return EPOCH.plusMillis(id >>> TIMESTAMP_SHIFT);
+    }
+}
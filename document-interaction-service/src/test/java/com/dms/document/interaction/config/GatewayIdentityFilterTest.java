@@ -0,0 +1,153 @@
+package com.dms.document.interaction.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+
+import static com.dms.document.interaction.config.GatewayIdentityFilter.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class GatewayIdentityFilterTest {
+    private static final String SECRET = "test-secret";
+    private static final String USER_ID = "5b0f5c8e-9d3a-4a53-bb7e-4f1de1f5d1a0";
+    private static final Instant ISSUED_AT = Instant.ofEpochSecond(Instant.now().getEpochSecond() - 60);
+    private static final Instant EXPIRES_AT = ISSUED_AT.plusSeconds(900);
+
+    private GatewayIdentityFilter gatewayIdentityFilter;
+
+    @BeforeEach
+    void setUp() {
+        gatewayIdentityFilter = new GatewayIdentityFilter(SECRET, Duration.ofSeconds(30),
+                new SecurityConfig().jwtAuthenticationConverter());
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void doFilter_ValidSignature_AuthenticatesWithoutBearerValidation() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = request(Instant.now(), SECRET);
+
+        // Act
+        gatewayIdentityFilter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        // Assert
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        JwtAuthenticationToken jwtAuthentication = assertInstanceOf(JwtAuthenticationToken.class, authentication);
+        assertEquals("testuser", jwtAuthentication.getToken().getSubject());
+        assertEquals(USER_ID, jwtAuthentication.getToken().getClaimAsString("uid"));
+        assertEquals("token", jwtAuthentication.getToken().getTokenValue());
+        assertEquals(ISSUED_AT, jwtAuthentication.getToken().getIssuedAt());
+        assertEquals(EXPIRES_AT, jwtAuthentication.getToken().getExpiresAt());
+        assertTrue(authentication.getAuthorities().stream().map(GrantedAuthority::getAuthority).anyMatch("ROLE_MENTOR"::equals));
+        assertNull(GatewayIdentityFilter.bearerTokenResolver().resolve(request));
+    }
+
+    @Test
+    void doFilter_InvalidSignature_LeavesRequestToResourceServer() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = request(Instant.now(), "other-secret");
+
+        // Act
+        gatewayIdentityFilter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        // Assert
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        assertEquals("token", GatewayIdentityFilter.bearerTokenResolver().resolve(request));
+    }
+
+    @Test
+    void doFilter_ExpiredTimestamp_LeavesRequestToResourceServer() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = request(Instant.now().minusSeconds(60), SECRET);
+
+        // Act
+        gatewayIdentityFilter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        // Assert
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    @Test
+    void doFilter_FutureTimestampBeyondClockSkew_LeavesRequestToResourceServer() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = request(Instant.now().plusSeconds(20), SECRET);
+
+        // Act
+        gatewayIdentityFilter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        // Assert
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    @Test
+    void doFilter_SignedForAnotherToken_LeavesRequestToResourceServer() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = request(Instant.now(), SECRET, "other-token", EXPIRES_AT);
+
+        // Act
+        gatewayIdentityFilter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        // Assert
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        assertEquals("token", GatewayIdentityFilter.bearerTokenResolver().resolve(request));
+    }
+
+    @Test
+    void doFilter_ExpiredToken_LeavesRequestToResourceServer() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = request(Instant.now(), SECRET, "token", Instant.now().minusSeconds(1));
+
+        // Act
+        gatewayIdentityFilter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        // Assert
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    private static MockHttpServletRequest request(Instant signedAt, String secret) throws Exception {
+        return request(signedAt, secret, "token", EXPIRES_AT);
+    }
+
+    private static MockHttpServletRequest request(Instant signedAt, String secret, String signedToken, Instant expiresAt)
+            throws Exception {
+        String timestamp = String.valueOf(signedAt.toEpochMilli());
+        String issuedAt = String.valueOf(ISSUED_AT.getEpochSecond());
+        String expires = String.valueOf(expiresAt.getEpochSecond());
+        String tokenHash = Base64.getUrlEncoder().withoutPadding().encodeToString(
+                MessageDigest.getInstance("SHA-256").digest(signedToken.getBytes(StandardCharsets.UTF_8)));
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        String payload = String.join("\n", USER_ID, "testuser", "ROLE_MENTOR", tokenHash, issuedAt, expires, timestamp);
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/documents");
+        request.addHeader("Authorization", "Bearer token");
+        request.addHeader(USER_ID_HEADER, USER_ID);
+        request.addHeader(USERNAME_HEADER, "testuser");
+        request.addHeader(ROLES_HEADER, "ROLE_MENTOR");
+        request.addHeader(ISSUED_AT_HEADER, issuedAt);
+        request.addHeader(EXPIRES_AT_HEADER, expires);
+        request.addHeader(TIMESTAMP_HEADER, timestamp);
+        request.addHeader(SIGNATURE_HEADER,
+                Base64.getEncoder().encodeToString(mac.doFinal(payload.getBytes(StandardCharsets.UTF_8))));
+        return request;
+    }
+}
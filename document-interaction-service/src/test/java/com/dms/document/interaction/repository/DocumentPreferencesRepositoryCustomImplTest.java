@@ -0,0 +1,191 @@
+package com.dms.document.interaction.repository;
+
+import com.dms.document.interaction.dto.UpdateDocumentPreferencesRequest;
+import com.dms.document.interaction.enums.DocumentType;
+import com.dms.document.interaction.model.DocumentInformation;
+import com.dms.document.interaction.model.DocumentPreferences;
+import com.mongodb.client.result.UpdateResult;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.convert.UpdateMapper;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Instant;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Checks the update documents sent to MongoDB after field name mapping.
+ */
+@ExtendWith(MockitoExtension.class)
+class DocumentPreferencesRepositoryCustomImplTest {
+    private static final String USER_ID = UUID.randomUUID().toString();
+    private static final Instant NOW = Instant.parse("2025-03-01T00:00:00Z");
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Captor
+    private ArgumentCaptor<Query> queryCaptor;
+
+    @Captor
+    private ArgumentCaptor<Update> updateCaptor;
+
+    private DocumentPreferencesRepositoryCustomImpl preferencesRepository;
+    private MappingMongoConverter converter;
+    private MongoPersistentEntity<?> entity;
+    private DocumentInformation document;
+
+    @BeforeEach
+    void setUp() {
+        MongoCustomConversions conversions = new MongoCustomConversions(List.of());
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+        entity = mappingContext.getRequiredPersistentEntity(DocumentPreferences.class);
+
+        preferencesRepository = new DocumentPreferencesRepositoryCustomImpl(mongoTemplate);
+        document = DocumentInformation.builder()
+                .id("doc-1")
+                .documentType(DocumentType.PDF)
+                .majors(Set.of("CS"))
+                .courseCodes(Set.of("CS101"))
+                .courseLevel("INTERMEDIATE")
+                .categories(Set.of("PROGRAMMING"))
+                .tags(Set.of("java", "node.js", "$where"))
+                .build();
+    }
+
+    @Test
+    void incrementInteractionCounts_SendsSingleUpsert() {
+        // Arrange
+        DocumentPreferences updated = new DocumentPreferences();
+        updated.setContentTypeScores(Map.of("PDF", 4.0));
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(DocumentPreferences.class))).thenReturn(updated);
+
+        // Act
+        Map<String, Double> scores = preferencesRepository.incrementInteractionCounts(
+                USER_ID, document, "PDF", 1.5, "doc-1", NOW);
+
+        // Assert
+        assertEquals(Map.of("PDF", 4.0), scores);
+        ArgumentCaptor<FindAndModifyOptions> optionsCaptor = ArgumentCaptor.forClass(FindAndModifyOptions.class);
+        verify(mongoTemplate).findAndModify(queryCaptor.capture(), updateCaptor.capture(), optionsCaptor.capture(),
+                eq(DocumentPreferences.class));
+        assertTrue(optionsCaptor.getValue().isUpsert());
+        assertTrue(optionsCaptor.getValue().isReturnNew());
+        assertEquals(new Document("user_id", USER_ID), mappedQuery(queryCaptor.getValue()));
+
+        Document update = mappedUpdate(updateCaptor.getValue());
+        Document inc = update.get("$inc", Document.class);
+        assertEquals(1, inc.get("major_interaction_counts.CS"));
+        assertEquals(1, inc.get("course_code_interaction_counts.CS101"));
+        assertEquals(1, inc.get("level_interaction_counts.INTERMEDIATE"));
+        assertEquals(1, inc.get("category_interaction_counts.PROGRAMMING"));
+        assertEquals(1, inc.get("tag_interaction_counts.java"));
+        assertEquals(1.5, inc.get("content_type_scores.PDF"));
+        // Keys MongoDB would read as paths or operators are skipped
+        assertEquals(6, inc.size());
+        assertEquals(new Document("recent_viewed_documents", "doc-1"), update.get("$pull"));
+        assertTrue(update.get("$setOnInsert", Document.class).containsKey("language_preferences"));
+    }
+
+    @Test
+    void incrementInteractionCounts_ConcurrentInsert_Retries() {
+        // Arrange
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(DocumentPreferences.class)))
+                .thenThrow(new DuplicateKeyException("user_id"))
+                .thenReturn(new DocumentPreferences());
+
+        // Act
+        Map<String, Double> scores = preferencesRepository.incrementInteractionCounts(
+                USER_ID, document, "PDF", 0, null, NOW);
+
+        // Assert
+        assertTrue(scores.isEmpty());
+        verify(mongoTemplate, times(2)).findAndModify(any(Query.class), updateCaptor.capture(),
+                any(FindAndModifyOptions.class), eq(DocumentPreferences.class));
+        Document update = mappedUpdate(updateCaptor.getValue());
+        assertFalse(update.get("$inc", Document.class).containsKey("content_type_scores.PDF"));
+        assertFalse(update.containsKey("$pull"));
+    }
+
+    @Test
+    void updateRecentAndWeights_PushesWithSlice() {
+        // Act
+        preferencesRepository.updateRecentAndWeights(USER_ID, "doc-1", 50, Map.of("PDF", 1.0));
+
+        // Assert
+        verify(mongoTemplate).updateFirst(queryCaptor.capture(), updateCaptor.capture(), eq(DocumentPreferences.class));
+        Document update = mappedUpdate(updateCaptor.getValue());
+        assertEquals(Map.of("PDF", 1.0), update.get("$set", Document.class).get("content_type_weights"));
+        Document push = update.get("$push", Document.class).get("recent_viewed_documents", Document.class);
+        assertEquals(List.of("doc-1"), push.get("$each"));
+        assertEquals(-50, push.get("$slice"));
+    }
+
+    @Test
+    void updateExplicitPreferences_SetsOnlyExplicitFields() {
+        // Arrange
+        UpdateDocumentPreferencesRequest request = new UpdateDocumentPreferencesRequest(
+                Set.of("CS"), Set.of("CS101"), Set.of("INTERMEDIATE"), Set.of("PROGRAMMING"), Set.of("java"), Set.of("en"));
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(DocumentPreferences.class)))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+
+        // Act
+        boolean updated = preferencesRepository.updateExplicitPreferences(USER_ID, request, NOW);
+
+        // Assert
+        assertTrue(updated);
+        verify(mongoTemplate).updateFirst(queryCaptor.capture(), updateCaptor.capture(), eq(DocumentPreferences.class));
+        assertEquals(new Document("user_id", USER_ID), mappedQuery(queryCaptor.getValue()));
+        Document update = mappedUpdate(updateCaptor.getValue());
+        assertEquals(Set.of("$set"), update.keySet());
+        assertEquals(Set.of("preferred_majors", "preferred_course_codes", "preferred_levels", "preferred_categories",
+                        "preferred_tags", "language_preferences", "updated_at"),
+                update.get("$set", Document.class).keySet());
+    }
+
+    @Test
+    void updateExplicitPreferences_NoPreferences_ReturnsFalse() {
+        // Arrange
+        UpdateDocumentPreferencesRequest request = new UpdateDocumentPreferencesRequest(
+                Set.of(), Set.of(), Set.of(), Set.of(), Set.of(), Set.of("en"));
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(DocumentPreferences.class)))
+                .thenReturn(UpdateResult.acknowledged(0, 0L, null));
+
+        // Act & Assert
+        assertFalse(preferencesRepository.updateExplicitPreferences(USER_ID, request, NOW));
+    }
+
+    private Document mappedQuery(Query query) {
+        return new QueryMapper(converter).getMappedObject(query.getQueryObject(), entity);
+    }
+
+    private Document mappedUpdate(Update update) {
+        return new UpdateMapper(converter).getMappedObject(update.getUpdateObject(), entity);
+    }
+}
@@ -0,0 +1,323 @@
+package com.dms.document.interaction.repository;
+
+import com.dms.document.interaction.enums.DocumentStatus;
+import com.dms.document.interaction.enums.DocumentType;
+import com.dms.document.interaction.enums.SharingType;
+import com.dms.document.interaction.model.DocumentInformation;
+import com.dms.document.interaction.model.DocumentVersion;
+import com.mongodb.client.result.UpdateResult;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.DocumentCodec;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.convert.UpdateMapper;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Instant;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Checks the update documents sent to MongoDB after field name mapping, and compares their size with the
+ * full document reads and writes they replace on a document with a large extracted content.
+ */
+@ExtendWith(MockitoExtension.class)
+class DocumentRepositoryCustomImplTest {
+    private static final String DOCUMENT_ID = "doc123";
+    private static final String USER_ID = UUID.randomUUID().toString();
+    private static final int CONTENT_SIZE = 2 * 1024 * 1024;
+    private static final int VERSION_COUNT = 20;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Captor
+    private ArgumentCaptor<Query> queryCaptor;
+
+    @Captor
+    private ArgumentCaptor<Update> updateCaptor;
+
+    private DocumentRepositoryCustomImpl documentRepository;
+    private MappingMongoConverter converter;
+    private MongoPersistentEntity<?> entity;
+    private DocumentInformation largeDocument;
+
+    @BeforeEach
+    void setUp() {
+        MongoCustomConversions conversions = new MongoCustomConversions(List.of());
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+        entity = mappingContext.getRequiredPersistentEntity(DocumentInformation.class);
+
+        documentRepository = new DocumentRepositoryCustomImpl(mongoTemplate);
+        largeDocument = largeDocument();
+    }
+
+    @Test
+    void incrementFavoriteCount_SendsOnlyIncrement() {
+        // Arrange
+        stubUpdateFirst(1);
+
+        // Act
+        boolean result = documentRepository.incrementFavoriteCount(DOCUMENT_ID, 1);
+
+        // Assert
+        assertTrue(result);
+        verify(mongoTemplate).updateFirst(queryCaptor.capture(), updateCaptor.capture(), eq(DocumentInformation.class));
+        assertEquals(new Document("_id", DOCUMENT_ID), mappedQuery(queryCaptor.getValue()));
+        assertEquals(new Document("$inc", new Document("favorite_count", 1)), mappedUpdate(updateCaptor.getValue()));
+    }
+
+    @Test
+    void incrementFavoriteCount_Decrement_GuardedAgainstNegativeCount() {
+        // Arrange
+        stubUpdateFirst(0);
+
+        // Act
+        boolean result = documentRepository.incrementFavoriteCount(DOCUMENT_ID, -1);
+
+        // Assert
+        assertFalse(result);
+        verify(mongoTemplate).updateFirst(queryCaptor.capture(), updateCaptor.capture(), eq(DocumentInformation.class));
+        assertEquals(new Document("_id", DOCUMENT_ID).append("favorite_count", new Document("$gte", 1)),
+                mappedQuery(queryCaptor.getValue()));
+        assertEquals(new Document("$inc", new Document("favorite_count", -1)), mappedUpdate(updateCaptor.getValue()));
+    }
+
+    @Test
+    void incrementRecommendationCount_MissingDocument_ReturnsFalse() {
+        // Arrange
+        stubUpdateFirst(0);
+
+        // Act
+        boolean result = documentRepository.incrementRecommendationCount(DOCUMENT_ID, 1);
+
+        // Assert
+        assertFalse(result);
+        verify(mongoTemplate).updateFirst(any(Query.class), updateCaptor.capture(), eq(DocumentInformation.class));
+        assertEquals(new Document("$inc", new Document("recommendation_count", 1)), mappedUpdate(updateCaptor.getValue()));
+    }
+
+    @Test
+    void findCountersAfter_KeysetPageWithCountersOnly() {
+        // Arrange
+        when(mongoTemplate.find(any(Query.class), eq(DocumentInformation.class))).thenReturn(List.of());
+
+        // Act
+        documentRepository.findCountersAfter("doc100", 50);
+
+        // Assert
+        verify(mongoTemplate).find(queryCaptor.capture(), eq(DocumentInformation.class));
+        Query query = queryCaptor.getValue();
+        assertEquals(new Document("_id", new Document("$gt", "doc100")), mappedQuery(query));
+        assertEquals(new Document("id", 1), query.getSortObject());
+        assertEquals(50, query.getLimit());
+        assertEquals(Set.of("id", "favoriteCount", "recommendationCount", "commentCount"), query.getFieldsObject().keySet());
+    }
+
+    @Test
+    void replaceCounters_ConditionalOnObservedValues() {
+        // Arrange
+        stubUpdateFirst(1);
+
+        // Act
+        boolean result = documentRepository.replaceCounters(DOCUMENT_ID, 5, null, 1, 3, 0, 2);
+
+        // Assert
+        assertTrue(result);
+        verify(mongoTemplate).updateFirst(queryCaptor.capture(), updateCaptor.capture(), eq(DocumentInformation.class));
+        assertEquals(new Document("_id", DOCUMENT_ID).append("favorite_count", 5).append("recommendation_count", null)
+                        .append("comment_count", 1),
+                mappedQuery(queryCaptor.getValue()));
+        assertEquals(new Document("$set", new Document("favorite_count", 3).append("recommendation_count", 0)
+                        .append("comment_count", 2)),
+                mappedUpdate(updateCaptor.getValue()));
+    }
+
+    @Test
+    void updateSharing_ScopesToOwnerAndExcludesContent() {
+        // Arrange
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(DocumentInformation.class)))
+                .thenReturn(largeDocument.withContent(null));
+
+        // Act
+        Optional<DocumentInformation> result = documentRepository.updateSharing(
+                DOCUMENT_ID, USER_ID, SharingType.SPECIFIC, Set.of("user-1"), "owner");
+
+        // Assert
+        assertTrue(result.isPresent());
+        verify(mongoTemplate).findAndModify(queryCaptor.capture(), updateCaptor.capture(), any(FindAndModifyOptions.class), eq(DocumentInformation.class));
+        Query query = queryCaptor.getValue();
+        assertEquals(new Document("_id", DOCUMENT_ID).append("user_id", USER_ID), mappedQuery(query));
+        assertEquals(new Document("content", 0), query.getFieldsObject());
+
+        Document set = mappedUpdate(updateCaptor.getValue()).get("$set", Document.class);
+        assertEquals("SPECIFIC", set.get("sharing_type"));
+        assertEquals(List.of("user-1"), set.get("shared_with"));
+        assertEquals("owner", set.get("updated_by"));
+        assertFalse(set.containsKey("content"));
+        assertFalse(set.containsKey("versions"));
+    }
+
+    @Test
+    void markDeleted_NotOwner_ReturnsFalse() {
+        // Arrange
+        stubUpdateFirst(0);
+
+        // Act
+        boolean result = documentRepository.markDeleted(DOCUMENT_ID, USER_ID, "owner");
+
+        // Assert
+        assertFalse(result);
+        verify(mongoTemplate).updateFirst(queryCaptor.capture(), updateCaptor.capture(), eq(DocumentInformation.class));
+        assertEquals(new Document("_id", DOCUMENT_ID).append("user_id", USER_ID), mappedQuery(queryCaptor.getValue()));
+        assertEquals(Boolean.TRUE, mappedUpdate(updateCaptor.getValue()).get("$set", Document.class).get("deleted"));
+    }
+
+    @Test
+    void addVersion_ConditionalOnCurrentVersion_PushesVersionAndClearsContent() {
+        // Arrange
+        stubUpdateFirst(1);
+        DocumentVersion newVersion = version(VERSION_COUNT);
+        largeDocument.setCurrentVersion(VERSION_COUNT);
+
+        // Act
+        boolean result = documentRepository.addVersion(largeDocument, VERSION_COUNT - 1, newVersion, true);
+
+        // Assert
+        assertTrue(result);
+        verify(mongoTemplate).updateFirst(queryCaptor.capture(), updateCaptor.capture(), eq(DocumentInformation.class));
+        assertEquals(new Document("_id", DOCUMENT_ID).append("current_version", VERSION_COUNT - 1), mappedQuery(queryCaptor.getValue()));
+
+        Document update = mappedUpdate(updateCaptor.getValue());
+        assertEquals(VERSION_COUNT, update.get("$set", Document.class).get("current_version"));
+        assertFalse(update.get("$set", Document.class).containsKey("content"));
+        assertFalse(update.get("$set", Document.class).containsKey("versions"));
+        assertEquals(VERSION_COUNT, update.get("$push", Document.class).get("versions", Document.class).get("version_number"));
+        assertTrue(update.get("$unset", Document.class).containsKey("content"));
+    }
+
+    @Test
+    void addVersion_KeepContent_DoesNotUnset() {
+        // Arrange
+        stubUpdateFirst(0);
+
+        // Act
+        boolean result = documentRepository.addVersion(largeDocument, VERSION_COUNT - 1, version(VERSION_COUNT), false);
+
+        // Assert
+        assertFalse(result);
+        verify(mongoTemplate).updateFirst(any(Query.class), updateCaptor.capture(), eq(DocumentInformation.class));
+        assertFalse(mappedUpdate(updateCaptor.getValue()).containsKey("$unset"));
+    }
+
+    @Test
+    void fieldLevelWrites_TransferFractionOfFullDocument() {
+        // Arrange - a favorite toggle used to read and rewrite the whole document
+        stubUpdateFirst(1);
+        Document fullDocument = new Document();
+        converter.write(largeDocument, fullDocument);
+        long fullRoundTrip = 2L * bsonSize(fullDocument);
+
+        Document summary = new Document(fullDocument);
+        summary.remove("content");
+        summary.remove("versions");
+
+        // Act
+        documentRepository.incrementFavoriteCount(DOCUMENT_ID, 1);
+
+        // Assert
+        verify(mongoTemplate).updateFirst(queryCaptor.capture(), updateCaptor.capture(), eq(DocumentInformation.class));
+        long fieldLevelRoundTrip = bsonSize(summary) + bsonSize(mappedQuery(queryCaptor.getValue()))
+                + bsonSize(mappedUpdate(updateCaptor.getValue()));
+        assertTrue(fullRoundTrip > CONTENT_SIZE * 2L);
+        assertTrue(fieldLevelRoundTrip * 100 < fullRoundTrip,
+                "field level " + fieldLevelRoundTrip + " bytes vs full document " + fullRoundTrip + " bytes");
+    }
+
+    private void stubUpdateFirst(long matchedCount) {
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(DocumentInformation.class)))
+                .thenReturn(UpdateResult.acknowledged(matchedCount, matchedCount, null));
+    }
+
+    private Document mappedQuery(Query query) {
+        return new QueryMapper(converter).getMappedObject(query.getQueryObject(), entity);
+    }
+
+    private Document mappedUpdate(Update update) {
+        return new UpdateMapper(converter).getMappedObject(update.getUpdateObject(), entity);
+    }
+
+    private static int bsonSize(Document document) {
+        return new RawBsonDocument(document, new DocumentCodec()).getByteBuffer().remaining();
+    }
+
+    private static DocumentInformation largeDocument() {
+        List<DocumentVersion> versions = new ArrayList<>();
+        for (int i = 0; i < VERSION_COUNT; i++) {
+            versions.add(version(i));
+        }
+        return DocumentInformation.builder()
+                .id(DOCUMENT_ID)
+                .userId(USER_ID)
+                .status(DocumentStatus.COMPLETED)
+                .filename("lecture.pdf")
+                .filePath("documents/lecture.pdf")
+                .fileSize(4_096_000L)
+                .mimeType("application/pdf")
+                .documentType(DocumentType.PDF)
+                .summary("Lecture notes")
+                .majors(Set.of("SOFTWARE_ENGINEERING"))
+                .courseCodes(Set.of("SE101"))
+                .courseLevel("FUNDAMENTAL")
+                .categories(Set.of("LECTURE"))
+                .tags(Set.of("java", "spring"))
+                .sharingType(SharingType.PRIVATE)
+                .sharedWith(Set.of())
+                .currentVersion(VERSION_COUNT - 1)
+                .versions(versions)
+                .content("lorem ipsum ".repeat(CONTENT_SIZE / 12))
+                .language("en")
+                .favoriteCount(3)
+                .recommendationCount(1)
+                .createdAt(Instant.now())
+                .createdBy("owner")
+                .build();
+    }
+
+    private static DocumentVersion version(int versionNumber) {
+        return DocumentVersion.builder()
+                .versionNumber(versionNumber)
+                .filePath("documents/lecture-v" + versionNumber + ".pdf")
+                .filename("lecture.pdf")
+                .fileSize(4_096_000L)
+                .mimeType("application/pdf")
+                .documentType(DocumentType.PDF)
+                .status(DocumentStatus.COMPLETED)
+                .extractedMetadata(Map.of("Author", "Owner", "Page-Count", "120"))
+                .createdBy("owner")
+                .createdAt(Instant.now())
+                .build();
+    }
+}
@@ -0,0 +1,146 @@
+package com.dms.document.interaction.repository;
+
+import com.dms.document.interaction.enums.UserDocumentActionType;
+import com.dms.document.interaction.model.DocumentStats;
+import com.dms.document.interaction.model.DocumentUserHistory;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.convert.UpdateMapper;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Instant;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Checks the bulk updates sent to MongoDB after field name mapping.
+ */
+@ExtendWith(MockitoExtension.class)
+class DocumentStatsRepositoryCustomImplTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private BulkOperations bulkOperations;
+
+    @Captor
+    private ArgumentCaptor<Query> queryCaptor;
+
+    @Captor
+    private ArgumentCaptor<Update> updateCaptor;
+
+    private DocumentStatsRepositoryCustomImpl documentStatsRepository;
+    private MappingMongoConverter converter;
+    private MongoPersistentEntity<?> entity;
+
+    @BeforeEach
+    void setUp() {
+        MongoCustomConversions conversions = new MongoCustomConversions(List.of());
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+        entity = mappingContext.getRequiredPersistentEntity(DocumentStats.class);
+
+        documentStatsRepository = new DocumentStatsRepositoryCustomImpl(mongoTemplate);
+    }
+
+    @Test
+    void incrementCounts_OneUpsertPerDocumentDay() {
+        // Arrange
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, DocumentStats.class)).thenReturn(bulkOperations);
+        List<DocumentUserHistory> histories = List.of(
+                history("doc1", UserDocumentActionType.VIEW_DOCUMENT, "2025-03-10T08:00:00Z"),
+                history("doc1", UserDocumentActionType.VIEW_DOCUMENT, "2025-03-10T23:59:59Z"),
+                history("doc1", UserDocumentActionType.COMMENT, "2025-03-10T12:00:00Z"),
+                history("doc1", UserDocumentActionType.VIEW_DOCUMENT, "2025-03-11T00:00:00Z"),
+                history(null, UserDocumentActionType.VIEW_DOCUMENT, "2025-03-10T08:00:00Z"));
+
+        // Act
+        documentStatsRepository.incrementCounts(histories);
+
+        // Assert
+        verify(bulkOperations, times(2)).upsert(queryCaptor.capture(), updateCaptor.capture());
+        verify(bulkOperations).execute();
+        int first = mappedQuery(queryCaptor.getAllValues().get(0)).get("_id").equals("doc1:2025-03-10") ? 0 : 1;
+
+        assertEquals(new Document("_id", "doc1:2025-03-10"), mappedQuery(queryCaptor.getAllValues().get(first)));
+        Document update = mappedUpdate(updateCaptor.getAllValues().get(first));
+        assertEquals(new Document("action_counts.VIEW_DOCUMENT", 2).append("action_counts.COMMENT", 1), update.get("$inc"));
+        Document onInsert = update.get("$setOnInsert", Document.class);
+        assertEquals("doc1", onInsert.get("document_id"));
+        assertEquals(Date.from(Instant.parse("2025-03-10T00:00:00Z")), onInsert.get("day"));
+    }
+
+    @Test
+    void incrementCounts_NothingToCount_SkipsWrite() {
+        // Act
+        documentStatsRepository.incrementCounts(List.of(history("doc1", null, "2025-03-10T08:00:00Z")));
+
+        // Assert
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    @Test
+    void replaceCounts_RemovesStaleBucketsBeforeCutoff() {
+        // Arrange
+        Instant before = Instant.parse("2025-03-12T00:00:00Z");
+        DocumentStats bucket = DocumentStats.builder()
+                .id("doc1:2025-03-10")
+                .documentId("doc1")
+                .day(Instant.parse("2025-03-10T00:00:00Z"))
+                .actionCounts(Map.of("SHARE", 2))
+                .build();
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, DocumentStats.class)).thenReturn(bulkOperations);
+
+        // Act
+        documentStatsRepository.replaceCounts(List.of("doc1", "doc2"), List.of(bucket), before);
+
+        // Assert
+        verify(bulkOperations).upsert(any(Query.class), updateCaptor.capture());
+        assertEquals(Map.of("SHARE", 2),
+                mappedUpdate(updateCaptor.getValue()).get("$set", Document.class).get("action_counts"));
+        verify(mongoTemplate).remove(queryCaptor.capture(), eq(DocumentStats.class));
+        Document stale = mappedQuery(queryCaptor.getValue());
+        assertEquals(new Document("$in", List.of("doc1", "doc2")), stale.get("document_id"));
+        assertEquals(new Document("$lt", Date.from(before)), stale.get("day"));
+        assertEquals(new Document("$nin", List.of("doc1:2025-03-10")), stale.get("_id"));
+    }
+
+    private Document mappedQuery(Query query) {
+        return new QueryMapper(converter).getMappedObject(query.getQueryObject(), entity);
+    }
+
+    private Document mappedUpdate(Update update) {
+        return new UpdateMapper(converter).getMappedObject(update.getUpdateObject(), entity);
+    }
+
+    private static DocumentUserHistory history(String documentId, UserDocumentActionType actionType, String createdAt) {
+        return DocumentUserHistory.builder()
+                .userId("user1")
+                .documentId(documentId)
+                .userDocumentActionType(actionType)
+                .createdAt(Instant.parse(createdAt))
+                .build();
+    }
+}
@@ -0,0 +1,271 @@
+package com.dms.document.interaction.repository;
+
+import com.dms.document.interaction.client.UserClient;
+import com.dms.document.interaction.config.MongoIndexInitializer;
+import com.dms.document.interaction.dto.UserResponse;
+import com.dms.document.interaction.enums.DocumentType;
+import com.dms.document.interaction.enums.InteractionType;
+import com.dms.document.interaction.enums.UserDocumentActionType;
+import com.dms.document.interaction.model.*;
+import com.dms.document.interaction.service.impl.DocumentHistoryServiceImpl;
+import com.dms.document.interaction.service.impl.DocumentStatsServiceImpl;
+import com.dms.document.interaction.utils.HistorySearchTerms;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.client.model.Filters;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.SimpleMongoClientDatabaseFactory;
+import org.springframework.data.mongodb.core.convert.DefaultDbRefResolver;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.repository.support.MongoRepositoryFactory;
+import org.springframework.data.repository.core.support.RepositoryComposition.RepositoryFragments;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs the repository queries against a MongoDB with the indexes created by {@link MongoIndexInitializer} and fails
+ * when the database profiler records a collection scan for any of them. Skipped when Docker is not available.
+ */
+class MongoQueryPlanTest {
+    private static final String DATABASE = "dms_query_plans";
+    private static final UUID USER_ID = UUID.randomUUID();
+    private static final int USERS = 20;
+    private static final int DOCUMENTS = 50;
+
+    private static MongoDBContainer mongo;
+    private static MongoClient client;
+    private static MongoTemplate mongoTemplate;
+    private static DocumentRepository documentRepository;
+    private static DocumentInteractionRepository documentInteractionRepository;
+    private static DocumentPreferencesRepository documentPreferencesRepository;
+    private static DocumentUserHistoryRepository documentUserHistoryRepository;
+    private static DocumentStatsRepository documentStatsRepository;
+    private static DocumentHistoryServiceImpl documentHistoryService;
+
+    @BeforeAll
+    static void startMongo() {
+        assumeTrue(DockerClientFactory.instance().isDockerAvailable(), "Docker is not available");
+        mongo = new MongoDBContainer(DockerImageName.parse("mongo:7.0"));
+        mongo.start();
+        client = MongoClients.create(mongo.getConnectionString());
+
+        MongoCustomConversions conversions = new MongoCustomConversions(List.of());
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        mappingContext.setInitialEntitySet(Set.of(DocumentInformation.class, DocumentInteraction.class,
+                DocumentPreferences.class, DocumentUserHistory.class, DocumentStats.class, DocumentContent.class, MasterData.class));
+        mappingContext.initialize();
+        MongoDatabaseFactory databaseFactory = new SimpleMongoClientDatabaseFactory(client, DATABASE);
+        MappingMongoConverter converter = new MappingMongoConverter(new DefaultDbRefResolver(databaseFactory), mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+        mongoTemplate = new MongoTemplate(databaseFactory, converter);
+
+        assertEquals(0, new MongoIndexInitializer(mongoTemplate).ensureIndexes());
+
+        MongoRepositoryFactory repositoryFactory = new MongoRepositoryFactory(mongoTemplate);
+        documentRepository = repositoryFactory.getRepository(DocumentRepository.class,
+                RepositoryFragments.just(new DocumentRepositoryCustomImpl(mongoTemplate)));
+        documentInteractionRepository = repositoryFactory.getRepository(DocumentInteractionRepository.class,
+                RepositoryFragments.just(new DocumentInteractionRepositoryCustomImpl(mongoTemplate)));
+        documentPreferencesRepository = repositoryFactory.getRepository(DocumentPreferencesRepository.class,
+                RepositoryFragments.just(new DocumentPreferencesRepositoryCustomImpl(mongoTemplate)));
+        documentUserHistoryRepository = repositoryFactory.getRepository(DocumentUserHistoryRepository.class,
+                RepositoryFragments.just(new DocumentUserHistoryRepositoryCustomImpl(mongoTemplate)));
+        documentStatsRepository = repositoryFactory.getRepository(DocumentStatsRepository.class,
+                RepositoryFragments.just(new DocumentStatsRepositoryCustomImpl(mongoTemplate)));
+
+        UserClient userClient = mock(UserClient.class);
+        when(userClient.getUserByUsername("reader"))
+                .thenReturn(ResponseEntity.ok(new UserResponse(USER_ID, "reader", "reader@example.com", null)));
+        documentHistoryService = new DocumentHistoryServiceImpl(
+                mongoTemplate, documentUserHistoryRepository, documentRepository,
+                new DocumentStatsServiceImpl(documentStatsRepository, documentRepository), userClient);
+        ReflectionTestUtils.setField(documentHistoryService, "maxSearchMatches", 1000);
+
+        seed();
+    }
+
+    @AfterAll
+    static void stopMongo() {
+        if (client != null) {
+            client.close();
+        }
+        if (mongo != null) {
+            mongo.stop();
+        }
+    }
+
+    @BeforeEach
+    void startProfiler() {
+        mongoTemplate.getDb().runCommand(new Document("profile", 0));
+        mongoTemplate.getDb().getCollection("system.profile").drop();
+        mongoTemplate.getDb().runCommand(new Document("profile", 2));
+    }
+
+    @Test
+    void userHistoryQueries_UseIndexes() {
+        // Act
+        Instant now = Instant.now();
+        documentHistoryService.getUserHistory("reader", null, null, null, null, PageRequest.of(0, 10));
+        documentHistoryService.getUserHistory("reader", UserDocumentActionType.VIEW_DOCUMENT,
+                now.minus(7, ChronoUnit.DAYS), now, null, PageRequest.of(1, 5));
+        documentHistoryService.getUserHistory("reader", null, now.minus(1, ChronoUnit.DAYS), null, null, PageRequest.of(0, 10));
+        documentHistoryService.getUserHistory("reader", null, null, null, "document-1", PageRequest.of(0, 10));
+        documentHistoryService.getDocumentStatistics(documentId(1), null);
+        documentHistoryService.getDocumentStatistics(documentId(1), now.minus(7, ChronoUnit.DAYS));
+        List<DocumentStats> buckets = documentStatsRepository.aggregateDailyCounts(List.of(documentId(1), documentId(2)), now);
+        documentStatsRepository.replaceCounts(List.of(documentId(1), documentId(2)), buckets, now);
+
+        // Assert
+        assertNoCollectionScan();
+    }
+
+    @Test
+    void interactionQueries_UseIndexes() {
+        // Act
+        Date since = Date.from(Instant.now().minus(30, ChronoUnit.DAYS));
+        documentInteractionRepository.findByUserIdAndDocumentId(USER_ID.toString(), documentId(1));
+        documentInteractionRepository.findRecentInteractions(USER_ID.toString(), since);
+        documentInteractionRepository.getAggregatedStats(USER_ID.toString(), since);
+        documentInteractionRepository.incrementInteraction(USER_ID.toString(), documentId(2), InteractionType.VIEW, Instant.now());
+        documentInteractionRepository.findByUserIdIn(List.of(USER_ID.toString(), userId(1)));
+
+        // Assert
+        assertNoCollectionScan();
+    }
+
+    @Test
+    void documentQueries_UseIndexes() {
+        // Act
+        documentRepository.findByUserIdAndNotDeleted(USER_ID.toString());
+        documentRepository.findAccessibleDocumentByIdAndUserId(documentId(1), USER_ID.toString());
+        documentRepository.findPreferenceAttributesByIdIn(List.of(documentId(1), documentId(2)));
+        documentRepository.existsByMajorCode("CS");
+        documentRepository.existsByCourseCode("CS101");
+        documentRepository.existsByCourseLevelCode("INTERMEDIATE");
+        documentRepository.existsByCategoryCode("PROGRAMMING");
+        documentRepository.findCountersAfter(documentId(10), 10);
+
+        // Assert
+        assertNoCollectionScan();
+    }
+
+    @Test
+    void preferenceQueries_UseIndexes() {
+        // Act
+        DocumentInformation document = documentRepository.findSummaryById(documentId(3)).orElseThrow();
+        documentPreferencesRepository.findByUserId(USER_ID.toString());
+        documentPreferencesRepository.incrementInteractionCounts(USER_ID.toString(), document,
+                DocumentType.PDF.name(), 1.0, document.getId(), Instant.now());
+        documentPreferencesRepository.updateRecentAndWeights(USER_ID.toString(), document.getId(), 50, Map.of());
+        documentPreferencesRepository.findUserIdsAfter(null, 10);
+
+        // Assert
+        assertNoCollectionScan();
+    }
+
+    private static void assertNoCollectionScan() {
+        mongoTemplate.getDb().runCommand(new Document("profile", 0));
+        List<Document> profiled = mongoTemplate.getDb().getCollection("system.profile")
+                .find(Filters.and(Filters.exists("planSummary"), Filters.regex("ns", "^" + DATABASE + "\\.(?!system\\.)")))
+                .into(new ArrayList<>());
+
+        assertFalse(profiled.isEmpty(), "No queries were profiled");
+        List<String> collectionScans = profiled.stream()
+                .filter(entry -> entry.getString("planSummary").contains("COLLSCAN"))
+                .map(entry -> entry.getString("ns") + " " + entry.get("command"))
+                .toList();
+        assertTrue(collectionScans.isEmpty(), "Queries without a usable index: " + collectionScans);
+    }
+
+    private static void seed() {
+        Instant now = Instant.now();
+        List<DocumentInformation> documents = new ArrayList<>();
+        List<DocumentUserHistory> histories = new ArrayList<>();
+        List<DocumentInteraction> interactions = new ArrayList<>();
+        List<DocumentPreferences> preferences = new ArrayList<>();
+        UserDocumentActionType[] actionTypes = UserDocumentActionType.values();
+
+        for (int i = 0; i < DOCUMENTS; i++) {
+            documents.add(DocumentInformation.builder()
+                    .id(documentId(i))
+                    .filename("document-" + i + ".pdf")
+                    .documentType(DocumentType.PDF)
+                    .userId(i % 2 == 0 ? USER_ID.toString() : userId(i % USERS))
+                    .majors(Set.of(i % 3 == 0 ? "CS" : "MATH"))
+                    .courseCodes(Set.of("CS" + (100 + i % 5)))
+                    .courseLevel(i % 2 == 0 ? "INTERMEDIATE" : "BEGINNER")
+                    .categories(Set.of("PROGRAMMING"))
+                    .tags(Set.of("java"))
+                    .deleted(i % 10 == 0)
+                    .createdAt(now.minus(i, ChronoUnit.DAYS))
+                    .build());
+        }
+
+        for (int user = 0; user <= USERS; user++) {
+            String userId = user == USERS ? USER_ID.toString() : userId(user);
+            for (int i = 0; i < DOCUMENTS; i++) {
+                histories.add(DocumentUserHistory.builder()
+                        .userId(userId)
+                        .documentId(documentId(i))
+                        .documentName("document-" + i + ".pdf")
+                        .searchTerms(HistorySearchTerms.of("document-" + i + ".pdf", "seed"))
+                        .userDocumentActionType(actionTypes[i % actionTypes.length])
+                        .detail("seed")
+                        .createdAt(now.minus(i, ChronoUnit.HOURS))
+                        .build());
+            }
+            for (int i = 0; i < 5; i++) {
+                DocumentInteraction interaction = new DocumentInteraction();
+                interaction.setUserId(userId);
+                interaction.setDocumentId(documentId(i));
+                DocumentInteraction.InteractionStats stats = new DocumentInteraction.InteractionStats();
+                stats.setCount(i + 1);
+                stats.setLastUpdate(now.minus(i, ChronoUnit.DAYS));
+                interaction.setInteractions(new HashMap<>(Map.of(InteractionType.VIEW.name(), stats)));
+                interaction.setFirstInteractionDate(now.minus(60, ChronoUnit.DAYS));
+                interaction.setLastInteractionDate(now.minus(i * 10L, ChronoUnit.DAYS));
+                interactions.add(interaction);
+            }
+            DocumentPreferences userPreferences = new DocumentPreferences();
+            userPreferences.setUserId(userId);
+            userPreferences.setCreatedAt(now);
+            preferences.add(userPreferences);
+        }
+
+        mongoTemplate.insert(documents, DocumentInformation.class);
+        mongoTemplate.insert(histories, DocumentUserHistory.class);
+        mongoTemplate.insert(interactions, DocumentInteraction.class);
+        mongoTemplate.insert(preferences, DocumentPreferences.class);
+    }
+
+    private static String documentId(int index) {
+        return String.format("doc-%04d", index);
+    }
+
+    private static String userId(int index) {
+        return new UUID(0, index).toString();
+    }
+}
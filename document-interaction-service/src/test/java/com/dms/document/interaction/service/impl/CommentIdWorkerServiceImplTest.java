@@ -0,0 +1,160 @@
+package com.dms.document.interaction.service.impl;
+
+import com.dms.document.interaction.model.DocumentComment;
+import com.dms.document.interaction.utils.CommentIdGenerator;
+import com.dms.document.interaction.utils.SnowflakeIdGenerator;
+import org.hibernate.id.IdentifierGenerationException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CommentIdWorkerServiceImplTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @InjectMocks
+    private CommentIdWorkerServiceImpl commentIdWorkerService;
+
+    private final CommentIdGenerator commentIdGenerator = new CommentIdGenerator();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(commentIdWorkerService, "configuredWorkerId", -1);
+        ReflectionTestUtils.setField(commentIdWorkerService, "leaseTtl", Duration.ofMinutes(5));
+        ReflectionTestUtils.setField(commentIdWorkerService, "maxClockRollback", Duration.ofSeconds(5));
+    }
+
+    @AfterEach
+    void tearDown() {
+        CommentIdGenerator.use(null);
+    }
+
+    @Test
+    void assignWorker_ConfiguredWorkerId_SkipsLease() {
+        // Arrange
+        ReflectionTestUtils.setField(commentIdWorkerService, "configuredWorkerId", 7);
+
+        // Act
+        commentIdWorkerService.assignWorker();
+        commentIdWorkerService.renewLease();
+
+        // Assert
+        assertEquals(7, workerIdOf(nextCommentId()));
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void assignWorker_FreeWorker_GeneratesWithLeasedId() {
+        // Arrange
+        stubAcquire(List.of(12));
+
+        // Act
+        commentIdWorkerService.assignWorker();
+
+        // Assert
+        assertEquals(12, workerIdOf(nextCommentId()));
+    }
+
+    @Test
+    void assignWorker_NoFreeWorker_Throws() {
+        // Arrange
+        stubAcquire(Collections.emptyList());
+
+        // Act & Assert
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+                () -> commentIdWorkerService.assignWorker());
+        assertEquals("No free comment id worker", exception.getMessage());
+    }
+
+    @Test
+    void renewLease_LeaseTakenOver_LeasesAnotherWorker() {
+        // Arrange
+        stubAcquire(List.of(12), List.of(13));
+        commentIdWorkerService.assignWorker();
+        when(jdbcTemplate.update(anyString(), eq(300L), eq(12), anyString())).thenReturn(0);
+
+        // Act
+        commentIdWorkerService.renewLease();
+
+        // Assert
+        assertEquals(13, workerIdOf(nextCommentId()));
+    }
+
+    @Test
+    void renewLease_DatabaseDownBeforeDeadline_KeepsGenerating() {
+        // Arrange
+        stubAcquire(List.of(12));
+        commentIdWorkerService.assignWorker();
+        when(jdbcTemplate.update(anyString(), eq(300L), eq(12), anyString()))
+                .thenThrow(new DataAccessResourceFailureException("down"));
+
+        // Act
+        commentIdWorkerService.renewLease();
+
+        // Assert
+        assertEquals(12, workerIdOf(nextCommentId()));
+    }
+
+    @Test
+    void renewLease_DatabaseDownPastDeadline_StopsGenerating() {
+        // Arrange
+        stubAcquire(List.of(12));
+        commentIdWorkerService.assignWorker();
+        ReflectionTestUtils.setField(commentIdWorkerService, "leaseDeadline", Instant.now().minusSeconds(1));
+        when(jdbcTemplate.update(anyString(), eq(300L), eq(12), anyString()))
+                .thenThrow(new DataAccessResourceFailureException("down"));
+
+        // Act
+        commentIdWorkerService.renewLease();
+
+        // Assert
+        assertThrows(IdentifierGenerationException.class, this::nextCommentId);
+    }
+
+    @Test
+    void releaseLease_GivesWorkerBack() {
+        // Arrange
+        stubAcquire(List.of(12));
+        commentIdWorkerService.assignWorker();
+
+        // Act
+        commentIdWorkerService.releaseLease();
+
+        // Assert
+        verify(jdbcTemplate).update(contains("instance_id = NULL"), eq(12), anyString());
+        assertThrows(IdentifierGenerationException.class, this::nextCommentId);
+    }
+
+    @SafeVarargs
+    @SuppressWarnings("unchecked")
+    private void stubAcquire(List<Integer> first, List<Integer>... next) {
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), anyString(), eq(300L))).thenReturn(first, next);
+    }
+
+    private long nextCommentId() {
+        return (Long) commentIdGenerator.generate(null, new DocumentComment());
+    }
+
+    private static int workerIdOf(long id) {
+        return (int) (id >>> SnowflakeIdGenerator.SEQUENCE_BITS) & SnowflakeIdGenerator.MAX_WORKER_ID;
+    }
+}
@@ -13,6 +13,7 @@ import com.dms.document.interaction.model.Translation;
 import com.dms.document.interaction.model.projection.CommentReportProjection;
 import com.dms.document.interaction.repository.CommentReportRepository;
 import com.dms.document.interaction.repository.DocumentCommentRepository;
+import com.dms.document.interaction.repository.DocumentRepository;
 import com.dms.document.interaction.repository.MasterDataRepository;
 import com.dms.document.interaction.service.DocumentNotificationService;
 import jakarta.persistence.EntityNotFoundException;
@@ -50,6 +51,9 @@ public class CommentReportServiceImplTest {
     @Mock
     private DocumentCommentRepository documentCommentRepository;
 
+    @Mock
+    private DocumentRepository documentRepository;
+
     @Mock
     private MasterDataRepository masterDataRepository;
 
@@ -103,6 +107,7 @@ public class CommentReportServiceImplTest {
         comment.setUserId(UUID.randomUUID());
         comment.setContent("Test comment");
         comment.setCreatedAt(Instant.now());
+        comment.setFlag(1);
 
         // Setup report
         report = new CommentReport();
@@ -359,6 +364,7 @@ public class CommentReportServiceImplTest {
                 dc.getContent().equals("[deleted]") &&
                 dc.getFlag() == -1
         ));
+        verify(documentRepository).incrementCommentCount(documentId, -1);
 
         // Verify notification was triggered (via CompletableFuture)
         verify(documentNotificationService, timeout(1000)).sendCommentReportResolvedNotification(
@@ -415,6 +421,7 @@ public class CommentReportServiceImplTest {
         verify(documentCommentRepository).save(argThat(dc ->
                 dc.getFlag() == 1
         ));
+        verify(documentRepository, never()).incrementCommentCount(anyString(), anyInt());
 
         // Verify notification was triggered
         verify(documentNotificationService, timeout(1000)).sendCommentReportResolvedNotification(
@@ -1,6 +1,7 @@
 package com.dms.document.interaction.service.impl;
 
 import com.dms.document.interaction.client.UserClient;
+import com.dms.document.interaction.dto.CommentPageResponse;
 import com.dms.document.interaction.dto.CommentRequest;
 import com.dms.document.interaction.dto.CommentResponse;
 import com.dms.document.interaction.dto.RoleResponse;
@@ -13,9 +14,9 @@ import com.dms.document.interaction.model.DocumentInformation;
 import com.dms.document.interaction.repository.CommentReportRepository;
 import com.dms.document.interaction.repository.DocumentCommentRepository;
 import com.dms.document.interaction.repository.DocumentRepository;
-import com.dms.document.interaction.repository.DocumentUserHistoryRepository;
 import com.dms.document.interaction.service.DocumentNotificationService;
 import com.dms.document.interaction.service.DocumentPreferencesService;
+import com.dms.document.interaction.service.DocumentUserHistoryWriter;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -25,9 +26,6 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.dao.InvalidDataAccessResourceUsageException;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
-import org.springframework.data.domain.Pageable;
 import org.springframework.http.ResponseEntity;
 
 import java.time.Instant;
@@ -56,7 +54,7 @@ public class DocumentCommentServiceImplTest {
     private DocumentPreferencesService documentPreferencesService;
 
     @Mock
-    private DocumentUserHistoryRepository documentUserHistoryRepository;
+    private DocumentUserHistoryWriter documentUserHistoryWriter;
 
     @Mock
     private CommentReportRepository commentReportRepository;
@@ -82,6 +80,7 @@ public class DocumentCommentServiceImplTest {
                 .id(DOCUMENT_ID)
                 .userId(USER_ID.toString())
                 .currentVersion(1)
+                .commentCount(1)
                 .build();
 
         documentComment = new DocumentComment();
@@ -97,56 +96,96 @@ public class DocumentCommentServiceImplTest {
     @Test
     void getDocumentComments_Success() {
         // Arrange
-        Pageable pageable = Pageable.ofSize(10);
-        List<DocumentComment> comments = Collections.singletonList(documentComment);
-        Page<DocumentComment> commentPage = new PageImpl<>(comments, pageable, 1);
-
         when(userClient.getUserByUsername(USERNAME)).thenReturn(ResponseEntity.ok(userResponse));
         when(documentRepository.findAccessibleDocumentByIdAndUserId(DOCUMENT_ID, USER_ID.toString()))
                 .thenReturn(Optional.of(documentInformation));
-        when(documentCommentRepository.findCommentsWithReplies(eq(DOCUMENT_ID), any(Pageable.class)))
-                .thenReturn(commentPage);
+        when(documentCommentRepository.findFirstRootComments(DOCUMENT_ID, 11))
+                .thenReturn(List.of(documentComment));
+        when(documentCommentRepository.findRepliesByRootIds(List.of(1L))).thenReturn(Collections.emptyList());
         when(userClient.getUsersByIds(anyList())).thenReturn(ResponseEntity.ok(List.of(userResponse)));
         when(commentReportRepository.findReportsByUserAndDocument(USER_ID, DOCUMENT_ID, false))
                 .thenReturn(Collections.emptyList());
 
         // Act
-        Page<CommentResponse> result = documentCommentService.getDocumentComments(DOCUMENT_ID, pageable, USERNAME);
+        CommentPageResponse result = documentCommentService.getDocumentComments(DOCUMENT_ID, null, 10, USERNAME);
 
         // Assert
         assertNotNull(result);
-        assertEquals(1, result.getTotalElements());
-        assertEquals(1, result.getContent().size());
-        assertEquals(documentComment.getContent(), result.getContent().get(0).getContent());
+        assertEquals(1, result.totalComments());
+        assertEquals(1, result.comments().size());
+        assertEquals(documentComment.getContent(), result.comments().get(0).getContent());
+        assertNull(result.nextCursor());
 
         verify(documentRepository).findAccessibleDocumentByIdAndUserId(DOCUMENT_ID, USER_ID.toString());
-        verify(documentCommentRepository).findCommentsWithReplies(eq(DOCUMENT_ID), eq(pageable));
+        verify(documentCommentRepository, never()).countByDocumentIdAndFlag(anyString(), anyInt());
     }
 
     @Test
-    void getDocumentComments_DocumentNotFound() {
+    void getDocumentComments_NestsRepliesAndPagesByCursor() {
         // Arrange
-        Pageable pageable = Pageable.ofSize(10);
+        DocumentComment olderRoot = comment(5L, null, null, documentComment.getCreatedAt().minusSeconds(60));
+        DocumentComment reply = comment(2L, 1L, 1L, documentComment.getCreatedAt().plusSeconds(1));
+        DocumentComment nestedReply = comment(3L, 2L, 1L, documentComment.getCreatedAt().plusSeconds(2));
+        DocumentComment hiddenParentReply = comment(4L, 9L, 1L, documentComment.getCreatedAt().plusSeconds(3));
+        documentInformation.setCommentCount(null);
 
+        when(userClient.getUserByUsername(USERNAME)).thenReturn(ResponseEntity.ok(userResponse));
+        when(documentRepository.findAccessibleDocumentByIdAndUserId(DOCUMENT_ID, USER_ID.toString()))
+                .thenReturn(Optional.of(documentInformation));
+        when(documentCommentRepository.findFirstRootComments(DOCUMENT_ID, 2))
+                .thenReturn(List.of(documentComment, olderRoot));
+        when(documentCommentRepository.findRepliesByRootIds(List.of(1L)))
+                .thenReturn(List.of(reply, nestedReply, hiddenParentReply));
+        when(documentCommentRepository.countByDocumentIdAndFlag(DOCUMENT_ID, 1)).thenReturn(5L);
+        when(userClient.getUsersByIds(anyList())).thenReturn(ResponseEntity.ok(List.of(userResponse)));
+
+        // Act
+        CommentPageResponse firstPage = documentCommentService.getDocumentComments(DOCUMENT_ID, null, 1, USERNAME);
+        documentCommentService.getDocumentComments(DOCUMENT_ID, firstPage.nextCursor(), 1, USERNAME);
+
+        // Assert
+        assertEquals(1, firstPage.comments().size());
+        assertEquals(5, firstPage.totalComments());
+        CommentResponse root = firstPage.comments().get(0);
+        assertEquals(List.of(2L), root.getReplies().stream().map(CommentResponse::getId).toList());
+        assertEquals(List.of(3L), root.getReplies().get(0).getReplies().stream().map(CommentResponse::getId).toList());
+        assertNotNull(firstPage.nextCursor());
+        verify(documentCommentRepository).findRootCommentsBefore(DOCUMENT_ID, documentComment.getCreatedAt(), 1L, 2);
+    }
+
+    @Test
+    void getDocumentComments_InvalidCursor() {
+        // Arrange
+        when(userClient.getUserByUsername(USERNAME)).thenReturn(ResponseEntity.ok(userResponse));
+        when(documentRepository.findAccessibleDocumentByIdAndUserId(DOCUMENT_ID, USER_ID.toString()))
+                .thenReturn(Optional.of(documentInformation));
+
+        // Act & Assert
+        assertThrows(InvalidDocumentException.class, () ->
+                documentCommentService.getDocumentComments(DOCUMENT_ID, "not-a-cursor", 10, USERNAME)
+        );
+        verify(documentCommentRepository, never()).findRootCommentsBefore(anyString(), any(), anyLong(), anyInt());
+    }
+
+    @Test
+    void getDocumentComments_DocumentNotFound() {
+        // Arrange
         when(userClient.getUserByUsername(USERNAME)).thenReturn(ResponseEntity.ok(userResponse));
         when(documentRepository.findAccessibleDocumentByIdAndUserId(DOCUMENT_ID, USER_ID.toString()))
                 .thenReturn(Optional.empty());
 
         // Act & Assert
         assertThrows(InvalidDocumentException.class, () ->
-                documentCommentService.getDocumentComments(DOCUMENT_ID, pageable, USERNAME)
+                documentCommentService.getDocumentComments(DOCUMENT_ID, null, 10, USERNAME)
         );
 
         verify(documentRepository).findAccessibleDocumentByIdAndUserId(DOCUMENT_ID, USER_ID.toString());
-        verify(documentCommentRepository, never()).findCommentsWithReplies(anyString(), any(Pageable.class));
+        verify(documentCommentRepository, never()).findFirstRootComments(anyString(), anyInt());
     }
 
     @Test
     void getDocumentComments_WithReportedComments() {
         // Arrange
-        Pageable pageable = Pageable.ofSize(10);
-        List<DocumentComment> comments = Collections.singletonList(documentComment);
-        Page<DocumentComment> commentPage = new PageImpl<>(comments, pageable, 1);
 
         CommentReport report = new CommentReport();
         report.setCommentId(documentComment.getId());
@@ -155,20 +194,20 @@ public class DocumentCommentServiceImplTest {
         when(userClient.getUserByUsername(USERNAME)).thenReturn(ResponseEntity.ok(userResponse));
         when(documentRepository.findAccessibleDocumentByIdAndUserId(DOCUMENT_ID, USER_ID.toString()))
                 .thenReturn(Optional.of(documentInformation));
-        when(documentCommentRepository.findCommentsWithReplies(eq(DOCUMENT_ID), any(Pageable.class)))
-                .thenReturn(commentPage);
+        when(documentCommentRepository.findFirstRootComments(DOCUMENT_ID, 11))
+                .thenReturn(List.of(documentComment));
         when(userClient.getUsersByIds(anyList())).thenReturn(ResponseEntity.ok(List.of(userResponse)));
         when(commentReportRepository.findReportsByUserAndDocument(USER_ID, DOCUMENT_ID, false))
                 .thenReturn(reports);
 
         // Act
-        Page<CommentResponse> result = documentCommentService.getDocumentComments(DOCUMENT_ID, pageable, USERNAME);
+        CommentPageResponse result = documentCommentService.getDocumentComments(DOCUMENT_ID, null, 10, USERNAME);
 
         // Assert
         assertNotNull(result);
-        assertEquals(1, result.getTotalElements());
-        assertEquals(1, result.getContent().size());
-        assertTrue(result.getContent().get(0).isReportedByUser());
+        assertEquals(1, result.totalComments());
+        assertEquals(1, result.comments().size());
+        assertTrue(result.comments().get(0).isReportedByUser());
     }
 
     @Test
@@ -200,7 +239,35 @@ public class DocumentCommentServiceImplTest {
         assertEquals(USER_ID, savedComment.getUserId());
         assertEquals(request.content(), savedComment.getContent());
         assertEquals(request.parentId(), savedComment.getParentId());
+        assertNull(savedComment.getRootId());
         assertEquals(1, savedComment.getFlag());
+        verify(documentRepository).incrementCommentCount(DOCUMENT_ID, 1);
+    }
+
+    @Test
+    void createComment_Reply_InheritsRootId() {
+        // Arrange
+        DocumentComment nestedParent = comment(2L, 1L, 1L, Instant.now());
+
+        when(userClient.getUserByUsername(USERNAME)).thenReturn(ResponseEntity.ok(userResponse));
+        when(documentRepository.findAccessibleDocumentByIdAndUserId(DOCUMENT_ID, USER_ID.toString()))
+                .thenReturn(Optional.of(documentInformation));
+        when(documentCommentRepository.findById(1L)).thenReturn(Optional.of(documentComment));
+        when(documentCommentRepository.findById(2L)).thenReturn(Optional.of(nestedParent));
+        when(documentCommentRepository.save(any(DocumentComment.class))).thenAnswer(invocation -> {
+            DocumentComment saved = invocation.getArgument(0);
+            saved.setId(10L);
+            return saved;
+        });
+
+        // Act
+        documentCommentService.createComment(DOCUMENT_ID, new CommentRequest("Reply", 1L), USERNAME);
+        documentCommentService.createComment(DOCUMENT_ID, new CommentRequest("Nested reply", 2L), USERNAME);
+
+        // Assert - both replies belong to the thread of the top-level comment
+        ArgumentCaptor<DocumentComment> commentCaptor = ArgumentCaptor.forClass(DocumentComment.class);
+        verify(documentCommentRepository, times(2)).save(commentCaptor.capture());
+        assertEquals(List.of(1L, 1L), commentCaptor.getAllValues().stream().map(DocumentComment::getRootId).toList());
     }
 
     @Test
@@ -315,15 +382,16 @@ public class DocumentCommentServiceImplTest {
         when(documentCommentRepository.findByDocumentIdAndId(DOCUMENT_ID, commentId))
                 .thenReturn(Optional.of(documentComment));
         when(documentCommentRepository.findAllDescendantIds(commentId)).thenReturn(descendantIds);
-        doNothing().when(documentCommentRepository).markCommentsAsDeleted(descendantIds);
+        when(documentCommentRepository.markCommentsAsDeleted(descendantIds)).thenReturn(2);
 
         // Act
         documentCommentService.deleteComment(DOCUMENT_ID, commentId, USERNAME);
 
-        // Assert
+        // Assert - only the comments that were still visible leave the count
         verify(documentCommentRepository).findByDocumentIdAndId(DOCUMENT_ID, commentId);
         verify(documentCommentRepository).findAllDescendantIds(commentId);
         verify(documentCommentRepository).markCommentsAsDeleted(descendantIds);
+        verify(documentRepository).incrementCommentCount(DOCUMENT_ID, -2);
     }
 
     @Test
@@ -366,16 +434,13 @@ public class DocumentCommentServiceImplTest {
 
         // Act & Assert
         assertThrows(InvalidDataAccessResourceUsageException.class, () ->
-                documentCommentService.getDocumentComments(DOCUMENT_ID, Pageable.ofSize(10), USERNAME)
+                documentCommentService.getDocumentComments(DOCUMENT_ID, null, 10, USERNAME)
         );
     }
 
     @Test
     void getDocumentComments_AdminAccess() {
         // Arrange
-        Pageable pageable = Pageable.ofSize(10);
-        List<DocumentComment> comments = Collections.singletonList(documentComment);
-        Page<DocumentComment> commentPage = new PageImpl<>(comments, pageable, 1);
 
         // Create admin user
         RoleResponse adminRole = new RoleResponse(UUID.randomUUID(), AppRole.ROLE_ADMIN);
@@ -384,20 +449,33 @@ public class DocumentCommentServiceImplTest {
         when(userClient.getUserByUsername("admin")).thenReturn(ResponseEntity.ok(adminUser));
         when(documentRepository.findAccessibleDocumentById(DOCUMENT_ID))
                 .thenReturn(Optional.of(documentInformation));
-        when(documentCommentRepository.findCommentsWithReplies(eq(DOCUMENT_ID), any(Pageable.class)))
-                .thenReturn(commentPage);
+        when(documentCommentRepository.findFirstRootComments(DOCUMENT_ID, 11))
+                .thenReturn(List.of(documentComment));
         when(userClient.getUsersByIds(anyList())).thenReturn(ResponseEntity.ok(List.of(userResponse)));
         when(commentReportRepository.findReportsByUserAndDocument(any(), eq(DOCUMENT_ID), eq(false)))
                 .thenReturn(Collections.emptyList());
 
         // Act
-        Page<CommentResponse> result = documentCommentService.getDocumentComments(DOCUMENT_ID, pageable, "admin");
+        CommentPageResponse result = documentCommentService.getDocumentComments(DOCUMENT_ID, null, 10, "admin");
 
         // Assert
         assertNotNull(result);
-        assertEquals(1, result.getTotalElements());
+        assertEquals(1, result.totalComments());
 
         // Verify admin path was used
         verify(documentRepository).findAccessibleDocumentById(DOCUMENT_ID);
     }
-}
\ No newline at end of file
+
+    private DocumentComment comment(Long id, Long parentId, Long rootId, Instant createdAt) {
+        DocumentComment comment = new DocumentComment();
+        comment.setId(id);
+        comment.setDocumentId(DOCUMENT_ID);
+        comment.setUserId(USER_ID);
+        comment.setContent("Comment " + id);
+        comment.setParentId(parentId);
+        comment.setRootId(rootId);
+        comment.setCreatedAt(createdAt);
+        comment.setFlag(1);
+        return comment;
+    }
+}
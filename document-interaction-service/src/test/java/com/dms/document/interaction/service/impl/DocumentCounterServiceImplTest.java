@@ -0,0 +1,144 @@
+package com.dms.document.interaction.service.impl;
+
+import com.dms.document.interaction.model.DocumentInformation;
+import com.dms.document.interaction.model.projection.DocumentCountProjection;
+import com.dms.document.interaction.repository.DocumentCommentRepository;
+import com.dms.document.interaction.repository.DocumentFavoriteRepository;
+import com.dms.document.interaction.repository.DocumentRecommendationRepository;
+import com.dms.document.interaction.repository.DocumentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DocumentCounterServiceImplTest {
+
+    @Mock
+    private DocumentRepository documentRepository;
+
+    @Mock
+    private DocumentFavoriteRepository documentFavoriteRepository;
+
+    @Mock
+    private DocumentRecommendationRepository documentRecommendationRepository;
+
+    @Mock
+    private DocumentCommentRepository documentCommentRepository;
+
+    @InjectMocks
+    private DocumentCounterServiceImpl documentCounterService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(documentCounterService, "batchSize", 2);
+    }
+
+    @Test
+    void reconcileCounters_CorrectsDriftedDocuments() {
+        // Arrange
+        when(documentRepository.findCountersAfter(null, 2)).thenReturn(List.of(
+                counters("doc1", 3, 1, 4),
+                counters("doc2", 0, 0, 0)));
+        when(documentFavoriteRepository.countByDocumentIds(List.of("doc1", "doc2")))
+                .thenReturn(List.of(count("doc1", 2L)));
+        when(documentRecommendationRepository.countByDocumentIds(List.of("doc1", "doc2")))
+                .thenReturn(List.of(count("doc1", 1L)));
+        when(documentCommentRepository.countByDocumentIds(List.of("doc1", "doc2")))
+                .thenReturn(List.of(count("doc1", 4L)));
+        when(documentRepository.replaceCounters("doc1", 3, 1, 4, 2, 1, 4)).thenReturn(true);
+        when(documentRepository.findCountersAfter("doc2", 2)).thenReturn(List.of());
+
+        // Act
+        int corrected = documentCounterService.reconcileCounters();
+
+        // Assert
+        assertEquals(1, corrected);
+        verify(documentRepository, never()).replaceCounters(eq("doc2"), any(), any(), any(), anyInt(), anyInt(), anyInt());
+    }
+
+    @Test
+    void reconcileCounters_MissingCounters_SetToRowCounts() {
+        // Arrange
+        when(documentRepository.findCountersAfter(null, 2)).thenReturn(List.of(counters("doc1", null, null, null)));
+        when(documentFavoriteRepository.countByDocumentIds(List.of("doc1"))).thenReturn(List.of());
+        when(documentRecommendationRepository.countByDocumentIds(List.of("doc1"))).thenReturn(List.of());
+        when(documentCommentRepository.countByDocumentIds(List.of("doc1"))).thenReturn(List.of(count("doc1", 2L)));
+        when(documentRepository.replaceCounters("doc1", null, null, null, 0, 0, 2)).thenReturn(true);
+
+        // Act
+        int corrected = documentCounterService.reconcileCounters();
+
+        // Assert - a short batch is the last one
+        assertEquals(1, corrected);
+        verify(documentRepository, times(1)).findCountersAfter(any(), anyInt());
+    }
+
+    @Test
+    void reconcileCounters_ConcurrentToggle_NotCounted() {
+        // Arrange
+        when(documentRepository.findCountersAfter(null, 2)).thenReturn(List.of(counters("doc1", 4, 0, 0)));
+        when(documentFavoriteRepository.countByDocumentIds(List.of("doc1"))).thenReturn(List.of(count("doc1", 5L)));
+        when(documentRecommendationRepository.countByDocumentIds(List.of("doc1"))).thenReturn(List.of());
+        when(documentCommentRepository.countByDocumentIds(List.of("doc1"))).thenReturn(List.of());
+        when(documentRepository.replaceCounters("doc1", 4, 0, 0, 5, 0, 0)).thenReturn(false);
+
+        // Act
+        int corrected = documentCounterService.reconcileCounters();
+
+        // Assert
+        assertEquals(0, corrected);
+    }
+
+    @Test
+    void reconcileCounters_PagesByLastId() {
+        // Arrange
+        when(documentRepository.findCountersAfter(null, 2)).thenReturn(List.of(counters("doc1", 0, 0, 0), counters("doc2", 0, 0, 0)));
+        when(documentRepository.findCountersAfter("doc2", 2)).thenReturn(List.of(counters("doc3", 0, 0, 0)));
+        when(documentFavoriteRepository.countByDocumentIds(anyCollection())).thenReturn(List.of());
+        when(documentRecommendationRepository.countByDocumentIds(anyCollection())).thenReturn(List.of());
+        when(documentCommentRepository.countByDocumentIds(anyCollection())).thenReturn(List.of());
+
+        // Act
+        int corrected = documentCounterService.reconcileCounters();
+
+        // Assert
+        assertEquals(0, corrected);
+        verify(documentFavoriteRepository).countByDocumentIds(List.of("doc3"));
+        verify(documentRepository, never()).findCountersAfter(eq("doc3"), anyInt());
+        verify(documentRepository, never()).replaceCounters(anyString(), any(), any(), any(), anyInt(), anyInt(), anyInt());
+    }
+
+    private static DocumentInformation counters(String id, Integer favoriteCount, Integer recommendationCount,
+                                                Integer commentCount) {
+        return DocumentInformation.builder()
+                .id(id)
+                .favoriteCount(favoriteCount)
+                .recommendationCount(recommendationCount)
+                .commentCount(commentCount)
+                .build();
+    }
+
+    private static DocumentCountProjection count(String documentId, Long count) {
+        return new DocumentCountProjection() {
+            @Override
+            public String getDocumentId() {
+                return documentId;
+            }
+
+            @Override
+            public Long getCount() {
+                return count;
+            }
+        };
+    }
+}
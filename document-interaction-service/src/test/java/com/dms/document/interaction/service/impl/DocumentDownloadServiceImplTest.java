@@ -0,0 +1,357 @@
+package com.dms.document.interaction.service.impl;
+
+import com.dms.document.interaction.config.FileStorageProperties;
+import com.dms.document.interaction.dto.DocumentFileResponse;
+import com.dms.document.interaction.dto.StoredFileMetadata;
+import com.dms.document.interaction.service.FileStorageService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DocumentDownloadServiceImplTest {
+
+    @Mock
+    private FileStorageService fileStorageService;
+
+    @Spy
+    private FileStorageProperties fileStorageProperties = new FileStorageProperties();
+
+    @InjectMocks
+    private DocumentDownloadServiceImpl documentDownloadService;
+
+    private static final String FILE_PATH = "documents/2024/01/01/123-test.pdf";
+    private static final String ETAG = "\"d41d8cd98f00b204\"";
+    private static final Instant LAST_MODIFIED = Instant.parse("2024-01-01T10:15:30Z");
+
+    private byte[] content;
+    private DocumentFileResponse file;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        content = new byte[1000];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) ('a' + i % 26);
+        }
+
+        file = DocumentFileResponse.builder()
+                .filePath(FILE_PATH)
+                .filename("test.pdf")
+                .contentType(MediaType.APPLICATION_PDF_VALUE)
+                .metadata(StoredFileMetadata.builder()
+                        .contentLength(content.length)
+                        .eTag(ETAG)
+                        .lastModified(LAST_MODIFIED)
+                        .build())
+                .build();
+
+        lenient().when(fileStorageService.openFile(eq(FILE_PATH), anyLong(), anyLong())).thenAnswer(invocation -> {
+            long start = invocation.getArgument(1);
+            long end = invocation.getArgument(2);
+            return new ByteArrayInputStream(Arrays.copyOfRange(content, (int) start, (int) end + 1));
+        });
+    }
+
+    @Test
+    void buildDownloadResponse_NoRange_StreamsWholeFile() throws IOException {
+        // Act
+        ResponseEntity<StreamingResponseBody> response = documentDownloadService.buildDownloadResponse(file, new HttpHeaders());
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(content.length, response.getHeaders().getContentLength());
+        assertEquals("bytes", response.getHeaders().getFirst(HttpHeaders.ACCEPT_RANGES));
+        assertEquals(ETAG, response.getHeaders().getETag());
+        assertEquals(LAST_MODIFIED.toEpochMilli(), response.getHeaders().getLastModified());
+        assertEquals(MediaType.APPLICATION_PDF, response.getHeaders().getContentType());
+        assertArrayEquals(content, write(response));
+        verify(fileStorageService).openFile(FILE_PATH, 0, content.length - 1);
+        verify(fileStorageService, never()).downloadFile(any());
+    }
+
+    @Test
+    void buildDownloadResponse_SingleRange_ReadsOnlyThatRange() throws IOException {
+        // Arrange
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RANGE, "bytes=100-199");
+
+        // Act
+        ResponseEntity<StreamingResponseBody> response = documentDownloadService.buildDownloadResponse(file, headers);
+
+        // Assert
+        assertEquals(HttpStatus.PARTIAL_CONTENT, response.getStatusCode());
+        assertEquals("bytes 100-199/1000", response.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE));
+        assertEquals(100, response.getHeaders().getContentLength());
+        assertArrayEquals(Arrays.copyOfRange(content, 100, 200), write(response));
+        verify(fileStorageService).openFile(FILE_PATH, 100, 199);
+    }
+
+    @Test
+    void buildDownloadResponse_SuffixRange_ReturnsTail() throws IOException {
+        // Arrange
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RANGE, "bytes=-50");
+
+        // Act
+        ResponseEntity<StreamingResponseBody> response = documentDownloadService.buildDownloadResponse(file, headers);
+
+        // Assert
+        assertEquals(HttpStatus.PARTIAL_CONTENT, response.getStatusCode());
+        assertEquals("bytes 950-999/1000", response.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE));
+        assertArrayEquals(Arrays.copyOfRange(content, 950, 1000), write(response));
+    }
+
+    @Test
+    void buildDownloadResponse_MultipleRanges_WritesMultipartByteranges() throws IOException {
+        // Arrange
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RANGE, "bytes=0-9, 500-509");
+
+        // Act
+        ResponseEntity<StreamingResponseBody> response = documentDownloadService.buildDownloadResponse(file, headers);
+
+        // Assert
+        assertEquals(HttpStatus.PARTIAL_CONTENT, response.getStatusCode());
+        MediaType contentType = response.getHeaders().getContentType();
+        assertNotNull(contentType);
+        assertEquals("multipart/byteranges", contentType.getType() + "/" + contentType.getSubtype());
+
+        byte[] body = write(response);
+        assertEquals(body.length, response.getHeaders().getContentLength());
+        String text = new String(body, StandardCharsets.US_ASCII);
+        String boundary = contentType.getParameter("boundary");
+        assertTrue(text.contains("Content-Range: bytes 0-9/1000\r\n\r\n" + new String(content, 0, 10, StandardCharsets.US_ASCII)));
+        assertTrue(text.contains("Content-Range: bytes 500-509/1000\r\n\r\n" + new String(content, 500, 10, StandardCharsets.US_ASCII)));
+        assertTrue(text.endsWith("--" + boundary + "--\r\n"));
+        verify(fileStorageService).openFile(FILE_PATH, 0, 9);
+        verify(fileStorageService).openFile(FILE_PATH, 500, 509);
+    }
+
+    @Test
+    void buildDownloadResponse_OverlappingRanges_AreMerged() throws IOException {
+        // Arrange
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RANGE, "bytes=50-99, 0-60, 100-120");
+
+        // Act
+        ResponseEntity<StreamingResponseBody> response = documentDownloadService.buildDownloadResponse(file, headers);
+
+        // Assert
+        assertEquals(HttpStatus.PARTIAL_CONTENT, response.getStatusCode());
+        assertEquals("bytes 0-120/1000", response.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE));
+        assertArrayEquals(Arrays.copyOfRange(content, 0, 121), write(response));
+    }
+
+    @Test
+    void buildDownloadResponse_TooManyRanges_ServesWholeFile() {
+        // Arrange
+        fileStorageProperties.getDownload().setMaxRanges(2);
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RANGE, "bytes=0-1, 10-11, 20-21");
+
+        // Act
+        ResponseEntity<StreamingResponseBody> response = documentDownloadService.buildDownloadResponse(file, headers);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(content.length, response.getHeaders().getContentLength());
+    }
+
+    @Test
+    void buildDownloadResponse_UnsatisfiableRange_Returns416() {
+        // Arrange
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RANGE, "bytes=1000-1100");
+
+        // Act
+        ResponseEntity<StreamingResponseBody> response = documentDownloadService.buildDownloadResponse(file, headers);
+
+        // Assert
+        assertEquals(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE, response.getStatusCode());
+        assertEquals("bytes */1000", response.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE));
+        assertNull(response.getBody());
+    }
+
+    @Test
+    void buildDownloadResponse_IfRangeDoesNotMatch_ServesWholeFile() {
+        // Arrange
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RANGE, "bytes=0-99");
+        headers.set(HttpHeaders.IF_RANGE, "\"stale-etag\"");
+
+        // Act
+        ResponseEntity<StreamingResponseBody> response = documentDownloadService.buildDownloadResponse(file, headers);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(content.length, response.getHeaders().getContentLength());
+    }
+
+    @Test
+    void buildDownloadResponse_IfRangeMatches_ServesRange() {
+        // Arrange
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RANGE, "bytes=0-99");
+        headers.set(HttpHeaders.IF_RANGE, ETAG);
+
+        // Act
+        ResponseEntity<StreamingResponseBody> response = documentDownloadService.buildDownloadResponse(file, headers);
+
+        // Assert
+        assertEquals(HttpStatus.PARTIAL_CONTENT, response.getStatusCode());
+    }
+
+    @Test
+    void buildDownloadResponse_IfNoneMatchMatches_Returns304WithoutReading() throws IOException {
+        // Arrange
+        HttpHeaders headers = new HttpHeaders();
+        headers.setIfNoneMatch("W/" + ETAG);
+
+        // Act
+        ResponseEntity<StreamingResponseBody> response = documentDownloadService.buildDownloadResponse(file, headers);
+
+        // Assert
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertEquals(ETAG, response.getHeaders().getETag());
+        assertNull(response.getBody());
+        verify(fileStorageService, never()).openFile(any(), anyLong(), anyLong());
+    }
+
+    @Test
+    void buildDownloadResponse_IfModifiedSinceNotBeforeLastModified_Returns304() {
+        // Arrange
+        HttpHeaders headers = new HttpHeaders();
+        headers.setIfModifiedSince(LAST_MODIFIED);
+
+        // Act
+        ResponseEntity<StreamingResponseBody> response = documentDownloadService.buildDownloadResponse(file, headers);
+
+        // Assert
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+    }
+
+    @Test
+    void buildDownloadResponse_IfModifiedSinceBeforeLastModified_ServesFile() {
+        // Arrange
+        HttpHeaders headers = new HttpHeaders();
+        headers.setIfModifiedSince(LAST_MODIFIED.minusSeconds(60));
+
+        // Act
+        ResponseEntity<StreamingResponseBody> response = documentDownloadService.buildDownloadResponse(file, headers);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+    }
+
+    @Test
+    void buildDownloadResponse_PresignedRedirectEnabled_RedirectsToStorage() throws IOException {
+        // Arrange
+        fileStorageProperties.getDownload().setPresignedRedirect(true);
+        when(fileStorageService.generatePresignedDownloadUrl(FILE_PATH, "test.pdf", MediaType.APPLICATION_PDF_VALUE, Duration.ofMinutes(5)))
+                .thenReturn(Optional.of("https://bucket.s3.amazonaws.com/documents/test.pdf?X-Amz-Signature=abc"));
+
+        // Act
+        ResponseEntity<StreamingResponseBody> response = documentDownloadService.buildDownloadResponse(file, new HttpHeaders());
+
+        // Assert
+        assertEquals(HttpStatus.FOUND, response.getStatusCode());
+        assertEquals("https://bucket.s3.amazonaws.com/documents/test.pdf?X-Amz-Signature=abc",
+                response.getHeaders().getFirst(HttpHeaders.LOCATION));
+        verify(fileStorageService, never()).openFile(any(), anyLong(), anyLong());
+    }
+
+    @Test
+    void buildDownloadResponse_PresignedRedirectUnsupported_StreamsFile() {
+        // Arrange
+        fileStorageProperties.getDownload().setPresignedRedirect(true);
+        when(fileStorageService.generatePresignedDownloadUrl(any(), any(), any(), any())).thenReturn(Optional.empty());
+
+        // Act
+        ResponseEntity<StreamingResponseBody> response = documentDownloadService.buildDownloadResponse(file, new HttpHeaders());
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+    }
+
+    @Test
+    void isDownloadStart_FullBodyOrRedirect_True() {
+        // Act & Assert
+        assertTrue(documentDownloadService.isDownloadStart(documentDownloadService.buildDownloadResponse(file, new HttpHeaders())));
+        assertTrue(documentDownloadService.isDownloadStart(ResponseEntity.status(HttpStatus.FOUND).build()));
+    }
+
+    @Test
+    void isDownloadStart_RangeFromFirstByte_True() {
+        // Arrange
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RANGE, "bytes=0-");
+
+        // Act
+        ResponseEntity<StreamingResponseBody> response = documentDownloadService.buildDownloadResponse(file, headers);
+
+        // Assert
+        assertEquals(HttpStatus.PARTIAL_CONTENT, response.getStatusCode());
+        assertTrue(documentDownloadService.isDownloadStart(response));
+    }
+
+    @Test
+    void isDownloadStart_LaterChunk_False() {
+        // Arrange
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RANGE, "bytes=100-199");
+
+        // Act
+        ResponseEntity<StreamingResponseBody> response = documentDownloadService.buildDownloadResponse(file, headers);
+
+        // Assert
+        assertFalse(documentDownloadService.isDownloadStart(response));
+    }
+
+    @Test
+    void isDownloadStart_NotModifiedOrMultipart_False() {
+        // Arrange
+        HttpHeaders revalidation = new HttpHeaders();
+        revalidation.setIfNoneMatch(ETAG);
+        HttpHeaders multipart = new HttpHeaders();
+        multipart.set(HttpHeaders.RANGE, "bytes=0-9,500-509");
+
+        // Act
+        ResponseEntity<StreamingResponseBody> notModified = documentDownloadService.buildDownloadResponse(file, revalidation);
+        ResponseEntity<StreamingResponseBody> parts = documentDownloadService.buildDownloadResponse(file, multipart);
+
+        // Assert
+        assertEquals(HttpStatus.NOT_MODIFIED, notModified.getStatusCode());
+        assertFalse(documentDownloadService.isDownloadStart(notModified));
+        assertEquals(HttpStatus.PARTIAL_CONTENT, parts.getStatusCode());
+        assertFalse(documentDownloadService.isDownloadStart(parts));
+    }
+
+    private static byte[] write(ResponseEntity<StreamingResponseBody> response) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        assertNotNull(response.getBody());
+        response.getBody().writeTo(outputStream);
+        return outputStream.toByteArray();
+    }
+}
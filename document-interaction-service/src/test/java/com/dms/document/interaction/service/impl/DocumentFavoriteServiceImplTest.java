@@ -5,15 +5,15 @@ import com.dms.document.interaction.dto.DocumentFavoriteCheck;
 import com.dms.document.interaction.dto.RoleResponse;
 import com.dms.document.interaction.dto.UserResponse;
 import com.dms.document.interaction.enums.AppRole;
+import com.dms.document.interaction.enums.EventType;
 import com.dms.document.interaction.enums.InteractionType;
 import com.dms.document.interaction.exception.DuplicateFavoriteException;
 import com.dms.document.interaction.exception.InvalidDocumentException;
-import com.dms.document.interaction.model.DocumentFavorite;
 import com.dms.document.interaction.model.DocumentInformation;
 import com.dms.document.interaction.repository.DocumentFavoriteRepository;
 import com.dms.document.interaction.repository.DocumentRepository;
-import com.dms.document.interaction.repository.DocumentUserHistoryRepository;
 import com.dms.document.interaction.service.DocumentPreferencesService;
+import com.dms.document.interaction.service.DocumentUserHistoryWriter;
 import com.dms.document.interaction.service.PublishEventService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -22,6 +22,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
 import org.springframework.dao.InvalidDataAccessResourceUsageException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -32,7 +33,9 @@ import java.util.concurrent.CompletableFuture;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -51,7 +54,7 @@ class DocumentFavoriteServiceImplTest {
     private DocumentPreferencesService documentPreferencesService;
 
     @Mock
-    private DocumentUserHistoryRepository documentUserHistoryRepository;
+    private DocumentUserHistoryWriter documentUserHistoryWriter;
 
     @Mock
     private PublishEventService publishEventService;
@@ -96,34 +99,35 @@ class DocumentFavoriteServiceImplTest {
     @Test
     void favoriteDocument_Success_Favorite() {
         // Arrange
-        when(documentRepository.findById(documentId)).thenReturn(Optional.of(documentInformation));
-        when(documentFavoriteRepository.existsByUserIdAndDocumentId(userId, documentId)).thenReturn(false);
+        when(documentRepository.findSummaryById(documentId)).thenReturn(Optional.of(documentInformation));
+        when(documentFavoriteRepository.insertIfAbsent(userId, documentId)).thenReturn(1);
 
         // Act
         documentFavoriteService.favoriteDocument(documentId, true, username);
 
         // Assert
-        verify(documentFavoriteRepository).save(any(DocumentFavorite.class));
-        verify(documentRepository).save(argThat(doc -> doc.getFavoriteCount() == 1));
-        verify(documentUserHistoryRepository).save(any());
+        verify(documentFavoriteRepository).insertIfAbsent(userId, documentId);
+        verify(documentRepository).incrementFavoriteCount(documentId, 1);
+        verify(documentUserHistoryWriter).record(any());
         verify(documentPreferencesService).recordInteraction(userId, documentId, InteractionType.FAVORITE);
-        verify(publishEventService).sendSyncEvent(any());
+        verify(publishEventService).sendSyncEvent(argThat(event ->
+                EventType.FAVORITE_EVENT.name().equals(event.getSubject()) && documentId.equals(event.getDocumentId())));
     }
 
     @Test
     void favoriteDocument_Success_Unfavorite() {
         // Arrange
         documentInformation.setFavoriteCount(1);
-        when(documentRepository.findById(documentId)).thenReturn(Optional.of(documentInformation));
-        when(documentFavoriteRepository.existsByUserIdAndDocumentId(userId, documentId)).thenReturn(true);
+        when(documentRepository.findSummaryById(documentId)).thenReturn(Optional.of(documentInformation));
+        when(documentFavoriteRepository.deleteByUserIdAndDocumentId(userId, documentId)).thenReturn(1);
 
         // Act
         documentFavoriteService.favoriteDocument(documentId, false, username);
 
         // Assert
         verify(documentFavoriteRepository).deleteByUserIdAndDocumentId(userId, documentId);
-        verify(documentRepository).save(argThat(doc -> doc.getFavoriteCount() == 0));
-        verify(documentUserHistoryRepository).save(any());
+        verify(documentRepository).incrementFavoriteCount(documentId, -1);
+        verify(documentUserHistoryWriter).record(any());
         verify(documentPreferencesService).recordInteraction(userId, documentId, InteractionType.FAVORITE);
         verify(publishEventService).sendSyncEvent(any());
     }
@@ -136,7 +140,7 @@ class DocumentFavoriteServiceImplTest {
         // Act & Assert
         assertThrows(InvalidDataAccessResourceUsageException.class, () ->
                 documentFavoriteService.favoriteDocument(documentId, true, username));
-        verify(documentFavoriteRepository, never()).save(any());
+        verify(documentFavoriteRepository, never()).insertIfAbsent(any(), anyString());
         verify(documentFavoriteRepository, never()).deleteByUserIdAndDocumentId(any(), anyString());
     }
 
@@ -151,44 +155,61 @@ class DocumentFavoriteServiceImplTest {
         // Act & Assert
         assertThrows(InvalidDataAccessResourceUsageException.class, () ->
                 documentFavoriteService.favoriteDocument(documentId, true, username));
-        verify(documentFavoriteRepository, never()).save(any());
+        verify(documentFavoriteRepository, never()).insertIfAbsent(any(), anyString());
         verify(documentFavoriteRepository, never()).deleteByUserIdAndDocumentId(any(), anyString());
     }
 
     @Test
     void favoriteDocument_DocumentNotFound() {
         // Arrange
-        when(documentRepository.findById(documentId)).thenReturn(Optional.empty());
+        when(documentRepository.findSummaryById(documentId)).thenReturn(Optional.empty());
 
         // Act & Assert
         assertThrows(InvalidDocumentException.class, () ->
                 documentFavoriteService.favoriteDocument(documentId, true, username));
-        verify(documentFavoriteRepository, never()).save(any());
+        verify(documentFavoriteRepository, never()).insertIfAbsent(any(), anyString());
         verify(documentFavoriteRepository, never()).deleteByUserIdAndDocumentId(any(), anyString());
     }
 
     @Test
     void favoriteDocument_AlreadyFavorited() {
         // Arrange
-        when(documentRepository.findById(documentId)).thenReturn(Optional.of(documentInformation));
-        when(documentFavoriteRepository.existsByUserIdAndDocumentId(userId, documentId)).thenReturn(true);
+        when(documentRepository.findSummaryById(documentId)).thenReturn(Optional.of(documentInformation));
+        when(documentFavoriteRepository.insertIfAbsent(userId, documentId)).thenReturn(0);
 
         // Act & Assert
         assertThrows(DuplicateFavoriteException.class, () ->
                 documentFavoriteService.favoriteDocument(documentId, true, username));
-        verify(documentFavoriteRepository, never()).save(any());
+        verify(documentRepository, never()).incrementFavoriteCount(anyString(), anyInt());
+        verify(publishEventService, never()).sendSyncEvent(any());
     }
 
     @Test
     void favoriteDocument_NotFavoritedForUnfavorite() {
         // Arrange
-        when(documentRepository.findById(documentId)).thenReturn(Optional.of(documentInformation));
-        when(documentFavoriteRepository.existsByUserIdAndDocumentId(userId, documentId)).thenReturn(false);
+        when(documentRepository.findSummaryById(documentId)).thenReturn(Optional.of(documentInformation));
+        when(documentFavoriteRepository.deleteByUserIdAndDocumentId(userId, documentId)).thenReturn(0);
 
         // Act & Assert
         assertThrows(DuplicateFavoriteException.class, () ->
                 documentFavoriteService.favoriteDocument(documentId, false, username));
-        verify(documentFavoriteRepository, never()).deleteByUserIdAndDocumentId(any(), anyString());
+        verify(documentRepository, never()).incrementFavoriteCount(anyString(), anyInt());
+        verify(publishEventService, never()).sendSyncEvent(any());
+    }
+
+    @Test
+    void favoriteDocument_CounterUpdateFails_StillNotifies() {
+        // Arrange
+        when(documentRepository.findSummaryById(documentId)).thenReturn(Optional.of(documentInformation));
+        when(documentFavoriteRepository.insertIfAbsent(userId, documentId)).thenReturn(1);
+        when(documentRepository.incrementFavoriteCount(documentId, 1)).thenThrow(new DataAccessResourceFailureException("timeout"));
+
+        // Act
+        documentFavoriteService.favoriteDocument(documentId, true, username);
+
+        // Assert - the favorite row is kept, the counter is repaired by the reconciliation job
+        verify(documentUserHistoryWriter).record(any());
+        verify(publishEventService).sendSyncEvent(any());
     }
 
     @Test
@@ -198,15 +219,15 @@ class DocumentFavoriteServiceImplTest {
                 new RoleResponse(UUID.randomUUID(), AppRole.ROLE_MENTOR));
         ResponseEntity<UserResponse> mentorResponse = ResponseEntity.ok(mentorUser);
         when(userClient.getUserByUsername(username)).thenReturn(mentorResponse);
-        when(documentRepository.findById(documentId)).thenReturn(Optional.of(documentInformation));
-        when(documentFavoriteRepository.existsByUserIdAndDocumentId(userId, documentId)).thenReturn(false);
+        when(documentRepository.findSummaryById(documentId)).thenReturn(Optional.of(documentInformation));
+        when(documentFavoriteRepository.insertIfAbsent(userId, documentId)).thenReturn(1);
 
         // Act
         documentFavoriteService.favoriteDocument(documentId, true, username);
 
         // Assert
-        verify(documentFavoriteRepository).save(any(DocumentFavorite.class));
-        verify(documentRepository).save(argThat(doc -> doc.getFavoriteCount() == 1));
+        verify(documentFavoriteRepository).insertIfAbsent(userId, documentId);
+        verify(documentRepository).incrementFavoriteCount(documentId, 1);
     }
 
     @Test
@@ -216,15 +237,15 @@ class DocumentFavoriteServiceImplTest {
                 new RoleResponse(UUID.randomUUID(), AppRole.ROLE_MENTOR));
         ResponseEntity<UserResponse> mentorResponse = ResponseEntity.ok(mentorUser);
         when(userClient.getUserByUsername(username)).thenReturn(mentorResponse);
-        when(documentRepository.findById(documentId)).thenReturn(Optional.of(documentInformation));
-        when(documentFavoriteRepository.existsByUserIdAndDocumentId(userId, documentId)).thenReturn(true);
+        when(documentRepository.findSummaryById(documentId)).thenReturn(Optional.of(documentInformation));
+        when(documentFavoriteRepository.deleteByUserIdAndDocumentId(userId, documentId)).thenReturn(1);
 
         // Act
         documentFavoriteService.favoriteDocument(documentId, false, username);
 
         // Assert
         verify(documentFavoriteRepository).deleteByUserIdAndDocumentId(userId, documentId);
-        verify(documentRepository).save(argThat(doc -> doc.getFavoriteCount() == -1));
+        verify(documentRepository).incrementFavoriteCount(documentId, -1);
     }
 
     @Test
@@ -9,9 +9,9 @@ import com.dms.document.interaction.enums.AppRole;
 import com.dms.document.interaction.enums.UserDocumentActionType;
 import com.dms.document.interaction.model.DocumentInformation;
 import com.dms.document.interaction.model.DocumentUserHistory;
-import com.dms.document.interaction.model.projection.ActionCountResult;
 import com.dms.document.interaction.repository.DocumentRepository;
 import com.dms.document.interaction.repository.DocumentUserHistoryRepository;
+import com.dms.document.interaction.service.DocumentStatsService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -28,6 +28,7 @@ import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
@@ -35,6 +36,7 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -53,6 +55,9 @@ class DocumentHistoryServiceImplTest {
     @Mock
     private DocumentRepository documentRepository;
 
+    @Mock
+    private DocumentStatsService documentStatsService;
+
     @Mock
     private UserClient userClient;
 
@@ -73,6 +78,8 @@ class DocumentHistoryServiceImplTest {
         username = "testuser";
         userResponse = new UserResponse(userId, username, "test@example.com", new RoleResponse(UUID.randomUUID(), AppRole.ROLE_USER));
         userResponseEntity = ResponseEntity.ok(userResponse);
+        ReflectionTestUtils.setField(documentHistoryService, "maxSearchMatches", 1000);
+        ReflectionTestUtils.setField(documentHistoryService, "backfillBatchSize", 2);
     }
 
     @Test
@@ -80,18 +87,17 @@ class DocumentHistoryServiceImplTest {
         // Arrange
         String documentId = "doc123";
 
-        // Create action count results
-        ActionCountResult viewCount = createActionCount(UserDocumentActionType.VIEW_DOCUMENT, 10);
-        ActionCountResult downloadCount = createActionCount(UserDocumentActionType.DOWNLOAD_FILE, 5);
-        ActionCountResult commentCount = createActionCount(UserDocumentActionType.COMMENT, 3);
+        // Create action counts
+        Map<String, Integer> actionCounts = Map.of(
+                UserDocumentActionType.VIEW_DOCUMENT.name(), 10,
+                UserDocumentActionType.DOWNLOAD_FILE.name(), 5,
+                UserDocumentActionType.COMMENT.name(), 3);
 
-        List<ActionCountResult> actionCounts = Arrays.asList(viewCount, downloadCount, commentCount);
-
-        when(documentUserHistoryRepository.getActionCountsForDocument(documentId))
+        when(documentStatsService.getActionCounts(documentId, null))
                 .thenReturn(actionCounts);
 
         // Act
-        DocumentStatisticsResponse response = documentHistoryService.getDocumentStatistics(documentId);
+        DocumentStatisticsResponse response = documentHistoryService.getDocumentStatistics(documentId, null);
 
         // Assert
         assertNotNull(response);
@@ -101,7 +107,8 @@ class DocumentHistoryServiceImplTest {
         assertEquals(18, response.totalInteractions()); // Sum of all counts
 
         // Verify
-        verify(documentUserHistoryRepository).getActionCountsForDocument(documentId);
+        verify(documentStatsService).getActionCounts(documentId, null);
+        verify(documentUserHistoryRepository, never()).getActionCountsForDocument(anyString());
     }
 
     @Test
@@ -110,24 +117,24 @@ class DocumentHistoryServiceImplTest {
         String documentId = "doc123";
 
         // Create all possible action types
-        List<ActionCountResult> actionCounts = Arrays.asList(
-                createActionCount(UserDocumentActionType.VIEW_DOCUMENT, 10),
-                createActionCount(UserDocumentActionType.DOWNLOAD_FILE, 5),
-                createActionCount(UserDocumentActionType.DOWNLOAD_VERSION, 3),
-                createActionCount(UserDocumentActionType.UPDATE_DOCUMENT, 2),
-                createActionCount(UserDocumentActionType.UPDATE_DOCUMENT_FILE, 1),
-                createActionCount(UserDocumentActionType.DELETE_DOCUMENT, 1),
-                createActionCount(UserDocumentActionType.REVERT_VERSION, 1),
-                createActionCount(UserDocumentActionType.SHARE, 4),
-                createActionCount(UserDocumentActionType.FAVORITE, 6),
-                createActionCount(UserDocumentActionType.COMMENT, 8)
+        Map<String, Integer> actionCounts = Map.of(
+                UserDocumentActionType.VIEW_DOCUMENT.name(), 10,
+                UserDocumentActionType.DOWNLOAD_FILE.name(), 5,
+                UserDocumentActionType.DOWNLOAD_VERSION.name(), 3,
+                UserDocumentActionType.UPDATE_DOCUMENT.name(), 2,
+                UserDocumentActionType.UPDATE_DOCUMENT_FILE.name(), 1,
+                UserDocumentActionType.DELETE_DOCUMENT.name(), 1,
+                UserDocumentActionType.REVERT_VERSION.name(), 1,
+                UserDocumentActionType.SHARE.name(), 4,
+                UserDocumentActionType.FAVORITE.name(), 6,
+                UserDocumentActionType.COMMENT.name(), 8
         );
 
-        when(documentUserHistoryRepository.getActionCountsForDocument(documentId))
+        when(documentStatsService.getActionCounts(documentId, null))
                 .thenReturn(actionCounts);
 
         // Act
-        DocumentStatisticsResponse response = documentHistoryService.getDocumentStatistics(documentId);
+        DocumentStatisticsResponse response = documentHistoryService.getDocumentStatistics(documentId, null);
 
         // Assert
         assertNotNull(response);
@@ -142,7 +149,8 @@ class DocumentHistoryServiceImplTest {
         assertEquals(41, response.totalInteractions()); // Sum of all counts
 
         // Verify
-        verify(documentUserHistoryRepository).getActionCountsForDocument(documentId);
+        verify(documentStatsService).getActionCounts(documentId, null);
+        verify(documentUserHistoryRepository, never()).getActionCountsForDocument(anyString());
     }
 
     @Test
@@ -150,11 +158,11 @@ class DocumentHistoryServiceImplTest {
         // Arrange
         String documentId = "doc123";
 
-        when(documentUserHistoryRepository.getActionCountsForDocument(documentId))
-                .thenReturn(Collections.emptyList());
+        when(documentStatsService.getActionCounts(documentId, null))
+                .thenReturn(Collections.emptyMap());
 
         // Act
-        DocumentStatisticsResponse response = documentHistoryService.getDocumentStatistics(documentId);
+        DocumentStatisticsResponse response = documentHistoryService.getDocumentStatistics(documentId, null);
 
         // Assert
         assertNotNull(response);
@@ -169,7 +177,8 @@ class DocumentHistoryServiceImplTest {
         assertEquals(0, response.totalInteractions());
 
         // Verify
-        verify(documentUserHistoryRepository).getActionCountsForDocument(documentId);
+        verify(documentStatsService).getActionCounts(documentId, null);
+        verify(documentUserHistoryRepository, never()).getActionCountsForDocument(anyString());
     }
 
     @Test
@@ -326,13 +335,6 @@ class DocumentHistoryServiceImplTest {
 
         when(userClient.getUserByUsername(username)).thenReturn(userResponseEntity);
 
-        // Mock document ID search - use lenient() to avoid unnecessary stubbing error
-        lenient().when(mongoTemplate.find(any(Query.class), eq(org.bson.Document.class), eq("documents")))
-                .thenReturn(Arrays.asList(
-                        new org.bson.Document("_id", "doc1"),
-                        new org.bson.Document("_id", "doc2")
-                ));
-
         // Create sample histories
         List<DocumentUserHistory> histories = Arrays.asList(
                 createSampleHistory(userId.toString(), "doc1", UserDocumentActionType.VIEW_DOCUMENT),
@@ -365,9 +367,13 @@ class DocumentHistoryServiceImplTest {
         assertNotNull(result);
         assertEquals(2, result.getTotalElements());
 
-        // Verify
+        // Verify - the documents collection is not searched
         verify(userClient).getUserByUsername(username);
-        verify(mongoTemplate).find(any(Query.class), eq(DocumentUserHistory.class));
+        verify(mongoTemplate).find(queryCaptor.capture(), eq(DocumentUserHistory.class));
+        verify(mongoTemplate, never()).find(any(Query.class), eq(org.bson.Document.class), eq("documents"));
+        org.bson.Document queryObject = queryCaptor.getValue().getQueryObject();
+        assertEquals(userId.toString(), queryObject.get("userId"));
+        assertTrue(queryObject.toJson().contains("^document"));
     }
 
     @Test
@@ -588,17 +594,13 @@ class DocumentHistoryServiceImplTest {
     }
 
     @Test
-    void getUserHistory_withSearchTermNoMatchingDocs_shouldFilterByDetailOnly() {
+    void getUserHistory_withMultiWordSearchTerm_shouldRequireEveryWord() {
         // Arrange
         Pageable pageable = PageRequest.of(0, 10);
-        String searchTerm = "nonexistent";
+        String searchTerm = "Bài giảng";
 
         when(userClient.getUserByUsername(username)).thenReturn(userResponseEntity);
 
-        // No matching documents
-        when(mongoTemplate.find(any(Query.class), eq(org.bson.Document.class), eq("documents")))
-                .thenReturn(Collections.emptyList());
-
         List<DocumentUserHistory> histories = Collections.singletonList(
                 createSampleHistoryWithDetail(userId.toString(), "doc1", UserDocumentActionType.COMMENT, searchTerm)
         );
@@ -626,12 +628,106 @@ class DocumentHistoryServiceImplTest {
         assertEquals(1, result.getContent().size());
         assertEquals(searchTerm, result.getContent().get(0).detail());
 
-        // Verify query includes detail filter but not documentId
+        // Verify each normalized word becomes an anchored prefix on the stored terms
         verify(mongoTemplate).find(queryCaptor.capture(), eq(DocumentUserHistory.class));
-        Query capturedQuery = queryCaptor.getValue();
-        String queryString = capturedQuery.toString();
-        assertTrue(queryString.contains("detail"));
-        assertTrue(queryString.contains(searchTerm));
+        String queryString = queryCaptor.getValue().getQueryObject().toJson();
+        assertTrue(queryString.contains("searchTerms"));
+        assertTrue(queryString.contains("^bai"));
+        assertTrue(queryString.contains("^giang"));
+        assertFalse(queryString.contains("detail"));
+    }
+
+    @Test
+    void getUserHistory_withSearchTermWithoutWords_shouldReturnEmptyPage() {
+        // Arrange
+        when(userClient.getUserByUsername(username)).thenReturn(userResponseEntity);
+
+        // Act
+        Page<UserHistoryResponse> result = documentHistoryService.getUserHistory(
+                username, null, null, null, "...", PageRequest.of(0, 10));
+
+        // Assert
+        assertTrue(result.isEmpty());
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    @Test
+    void getUserHistory_withSearchPastMatchLimit_shouldReturnEmptyPage() {
+        // Arrange
+        ReflectionTestUtils.setField(documentHistoryService, "maxSearchMatches", 20);
+        when(userClient.getUserByUsername(username)).thenReturn(userResponseEntity);
+
+        // Act
+        Page<UserHistoryResponse> result = documentHistoryService.getUserHistory(
+                username, null, null, null, "report", PageRequest.of(2, 10));
+
+        // Assert
+        assertTrue(result.isEmpty());
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    @Test
+    void getUserHistory_withSearchTerm_shouldCapCount() {
+        // Arrange
+        ReflectionTestUtils.setField(documentHistoryService, "maxSearchMatches", 20);
+        when(userClient.getUserByUsername(username)).thenReturn(userResponseEntity);
+        List<DocumentUserHistory> histories = Collections.nCopies(10,
+                createSampleHistoryWithDetail(userId.toString(), null, UserDocumentActionType.COMMENT, "report"));
+        when(mongoTemplate.find(any(Query.class), eq(DocumentUserHistory.class))).thenReturn(histories);
+        when(mongoTemplate.count(any(Query.class), eq(DocumentUserHistory.class))).thenReturn(20L);
+
+        // Act
+        Page<UserHistoryResponse> result = documentHistoryService.getUserHistory(
+                username, null, null, null, "report", PageRequest.of(0, 10));
+
+        // Assert
+        assertEquals(20, result.getTotalElements());
+        verify(mongoTemplate).count(queryCaptor.capture(), eq(DocumentUserHistory.class));
+        assertEquals(20, queryCaptor.getValue().getLimit());
+    }
+
+    @Test
+    void getUserHistory_withDocumentMissing_shouldUseStoredName() {
+        // Arrange
+        when(userClient.getUserByUsername(username)).thenReturn(userResponseEntity);
+        DocumentUserHistory history = createSampleHistory(userId.toString(), "doc1", UserDocumentActionType.VIEW_DOCUMENT);
+        history.setDocumentName("Notes.pdf");
+        when(mongoTemplate.find(any(Query.class), eq(DocumentUserHistory.class))).thenReturn(List.of(history));
+        when(documentRepository.findByIdIn(anyList())).thenReturn(Collections.emptyList());
+
+        // Act
+        Page<UserHistoryResponse> result = documentHistoryService.getUserHistory(
+                username, null, null, null, null, PageRequest.of(0, 10));
+
+        // Assert
+        assertEquals("Notes.pdf", result.getContent().get(0).documentTitle());
+    }
+
+    @Test
+    void backfillSearchTerms_shouldStoreNamesAndTermsPerBatch() {
+        // Arrange
+        DocumentUserHistory first = createSampleHistoryWithDetail(userId.toString(), "doc1", UserDocumentActionType.COMMENT, "Great summary");
+        DocumentUserHistory second = createSampleHistoryWithDetail(userId.toString(), "doc2", UserDocumentActionType.VIEW_DOCUMENT, null);
+        DocumentUserHistory third = createSampleHistoryWithDetail(userId.toString(), null, UserDocumentActionType.VIEW_DOCUMENT, "Orphan");
+        when(documentUserHistoryRepository.findWithoutSearchTermsAfter(null, 2)).thenReturn(List.of(first, second));
+        when(documentUserHistoryRepository.findWithoutSearchTermsAfter(second.getId(), 2)).thenReturn(List.of(third));
+        DocumentInformation doc1 = new DocumentInformation();
+        doc1.setId("doc1");
+        doc1.setFilename("Lecture_01.pdf");
+        when(documentRepository.findFilenamesByIdIn(anyCollection())).thenReturn(List.of(doc1), Collections.emptyList());
+
+        // Act
+        int updated = documentHistoryService.backfillSearchTerms();
+
+        // Assert
+        assertEquals(3, updated);
+        assertEquals("Lecture_01.pdf", first.getDocumentName());
+        assertEquals(List.of("lecture", "01", "pdf", "great", "summary"), first.getSearchTerms());
+        assertNull(second.getDocumentName());
+        assertEquals(List.of(), second.getSearchTerms());
+        assertEquals(List.of("orphan"), third.getSearchTerms());
+        verify(documentUserHistoryRepository).updateSearchFields(List.of(first, second));
+        verify(documentUserHistoryRepository).updateSearchFields(List.of(third));
     }
 
     @Test
@@ -743,13 +839,6 @@ class DocumentHistoryServiceImplTest {
                 .build();
     }
 
-    private ActionCountResult createActionCount(UserDocumentActionType type, int count) {
-        ActionCountResult result = new ActionCountResult();
-        result.setActionType(type.name());
-        result.setCount(count);
-        return result;
-    }
-
     private DocumentUserHistory createSampleHistoryWithDetail(String userId, String documentId, UserDocumentActionType actionType, String detail) {
         return DocumentUserHistory.builder()
                 .id(UUID.randomUUID().toString())
@@ -24,7 +24,9 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.dao.InvalidDataAccessResourceUsageException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
@@ -123,6 +125,9 @@ public class DocumentPreferencesServiceImplTest {
         documentInteraction.setInteractions(interactions);
         documentInteraction.setFirstInteractionDate(Instant.now().minus(10, ChronoUnit.DAYS));
         documentInteraction.setLastInteractionDate(Instant.now().minus(1, ChronoUnit.DAYS));
+
+        ReflectionTestUtils.setField(documentPreferencesService, "scoreHalfLife", Duration.ofDays(30));
+        ReflectionTestUtils.setField(documentPreferencesService, "rederiveBatchSize", 100);
     }
 
     @Test
@@ -187,15 +192,9 @@ public class DocumentPreferencesServiceImplTest {
         // Stub the getDocumentPreferences method on the spy to return our test object
         doReturn(documentPreferences).when(serviceSpy).getDocumentPreferences(userId.toString());
 
-        // Create a new updatedAt timestamp to ensure it's clearly after the original
         Instant originalUpdatedAt = documentPreferences.getUpdatedAt();
-
-        when(documentPreferencesRepository.save(any(DocumentPreferences.class))).thenAnswer(i -> {
-            DocumentPreferences savedPrefs = (DocumentPreferences)i.getArguments()[0];
-            // Explicitly set updatedAt to ensure it's after the original
-            savedPrefs.setUpdatedAt(originalUpdatedAt.plus(1, ChronoUnit.HOURS));
-            return savedPrefs;
-        });
+        when(documentPreferencesRepository.updateExplicitPreferences(eq(documentPreferences.getUserId()), eq(request), any(Instant.class)))
+                .thenReturn(true);
 
         // Act
         DocumentPreferences result = serviceSpy.updateExplicitPreferences(userId.toString(), request);
@@ -213,131 +212,93 @@ public class DocumentPreferencesServiceImplTest {
         assertEquals(documentPreferences.getTagInteractionCounts(), result.getTagInteractionCounts());
 
         verify(serviceSpy).getDocumentPreferences(userId.toString());
-        verify(documentPreferencesRepository).save(preferencesCaptor.capture());
-        DocumentPreferences savedPreferences = preferencesCaptor.getValue();
-        // The timestamp should definitely be after now that we've explicitly set it in the mock
-        assertTrue(savedPreferences.getUpdatedAt().isAfter(originalUpdatedAt));
+        // Only the explicit fields are written, the whole document is never saved
+        verify(documentPreferencesRepository).updateExplicitPreferences(eq(documentPreferences.getUserId()), eq(request), any(Instant.class));
+        verify(documentPreferencesRepository, never()).save(any(DocumentPreferences.class));
+        assertFalse(result.getUpdatedAt().isBefore(originalUpdatedAt));
     }
 
     @Test
-    void recordInteraction_NewInteraction_CreatesInteractionRecord() {
+    void recordInteraction_IncrementsInteractionAndPreferences() {
         // Arrange
         when(documentRepository.findAccessibleDocumentByIdAndUserId(anyString(), anyString()))
                 .thenReturn(Optional.of(documentInformation));
-        when(documentInteractionRepository.findByUserIdAndDocumentId(anyString(), anyString()))
-                .thenReturn(Optional.empty());
-        when(documentInteractionRepository.save(any(DocumentInteraction.class)))
-                .thenAnswer(i -> i.getArguments()[0]);
-
-        // Mock preferences repository to return a valid preference
-        when(documentPreferencesRepository.findByUserId(userId.toString()))
-                .thenReturn(Optional.of(documentPreferences));
-        when(documentPreferencesRepository.save(any(DocumentPreferences.class)))
-                .thenAnswer(i -> i.getArguments()[0]);
+        when(documentPreferencesRepository.incrementInteractionCounts(anyString(), any(), anyString(), anyDouble(), any(), any()))
+                .thenReturn(Map.of(DocumentType.PDF.name(), 1.0));
 
         // Act
         documentPreferencesService.recordInteraction(userId, "doc-1", InteractionType.VIEW);
 
         // Assert
         verify(documentRepository).findAccessibleDocumentByIdAndUserId("doc-1", userId.toString());
-        verify(documentInteractionRepository).findByUserIdAndDocumentId(userId.toString(), "doc-1");
-        verify(documentInteractionRepository).save(any(DocumentInteraction.class));
-        verify(documentPreferencesRepository).findByUserId(userId.toString());
-        verify(documentPreferencesRepository).save(any(DocumentPreferences.class));
+        verify(documentInteractionRepository).incrementInteraction(eq(userId.toString()), eq("doc-1"),
+                eq(InteractionType.VIEW), any(Instant.class));
+        verify(documentPreferencesRepository).incrementInteractionCounts(eq(userId.toString()), eq(documentInformation),
+                eq(DocumentType.PDF.name()), anyDouble(), eq("doc-1"), any(Instant.class));
+        verify(documentPreferencesRepository).updateRecentAndWeights(userId.toString(), "doc-1", 50,
+                Map.of(DocumentType.PDF.name(), 1.0));
+        verify(documentInteractionRepository, never()).save(any(DocumentInteraction.class));
+        verify(documentPreferencesRepository, never()).save(any(DocumentPreferences.class));
     }
 
     @Test
-    void recordInteraction_ExistingInteraction_UpdatesInteractionStats() {
+    void recordInteraction_Favorite_AddsFavoriteWeightWithoutMovingRecentDocuments() {
         // Arrange
         when(documentRepository.findAccessibleDocumentByIdAndUserId(anyString(), anyString()))
                 .thenReturn(Optional.of(documentInformation));
-        when(documentInteractionRepository.findByUserIdAndDocumentId(anyString(), anyString()))
-                .thenReturn(Optional.of(documentInteraction));
-        when(documentInteractionRepository.save(any(DocumentInteraction.class)))
-                .thenAnswer(i -> i.getArguments()[0]);
-
-        // Mock preferences repository to return a valid preference
-        when(documentPreferencesRepository.findByUserId(userId.toString()))
-                .thenReturn(Optional.of(documentPreferences));
-        when(documentPreferencesRepository.save(any(DocumentPreferences.class)))
-                .thenAnswer(i -> i.getArguments()[0]);
-
-        // Set up the interaction stats to make sure there are recent stats available
-        Instant beforeTest = documentInteraction.getInteractions().get(InteractionType.VIEW.name()).getLastUpdate();
-
-        ArgumentCaptor<DocumentInteraction> interactionCaptor = ArgumentCaptor.forClass(DocumentInteraction.class);
+        when(documentPreferencesRepository.incrementInteractionCounts(anyString(), any(), anyString(), anyDouble(), any(), any()))
+                .thenReturn(Map.of(DocumentType.PDF.name(), 3.0));
 
         // Act
-        documentPreferencesService.recordInteraction(userId, "doc-1", InteractionType.VIEW);
-
-        // Assert
-        verify(documentRepository).findAccessibleDocumentByIdAndUserId("doc-1", userId.toString());
-        verify(documentInteractionRepository).findByUserIdAndDocumentId(userId.toString(), "doc-1");
-        verify(documentInteractionRepository).save(interactionCaptor.capture());
-        verify(documentPreferencesRepository).findByUserId(userId.toString());
-        verify(documentPreferencesRepository).save(any(DocumentPreferences.class));
-
-        DocumentInteraction capturedInteraction = interactionCaptor.getValue();
-        DocumentInteraction.InteractionStats viewStats = capturedInteraction.getInteractions().get(InteractionType.VIEW.name());
-        assertEquals(11, viewStats.getCount()); // 10 + 1
-        // We assert that the timestamp is different - not necessarily after
-        assertNotEquals(beforeTest, viewStats.getLastUpdate());
+        documentPreferencesService.recordInteraction(userId, "doc-1", InteractionType.FAVORITE);
+
+        // Assert - a favorite weighs three times a view on the type score
+        ArgumentCaptor<Double> scoreCaptor = ArgumentCaptor.forClass(Double.class);
+        verify(documentInteractionRepository).incrementInteraction(eq(userId.toString()), eq("doc-1"),
+                eq(InteractionType.FAVORITE), any(Instant.class));
+        verify(documentPreferencesRepository).incrementInteractionCounts(eq(userId.toString()), eq(documentInformation),
+                eq(DocumentType.PDF.name()), scoreCaptor.capture(), isNull(), any(Instant.class));
+        assertTrue(scoreCaptor.getValue() > 0);
+        verify(documentPreferencesRepository).updateRecentAndWeights(userId.toString(), null, 50,
+                Map.of(DocumentType.PDF.name(), 1.0));
     }
 
     @Test
-    void updateImplicitPreferences_UpdatesInteractionCounts() {
+    void updateImplicitPreferences_WritesNormalizedWeights() {
         // Arrange
-        when(documentPreferencesRepository.findByUserId(userId.toString()))
-                .thenReturn(Optional.of(documentPreferences));
-        when(documentPreferencesRepository.save(any(DocumentPreferences.class)))
-                .thenAnswer(i -> i.getArguments()[0]);
+        when(documentPreferencesRepository.incrementInteractionCounts(anyString(), any(), anyString(), anyDouble(), any(), any()))
+                .thenReturn(Map.of(DocumentType.PDF.name(), 30.0, DocumentType.WORD.name(), 10.0));
 
         // Act
-        documentPreferencesService.updateImplicitPreferences(userId, documentInformation, InteractionType.VIEW);
+        documentPreferencesService.updateImplicitPreferences(userId, documentInformation, InteractionType.COMMENT);
 
         // Assert
-        verify(documentPreferencesRepository).findByUserId(userId.toString());
-        verify(documentPreferencesRepository).save(preferencesCaptor.capture());
-
-        DocumentPreferences captured = preferencesCaptor.getValue();
-
-        // Check category counts updated
-        Map<String, Integer> categoryCounts = captured.getCategoryInteractionCounts();
-        assertNotNull(categoryCounts);
-        assertEquals(1, categoryCounts.get("PROGRAMMING"));
-
-        // Check tag counts updated
-        Map<String, Integer> tagCounts = captured.getTagInteractionCounts();
-        assertNotNull(tagCounts);
-        assertEquals(6, tagCounts.get("java")); // 5 + 1
-        assertEquals(1, tagCounts.get("programming")); // new tag
+        ArgumentCaptor<Map<String, Double>> weightsCaptor = ArgumentCaptor.forClass(Map.class);
+        verify(documentPreferencesRepository).updateRecentAndWeights(eq(userId.toString()), isNull(), eq(50),
+                weightsCaptor.capture());
+        assertEquals(0.75, weightsCaptor.getValue().get(DocumentType.PDF.name()), 1e-9);
+        assertEquals(0.25, weightsCaptor.getValue().get(DocumentType.WORD.name()), 1e-9);
+        verify(documentPreferencesRepository, never()).findByUserId(anyString());
     }
 
     @Test
     void getCalculateContentTypeWeights_ReturnsNormalizedWeights() {
         // Arrange
         when(userClient.getUserByUsername(anyString())).thenReturn(ResponseEntity.ok(userResponse));
-
-        Date recentDate = Date.from(Instant.now().minus(30, ChronoUnit.DAYS));
-        List<DocumentInteraction> recentInteractions = Collections.singletonList(documentInteraction);
-
-        when(documentInteractionRepository.findRecentInteractions(eq(userId.toString()), any(Date.class)))
-                .thenReturn(recentInteractions);
-        when(documentRepository.findById("doc-1"))
-                .thenReturn(Optional.of(documentInformation));
+        documentPreferences.setContentTypeScores(Map.of(DocumentType.PDF.name(), 3.0, DocumentType.WORD.name(), 1.0));
+        when(documentPreferencesRepository.findByUserId(userId.toString()))
+                .thenReturn(Optional.of(documentPreferences));
 
         // Act
         Map<String, Double> weights = documentPreferencesService.getCalculateContentTypeWeights("testuser");
 
         // Assert
-        assertNotNull(weights);
-        assertTrue(weights.containsKey(DocumentType.PDF.name()));
-        double pdfWeight = weights.get(DocumentType.PDF.name());
-        assertTrue(pdfWeight > 0 && pdfWeight <= 1.0);
+        assertEquals(0.75, weights.get(DocumentType.PDF.name()), 1e-9);
+        assertEquals(0.25, weights.get(DocumentType.WORD.name()), 1e-9);
 
         verify(userClient).getUserByUsername("testuser");
-        verify(documentInteractionRepository).findRecentInteractions(eq(userId.toString()), any(Date.class));
-        verify(documentRepository).findById("doc-1");
+        verify(documentInteractionRepository, never()).findRecentInteractions(anyString(), any(Date.class));
+        verify(documentRepository, never()).findSummaryById(anyString());
     }
 
     @Test
@@ -486,117 +447,82 @@ public class DocumentPreferencesServiceImplTest {
                 () -> documentPreferencesService.recordInteraction(userId, "doc-1", InteractionType.VIEW));
 
         verify(documentRepository).findAccessibleDocumentByIdAndUserId("doc-1", userId.toString());
-        verify(documentInteractionRepository, never()).findByUserIdAndDocumentId(anyString(), anyString());
+        verify(documentInteractionRepository, never()).incrementInteraction(anyString(), anyString(), any(), any());
     }
 
     @Test
-    void updateRecentDocuments_MaxDocumentsReached_RemovesOldest() {
+    void updateImplicitPreferences_ViewInteraction_KeepsLastRecentDocuments() {
         // Arrange
-        when(documentPreferencesRepository.findByUserId(userId.toString()))
-                .thenReturn(Optional.of(documentPreferences));
-        when(documentPreferencesRepository.save(any(DocumentPreferences.class)))
-                .thenAnswer(i -> i.getArguments()[0]);
-
-        // Setup preferences with MAX_RECENT_DOCUMENTS documents
-        LinkedHashSet<String> recentDocs = new LinkedHashSet<>();
-        for (int i = 0; i < 50; i++) {
-            recentDocs.add("doc-" + i);
-        }
-        documentPreferences.setRecentViewedDocuments(recentDocs);
-
-        // Use a new document ID
-        String newDocId = "doc-new";
+        when(documentPreferencesRepository.incrementInteractionCounts(anyString(), any(), anyString(), anyDouble(), any(), any()))
+                .thenReturn(Map.of());
 
         // Act
         documentPreferencesService.updateImplicitPreferences(userId, DocumentInformation.builder()
-                .id(newDocId)
+                .id("doc-new")
                 .filename("new-document.pdf")
                 .documentType(DocumentType.PDF)
                 .courseLevel("BEGINNER")
                 .build(), InteractionType.VIEW);
 
-        // Assert
-        verify(documentPreferencesRepository).save(preferencesCaptor.capture());
-        DocumentPreferences captured = preferencesCaptor.getValue();
-        Set<String> updatedRecentDocs = captured.getRecentViewedDocuments();
-
-        assertEquals(50, updatedRecentDocs.size(), "Size should remain at MAX_RECENT_DOCUMENTS");
-        assertFalse(updatedRecentDocs.contains("doc-0"), "Oldest document should be removed");
-        assertTrue(updatedRecentDocs.contains(newDocId), "New document should be added");
+        // Assert - the document is pulled with the counts and pushed back at the end, capped at 50
+        verify(documentPreferencesRepository).incrementInteractionCounts(eq(userId.toString()), any(),
+                eq(DocumentType.PDF.name()), anyDouble(), eq("doc-new"), any(Instant.class));
+        verify(documentPreferencesRepository).updateRecentAndWeights(userId.toString(), "doc-new", 50, Map.of());
     }
 
     @Test
     void updateImplicitPreferences_DownloadInteraction_UpdatesRecentDocuments() {
         // Arrange
-        when(documentPreferencesRepository.findByUserId(userId.toString()))
-                .thenReturn(Optional.of(documentPreferences));
-        when(documentPreferencesRepository.save(any(DocumentPreferences.class)))
-                .thenAnswer(i -> i.getArguments()[0]);
+        when(documentPreferencesRepository.incrementInteractionCounts(anyString(), any(), anyString(), anyDouble(), any(), any()))
+                .thenReturn(Map.of());
 
         // Act
         documentPreferencesService.updateImplicitPreferences(userId, documentInformation, InteractionType.DOWNLOAD);
 
         // Assert
-        verify(documentPreferencesRepository).save(preferencesCaptor.capture());
-        DocumentPreferences captured = preferencesCaptor.getValue();
-        assertTrue(captured.getRecentViewedDocuments().contains(documentInformation.getId()));
+        verify(documentPreferencesRepository).updateRecentAndWeights(userId.toString(), documentInformation.getId(), 50, Map.of());
     }
 
     @Test
-    void updateInteractionCounts_EmptyCollections_DoesNotThrow() {
+    void updateImplicitPreferences_LaterInteraction_AddsLargerScore() {
         // Arrange
-        DocumentInformation emptyDocument = DocumentInformation.builder()
-                .id("doc-2")
-                .filename("empty-document.pdf")
-                .documentType(DocumentType.PDF)
-                .majors(Collections.emptySet())
-                .courseCodes(Collections.emptySet())
-                .courseLevel("BEGINNER")
-                .categories(Collections.emptySet())
-                .tags(Collections.emptySet())
-                .build();
-
-        when(documentPreferencesRepository.findByUserId(userId.toString()))
-                .thenReturn(Optional.of(documentPreferences));
-        when(documentPreferencesRepository.save(any(DocumentPreferences.class)))
-                .thenAnswer(i -> i.getArguments()[0]);
+        when(documentPreferencesRepository.incrementInteractionCounts(anyString(), any(), anyString(), anyDouble(), any(), any()))
+                .thenReturn(Map.of());
+        ArgumentCaptor<Double> incrementCaptor = ArgumentCaptor.forClass(Double.class);
 
         // Act
-        documentPreferencesService.updateImplicitPreferences(userId, emptyDocument, InteractionType.VIEW);
+        documentPreferencesService.updateImplicitPreferences(userId, documentInformation, InteractionType.VIEW);
+        documentPreferencesService.updateImplicitPreferences(userId, documentInformation, InteractionType.DOWNLOAD);
 
-        // Assert
-        verify(documentPreferencesRepository).save(preferencesCaptor.capture());
-        DocumentPreferences captured = preferencesCaptor.getValue();
-
-        assertNotNull(captured.getMajorInteractionCounts());
-        assertNotNull(captured.getCourseCodeInteractionCounts());
-        assertNotNull(captured.getCategoryInteractionCounts());
-        assertNotNull(captured.getTagInteractionCounts());
-        assertEquals(1, captured.getLevelInteractionCounts().get("BEGINNER"));
+        // Assert - increments are scaled up over time instead of decaying stored scores
+        verify(documentPreferencesRepository, times(2)).incrementInteractionCounts(anyString(), any(), anyString(),
+                incrementCaptor.capture(), any(), any(Instant.class));
+        double view = incrementCaptor.getAllValues().get(0);
+        double download = incrementCaptor.getAllValues().get(1);
+        assertTrue(view > 1.0);
+        assertEquals(2.0, download / view, 1e-3);
     }
 
     @Test
-    void calculateContentTypeWeights_DocumentNotFound_SkipsDocument() {
+    void calculateContentTypeWeights_ScoresNotDerivedYet_ReturnsStoredWeights() {
         // Arrange
         when(userClient.getUserByUsername(anyString())).thenReturn(ResponseEntity.ok(userResponse));
-        when(documentInteractionRepository.findRecentInteractions(eq(userId.toString()), any(Date.class)))
-                .thenReturn(Collections.singletonList(documentInteraction));
-        when(documentRepository.findById("doc-1")).thenReturn(Optional.empty());
+        documentPreferences.setContentTypeWeights(Map.of(DocumentType.PDF.name(), 1.0));
+        when(documentPreferencesRepository.findByUserId(userId.toString()))
+                .thenReturn(Optional.of(documentPreferences));
 
         // Act
         Map<String, Double> weights = documentPreferencesService.getCalculateContentTypeWeights("testuser");
 
         // Assert
-        assertNotNull(weights);
-        assertTrue(weights.isEmpty()); // No weights since document not found
+        assertEquals(Map.of(DocumentType.PDF.name(), 1.0), weights);
     }
 
     @Test
-    void calculateContentTypeWeights_NoInteractions_ReturnsEmptyMap() {
+    void calculateContentTypeWeights_NoPreferences_ReturnsEmptyMap() {
         // Arrange
         when(userClient.getUserByUsername(anyString())).thenReturn(ResponseEntity.ok(userResponse));
-        when(documentInteractionRepository.findRecentInteractions(eq(userId.toString()), any(Date.class)))
-                .thenReturn(Collections.emptyList());
+        when(documentPreferencesRepository.findByUserId(userId.toString())).thenReturn(Optional.empty());
 
         // Act
         Map<String, Double> weights = documentPreferencesService.getCalculateContentTypeWeights("testuser");
@@ -606,7 +532,49 @@ public class DocumentPreferencesServiceImplTest {
         assertTrue(weights.isEmpty(), "Expected empty weights map when there are no interactions");
 
         verify(userClient).getUserByUsername("testuser");
-        verify(documentInteractionRepository).findRecentInteractions(eq(userId.toString()), any(Date.class));
+        verify(documentPreferencesRepository, never()).save(any(DocumentPreferences.class));
+    }
+
+    @Test
+    void rederiveImplicitPreferences_RecomputesFromInteractions() {
+        // Arrange
+        ReflectionTestUtils.setField(documentPreferencesService, "rederiveBatchSize", 1);
+        DocumentPreferences other = new DocumentPreferences();
+        other.setId("pref-2");
+        other.setUserId("other-user");
+        when(documentPreferencesRepository.findUserIdsAfter(null, 1)).thenReturn(List.of(documentPreferences));
+        when(documentPreferencesRepository.findUserIdsAfter("pref-1", 1)).thenReturn(List.of(other));
+        when(documentPreferencesRepository.findUserIdsAfter("pref-2", 1)).thenReturn(List.of());
+
+        DocumentInteraction deletedDocumentInteraction = new DocumentInteraction();
+        deletedDocumentInteraction.setUserId(userId.toString());
+        deletedDocumentInteraction.setDocumentId("doc-deleted");
+        deletedDocumentInteraction.setInteractions(documentInteraction.getInteractions());
+        when(documentInteractionRepository.findByUserIdIn(Set.of(userId.toString())))
+                .thenReturn(List.of(documentInteraction, deletedDocumentInteraction));
+        when(documentInteractionRepository.findByUserIdIn(Set.of("other-user"))).thenReturn(List.of());
+        when(documentRepository.findPreferenceAttributesByIdIn(Set.of("doc-1", "doc-deleted")))
+                .thenReturn(List.of(documentInformation));
+        ArgumentCaptor<List<DocumentPreferences>> derivedCaptor = ArgumentCaptor.forClass(List.class);
+
+        // Act
+        int users = documentPreferencesService.rederiveImplicitPreferences();
+
+        // Assert
+        assertEquals(2, users);
+        verify(documentPreferencesRepository, times(2)).replaceImplicitPreferences(derivedCaptor.capture());
+        DocumentPreferences derived = derivedCaptor.getAllValues().get(0).get(0);
+        assertEquals(userId.toString(), derived.getUserId());
+        assertEquals(Map.of("java", 15, "programming", 15), derived.getTagInteractionCounts());
+        assertEquals(Map.of("CS", 15), derived.getMajorInteractionCounts());
+        assertEquals(Map.of("INTERMEDIATE", 15), derived.getLevelInteractionCounts());
+        assertEquals(Map.of(DocumentType.PDF.name(), 1.0), derived.getContentTypeWeights());
+        assertTrue(derived.getContentTypeScores().get(DocumentType.PDF.name()) > 20.0);
+
+        DocumentPreferences empty = derivedCaptor.getAllValues().get(1).get(0);
+        assertTrue(empty.getTagInteractionCounts().isEmpty());
+        assertTrue(empty.getContentTypeWeights().isEmpty());
+        verify(documentRepository, times(1)).findPreferenceAttributesByIdIn(any());
     }
 
     @Test
@@ -10,11 +10,10 @@ import com.dms.document.interaction.enums.EventType;
 import com.dms.document.interaction.enums.UserDocumentActionType;
 import com.dms.document.interaction.exception.InvalidDocumentException;
 import com.dms.document.interaction.model.DocumentInformation;
-import com.dms.document.interaction.model.DocumentRecommendation;
 import com.dms.document.interaction.model.DocumentUserHistory;
 import com.dms.document.interaction.repository.DocumentRecommendationRepository;
 import com.dms.document.interaction.repository.DocumentRepository;
-import com.dms.document.interaction.repository.DocumentUserHistoryRepository;
+import com.dms.document.interaction.service.DocumentUserHistoryWriter;
 import com.dms.document.interaction.service.PublishEventService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -28,13 +27,14 @@ import org.springframework.dao.InvalidDataAccessResourceUsageException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
-import java.time.Instant;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -50,7 +50,7 @@ class DocumentRecommendationServiceImplTest {
     private UserClient userClient;
 
     @Mock
-    private DocumentUserHistoryRepository documentUserHistoryRepository;
+    private DocumentUserHistoryWriter documentUserHistoryWriter;
 
     @Mock
     private PublishEventService publishEventService;
@@ -63,7 +63,6 @@ class DocumentRecommendationServiceImplTest {
     private final String DOCUMENT_ID = "doc123";
     private UserResponse userResponse;
     private DocumentInformation documentInformation;
-    private DocumentRecommendation recommendation;
     private MockedStatic<CompletableFuture> mockedCompletableFuture;
 
     @BeforeEach
@@ -84,12 +83,6 @@ class DocumentRecommendationServiceImplTest {
         documentInformation.setCurrentVersion(1);
         documentInformation.setRecommendationCount(0);
 
-        // Create test recommendation
-        recommendation = new DocumentRecommendation();
-        recommendation.setDocumentId(DOCUMENT_ID);
-        recommendation.setMentorId(USER_ID);
-        recommendation.setCreatedAt(Instant.now());
-
         // Mock CompletableFuture.runAsync to run synchronously
         mockedCompletableFuture = mockStatic(CompletableFuture.class);
         mockedCompletableFuture.when(() -> CompletableFuture.runAsync(any(Runnable.class))).thenAnswer(invocation -> {
@@ -114,26 +107,21 @@ class DocumentRecommendationServiceImplTest {
         // Arrange
         when(documentRepository.findAccessibleDocumentByIdAndUserId(DOCUMENT_ID, USER_ID.toString()))
                 .thenReturn(Optional.of(documentInformation));
-        when(recommendationRepository.findByDocumentIdAndMentorId(DOCUMENT_ID, USER_ID)).thenReturn(Optional.empty());
-        when(recommendationRepository.save(any(DocumentRecommendation.class))).thenReturn(recommendation);
-        when(documentRepository.save(any(DocumentInformation.class))).thenReturn(documentInformation);
+        when(recommendationRepository.insertIfAbsent(DOCUMENT_ID, USER_ID)).thenReturn(1);
 
         // Act
         boolean result = recommendationService.recommendDocument(DOCUMENT_ID, true, USERNAME);
 
         // Assert
         assertTrue(result);
-        verify(recommendationRepository).save(any(DocumentRecommendation.class));
+        verify(recommendationRepository).insertIfAbsent(DOCUMENT_ID, USER_ID);
 
         // Verify document's recommendation count is updated
-        ArgumentCaptor<DocumentInformation> docCaptor = ArgumentCaptor.forClass(DocumentInformation.class);
-        verify(documentRepository).save(docCaptor.capture());
-        DocumentInformation savedDoc = docCaptor.getValue();
-        assertEquals(1, savedDoc.getRecommendationCount());
+        verify(documentRepository).incrementRecommendationCount(DOCUMENT_ID, 1);
 
         // Verify history is recorded
         ArgumentCaptor<DocumentUserHistory> historyCaptor = ArgumentCaptor.forClass(DocumentUserHistory.class);
-        verify(documentUserHistoryRepository).save(historyCaptor.capture());
+        verify(documentUserHistoryWriter).record(historyCaptor.capture());
         DocumentUserHistory history = historyCaptor.getValue();
         assertEquals(USER_ID.toString(), history.getUserId());
         assertEquals(DOCUMENT_ID, history.getDocumentId());
@@ -147,29 +135,23 @@ class DocumentRecommendationServiceImplTest {
     @Test
     void recommendDocument_Success_Unrecommend() {
         // Arrange
-        documentInformation.setRecommendationCount(1);
         when(documentRepository.findAccessibleDocumentByIdAndUserId(DOCUMENT_ID, USER_ID.toString()))
                 .thenReturn(Optional.of(documentInformation));
-        when(recommendationRepository.findByDocumentIdAndMentorId(DOCUMENT_ID, USER_ID))
-                .thenReturn(Optional.of(recommendation));
-        when(documentRepository.save(any(DocumentInformation.class))).thenReturn(documentInformation);
+        when(recommendationRepository.deleteByDocumentIdAndMentorId(DOCUMENT_ID, USER_ID)).thenReturn(1);
 
         // Act
         boolean result = recommendationService.recommendDocument(DOCUMENT_ID, false, USERNAME);
 
         // Assert
         assertTrue(result);
-        verify(recommendationRepository).delete(recommendation);
+        verify(recommendationRepository).deleteByDocumentIdAndMentorId(DOCUMENT_ID, USER_ID);
 
         // Verify document's recommendation count is updated
-        ArgumentCaptor<DocumentInformation> docCaptor = ArgumentCaptor.forClass(DocumentInformation.class);
-        verify(documentRepository).save(docCaptor.capture());
-        DocumentInformation savedDoc = docCaptor.getValue();
-        assertEquals(0, savedDoc.getRecommendationCount());
+        verify(documentRepository).incrementRecommendationCount(DOCUMENT_ID, -1);
 
         // Verify history is recorded
         ArgumentCaptor<DocumentUserHistory> historyCaptor = ArgumentCaptor.forClass(DocumentUserHistory.class);
-        verify(documentUserHistoryRepository).save(historyCaptor.capture());
+        verify(documentUserHistoryWriter).record(historyCaptor.capture());
         DocumentUserHistory history = historyCaptor.getValue();
         assertEquals(USER_ID.toString(), history.getUserId());
         assertEquals(DOCUMENT_ID, history.getDocumentId());
@@ -185,17 +167,15 @@ class DocumentRecommendationServiceImplTest {
         // Arrange
         when(documentRepository.findAccessibleDocumentByIdAndUserId(DOCUMENT_ID, USER_ID.toString()))
                 .thenReturn(Optional.of(documentInformation));
-        when(recommendationRepository.findByDocumentIdAndMentorId(DOCUMENT_ID, USER_ID))
-                .thenReturn(Optional.of(recommendation));
+        when(recommendationRepository.insertIfAbsent(DOCUMENT_ID, USER_ID)).thenReturn(0);
 
         // Act
         boolean result = recommendationService.recommendDocument(DOCUMENT_ID, true, USERNAME);
 
         // Assert
         assertFalse(result);
-        verify(recommendationRepository, never()).save(any(DocumentRecommendation.class));
-        verify(documentRepository, never()).save(any(DocumentInformation.class));
-        verify(documentUserHistoryRepository, never()).save(any(DocumentUserHistory.class));
+        verify(documentRepository, never()).incrementRecommendationCount(anyString(), anyInt());
+        verify(documentUserHistoryWriter, never()).record(any(DocumentUserHistory.class));
         verify(publishEventService, never()).sendSyncEvent(any(SyncEventRequest.class));
     }
 
@@ -204,17 +184,15 @@ class DocumentRecommendationServiceImplTest {
         // Arrange
         when(documentRepository.findAccessibleDocumentByIdAndUserId(DOCUMENT_ID, USER_ID.toString()))
                 .thenReturn(Optional.of(documentInformation));
-        when(recommendationRepository.findByDocumentIdAndMentorId(DOCUMENT_ID, USER_ID))
-                .thenReturn(Optional.empty());
+        when(recommendationRepository.deleteByDocumentIdAndMentorId(DOCUMENT_ID, USER_ID)).thenReturn(0);
 
         // Act
         boolean result = recommendationService.recommendDocument(DOCUMENT_ID, false, USERNAME);
 
         // Assert
         assertFalse(result);
-        verify(recommendationRepository, never()).delete(any(DocumentRecommendation.class));
-        verify(documentRepository, never()).save(any(DocumentInformation.class));
-        verify(documentUserHistoryRepository, never()).save(any(DocumentUserHistory.class));
+        verify(documentRepository, never()).incrementRecommendationCount(anyString(), anyInt());
+        verify(documentUserHistoryWriter, never()).record(any(DocumentUserHistory.class));
         verify(publishEventService, never()).sendSyncEvent(any(SyncEventRequest.class));
     }
 
@@ -227,10 +205,10 @@ class DocumentRecommendationServiceImplTest {
         // Act & Assert
         assertThrows(InvalidDocumentException.class,
                 () -> recommendationService.recommendDocument(DOCUMENT_ID, true, USERNAME));
-        verify(recommendationRepository, never()).save(any(DocumentRecommendation.class));
-        verify(recommendationRepository, never()).delete(any(DocumentRecommendation.class));
-        verify(documentRepository, never()).save(any(DocumentInformation.class));
-        verify(documentUserHistoryRepository, never()).save(any(DocumentUserHistory.class));
+        verify(recommendationRepository, never()).insertIfAbsent(anyString(), any(UUID.class));
+        verify(recommendationRepository, never()).deleteByDocumentIdAndMentorId(anyString(), any(UUID.class));
+        verify(documentRepository, never()).incrementRecommendationCount(anyString(), anyInt());
+        verify(documentUserHistoryWriter, never()).record(any(DocumentUserHistory.class));
         verify(publishEventService, never()).sendSyncEvent(any(SyncEventRequest.class));
     }
 
@@ -242,10 +220,10 @@ class DocumentRecommendationServiceImplTest {
         // Act & Assert
         assertThrows(InvalidDataAccessResourceUsageException.class,
                 () -> recommendationService.recommendDocument(DOCUMENT_ID, true, USERNAME));
-        verify(recommendationRepository, never()).save(any(DocumentRecommendation.class));
-        verify(recommendationRepository, never()).delete(any(DocumentRecommendation.class));
-        verify(documentRepository, never()).save(any(DocumentInformation.class));
-        verify(documentUserHistoryRepository, never()).save(any(DocumentUserHistory.class));
+        verify(recommendationRepository, never()).insertIfAbsent(anyString(), any(UUID.class));
+        verify(recommendationRepository, never()).deleteByDocumentIdAndMentorId(anyString(), any(UUID.class));
+        verify(documentRepository, never()).incrementRecommendationCount(anyString(), anyInt());
+        verify(documentUserHistoryWriter, never()).record(any(DocumentUserHistory.class));
         verify(publishEventService, never()).sendSyncEvent(any(SyncEventRequest.class));
     }
 
@@ -311,14 +311,14 @@ public class DocumentReportServiceImplTest {
 
             when(documentReportRepository.findByDocumentIdAndProcessed(documentId, false))
                     .thenReturn(pendingReports);
-            when(documentRepository.findById(documentId)).thenReturn(Optional.of(documentInformation));
+            when(documentRepository.existsById(documentId)).thenReturn(true);
 
             // Act
             documentReportService.updateReportStatus(documentId, DocumentReportStatus.RESOLVED, "admin");
 
             // Assert
             verify(documentReportRepository).saveAll(anyList());
-            verify(documentRepository).save(any(DocumentInformation.class));
+            verify(documentRepository).updateReportStatus(documentId, DocumentReportStatus.RESOLVED);
 
             // Now this should work because the Runnable passed to CompletableFuture.runAsync was executed immediately
             verify(publishEventService).sendSyncEvent(syncEventCaptor.capture());
@@ -367,23 +367,19 @@ public class DocumentReportServiceImplTest {
 
             when(documentReportRepository.findByDocumentIdAndProcessed(documentId, false))
                     .thenReturn(pendingReports);
-            when(documentRepository.findById(documentId)).thenReturn(Optional.of(documentInformation));
+            when(documentRepository.existsById(documentId)).thenReturn(true);
 
             // Act
             documentReportService.updateReportStatus(documentId, DocumentReportStatus.REJECTED, "admin");
 
             // Assert
             verify(documentReportRepository).saveAll(anyList());
-            verify(documentRepository).save(documentCaptor.capture());
+            verify(documentRepository).updateReportStatus(documentId, DocumentReportStatus.REJECTED);
 
             // Verify document report status was updated correctly
             assertEquals(DocumentReportStatus.REJECTED, pendingReport.getStatus());
             assertEquals(adminId, pendingReport.getUpdatedBy());
             assertTrue(pendingReport.getProcessed()); // Should be marked as processed for REJECTED status
-
-            // Verify document status was updated
-            DocumentInformation updatedDoc = documentCaptor.getValue();
-            assertEquals(DocumentReportStatus.REJECTED, updatedDoc.getReportStatus());
         }
     }
 
@@ -416,23 +412,19 @@ public class DocumentReportServiceImplTest {
 
             when(documentReportRepository.findByDocumentIdAndProcessed(documentId, false))
                     .thenReturn(pendingReports);
-            when(documentRepository.findById(documentId)).thenReturn(Optional.of(documentInformation));
+            when(documentRepository.existsById(documentId)).thenReturn(true);
 
             // Act
             documentReportService.updateReportStatus(documentId, DocumentReportStatus.REMEDIATED, "admin");
 
             // Assert
             verify(documentReportRepository).saveAll(anyList());
-            verify(documentRepository).save(documentCaptor.capture());
+            verify(documentRepository).updateReportStatus(documentId, DocumentReportStatus.REMEDIATED);
 
             // Verify document report status was updated correctly
             assertEquals(DocumentReportStatus.REMEDIATED, pendingReport.getStatus());
             assertEquals(adminId, pendingReport.getUpdatedBy());
             assertTrue(pendingReport.getProcessed()); // Should be marked as processed for REMEDIATED status
-
-            // Verify document status was updated
-            DocumentInformation updatedDoc = documentCaptor.getValue();
-            assertEquals(DocumentReportStatus.REMEDIATED, updatedDoc.getReportStatus());
         }
     }
 
@@ -450,7 +442,7 @@ public class DocumentReportServiceImplTest {
 
         // Verify no updates were made
         verify(documentReportRepository, never()).save(any(DocumentReport.class));
-        verify(documentRepository, never()).save(any(DocumentInformation.class));
+        verify(documentRepository, never()).updateReportStatus(anyString(), any(DocumentReportStatus.class));
     }
 
     @Test
@@ -462,7 +454,7 @@ public class DocumentReportServiceImplTest {
 
         when(documentReportRepository.findByDocumentIdAndProcessed(documentId, false))
                 .thenReturn(Collections.emptyList());
-        when(documentRepository.findById(documentId)).thenReturn(Optional.of(documentInformation)); // Valid document
+        when(documentRepository.existsById(documentId)).thenReturn(true); // Valid document
 
         // Act & Assert
         IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () ->
@@ -487,7 +479,7 @@ public class DocumentReportServiceImplTest {
 
         when(documentReportRepository.findByDocumentIdAndProcessed(documentId, false))
                 .thenReturn(Collections.singletonList(processedReport));
-        when(documentRepository.findById(documentId)).thenReturn(Optional.of(documentInformation)); // Valid document
+        when(documentRepository.existsById(documentId)).thenReturn(true); // Valid document
 
         // Act & Assert
         IllegalStateException exception = assertThrows(IllegalStateException.class, () ->
@@ -512,7 +504,7 @@ public class DocumentReportServiceImplTest {
 
         when(documentReportRepository.findByDocumentIdAndProcessed(documentId, false))
                 .thenReturn(Collections.singletonList(pendingReport));
-        when(documentRepository.findById(documentId)).thenReturn(Optional.of(documentInformation)); // Valid document
+        when(documentRepository.existsById(documentId)).thenReturn(true); // Valid document
 
         // Act & Assert
         IllegalStateException exception = assertThrows(IllegalStateException.class, () ->
@@ -630,7 +622,7 @@ public class DocumentReportServiceImplTest {
                 .thenReturn(projectionPage);
 
         // Mock finding document by ID
-        when(documentRepository.findAllById(anyList()))
+        when(documentRepository.findByIdIn(anyList()))
                 .thenReturn(Collections.singletonList(documentInfo));
 
         // Mock username retrieval
@@ -705,7 +697,7 @@ public class DocumentReportServiceImplTest {
                 .thenReturn(projectionPage);
 
         // Mock finding document by ID
-        when(documentRepository.findAllById(anyList()))
+        when(documentRepository.findByIdIn(anyList()))
                 .thenReturn(Collections.singletonList(documentInfo));
 
         // Mock username retrieval
@@ -943,7 +935,7 @@ public class DocumentReportServiceImplTest {
 
         lenient().when(documentReportRepository.findByDocumentIdAndProcessed(documentId, false))
                 .thenReturn(Collections.singletonList(pendingReport));
-        when(documentRepository.findById(documentId)).thenReturn(Optional.empty());
+        when(documentRepository.existsById(documentId)).thenReturn(false);
 
         // Act & Assert
         IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () ->
@@ -991,7 +983,7 @@ public class DocumentReportServiceImplTest {
 
             when(documentReportRepository.findByDocumentIdAndProcessed(documentId, false))
                     .thenReturn(pendingReports);
-            when(documentRepository.findById(documentId)).thenReturn(Optional.of(documentInformation));
+            when(documentRepository.existsById(documentId)).thenReturn(true);
 
             // Act
             documentReportService.updateReportStatus(documentId, DocumentReportStatus.RESOLVED, "admin");
@@ -1062,7 +1054,7 @@ public class DocumentReportServiceImplTest {
         when(documentReportRepository.findDocumentReportsGroupedByProcessedAndDocumentIds(
                 any(), any(), any(), any(), anyCollection(), eq(pageable)))
                 .thenReturn(projectionPage);
-        when(documentRepository.findAllById(anyList()))
+        when(documentRepository.findByIdIn(anyList()))
                 .thenReturn(Collections.emptyList()); // No documents found
 
         // Act
@@ -1204,7 +1196,7 @@ public class DocumentReportServiceImplTest {
         when(documentReportRepository.findDocumentReportsGroupedByProcessed(
                 eq(status.name()), eq(fromDate), eq(toDate), eq(reportTypeCode), eq(pageable)))
                 .thenReturn(projectionPage);
-        when(documentRepository.findAllById(Collections.singletonList(documentId)))
+        when(documentRepository.findByIdIn(Collections.singletonList(documentId)))
                 .thenReturn(Collections.singletonList(documentInformation));
         when(userClient.getUsersByIds(anyList())).thenReturn(ResponseEntity.ok(Collections.emptyList()));
 
@@ -1250,7 +1242,7 @@ public class DocumentReportServiceImplTest {
         when(documentReportRepository.findDocumentReportsGroupedByProcessedAndDocumentIds(
                 any(), any(), any(), any(), anyCollection(), eq(pageable)))
                 .thenReturn(projectionPage);
-        when(documentRepository.findAllById(Arrays.asList(documentId, "missingDoc")))
+        when(documentRepository.findByIdIn(Arrays.asList(documentId, "missingDoc")))
                 .thenReturn(Collections.singletonList(documentInformation));
         when(userClient.getUsersByIds(anyList())).thenReturn(ResponseEntity.ok(Collections.emptyList()));
 
@@ -1295,7 +1287,7 @@ public class DocumentReportServiceImplTest {
         when(documentReportRepository.findDocumentReportsGroupedByProcessedAndDocumentIds(
                 any(), any(), any(), any(), anyCollection(), eq(pageable)))
                 .thenReturn(projectionPage);
-        when(documentRepository.findAllById(Collections.singletonList(documentId)))
+        when(documentRepository.findByIdIn(Collections.singletonList(documentId)))
                 .thenReturn(Collections.singletonList(documentInformation));
 
         // Act
@@ -1336,7 +1328,7 @@ public class DocumentReportServiceImplTest {
         when(documentReportRepository.findDocumentReportsGroupedByProcessedAndDocumentIds(
                 any(), any(), any(), any(), anyCollection(), eq(pageable)))
                 .thenReturn(projectionPage);
-        when(documentRepository.findAllById(Collections.singletonList(documentId)))
+        when(documentRepository.findByIdIn(Collections.singletonList(documentId)))
                 .thenReturn(Collections.singletonList(documentInformation));
 
         // Act
@@ -1396,7 +1388,7 @@ public class DocumentReportServiceImplTest {
         when(documentReportRepository.findDocumentReportsGroupedByProcessedAndDocumentIds(
                 any(), any(), any(), any(), anyCollection(), eq(pageable)))
                 .thenReturn(projectionPage);
-        when(documentRepository.findAllById(Collections.singletonList(documentId)))
+        when(documentRepository.findByIdIn(Collections.singletonList(documentId)))
                 .thenReturn(Collections.singletonList(documentInformation));
         when(userClient.getUsersByIds(anyList())).thenReturn(ResponseEntity.ok(Collections.emptyList()));
 
@@ -1,7 +1,9 @@
 package com.dms.document.interaction.service.impl;
 
 import com.dms.document.interaction.client.UserClient;
+import com.dms.document.interaction.dto.DocumentFileResponse;
 import com.dms.document.interaction.dto.DocumentUpdateRequest;
+import com.dms.document.interaction.dto.StoredFileMetadata;
 import com.dms.document.interaction.dto.ThumbnailResponse;
 import com.dms.document.interaction.dto.UserResponse;
 import com.dms.document.interaction.enums.*;
@@ -11,9 +13,9 @@ import com.dms.document.interaction.model.DocumentInformation;
 import com.dms.document.interaction.model.DocumentUserHistory;
 import com.dms.document.interaction.model.DocumentVersion;
 import com.dms.document.interaction.repository.DocumentRepository;
-import com.dms.document.interaction.repository.DocumentUserHistoryRepository;
 import com.dms.document.interaction.service.DocumentNotificationService;
 import com.dms.document.interaction.service.DocumentPreferencesService;
+import com.dms.document.interaction.service.DocumentUserHistoryWriter;
 import com.dms.document.interaction.service.FileStorageService;
 import com.dms.document.interaction.service.PublishEventService;
 import org.junit.jupiter.api.BeforeEach;
@@ -50,7 +52,7 @@ public class DocumentServiceImplTest {
     private DocumentRepository documentRepository;
 
     @Mock
-    private DocumentUserHistoryRepository documentUserHistoryRepository;
+    private DocumentUserHistoryWriter documentUserHistoryWriter;
 
     @Mock
     private DocumentNotificationService documentNotificationService;
@@ -296,45 +298,87 @@ public class DocumentServiceImplTest {
     }
 
     @Test
-    void getDocumentContent_Success() throws IOException {
+    void getDocumentFile_Success() throws IOException {
         // Arrange
         when(userClient.getUserByUsername(TEST_USERNAME)).thenReturn(ResponseEntity.ok(testUserResponse));
         when(documentRepository.findAccessibleDocumentByIdAndUserId(TEST_DOCUMENT_ID, TEST_USER_ID.toString()))
                 .thenReturn(Optional.of(testDocumentInfo));
-        byte[] fileContent = "test file content".getBytes();
-        when(s3Service.downloadFile(testDocumentInfo.getFilePath())).thenReturn(fileContent);
+        StoredFileMetadata metadata = fileMetadata(17);
+        when(s3Service.getFileMetadata(testDocumentInfo.getFilePath())).thenReturn(metadata);
 
         // Act
-        byte[] result = documentService.getDocumentContent(TEST_DOCUMENT_ID, TEST_USERNAME, "view", false);
+        DocumentFileResponse result = documentService.getDocumentFile(TEST_DOCUMENT_ID, TEST_USERNAME, "view", false);
 
         // Assert
         assertNotNull(result);
-        assertArrayEquals(fileContent, result);
+        assertSame(metadata, result.getMetadata());
+        assertEquals(testDocumentInfo.getFilePath(), result.getFilePath());
+        assertEquals(testDocumentInfo.getFilename(), result.getFilename());
+        verify(s3Service, never()).downloadFile(any());
         verify(documentPreferencesService, never()).recordInteraction(any(), any(), any());
     }
 
     @Test
-    void getDocumentContent_WithDownloadAndHistory_RecordsInteraction() throws IOException {
+    void getDocumentFile_WithDownloadAndHistory_RecordsInteraction() throws IOException {
         // Arrange
         when(userClient.getUserByUsername(TEST_USERNAME)).thenReturn(ResponseEntity.ok(testUserResponse));
         when(documentRepository.findAccessibleDocumentByIdAndUserId(TEST_DOCUMENT_ID, TEST_USER_ID.toString()))
                 .thenReturn(Optional.of(testDocumentInfo));
-        byte[] fileContent = "test file content".getBytes();
-        when(s3Service.downloadFile(testDocumentInfo.getFilePath())).thenReturn(fileContent);
+        StoredFileMetadata metadata = fileMetadata(17);
+        when(s3Service.getFileMetadata(testDocumentInfo.getFilePath())).thenReturn(metadata);
 
         // Act
-        byte[] result = documentService.getDocumentContent(TEST_DOCUMENT_ID, TEST_USERNAME, "download", true);
+        DocumentFileResponse result = documentService.getDocumentFile(TEST_DOCUMENT_ID, TEST_USERNAME, "download", true);
+        documentService.recordDownload(result);
 
         // Assert
         assertNotNull(result);
-        assertArrayEquals(fileContent, result);
+        assertSame(metadata, result.getMetadata());
+        assertEquals(UserDocumentActionType.DOWNLOAD_FILE, result.getDownloadHistory().getUserDocumentActionType());
+
+        verify(documentUserHistoryWriter).record(result.getDownloadHistory());
+        assertNotNull(result.getDownloadHistory().getCreatedAt());
 
         // Need to wait a bit for async operations
-        verify(documentUserHistoryRepository, timeout(1000).times(1)).save(any());
         verify(documentPreferencesService, timeout(1000).times(1))
                 .recordInteraction(eq(TEST_USER_ID), eq(TEST_DOCUMENT_ID), eq(InteractionType.DOWNLOAD));
     }
 
+    @Test
+    void getDocumentFile_WithDownloadAndHistory_RecordsNothingUntilDownloadStarts() throws IOException {
+        // Arrange
+        when(userClient.getUserByUsername(TEST_USERNAME)).thenReturn(ResponseEntity.ok(testUserResponse));
+        when(documentRepository.findAccessibleDocumentByIdAndUserId(TEST_DOCUMENT_ID, TEST_USER_ID.toString()))
+                .thenReturn(Optional.of(testDocumentInfo));
+        when(s3Service.getFileMetadata(testDocumentInfo.getFilePath())).thenReturn(fileMetadata(17));
+
+        // Act
+        DocumentFileResponse result = documentService.getDocumentFile(TEST_DOCUMENT_ID, TEST_USERNAME, "download", true);
+
+        // Assert
+        assertNotNull(result.getDownloadHistory());
+        verify(documentUserHistoryWriter, never()).record(any());
+        verify(documentPreferencesService, never()).recordInteraction(any(), any(), any());
+    }
+
+    @Test
+    void recordDownload_WithoutHistory_RecordsNothing() throws IOException {
+        // Arrange
+        when(userClient.getUserByUsername(TEST_USERNAME)).thenReturn(ResponseEntity.ok(testUserResponse));
+        when(documentRepository.findAccessibleDocumentByIdAndUserId(TEST_DOCUMENT_ID, TEST_USER_ID.toString()))
+                .thenReturn(Optional.of(testDocumentInfo));
+        when(s3Service.getFileMetadata(testDocumentInfo.getFilePath())).thenReturn(fileMetadata(17));
+        DocumentFileResponse file = documentService.getDocumentFile(TEST_DOCUMENT_ID, TEST_USERNAME, "download", false);
+
+        // Act
+        documentService.recordDownload(file);
+
+        // Assert
+        assertNull(file.getDownloadHistory());
+        verify(documentUserHistoryWriter, never()).record(any());
+        verify(documentPreferencesService, never()).recordInteraction(any(), any(), any());
+    }
+
     @Test
     void getDocumentDetails_Success() {
         // Arrange
@@ -349,7 +393,7 @@ public class DocumentServiceImplTest {
         assertNotNull(result);
         assertEquals(TEST_DOCUMENT_ID, result.getId());
         assertNull(result.getContent());
-        verify(documentUserHistoryRepository, never()).save(any());
+        verify(documentUserHistoryWriter, never()).record(any());
         verify(documentPreferencesService, never()).recordInteraction(any(), any(), any());
     }
 
@@ -369,7 +413,7 @@ public class DocumentServiceImplTest {
         assertNull(result.getContent());
 
         // Verify async operations
-        verify(documentUserHistoryRepository, timeout(1000).times(1)).save(any());
+        verify(documentUserHistoryWriter, timeout(1000).times(1)).record(any());
         verify(documentPreferencesService, timeout(1000).times(1))
                 .recordInteraction(eq(TEST_USER_ID), eq(TEST_DOCUMENT_ID), eq(InteractionType.VIEW));
     }
@@ -378,9 +422,6 @@ public class DocumentServiceImplTest {
     void updateDocument_Success() {
         // Arrange
         when(userClient.getUserByUsername(TEST_USERNAME)).thenReturn(ResponseEntity.ok(testUserResponse));
-        when(documentRepository.findByIdAndUserId(TEST_DOCUMENT_ID, TEST_USER_ID.toString()))
-                .thenReturn(Optional.of(testDocumentInfo));
-        when(documentRepository.save(any(DocumentInformation.class))).thenReturn(testDocumentInfo);
 
         Set<String> updatedMajors = new HashSet<>(List.of("CS", "Math"));
         Set<String> updatedCourseCodes = new HashSet<>(List.of("CS101", "MATH101"));
@@ -396,23 +437,33 @@ public class DocumentServiceImplTest {
                 updatedTags
         );
 
+        when(documentRepository.updateMetadata(TEST_DOCUMENT_ID, TEST_USER_ID.toString(), "Updated summary", updatedCourseCodes,
+                updatedMajors, "UG", updatedCategories, updatedTags, TEST_USERNAME))
+                .thenReturn(Optional.of(testDocumentInfo));
+
         // Act
         DocumentInformation result = documentService.updateDocument(TEST_DOCUMENT_ID, updateRequest, TEST_USERNAME);
 
         // Assert
-        assertNotNull(result);
-        verify(documentRepository).save(any(DocumentInformation.class));
+        assertSame(testDocumentInfo, result);
+        verify(documentRepository, never()).save(any(DocumentInformation.class));
+    }
 
-        // Capture the document being saved to verify updates
-        ArgumentCaptor<DocumentInformation> documentCaptor = ArgumentCaptor.forClass(DocumentInformation.class);
-        verify(documentRepository).save(documentCaptor.capture());
-        DocumentInformation savedDoc = documentCaptor.getValue();
+    @Test
+    void updateDocument_NotOwner_ThrowsException() {
+        // Arrange
+        when(userClient.getUserByUsername(TEST_USERNAME)).thenReturn(ResponseEntity.ok(testUserResponse));
+        when(documentRepository.updateMetadata(eq(TEST_DOCUMENT_ID), eq(TEST_USER_ID.toString()), any(), any(), any(), any(), any(), any(), eq(TEST_USERNAME)))
+                .thenReturn(Optional.empty());
+
+        DocumentUpdateRequest updateRequest = new DocumentUpdateRequest("Updated summary", null, null, "UG", null, null);
 
-        assertEquals("Updated summary", savedDoc.getSummary());
-        assertEquals(updatedMajors, savedDoc.getMajors());
-        assertEquals(updatedCourseCodes, savedDoc.getCourseCodes());
-        assertEquals(updatedCategories, savedDoc.getCategories());
-        assertEquals(updatedTags, savedDoc.getTags());
+        // Act & Assert
+        InvalidDocumentException exception = assertThrows(
+                InvalidDocumentException.class,
+                () -> documentService.updateDocument(TEST_DOCUMENT_ID, updateRequest, TEST_USERNAME)
+        );
+        assertEquals("Document not found", exception.getMessage());
     }
 
     @Test
@@ -426,7 +477,7 @@ public class DocumentServiceImplTest {
         when(multipartFile.getContentType()).thenReturn("application/pdf");
         when(multipartFile.getOriginalFilename()).thenReturn("updated-file.pdf");
         when(s3Service.uploadFile(any(MultipartFile.class), eq("documents"))).thenReturn("documents/new-path/updated-file.pdf");
-        when(documentRepository.save(any(DocumentInformation.class))).thenReturn(testDocumentInfo);
+        when(documentRepository.addVersion(any(DocumentInformation.class), eq(0), any(DocumentVersion.class), eq(true))).thenReturn(true);
 
         DocumentUpdateRequest updateRequest = new DocumentUpdateRequest(
                 "Updated summary",
@@ -445,17 +496,43 @@ public class DocumentServiceImplTest {
         // Assert
         assertNotNull(result);
         verify(s3Service).uploadFile(any(MultipartFile.class), eq("documents"));
-        verify(documentRepository).save(any(DocumentInformation.class));
+        verify(documentRepository, never()).save(any(DocumentInformation.class));
 
-        // Verify document updated with new file info and version
+        // Verify document updated with new file info and version, dropping the content of the previous file
         ArgumentCaptor<DocumentInformation> documentCaptor = ArgumentCaptor.forClass(DocumentInformation.class);
-        verify(documentRepository).save(documentCaptor.capture());
+        ArgumentCaptor<DocumentVersion> versionCaptor = ArgumentCaptor.forClass(DocumentVersion.class);
+        verify(documentRepository).addVersion(documentCaptor.capture(), eq(0), versionCaptor.capture(), eq(true));
         DocumentInformation savedDoc = documentCaptor.getValue();
 
         assertEquals(DocumentStatus.PENDING, savedDoc.getStatus());
         assertEquals("updated-file.pdf", savedDoc.getFilename());
         assertEquals(1, savedDoc.getCurrentVersion());
         assertEquals(2, savedDoc.getVersions().size());
+        assertEquals(1, versionCaptor.getValue().getVersionNumber());
+        assertEquals("documents/new-path/updated-file.pdf", versionCaptor.getValue().getFilePath());
+    }
+
+    @Test
+    void updateDocumentWithFile_ConcurrentVersionChange_ThrowsException() throws IOException {
+        // Arrange
+        when(userClient.getUserByUsername(TEST_USERNAME)).thenReturn(ResponseEntity.ok(testUserResponse));
+        when(documentRepository.findAccessibleDocumentByIdAndUserId(TEST_DOCUMENT_ID, TEST_USER_ID.toString()))
+                .thenReturn(Optional.of(testDocumentInfo));
+        when(multipartFile.isEmpty()).thenReturn(false);
+        when(multipartFile.getSize()).thenReturn(2048L);
+        when(multipartFile.getContentType()).thenReturn("application/pdf");
+        when(multipartFile.getOriginalFilename()).thenReturn("updated-file.pdf");
+        when(s3Service.uploadFile(any(MultipartFile.class), eq("documents"))).thenReturn("documents/new-path/updated-file.pdf");
+        when(documentRepository.addVersion(any(DocumentInformation.class), eq(0), any(DocumentVersion.class), eq(true))).thenReturn(false);
+
+        DocumentUpdateRequest updateRequest = new DocumentUpdateRequest("Updated summary", null, null, "UG", null, null);
+
+        // Act & Assert
+        assertThrows(
+                InvalidDocumentException.class,
+                () -> documentService.updateDocumentWithFile(TEST_DOCUMENT_ID, multipartFile, updateRequest, TEST_USERNAME)
+        );
+        verify(publishEventService, never()).sendSyncEvent(any());
     }
 
     @Test
@@ -469,11 +546,8 @@ public class DocumentServiceImplTest {
         documentService.deleteDocument(TEST_DOCUMENT_ID, TEST_USERNAME);
 
         // Assert
-        ArgumentCaptor<DocumentInformation> documentCaptor = ArgumentCaptor.forClass(DocumentInformation.class);
-        verify(documentRepository).save(documentCaptor.capture());
-        DocumentInformation savedDoc = documentCaptor.getValue();
-
-        assertTrue(savedDoc.isDeleted());
+        verify(documentRepository).markDeleted(TEST_DOCUMENT_ID, TEST_USER_ID.toString(), TEST_USERNAME);
+        verify(documentRepository, never()).save(any(DocumentInformation.class));
     }
 
     @Test
@@ -511,26 +585,26 @@ public class DocumentServiceImplTest {
     }
 
     @Test
-    void getDocumentVersionContent_Success() throws IOException {
+    void getDocumentVersionFile_Success() throws IOException {
         // Arrange
         when(userClient.getUserByUsername(TEST_USERNAME)).thenReturn(ResponseEntity.ok(testUserResponse));
         when(documentRepository.findAccessibleDocumentByIdAndUserId(TEST_DOCUMENT_ID, TEST_USER_ID.toString()))
                 .thenReturn(Optional.of(testDocumentInfo));
-        byte[] versionContent = "version content".getBytes();
-        when(s3Service.downloadFile(testDocumentVersion.getFilePath())).thenReturn(versionContent);
+        StoredFileMetadata metadata = fileMetadata(15);
+        when(s3Service.getFileMetadata(testDocumentVersion.getFilePath())).thenReturn(metadata);
 
         // Act
-        byte[] result = documentService.getDocumentVersionContent(
+        DocumentFileResponse result = documentService.getDocumentVersionFile(
                 TEST_DOCUMENT_ID, 0, TEST_USERNAME, "view", false
         );
 
         // Assert
         assertNotNull(result);
-        assertArrayEquals(versionContent, result);
+        assertSame(metadata, result.getMetadata());
     }
 
     @Test
-    void getDocumentVersionContent_VersionNotFound_ThrowsException() {
+    void getDocumentVersionFile_VersionNotFound_ThrowsException() {
         // Arrange
         when(userClient.getUserByUsername(TEST_USERNAME)).thenReturn(ResponseEntity.ok(testUserResponse));
         when(documentRepository.findAccessibleDocumentByIdAndUserId(TEST_DOCUMENT_ID, TEST_USER_ID.toString()))
@@ -539,7 +613,7 @@ public class DocumentServiceImplTest {
         // Act & Assert
         InvalidDocumentException exception = assertThrows(
                 InvalidDocumentException.class,
-                () -> documentService.getDocumentVersionContent(TEST_DOCUMENT_ID, 999, TEST_USERNAME, "view", false)
+                () -> documentService.getDocumentVersionFile(TEST_DOCUMENT_ID, 999, TEST_USERNAME, "view", false)
         );
         assertEquals("Version not found", exception.getMessage());
     }
@@ -550,7 +624,7 @@ public class DocumentServiceImplTest {
         when(userClient.getUserByUsername(TEST_USERNAME)).thenReturn(ResponseEntity.ok(testUserResponse));
         when(documentRepository.findAccessibleDocumentByIdAndUserId(TEST_DOCUMENT_ID, TEST_USER_ID.toString()))
                 .thenReturn(Optional.of(testDocumentInfo));
-        when(documentRepository.save(any(DocumentInformation.class))).thenReturn(testDocumentInfo);
+        when(documentRepository.addVersion(any(DocumentInformation.class), eq(0), any(DocumentVersion.class), eq(false))).thenReturn(true);
 
         // Act
         DocumentInformation result = documentService.revertToVersion(TEST_DOCUMENT_ID, 0, TEST_USERNAME);
@@ -558,9 +632,9 @@ public class DocumentServiceImplTest {
         // Assert
         assertNotNull(result);
 
-        // Verify document updated correctly
+        // Verify document updated correctly, keeping the stored content
         ArgumentCaptor<DocumentInformation> documentCaptor = ArgumentCaptor.forClass(DocumentInformation.class);
-        verify(documentRepository).save(documentCaptor.capture());
+        verify(documentRepository).addVersion(documentCaptor.capture(), eq(0), any(DocumentVersion.class), eq(false));
         DocumentInformation savedDoc = documentCaptor.getValue();
 
         assertEquals(1, savedDoc.getCurrentVersion());
@@ -628,6 +702,15 @@ public class DocumentServiceImplTest {
         assertEquals("User not found", exception.getMessage());
     }
 
+    // Helper method to create stored file metadata
+    private StoredFileMetadata fileMetadata(long contentLength) {
+        return StoredFileMetadata.builder()
+                .contentLength(contentLength)
+                .eTag("\"test-etag\"")
+                .lastModified(Instant.now())
+                .build();
+    }
+
     // Helper method to create TagsResponse
     private com.dms.document.interaction.dto.TagsResponse createTagsResponse(Set<String> tags) {
         com.dms.document.interaction.dto.TagsResponse response = new com.dms.document.interaction.dto.TagsResponse();
@@ -683,7 +766,7 @@ public class DocumentServiceImplTest {
     }
 
     @Test
-    void getDocumentContent_AdminRole_Success() throws IOException {
+    void getDocumentFile_AdminRole_Success() throws IOException {
         // Arrange
         UserResponse adminResponse = new UserResponse(
                 TEST_USER_ID, TEST_USERNAME, "test@example.com",
@@ -691,20 +774,20 @@ public class DocumentServiceImplTest {
         );
         when(userClient.getUserByUsername(TEST_USERNAME)).thenReturn(ResponseEntity.ok(adminResponse));
         when(documentRepository.findAccessibleDocumentById(TEST_DOCUMENT_ID)).thenReturn(Optional.of(testDocumentInfo));
-        byte[] fileContent = "test file content".getBytes();
-        when(s3Service.downloadFile(testDocumentInfo.getFilePath())).thenReturn(fileContent);
+        StoredFileMetadata metadata = fileMetadata(17);
+        when(s3Service.getFileMetadata(testDocumentInfo.getFilePath())).thenReturn(metadata);
 
         // Act
-        byte[] result = documentService.getDocumentContent(TEST_DOCUMENT_ID, TEST_USERNAME, "view", false);
+        DocumentFileResponse result = documentService.getDocumentFile(TEST_DOCUMENT_ID, TEST_USERNAME, "view", false);
 
         // Assert
         assertNotNull(result);
-        assertArrayEquals(fileContent, result);
+        assertSame(metadata, result.getMetadata());
         verify(documentRepository).findAccessibleDocumentById(TEST_DOCUMENT_ID);
     }
 
     @Test
-    void getDocumentThumbnail_S3DownloadFails_ReturnsErrorPlaceholder() throws IOException {
+    void getDocumentThumbnail_S3MetadataFails_ReturnsErrorPlaceholder() throws IOException {
         // Arrange
         when(userClient.getUserByUsername(TEST_USERNAME)).thenReturn(ResponseEntity.ok(testUserResponse));
         when(documentRepository.findAccessibleDocumentByIdAndUserId(TEST_DOCUMENT_ID, TEST_USER_ID.toString()))
@@ -824,7 +907,7 @@ public class DocumentServiceImplTest {
         when(userClient.getUserByUsername(TEST_USERNAME)).thenReturn(ResponseEntity.ok(testUserResponse));
         when(documentRepository.findAccessibleDocumentByIdAndUserId(TEST_DOCUMENT_ID, TEST_USER_ID.toString()))
                 .thenReturn(Optional.of(docWithNullThumbnail));
-        when(documentRepository.save(any(DocumentInformation.class))).thenReturn(docWithNullThumbnail);
+        when(documentRepository.addVersion(any(DocumentInformation.class), eq(0), any(DocumentVersion.class), eq(false))).thenReturn(true);
 
         // Act
         DocumentInformation result = documentService.revertToVersion(TEST_DOCUMENT_ID, 0, TEST_USERNAME);
@@ -832,7 +915,7 @@ public class DocumentServiceImplTest {
         // Assert
         assertNotNull(result);
         ArgumentCaptor<DocumentInformation> documentCaptor = ArgumentCaptor.forClass(DocumentInformation.class);
-        verify(documentRepository).save(documentCaptor.capture());
+        verify(documentRepository).addVersion(documentCaptor.capture(), eq(0), any(DocumentVersion.class), eq(false));
         DocumentInformation savedDoc = documentCaptor.getValue();
         assertNull(savedDoc.getThumbnailPath());
         assertEquals(1, savedDoc.getCurrentVersion());
@@ -916,19 +999,19 @@ public class DocumentServiceImplTest {
 
 
     @Test
-    void getDocumentContent_NullFileContent_ReturnsNull() throws IOException {
+    void getDocumentFile_MissingMetadata_RecordsNoHistory() throws IOException {
         // Arrange
         when(userClient.getUserByUsername(TEST_USERNAME)).thenReturn(ResponseEntity.ok(testUserResponse));
         when(documentRepository.findAccessibleDocumentByIdAndUserId(TEST_DOCUMENT_ID, TEST_USER_ID.toString()))
                 .thenReturn(Optional.of(testDocumentInfo));
-        when(s3Service.downloadFile(testDocumentInfo.getFilePath())).thenReturn(null);
+        when(s3Service.getFileMetadata(testDocumentInfo.getFilePath())).thenReturn(null);
 
         // Act
-        byte[] result = documentService.getDocumentContent(TEST_DOCUMENT_ID, TEST_USERNAME, "download", true);
+        DocumentFileResponse result = documentService.getDocumentFile(TEST_DOCUMENT_ID, TEST_USERNAME, "download", true);
 
         // Assert
-        assertNull(result);
-        verify(documentUserHistoryRepository, never()).save(any()); // No history recorded
+        assertNull(result.getMetadata());
+        verify(documentUserHistoryWriter, never()).record(any()); // No history recorded
     }
 
     @Test
@@ -1171,7 +1254,7 @@ public class DocumentServiceImplTest {
         when(userClient.getUserByUsername(TEST_USERNAME)).thenReturn(ResponseEntity.ok(testUserResponse));
         when(documentRepository.findAccessibleDocumentByIdAndUserId(TEST_DOCUMENT_ID, TEST_USER_ID.toString()))
                 .thenReturn(Optional.of(docWithNulls));
-        when(documentRepository.save(any(DocumentInformation.class))).thenReturn(docWithNulls);
+        when(documentRepository.addVersion(any(DocumentInformation.class), eq(0), any(DocumentVersion.class), eq(false))).thenReturn(true);
 
         // Act
         DocumentInformation result = documentService.revertToVersion(TEST_DOCUMENT_ID, 0, TEST_USERNAME);
@@ -1179,7 +1262,7 @@ public class DocumentServiceImplTest {
         // Assert
         assertNotNull(result);
         ArgumentCaptor<DocumentInformation> captor = ArgumentCaptor.forClass(DocumentInformation.class);
-        verify(documentRepository).save(captor.capture());
+        verify(documentRepository).addVersion(captor.capture(), eq(0), any(DocumentVersion.class), eq(false));
         DocumentInformation savedDoc = captor.getValue();
         assertNull(savedDoc.getLanguage());
         assertNull(savedDoc.getExtractedMetadata());
@@ -1199,7 +1282,7 @@ public class DocumentServiceImplTest {
         when(multipartFile.getContentType()).thenReturn("application/pdf");
         when(multipartFile.getOriginalFilename()).thenReturn("updated-file.pdf");
         when(s3Service.uploadFile(any(MultipartFile.class), eq("documents"))).thenReturn("documents/new-path/updated-file.pdf");
-        when(documentRepository.save(any(DocumentInformation.class))).thenReturn(docWithNoVersions);
+        when(documentRepository.addVersion(any(DocumentInformation.class), eq(0), any(DocumentVersion.class), eq(true))).thenReturn(true);
 
         DocumentUpdateRequest updateRequest = new DocumentUpdateRequest("Updated summary", null, null, "UG", null, null);
 
@@ -1209,7 +1292,7 @@ public class DocumentServiceImplTest {
         // Assert
         assertNotNull(result);
         ArgumentCaptor<DocumentInformation> captor = ArgumentCaptor.forClass(DocumentInformation.class);
-        verify(documentRepository).save(captor.capture());
+        verify(documentRepository).addVersion(captor.capture(), eq(0), any(DocumentVersion.class), eq(true));
         DocumentInformation savedDoc = captor.getValue();
         assertEquals(1, savedDoc.getCurrentVersion());
         assertEquals(1, savedDoc.getVersions().size());
@@ -1224,17 +1307,13 @@ public class DocumentServiceImplTest {
         when(userClient.getUserByUsername(TEST_USERNAME)).thenReturn(ResponseEntity.ok(testUserResponse));
         when(documentRepository.findByIdAndUserId(TEST_DOCUMENT_ID, TEST_USER_ID.toString()))
                 .thenReturn(Optional.of(deletedDoc));
-        when(documentRepository.save(any(DocumentInformation.class))).thenReturn(deletedDoc);
 
         // Act
         documentService.deleteDocument(TEST_DOCUMENT_ID, TEST_USERNAME);
 
         // Assert
-        ArgumentCaptor<DocumentInformation> captor = ArgumentCaptor.forClass(DocumentInformation.class);
-        verify(documentRepository).save(captor.capture());
-        DocumentInformation savedDoc = captor.getValue();
-        assertTrue(savedDoc.isDeleted());
-        verify(documentUserHistoryRepository, timeout(1000)).save(any()); // Async history save
+        verify(documentRepository).markDeleted(TEST_DOCUMENT_ID, TEST_USER_ID.toString(), TEST_USERNAME);
+        verify(documentUserHistoryWriter, timeout(1000)).record(any()); // Async history save
     }
 
     @Test
@@ -1286,17 +1365,17 @@ public class DocumentServiceImplTest {
     }
 
     @Test
-    void getDocumentVersionContent_S3DownloadFails_ThrowsIOException() throws IOException {
+    void getDocumentVersionFile_S3MetadataFails_ThrowsIOException() throws IOException {
         // Arrange
         when(userClient.getUserByUsername(TEST_USERNAME)).thenReturn(ResponseEntity.ok(testUserResponse));
         when(documentRepository.findAccessibleDocumentByIdAndUserId(TEST_DOCUMENT_ID, TEST_USER_ID.toString()))
                 .thenReturn(Optional.of(testDocumentInfo));
-        when(s3Service.downloadFile(testDocumentVersion.getFilePath())).thenThrow(new IOException("S3 failure"));
+        when(s3Service.getFileMetadata(testDocumentVersion.getFilePath())).thenThrow(new IOException("S3 failure"));
 
         // Act & Assert
         assertThrows(
                 IOException.class,
-                () -> documentService.getDocumentVersionContent(TEST_DOCUMENT_ID, 0, TEST_USERNAME, "view", false)
+                () -> documentService.getDocumentVersionFile(TEST_DOCUMENT_ID, 0, TEST_USERNAME, "view", false)
         );
     }
 
@@ -1304,9 +1383,9 @@ public class DocumentServiceImplTest {
     void updateDocument_NullFields_Success() {
         // Arrange
         when(userClient.getUserByUsername(TEST_USERNAME)).thenReturn(ResponseEntity.ok(testUserResponse));
-        when(documentRepository.findByIdAndUserId(TEST_DOCUMENT_ID, TEST_USER_ID.toString()))
+        when(documentRepository.updateMetadata(TEST_DOCUMENT_ID, TEST_USER_ID.toString(),
+                null, null, null, null, null, null, TEST_USERNAME))
                 .thenReturn(Optional.of(testDocumentInfo));
-        when(documentRepository.save(any(DocumentInformation.class))).thenReturn(testDocumentInfo);
 
         DocumentUpdateRequest updateRequest = new DocumentUpdateRequest(null, null, null, null, null, null);
 
@@ -1314,34 +1393,31 @@ public class DocumentServiceImplTest {
         DocumentInformation result = documentService.updateDocument(TEST_DOCUMENT_ID, updateRequest, TEST_USERNAME);
 
         // Assert
-        assertNotNull(result);
-        ArgumentCaptor<DocumentInformation> captor = ArgumentCaptor.forClass(DocumentInformation.class);
-        verify(documentRepository).save(captor.capture());
-        DocumentInformation savedDoc = captor.getValue();
-        assertEquals(testDocumentInfo.getSummary(), savedDoc.getSummary()); // Unchanged
+        assertSame(testDocumentInfo, result);
     }
 
     @Test
-    void getDocumentVersionContent_DownloadWithHistory_RecordsHistoryAndInteraction() throws IOException {
+    void getDocumentVersionFile_DownloadWithHistory_RecordsHistoryAndInteraction() throws IOException {
         // Arrange
         when(userClient.getUserByUsername(TEST_USERNAME)).thenReturn(ResponseEntity.ok(testUserResponse));
         when(documentRepository.findAccessibleDocumentByIdAndUserId(TEST_DOCUMENT_ID, TEST_USER_ID.toString()))
                 .thenReturn(Optional.of(testDocumentInfo));
-        byte[] fileContent = "version content".getBytes();
-        when(s3Service.downloadFile(testDocumentVersion.getFilePath())).thenReturn(fileContent);
+        StoredFileMetadata metadata = fileMetadata(15);
+        when(s3Service.getFileMetadata(testDocumentVersion.getFilePath())).thenReturn(metadata);
 
         // Act
-        byte[] result = documentService.getDocumentVersionContent(
+        DocumentFileResponse result = documentService.getDocumentVersionFile(
                 TEST_DOCUMENT_ID, 0, TEST_USERNAME, "download", true
         );
+        documentService.recordDownload(result);
 
         // Assert
         assertNotNull(result);
-        assertArrayEquals(fileContent, result);
+        assertSame(metadata, result.getMetadata());
 
         // Verify history was saved
         ArgumentCaptor<DocumentUserHistory> historyCaptor = ArgumentCaptor.forClass(DocumentUserHistory.class);
-        verify(documentUserHistoryRepository, timeout(1000)).save(historyCaptor.capture());
+        verify(documentUserHistoryWriter).record(historyCaptor.capture());
         DocumentUserHistory savedHistory = historyCaptor.getValue();
         assertEquals(TEST_USER_ID.toString(), savedHistory.getUserId());
         assertEquals(TEST_DOCUMENT_ID, savedHistory.getDocumentId());
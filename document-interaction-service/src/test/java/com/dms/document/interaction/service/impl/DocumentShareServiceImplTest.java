@@ -15,8 +15,8 @@ import com.dms.document.interaction.exception.InvalidDocumentException;
 import com.dms.document.interaction.model.DocumentInformation;
 import com.dms.document.interaction.model.DocumentUserHistory;
 import com.dms.document.interaction.repository.DocumentRepository;
-import com.dms.document.interaction.repository.DocumentUserHistoryRepository;
 import com.dms.document.interaction.service.DocumentPreferencesService;
+import com.dms.document.interaction.service.DocumentUserHistoryWriter;
 import com.dms.document.interaction.service.PublishEventService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -52,10 +52,13 @@ public class DocumentShareServiceImplTest {
     private DocumentPreferencesService documentPreferencesService;
 
     @Mock
-    private DocumentUserHistoryRepository documentUserHistoryRepository;
+    private DocumentUserHistoryWriter documentUserHistoryWriter;
 
     @Captor
-    private ArgumentCaptor<DocumentInformation> documentCaptor;
+    private ArgumentCaptor<SharingType> sharingTypeCaptor;
+
+    @Captor
+    private ArgumentCaptor<Set<String>> sharedWithCaptor;
 
     @Captor
     private ArgumentCaptor<DocumentUserHistory> historyCaptor;
@@ -143,7 +146,7 @@ public class DocumentShareServiceImplTest {
         when(userClient.getUserByUsername(username)).thenReturn(userResponseEntity);
         when(documentRepository.findByIdAndUserId(documentId, userId.toString()))
                 .thenReturn(Optional.of(documentInformation));
-        when(documentRepository.save(any(DocumentInformation.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        stubUpdateSharing();
 
         // Mock CompletableFuture to execute synchronously
         try (MockedStatic<CompletableFuture> mockedCompletableFuture = Mockito.mockStatic(CompletableFuture.class)) {
@@ -155,24 +158,21 @@ public class DocumentShareServiceImplTest {
                         return CompletableFuture.completedFuture(null);
                     });
 
-            when(documentUserHistoryRepository.save(any(DocumentUserHistory.class)))
-                    .thenReturn(DocumentUserHistory.builder().build());
+            when(documentUserHistoryWriter.record(any(DocumentUserHistory.class))).thenReturn(true);
 
             // Act
             DocumentInformation result = documentShareService.updateDocumentShareSettings(documentId, request, username);
 
             // Assert
             assertNotNull(result);
-            verify(documentRepository).save(documentCaptor.capture());
-            DocumentInformation capturedDoc = documentCaptor.getValue();
+            verify(documentRepository).updateSharing(eq(documentId), eq(userId.toString()),
+                    sharingTypeCaptor.capture(), sharedWithCaptor.capture(), eq(username));
 
-            assertEquals(SharingType.PUBLIC, capturedDoc.getSharingType());
-            assertTrue(capturedDoc.getSharedWith().isEmpty());
-            assertNotNull(capturedDoc.getUpdatedAt());
-            assertEquals(username, capturedDoc.getUpdatedBy());
+            assertEquals(SharingType.PUBLIC, sharingTypeCaptor.getValue());
+            assertTrue(sharedWithCaptor.getValue().isEmpty());
 
             // Verify the async calls were made
-            verify(documentUserHistoryRepository).save(historyCaptor.capture());
+            verify(documentUserHistoryWriter).record(historyCaptor.capture());
             DocumentUserHistory capturedHistory = historyCaptor.getValue();
             assertEquals(UserDocumentActionType.SHARE, capturedHistory.getUserDocumentActionType());
             assertEquals(userId.toString(), capturedHistory.getUserId());
@@ -214,28 +214,27 @@ public class DocumentShareServiceImplTest {
             when(userClient.getUserByUsername(username)).thenReturn(userResponseEntity);
             when(documentRepository.findByIdAndUserId(documentId, userId.toString()))
                     .thenReturn(Optional.of(documentInformation));
-            when(documentRepository.save(any(DocumentInformation.class))).thenAnswer(invocation -> invocation.getArgument(0));
+            stubUpdateSharing();
             when(userClient.getUsersByIds(anyList())).thenReturn(ResponseEntity.ok(sharedUsers));
-            when(documentUserHistoryRepository.save(any(DocumentUserHistory.class)))
-                    .thenReturn(DocumentUserHistory.builder().build());
+            when(documentUserHistoryWriter.record(any(DocumentUserHistory.class))).thenReturn(true);
 
             // Act
             DocumentInformation result = documentShareService.updateDocumentShareSettings(documentId, request, username);
 
             // Assert
             assertNotNull(result);
-            verify(documentRepository).save(documentCaptor.capture());
-            DocumentInformation capturedDoc = documentCaptor.getValue();
+            verify(documentRepository).updateSharing(eq(documentId), eq(userId.toString()),
+                    sharingTypeCaptor.capture(), sharedWithCaptor.capture(), eq(username));
 
-            assertEquals(SharingType.SPECIFIC, capturedDoc.getSharingType());
-            assertEquals(sharedWith.size(), capturedDoc.getSharedWith().size());
+            assertEquals(SharingType.SPECIFIC, sharingTypeCaptor.getValue());
+            assertEquals(sharedWith.size(), sharedWithCaptor.getValue().size());
             // Verify shared IDs are converted to strings
-            assertTrue(capturedDoc.getSharedWith().containsAll(
+            assertTrue(sharedWithCaptor.getValue().containsAll(
                     sharedWith.stream().map(UUID::toString).toList()
             ));
 
             // Verify that the async operations were called
-            verify(documentUserHistoryRepository).save(historyCaptor.capture());
+            verify(documentUserHistoryWriter).record(historyCaptor.capture());
             DocumentUserHistory capturedHistory = historyCaptor.getValue();
             assertEquals(UserDocumentActionType.SHARE, capturedHistory.getUserDocumentActionType());
             assertTrue(capturedHistory.getDetail().contains("SPECIFIC"));
@@ -259,7 +258,7 @@ public class DocumentShareServiceImplTest {
         when(userClient.getUserByUsername(username)).thenReturn(userResponseEntity);
         when(documentRepository.findByIdAndUserId(documentId, userId.toString()))
                 .thenReturn(Optional.of(documentInformation));
-        when(documentRepository.save(any(DocumentInformation.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        stubUpdateSharing();
 
         // Mock CompletableFuture to execute synchronously for proper testing
         try (MockedStatic<CompletableFuture> mockedCompletableFuture = Mockito.mockStatic(CompletableFuture.class)) {
@@ -270,22 +269,21 @@ public class DocumentShareServiceImplTest {
                         return CompletableFuture.completedFuture(null);
                     });
 
-            when(documentUserHistoryRepository.save(any(DocumentUserHistory.class)))
-                    .thenReturn(DocumentUserHistory.builder().build());
+            when(documentUserHistoryWriter.record(any(DocumentUserHistory.class))).thenReturn(true);
 
             // Act
             DocumentInformation result = documentShareService.updateDocumentShareSettings(documentId, request, username);
 
             // Assert
             assertNotNull(result);
-            verify(documentRepository).save(documentCaptor.capture());
-            DocumentInformation capturedDoc = documentCaptor.getValue();
+            verify(documentRepository).updateSharing(eq(documentId), eq(userId.toString()),
+                    sharingTypeCaptor.capture(), sharedWithCaptor.capture(), eq(username));
 
-            assertEquals(SharingType.PRIVATE, capturedDoc.getSharingType());
-            assertTrue(capturedDoc.getSharedWith().isEmpty());
+            assertEquals(SharingType.PRIVATE, sharingTypeCaptor.getValue());
+            assertTrue(sharedWithCaptor.getValue().isEmpty());
 
             // Verify async operations
-            verify(documentUserHistoryRepository).save(historyCaptor.capture());
+            verify(documentUserHistoryWriter).record(historyCaptor.capture());
             DocumentUserHistory capturedHistory = historyCaptor.getValue();
             assertEquals(UserDocumentActionType.SHARE, capturedHistory.getUserDocumentActionType());
             assertTrue(capturedHistory.getDetail().contains("PRIVATE"));
@@ -315,13 +313,13 @@ public class DocumentShareServiceImplTest {
             when(userClient.getUserByUsername(username)).thenReturn(userResponseEntity);
             when(documentRepository.findByIdAndUserId(documentId, userId.toString()))
                     .thenReturn(Optional.of(documentInformation));
-            when(documentRepository.save(any(DocumentInformation.class))).thenAnswer(invocation -> invocation.getArgument(0));
+            stubUpdateSharing();
 
             // Act
             documentShareService.updateDocumentShareSettings(documentId, request, username);
 
             // Verify async operations were called with the right parameters
-            verify(documentUserHistoryRepository).save(historyCaptor.capture());
+            verify(documentUserHistoryWriter).record(historyCaptor.capture());
             verify(publishEventService).sendSyncEvent(syncEventCaptor.capture());
             verify(documentPreferencesService).recordInteraction(eq(userId), eq(documentId), eq(InteractionType.SHARE));
 
@@ -468,8 +466,7 @@ public class DocumentShareServiceImplTest {
         when(userClient.getUserByUsername(username)).thenReturn(userResponseEntity);
         when(documentRepository.findByIdAndUserId(documentId, userId.toString()))
                 .thenReturn(Optional.of(documentInformation));
-        when(documentRepository.save(any(DocumentInformation.class)))
-                .thenAnswer(invocation -> invocation.getArgument(0));
+        stubUpdateSharing();
 
         // Mock CompletableFuture to execute synchronously
         try (MockedStatic<CompletableFuture> mockedCompletableFuture = Mockito.mockStatic(CompletableFuture.class)) {
@@ -480,20 +477,18 @@ public class DocumentShareServiceImplTest {
                         return CompletableFuture.completedFuture(null);
                     });
 
-            when(documentUserHistoryRepository.save(any(DocumentUserHistory.class)))
-                    .thenReturn(DocumentUserHistory.builder().build());
+            when(documentUserHistoryWriter.record(any(DocumentUserHistory.class))).thenReturn(true);
 
             // Act
             DocumentInformation result = documentShareService.updateDocumentShareSettings(documentId, request, username);
 
             // Assert
-            verify(documentRepository).save(documentCaptor.capture());
-            DocumentInformation capturedDoc = documentCaptor.getValue();
-            assertEquals(SharingType.PRIVATE, capturedDoc.getSharingType());
-            assertTrue(capturedDoc.getSharedWith().isEmpty());
-            assertEquals(username, capturedDoc.getUpdatedBy());
+            verify(documentRepository).updateSharing(eq(documentId), eq(userId.toString()),
+                    sharingTypeCaptor.capture(), sharedWithCaptor.capture(), eq(username));
+            assertEquals(SharingType.PRIVATE, sharingTypeCaptor.getValue());
+            assertTrue(sharedWithCaptor.getValue().isEmpty());
 
-            verify(documentUserHistoryRepository).save(historyCaptor.capture());
+            verify(documentUserHistoryWriter).record(historyCaptor.capture());
             DocumentUserHistory history = historyCaptor.getValue();
             assertEquals("PRIVATE", history.getDetail());
             verify(publishEventService).sendSyncEvent(any(SyncEventRequest.class));
@@ -517,7 +512,7 @@ public class DocumentShareServiceImplTest {
         InvalidDocumentException exception = assertThrows(InvalidDocumentException.class, () ->
                 documentShareService.updateDocumentShareSettings(documentId, request, username));
         assertTrue(exception.getMessage().contains("One or more shared users do not exist"));
-        verify(documentRepository, never()).save(any());
+        verify(documentRepository, never()).updateSharing(any(), any(), any(), any(), any());
     }
 
     @Test
@@ -549,4 +544,14 @@ public class DocumentShareServiceImplTest {
         assertTrue(result.isEmpty());
         verify(userClient).getUsersByIds(userIds);
     }
-}
\ No newline at end of file
+
+    private void stubUpdateSharing() {
+        when(documentRepository.updateSharing(eq(documentId), eq(userId.toString()), any(SharingType.class), anySet(), eq(username)))
+                .thenAnswer(invocation -> {
+                    documentInformation.setSharingType(invocation.getArgument(2));
+                    documentInformation.setSharedWith(invocation.getArgument(3));
+                    documentInformation.setUpdatedBy(invocation.getArgument(4));
+                    return Optional.of(documentInformation);
+                });
+    }
+}
@@ -0,0 +1,105 @@
+package com.dms.document.interaction.service.impl;
+
+import com.dms.document.interaction.model.DocumentStats;
+import com.dms.document.interaction.repository.DocumentRepository;
+import com.dms.document.interaction.repository.DocumentStatsRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DocumentStatsServiceImplTest {
+
+    @Mock
+    private DocumentStatsRepository documentStatsRepository;
+
+    @Mock
+    private DocumentRepository documentRepository;
+
+    @InjectMocks
+    private DocumentStatsServiceImpl documentStatsService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(documentStatsService, "rebuildBatchSize", 2);
+        ReflectionTestUtils.setField(documentStatsService, "rebuildParallelism", 2);
+    }
+
+    @Test
+    void getActionCounts_SumsDailyBuckets() {
+        // Arrange
+        when(documentStatsRepository.findCountsSince("doc1", Instant.EPOCH)).thenReturn(List.of(
+                bucket(Map.of("VIEW_DOCUMENT", 3, "COMMENT", 1)),
+                bucket(Map.of("VIEW_DOCUMENT", 2)),
+                bucket(null)));
+
+        // Act
+        Map<String, Integer> counts = documentStatsService.getActionCounts("doc1", null);
+
+        // Assert
+        assertEquals(Map.of("VIEW_DOCUMENT", 5, "COMMENT", 1), counts);
+    }
+
+    @Test
+    void getActionCounts_Window_StartsAtBeginningOfDay() {
+        // Arrange
+        Instant since = Instant.parse("2025-03-10T15:42:00Z");
+        when(documentStatsRepository.findCountsSince(anyString(), any())).thenReturn(List.of());
+
+        // Act
+        Map<String, Integer> counts = documentStatsService.getActionCounts("doc1", since);
+
+        // Assert
+        assertTrue(counts.isEmpty());
+        verify(documentStatsRepository).findCountsSince("doc1", Instant.parse("2025-03-10T00:00:00Z"));
+    }
+
+    @Test
+    void rebuildStats_ReplacesPastDaysOfEveryBatch() {
+        // Arrange
+        Instant today = LocalDate.now(ZoneOffset.UTC).atStartOfDay(ZoneOffset.UTC).toInstant();
+        List<DocumentStats> buckets = List.of(bucket(Map.of("SHARE", 1)));
+        when(documentRepository.findIdsAfter(null, 2)).thenReturn(List.of("doc1", "doc2"));
+        when(documentRepository.findIdsAfter("doc2", 2)).thenReturn(List.of("doc3"));
+        when(documentStatsRepository.aggregateDailyCounts(List.of("doc1", "doc2"), today)).thenReturn(buckets);
+        when(documentStatsRepository.aggregateDailyCounts(List.of("doc3"), today)).thenReturn(List.of());
+
+        // Act
+        int documents = documentStatsService.rebuildStats();
+
+        // Assert
+        assertEquals(3, documents);
+        verify(documentStatsRepository).replaceCounts(List.of("doc1", "doc2"), buckets, today);
+        verify(documentStatsRepository).replaceCounts(List.of("doc3"), List.of(), today);
+    }
+
+    @Test
+    void rebuildStats_BatchFails_ThrowsException() {
+        // Arrange
+        when(documentRepository.findIdsAfter(null, 2)).thenReturn(List.of("doc1"));
+        when(documentStatsRepository.aggregateDailyCounts(anyList(), any()))
+                .thenThrow(new IllegalStateException("timeout"));
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> documentStatsService.rebuildStats());
+        verify(documentStatsRepository, never()).replaceCounts(anyList(), anyList(), any());
+    }
+
+    private static DocumentStats bucket(Map<String, Integer> counts) {
+        return DocumentStats.builder().actionCounts(counts).build();
+    }
+}
@@ -0,0 +1,238 @@
+package com.dms.document.interaction.service.impl;
+
+import com.dms.document.interaction.enums.UserDocumentActionType;
+import com.dms.document.interaction.model.DocumentUserHistory;
+import com.dms.document.interaction.service.DocumentStatsService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DocumentUserHistoryWriterImplTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private DocumentStatsService documentStatsService;
+
+    @Captor
+    private ArgumentCaptor<Collection<DocumentUserHistory>> batchCaptor;
+
+    private SimpleMeterRegistry meterRegistry;
+    private DocumentUserHistoryWriterImpl historyWriter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        historyWriter = new DocumentUserHistoryWriterImpl(mongoTemplate, documentStatsService, meterRegistry);
+        configure(100, 100, Duration.ofSeconds(10));
+        ReflectionTestUtils.setField(historyWriter, "offerTimeout", Duration.ofMillis(10));
+        ReflectionTestUtils.setField(historyWriter, "shutdownTimeout", Duration.ofSeconds(5));
+    }
+
+    @AfterEach
+    void tearDown() {
+        Boolean running = (Boolean) ReflectionTestUtils.getField(historyWriter, "running");
+        if (Boolean.TRUE.equals(running)) {
+            historyWriter.shutdown();
+        }
+    }
+
+    @Test
+    void record_FullBatch_InsertedTogether() {
+        // Arrange
+        configure(100, 3, Duration.ofSeconds(10));
+        historyWriter.start();
+
+        // Act
+        for (int i = 0; i < 3; i++) {
+            assertTrue(historyWriter.record(history(i)));
+        }
+
+        // Assert - the batch is full long before the flush interval
+        verify(mongoTemplate, timeout(2000)).insert(batchCaptor.capture(), eq(DocumentUserHistory.class));
+        assertEquals(3, batchCaptor.getValue().size());
+        assertEquals(List.of("report", "0", "pdf", "add"), batchCaptor.getValue().iterator().next().getSearchTerms());
+        assertEquals(3.0, meterRegistry.get("dms.history.write-behind.written").counter().count());
+        verify(documentStatsService, timeout(2000)).recordHistory(batchCaptor.getValue());
+    }
+
+    @Test
+    void record_PartialBatch_InsertedAfterFlushInterval() {
+        // Arrange
+        configure(100, 100, Duration.ofMillis(100));
+        historyWriter.start();
+
+        // Act
+        historyWriter.record(history(1));
+        historyWriter.record(history(2));
+
+        // Assert
+        verify(mongoTemplate, timeout(2000)).insert(batchCaptor.capture(), eq(DocumentUserHistory.class));
+        assertEquals(2, batchCaptor.getValue().size());
+    }
+
+    @Test
+    void record_QueueFull_DropsAndCounts() throws InterruptedException {
+        // Arrange - the writer is stuck inserting the first record
+        configure(1, 1, Duration.ofMillis(10));
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(mongoTemplate.insert(anyCollection(), eq(DocumentUserHistory.class))).thenAnswer(invocation -> {
+            writing.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return invocation.getArgument(0);
+        });
+        historyWriter.start();
+        historyWriter.record(history(1));
+        assertTrue(writing.await(2, TimeUnit.SECONDS));
+
+        // Act
+        boolean queued = historyWriter.record(history(2));
+        boolean dropped = historyWriter.record(history(3));
+        release.countDown();
+
+        // Assert
+        assertTrue(queued);
+        assertFalse(dropped);
+        assertEquals(1.0, meterRegistry.get("dms.history.write-behind.dropped").tag("reason", "overflow").counter().count());
+    }
+
+    @Test
+    void record_InterruptedWhileQueueFull_DropsAndCounts() throws InterruptedException {
+        // Arrange - the writer is stuck inserting the first record and the queue holds the second
+        configure(1, 1, Duration.ofMillis(10));
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(mongoTemplate.insert(anyCollection(), eq(DocumentUserHistory.class))).thenAnswer(invocation -> {
+            writing.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return invocation.getArgument(0);
+        });
+        historyWriter.start();
+        historyWriter.record(history(1));
+        assertTrue(writing.await(2, TimeUnit.SECONDS));
+        historyWriter.record(history(2));
+
+        // Act
+        Thread.currentThread().interrupt();
+        boolean queued = historyWriter.record(history(3));
+        boolean interrupted = Thread.interrupted();
+        release.countDown();
+
+        // Assert
+        assertFalse(queued);
+        assertTrue(interrupted);
+        assertEquals(1.0, meterRegistry.get("dms.history.write-behind.dropped").tag("reason", "interrupted").counter().count());
+        assertEquals(0.0, meterRegistry.get("dms.history.write-behind.dropped").tag("reason", "overflow").counter().count());
+    }
+
+    @Test
+    void record_WriteFails_CountsDroppedRecords() {
+        // Arrange
+        configure(100, 2, Duration.ofSeconds(10));
+        when(mongoTemplate.insert(anyCollection(), eq(DocumentUserHistory.class)))
+                .thenThrow(new DataAccessResourceFailureException("timeout"));
+        historyWriter.start();
+
+        // Act
+        historyWriter.record(history(1));
+        historyWriter.record(history(2));
+
+        // Assert
+        verify(mongoTemplate, timeout(2000)).insert(anyCollection(), eq(DocumentUserHistory.class));
+        verify(mongoTemplate, after(100).times(1)).insert(anyCollection(), eq(DocumentUserHistory.class));
+        verify(documentStatsService, never()).recordHistory(anyCollection());
+        assertEquals(2.0, meterRegistry.get("dms.history.write-behind.dropped").tag("reason", "write-error").counter().count());
+    }
+
+    @Test
+    void record_StatsUpdateFails_StillCountsWritten() {
+        // Arrange
+        configure(100, 2, Duration.ofSeconds(10));
+        doThrow(new DataAccessResourceFailureException("timeout")).when(documentStatsService).recordHistory(anyCollection());
+        historyWriter.start();
+
+        // Act
+        historyWriter.record(history(1));
+        historyWriter.record(history(2));
+
+        // Assert
+        verify(documentStatsService, timeout(2000)).recordHistory(anyCollection());
+        assertEquals(2.0, meterRegistry.get("dms.history.write-behind.written").counter().count());
+        assertEquals(0.0, meterRegistry.get("dms.history.write-behind.dropped").tag("reason", "write-error").counter().count());
+    }
+
+    @Test
+    void shutdown_WritesQueuedRecords() {
+        // Arrange
+        configure(100, 100, Duration.ofMillis(200));
+        historyWriter.start();
+        for (int i = 0; i < 5; i++) {
+            historyWriter.record(history(i));
+        }
+
+        // Act
+        historyWriter.shutdown();
+
+        // Assert
+        assertEquals(5.0, meterRegistry.get("dms.history.write-behind.written").counter().count());
+        assertEquals(0.0, meterRegistry.get("dms.history.write-behind.queue-size").gauge().value());
+    }
+
+    @Test
+    void record_AfterShutdown_WritesDirectly() {
+        // Arrange
+        configure(100, 100, Duration.ofMillis(50));
+        historyWriter.start();
+        historyWriter.shutdown();
+
+        // Act
+        boolean result = historyWriter.record(history(1));
+
+        // Assert
+        assertTrue(result);
+        verify(mongoTemplate).insert(batchCaptor.capture(), eq(DocumentUserHistory.class));
+        assertEquals(List.of("doc1"), batchCaptor.getValue().stream().map(DocumentUserHistory::getDocumentId).toList());
+    }
+
+    private void configure(int queueCapacity, int batchSize, Duration flushInterval) {
+        ReflectionTestUtils.setField(historyWriter, "queueCapacity", queueCapacity);
+        ReflectionTestUtils.setField(historyWriter, "batchSize", batchSize);
+        ReflectionTestUtils.setField(historyWriter, "flushInterval", flushInterval);
+    }
+
+    private static DocumentUserHistory history(int index) {
+        return DocumentUserHistory.builder()
+                .userId("user" + index)
+                .documentId("doc" + index)
+                .documentName("Report " + index + ".pdf")
+                .userDocumentActionType(UserDocumentActionType.FAVORITE)
+                .detail("ADD")
+                .version(1)
+                .createdAt(Instant.now())
+                .build();
+    }
+}
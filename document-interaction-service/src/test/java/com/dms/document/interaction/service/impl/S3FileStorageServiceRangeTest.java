@@ -0,0 +1,192 @@
+package com.dms.document.interaction.service.impl;
+
+import com.dms.document.interaction.config.FileStorageProperties;
+import com.dms.document.interaction.dto.StoredFileMetadata;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3Configuration;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the S3 storage against a minimal in-process S3 stand-in, so the requests the SDK actually sends are checked.
+ */
+class S3FileStorageServiceRangeTest {
+    private static final String BUCKET = "test-bucket";
+    private static final String KEY = "documents/2024/01/01/123-lecture.pdf";
+    private static final String ETAG = "\"9b2cf535f27731c974343645a3985328\"";
+    private static final Instant LAST_MODIFIED = Instant.parse("2024-01-01T10:15:30Z");
+    private static final Pattern RANGE_PATTERN = Pattern.compile("bytes=(\\d+)-(\\d+)");
+
+    private final byte[] content = new byte[64 * 1024];
+    private final List<String> receivedRanges = new CopyOnWriteArrayList<>();
+
+    private HttpServer server;
+    private S3Client s3Client;
+    private S3Presigner s3Presigner;
+    private S3FileStorageService s3FileStorageService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) i;
+        }
+
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/" + BUCKET + "/", this::handle);
+        server.start();
+
+        URI endpoint = URI.create("http://localhost:" + server.getAddress().getPort());
+        StaticCredentialsProvider credentials = StaticCredentialsProvider.create(AwsBasicCredentials.create("test", "test"));
+        s3Client = S3Client.builder()
+                .region(Region.US_EAST_1)
+                .endpointOverride(endpoint)
+                .credentialsProvider(credentials)
+                .forcePathStyle(true)
+                .build();
+        s3Presigner = S3Presigner.builder()
+                .region(Region.US_EAST_1)
+                .endpointOverride(endpoint)
+                .credentialsProvider(credentials)
+                .serviceConfiguration(S3Configuration.builder().pathStyleAccessEnabled(true).build())
+                .build();
+
+        FileStorageProperties fileStorageProperties = new FileStorageProperties();
+        fileStorageProperties.getS3().setBucketName(BUCKET);
+        s3FileStorageService = new S3FileStorageService(s3Client, s3Presigner, fileStorageProperties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        s3Client.close();
+        s3Presigner.close();
+        server.stop(0);
+    }
+
+    @Test
+    void getFileMetadata_ReadsHeadersWithoutBody() throws IOException {
+        // Act
+        StoredFileMetadata metadata = s3FileStorageService.getFileMetadata(KEY);
+
+        // Assert
+        assertEquals(content.length, metadata.getContentLength());
+        assertEquals(ETAG, metadata.getETag());
+        assertEquals(LAST_MODIFIED, metadata.getLastModified());
+        assertEquals("application/pdf", metadata.getContentType());
+    }
+
+    @Test
+    void getFileMetadata_MissingObject_ThrowsIOException() {
+        // Act & Assert
+        assertThrows(IOException.class, () -> s3FileStorageService.getFileMetadata("missing.pdf"));
+    }
+
+    @Test
+    void openFile_SendsRangedGet() throws IOException {
+        // Act
+        byte[] result;
+        try (InputStream inputStream = s3FileStorageService.openFile(KEY, 1024, 2047)) {
+            result = inputStream.readAllBytes();
+        }
+
+        // Assert
+        assertEquals(List.of("bytes=1024-2047"), receivedRanges);
+        assertEquals(1024, result.length);
+        assertEquals(content[1024], result[0]);
+        assertEquals(content[2047], result[1023]);
+    }
+
+    @Test
+    void openFile_ClosedEarly_DoesNotFail() throws IOException {
+        // Act
+        try (InputStream inputStream = s3FileStorageService.openFile(KEY, 0, content.length - 1)) {
+            assertEquals(content[0], (byte) inputStream.read());
+        }
+
+        // Assert - the aborted connection must not break the next request
+        try (InputStream inputStream = s3FileStorageService.openFile(KEY, 10, 19)) {
+            assertEquals(10, inputStream.readAllBytes().length);
+        }
+    }
+
+    @Test
+    void generatePresignedDownloadUrl_SignsGetWithResponseOverrides() {
+        // Act
+        Optional<String> url = s3FileStorageService.generatePresignedDownloadUrl(
+                KEY, "lecture notes.pdf", "application/pdf", Duration.ofMinutes(5));
+
+        // Assert
+        assertTrue(url.isPresent());
+        assertTrue(url.get().contains("/" + BUCKET + "/" + KEY));
+        assertTrue(url.get().contains("X-Amz-Signature="));
+        assertTrue(url.get().contains("X-Amz-Expires=300"));
+        assertTrue(url.get().contains("response-content-disposition="));
+        assertTrue(url.get().contains("response-content-type=application%2Fpdf"));
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String key = exchange.getRequestURI().getPath().substring(BUCKET.length() + 2);
+            if (!KEY.equals(key)) {
+                exchange.sendResponseHeaders(404, -1);
+                return;
+            }
+
+            exchange.getResponseHeaders().set("ETag", ETAG);
+            exchange.getResponseHeaders().set("Last-Modified",
+                    DateTimeFormatter.RFC_1123_DATE_TIME.format(LAST_MODIFIED.atZone(ZoneOffset.UTC)));
+            exchange.getResponseHeaders().set("Content-Type", "application/pdf");
+            exchange.getResponseHeaders().set("Accept-Ranges", "bytes");
+
+            if ("HEAD".equals(exchange.getRequestMethod())) {
+                exchange.getResponseHeaders().set("Content-Length", String.valueOf(content.length));
+                exchange.sendResponseHeaders(200, -1);
+                return;
+            }
+
+            String range = exchange.getRequestHeaders().getFirst("Range");
+            int start = 0;
+            int end = content.length - 1;
+            int status = 200;
+            if (range != null) {
+                receivedRanges.add(range);
+                Matcher matcher = RANGE_PATTERN.matcher(range);
+                assertTrue(matcher.matches());
+                start = Integer.parseInt(matcher.group(1));
+                end = Math.min(Integer.parseInt(matcher.group(2)), content.length - 1);
+                status = 206;
+                exchange.getResponseHeaders().set("Content-Range", "bytes " + start + "-" + end + "/" + content.length);
+            }
+
+            exchange.sendResponseHeaders(status, end - start + 1);
+            try (OutputStream outputStream = exchange.getResponseBody()) {
+                outputStream.write(content, start, end - start + 1);
+            } catch (IOException e) {
+                // Client aborted the transfer
+            }
+        }
+    }
+}
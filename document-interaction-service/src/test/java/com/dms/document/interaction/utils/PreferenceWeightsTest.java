@@ -0,0 +1,37 @@
+package com.dms.document.interaction.utils;
+
+import com.dms.document.interaction.enums.InteractionType;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PreferenceWeightsTest {
+
+    @Test
+    void interactionWeight_EveryTypeWeighted() {
+        assertEquals(1.0, PreferenceWeights.interactionWeight(InteractionType.VIEW));
+        assertEquals(2.0, PreferenceWeights.interactionWeight(InteractionType.DOWNLOAD));
+        assertEquals(2.0, PreferenceWeights.interactionWeight(InteractionType.COMMENT));
+        assertEquals(3.0, PreferenceWeights.interactionWeight(InteractionType.FAVORITE));
+        assertEquals(3.0, PreferenceWeights.interactionWeight(InteractionType.SHARE));
+        for (InteractionType type : InteractionType.values()) {
+            assertTrue(PreferenceWeights.interactionWeight(type) > 0, type.name());
+        }
+    }
+
+    @Test
+    void decay_ScoreHalvesAfterOneHalfLife() {
+        Duration halfLife = Duration.ofDays(30);
+        Instant at = Instant.parse("2025-01-01T00:00:00Z");
+        double score = PreferenceWeights.scoreIncrement(PreferenceWeights.interactionWeight(InteractionType.FAVORITE),
+                at, halfLife);
+
+        Map<String, Double> decayed = PreferenceWeights.decay(Map.of("PDF", score), at.plus(halfLife), halfLife);
+
+        assertEquals(1.5, decayed.get("PDF"), 1e-9);
+    }
+}
@@ -0,0 +1,126 @@
+package com.dms.document.interaction.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnowflakeIdGeneratorTest {
+    private static final long NOW = SnowflakeIdGenerator.EPOCH.toEpochMilli() + 1_000_000L;
+
+    @Test
+    void nextId_ManyThreadsOnSeveralInstances_AllUniqueAndIncreasingPerThread() throws Exception {
+        // Arrange - four instances with their own worker id, as after leasing, each hit by four threads
+        int instances = 4;
+        int threadsPerInstance = 4;
+        int idsPerThread = 20_000;
+        List<SnowflakeIdGenerator> generators = new ArrayList<>();
+        for (int workerId = 0; workerId < instances; workerId++) {
+            generators.add(new SnowflakeIdGenerator(workerId, 5000));
+        }
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        AtomicInteger outOfOrder = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(instances * threadsPerInstance);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+
+        // Act
+        for (SnowflakeIdGenerator generator : generators) {
+            for (int t = 0; t < threadsPerInstance; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    long previous = -1;
+                    for (int i = 0; i < idsPerThread; i++) {
+                        long id = generator.nextId();
+                        if (id <= previous) {
+                            outOfOrder.incrementAndGet();
+                        }
+                        previous = id;
+                        ids.add(id);
+                    }
+                    return null;
+                }));
+            }
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        // Assert
+        assertEquals(instances * threadsPerInstance * idsPerThread, ids.size());
+        assertEquals(0, outOfOrder.get());
+        assertTrue(ids.stream().allMatch(id -> id > 0 && id < (1L << 53)));
+    }
+
+    @Test
+    void nextId_SequenceExhausted_WaitsForNextMillisecond() {
+        // Arrange - the clock only moves on after 70 reads
+        AtomicInteger reads = new AtomicInteger();
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(3, 5000,
+                () -> reads.incrementAndGet() <= 70 ? NOW : NOW + 1);
+
+        // Act
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 65; i++) {
+            ids.add(generator.nextId());
+        }
+
+        // Assert
+        assertEquals(NOW, SnowflakeIdGenerator.timestampOf(ids.get(63)).toEpochMilli());
+        assertEquals(NOW + 1, SnowflakeIdGenerator.timestampOf(ids.get(64)).toEpochMilli());
+        assertEquals(65, Set.copyOf(ids).size());
+    }
+
+    @Test
+    void nextId_ClockStepsBackWithinLimit_KeepsIncreasing() {
+        // Arrange
+        AtomicLong clock = new AtomicLong(NOW);
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1, 5000, clock::get);
+        long before = generator.nextId();
+
+        // Act
+        clock.set(NOW - 2000);
+        long after = generator.nextId();
+
+        // Assert
+        assertTrue(after > before);
+        assertEquals(NOW, SnowflakeIdGenerator.timestampOf(after).toEpochMilli());
+    }
+
+    @Test
+    void nextId_ClockStepsBackBeyondLimit_Throws() {
+        // Arrange
+        AtomicLong clock = new AtomicLong(NOW);
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1, 5000, clock::get);
+        generator.nextId();
+        clock.set(NOW - 6000);
+
+        // Act & Assert
+        IllegalStateException exception = assertThrows(IllegalStateException.class, generator::nextId);
+        assertTrue(exception.getMessage().contains("6000 ms"));
+    }
+
+    @Test
+    void nextId_SameMillisecondOnDifferentWorkers_Differ() {
+        // Arrange
+        SnowflakeIdGenerator first = new SnowflakeIdGenerator(0, 5000, () -> NOW);
+        SnowflakeIdGenerator second = new SnowflakeIdGenerator(SnowflakeIdGenerator.MAX_WORKER_ID, 5000, () -> NOW);
+
+        // Act & Assert
+        assertNotEquals(first.nextId(), second.nextId());
+    }
+
+    @Test
+    void constructor_WorkerIdOutOfRange_Throws() {
+        assertThrows(IllegalArgumentException.class, () -> new SnowflakeIdGenerator(64, 5000));
+        assertThrows(IllegalArgumentException.class, () -> new SnowflakeIdGenerator(-1, 5000));
+    }
+}
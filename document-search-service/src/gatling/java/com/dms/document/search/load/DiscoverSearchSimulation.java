@@ -0,0 +1,96 @@
+package com.dms.document.search.load;
+
+import io.gatling.javaapi.core.*;
+import io.gatling.javaapi.http.HttpProtocolBuilder;
+
+import java.time.Duration;
+
+import static io.gatling.javaapi.core.CoreDsl.*;
+import static io.gatling.javaapi.http.HttpDsl.http;
+import static io.gatling.javaapi.http.HttpDsl.status;
+
+/**
+ * Open-model load test of the discover endpoints: full-text search, typeahead suggestions and filter-only browsing.
+ * <p>
+ * Without {@code -Dload.base-url} the simulation starts its own service against containers seeded with
+ * {@link SyntheticCorpus}; with it, the simulation targets an already running instance that accepts the load users.
+ * Rates are requests per second, e.g. {@code -Dload.search-rps=50 -Dload.suggestion-rps=150 -Dload.duration=120}.
+ * Results land in {@code target/gatling/<run>/js/stats.json}.
+ */
+public class DiscoverSearchSimulation extends Simulation {
+    private static final int PORT = Integer.getInteger("load.port", 18083);
+    private static final int CORPUS_SIZE = Integer.getInteger("load.corpus-size", 10_000);
+    private static final String BASE_URL = System.getProperty("load.base-url");
+    private static final double SEARCH_RPS = Double.parseDouble(System.getProperty("load.search-rps", "20"));
+    private static final double SUGGESTION_RPS = Double.parseDouble(System.getProperty("load.suggestion-rps", "60"));
+    private static final double FILTER_RPS = Double.parseDouble(System.getProperty("load.filter-rps", "10"));
+    private static final Duration RAMP = Duration.ofSeconds(Long.getLong("load.ramp", 30L));
+    private static final Duration DURATION = Duration.ofSeconds(Long.getLong("load.duration", 120L));
+
+    private SearchLoadTestEnvironment environment;
+
+    private final HttpProtocolBuilder httpProtocol = http
+            .baseUrl(BASE_URL != null ? BASE_URL : "http://localhost:" + PORT)
+            .acceptHeader("application/json")
+            .contentTypeHeader("application/json")
+            .header("Authorization", "Bearer #{username}")
+            .shareConnections();
+
+    private final FeederBuilder<Object> users = listFeeder(SyntheticCorpus.users()).circular();
+    private final FeederBuilder<Object> searchQueries = listFeeder(SyntheticCorpus.searchQueries()).random();
+    private final FeederBuilder<Object> suggestionQueries = listFeeder(SyntheticCorpus.suggestionQueries()).random();
+    private final FeederBuilder<Object> filters = listFeeder(SyntheticCorpus.filters()).random();
+
+    private final ScenarioBuilder search = scenario("search")
+            .feed(users)
+            .feed(searchQueries)
+            .exec(http("search")
+                    .post("/api/v1/search")
+                    .body(StringBody("{\"search\":#{query.jsonStringify()},\"page\":0,\"size\":20}"))
+                    .check(status().is(200)));
+
+    private final ScenarioBuilder suggestions = scenario("suggestions")
+            .feed(users)
+            .feed(suggestionQueries)
+            .exec(http("suggestions")
+                    .post("/api/v1/search/suggestions")
+                    .body(StringBody("{\"query\":#{query.jsonStringify()}}"))
+                    .check(status().is(200)));
+
+    private final ScenarioBuilder filterOnly = scenario("filter-only")
+            .feed(users)
+            .feed(filters)
+            .exec(http("filter-only")
+                    .post("/api/v1/search")
+                    .body(StringBody("{\"majors\":[#{major.jsonStringify()}],\"level\":#{level.jsonStringify()},\"page\":0,\"size\":20}"))
+                    .check(status().is(200)));
+
+    {
+        setUp(
+                search.injectOpen(rampUsersPerSec(1).to(SEARCH_RPS).during(RAMP), constantUsersPerSec(SEARCH_RPS).during(DURATION)),
+                suggestions.injectOpen(rampUsersPerSec(1).to(SUGGESTION_RPS).during(RAMP), constantUsersPerSec(SUGGESTION_RPS).during(DURATION)),
+                filterOnly.injectOpen(rampUsersPerSec(1).to(FILTER_RPS).during(RAMP), constantUsersPerSec(FILTER_RPS).during(DURATION))
+        ).protocols(httpProtocol);
+    }
+
+    @Override
+    public void before() {
+        if (BASE_URL != null) {
+            return;
+        }
+        environment = new SearchLoadTestEnvironment(PORT, CORPUS_SIZE);
+        try {
+            environment.start();
+        } catch (Exception e) {
+            environment.close();
+            throw new IllegalStateException("Failed to start load test environment", e);
+        }
+    }
+
+    @Override
+    public void after() {
+        if (environment != null) {
+            environment.close();
+        }
+    }
+}
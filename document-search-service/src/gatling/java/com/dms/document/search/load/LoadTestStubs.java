@@ -0,0 +1,44 @@
+package com.dms.document.search.load;
+
+import com.dms.document.search.client.UserClient;
+import com.dms.document.search.dto.RoleResponse;
+import com.dms.document.search.dto.UserResponse;
+import com.dms.document.search.enums.AppRole;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Replaces the auth-service dependencies of the search service for load tests.
+ * The bearer token is the username, and every user resolves to a plain ROLE_USER account.
+ * Beans are swapped after initialization, so SecurityConfig and the Feign client stay untouched.
+ */
+public class LoadTestStubs implements BeanPostProcessor {
+    private static final UUID USER_ROLE_ID = UUID.nameUUIDFromBytes("ROLE_USER".getBytes());
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof JwtDecoder) {
+            return (JwtDecoder) token -> Jwt.withTokenValue(token)
+                    .header("alg", "none")
+                    .subject(token)
+                    .claim("roles", List.of(AppRole.ROLE_USER.name()))
+                    .issuedAt(Instant.now())
+                    .expiresAt(Instant.now().plusSeconds(3600))
+                    .build();
+        }
+        if (bean instanceof UserClient) {
+            return (UserClient) username -> ResponseEntity.ok(new UserResponse(
+                    UUID.fromString(SyntheticCorpus.userId(username)),
+                    username,
+                    username + "@load.test",
+                    new RoleResponse(USER_ROLE_ID, AppRole.ROLE_USER)));
+        }
+        return bean;
+    }
+}
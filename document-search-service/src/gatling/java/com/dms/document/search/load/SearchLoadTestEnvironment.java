@@ -0,0 +1,137 @@
+package com.dms.document.search.load;
+
+import com.dms.document.search.DocumentSearchServiceApplication;
+import com.dms.document.search.model.DocumentPreferences;
+import org.opensearch.action.admin.indices.refresh.RefreshRequest;
+import org.opensearch.action.bulk.BulkRequest;
+import org.opensearch.action.bulk.BulkResponse;
+import org.opensearch.action.index.IndexRequest;
+import org.opensearch.client.RequestOptions;
+import org.opensearch.client.RestHighLevelClient;
+import org.opensearch.testcontainers.OpensearchContainer;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.images.builder.ImageFromDockerfile;
+import org.testcontainers.utility.DockerImageName;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Starts the search service against throwaway OpenSearch and MongoDB containers and seeds them with the
+ * synthetic corpus. OpenSearch runs the same version as production with the icu and nori plugins the
+ * index settings rely on. Requires a local Docker daemon.
+ */
+public class SearchLoadTestEnvironment implements AutoCloseable {
+    private static final String OPENSEARCH_VERSION = "2.17.0";
+    private static final String INDEX_NAME = "documents";
+    private static final int BULK_SIZE = 1000;
+
+    private final int port;
+    private final int corpusSize;
+
+    private OpensearchContainer<?> openSearch;
+    private MongoDBContainer mongo;
+    private ConfigurableApplicationContext context;
+
+    public SearchLoadTestEnvironment(int port, int corpusSize) {
+        this.port = port;
+        this.corpusSize = corpusSize;
+    }
+
+    public String baseUrl() {
+        return "http://localhost:" + port;
+    }
+
+    public void start() throws Exception {
+        openSearch = new OpensearchContainer<>(openSearchImage());
+        mongo = new MongoDBContainer(DockerImageName.parse("mongo:7.0"));
+        openSearch.start();
+        mongo.start();
+
+        context = new SpringApplicationBuilder(DocumentSearchServiceApplication.class, LoadTestStubs.class)
+                .run(applicationArguments());
+
+        seedDocuments(context.getBean(RestHighLevelClient.class));
+        seedPreferences(context.getBean(MongoTemplate.class));
+    }
+
+    @Override
+    public void close() {
+        if (context != null) {
+            context.close();
+        }
+        if (mongo != null) {
+            mongo.stop();
+        }
+        if (openSearch != null) {
+            openSearch.stop();
+        }
+    }
+
+    private static DockerImageName openSearchImage() throws Exception {
+        String image = new ImageFromDockerfile("dms-opensearch-load:" + OPENSEARCH_VERSION, false)
+                .withDockerfileFromBuilder(builder -> builder
+                        .from("opensearchproject/opensearch:" + OPENSEARCH_VERSION)
+                        .run("bin/opensearch-plugin install --batch analysis-icu analysis-nori")
+                        .build())
+                .get();
+        return DockerImageName.parse(image).asCompatibleSubstituteFor("opensearchproject/opensearch");
+    }
+
+    private String[] applicationArguments() {
+        return new String[]{
+                "--server.port=" + port,
+                "--spring.profiles.active=load-test",
+                "--opensearch.host=" + openSearch.getHost(),
+                "--opensearch.port=" + openSearch.getMappedPort(9200),
+                "--opensearch.scheme=http",
+                "--opensearch.username=" + openSearch.getUsername(),
+                "--opensearch.password=" + openSearch.getPassword(),
+                "--spring.data.mongodb.uri=" + mongo.getReplicaSetUrl("dms"),
+                "--spring.security.oauth2.resourceserver.jwt.jwk-set-uri=http://localhost/.well-known/jwks.json",
+                "--app.auth-service.api-key=load-test",
+                "--spring.autoconfigure.exclude="
+                        + "org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration,"
+                        + "org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration",
+                "--spring.cloud.discovery.enabled=false",
+                "--eureka.client.enabled=false",
+                "--logging.level.root=WARN",
+                "--logging.level.org.springframework=WARN",
+                "--logging.level.com.dms=INFO"
+        };
+    }
+
+    private void seedDocuments(RestHighLevelClient client) throws IOException {
+        List<Map<String, Object>> documents = SyntheticCorpus.documents(corpusSize);
+        for (int start = 0; start < documents.size(); start += BULK_SIZE) {
+            BulkRequest bulkRequest = new BulkRequest();
+            for (Map<String, Object> document : documents.subList(start, Math.min(start + BULK_SIZE, documents.size()))) {
+                bulkRequest.add(new IndexRequest(INDEX_NAME).id((String) document.get("id")).source(document));
+            }
+            BulkResponse response = client.bulk(bulkRequest, RequestOptions.DEFAULT);
+            if (response.hasFailures()) {
+                throw new IllegalStateException("Failed to seed documents: " + response.buildFailureMessage());
+            }
+        }
+        client.indices().refresh(new RefreshRequest(INDEX_NAME), RequestOptions.DEFAULT);
+    }
+
+    private static void seedPreferences(MongoTemplate mongoTemplate) {
+        List<DocumentPreferences> preferences = new ArrayList<>(SyntheticCorpus.USER_COUNT);
+        for (int i = 0; i < SyntheticCorpus.USER_COUNT; i++) {
+            DocumentPreferences userPreferences = new DocumentPreferences();
+            userPreferences.setUserId(SyntheticCorpus.userId(SyntheticCorpus.username(i)));
+            userPreferences.setPreferredMajors(new HashSet<>(SyntheticCorpus.preferredMajors(i)));
+            userPreferences.setPreferredTags(new HashSet<>(SyntheticCorpus.preferredTags(i)));
+            userPreferences.setLanguagePreferences(new HashSet<>(i % 2 == 0 ? List.of("en") : List.of("en", "vi")));
+            preferences.add(userPreferences);
+        }
+        mongoTemplate.insertAll(preferences);
+    }
+}
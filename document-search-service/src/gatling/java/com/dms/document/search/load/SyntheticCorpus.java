@@ -0,0 +1,207 @@
+package com.dms.document.search.load;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+
+/**
+ * Deterministic synthetic documents and queries in the three supported languages.
+ * The same seed and size always produce the same corpus, so reports from different commits compare like for like.
+ */
+public final class SyntheticCorpus {
+    public static final int USER_COUNT = 50;
+
+    private static final long SEED = 42L;
+
+    private static final List<String> ENGLISH_TOPICS = List.of(
+            "machine learning", "database systems", "operating systems", "computer networks", "linear algebra",
+            "software architecture", "distributed systems", "data structures", "compiler design", "cloud computing",
+            "information retrieval", "computer graphics", "discrete mathematics", "web development", "cryptography");
+    private static final List<String> ENGLISH_WORDS = List.of(
+            "introduction", "lecture", "notes", "algorithm", "analysis", "design", "example", "exercise", "solution",
+            "chapter", "theory", "practice", "model", "performance", "memory", "process", "query", "index", "graph",
+            "network", "security", "protocol", "function", "matrix", "vector", "optimization", "gradient", "training");
+    private static final List<String> VIETNAMESE_TOPICS = List.of(
+            "học máy", "cơ sở dữ liệu", "hệ điều hành", "mạng máy tính", "đại số tuyến tính",
+            "kiến trúc phần mềm", "hệ phân tán", "cấu trúc dữ liệu", "điện toán đám mây", "toán rời rạc");
+    private static final List<String> VIETNAMESE_WORDS = List.of(
+            "bài giảng", "giáo trình", "thuật toán", "phân tích", "thiết kế", "ví dụ", "bài tập", "lời giải",
+            "chương", "lý thuyết", "thực hành", "mô hình", "hiệu năng", "bộ nhớ", "truy vấn", "chỉ mục", "bảo mật");
+    private static final List<String> KOREAN_TOPICS = List.of(
+            "머신 러닝", "데이터베이스", "운영 체제", "컴퓨터 네트워크", "선형 대수",
+            "소프트웨어 아키텍처", "분산 시스템", "자료 구조", "클라우드 컴퓨팅", "이산 수학");
+    private static final List<String> KOREAN_WORDS = List.of(
+            "강의", "교재", "알고리즘", "분석", "설계", "예제", "연습", "해답", "이론", "실습", "모델", "성능", "메모리", "보안");
+
+    private static final List<String> MAJORS = List.of(
+            "SOFTWARE_ENGINEERING", "ARTIFICIAL_INTELLIGENCE", "INFORMATION_SECURITY", "IOT_ENGINEERING", "BUSINESS");
+    private static final List<String> COURSE_CODES = List.of(
+            "CS101", "CS201", "CS301", "AI201", "AI301", "IS202", "IT4060", "MATH1010", "NET202", "SE305");
+    private static final List<String> LEVELS = List.of("FUNDAMENTAL", "INTERMEDIATE", "ADVANCED");
+    private static final List<String> CATEGORIES = List.of("LECTURE", "EXERCISE", "EXAM", "REFERENCE", "LAB");
+    private static final List<String> TAGS = List.of(
+            "java", "python", "spring", "sql", "ml", "security", "math", "exam-prep", "lab", "cloud");
+
+    private SyntheticCorpus() {
+    }
+
+    public static String username(int index) {
+        return "load-user-" + index;
+    }
+
+    public static String userId(String username) {
+        return UUID.nameUUIDFromBytes(username.getBytes()).toString();
+    }
+
+    /**
+     * Builds the index source of every document, in the shape the processor service writes.
+     */
+    public static List<Map<String, Object>> documents(int size) {
+        Random random = new Random(SEED);
+        Instant now = Instant.parse("2025-01-01T00:00:00Z");
+        List<Map<String, Object>> documents = new ArrayList<>(size);
+
+        for (int i = 0; i < size; i++) {
+            String language = pickLanguage(random);
+            String topic = pick(random, topics(language));
+            String owner = userId(username(random.nextInt(USER_COUNT)));
+
+            Map<String, Object> document = new HashMap<>();
+            document.put("id", "load-document-" + i);
+            document.put("filename", topic + " " + pick(random, words(language)) + " " + (i % 20 + 1) + ".pdf");
+            document.put("content", content(random, language, topic, 150 + random.nextInt(350)));
+            document.put("language", language);
+            document.put("documentType", "PDF");
+            document.put("mimeType", "application/pdf");
+            document.put("fileSize", 50_000L + random.nextInt(5_000_000));
+            document.put("majors", pickSome(random, MAJORS, 1 + random.nextInt(2)));
+            document.put("courseCodes", pickSome(random, COURSE_CODES, 1 + random.nextInt(2)));
+            document.put("courseLevel", pick(random, LEVELS));
+            document.put("categories", pickSome(random, CATEGORIES, 1));
+            document.put("tags", pickSome(random, TAGS, 1 + random.nextInt(3)));
+            document.put("userId", owner);
+            document.put("deleted", random.nextInt(100) < 2);
+            document.put("status", "COMPLETED");
+            document.put("createdAt", now.minus(random.nextInt(720), ChronoUnit.DAYS).toString());
+            document.put("recommendationCount", random.nextInt(10) < 7 ? 0 : random.nextInt(50));
+            document.put("favoriteCount", random.nextInt(10) < 6 ? 0 : random.nextInt(30));
+            document.put("currentVersion", random.nextInt(4));
+
+            int sharing = random.nextInt(10);
+            if (sharing < 7) {
+                document.put("sharingType", "PUBLIC");
+            } else if (sharing < 9) {
+                document.put("sharingType", "PRIVATE");
+            } else {
+                document.put("sharingType", "SPECIFIC");
+                document.put("sharedWith", List.of(userId(username(random.nextInt(USER_COUNT)))));
+            }
+            documents.add(document);
+        }
+        return documents;
+    }
+
+    /**
+     * Full search queries, weighted towards English like the production traffic.
+     */
+    public static List<Map<String, Object>> searchQueries() {
+        List<Map<String, Object>> queries = new ArrayList<>();
+        for (String topic : ENGLISH_TOPICS) {
+            queries.add(Map.of("query", topic));
+            queries.add(Map.of("query", topic + " lecture notes"));
+            queries.add(Map.of("query", "introduction to " + topic + " with examples"));
+        }
+        VIETNAMESE_TOPICS.forEach(topic -> queries.add(Map.of("query", topic)));
+        KOREAN_TOPICS.forEach(topic -> queries.add(Map.of("query", topic)));
+        COURSE_CODES.forEach(code -> queries.add(Map.of("query", code)));
+        return queries;
+    }
+
+    /**
+     * Typeahead prefixes the way a user types them, two characters and up.
+     */
+    public static List<Map<String, Object>> suggestionQueries() {
+        List<Map<String, Object>> queries = new ArrayList<>();
+        List<String> topics = new ArrayList<>(ENGLISH_TOPICS);
+        topics.addAll(VIETNAMESE_TOPICS);
+        topics.addAll(KOREAN_TOPICS);
+        for (String topic : topics) {
+            for (int length = 2; length <= Math.min(topic.length(), 8); length += 2) {
+                queries.add(Map.of("query", topic.substring(0, length)));
+            }
+        }
+        return queries;
+    }
+
+    public static List<Map<String, Object>> filters() {
+        List<Map<String, Object>> filters = new ArrayList<>();
+        for (String major : MAJORS) {
+            for (String level : LEVELS) {
+                filters.add(Map.of("major", major, "level", level));
+            }
+        }
+        return filters;
+    }
+
+    public static List<Map<String, Object>> users() {
+        List<Map<String, Object>> users = new ArrayList<>(USER_COUNT);
+        for (int i = 0; i < USER_COUNT; i++) {
+            users.add(Map.of("username", username(i)));
+        }
+        return users;
+    }
+
+    public static List<String> preferredMajors(int userIndex) {
+        return List.of(MAJORS.get(userIndex % MAJORS.size()));
+    }
+
+    public static List<String> preferredTags(int userIndex) {
+        return List.of(TAGS.get(userIndex % TAGS.size()), TAGS.get((userIndex + 3) % TAGS.size()));
+    }
+
+    private static String content(Random random, String language, String topic, int words) {
+        List<String> vocabulary = words(language);
+        StringBuilder content = new StringBuilder(words * 8);
+        for (int i = 0; i < words; i++) {
+            if (i % 40 == 0) {
+                content.append(topic).append(' ');
+            }
+            content.append(pick(random, vocabulary)).append(i % 12 == 11 ? ". " : " ");
+        }
+        return content.toString().trim();
+    }
+
+    private static String pickLanguage(Random random) {
+        int value = random.nextInt(10);
+        if (value < 6) return "en";
+        return value < 9 ? "vi" : "ko";
+    }
+
+    private static List<String> topics(String language) {
+        return switch (language) {
+            case "vi" -> VIETNAMESE_TOPICS;
+            case "ko" -> KOREAN_TOPICS;
+            default -> ENGLISH_TOPICS;
+        };
+    }
+
+    private static List<String> words(String language) {
+        return switch (language) {
+            case "vi" -> VIETNAMESE_WORDS;
+            case "ko" -> KOREAN_WORDS;
+            default -> ENGLISH_WORDS;
+        };
+    }
+
+    private static String pick(Random random, List<String> values) {
+        return values.get(random.nextInt(values.size()));
+    }
+
+    private static List<String> pickSome(Random random, List<String> values, int count) {
+        Set<String> picked = new LinkedHashSet<>();
+        while (picked.size() < count) {
+            picked.add(pick(random, values));
+        }
+        return new ArrayList<>(picked);
+    }
+}
@@ -0,0 +1,107 @@
+package com.dms.document.search.service.impl;
+
+import com.dms.document.search.dto.DocumentSearchRequest;
+import com.dms.document.search.dto.SearchContext;
+import com.dms.document.search.dto.SuggestionRequest;
+import com.dms.document.search.enums.AppRole;
+import com.dms.document.search.model.DocumentPreferences;
+import com.dms.document.search.repository.DocumentPreferencesRepository;
+import com.dms.document.search.service.LanguageDetectionService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.opensearch.core.common.bytes.BytesReference;
+import org.opensearch.core.xcontent.MediaTypeRegistry;
+import org.opensearch.core.xcontent.XContentHelper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how long the discover service takes to turn a request into the bytes sent to OpenSearch.
+ * Serialization is included because the client pays for it on every request.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DiscoverQueryBenchmark {
+
+    @Param({
+            "java",
+            "introduction to machine learning algorithms",
+            "cơ sở dữ liệu phân tán",
+            "머신 러닝 기초"
+    })
+    private String query;
+
+    private DiscoverDocumentSearchServiceImpl discoverDocumentSearchService;
+    private DocumentSearchRequest searchRequest;
+    private SuggestionRequest suggestionRequest;
+    private UUID userId;
+
+    @Setup
+    public void setUp() {
+        LanguageDetectionService languageDetectionService = new LanguageDetectionService(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(languageDetectionService, "cacheSize", 2000);
+        ReflectionTestUtils.setField(languageDetectionService, "lowAccuracyMode", true);
+        languageDetectionService.init();
+
+        DocumentPreferences preferences = new DocumentPreferences();
+        preferences.setPreferredMajors(Set.of("SOFTWARE_ENGINEERING", "ARTIFICIAL_INTELLIGENCE"));
+        preferences.setPreferredCourseCodes(Set.of("CS101", "AI201"));
+        preferences.setPreferredTags(Set.of("java", "spring", "ml"));
+        preferences.setLanguagePreferences(Set.of("en", "vi"));
+
+        // Neither the OpenSearch client nor the user client is touched while building requests
+        discoverDocumentSearchService = new DiscoverDocumentSearchServiceImpl(
+                null, null, preferencesRepository(preferences), languageDetectionService);
+
+        userId = UUID.randomUUID();
+        searchRequest = DocumentSearchRequest.builder()
+                .search(query)
+                .majors(Set.of("SOFTWARE_ENGINEERING"))
+                .tags(Set.of("java", "ml"))
+                .page(0)
+                .size(20)
+                .build();
+        suggestionRequest = SuggestionRequest.builder()
+                .query(query)
+                .majors(Set.of("SOFTWARE_ENGINEERING"))
+                .build();
+    }
+
+    @Benchmark
+    public BytesReference buildSearchRequest() throws IOException {
+        SearchContext context = discoverDocumentSearchService.analyzeQuery(searchRequest.getSearch());
+        return XContentHelper.toXContent(
+                discoverDocumentSearchService.buildSearchRequest(searchRequest, context, userId, AppRole.ROLE_USER),
+                MediaTypeRegistry.JSON, false);
+    }
+
+    @Benchmark
+    public BytesReference buildSuggestionRequest() throws IOException {
+        SearchContext context = discoverDocumentSearchService.analyzeQuery(suggestionRequest.getQuery());
+        return XContentHelper.toXContent(
+                discoverDocumentSearchService.buildSuggestionRequest(suggestionRequest, context, userId.toString(), AppRole.ROLE_USER).source(),
+                MediaTypeRegistry.JSON, false);
+    }
+
+    private static DocumentPreferencesRepository preferencesRepository(DocumentPreferences preferences) {
+        return (DocumentPreferencesRepository) Proxy.newProxyInstance(
+                DocumentPreferencesRepository.class.getClassLoader(),
+                new Class<?>[]{DocumentPreferencesRepository.class},
+                (proxy, method, args) -> {
+                    if ("findByUserId".equals(method.getName())) {
+                        return Optional.of(preferences);
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
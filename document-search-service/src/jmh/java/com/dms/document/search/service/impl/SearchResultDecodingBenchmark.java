@@ -0,0 +1,116 @@
+package com.dms.document.search.service.impl;
+
+import com.dms.document.search.dto.DocumentResponseDto;
+import org.opensearch.action.search.SearchResponse;
+import org.opensearch.common.settings.Settings;
+import org.opensearch.common.xcontent.XContentFactory;
+import org.opensearch.common.xcontent.json.JsonXContent;
+import org.opensearch.core.common.bytes.BytesReference;
+import org.opensearch.core.xcontent.DeprecationHandler;
+import org.opensearch.core.xcontent.NamedXContentRegistry;
+import org.opensearch.core.xcontent.XContentBuilder;
+import org.opensearch.core.xcontent.XContentParser;
+import org.opensearch.search.SearchModule;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures decoding of an OpenSearch search response: parsing the HTTP body the client receives
+ * and mapping the hits to DTOs the controllers return.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SearchResultDecodingBenchmark {
+
+    private static final NamedXContentRegistry X_CONTENT_REGISTRY =
+            new NamedXContentRegistry(new SearchModule(Settings.EMPTY, Collections.emptyList()).getNamedXContents());
+
+    @Param({"10", "50"})
+    private int hits;
+
+    private DiscoverDocumentSearchServiceImpl discoverDocumentSearchService;
+    private byte[] responseBody;
+
+    @Setup
+    public void setUp() throws IOException {
+        discoverDocumentSearchService = new DiscoverDocumentSearchServiceImpl(null, null, null, null);
+        responseBody = BytesReference.toBytes(BytesReference.bytes(buildResponse(hits)));
+    }
+
+    @Benchmark
+    public Page<DocumentResponseDto> decodeSearchResponse() throws IOException {
+        SearchResponse response = parse(responseBody);
+        return discoverDocumentSearchService.processSearchResults(
+                response.getHits().getHits(),
+                response.getHits().getTotalHits().value,
+                PageRequest.of(0, hits));
+    }
+
+    @Benchmark
+    public List<String> decodeSuggestionResponse() throws IOException {
+        SearchResponse response = parse(responseBody);
+        return discoverDocumentSearchService.processSuggestionResults(response.getHits().getHits());
+    }
+
+    private SearchResponse parse(byte[] body) throws IOException {
+        try (XContentParser parser = JsonXContent.jsonXContent.createParser(
+                X_CONTENT_REGISTRY, DeprecationHandler.THROW_UNSUPPORTED_OPERATION, body)) {
+            return SearchResponse.fromXContent(parser);
+        }
+    }
+
+    private static XContentBuilder buildResponse(int size) throws IOException {
+        XContentBuilder builder = XContentFactory.jsonBuilder().startObject()
+                .field("took", 12)
+                .field("timed_out", false)
+                .startObject("_shards")
+                .field("total", 1).field("successful", 1).field("skipped", 0).field("failed", 0)
+                .endObject()
+                .startObject("hits")
+                .startObject("total").field("value", size * 20).field("relation", "eq").endObject()
+                .field("max_score", 42.0)
+                .startArray("hits");
+
+        for (int i = 0; i < size; i++) {
+            builder.startObject()
+                    .field("_index", "documents")
+                    .field("_id", "document-" + i)
+                    .field("_score", 42.0 - i * 0.5)
+                    .startObject("_source")
+                    .field("filename", "Introduction to Machine Learning - Lecture " + i + ".pdf")
+                    .field("status", "COMPLETED")
+                    .field("documentType", "PDF")
+                    .field("majors", List.of("SOFTWARE_ENGINEERING", "ARTIFICIAL_INTELLIGENCE"))
+                    .field("courseCodes", List.of("AI201"))
+                    .field("courseLevel", "INTERMEDIATE")
+                    .field("categories", List.of("LECTURE"))
+                    .field("tags", List.of("ml", "python", "lecture-" + i))
+                    .field("fileSize", 1_048_576L + i)
+                    .field("mimeType", "application/pdf")
+                    .field("language", "en")
+                    .field("userId", "5f2b3c1e-7d4a-4b8e-9c1f-" + String.format("%012d", i))
+                    .field("createdAt", "2024-03-15T08:30:00Z")
+                    .field("currentVersion", 3)
+                    .endObject()
+                    .startObject("highlight")
+                    .array("content",
+                            "An <em><b>introduction</b></em> to supervised <em><b>machine learning</b></em> with worked examples",
+                            "Gradient descent is the workhorse of most <em><b>machine learning</b></em> algorithms")
+                    .array("filename.search", "<em><b>Introduction</b></em> to <em><b>Machine Learning</b></em> - Lecture " + i)
+                    .endObject()
+                    .endObject();
+        }
+
+        return builder.endArray().endObject().endObject();
+    }
+}
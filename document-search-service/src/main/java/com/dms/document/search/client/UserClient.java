@@ -2,15 +2,52 @@ package com.dms.document.search.client;
 
 
 import com.dms.document.search.config.FeignConfig;
+import com.dms.document.search.dto.RoleResponse;
 import com.dms.document.search.dto.UserResponse;
+import com.dms.document.search.enums.AppRole;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+
 @FeignClient(name = "auth-service", configuration = FeignConfig.class)
 public interface UserClient {
 
     @GetMapping("/api/v1/users")
-    ResponseEntity<UserResponse> getUserByUsername(@RequestParam("username") String username);
+    ResponseEntity<UserResponse> fetchUserByUsername(@RequestParam("username") String username);
+
+    /**
+     * Builds the caller from the uid and roles claims of their verified token instead of asking auth-service. Other
+     * users, and tokens issued without a uid, are still fetched. The role is the one the token was issued with.
+     */
+    default ResponseEntity<UserResponse> getUserByUsername(String username) {
+        return currentUser(username)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> fetchUserByUsername(username));
+    }
+
+    private static Optional<UserResponse> currentUser(String username) {
+        if (!(SecurityContextHolder.getContext().getAuthentication() instanceof JwtAuthenticationToken authentication)) {
+            return Optional.empty();
+        }
+        Jwt jwt = authentication.getToken();
+        String userId = jwt.getClaimAsString("uid");
+        List<String> roles = jwt.getClaimAsStringList("roles");
+        if (userId == null || roles == null || !Objects.equals(jwt.getSubject(), username)) {
+            return Optional.empty();
+        }
+        return Arrays.stream(AppRole.values())
+                .filter(role -> roles.contains(role.name()))
+                .findFirst()
+                .map(role -> new UserResponse(UUID.fromString(userId), username, null, new RoleResponse(null, role)));
+    }
 }
@@ -0,0 +1,141 @@
+package com.dms.document.search.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
+import org.springframework.security.oauth2.server.resource.web.BearerTokenResolver;
+import org.springframework.security.oauth2.server.resource.web.DefaultBearerTokenResolver;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Objects;
+
+/**
+ * Authenticates requests from the identity headers api-gateway adds after validating the bearer token, so the token
+ * is not validated again here. The headers are only trusted with a valid signature from the shared secret over the
+ * hash of the bearer token sent with them, a recent timestamp and an unexpired token; otherwise the request falls
+ * through to the JWT resource server as before.
+ */
+@Slf4j
+public class GatewayIdentityFilter extends OncePerRequestFilter {
+    public static final String USER_ID_HEADER = "X-User-Id";
+    public static final String USERNAME_HEADER = "X-User-Name";
+    public static final String ROLES_HEADER = "X-User-Roles";
+    public static final String ISSUED_AT_HEADER = "X-Identity-Issued-At";
+    public static final String EXPIRES_AT_HEADER = "X-Identity-Expires-At";
+    public static final String TIMESTAMP_HEADER = "X-Identity-Timestamp";
+    public static final String SIGNATURE_HEADER = "X-Identity-Signature";
+    private static final String AUTHENTICATED_ATTRIBUTE = GatewayIdentityFilter.class.getName() + ".AUTHENTICATED";
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    // How far ahead of this instance's clock the gateway's may run
+    private static final Duration CLOCK_SKEW = Duration.ofSeconds(5);
+
+    private final SecretKeySpec signingKey;
+    private final Duration maxAge;
+    private final JwtAuthenticationConverter jwtAuthenticationConverter;
+    private final BearerTokenResolver bearerTokenResolver = new DefaultBearerTokenResolver();
+
+    public GatewayIdentityFilter(String secret, Duration maxAge, JwtAuthenticationConverter jwtAuthenticationConverter) {
+        this.signingKey = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), HMAC_ALGORITHM);
+        this.maxAge = maxAge;
+        this.jwtAuthenticationConverter = jwtAuthenticationConverter;
+    }
+
+    /**
+     * Resolves bearer tokens for the resource server, except on requests this filter already authenticated.
+     */
+    public static BearerTokenResolver bearerTokenResolver() {
+        DefaultBearerTokenResolver resolver = new DefaultBearerTokenResolver();
+        return request -> request.getAttribute(AUTHENTICATED_ATTRIBUTE) != null ? null : resolver.resolve(request);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String signature = request.getHeader(SIGNATURE_HEADER);
+        if (signature != null) {
+            authenticate(request, signature);
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private void authenticate(HttpServletRequest request, String signature) {
+        String token = bearerTokenResolver.resolve(request);
+        String userId = request.getHeader(USER_ID_HEADER);
+        String username = request.getHeader(USERNAME_HEADER);
+        String roles = Objects.toString(request.getHeader(ROLES_HEADER), "");
+        String issuedAt = Objects.toString(request.getHeader(ISSUED_AT_HEADER), "");
+        String expiresAt = request.getHeader(EXPIRES_AT_HEADER);
+        String timestamp = request.getHeader(TIMESTAMP_HEADER);
+        if (token == null || StringUtils.isBlank(username) || !StringUtils.isNumeric(timestamp)
+                || !StringUtils.isNumeric(expiresAt) || !(issuedAt.isEmpty() || StringUtils.isNumeric(issuedAt))) {
+            return;
+        }
+
+        Instant now = Instant.now();
+        Instant signedAt = Instant.ofEpochMilli(Long.parseLong(timestamp));
+        if (signedAt.isAfter(now.plus(CLOCK_SKEW)) || signedAt.isBefore(now.minus(maxAge))) {
+            log.warn("Ignoring gateway identity with a stale or future timestamp for user {}", username);
+            return;
+        }
+        Instant tokenExpiresAt = Instant.ofEpochSecond(Long.parseLong(expiresAt));
+        if (!tokenExpiresAt.isAfter(now)) {
+            log.warn("Ignoring gateway identity for an expired token of user {}", username);
+            return;
+        }
+        String payload = String.join("\n",
+                Objects.toString(userId, ""), username, roles, tokenHash(token), issuedAt, expiresAt, timestamp);
+        if (!MessageDigest.isEqual(sign(payload), signature.getBytes(StandardCharsets.UTF_8))) {
+            log.warn("Ignoring gateway identity with an invalid signature for user {}", username);
+            return;
+        }
+
+        Jwt.Builder jwt = Jwt.withTokenValue(token)
+                .header("typ", "JWT")
+                .subject(username)
+                .expiresAt(tokenExpiresAt)
+                .claim("roles", Arrays.stream(roles.split(",")).filter(StringUtils::isNotBlank).toList());
+        if (!issuedAt.isEmpty()) {
+            jwt.issuedAt(Instant.ofEpochSecond(Long.parseLong(issuedAt)));
+        }
+        if (StringUtils.isNotBlank(userId)) {
+            jwt.claim("uid", userId);
+        }
+        SecurityContextHolder.getContext().setAuthentication(jwtAuthenticationConverter.convert(jwt.build()));
+        request.setAttribute(AUTHENTICATED_ATTRIBUTE, Boolean.TRUE);
+    }
+
+    private static String tokenHash(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Failed to hash bearer token", e);
+        }
+    }
+
+    private byte[] sign(String payload) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(signingKey);
+            return Base64.getEncoder().encode(mac.doFinal(payload.getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Failed to verify gateway identity", e);
+        }
+    }
+}
@@ -6,7 +6,6 @@ import com.dms.document.search.enums.QueryType;
 public record SearchContext(
         QueryType queryType,
         String originalQuery,
-        String uppercaseQuery,
         String lowercaseQuery) {
 
-}
\ No newline at end of file
+}
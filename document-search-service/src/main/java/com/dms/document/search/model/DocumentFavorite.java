@@ -1,30 +0,0 @@
-package com.dms.document.search.model;
-
-import jakarta.persistence.*;
-import lombok.Data;
-
-import java.time.Instant;
-import java.util.UUID;
-
-@Entity
-@Table(name = "document_favorites")
-@Data
-public class DocumentFavorite {
-    @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
-    private Long id;
-
-    @Column(name = "user_id", nullable = false)
-    private UUID userId;
-
-    @Column(name = "document_id", nullable = false)
-    private String documentId;
-
-    @Column(name = "created_at")
-    private Instant createdAt;
-
-    @PrePersist
-    protected void onCreate() {
-        createdAt = Instant.now();
-    }
-}
\ No newline at end of file
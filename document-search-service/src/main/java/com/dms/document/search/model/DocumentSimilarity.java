@@ -0,0 +1,39 @@
+package com.dms.document.search.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.time.Instant;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "document_similarities")
+public class DocumentSimilarity {
+    @Id
+    private String id;
+
+    @Field("similar_documents")
+    private List<SimilarDocument> similarDocuments;
+
+    @Field("computed_at")
+    private Instant computedAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class SimilarDocument {
+        @Field("document_id")
+        private String documentId;
+
+        @Field("score")
+        private Float score;
+    }
+}
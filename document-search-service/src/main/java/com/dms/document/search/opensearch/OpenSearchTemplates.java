@@ -0,0 +1,64 @@
+package com.dms.document.search.opensearch;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.opensearch.action.admin.cluster.storedscripts.PutStoredScriptRequest;
+import org.opensearch.client.RequestOptions;
+import org.opensearch.client.RestHighLevelClient;
+import org.opensearch.common.xcontent.XContentFactory;
+import org.opensearch.core.common.bytes.BytesReference;
+import org.opensearch.core.xcontent.MediaTypeRegistry;
+import org.opensearch.core.xcontent.XContentBuilder;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Registers the stored mustache search templates used by the search services.
+ * Template ids are versioned, so changing a template means bumping its id rather than
+ * overwriting the one that running instances still reference.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class OpenSearchTemplates {
+    public static final String DISCOVER_SEARCH_TEMPLATE_ID = "dms-discover-search-v1";
+
+    private final RestHighLevelClient openSearchClient;
+
+    @PostConstruct
+    public void registerTemplates() {
+        try {
+            putTemplate(DISCOVER_SEARCH_TEMPLATE_ID, loadTemplate("/opensearch/templates/discover-search.mustache"));
+        } catch (Exception e) {
+            log.error("Error registering OpenSearch search templates", e);
+            throw new RuntimeException("Failed to register OpenSearch search templates", e);
+        }
+    }
+
+    private void putTemplate(String id, String source) throws IOException {
+        // The template is not valid JSON until rendered, so it is stored as a string source
+        XContentBuilder content = XContentFactory.jsonBuilder()
+                .startObject()
+                .startObject("script")
+                .field("lang", "mustache")
+                .field("source", source)
+                .endObject()
+                .endObject();
+
+        PutStoredScriptRequest request = new PutStoredScriptRequest()
+                .id(id)
+                .content(BytesReference.bytes(content), MediaTypeRegistry.JSON);
+        openSearchClient.putScript(request, RequestOptions.DEFAULT);
+        log.info("Search template '{}' registered", id);
+    }
+
+    private String loadTemplate(String path) throws IOException {
+        ClassPathResource resource = new ClassPathResource(path);
+        return StreamUtils.copyToString(resource.getInputStream(), StandardCharsets.UTF_8);
+    }
+}
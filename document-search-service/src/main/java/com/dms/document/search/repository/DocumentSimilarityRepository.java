@@ -0,0 +1,9 @@
+package com.dms.document.search.repository;
+
+import com.dms.document.search.model.DocumentSimilarity;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface DocumentSimilarityRepository extends MongoRepository<DocumentSimilarity, String> {
+}
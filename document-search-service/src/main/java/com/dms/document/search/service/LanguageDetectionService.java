@@ -3,36 +3,57 @@ package com.dms.document.search.service;
 import com.github.pemistahl.lingua.api.Language;
 import com.github.pemistahl.lingua.api.LanguageDetector;
 import com.github.pemistahl.lingua.api.LanguageDetectorBuilder;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.util.Optional;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
 
 /**
- * Language detection service using Lingua library for search query analysis
+ * Language detection service using Lingua library for search query analysis.
+ * Queries are short and highly repetitive (suggestions fire on every keystroke), so cheap
+ * heuristics and an LRU of recent results run before the detector is consulted at all.
  */
 @Service
 @Slf4j
+@RequiredArgsConstructor
 public class LanguageDetectionService {
 
-    private final LanguageDetector detector;
+    private final MeterRegistry meterRegistry;
 
-    // Minimum text length for reliable detection
+    @Value("${app.search.language-detection.cache-size:2000}")
+    private int cacheSize;
+
+    @Value("${app.search.language-detection.low-accuracy:true}")
+    private boolean lowAccuracyMode;
+
+    private volatile LanguageDetector detector;
+
+    private Map<String, String> cache;
+
+    // Minimum number of letters for reliable detection
     private static final int MIN_TEXT_LENGTH = 3;
 
-    // Confidence threshold for language detection
-    private static final double CONFIDENCE_THRESHOLD = 0.7;
+    // Minimum distance between the best and the runner-up language; Lingua reports the best one as 1.0
+    private static final double CONFIDENCE_THRESHOLD = 0.1;
 
-    public LanguageDetectionService() {
-        // Initialize detector with languages we support
-        this.detector = LanguageDetectorBuilder.fromLanguages(
-                Language.ENGLISH,
-                Language.KOREAN,
-                Language.VIETNAMESE
-        ).build();
+    private static final String DEFAULT_LANGUAGE = "en";
 
-        log.info("Language detection service initialized with support for: English, Korean, Vietnamese");
-    }
+    // Course codes and similar identifiers, e.g. "CS101", "MATH 2030", "IT4060E"
+    private static final Pattern COURSE_CODE_PATTERN = Pattern.compile("^[A-Za-z]{1,8}[\\s-]?\\d{2,5}[A-Za-z]?$");
+
+    private static final String TIMER_NAME = "search.language.detection";
 
     /**
      * Detect language of search query text
@@ -41,26 +62,24 @@ public class LanguageDetectionService {
      * @return detected language code ("en", "ko", "vi", or fallback)
      */
     public String detectLanguage(String text) {
-        if (text == null || text.trim().length() < MIN_TEXT_LENGTH) {
-            return "en"; // Default to English for very short text
+        long start = System.nanoTime();
+        String shortcut = detectByHeuristics(text);
+        if (shortcut != null) {
+            record("heuristic", start);
+            return shortcut;
         }
 
-        try {
-            Language detectedLanguage = detector.detectLanguageOf(text);
-
-            double confidence = detector.computeLanguageConfidenceValues(text).size();
-
-            if (confidence >= CONFIDENCE_THRESHOLD) {
-                String languageCode = detectedLanguage.getIsoCode639_1().toString().toLowerCase();
-                log.debug("Detected language: {} with confidence: {}", languageCode, confidence);
-                return languageCode;
-            }
-        } catch (Exception e) {
-            log.warn("Language detection failed for text: '{}', using English fallback",
-                    text.length() > 50 ? text.substring(0, 50) + "..." : text, e);
+        String key = text.trim().toLowerCase(Locale.ROOT);
+        String cached = cache.get(key);
+        if (cached != null) {
+            record("cache", start);
+            return cached;
         }
 
-        return "en"; // Fallback to English
+        String languageCode = detectWithLingua(key).getLanguageCode();
+        cache.put(key, languageCode);
+        record("detector", start);
+        return languageCode;
     }
 
     /**
@@ -85,28 +104,117 @@ public class LanguageDetectionService {
     }
 
     /**
-     * Get language with confidence score for debugging/monitoring
+     * Get language with confidence score for debugging/monitoring. Always bypasses the cache.
      */
     public LanguageResult detectLanguageWithConfidence(String text) {
-        if (text == null || text.trim().length() < MIN_TEXT_LENGTH) {
-            return new LanguageResult("en", 0.0, "Text too short");
+        String shortcut = detectByHeuristics(text);
+        if (shortcut != null) {
+            return new LanguageResult(shortcut, 0.0, "Resolved without detector");
+        }
+        return detectWithLingua(text.trim());
+    }
+
+    /**
+     * Resolve queries that don't need the detector: blank or very short input, course codes,
+     * input without letters, and Hangul which only Korean uses among the supported languages.
+     *
+     * @return language code, or null when the detector has to decide
+     */
+    private String detectByHeuristics(String text) {
+        if (text == null) {
+            return DEFAULT_LANGUAGE;
+        }
+        String trimmed = text.trim();
+        if (containsHangul(trimmed)) {
+            return "ko";
         }
+        if (trimmed.length() < MIN_TEXT_LENGTH) {
+            return DEFAULT_LANGUAGE;
+        }
+        if (isAscii(trimmed) && (COURSE_CODE_PATTERN.matcher(trimmed).matches() || countLetters(trimmed) < MIN_TEXT_LENGTH)) {
+            return DEFAULT_LANGUAGE;
+        }
+        return null;
+    }
 
+    private LanguageResult detectWithLingua(String text) {
         try {
-            Language detectedLanguage = detector.detectLanguageOf(text);
+            // Confidence values are sorted best first, so one call gives both the language and the margin
+            SortedMap<Language, Double> values = getDetector().computeLanguageConfidenceValues(text);
+            if (values.isEmpty()) {
+                return new LanguageResult(DEFAULT_LANGUAGE, 0.0, "No language detected, fallback to English");
+            }
 
-            double confidence = detector.computeLanguageConfidenceValues(text).size();
-            String languageCode = detectedLanguage.getIsoCode639_1().toString().toLowerCase();
+            Iterator<Map.Entry<Language, Double>> iterator = values.entrySet().iterator();
+            Map.Entry<Language, Double> best = iterator.next();
+            double confidence = iterator.hasNext() ? best.getValue() - iterator.next().getValue() : best.getValue();
+            String languageCode = best.getKey().getIsoCode639_1().toString().toLowerCase(Locale.ROOT);
 
             if (confidence >= CONFIDENCE_THRESHOLD) {
+                log.debug("Detected language: {} with confidence: {}", languageCode, confidence);
                 return new LanguageResult(languageCode, confidence, "Detected");
-            } else {
-                return new LanguageResult("en", confidence, "Low confidence, fallback to English");
             }
+            return new LanguageResult(DEFAULT_LANGUAGE, confidence, "Low confidence, fallback to English");
         } catch (Exception e) {
-            log.warn("Language detection failed", e);
-            return new LanguageResult("en", 0.0, "Detection failed: " + e.getMessage());
+            log.warn("Language detection failed for text: '{}', using English fallback",
+                    text.length() > 50 ? text.substring(0, 50) + "..." : text, e);
+            return new LanguageResult(DEFAULT_LANGUAGE, 0.0, "Detection failed: " + e.getMessage());
+        }
+    }
+
+    private LanguageDetector getDetector() {
+        LanguageDetector current = detector;
+        if (current == null) {
+            synchronized (this) {
+                current = detector;
+                if (current == null) {
+                    // Only the languages we support, so the model set loaded on first use stays small
+                    LanguageDetectorBuilder builder = LanguageDetectorBuilder.fromLanguages(
+                            Language.ENGLISH,
+                            Language.KOREAN,
+                            Language.VIETNAMESE
+                    );
+                    if (lowAccuracyMode) {
+                        builder = builder.withLowAccuracyMode();
+                    }
+                    current = builder.build();
+                    detector = current;
+                    log.info("Language detector initialized for English, Korean, Vietnamese (low accuracy mode: {})",
+                            lowAccuracyMode);
+                }
+            }
         }
+        return current;
+    }
+
+    @PostConstruct
+    public void init() {
+        int maxEntries = Math.max(cacheSize, 1);
+        this.cache = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                return size() > maxEntries;
+            }
+        });
+    }
+
+    private void record(String source, long startNanos) {
+        Timer.builder(TIMER_NAME)
+                .tag("source", source)
+                .register(meterRegistry)
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private static boolean containsHangul(String text) {
+        return text.codePoints().anyMatch(cp -> Character.UnicodeScript.of(cp) == Character.UnicodeScript.HANGUL);
+    }
+
+    private static boolean isAscii(String text) {
+        return text.chars().allMatch(c -> c < 128);
+    }
+
+    private static long countLetters(String text) {
+        return text.chars().filter(Character::isLetter).count();
     }
 
     /**
@@ -134,4 +242,4 @@ public class LanguageDetectionService {
                     languageCode, confidence, reason);
         }
     }
-}
\ No newline at end of file
+}
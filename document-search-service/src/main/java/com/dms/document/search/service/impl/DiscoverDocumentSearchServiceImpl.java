@@ -5,8 +5,8 @@ import com.dms.document.search.dto.*;
 import com.dms.document.search.enums.AppRole;
 import com.dms.document.search.enums.QueryType;
 import com.dms.document.search.model.DocumentPreferences;
+import com.dms.document.search.opensearch.OpenSearchTemplates;
 import com.dms.document.search.repository.DocumentPreferencesRepository;
-import com.dms.document.search.service.DocumentFavoriteService;
 import com.dms.document.search.service.DocumentSearchService;
 import com.dms.document.search.service.LanguageDetectionService;
 import lombok.RequiredArgsConstructor;
@@ -19,9 +19,9 @@ import org.opensearch.client.RequestOptions;
 import org.opensearch.client.RestHighLevelClient;
 import org.opensearch.common.unit.Fuzziness;
 import org.opensearch.index.query.BoolQueryBuilder;
-import org.opensearch.index.query.MultiMatchQueryBuilder;
-import org.opensearch.index.query.Operator;
 import org.opensearch.index.query.QueryBuilders;
+import org.opensearch.script.ScriptType;
+import org.opensearch.script.mustache.SearchTemplateRequest;
 import org.opensearch.search.builder.SearchSourceBuilder;
 import org.opensearch.search.sort.SortBuilders;
 import org.opensearch.search.sort.SortOrder;
@@ -34,8 +34,11 @@ import org.springframework.stereotype.Service;
 
 import java.io.IOException;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
 
 @Service
@@ -45,7 +48,6 @@ public class DiscoverDocumentSearchServiceImpl extends OpenSearchBaseService imp
     private final RestHighLevelClient openSearchClient;
     private final UserClient userClient;
     private final DocumentPreferencesRepository documentPreferencesRepository;
-    private final DocumentFavoriteService documentFavoriteService;
     private final LanguageDetectionService languageDetectionService;
 
     private static final int MIN_SEARCH_LENGTH = 2;
@@ -87,8 +89,8 @@ public class DiscoverDocumentSearchServiceImpl extends OpenSearchBaseService imp
                 return Page.empty(Pageable.unpaged());
             }
 
-            SearchRequest searchRequest = buildSearchRequest(request, searchContext, userResponse.userId(), userResponse.role().roleName());
-            SearchResponse searchResponse = openSearchClient.search(searchRequest, RequestOptions.DEFAULT);
+            SearchTemplateRequest searchRequest = buildSearchRequest(request, searchContext, userResponse.userId(), userResponse.role().roleName());
+            SearchResponse searchResponse = openSearchClient.searchTemplate(searchRequest, RequestOptions.DEFAULT).getResponse();
 
             return processSearchResults(
                     searchResponse.getHits().getHits(),
@@ -101,30 +103,32 @@ public class DiscoverDocumentSearchServiceImpl extends OpenSearchBaseService imp
         }
     }
 
-    private SearchRequest buildSearchRequest(DocumentSearchRequest request, SearchContext context, UUID userId, AppRole userRole) {
-        SearchRequest searchRequest = new SearchRequest(INDEX_NAME);
-        SearchSourceBuilder searchSourceBuilder = new SearchSourceBuilder();
-        BoolQueryBuilder queryBuilder = QueryBuilders.boolQuery();
-
-        // Add a sharing access filter
-        addSharingAccessFilter(queryBuilder, userId.toString(), userRole);
-
-        // Add a favorite filter if requested
-        if (Boolean.TRUE.equals(request.getFavoriteOnly())) {
-            documentFavoriteService.addFavoriteFilter(queryBuilder, userId);
+    // Package-private so the JMH benchmarks can measure query construction on its own
+    SearchTemplateRequest buildSearchRequest(DocumentSearchRequest request, SearchContext context, UUID userId, AppRole userRole) {
+        SearchTemplateRequest searchTemplateRequest = new SearchTemplateRequest(new SearchRequest(INDEX_NAME));
+        searchTemplateRequest.setScriptType(ScriptType.STORED);
+        searchTemplateRequest.setScript(OpenSearchTemplates.DISCOVER_SEARCH_TEMPLATE_ID);
+
+        Map<String, Object> params = new HashMap<>();
+
+        // Sharing access and favorite filter
+        params.put("user_id", userId.toString());
+        params.put("is_admin", userRole == AppRole.ROLE_ADMIN);
+        params.put("favorite_only", Boolean.TRUE.equals(request.getFavoriteOnly()));
+
+        // Filter conditions, each value also adds a small scoring boost in the template
+        putValues(params, "majors", request.getMajors());
+        putValues(params, "course_codes", request.getCourseCodes());
+        putValues(params, "categories", request.getCategories());
+        putValues(params, "tags", request.getTags());
+        if (StringUtils.isNotBlank(request.getLevel())) {
+            params.put("course_level", request.getLevel());
         }
 
-        // Boost documents based on recommendation count
-        addRecommendationBoost(queryBuilder);
-
-        // Boost documents based on favorite count
-        addFavoriteCountBoost(queryBuilder);
-
-        // Add filter conditions
-        addFilterConditions(queryBuilder, request.getMajors(), request.getCourseCodes(), request.getLevel(), request.getCategories(), request.getTags());
-
         // Add search conditions if search query exists
-        if (StringUtils.isNotEmpty(context.originalQuery())) {
+        boolean hasQuery = StringUtils.isNotEmpty(context.originalQuery());
+        params.put("has_query", hasQuery);
+        if (hasQuery) {
             // Detect language of search query
             String detectedLanguage = languageDetectionService.detectLanguage(context.originalQuery());
             log.debug("Detected language '{}' for query: '{}'", detectedLanguage, context.originalQuery());
@@ -135,206 +139,48 @@ public class DiscoverDocumentSearchServiceImpl extends OpenSearchBaseService imp
 
             // Add preference boosts
             if (preferences != null) {
-                addBasicPreferenceBoosts(queryBuilder, preferences);
+                putValues(params, "preferred_majors", preferences.getPreferredMajors());
+                putValues(params, "preferred_course_codes", preferences.getPreferredCourseCodes());
+                putValues(params, "preferred_levels", preferences.getPreferredLevels());
+                putValues(params, "preferred_categories", preferences.getPreferredCategories());
+                putValues(params, "preferred_tags", preferences.getPreferredTags());
+                putValues(params, "preferred_languages", preferences.getLanguagePreferences());
             }
 
-            // Add language-aware search conditions
-            if (context.queryType() == QueryType.DEFINITION) {
-                addDefinitionSearchConditions(queryBuilder, context, detectedLanguage);
-            } else {
-                addGeneralSearchConditions(queryBuilder, context, detectedLanguage);
-            }
+            // Language-aware search conditions; case is normalized by the field analyzers
+            params.put("query", context.originalQuery());
+            params.put("is_definition", context.queryType() == QueryType.DEFINITION);
+            params.put("lang_ko", "ko".equals(detectedLanguage));
+            params.put("lang_vi", "vi".equals(detectedLanguage));
+            params.put("lang_default", !"ko".equals(detectedLanguage) && !"vi".equals(detectedLanguage));
 
             // Set minimum score with language-aware adjustment
-            searchSourceBuilder.minScore(getMinScore(request.getSearch(), context, detectedLanguage));
+            params.put("min_score", getMinScore(request.getSearch(), context, detectedLanguage));
         }
 
-        searchSourceBuilder.query(queryBuilder);
-
-        // Add sorting with proper score handling
-        addSorting(searchSourceBuilder, request);
+        // Add sorting, score is always the primary or the secondary criterion
+        if (StringUtils.isNotBlank(request.getSortField())) {
+            String sortDirection = StringUtils.isNotBlank(request.getSortDirection()) ? request.getSortDirection() : SortOrder.DESC.name();
+            params.put("sort_field", getSortableFieldName(request.getSortField()));
+            params.put("sort_order", SortOrder.valueOf(sortDirection.toUpperCase()).toString());
+        }
 
         // Add pagination
-        searchSourceBuilder.from(request.getPage() * request.getSize());
-        searchSourceBuilder.size(request.getSize() > 0 ? request.getSize() : 10);
+        params.put("from", request.getPage() * request.getSize());
+        params.put("size", request.getSize() > 0 ? request.getSize() : 10);
 
         // Add highlighting
-        searchSourceBuilder.highlighter(configureHighlightFields(context));
-
-        // Exclude content field
-        searchSourceBuilder.fetchSource(new String[]{"*"}, new String[]{"content"});
-
-        searchRequest.source(searchSourceBuilder);
-        return searchRequest;
-    }
-
-    private void addDefinitionSearchConditions(BoolQueryBuilder queryBuilder, SearchContext context, String detectedLanguage) {
-        String query = context.originalQuery();
-
-        // Higher boost for phrase matches in content with language-specific field
-        switch (detectedLanguage) {
-            case "ko": // Korean
-                queryBuilder.should(QueryBuilders.matchPhraseQuery("content.korean", query)
-                        .boost(18.0f));
-                queryBuilder.should(QueryBuilders.matchQuery("content.korean", query)
-                        .boost(12.0f));
-                break;
-            case "vi": // Vietnamese
-                queryBuilder.should(QueryBuilders.matchPhraseQuery("content.vietnamese", query)
-                        .boost(15.0f));
-                queryBuilder.should(QueryBuilders.matchQuery("content.vietnamese", query)
-                        .analyzer("vietnamese_analyzer")
-                        .boost(10.0f));
-                break;
-            default: // English and others
-                queryBuilder.should(QueryBuilders.matchPhraseQuery("content", query)
-                        .boost(15.0f));
-                queryBuilder.should(QueryBuilders.matchQuery("content", query)
-                        .analyzer("universal_analyzer")
-                        .boost(10.0f));
-                break;
-        }
-
-        // Cross-field matching
-        queryBuilder.should(QueryBuilders.multiMatchQuery(query)
-                .field("filename", 4.0f)
-                .field("content", 3.0f)
-                .type(MultiMatchQueryBuilder.Type.CROSS_FIELDS)
-                .operator(Operator.AND)
-                .minimumShouldMatch("75%")
-                .boost(4.0f));
-
-        queryBuilder.minimumShouldMatch(1);
-    }
-
-    private void addGeneralSearchConditions(BoolQueryBuilder queryBuilder, SearchContext context, String detectedLanguage) {
-        String originalQuery = context.originalQuery();
-        String lowercaseQuery = context.lowercaseQuery();
-        String uppercaseQuery = context.uppercaseQuery();
-
-        // Primary content matching with language-specific handling
-        BoolQueryBuilder contentQuery = QueryBuilders.boolQuery();
-
-        switch (detectedLanguage) {
-            case "ko": // Korean
-                // Korean-optimized field with higher boost
-                contentQuery.should(QueryBuilders.matchPhraseQuery("content.korean", originalQuery)
-                        .slop(1)
-                        .boost(12.0f));
-                contentQuery.should(QueryBuilders.matchQuery("content.korean", originalQuery)
-                        .minimumShouldMatch("60%")
-                        .boost(8.0f));
-
-                // Fallback to universal field
-                contentQuery.should(QueryBuilders.matchQuery("content", originalQuery)
-                        .analyzer("universal_analyzer")
-                        .minimumShouldMatch("70%")
-                        .boost(4.0f));
-                break;
+        params.put("content_fragment_size", context.queryType() == QueryType.DEFINITION ? 200 : 150);
+        params.put("content_fragments", context.queryType() == QueryType.DEFINITION ? 1 : 2);
 
-            case "vi": // Vietnamese
-                // Vietnamese-optimized field with higher boost
-                contentQuery.should(QueryBuilders.matchPhraseQuery("content.vietnamese", originalQuery)
-                        .analyzer("vietnamese_analyzer")
-                        .slop(1)
-                        .boost(10.0f));
-                contentQuery.should(QueryBuilders.matchPhraseQuery("content.vietnamese", lowercaseQuery)
-                        .analyzer("vietnamese_analyzer")
-                        .slop(1)
-                        .boost(9.0f));
-                contentQuery.should(QueryBuilders.matchPhraseQuery("content.vietnamese", uppercaseQuery)
-                        .analyzer("vietnamese_analyzer")
-                        .slop(1)
-                        .boost(9.0f));
-                contentQuery.should(QueryBuilders.matchQuery("content.vietnamese", originalQuery)
-                        .analyzer("vietnamese_analyzer")
-                        .minimumShouldMatch("70%")
-                        .boost(4.0f));
-                break;
-
-            default: // English and others
-                // Universal field for English and other languages
-                contentQuery.should(QueryBuilders.matchPhraseQuery("content", originalQuery)
-                        .analyzer("universal_analyzer")
-                        .slop(1)
-                        .boost(10.0f));
-                contentQuery.should(QueryBuilders.matchQuery("content", originalQuery)
-                        .analyzer("universal_analyzer")
-                        .minimumShouldMatch("70%")
-                        .boost(4.0f));
-
-                // Case variations
-                contentQuery.should(QueryBuilders.matchPhraseQuery("content", lowercaseQuery)
-                        .analyzer("universal_analyzer")
-                        .slop(1)
-                        .boost(9.0f));
-                contentQuery.should(QueryBuilders.matchPhraseQuery("content", uppercaseQuery)
-                        .analyzer("universal_analyzer")
-                        .slop(1)
-                        .boost(9.0f));
-                break;
-        }
-
-        queryBuilder.should(contentQuery);
-
-        // Filename matching with language-aware handling
-        BoolQueryBuilder filenameQuery = QueryBuilders.boolQuery();
-
-        switch (detectedLanguage) {
-            case "ko": // Korean
-                filenameQuery.should(QueryBuilders.matchQuery("filename.korean", originalQuery)
-                        .minimumShouldMatch("60%")
-                        .boost(6.0f));
-                break;
-            case "vi": // Vietnamese
-                filenameQuery.should(QueryBuilders.matchQuery("filename.vietnamese", originalQuery)
-                        .minimumShouldMatch("60%")
-                        .boost(5.0f));
-                break;
-        }
-
-        // Universal filename matching for all languages
-        filenameQuery.should(QueryBuilders.matchQuery("filename", originalQuery)
-                .minimumShouldMatch("60%")
-                .boost(5.0f));
-        filenameQuery.should(QueryBuilders.matchQuery("filename.search", originalQuery)
-                .minimumShouldMatch("60%")
-                .boost(4.0f));
-
-        // Exact matches with case variations
-        filenameQuery.should(QueryBuilders.termQuery("filename.raw", originalQuery).boost(6.0f));
-        filenameQuery.should(QueryBuilders.termQuery("filename.raw", lowercaseQuery).boost(5.5f));
-        filenameQuery.should(QueryBuilders.termQuery("filename.raw", uppercaseQuery).boost(5.5f));
-
-        queryBuilder.should(filenameQuery);
-        queryBuilder.minimumShouldMatch(1);
+        searchTemplateRequest.setScriptParams(params);
+        return searchTemplateRequest;
     }
 
-    private void addSorting(SearchSourceBuilder searchSourceBuilder, DocumentSearchRequest request) {
-        // Always track scores for both search queries and filter-based queries
-        searchSourceBuilder.trackScores(true);
-
-        boolean hasExplicitSort = StringUtils.isNotBlank(request.getSortField());
-
-        // If there's an explicit sort field requested
-        if (hasExplicitSort) {
-            SortOrder sortOrder = SortOrder.DESC;
-            if (StringUtils.isNotBlank(request.getSortDirection())) {
-                sortOrder = SortOrder.valueOf(request.getSortDirection().toUpperCase());
-            }
-            String sortField = getSortableFieldName(request.getSortField());
-
-            // First sort by the explicit field
-            searchSourceBuilder.sort(SortBuilders.fieldSort(sortField).order(sortOrder));
-
-            // Then sort by score as a secondary criterion
-            searchSourceBuilder.sort(SortBuilders.scoreSort().order(SortOrder.DESC));
-        } else {
-            // If no explicit sort field, prioritize score-based sorting
-            searchSourceBuilder.sort(SortBuilders.scoreSort().order(SortOrder.DESC));
-
-            // Add a secondary sort by createdAt for consistent ordering when scores are equal
-            searchSourceBuilder.sort(SortBuilders.fieldSort("createdAt").order(SortOrder.DESC));
+    private void putValues(Map<String, Object> params, String name, Set<String> values) {
+        if (CollectionUtils.isNotEmpty(values)) {
+            params.put(name, List.copyOf(values));
+            params.put("has_" + name, true);
         }
     }
 
@@ -347,14 +193,13 @@ public class DiscoverDocumentSearchServiceImpl extends OpenSearchBaseService imp
         };
     }
 
-    private SearchContext analyzeQuery(String query) {
+    SearchContext analyzeQuery(String query) {
         String cleanQuery = query != null ? query.trim() : "";
         boolean isProbableDefinition = cleanQuery.toLowerCase().split("\\s+").length <= 3;
 
         return new SearchContext(
                 isProbableDefinition ? QueryType.DEFINITION : QueryType.GENERAL,
                 cleanQuery,
-                cleanQuery.toUpperCase(),
                 cleanQuery.toLowerCase()
         );
     }
@@ -386,7 +231,7 @@ public class DiscoverDocumentSearchServiceImpl extends OpenSearchBaseService imp
         }
     }
 
-    private SearchRequest buildSuggestionRequest(SuggestionRequest request, SearchContext context, String userId, AppRole userRole) {
+    SearchRequest buildSuggestionRequest(SuggestionRequest request, SearchContext context, String userId, AppRole userRole) {
         SearchRequest searchRequest = new SearchRequest(INDEX_NAME);
         SearchSourceBuilder searchSourceBuilder = new SearchSourceBuilder();
         BoolQueryBuilder queryBuilder = QueryBuilders.boolQuery();
@@ -443,7 +288,6 @@ public class DiscoverDocumentSearchServiceImpl extends OpenSearchBaseService imp
     private void addSuggestionSearchConditions(BoolQueryBuilder queryBuilder, SuggestionRequest request, SearchContext context) {
         String originalQuery = context.originalQuery();
         String lowercaseQuery = context.lowercaseQuery();
-        String uppercaseQuery = context.uppercaseQuery();
         String detectedLanguage = languageDetectionService.detectLanguage(originalQuery);
 
         // Content matching with broader acceptance
@@ -473,16 +317,11 @@ public class DiscoverDocumentSearchServiceImpl extends OpenSearchBaseService imp
                         .minimumShouldMatch("30%")
                         .boost(3.5f));
 
-                // Case variations
-                contentQuery.should(QueryBuilders.matchQuery("content", lowercaseQuery)
-                        .analyzer("vietnamese_analyzer")
-                        .minimumShouldMatch("30%")
-                        .boost(2.0f));
-
-                contentQuery.should(QueryBuilders.matchQuery("content", uppercaseQuery)
+                // The analyzer lowercases, so a single clause covers every case variation
+                contentQuery.should(QueryBuilders.matchQuery("content", originalQuery)
                         .analyzer("vietnamese_analyzer")
                         .minimumShouldMatch("30%")
-                        .boost(2.0f));
+                        .boost(4.0f));
                 break;
 
             default: // English and others
@@ -529,7 +368,7 @@ public class DiscoverDocumentSearchServiceImpl extends OpenSearchBaseService imp
                 break;
         }
 
-        // Exact matches with case variations
+        // Exact match, prefix and typo matches run against the normalized keyword
         filenameQuery.should(QueryBuilders.termQuery("filename.raw", originalQuery)
                 .boost(5.0f));
         filenameQuery.should(QueryBuilders.matchQuery("filename", originalQuery)
@@ -538,9 +377,9 @@ public class DiscoverDocumentSearchServiceImpl extends OpenSearchBaseService imp
         filenameQuery.should(QueryBuilders.matchQuery("filename.search", originalQuery)
                 .minimumShouldMatch("30%")
                 .boost(3.5f));
-        filenameQuery.should(QueryBuilders.prefixQuery("filename.raw", lowercaseQuery)
+        filenameQuery.should(QueryBuilders.prefixQuery("filename.lowercase", lowercaseQuery)
                 .boost(3.0f));
-        filenameQuery.should(QueryBuilders.fuzzyQuery("filename.raw", uppercaseQuery)
+        filenameQuery.should(QueryBuilders.fuzzyQuery("filename.lowercase", lowercaseQuery)
                 .fuzziness(Fuzziness.AUTO)
                 .prefixLength(2)
                 .boost(2.5f));
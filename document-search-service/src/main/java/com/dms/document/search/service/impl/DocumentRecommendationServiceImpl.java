@@ -7,7 +7,9 @@ import com.dms.document.search.dto.UserResponse;
 import com.dms.document.search.enums.AppRole;
 import com.dms.document.search.exception.InvalidDocumentException;
 import com.dms.document.search.model.DocumentPreferences;
+import com.dms.document.search.model.DocumentSimilarity;
 import com.dms.document.search.repository.DocumentPreferencesRepository;
+import com.dms.document.search.repository.DocumentSimilarityRepository;
 import com.dms.document.search.service.DocumentFavoriteService;
 import com.dms.document.search.service.DocumentRecommendationService;
 import lombok.RequiredArgsConstructor;
@@ -24,6 +26,7 @@ import org.opensearch.index.query.BoolQueryBuilder;
 import org.opensearch.index.query.MoreLikeThisQueryBuilder;
 import org.opensearch.index.query.QueryBuilders;
 import org.opensearch.search.builder.SearchSourceBuilder;
+import org.opensearch.search.fetch.subphase.FetchSourceContext;
 import org.opensearch.search.sort.SortBuilders;
 import org.opensearch.search.sort.SortOrder;
 import org.springframework.dao.InvalidDataAccessResourceUsageException;
@@ -37,6 +40,7 @@ import java.time.Instant;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.UUID;
 
 @Slf4j
@@ -47,10 +51,12 @@ public class DocumentRecommendationServiceImpl extends OpenSearchBaseService imp
     private final UserClient userClient;
     private final DocumentPreferencesRepository documentPreferencesRepository;
     private final DocumentFavoriteService documentFavoriteService;
+    private final DocumentSimilarityRepository documentSimilarityRepository;
 
     private static final float MAX_INTERACTION_BOOST = 3.0f;
     private static final float INTERACTION_WEIGHT_MULTIPLIER = 0.5f;
     private static final float PREFERENCE_BOOST_MULTIPLIER = 2.0f;
+    private static final float SIMILARITY_BOOST = 10.0f;
 
     @Override
     public Page<DocumentResponseDto> getRecommendations(String documentId, Boolean favoriteOnly, String username, Pageable pageable) {
@@ -90,18 +96,6 @@ public class DocumentRecommendationServiceImpl extends OpenSearchBaseService imp
             DocumentPreferences preferences,
             Pageable pageable) throws IOException {
 
-        // Get source document
-        GetResponse sourceDoc = openSearchClient.get(
-                new GetRequest(INDEX_NAME, documentId),
-                RequestOptions.DEFAULT
-        );
-
-        if (!sourceDoc.isExists()) {
-            throw new InvalidDocumentException("Document not found");
-        }
-
-        SearchRequest searchRequest = new SearchRequest(INDEX_NAME);
-        SearchSourceBuilder searchSourceBuilder = new SearchSourceBuilder();
         BoolQueryBuilder queryBuilder = QueryBuilders.boolQuery();
 
         // Add sharing access filter
@@ -110,18 +104,39 @@ public class DocumentRecommendationServiceImpl extends OpenSearchBaseService imp
         // Exclude source document
         queryBuilder.mustNot(QueryBuilders.termQuery("_id", documentId));
 
+        Optional<DocumentSimilarity> similarity = documentSimilarityRepository.findById(documentId);
+        if (similarity.isPresent()) {
+            // Precomputed neighbours turn similarity into a key lookup
+            List<DocumentSimilarity.SimilarDocument> similarDocuments = similarity.get().getSimilarDocuments();
+            if (CollectionUtils.isEmpty(similarDocuments)) {
+                return Page.empty(pageable);
+            }
+            addPrecomputedSimilarityBoosts(queryBuilder, similarDocuments);
+        } else {
+            // Not computed yet, fall back to a live similarity query on the source document
+            GetResponse sourceDoc = openSearchClient.get(
+                    new GetRequest(INDEX_NAME, documentId)
+                            .fetchSourceContext(new FetchSourceContext(true, null, new String[]{"content"})),
+                    RequestOptions.DEFAULT
+            );
+
+            if (!sourceDoc.isExists()) {
+                throw new InvalidDocumentException("Document not found");
+            }
+
+            // Content similarity
+            addContentSimilarityBoosts(queryBuilder, documentId);
+
+            // Metadata similarity
+            addMetadataSimilarityBoosts(queryBuilder, sourceDoc.getSourceAsMap());
+        }
+
         // Boost documents based on recommendation count
         addRecommendationBoost(queryBuilder);
 
         // Boost documents based on favorite count
         addFavoriteCountBoost(queryBuilder);
 
-        // Content similarity
-        addContentSimilarityBoosts(queryBuilder, sourceDoc.getSourceAsMap());
-
-        // Metadata similarity
-        addMetadataSimilarityBoosts(queryBuilder, sourceDoc.getSourceAsMap());
-
         // Add preference boosts
         addPreferenceBoosts(queryBuilder, preferences);
 
@@ -136,6 +151,8 @@ public class DocumentRecommendationServiceImpl extends OpenSearchBaseService imp
         }
 
         // Configure search request
+        SearchRequest searchRequest = new SearchRequest(INDEX_NAME);
+        SearchSourceBuilder searchSourceBuilder = new SearchSourceBuilder();
         searchSourceBuilder.query(queryBuilder)
                 .from(pageable.getPageNumber() * pageable.getPageSize())
                 .size(pageable.getPageSize())
@@ -155,42 +172,56 @@ public class DocumentRecommendationServiceImpl extends OpenSearchBaseService imp
         );
     }
 
-    private void addContentSimilarityBoosts(BoolQueryBuilder queryBuilder, Map<String, Object> sourceDoc) {
-        String content = (String) sourceDoc.get("content");
-        String filename = (String) sourceDoc.get("filename");
+    private void addPrecomputedSimilarityBoosts(BoolQueryBuilder queryBuilder,
+                                                List<DocumentSimilarity.SimilarDocument> similarDocuments) {
+        // Restrict candidates to the precomputed neighbours
+        queryBuilder.filter(QueryBuilders.idsQuery().addIds(similarDocuments.stream()
+                .map(DocumentSimilarity.SimilarDocument::getDocumentId)
+                .toArray(String[]::new)));
+
+        // Keep the offline similarity ranking as the main scoring factor
+        float maxScore = (float) similarDocuments.stream()
+                .map(DocumentSimilarity.SimilarDocument::getScore)
+                .filter(Objects::nonNull)
+                .mapToDouble(Float::doubleValue)
+                .max()
+                .orElse(1.0);
+        for (DocumentSimilarity.SimilarDocument similarDocument : similarDocuments) {
+            float score = Objects.nonNull(similarDocument.getScore()) && maxScore > 0
+                    ? similarDocument.getScore() / maxScore
+                    : 0.1f;
+            queryBuilder.should(QueryBuilders.constantScoreQuery(
+                            QueryBuilders.idsQuery().addIds(similarDocument.getDocumentId()))
+                    .boost(SIMILARITY_BOOST * Math.max(score, 0.1f)));
+        }
+    }
+
+    private void addContentSimilarityBoosts(BoolQueryBuilder queryBuilder, String documentId) {
+        // Referencing the indexed document lets the cluster use its stored term vectors
+        MoreLikeThisQueryBuilder.Item[] likeItems = new MoreLikeThisQueryBuilder.Item[]{
+                new MoreLikeThisQueryBuilder.Item(INDEX_NAME, documentId)
+        };
 
         // Content similarity using more-like-this
-        if (StringUtils.isNotEmpty(content)) {
-            MoreLikeThisQueryBuilder.Item[] contentItems = new MoreLikeThisQueryBuilder.Item[]{
-                    new MoreLikeThisQueryBuilder.Item(INDEX_NAME, content)
-            };
-
-            queryBuilder.should(QueryBuilders.moreLikeThisQuery(
-                            new String[]{"content"},
-                            null,  // no like text
-                            contentItems) // using items instead
-                    .minTermFreq(2)
-                    .minDocFreq(1)
-                    .maxQueryTerms(25)
-                    .minimumShouldMatch("30%")
-                    .boost(10.0f));
-        }
+        queryBuilder.should(QueryBuilders.moreLikeThisQuery(
+                        new String[]{"content"},
+                        null,  // no like text
+                        likeItems) // using items instead
+                .minTermFreq(2)
+                .minDocFreq(1)
+                .maxQueryTerms(25)
+                .minimumShouldMatch("30%")
+                .boost(10.0f));
 
         // Title similarity
-        if (StringUtils.isNotEmpty(filename)) {
-            MoreLikeThisQueryBuilder.Item[] filenameItems = new MoreLikeThisQueryBuilder.Item[]{
-                    new MoreLikeThisQueryBuilder.Item(INDEX_NAME, filename)
-            };
-
-            queryBuilder.should(QueryBuilders.moreLikeThisQuery(
-                            new String[]{"filename.analyzed"},
-                            null,  // no like text
-                            filenameItems) // using items instead
-                    .minTermFreq(1)
-                    .minDocFreq(1)
-                    .maxQueryTerms(10)
-                    .boost(5.0f));
-        }
+        queryBuilder.should(QueryBuilders.moreLikeThisQuery(
+                        new String[]{"filename.analyzed"},
+                        null,  // no like text
+                        likeItems) // using items instead
+                .minTermFreq(1)
+                .minDocFreq(1)
+                .maxQueryTerms(10)
+                .boost(5.0f));
     }
 
     private void addMetadataSimilarityBoosts(BoolQueryBuilder queryBuilder, Map<String, Object> sourceDoc) {
@@ -1,9 +1,7 @@
 package com.dms.document.search.service.impl;
 
 import com.dms.document.search.dto.DocumentResponseDto;
-import com.dms.document.search.dto.SearchContext;
 import com.dms.document.search.enums.*;
-import com.dms.document.search.model.DocumentPreferences;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.collections4.CollectionUtils;
@@ -137,32 +135,6 @@ public abstract class OpenSearchBaseService {
         return highlightBuilder;
     }
 
-    protected HighlightBuilder configureHighlightFields(SearchContext context) {
-        HighlightBuilder highlightBuilder = new HighlightBuilder();
-
-        // Configure filename highlights
-        highlightBuilder.field(new HighlightBuilder.Field("filename.analyzed")
-                .preTags("<em><b>")
-                .postTags("</b></em>")
-                .fragmentSize(60)
-                .numOfFragments(1));
-
-        highlightBuilder.field(new HighlightBuilder.Field("filename.search")
-                .preTags("<em><b>")
-                .postTags("</b></em>")
-                .fragmentSize(60)
-                .numOfFragments(1));
-
-        // Configure content highlights
-        highlightBuilder.field(new HighlightBuilder.Field("content")
-                .preTags("<em><b>")
-                .postTags("</b></em>")
-                .fragmentSize(context.queryType() == QueryType.DEFINITION ? 200 : 150)
-                .numOfFragments(context.queryType() == QueryType.DEFINITION ? 1 : 2));
-
-        return highlightBuilder;
-    }
-
     protected Page<DocumentResponseDto> processSearchResults(SearchHit[] searchHits, long totalHits, Pageable pageable) {
         List<DocumentResponseDto> documentResponses = Arrays.stream(searchHits)
                 .map(hit -> {
@@ -374,25 +346,6 @@ public abstract class OpenSearchBaseService {
         }
     }
 
-    protected void addBasicPreferenceBoosts(BoolQueryBuilder queryBuilder, DocumentPreferences preferences) {
-        if (preferences == null) return;
-
-        // Add preferred fields with moderate boost values
-        // Note: These are intentionally lower than search term boosts (which go up to 15.0f)
-        // to ensure search relevance remains the primary factor
-        addPreferredFieldBoost(queryBuilder, "majors", preferences.getPreferredMajors(), 1.5f);
-        addPreferredFieldBoost(queryBuilder, "courseCodes", preferences.getPreferredCourseCodes(), 1.5f);
-        addPreferredFieldBoost(queryBuilder, "courseLevel", preferences.getPreferredLevels(), 1.0f);
-        addPreferredFieldBoost(queryBuilder, "categories", preferences.getPreferredCategories(), 1.0f);
-        addPreferredFieldBoost(queryBuilder, "tags", preferences.getPreferredTags(), 1.0f);
-
-        // Language preferences
-        if (CollectionUtils.isNotEmpty(preferences.getLanguagePreferences())) {
-            queryBuilder.should(QueryBuilders.termsQuery("language", preferences.getLanguagePreferences())
-                    .boost(1.5f));
-        }
-    }
-
     private void addHighlightsFromField(HighlightField field, List<String> highlights) {
         if (field != null && field.fragments() != null) {
             Arrays.stream(field.fragments())
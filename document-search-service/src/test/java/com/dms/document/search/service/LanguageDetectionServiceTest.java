@@ -0,0 +1,86 @@
+package com.dms.document.search.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LanguageDetectionServiceTest {
+
+    private MeterRegistry meterRegistry;
+    private LanguageDetectionService languageDetectionService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        languageDetectionService = new LanguageDetectionService(meterRegistry);
+        ReflectionTestUtils.setField(languageDetectionService, "cacheSize", 2);
+        ReflectionTestUtils.setField(languageDetectionService, "lowAccuracyMode", true);
+        languageDetectionService.init();
+    }
+
+    @Test
+    void detectLanguage_ShortOrCourseCodeQuery_SkipsDetector() {
+        // Act & Assert
+        assertEquals("en", languageDetectionService.detectLanguage(null));
+        assertEquals("en", languageDetectionService.detectLanguage("ab"));
+        assertEquals("en", languageDetectionService.detectLanguage("CS101"));
+        assertEquals("en", languageDetectionService.detectLanguage("MATH 2030"));
+        assertEquals("en", languageDetectionService.detectLanguage("2024-01"));
+        assertEquals("ko", languageDetectionService.detectLanguage("한국"));
+
+        assertNull(ReflectionTestUtils.getField(languageDetectionService, "detector"));
+        assertEquals(6, timerCount("heuristic"));
+    }
+
+    @Test
+    void detectLanguage_RepeatedQuery_ServedFromCache() {
+        // Act
+        String first = languageDetectionService.detectLanguage("cơ sở dữ liệu");
+        String second = languageDetectionService.detectLanguage("  CƠ SỞ DỮ LIỆU ");
+
+        // Assert
+        assertEquals("vi", first);
+        assertEquals("vi", second);
+        assertEquals(1, timerCount("detector"));
+        assertEquals(1, timerCount("cache"));
+    }
+
+    @Test
+    void detectLanguage_CacheFull_EvictsLeastRecentlyUsed() {
+        // Arrange
+        languageDetectionService.detectLanguage("machine learning");
+        languageDetectionService.detectLanguage("cơ sở dữ liệu");
+        languageDetectionService.detectLanguage("machine learning");
+
+        // Act
+        languageDetectionService.detectLanguage("tài liệu học máy");
+        languageDetectionService.detectLanguage("machine learning");
+        languageDetectionService.detectLanguage("cơ sở dữ liệu");
+
+        // Assert
+        assertEquals(4, timerCount("detector"));
+        assertEquals(2, timerCount("cache"));
+    }
+
+    @Test
+    void detectLanguageWithConfidence_AmbiguousQuery_FallsBackToEnglish() {
+        // Act
+        LanguageDetectionService.LanguageResult vietnamese = languageDetectionService.detectLanguageWithConfidence("tài liệu học máy");
+        LanguageDetectionService.LanguageResult english = languageDetectionService.detectLanguageWithConfidence("machine learning");
+
+        // Assert
+        assertEquals("vi", vietnamese.getLanguageCode());
+        assertTrue(vietnamese.isReliable());
+        assertEquals("en", english.getLanguageCode());
+        assertTrue(english.getConfidence() < 1.0);
+    }
+
+    private long timerCount(String source) {
+        var timer = meterRegistry.find("search.language.detection").tag("source", source).timer();
+        return timer == null ? 0 : timer.count();
+    }
+}
@@ -4,8 +4,9 @@ import com.dms.document.search.client.UserClient;
 import com.dms.document.search.dto.*;
 import com.dms.document.search.enums.AppRole;
 import com.dms.document.search.model.DocumentPreferences;
+import com.dms.document.search.opensearch.OpenSearchTemplates;
 import com.dms.document.search.repository.DocumentPreferencesRepository;
-import com.dms.document.search.service.DocumentFavoriteService;
+import com.dms.document.search.service.LanguageDetectionService;
 import org.apache.lucene.search.TotalHits;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -18,15 +19,29 @@ import org.opensearch.action.search.SearchRequest;
 import org.opensearch.action.search.SearchResponse;
 import org.opensearch.client.RequestOptions;
 import org.opensearch.client.RestHighLevelClient;
+import org.opensearch.common.settings.Settings;
+import org.opensearch.common.xcontent.json.JsonXContent;
 import org.opensearch.core.common.text.Text;
+import org.opensearch.core.xcontent.DeprecationHandler;
+import org.opensearch.core.xcontent.NamedXContentRegistry;
+import org.opensearch.core.xcontent.XContentParser;
+import org.opensearch.script.TemplateScript;
+import org.opensearch.script.mustache.MustacheScriptEngine;
+import org.opensearch.script.mustache.SearchTemplateRequest;
+import org.opensearch.script.mustache.SearchTemplateResponse;
+import org.opensearch.search.SearchModule;
 import org.opensearch.search.SearchHit;
 import org.opensearch.search.SearchHits;
+import org.opensearch.search.builder.SearchSourceBuilder;
 import org.opensearch.search.fetch.subphase.highlight.HighlightField;
+import org.springframework.core.io.ClassPathResource;
 import org.springframework.dao.InvalidDataAccessResourceUsageException;
 import org.springframework.data.domain.Page;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.StreamUtils;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -36,6 +51,9 @@ import static org.mockito.Mockito.*;
 @ExtendWith(MockitoExtension.class)
 class DiscoverDocumentSearchServiceImplTest {
 
+    private static final NamedXContentRegistry X_CONTENT_REGISTRY =
+            new NamedXContentRegistry(new SearchModule(Settings.EMPTY, Collections.emptyList()).getNamedXContents());
+
     @Mock
     private RestHighLevelClient openSearchClient;
 
@@ -46,7 +64,7 @@ class DiscoverDocumentSearchServiceImplTest {
     private DocumentPreferencesRepository documentPreferencesRepository;
 
     @Mock
-    private DocumentFavoriteService documentFavoriteService;
+    private LanguageDetectionService languageDetectionService;
 
     @InjectMocks
     private DiscoverDocumentSearchServiceImpl discoverDocumentSearchService;
@@ -56,6 +74,7 @@ class DiscoverDocumentSearchServiceImplTest {
     private UserResponse userResponse;
     private DocumentSearchRequest searchRequest;
     private SearchResponse searchResponse;
+    private SearchTemplateResponse searchTemplateResponse;
     private SearchHits searchHits;
     private SearchHit searchHit;
 
@@ -96,14 +115,20 @@ class DiscoverDocumentSearchServiceImplTest {
         // Mock search response
         searchResponse = mock(SearchResponse.class);
         lenient().when(searchResponse.getHits()).thenReturn(searchHits);
+
+        // Mock search template response
+        searchTemplateResponse = mock(SearchTemplateResponse.class);
+        lenient().when(searchTemplateResponse.getResponse()).thenReturn(searchResponse);
+
+        lenient().when(languageDetectionService.detectLanguage(anyString())).thenReturn("en");
     }
 
     @Test
     void searchDocuments_ValidRequest_ReturnsDocuments() throws IOException {
         // Arrange
         when(userClient.getUserByUsername(username)).thenReturn(ResponseEntity.ok(userResponse));
-        when(openSearchClient.search(any(SearchRequest.class), eq(RequestOptions.DEFAULT)))
-                .thenReturn(searchResponse);
+        when(openSearchClient.searchTemplate(any(SearchTemplateRequest.class), eq(RequestOptions.DEFAULT)))
+                .thenReturn(searchTemplateResponse);
 
         // Act
         Page<DocumentResponseDto> result = discoverDocumentSearchService.searchDocuments(searchRequest, username);
@@ -114,7 +139,7 @@ class DiscoverDocumentSearchServiceImplTest {
         assertEquals(1, result.getContent().size());
         assertEquals("doc1", result.getContent().get(0).getId());
         verify(userClient, times(1)).getUserByUsername(username);
-        verify(openSearchClient, times(1)).search(any(SearchRequest.class), eq(RequestOptions.DEFAULT));
+        verify(openSearchClient, times(1)).searchTemplate(any(SearchTemplateRequest.class), eq(RequestOptions.DEFAULT));
     }
 
     @Test
@@ -127,7 +152,7 @@ class DiscoverDocumentSearchServiceImplTest {
             discoverDocumentSearchService.searchDocuments(searchRequest, username);
         });
         verify(userClient, times(1)).getUserByUsername(username);
-        verify(openSearchClient, never()).search(any(SearchRequest.class), eq(RequestOptions.DEFAULT));
+        verify(openSearchClient, never()).searchTemplate(any(SearchTemplateRequest.class), eq(RequestOptions.DEFAULT));
     }
 
     @Test
@@ -146,14 +171,14 @@ class DiscoverDocumentSearchServiceImplTest {
         // Assert
         assertTrue(result.isEmpty());
         verify(userClient, times(1)).getUserByUsername(username);
-        verify(openSearchClient, never()).search(any(SearchRequest.class), eq(RequestOptions.DEFAULT));
+        verify(openSearchClient, never()).searchTemplate(any(SearchTemplateRequest.class), eq(RequestOptions.DEFAULT));
     }
 
     @Test
     void searchDocuments_SearchError_ThrowsException() throws IOException {
         // Arrange
         when(userClient.getUserByUsername(username)).thenReturn(ResponseEntity.ok(userResponse));
-        when(openSearchClient.search(any(SearchRequest.class), eq(RequestOptions.DEFAULT)))
+        when(openSearchClient.searchTemplate(any(SearchTemplateRequest.class), eq(RequestOptions.DEFAULT)))
                 .thenThrow(new IOException("Search error"));
 
         // Act & Assert
@@ -161,7 +186,7 @@ class DiscoverDocumentSearchServiceImplTest {
             discoverDocumentSearchService.searchDocuments(searchRequest, username);
         });
         verify(userClient, times(1)).getUserByUsername(username);
-        verify(openSearchClient, times(1)).search(any(SearchRequest.class), eq(RequestOptions.DEFAULT));
+        verify(openSearchClient, times(1)).searchTemplate(any(SearchTemplateRequest.class), eq(RequestOptions.DEFAULT));
     }
 
     @Test
@@ -232,8 +257,8 @@ class DiscoverDocumentSearchServiceImplTest {
         when(userClient.getUserByUsername(username)).thenReturn(ResponseEntity.ok(userResponse));
         when(documentPreferencesRepository.findByUserId(userId.toString()))
                 .thenReturn(Optional.of(preferences));
-        when(openSearchClient.search(any(SearchRequest.class), eq(RequestOptions.DEFAULT)))
-                .thenReturn(searchResponse);
+        when(openSearchClient.searchTemplate(any(SearchTemplateRequest.class), eq(RequestOptions.DEFAULT)))
+                .thenReturn(searchTemplateResponse);
 
         // Act
         Page<DocumentResponseDto> result = discoverDocumentSearchService.searchDocuments(searchRequest, username);
@@ -253,8 +278,8 @@ class DiscoverDocumentSearchServiceImplTest {
                 .build();
 
         when(userClient.getUserByUsername(username)).thenReturn(ResponseEntity.ok(userResponse));
-        when(openSearchClient.search(any(SearchRequest.class), eq(RequestOptions.DEFAULT)))
-                .thenReturn(searchResponse);
+        when(openSearchClient.searchTemplate(any(SearchTemplateRequest.class), eq(RequestOptions.DEFAULT)))
+                .thenReturn(searchTemplateResponse);
 
         // Act
         Page<DocumentResponseDto> result = discoverDocumentSearchService.searchDocuments(searchRequest, username);
@@ -274,8 +299,8 @@ class DiscoverDocumentSearchServiceImplTest {
                 .build();
 
         when(userClient.getUserByUsername(username)).thenReturn(ResponseEntity.ok(userResponse));
-        when(openSearchClient.search(any(SearchRequest.class), eq(RequestOptions.DEFAULT)))
-                .thenReturn(searchResponse);
+        when(openSearchClient.searchTemplate(any(SearchTemplateRequest.class), eq(RequestOptions.DEFAULT)))
+                .thenReturn(searchTemplateResponse);
 
         // Act
         Page<DocumentResponseDto> result = discoverDocumentSearchService.searchDocuments(searchRequest, username);
@@ -297,8 +322,8 @@ class DiscoverDocumentSearchServiceImplTest {
                 .build();
 
         when(userClient.getUserByUsername(username)).thenReturn(ResponseEntity.ok(userResponse));
-        when(openSearchClient.search(any(SearchRequest.class), eq(RequestOptions.DEFAULT)))
-                .thenReturn(searchResponse);
+        when(openSearchClient.searchTemplate(any(SearchTemplateRequest.class), eq(RequestOptions.DEFAULT)))
+                .thenReturn(searchTemplateResponse);
 
         // Act
         Page<DocumentResponseDto> result = discoverDocumentSearchService.searchDocuments(searchRequest, username);
@@ -323,8 +348,8 @@ class DiscoverDocumentSearchServiceImplTest {
                 .build();
 
         when(userClient.getUserByUsername(username)).thenReturn(ResponseEntity.ok(userResponse));
-        when(openSearchClient.search(any(SearchRequest.class), eq(RequestOptions.DEFAULT)))
-                .thenReturn(searchResponse);
+        when(openSearchClient.searchTemplate(any(SearchTemplateRequest.class), eq(RequestOptions.DEFAULT)))
+                .thenReturn(searchTemplateResponse);
 
         // Act
         Page<DocumentResponseDto> result = discoverDocumentSearchService.searchDocuments(searchRequest, username);
@@ -371,23 +396,26 @@ class DiscoverDocumentSearchServiceImplTest {
                 .build();
 
         when(userClient.getUserByUsername(username)).thenReturn(ResponseEntity.ok(userResponse));
-        when(openSearchClient.search(any(SearchRequest.class), eq(RequestOptions.DEFAULT)))
-                .thenReturn(searchResponse);
+        when(openSearchClient.searchTemplate(any(SearchTemplateRequest.class), eq(RequestOptions.DEFAULT)))
+                .thenReturn(searchTemplateResponse);
 
         // Act
         Page<DocumentResponseDto> result = discoverDocumentSearchService.searchDocuments(searchRequest, username);
 
         // Assert
         assertNotNull(result);
-        verify(documentFavoriteService).addFavoriteFilter(any(), eq(userId));
+        verify(openSearchClient).searchTemplate(argThat(request -> {
+            String sourceString = renderSource(request);
+            return sourceString.contains("{\"term\":{\"favoritedBy\":{\"value\":\"" + userId + "\"");
+        }), any(RequestOptions.class));
     }
 
     @Test
     void searchDocuments_WithDifferentQueryLengths_AdjustsMinScore() throws IOException {
         // Arrange
         when(userClient.getUserByUsername(username)).thenReturn(ResponseEntity.ok(userResponse));
-        when(openSearchClient.search(any(SearchRequest.class), eq(RequestOptions.DEFAULT)))
-                .thenReturn(searchResponse);
+        when(openSearchClient.searchTemplate(any(SearchTemplateRequest.class), eq(RequestOptions.DEFAULT)))
+                .thenReturn(searchTemplateResponse);
 
         // Test different query lengths to cover all branches in getMinScore
         String[] queries = new String[]{
@@ -416,8 +444,8 @@ class DiscoverDocumentSearchServiceImplTest {
     void searchDocuments_WithDifferentSortFields_AppliesCorrectSortFieldNames() throws IOException {
         // Arrange
         when(userClient.getUserByUsername(username)).thenReturn(ResponseEntity.ok(userResponse));
-        when(openSearchClient.search(any(SearchRequest.class), eq(RequestOptions.DEFAULT)))
-                .thenReturn(searchResponse);
+        when(openSearchClient.searchTemplate(any(SearchTemplateRequest.class), eq(RequestOptions.DEFAULT)))
+                .thenReturn(searchTemplateResponse);
 
         // Test different sort fields to cover all branches in getSortableFieldName
         String[] sortFields = new String[]{
@@ -456,8 +484,8 @@ class DiscoverDocumentSearchServiceImplTest {
                 .build();
 
         when(userClient.getUserByUsername(username)).thenReturn(ResponseEntity.ok(userResponse));
-        when(openSearchClient.search(any(SearchRequest.class), eq(RequestOptions.DEFAULT)))
-                .thenReturn(searchResponse);
+        when(openSearchClient.searchTemplate(any(SearchTemplateRequest.class), eq(RequestOptions.DEFAULT)))
+                .thenReturn(searchTemplateResponse);
 
         // Act
         Page<DocumentResponseDto> result = discoverDocumentSearchService.searchDocuments(searchRequest, username);
@@ -478,8 +506,8 @@ class DiscoverDocumentSearchServiceImplTest {
         when(userClient.getUserByUsername(username)).thenReturn(ResponseEntity.ok(userResponse));
         when(documentPreferencesRepository.findByUserId(userId.toString()))
                 .thenReturn(Optional.empty());
-        when(openSearchClient.search(any(SearchRequest.class), eq(RequestOptions.DEFAULT)))
-                .thenReturn(searchResponse);
+        when(openSearchClient.searchTemplate(any(SearchTemplateRequest.class), eq(RequestOptions.DEFAULT)))
+                .thenReturn(searchTemplateResponse);
 
         // Act
         Page<DocumentResponseDto> result = discoverDocumentSearchService.searchDocuments(searchRequest, username);
@@ -498,8 +526,8 @@ class DiscoverDocumentSearchServiceImplTest {
         when(userClient.getUserByUsername(username)).thenReturn(ResponseEntity.ok(userResponse));
         when(documentPreferencesRepository.findByUserId(userId.toString()))
                 .thenReturn(Optional.of(emptyPreferences));
-        when(openSearchClient.search(any(SearchRequest.class), eq(RequestOptions.DEFAULT)))
-                .thenReturn(searchResponse);
+        when(openSearchClient.searchTemplate(any(SearchTemplateRequest.class), eq(RequestOptions.DEFAULT)))
+                .thenReturn(searchTemplateResponse);
 
         searchRequest = DocumentSearchRequest.builder()
                 .search("test")
@@ -549,8 +577,8 @@ class DiscoverDocumentSearchServiceImplTest {
                 .build();
 
         when(userClient.getUserByUsername(username)).thenReturn(ResponseEntity.ok(userResponse));
-        when(openSearchClient.search(any(SearchRequest.class), eq(RequestOptions.DEFAULT)))
-                .thenReturn(searchResponse);
+        when(openSearchClient.searchTemplate(any(SearchTemplateRequest.class), eq(RequestOptions.DEFAULT)))
+                .thenReturn(searchTemplateResponse);
 
         // Act
         Page<DocumentResponseDto> result = discoverDocumentSearchService.searchDocuments(searchRequest, username);
@@ -569,8 +597,8 @@ class DiscoverDocumentSearchServiceImplTest {
                 .build();
 
         when(userClient.getUserByUsername(username)).thenReturn(ResponseEntity.ok(userResponse));
-        when(openSearchClient.search(any(SearchRequest.class), eq(RequestOptions.DEFAULT)))
-                .thenReturn(searchResponse);
+        when(openSearchClient.searchTemplate(any(SearchTemplateRequest.class), eq(RequestOptions.DEFAULT)))
+                .thenReturn(searchTemplateResponse);
 
         // Act
         Page<DocumentResponseDto> result = discoverDocumentSearchService.searchDocuments(searchRequest, username);
@@ -586,8 +614,8 @@ class DiscoverDocumentSearchServiceImplTest {
                 new RoleResponse(UUID.randomUUID(), AppRole.ROLE_MENTOR));
 
         when(userClient.getUserByUsername(username)).thenReturn(ResponseEntity.ok(mentorResponse));
-        when(openSearchClient.search(any(SearchRequest.class), eq(RequestOptions.DEFAULT)))
-                .thenReturn(searchResponse);
+        when(openSearchClient.searchTemplate(any(SearchTemplateRequest.class), eq(RequestOptions.DEFAULT)))
+                .thenReturn(searchTemplateResponse);
 
         // Act
         Page<DocumentResponseDto> result = discoverDocumentSearchService.searchDocuments(searchRequest, username);
@@ -597,8 +625,8 @@ class DiscoverDocumentSearchServiceImplTest {
         assertEquals(1, result.getTotalElements());
 
         // Verify search request contains sharing filters appropriate for non-admin roles
-        verify(openSearchClient).search(argThat(request -> {
-            String sourceString = request.source().toString().toLowerCase();
+        verify(openSearchClient).searchTemplate(argThat(request -> {
+            String sourceString = renderSource(request).toLowerCase();
             return sourceString.contains("sharingtype") &&
                    sourceString.contains("userid") &&
                    !sourceString.contains("role_admin");
@@ -723,17 +751,17 @@ class DiscoverDocumentSearchServiceImplTest {
                 .build();
 
         when(userClient.getUserByUsername(username)).thenReturn(ResponseEntity.ok(userResponse));
-        when(openSearchClient.search(any(SearchRequest.class), eq(RequestOptions.DEFAULT)))
-                .thenReturn(searchResponse);
+        when(openSearchClient.searchTemplate(any(SearchTemplateRequest.class), eq(RequestOptions.DEFAULT)))
+                .thenReturn(searchTemplateResponse);
 
         // Act
         Page<DocumentResponseDto> result = discoverDocumentSearchService.searchDocuments(searchRequest, username);
 
         // Assert
         assertNotNull(result);
-        verify(openSearchClient).search(argThat(request -> {
+        verify(openSearchClient).searchTemplate(argThat(request -> {
             // Verify the query doesn't contain terms queries for empty filters
-            String sourceString = request.source().toString().toLowerCase();
+            String sourceString = renderSource(request).toLowerCase();
             // The query should not contain terms clauses for the empty filters
             return !sourceString.contains("\"terms\":{\"majors\"") &&
                    !sourceString.contains("\"terms\":{\"coursecodes\"") &&
@@ -753,9 +781,9 @@ class DiscoverDocumentSearchServiceImplTest {
                 .build();
 
         when(userClient.getUserByUsername(username)).thenReturn(ResponseEntity.ok(userResponse));
-        // Use a simple any() matcher for the search request
-        when(openSearchClient.search(any(), eq(RequestOptions.DEFAULT)))
-                .thenReturn(searchResponse);
+        // Use a simple any() matcher for the search template request
+        when(openSearchClient.searchTemplate(any(), eq(RequestOptions.DEFAULT)))
+                .thenReturn(searchTemplateResponse);
 
         // Act
         Page<DocumentResponseDto> result = discoverDocumentSearchService.searchDocuments(searchRequest, username);
@@ -763,13 +791,13 @@ class DiscoverDocumentSearchServiceImplTest {
         // Assert
         assertNotNull(result);
 
-        // Capture the actual SearchRequest that was passed
-        ArgumentCaptor<SearchRequest> requestCaptor = ArgumentCaptor.forClass(SearchRequest.class);
-        verify(openSearchClient).search(requestCaptor.capture(), eq(RequestOptions.DEFAULT));
+        // Capture the actual SearchTemplateRequest that was passed
+        ArgumentCaptor<SearchTemplateRequest> requestCaptor = ArgumentCaptor.forClass(SearchTemplateRequest.class);
+        verify(openSearchClient).searchTemplate(requestCaptor.capture(), eq(RequestOptions.DEFAULT));
 
         // Extract and examine the captured request
-        SearchRequest capturedRequest = requestCaptor.getValue();
-        String requestSource = capturedRequest.source().toString();
+        SearchTemplateRequest capturedRequest = requestCaptor.getValue();
+        String requestSource = renderSource(capturedRequest);
 
         // Now just verify the specific part we care about
         assertTrue(requestSource.contains("highlight"));
@@ -792,9 +820,9 @@ class DiscoverDocumentSearchServiceImplTest {
                 .build();
 
         when(userClient.getUserByUsername(username)).thenReturn(ResponseEntity.ok(userResponse));
-        // Use a simple any() matcher for the search request
-        when(openSearchClient.search(any(), eq(RequestOptions.DEFAULT)))
-                .thenReturn(searchResponse);
+        // Use a simple any() matcher for the search template request
+        when(openSearchClient.searchTemplate(any(), eq(RequestOptions.DEFAULT)))
+                .thenReturn(searchTemplateResponse);
 
         // Act
         Page<DocumentResponseDto> result = discoverDocumentSearchService.searchDocuments(searchRequest, username);
@@ -802,13 +830,13 @@ class DiscoverDocumentSearchServiceImplTest {
         // Assert
         assertNotNull(result);
 
-        // Capture the actual SearchRequest that was passed
-        ArgumentCaptor<SearchRequest> requestCaptor = ArgumentCaptor.forClass(SearchRequest.class);
-        verify(openSearchClient).search(requestCaptor.capture(), eq(RequestOptions.DEFAULT));
+        // Capture the actual SearchTemplateRequest that was passed
+        ArgumentCaptor<SearchTemplateRequest> requestCaptor = ArgumentCaptor.forClass(SearchTemplateRequest.class);
+        verify(openSearchClient).searchTemplate(requestCaptor.capture(), eq(RequestOptions.DEFAULT));
 
         // Extract and examine the captured request
-        SearchRequest capturedRequest = requestCaptor.getValue();
-        String requestSource = capturedRequest.source().toString();
+        SearchTemplateRequest capturedRequest = requestCaptor.getValue();
+        String requestSource = renderSource(capturedRequest);
 
         // Now just verify the specific part we care about
         assertTrue(requestSource.contains("highlight"));
@@ -823,4 +851,104 @@ class DiscoverDocumentSearchServiceImplTest {
 
 
 
-}
\ No newline at end of file
+
+    @Test
+    void searchDocuments_WithEveryLanguageAndQueryType_RendersValidTemplate() throws IOException {
+        // Arrange
+        UserResponse adminResponse = new UserResponse(userId, username, "admin@example.com",
+                new RoleResponse(UUID.randomUUID(), AppRole.ROLE_ADMIN));
+        DocumentPreferences preferences = new DocumentPreferences();
+        preferences.setPreferredMajors(Set.of("CS"));
+        preferences.setPreferredTags(Set.of("java", "spring"));
+        preferences.setLanguagePreferences(Set.of("vi"));
+
+        when(userClient.getUserByUsername(username)).thenReturn(ResponseEntity.ok(adminResponse));
+        when(documentPreferencesRepository.findByUserId(userId.toString())).thenReturn(Optional.of(preferences));
+        when(openSearchClient.searchTemplate(any(SearchTemplateRequest.class), eq(RequestOptions.DEFAULT)))
+                .thenReturn(searchTemplateResponse);
+
+        String[] languages = new String[]{"en", "vi", "ko"};
+        String[] queries = new String[]{"spring", "multiple words that make this a general query"};
+
+        for (String language : languages) {
+            when(languageDetectionService.detectLanguage(anyString())).thenReturn(language);
+            for (String query : queries) {
+                searchRequest = DocumentSearchRequest.builder()
+                        .search(query)
+                        .majors(Set.of("CS", "IT"))
+                        .level("Beginner")
+                        .tags(Set.of("java"))
+                        .favoriteOnly(true)
+                        .sortField("filename")
+                        .sortDirection("asc")
+                        .page(1)
+                        .size(20)
+                        .build();
+
+                // Act
+                discoverDocumentSearchService.searchDocuments(searchRequest, username);
+            }
+        }
+
+        // Assert
+        ArgumentCaptor<SearchTemplateRequest> requestCaptor = ArgumentCaptor.forClass(SearchTemplateRequest.class);
+        verify(openSearchClient, times(languages.length * queries.length))
+                .searchTemplate(requestCaptor.capture(), eq(RequestOptions.DEFAULT));
+        for (SearchTemplateRequest capturedRequest : requestCaptor.getAllValues()) {
+            String requestSource = renderSource(capturedRequest);
+            assertTrue(requestSource.contains("\"from\":20"));
+            assertTrue(requestSource.contains("\"filename.lowercase\":{\"order\":\"asc\"}"));
+            assertTrue(requestSource.contains("\"terms\":{\"majors\""));
+            assertTrue(requestSource.contains("\"term\":{\"courseLevel\":{\"value\":\"Beginner\""));
+            assertTrue(requestSource.contains("\"terms\":{\"language\":[\"vi\"]"));
+            // Admins are not restricted by sharing rules
+            assertFalse(requestSource.contains("\"sharedWith\""));
+        }
+    }
+
+    @Test
+    void searchDocuments_WithMixedCaseQuery_LeavesCaseToAnalyzers() throws IOException {
+        // Arrange
+        searchRequest = DocumentSearchRequest.builder()
+                .search("Introduction To Machine Learning")
+                .page(0)
+                .size(10)
+                .build();
+
+        when(userClient.getUserByUsername(username)).thenReturn(ResponseEntity.ok(userResponse));
+        when(openSearchClient.searchTemplate(any(SearchTemplateRequest.class), eq(RequestOptions.DEFAULT)))
+                .thenReturn(searchTemplateResponse);
+
+        // Act
+        discoverDocumentSearchService.searchDocuments(searchRequest, username);
+
+        // Assert
+        ArgumentCaptor<SearchTemplateRequest> requestCaptor = ArgumentCaptor.forClass(SearchTemplateRequest.class);
+        verify(openSearchClient).searchTemplate(requestCaptor.capture(), eq(RequestOptions.DEFAULT));
+        String requestSource = renderSource(requestCaptor.getValue());
+        assertFalse(requestSource.contains("INTRODUCTION TO MACHINE LEARNING"));
+        assertFalse(requestSource.contains("introduction to machine learning"));
+        assertTrue(requestSource.contains("\"filename.lowercase\":{\"value\":\"Introduction To Machine Learning\""));
+    }
+
+    /**
+     * Renders the stored discover template with the request parameters the same way the cluster does,
+     * so assertions run against the query that would actually execute.
+     */
+    private String renderSource(SearchTemplateRequest request) {
+        try {
+            assertEquals(OpenSearchTemplates.DISCOVER_SEARCH_TEMPLATE_ID, request.getScript());
+            String template = StreamUtils.copyToString(
+                    new ClassPathResource("/opensearch/templates/discover-search.mustache").getInputStream(), StandardCharsets.UTF_8);
+            TemplateScript.Factory factory = new MustacheScriptEngine()
+                    .compile("discover-search", template, TemplateScript.CONTEXT, Collections.emptyMap());
+            String rendered = factory.newInstance(request.getScriptParams()).execute();
+            try (XContentParser parser = JsonXContent.jsonXContent.createParser(
+                    X_CONTENT_REGISTRY, DeprecationHandler.THROW_UNSUPPORTED_OPERATION, rendered)) {
+                return SearchSourceBuilder.fromXContent(parser).toString();
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -11,7 +11,9 @@ import com.dms.document.search.dto.UserResponse;
 import com.dms.document.search.enums.AppRole;
 import com.dms.document.search.exception.InvalidDocumentException;
 import com.dms.document.search.model.DocumentPreferences;
+import com.dms.document.search.model.DocumentSimilarity;
 import com.dms.document.search.repository.DocumentPreferencesRepository;
+import com.dms.document.search.repository.DocumentSimilarityRepository;
 import com.dms.document.search.service.DocumentFavoriteService;
 import org.apache.lucene.search.TotalHits;
 import org.junit.jupiter.api.BeforeEach;
@@ -48,6 +50,8 @@ class DocumentRecommendationServiceImplTest {
     private DocumentPreferencesRepository documentPreferencesRepository;
     @Mock
     private DocumentFavoriteService documentFavoriteService;
+    @Mock
+    private DocumentSimilarityRepository documentSimilarityRepository;
     @InjectMocks
     private DocumentRecommendationServiceImpl documentRecommendationService;
 
@@ -758,4 +762,85 @@ class DocumentRecommendationServiceImplTest {
         assertNotNull(doc.getHighlights());
         assertTrue(doc.getHighlights().isEmpty());
     }
-}
\ No newline at end of file
+
+    @Test
+    void getRecommendations_WithPrecomputedSimilarity_SkipsSourceDocumentFetch() throws IOException {
+        // Arrange
+        SearchResponse searchResponse = createMockSearchResponse();
+        DocumentSimilarity similarity = DocumentSimilarity.builder()
+                .id("doc1")
+                .similarDocuments(List.of(
+                        new DocumentSimilarity.SimilarDocument("doc123", 12.0f),
+                        new DocumentSimilarity.SimilarDocument("doc456", 6.0f)))
+                .computedAt(Instant.now())
+                .build();
+
+        when(userClient.getUserByUsername(username)).thenReturn(ResponseEntity.ok(userResponse));
+        when(documentPreferencesRepository.findByUserId(userId.toString())).thenReturn(Optional.of(preferences));
+        when(documentSimilarityRepository.findById("doc1")).thenReturn(Optional.of(similarity));
+        when(openSearchClient.search(any(SearchRequest.class), eq(RequestOptions.DEFAULT))).thenReturn(searchResponse);
+
+        // Act
+        Page<DocumentResponseDto> result = documentRecommendationService.getRecommendations("doc1", false, username, pageable);
+
+        // Assert
+        assertNotNull(result);
+        assertEquals(1, result.getTotalElements());
+        verify(openSearchClient, never()).get(any(GetRequest.class), any(RequestOptions.class));
+        verify(openSearchClient).search(argThat(request -> {
+            String sourceString = request.source().toString();
+            return sourceString.contains("doc123") &&
+                   sourceString.contains("doc456") &&
+                   !sourceString.contains("more_like_this") &&
+                   sourceString.contains("sharingType");
+        }), any(RequestOptions.class));
+    }
+
+    @Test
+    void getRecommendations_WithEmptyPrecomputedSimilarity_ReturnsEmptyPage() throws IOException {
+        // Arrange
+        DocumentSimilarity similarity = DocumentSimilarity.builder()
+                .id("doc1")
+                .similarDocuments(List.of())
+                .computedAt(Instant.now())
+                .build();
+
+        when(userClient.getUserByUsername(username)).thenReturn(ResponseEntity.ok(userResponse));
+        when(documentPreferencesRepository.findByUserId(userId.toString())).thenReturn(Optional.of(preferences));
+        when(documentSimilarityRepository.findById("doc1")).thenReturn(Optional.of(similarity));
+
+        // Act
+        Page<DocumentResponseDto> result = documentRecommendationService.getRecommendations("doc1", false, username, pageable);
+
+        // Assert
+        assertTrue(result.isEmpty());
+        verify(openSearchClient, never()).search(any(SearchRequest.class), any(RequestOptions.class));
+    }
+
+    @Test
+    void getRecommendations_WithoutPrecomputedSimilarity_UsesTermVectorsOfSourceDocument() throws IOException {
+        // Arrange
+        GetResponse getResponse = createMockGetResponse();
+        SearchResponse searchResponse = createMockSearchResponse();
+
+        when(userClient.getUserByUsername(username)).thenReturn(ResponseEntity.ok(userResponse));
+        when(documentPreferencesRepository.findByUserId(userId.toString())).thenReturn(Optional.of(preferences));
+        when(documentSimilarityRepository.findById("doc1")).thenReturn(Optional.empty());
+        when(openSearchClient.get(any(GetRequest.class), eq(RequestOptions.DEFAULT))).thenReturn(getResponse);
+        when(openSearchClient.search(any(SearchRequest.class), eq(RequestOptions.DEFAULT))).thenReturn(searchResponse);
+
+        // Act
+        documentRecommendationService.getRecommendations("doc1", false, username, pageable);
+
+        // Assert
+        verify(openSearchClient).get(argThat(request ->
+                request.fetchSourceContext() != null &&
+                Arrays.asList(request.fetchSourceContext().excludes()).contains("content")
+        ), eq(RequestOptions.DEFAULT));
+        verify(openSearchClient).search(argThat(request -> {
+            String sourceString = request.source().toString();
+            return sourceString.contains("more_like_this") &&
+                   !sourceString.contains("This is the content of the source document");
+        }), any(RequestOptions.class));
+    }
+}
@@ -1,5 +1,5 @@
 import { Search, User2, UsersRound } from "lucide-react";
-import React, { useCallback, useEffect, useState } from "react";
+import React, { useCallback, useEffect, useRef, useState } from "react";
 import { useTranslation } from "react-i18next";
 import { Link } from "react-router-dom";
 
@@ -31,6 +31,9 @@ export default function UserList() {
   const [totalPages, setTotalPages] = useState(0);
   const [currentPage, setCurrentPage] = useState(0);
   const [totalElements, setTotalElements] = useState(0);
+  const [hasNextPage, setHasNextPage] = useState(false);
+  // Cursor of every page visited so far, the first page has none
+  const pageCursors = useRef<(string | undefined)[]>([undefined]);
 
   // Add page size options and state
   const pageSizeOptions = [10, 20, 50, 100];
@@ -43,13 +46,19 @@ export default function UserList() {
         search: appliedSearchQuery || undefined,
         enabled: appliedStatus === "active" ? true : appliedStatus === "inactive" ? false : undefined,
         role: appliedRole !== "all" ? appliedRole : undefined,
-        page: currentPage,
+        cursor: pageCursors.current[currentPage],
         size: pageSize,
       });
 
-      setUsers(response.data.content);
-      setTotalPages(response.data.totalPages);
-      setTotalElements(response.data.totalElements);
+      setUsers(response.data.users);
+      if (response.data.nextCursor) {
+        pageCursors.current[currentPage + 1] = response.data.nextCursor;
+      }
+      setHasNextPage(!!response.data.nextCursor);
+      if (response.data.totalUsers !== null) {
+        setTotalElements(response.data.totalUsers);
+        setTotalPages(Math.ceil(response.data.totalUsers / pageSize));
+      }
     } catch (error) {
       console.error("Error fetching users:", error);
       toast({
@@ -67,6 +76,7 @@ export default function UserList() {
   }, [fetchUsers]);
 
   const handleSearch = () => {
+    pageCursors.current = [undefined];
     setCurrentPage(0);
     setAppliedSearchQuery(searchQuery);
     setAppliedStatus(selectedStatus);
@@ -84,6 +94,7 @@ export default function UserList() {
     setAppliedStatus("all");
     setAppliedRole("all");
 
+    pageCursors.current = [undefined];
     setCurrentPage(0);
   };
 
@@ -93,6 +104,7 @@ export default function UserList() {
 
   // Add handler for page size changes
   const handlePageSizeChange = (value: string) => {
+    pageCursors.current = [undefined];
     setPageSize(parseInt(value));
     setCurrentPage(0); // Reset to first page when changing page size
   };
@@ -257,7 +269,7 @@ export default function UserList() {
               <Button
                 variant="outline"
                 onClick={() => handlePageChange(currentPage + 1)}
-                disabled={currentPage >= totalPages - 1 || loading}
+                disabled={!hasNextPage || loading}
               >
                 {t("document.history.pagination.next")}
               </Button>
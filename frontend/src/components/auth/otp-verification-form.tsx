@@ -95,7 +95,14 @@ export default function OtpVerificationForm({ onVerified, onResend }: OtpVerific
     setIsLoading(true);
     const response = await onVerified(otpValue);
     if (response?.data) {
-      if (response.data.locked) {
+      if (response.data.rateLimited) {
+        setOtpValue("");
+        toast({
+          title: t("common.error"),
+          description: t("auth.otp.tooManyAttempts"),
+          variant: "destructive",
+        });
+      } else if (response.data.locked) {
         setIsLocked(true);
         setOtpValue("");
       } else if (!response.data.verified) {
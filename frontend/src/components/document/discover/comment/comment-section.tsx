@@ -9,7 +9,7 @@ import { Textarea } from "@/components/ui/textarea";
 import { useAuth } from "@/context/auth-context";
 import { useToast } from "@/hooks/use-toast";
 import { documentService } from "@/services/document.service";
-import { Comment, CommentCreateData, CommentEditData, PaginationParams } from "@/types/comment";
+import { Comment, CommentCreateData, CommentEditData, CommentPage, CommentPageParams } from "@/types/comment";
 
 const CommentSkeleton = () => (
   <div className="space-y-4">
@@ -36,7 +36,7 @@ export const CommentSection: React.FC<CommentSectionProps> = ({ documentId }) =>
   const [loadingMore, setLoadingMore] = useState<boolean>(false);
   const [commentText, setCommentText] = useState<string>("");
   const [hasMore, setHasMore] = useState<boolean>(false);
-  const [page, setPage] = useState<number>(0);
+  const [nextCursor, setNextCursor] = useState<string | null>(null);
   const [replyTo, setReplyTo] = useState<Comment | null>(null);
   const { currentUser } = useAuth();
   const { toast } = useToast();
@@ -55,73 +55,17 @@ export const CommentSection: React.FC<CommentSectionProps> = ({ documentId }) =>
     commentsRef.current = comments;
   }, [comments]);
 
-  // Transform flat comments into a hierarchical structure
-  const buildCommentTree = useCallback((flatComments: Comment[], existingComments: Comment[] = []): Comment[] => {
-    // Create a map for quick access to existing comments by id
-    const existingCommentMap = new Map<number, Comment>();
-
-    // Helper function to populate the map with existing comments and their replies
-    const populateCommentMap = (comments: Comment[]) => {
-      comments.forEach((comment) => {
-        existingCommentMap.set(comment.id, comment);
-        if (comment.replies && comment.replies.length > 0) {
-          populateCommentMap(comment.replies);
-        }
-      });
-    };
-
-    // Populate map with existing comments
-    populateCommentMap(existingComments);
-
-    // Create a map for new comments
-    const newCommentMap = new Map<number, Comment>();
-    const rootComments: Comment[] = [...existingComments]; // Start with existing comments
-
-    // First pass: add all new comments to the map
-    flatComments.forEach((comment) => {
-      // Skip if comment already exists in the tree
-      if (existingCommentMap.has(comment.id)) {
-        return;
-      }
-
-      // Initialize replies array if not present
-      const commentWithReplies = {
-        ...comment,
-        replies: [] as Comment[],
-      };
-      newCommentMap.set(comment.id, commentWithReplies);
-    });
-
-    // Second pass: build the tree structure for new comments
-    for (const [id, comment] of newCommentMap.entries()) {
-      if (comment.parentId) {
-        // This is a reply - check if parent exists in either existing or new comments
-        const parentComment =
-          existingCommentMap.get(Number(comment.parentId)) || newCommentMap.get(Number(comment.parentId));
-
-        if (parentComment) {
-          // Parent found, add as reply
-          parentComment.replies = parentComment.replies || [];
-          parentComment.replies.push(comment);
-        } else {
-          // Parent not found, add as root
-          rootComments.push(comment);
-        }
-      } else {
-        // This is a root comment
-        rootComments.push(comment);
-      }
-    }
-
-    // Sort root comments by created date (newest first)
-    return rootComments.sort((a, b) => new Date(b.createdAt).getTime() - new Date(a.createdAt).getTime());
+  // Append a page of threads, skipping threads already shown
+  const mergeThreads = useCallback((existingComments: Comment[], newComments: Comment[]): Comment[] => {
+    const existingIds = new Set(existingComments.map((comment) => comment.id));
+    return [...existingComments, ...newComments.filter((comment) => !existingIds.has(comment.id))];
   }, []);
 
   const fetchComments = useCallback(
-    async (pageNum = 0, append = false) => {
+    async (cursor: string | null = null, append = false) => {
       if (!documentId) return;
 
-      if (pageNum === 0) {
+      if (!append) {
         setLoading(true);
       } else {
         setLoadingMore(true);
@@ -129,19 +73,17 @@ export const CommentSection: React.FC<CommentSectionProps> = ({ documentId }) =>
 
       try {
         const response = await documentService.getDocumentComments(documentId, {
-          page: pageNum,
+          cursor,
           size: COMMENTS_PER_PAGE,
-        } as PaginationParams);
+        } as CommentPageParams);
+        // Threads arrive with their replies already nested
+        const commentPage = response.data as CommentPage;
 
         // Save the current scroll position before adding new comments
         const scrollPosition = scrollContainerRef.current?.scrollTop || 0;
 
-        if (append && pageNum > 0) {
-          // Use the current comments as the existing tree when appending
-          setComments((prevComments) => {
-            // Integrate new comments with the existing tree
-            return buildCommentTree(response.data.content, prevComments);
-          });
+        if (append) {
+          setComments((prevComments) => mergeThreads(prevComments, commentPage.comments));
 
           // After state update, scroll to show a bit of the new content
           setTimeout(() => {
@@ -151,13 +93,12 @@ export const CommentSection: React.FC<CommentSectionProps> = ({ documentId }) =>
             }
           }, 200);
         } else {
-          // For initial load, build a fresh tree
-          setComments(buildCommentTree(response.data.content));
+          setComments(commentPage.comments);
         }
 
         // Update pagination state
-        setPage(pageNum);
-        setHasMore(pageNum < response.data.totalPages - 1);
+        setNextCursor(commentPage.nextCursor);
+        setHasMore(!!commentPage.nextCursor);
       } catch (_error) {
         toast({
           title: t("common.error"),
@@ -169,18 +110,18 @@ export const CommentSection: React.FC<CommentSectionProps> = ({ documentId }) =>
         setLoadingMore(false);
       }
     },
-    [documentId, toast, t, buildCommentTree],
+    [documentId, toast, t, mergeThreads],
   );
 
   const loadMoreComments = useCallback(() => {
-    if (hasMore && !loadingMore) {
-      fetchComments(page + 1, true);
+    if (hasMore && !loadingMore && nextCursor) {
+      fetchComments(nextCursor, true);
     }
-  }, [fetchComments, hasMore, loadingMore, page]);
+  }, [fetchComments, hasMore, loadingMore, nextCursor]);
 
   // Initial load and document change handler
   useEffect(() => {
-    fetchComments(0);
+    fetchComments();
   }, [documentId, fetchComments]);
 
   const handleSubmitComment = async () => {
@@ -230,7 +171,7 @@ export const CommentSection: React.FC<CommentSectionProps> = ({ documentId }) =>
           // Try to add the reply to the parent
           if (!addReplyToComment(updatedComments)) {
             // If parent not found (rare case), refresh comments from backend
-            fetchComments(0);
+            fetchComments();
           }
 
           return updatedComments;
@@ -438,7 +379,7 @@ export const CommentSection: React.FC<CommentSectionProps> = ({ documentId }) =>
         )}
 
         {/* Comments list */}
-        {loading && page === 0 ? (
+        {loading && !loadingMore && comments.length === 0 ? (
           <>
             <CommentSkeleton />
             <CommentSkeleton />
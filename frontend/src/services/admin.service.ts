@@ -3,11 +3,11 @@ import i18next from "i18next";
 import axiosInstance from "@/services/axios.config";
 import { BaseService } from "@/services/base.service";
 import { User } from "@/types/auth";
-import { GetUsersRequest, PageResponse, Role, UpdateStatusRequest, UserData } from "@/types/user";
+import { GetUsersRequest, Role, UpdateStatusRequest, UserData, UserListResponse } from "@/types/user";
 
 class AdminService extends BaseService {
   getAllUsers(usersRequest: GetUsersRequest = {}) {
-    return this.handleApiResponse<PageResponse<User>>(
+    return this.handleApiResponse<UserListResponse<User>>(
       axiosInstance.post("/auth/api/v1/admin/users", usersRequest),
     );
   }
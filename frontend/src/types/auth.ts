@@ -41,6 +41,7 @@ export interface TokenResponse {
   locked?: boolean;
   verified?: boolean;
   expired?: boolean;
+  rateLimited?: boolean;
 }
 
 export interface RefreshTokenRequest {
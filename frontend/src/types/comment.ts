@@ -20,16 +20,13 @@ export interface CommentCreateData {
   parentId?: number | null;
 }
 
-export interface PaginationParams {
-  page: number;
+export interface CommentPageParams {
+  cursor?: string | null;
   size: number;
-  sort?: string;
 }
 
-export interface PaginatedResponse<T> {
-  content: T[];
-  totalPages: number;
-  totalElements: number;
-  size: number;
-  number: number;
+export interface CommentPage {
+  comments: Comment[];
+  nextCursor: string | null;
+  totalComments: number;
 }
@@ -2,10 +2,17 @@ export interface GetUsersRequest {
   search?: string;
   enabled?: boolean;
   role?: string;
-  page?: number;
+  cursor?: string;
   size?: number;
 }
 
+export interface UserListResponse<T> {
+  users: T[];
+  nextCursor: string | null;
+  // Only counted for the first page
+  totalUsers: number | null;
+}
+
 export interface PageResponse<T> {
   content: T[];
   totalPages: number;
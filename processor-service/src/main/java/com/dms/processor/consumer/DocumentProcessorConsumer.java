@@ -35,6 +35,7 @@ public class DocumentProcessorConsumer {
                 case UPDATE_EVENT, UPDATE_EVENT_WITH_FILE -> handleUpdateEvent(request, eventType);
                 case SYNC_EVENT -> handleSyncEvent(request, eventType);
                 case REVERT_EVENT -> handleRevertEvent(request, eventType);
+                case FAVORITE_EVENT -> handleFavoriteEvent(request);
                 case DOCUMENT_REPORT_PROCESS_EVENT -> handleReportStatus(request);
                 default -> log.warn("Unhandled event type: {}", eventType);
             }
@@ -50,6 +51,12 @@ public class DocumentProcessorConsumer {
         findAndProcessDocument(request, eventType);
     }
 
+    private void handleFavoriteEvent(SyncEventRequest request) {
+        log.info("Processing favorite event for document: {}", request.getDocumentId());
+        // Only the favoriters changed, so the document is neither reindexed nor rescored for similarity
+        documentProcessService.updateFavorites(request.getDocumentId());
+    }
+
     private void handleDeleteEvent(SyncEventRequest request) {
         log.info("Processing delete event for document: {}", request.getDocumentId());
         DocumentInformation document = documentRepository.findById(request.getDocumentId()).orElse(null);
@@ -0,0 +1,63 @@
+package com.dms.processor.cronjob;
+
+import com.dms.processor.opensearch.repository.DocumentIndexRepository;
+import com.dms.processor.repository.DocumentFavoriteRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * One-off population of the denormalized favoritedBy field for documents indexed before it existed.
+ * New favorites are kept in sync by the reindex triggered on every favorite change.
+ */
+@RequiredArgsConstructor
+@Slf4j
+@Configuration
+public class BackfillFavoritedByJob {
+    private final DocumentFavoriteRepository documentFavoriteRepository;
+    private final DocumentIndexRepository documentIndexRepository;
+
+    @Value("${app.favorites.backfill-on-startup:false}")
+    private boolean backfillOnStartup;
+
+    @Value("${app.favorites.backfill-batch-size:500}")
+    private int batchSize;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillFavoritedBy() {
+        if (!backfillOnStartup) {
+            return;
+        }
+
+        log.info("Backfill FavoritedBy Job Start");
+        int updated = 0;
+        Pageable pageable = PageRequest.of(0, batchSize);
+        Slice<String> documentIds;
+        do {
+            documentIds = documentFavoriteRepository.findDistinctDocumentIds(pageable);
+            for (String documentId : documentIds) {
+                try {
+                    documentIndexRepository.updateFavoritedBy(documentId,
+                            documentFavoriteRepository.findUserIdsByDocumentId(documentId)
+                                    .stream()
+                                    .map(UUID::toString)
+                                    .collect(Collectors.toSet()));
+                    updated++;
+                } catch (Exception e) {
+                    log.warn("Skipping favoritedBy backfill for document: {}", documentId, e);
+                }
+            }
+            pageable = documentIds.nextPageable();
+        } while (documentIds.hasNext());
+        log.info("Backfill FavoritedBy Job End, updated: {}", updated);
+    }
+}
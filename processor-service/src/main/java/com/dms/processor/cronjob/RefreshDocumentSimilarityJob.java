@@ -0,0 +1,23 @@
+package com.dms.processor.cronjob;
+
+import com.dms.processor.service.DocumentSimilarityService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+
+@RequiredArgsConstructor
+@Slf4j
+@EnableScheduling
+@Configuration
+public class RefreshDocumentSimilarityJob {
+    private final DocumentSimilarityService documentSimilarityService;
+
+    @Scheduled(fixedDelayString = "${app.recommendation.refresh-interval-ms:600000}")
+    public void refreshDocumentSimilarities() {
+        log.info("Refresh Document Similarity Job Start");
+        int refreshed = documentSimilarityService.refreshStaleSimilarities();
+        log.info("Refresh Document Similarity Job End, refreshed: {}", refreshed);
+    }
+}
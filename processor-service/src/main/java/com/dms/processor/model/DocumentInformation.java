@@ -126,6 +126,9 @@ public class DocumentInformation {
     @Field("favorite_count")
     private Integer favoriteCount;
 
+    @Field("comment_count")
+    private Integer commentCount;
+
     public Optional<DocumentVersion> getLatestVersion() {
         if (CollectionUtils.isEmpty(versions)) {
             return Optional.empty();
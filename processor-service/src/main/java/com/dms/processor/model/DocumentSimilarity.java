@@ -0,0 +1,45 @@
+package com.dms.processor.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Precomputed "more like this" neighbours of a document, keyed by document id.
+ * Written by the processor after indexing and read by the search service at request time.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "document_similarities")
+public class DocumentSimilarity {
+    @Id
+    private String id;
+
+    @Field("similar_documents")
+    private List<SimilarDocument> similarDocuments;
+
+    @Indexed
+    @Field("computed_at")
+    private Instant computedAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class SimilarDocument {
+        @Field("document_id")
+        private String documentId;
+
+        @Field("score")
+        private Float score;
+    }
+}
@@ -28,6 +28,7 @@ public class DocumentIndex {
     private String userId;
     private SharingType sharingType;
     private Set<String> sharedWith;
+    private Set<String> favoritedBy;
     private boolean deleted;
     private DocumentStatus status;
     private String language;
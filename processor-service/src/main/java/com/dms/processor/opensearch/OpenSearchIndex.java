@@ -13,6 +13,7 @@ import org.opensearch.client.indices.CreateIndexRequest;
 import org.opensearch.client.indices.GetIndexRequest;
 import org.opensearch.client.indices.GetMappingsRequest;
 import org.opensearch.client.indices.GetMappingsResponse;
+import org.opensearch.client.indices.PutMappingRequest;
 import org.opensearch.cluster.metadata.MappingMetadata;
 import org.opensearch.common.xcontent.XContentType;
 import org.opensearch.index.query.QueryBuilders;
@@ -43,6 +44,7 @@ public class OpenSearchIndex {
 
             if (indexExists) {
                 log.info("Index exists. Verifying mapping...");
+                addMissingFieldMappings();
                 verifyIndexMapping();
             } else {
                 log.info("Creating index with mapping and settings...");
@@ -67,6 +69,13 @@ public class OpenSearchIndex {
         }
     }
 
+    private void addMissingFieldMappings() throws IOException {
+        // Fields added after index creation must be mapped explicitly, dynamic mapping would make them text
+        PutMappingRequest request = new PutMappingRequest(INDEX_NAME)
+                .source(Map.of("properties", Map.of("favoritedBy", Map.of("type", "keyword"))));
+        openSearchClient.indices().putMapping(request, RequestOptions.DEFAULT);
+    }
+
     public void verifyIndexMapping() {
         try {
             GetMappingsRequest request = new GetMappingsRequest().indices(INDEX_NAME);
@@ -9,6 +9,7 @@ import org.opensearch.action.get.GetResponse;
 import org.opensearch.action.index.IndexRequest;
 import org.opensearch.action.search.SearchRequest;
 import org.opensearch.action.search.SearchResponse;
+import org.opensearch.action.update.UpdateRequest;
 import org.opensearch.client.RequestOptions;
 import org.opensearch.client.RestHighLevelClient;
 import org.opensearch.common.xcontent.XContentType;
@@ -20,7 +21,9 @@ import org.springframework.stereotype.Repository;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 @Repository
 @Slf4j
@@ -50,6 +53,19 @@ public class DocumentIndexRepository {
         }
     }
 
+    public void updateFavoritedBy(String id, Set<String> favoritedBy) {
+        try {
+            UpdateRequest updateRequest = new UpdateRequest(INDEX_NAME, id)
+                    .doc(Map.of("favoritedBy", favoritedBy, "favoriteCount", favoritedBy.size()));
+
+            client.update(updateRequest, RequestOptions.DEFAULT);
+            log.info("Document favoriters updated successfully: {}", id);
+        } catch (IOException e) {
+            log.error("Error updating favoriters of document: {}", id, e);
+            throw new RuntimeException("Failed to update document favoriters", e);
+        }
+    }
+
     public Optional<DocumentIndex> findById(String id) {
         try {
             GetRequest getRequest = new GetRequest(INDEX_NAME, id);
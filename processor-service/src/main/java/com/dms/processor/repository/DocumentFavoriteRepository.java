@@ -1,6 +1,8 @@
 package com.dms.processor.repository;
 
 import com.dms.processor.model.DocumentFavorite;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -11,4 +13,7 @@ import java.util.UUID;
 public interface DocumentFavoriteRepository extends JpaRepository<DocumentFavorite, Long> {
     @Query("SELECT df.userId FROM DocumentFavorite df WHERE df.documentId = :documentId")
     Set<UUID> findUserIdsByDocumentId(@Param("documentId") String documentId);
+
+    @Query("SELECT DISTINCT df.documentId FROM DocumentFavorite df ORDER BY df.documentId")
+    Slice<String> findDistinctDocumentIds(Pageable pageable);
 }
@@ -0,0 +1,30 @@
+package com.dms.processor.repository;
+
+import com.dms.processor.enums.DocumentStatus;
+import com.dms.processor.model.DocumentInformation;
+import com.dms.processor.model.DocumentVersion;
+
+/**
+ * Field-level updates for the fields the processor owns. The rest of the document, in particular the
+ * interaction counters, sharing settings and metadata, is written by the document interaction service
+ * and is never overwritten here.
+ */
+public interface DocumentRepositoryCustom {
+
+    /**
+     * Sets the processing status and error of a document.
+     *
+     * @return true if the document exists
+     */
+    boolean updateStatus(String documentId, DocumentStatus status, String processingError);
+
+    /**
+     * Copies the processing outcome of {@code document} (status, error, content, language, extracted metadata,
+     * thumbnail and update time) onto the stored document, and the status, error, language and thumbnail of
+     * {@code version} onto the stored version with the same number.
+     *
+     * @param version the processed version, or null to leave the versions unchanged
+     * @return true if the document exists
+     */
+    boolean updateProcessingResult(DocumentInformation document, DocumentVersion version);
+}
@@ -0,0 +1,54 @@
+package com.dms.processor.repository;
+
+import com.dms.processor.enums.DocumentStatus;
+import com.dms.processor.model.DocumentInformation;
+import com.dms.processor.model.DocumentVersion;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+@RequiredArgsConstructor
+public class DocumentRepositoryCustomImpl implements DocumentRepositoryCustom {
+    private static final String VERSION = "versions.$[version].";
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public boolean updateStatus(String documentId, DocumentStatus status, String processingError) {
+        Update update = new Update()
+                .set("status", status)
+                .set("processingError", processingError);
+        return updateFirst(byId(documentId), update);
+    }
+
+    @Override
+    public boolean updateProcessingResult(DocumentInformation document, DocumentVersion version) {
+        Update update = new Update()
+                .set("status", document.getStatus())
+                .set("processingError", document.getProcessingError())
+                .set("content", document.getContent())
+                .set("language", document.getLanguage())
+                .set("extractedMetadata", document.getExtractedMetadata())
+                .set("thumbnailPath", document.getThumbnailPath())
+                .set("updatedAt", document.getUpdatedAt());
+        if (version != null) {
+            // Versions are only ever appended elsewhere, so the entry is matched by number rather than position
+            update.set(VERSION + "status", version.getStatus())
+                    .set(VERSION + "processingError", version.getProcessingError())
+                    .set(VERSION + "language", version.getLanguage())
+                    .set(VERSION + "thumbnailPath", version.getThumbnailPath())
+                    .filterArray(Criteria.where("version.version_number").is(version.getVersionNumber()));
+        }
+        return updateFirst(byId(document.getId()), update);
+    }
+
+    private boolean updateFirst(Query query, Update update) {
+        return mongoTemplate.updateFirst(query, update, DocumentInformation.class).getMatchedCount() > 0;
+    }
+
+    private static Query byId(String documentId) {
+        return Query.query(Criteria.where("id").is(documentId));
+    }
+}
@@ -0,0 +1,12 @@
+package com.dms.processor.repository;
+
+import com.dms.processor.model.DocumentSimilarity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface DocumentSimilarityRepository extends MongoRepository<DocumentSimilarity, String> {
+    List<DocumentSimilarity> findByComputedAtBeforeOrderByComputedAtAsc(Instant threshold, Pageable pageable);
+}
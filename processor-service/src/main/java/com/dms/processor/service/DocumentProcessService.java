@@ -26,6 +26,13 @@ public interface DocumentProcessService {
      */
     void handleReportStatus(String documentId, String userId, int times);
 
+    /**
+     * Refresh the favoriters of an indexed document without reindexing it
+     *
+     * @param documentId The ID of the document that was favorited or unfavorited
+     */
+    void updateFavorites(String documentId);
+
     /**
      * Delete a document from the search index
      *
@@ -0,0 +1,35 @@
+package com.dms.processor.service;
+
+/**
+ * Interface for the offline "more like this" stage that feeds content-based recommendations
+ */
+public interface DocumentSimilarityService {
+
+    /**
+     * Schedules computation of the most similar documents for the given document on the background pool
+     *
+     * @param documentId Unique identifier of the indexed document
+     */
+    void scheduleSimilarityUpdate(String documentId);
+
+    /**
+     * Computes and stores the most similar documents for the given document using its stored term vectors
+     *
+     * @param documentId Unique identifier of the indexed document
+     */
+    void updateSimilarDocuments(String documentId);
+
+    /**
+     * Removes the precomputed similarity entry of a document
+     *
+     * @param documentId Unique identifier of the document
+     */
+    void removeSimilarDocuments(String documentId);
+
+    /**
+     * Recomputes a bounded batch of the oldest similarity entries
+     *
+     * @return Number of entries refreshed
+     */
+    int refreshStaleSimilarities();
+}
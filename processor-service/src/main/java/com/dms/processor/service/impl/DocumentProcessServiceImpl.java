@@ -11,6 +11,7 @@ import com.dms.processor.model.DocumentInformation;
 import com.dms.processor.model.DocumentVersion;
 import com.dms.processor.opensearch.DocumentIndex;
 import com.dms.processor.opensearch.repository.DocumentIndexRepository;
+import com.dms.processor.repository.DocumentFavoriteRepository;
 import com.dms.processor.repository.DocumentRepository;
 import com.dms.processor.service.*;
 import lombok.RequiredArgsConstructor;
@@ -23,6 +24,9 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.Instant;
 import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -37,6 +41,8 @@ public class DocumentProcessServiceImpl implements DocumentProcessService {
     private final DocumentContentService documentContentService;
     private final DocumentEmailService documentEmailService;
     private final FileStorageService fileStorageService;
+    private final DocumentSimilarityService documentSimilarityService;
+    private final DocumentFavoriteRepository documentFavoriteRepository;
 
 
     @Transactional
@@ -47,7 +53,7 @@ public class DocumentProcessServiceImpl implements DocumentProcessService {
             // Update status to PROCESSING
             document.setStatus(DocumentStatus.PROCESSING);
             document.setProcessingError(null);
-            documentRepository.save(document);
+            documentRepository.updateStatus(document.getId(), DocumentStatus.PROCESSING, null);
 
             // Update document index with status to PROCESSING
             indexDocument(document);
@@ -102,6 +108,16 @@ public class DocumentProcessServiceImpl implements DocumentProcessService {
         }
     }
 
+    @Override
+    public void updateFavorites(String documentId) {
+        try {
+            documentIndexRepository.updateFavoritedBy(documentId, findFavoritedBy(documentId));
+        } catch (Exception e) {
+            log.error("Error updating favoriters for document: {}", documentId, e);
+            throw new DocumentProcessingException("Failed to update document favoriters", e);
+        }
+    }
+
     private void processRevertContent(DocumentInformation document, Integer revertToVersionNumber) {
         // Get the document content for the version we want to revert to
         DocumentContent documentContent = documentContentService.getVersionContent(
@@ -130,10 +146,11 @@ public class DocumentProcessServiceImpl implements DocumentProcessService {
         document.setExtractedMetadata(documentContent.getExtractedMetadata());
         document.setStatus(DocumentStatus.COMPLETED);
         document.setUpdatedAt(Instant.now());
-        documentRepository.save(document);
+        documentRepository.updateProcessingResult(document, null);
 
         // Index the document
         indexDocument(document);
+        documentSimilarityService.scheduleSimilarityUpdate(document.getId());
 
         log.info("Successfully processed reverted document: {}", document.getId());
     }
@@ -152,13 +169,15 @@ public class DocumentProcessServiceImpl implements DocumentProcessService {
         // Generate thumbnail if needed (base on extracted content)
         handleThumbnail(document, documentVersion, tempFile);
         indexDocument(document);
+        documentSimilarityService.scheduleSimilarityUpdate(document.getId());
     }
 
     private void processMetadataUpdate(DocumentInformation document) {
         document.setStatus(DocumentStatus.COMPLETED);
-        documentRepository.save(document);
+        documentRepository.updateStatus(document.getId(), DocumentStatus.COMPLETED, document.getProcessingError());
 
         indexDocument(document);
+        documentSimilarityService.scheduleSimilarityUpdate(document.getId());
     }
 
     private DocumentExtractContent extractAndProcessContent(Path filePath) {
@@ -190,7 +209,7 @@ public class DocumentProcessServiceImpl implements DocumentProcessService {
 
         // Update timestamps
         document.setUpdatedAt(Instant.now());
-        documentRepository.save(document);
+        documentRepository.updateProcessingResult(document, documentVersion);
 
         documentContentService.saveVersionContent(
                 document.getId(),
@@ -202,10 +221,19 @@ public class DocumentProcessServiceImpl implements DocumentProcessService {
 
     private void indexDocument(DocumentInformation document) {
         DocumentIndex documentIndex = documentIndexMapper.toDocumentIndex(document);
+        // Denormalize favoriters so favorite-only searches are a single term filter
+        documentIndex.setFavoritedBy(findFavoritedBy(document.getId()));
         documentIndexRepository.save(documentIndex);
         log.info("Successfully indexed document: {}", document.getId());
     }
 
+    private Set<String> findFavoritedBy(String documentId) {
+        return documentFavoriteRepository.findUserIdsByDocumentId(documentId)
+                .stream()
+                .map(UUID::toString)
+                .collect(Collectors.toSet());
+    }
+
     private void handleProcessingError(DocumentInformation document, Exception e) {
         log.error("Error processing document: {}", document.getId(), e);
 
@@ -224,7 +252,7 @@ public class DocumentProcessServiceImpl implements DocumentProcessService {
         document.setProcessingError(e.getMessage());
         document.setUpdatedAt(Instant.now());
 
-        documentRepository.save(document);
+        documentRepository.updateProcessingResult(document, currentVersion);
 
         // Update document index
         indexDocument(document);
@@ -234,6 +262,7 @@ public class DocumentProcessServiceImpl implements DocumentProcessService {
     public void deleteDocumentFromIndex(String documentId) {
         try {
             documentIndexRepository.deleteById(documentId);
+            documentSimilarityService.removeSimilarDocuments(documentId);
             log.info("Successfully deleted document {} from index", documentId);
         } catch (Exception e) {
             log.error("Error deleting document {} from index", documentId, e);
@@ -271,7 +300,7 @@ public class DocumentProcessServiceImpl implements DocumentProcessService {
             document.setThumbnailPath(thumbnailKey);
             documentVersion.setThumbnailPath(thumbnailKey);
 
-            documentRepository.save(document);
+            documentRepository.updateProcessingResult(document, documentVersion);
         } finally {
             // Cleanup temp thumbnail
             Files.deleteIfExists(tempThumb);
@@ -0,0 +1,181 @@
+package com.dms.processor.service.impl;
+
+import com.dms.processor.config.ThreadPoolManager;
+import com.dms.processor.enums.DocumentReportStatus;
+import com.dms.processor.model.DocumentSimilarity;
+import com.dms.processor.repository.DocumentSimilarityRepository;
+import com.dms.processor.service.DocumentSimilarityService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.collections4.CollectionUtils;
+import org.opensearch.action.get.GetRequest;
+import org.opensearch.action.get.GetResponse;
+import org.opensearch.action.search.SearchRequest;
+import org.opensearch.action.search.SearchResponse;
+import org.opensearch.client.RequestOptions;
+import org.opensearch.client.RestHighLevelClient;
+import org.opensearch.index.query.BoolQueryBuilder;
+import org.opensearch.index.query.MoreLikeThisQueryBuilder;
+import org.opensearch.index.query.QueryBuilders;
+import org.opensearch.search.builder.SearchSourceBuilder;
+import org.opensearch.search.fetch.subphase.FetchSourceContext;
+import org.opensearch.search.sort.SortBuilders;
+import org.opensearch.search.sort.SortOrder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class DocumentSimilarityServiceImpl implements DocumentSimilarityService {
+    private static final String INDEX_NAME = "documents";
+    private static final String[] METADATA_FIELDS = {"majors", "courseCodes", "courseLevel", "categories", "tags"};
+
+    private final RestHighLevelClient openSearchClient;
+    private final DocumentSimilarityRepository documentSimilarityRepository;
+    private final ThreadPoolManager threadPoolManager;
+
+    @Value("${app.recommendation.similar-size:50}")
+    private int similarSize;
+
+    @Value("${app.recommendation.refresh-batch-size:100}")
+    private int refreshBatchSize;
+
+    @Value("${app.recommendation.max-age-hours:24}")
+    private long maxAgeHours;
+
+    @Override
+    public void scheduleSimilarityUpdate(String documentId) {
+        threadPoolManager.submitTask(() -> {
+            updateSimilarDocuments(documentId);
+            return null;
+        }, ThreadPoolManager.TaskPriority.BACKGROUND).exceptionally(e -> {
+            log.error("Error computing similar documents for: {}", documentId, e);
+            return null;
+        });
+    }
+
+    @Override
+    public void updateSimilarDocuments(String documentId) {
+        try {
+            // Only the small metadata fields are needed, content stays on the cluster as term vectors
+            GetResponse sourceDoc = openSearchClient.get(
+                    new GetRequest(INDEX_NAME, documentId)
+                            .fetchSourceContext(new FetchSourceContext(true, METADATA_FIELDS, null)),
+                    RequestOptions.DEFAULT
+            );
+
+            if (!sourceDoc.isExists()) {
+                removeSimilarDocuments(documentId);
+                return;
+            }
+
+            BoolQueryBuilder queryBuilder = QueryBuilders.boolQuery();
+
+            // Access-independent exclusions, per-user access is checked when recommendations are served
+            queryBuilder.filter(QueryBuilders.termQuery("deleted", false));
+            queryBuilder.mustNot(QueryBuilders.termQuery("reportStatus", DocumentReportStatus.RESOLVED.name()));
+            queryBuilder.mustNot(QueryBuilders.idsQuery().addIds(documentId));
+
+            addContentSimilarity(queryBuilder, documentId);
+            addMetadataSimilarity(queryBuilder, sourceDoc.getSourceAsMap());
+            queryBuilder.minimumShouldMatch(1);
+
+            SearchSourceBuilder searchSourceBuilder = new SearchSourceBuilder()
+                    .query(queryBuilder)
+                    .size(similarSize)
+                    .fetchSource(false)
+                    .sort(SortBuilders.scoreSort().order(SortOrder.DESC));
+
+            SearchResponse searchResponse = openSearchClient.search(
+                    new SearchRequest(INDEX_NAME).source(searchSourceBuilder),
+                    RequestOptions.DEFAULT
+            );
+
+            List<DocumentSimilarity.SimilarDocument> similarDocuments = Arrays.stream(searchResponse.getHits().getHits())
+                    .map(hit -> new DocumentSimilarity.SimilarDocument(hit.getId(), hit.getScore()))
+                    .toList();
+
+            documentSimilarityRepository.save(DocumentSimilarity.builder()
+                    .id(documentId)
+                    .similarDocuments(similarDocuments)
+                    .computedAt(Instant.now())
+                    .build());
+
+            log.info("Stored {} similar documents for: {}", similarDocuments.size(), documentId);
+        } catch (IOException e) {
+            log.error("Error computing similar documents for: {}", documentId, e);
+            throw new RuntimeException("Failed to compute similar documents", e);
+        }
+    }
+
+    @Override
+    public void removeSimilarDocuments(String documentId) {
+        documentSimilarityRepository.deleteById(documentId);
+    }
+
+    @Override
+    public int refreshStaleSimilarities() {
+        Instant threshold = Instant.now().minus(Duration.ofHours(maxAgeHours));
+        List<DocumentSimilarity> staleEntries = documentSimilarityRepository
+                .findByComputedAtBeforeOrderByComputedAtAsc(threshold, PageRequest.of(0, refreshBatchSize));
+
+        int refreshed = 0;
+        for (DocumentSimilarity entry : staleEntries) {
+            try {
+                updateSimilarDocuments(entry.getId());
+                refreshed++;
+            } catch (Exception e) {
+                log.warn("Skipping similarity refresh for: {}", entry.getId(), e);
+            }
+        }
+        return refreshed;
+    }
+
+    private void addContentSimilarity(BoolQueryBuilder queryBuilder, String documentId) {
+        // Referencing the indexed document lets the cluster read its stored term vectors
+        MoreLikeThisQueryBuilder.Item[] likeItems = new MoreLikeThisQueryBuilder.Item[]{
+                new MoreLikeThisQueryBuilder.Item(INDEX_NAME, documentId)
+        };
+
+        queryBuilder.should(QueryBuilders.moreLikeThisQuery(new String[]{"content"}, null, likeItems)
+                .minTermFreq(2)
+                .minDocFreq(1)
+                .maxQueryTerms(25)
+                .minimumShouldMatch("30%")
+                .boost(10.0f));
+
+        queryBuilder.should(QueryBuilders.moreLikeThisQuery(new String[]{"filename.analyzed"}, null, likeItems)
+                .minTermFreq(1)
+                .minDocFreq(1)
+                .maxQueryTerms(10)
+                .boost(5.0f));
+    }
+
+    private void addMetadataSimilarity(BoolQueryBuilder queryBuilder, Map<String, Object> source) {
+        addTermsBoost(queryBuilder, "majors", source.get("majors"), 3.0f);
+        addTermsBoost(queryBuilder, "categories", source.get("categories"), 2.0f);
+        addTermsBoost(queryBuilder, "courseCodes", source.get("courseCodes"), 3.0f);
+        addTermsBoost(queryBuilder, "tags", source.get("tags"), 4.0f);
+
+        Object courseLevel = source.get("courseLevel");
+        if (courseLevel != null) {
+            queryBuilder.should(QueryBuilders.termQuery("courseLevel", courseLevel.toString()).boost(3.0f));
+        }
+    }
+
+    private void addTermsBoost(BoolQueryBuilder queryBuilder, String field, Object values, float boost) {
+        if (values instanceof Collection<?> collection && CollectionUtils.isNotEmpty(collection)) {
+            queryBuilder.should(QueryBuilders.termsQuery(field, collection).boost(boost));
+        }
+    }
+}
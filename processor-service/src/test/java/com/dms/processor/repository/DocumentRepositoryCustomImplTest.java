@@ -0,0 +1,186 @@
+package com.dms.processor.repository;
+
+import com.dms.processor.enums.DocumentStatus;
+import com.dms.processor.enums.DocumentType;
+import com.dms.processor.model.DocumentInformation;
+import com.dms.processor.model.DocumentVersion;
+import com.mongodb.client.result.UpdateResult;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.convert.UpdateMapper;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Checks the update documents sent to MongoDB after field name mapping.
+ */
+@ExtendWith(MockitoExtension.class)
+class DocumentRepositoryCustomImplTest {
+    private static final String DOCUMENT_ID = "doc-123";
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Captor
+    private ArgumentCaptor<Query> queryCaptor;
+
+    @Captor
+    private ArgumentCaptor<Update> updateCaptor;
+
+    private DocumentRepositoryCustomImpl documentRepository;
+    private MappingMongoConverter converter;
+    private MongoPersistentEntity<?> entity;
+
+    @BeforeEach
+    void setUp() {
+        MongoCustomConversions conversions = new MongoCustomConversions(List.of());
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+        entity = mappingContext.getRequiredPersistentEntity(DocumentInformation.class);
+
+        documentRepository = new DocumentRepositoryCustomImpl(mongoTemplate);
+    }
+
+    @Test
+    void updateStatus_SetsStatusAndErrorOnly() {
+        // Arrange
+        stubUpdateFirst(1);
+
+        // Act
+        boolean result = documentRepository.updateStatus(DOCUMENT_ID, DocumentStatus.PROCESSING, null);
+
+        // Assert
+        assertTrue(result);
+        verify(mongoTemplate).updateFirst(queryCaptor.capture(), updateCaptor.capture(), eq(DocumentInformation.class));
+        assertEquals(new Document("_id", DOCUMENT_ID), mappedQuery(queryCaptor.getValue()));
+        assertEquals(new Document("$set", new Document("status", "PROCESSING").append("processing_error", null)),
+                mappedUpdate(updateCaptor.getValue()));
+    }
+
+    @Test
+    void updateProcessingResult_SetsProcessingFieldsAndMatchedVersion() {
+        // Arrange
+        stubUpdateFirst(1);
+        DocumentVersion version = DocumentVersion.builder()
+                .versionNumber(2)
+                .status(DocumentStatus.COMPLETED)
+                .language("en")
+                .thumbnailPath("thumbnails/doc-123.png")
+                .build();
+        DocumentInformation document = document(version);
+
+        // Act
+        boolean result = documentRepository.updateProcessingResult(document, version);
+
+        // Assert
+        assertTrue(result);
+        verify(mongoTemplate).updateFirst(queryCaptor.capture(), updateCaptor.capture(), eq(DocumentInformation.class));
+        assertEquals(new Document("_id", DOCUMENT_ID), mappedQuery(queryCaptor.getValue()));
+
+        Update update = updateCaptor.getValue();
+        Document set = mappedUpdate(update).get("$set", Document.class);
+        assertEquals(Set.of("status", "processing_error", "content", "language", "extracted_metadata",
+                "thumbnail_path", "updated_at", "versions.$[version].status", "versions.$[version].processing_error",
+                "versions.$[version].language", "versions.$[version].thumbnail_path"), set.keySet());
+        assertEquals("COMPLETED", set.get("versions.$[version].status"));
+        assertEquals(List.of(new Document("version.version_number", 2)), update.getArrayFilters().stream()
+                .map(Update.ArrayFilter::asDocument)
+                .toList());
+    }
+
+    @Test
+    void updateProcessingResult_WithoutVersion_LeavesVersionsUnchanged() {
+        // Arrange
+        stubUpdateFirst(0);
+        DocumentInformation document = document(null);
+
+        // Act
+        boolean result = documentRepository.updateProcessingResult(document, null);
+
+        // Assert
+        assertFalse(result);
+        verify(mongoTemplate).updateFirst(any(Query.class), updateCaptor.capture(), eq(DocumentInformation.class));
+        assertTrue(mappedUpdate(updateCaptor.getValue()).get("$set", Document.class).keySet().stream()
+                .noneMatch(key -> key.startsWith("versions")));
+        assertTrue(updateCaptor.getValue().getArrayFilters().isEmpty());
+    }
+
+    @Test
+    void processingUpdates_NeverWriteInteractionCounters() {
+        // Arrange - counters loaded with the event are stale by the time processing finishes
+        stubUpdateFirst(1);
+        DocumentVersion version = DocumentVersion.builder().versionNumber(2).status(DocumentStatus.FAILED).build();
+        DocumentInformation document = document(version);
+
+        // Act
+        documentRepository.updateStatus(DOCUMENT_ID, DocumentStatus.PROCESSING, null);
+        documentRepository.updateProcessingResult(document, version);
+
+        // Assert
+        verify(mongoTemplate, times(2)).updateFirst(any(Query.class), updateCaptor.capture(), eq(DocumentInformation.class));
+        for (Update update : updateCaptor.getAllValues()) {
+            Document mapped = mappedUpdate(update);
+            assertEquals(Set.of("$set"), mapped.keySet());
+            assertFalse(mapped.get("$set", Document.class).keySet().stream()
+                    .anyMatch(key -> key.endsWith("_count")));
+        }
+    }
+
+    private void stubUpdateFirst(long matchedCount) {
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(DocumentInformation.class)))
+                .thenReturn(UpdateResult.acknowledged(matchedCount, matchedCount, null));
+    }
+
+    private Document mappedQuery(Query query) {
+        return new QueryMapper(converter).getMappedObject(query.getQueryObject(), entity);
+    }
+
+    private Document mappedUpdate(Update update) {
+        return new UpdateMapper(converter).getMappedObject(update.getUpdateObject(), entity);
+    }
+
+    private static DocumentInformation document(DocumentVersion version) {
+        return DocumentInformation.builder()
+                .id(DOCUMENT_ID)
+                .userId("user-123")
+                .status(DocumentStatus.COMPLETED)
+                .documentType(DocumentType.PDF)
+                .content("Extracted content")
+                .language("en")
+                .extractedMetadata(Map.of("Author", "Owner"))
+                .thumbnailPath("thumbnails/doc-123.png")
+                .currentVersion(2)
+                .versions(version != null ? List.of(version) : List.of())
+                .sharedWith(Set.of("user-456"))
+                .favoriteCount(3)
+                .recommendationCount(1)
+                .commentCount(5)
+                .updatedAt(Instant.now())
+                .build();
+    }
+}
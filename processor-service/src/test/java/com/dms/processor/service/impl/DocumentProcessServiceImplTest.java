@@ -12,6 +12,7 @@ import com.dms.processor.model.DocumentInformation;
 import com.dms.processor.model.DocumentVersion;
 import com.dms.processor.opensearch.DocumentIndex;
 import com.dms.processor.opensearch.repository.DocumentIndexRepository;
+import com.dms.processor.repository.DocumentFavoriteRepository;
 import com.dms.processor.repository.DocumentRepository;
 import com.dms.processor.service.*;
 import org.junit.jupiter.api.BeforeEach;
@@ -28,6 +29,8 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -63,6 +66,12 @@ class DocumentProcessServiceImplTest {
     @Mock
     private FileStorageService fileStorageService;
 
+    @Mock
+    private DocumentSimilarityService documentSimilarityService;
+
+    @Mock
+    private DocumentFavoriteRepository documentFavoriteRepository;
+
     @InjectMocks
     private DocumentProcessServiceImpl documentProcessService;
 
@@ -111,6 +120,9 @@ class DocumentProcessServiceImplTest {
                 .status(DocumentStatus.PENDING)
                 .build();
 
+        // Error paths index the document as well
+        lenient().when(documentIndexMapper.toDocumentIndex(any(DocumentInformation.class))).thenReturn(documentIndex);
+
         // Create document content
         documentContent = DocumentContent.builder()
                 .id("doc-123-v1")
@@ -160,10 +172,15 @@ class DocumentProcessServiceImplTest {
         verify(documentContentService).saveVersionContent(
                 document.getId(), documentVersion.getVersionNumber(), extractContent.content(), extractContent.metadata());
         verify(thumbnailService).generateThumbnail(tempFile, document.getDocumentType(), document.getContent());
+        verify(documentSimilarityService).scheduleSimilarityUpdate(document.getId());
         // The method is called once when setting to PROCESSING, and once when setting to COMPLETED
         verify(documentIndexMapper, times(2)).toDocumentIndex(document);
         verify(documentIndexRepository, times(2)).save(documentIndex);
         verify(fileStorageService).cleanup(tempFile);
+        // Only the processing fields are written, never the whole document
+        verify(documentRepository).updateStatus(document.getId(), DocumentStatus.PROCESSING, null);
+        verify(documentRepository, times(2)).updateProcessingResult(document, documentVersion);
+        verify(documentRepository, never()).save(any(DocumentInformation.class));
 
         assertEquals(DocumentStatus.COMPLETED, document.getStatus());
         assertEquals("Extracted content", document.getContent());
@@ -185,10 +202,56 @@ class DocumentProcessServiceImplTest {
         verify(documentIndexRepository, times(2)).save(documentIndex);
         verify(fileStorageService, never()).downloadToTemp(anyString());
         verify(contentExtractorService, never()).extractContent(any(Path.class));
+        verify(documentSimilarityService).scheduleSimilarityUpdate(document.getId());
+        verify(documentRepository).updateStatus(document.getId(), DocumentStatus.COMPLETED, null);
+        verify(documentRepository, never()).save(any(DocumentInformation.class));
 
         assertEquals(DocumentStatus.COMPLETED, document.getStatus());
     }
 
+    @Test
+    void processDocument_withUpdateEvent_shouldIndexFavoritedBy() {
+        // Arrange
+        UUID favoriterId = UUID.randomUUID();
+        when(documentIndexMapper.toDocumentIndex(any(DocumentInformation.class))).thenReturn(documentIndex);
+        when(documentFavoriteRepository.findUserIdsByDocumentId(document.getId())).thenReturn(Set.of(favoriterId));
+
+        // Act
+        documentProcessService.processDocument(document, 1, EventType.UPDATE_EVENT);
+
+        // Assert
+        verify(documentFavoriteRepository, times(2)).findUserIdsByDocumentId(document.getId());
+        assertEquals(Set.of(favoriterId.toString()), documentIndex.getFavoritedBy());
+    }
+
+    @Test
+    void updateFavorites_shouldOnlyUpdateFavoritedBy() {
+        // Arrange
+        UUID favoriterId = UUID.randomUUID();
+        when(documentFavoriteRepository.findUserIdsByDocumentId(document.getId())).thenReturn(Set.of(favoriterId));
+
+        // Act
+        documentProcessService.updateFavorites(document.getId());
+
+        // Assert
+        verify(documentIndexRepository).updateFavoritedBy(document.getId(), Set.of(favoriterId.toString()));
+        verify(documentIndexRepository, never()).save(any());
+        verifyNoInteractions(documentRepository, documentIndexMapper, documentSimilarityService);
+    }
+
+    @Test
+    void updateFavorites_whenIndexUpdateFails_shouldThrowException() {
+        // Arrange
+        when(documentFavoriteRepository.findUserIdsByDocumentId(document.getId())).thenReturn(Set.of());
+        doThrow(new RuntimeException("Failed to update document favoriters"))
+                .when(documentIndexRepository).updateFavoritedBy(document.getId(), Set.of());
+
+        // Act & Assert
+        assertThrows(DocumentProcessingException.class, () ->
+                documentProcessService.updateFavorites(document.getId())
+        );
+    }
+
     @Test
     void processDocument_withRevertEvent_shouldRevertToVersion() {
         // Arrange
@@ -249,6 +312,7 @@ class DocumentProcessServiceImplTest {
         verify(documentContentService).saveVersionContent(
                 document.getId(), documentVersion.getVersionNumber(), extractContent.content(), extractContent.metadata());
         verify(thumbnailService).generateThumbnail(tempFile, document.getDocumentType(), document.getContent());
+        verify(documentSimilarityService).scheduleSimilarityUpdate(document.getId());
         // The method is called once when setting to PROCESSING, and once when setting to COMPLETED
         verify(documentIndexMapper, times(2)).toDocumentIndex(document);
         verify(documentIndexRepository, times(2)).save(documentIndex);
@@ -279,8 +343,12 @@ class DocumentProcessServiceImplTest {
         verify(documentIndexMapper, times(2)).toDocumentIndex(document);
         verify(documentIndexRepository, times(2)).save(documentIndex);
         verify(fileStorageService).cleanup(tempFile);
+        verify(documentSimilarityService, never()).scheduleSimilarityUpdate(anyString());
+        verify(documentRepository).updateProcessingResult(document, documentVersion);
+        verify(documentRepository, never()).save(any(DocumentInformation.class));
 
         assertEquals(DocumentStatus.FAILED, document.getStatus());
+        assertEquals(DocumentStatus.FAILED, documentVersion.getStatus());
         assertNotNull(document.getProcessingError());
     }
 
@@ -374,6 +442,7 @@ class DocumentProcessServiceImplTest {
 
         // Assert
         verify(documentIndexRepository).deleteById(documentId);
+        verify(documentSimilarityService).removeSimilarDocuments(documentId);
     }
 
     @Test
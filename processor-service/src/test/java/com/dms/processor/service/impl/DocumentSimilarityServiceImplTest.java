@@ -0,0 +1,170 @@
+package com.dms.processor.service.impl;
+
+import com.dms.processor.config.ThreadPoolManager;
+import com.dms.processor.model.DocumentSimilarity;
+import com.dms.processor.repository.DocumentSimilarityRepository;
+import org.apache.lucene.search.TotalHits;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.opensearch.action.get.GetRequest;
+import org.opensearch.action.get.GetResponse;
+import org.opensearch.action.search.SearchRequest;
+import org.opensearch.action.search.SearchResponse;
+import org.opensearch.client.RequestOptions;
+import org.opensearch.client.RestHighLevelClient;
+import org.opensearch.search.SearchHit;
+import org.opensearch.search.SearchHits;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DocumentSimilarityServiceImplTest {
+
+    @Mock
+    private RestHighLevelClient openSearchClient;
+
+    @Mock
+    private DocumentSimilarityRepository documentSimilarityRepository;
+
+    @Mock
+    private ThreadPoolManager threadPoolManager;
+
+    @InjectMocks
+    private DocumentSimilarityServiceImpl documentSimilarityService;
+
+    @Captor
+    private ArgumentCaptor<DocumentSimilarity> similarityCaptor;
+
+    private static final String DOCUMENT_ID = "doc-123";
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(documentSimilarityService, "similarSize", 50);
+        ReflectionTestUtils.setField(documentSimilarityService, "refreshBatchSize", 100);
+        ReflectionTestUtils.setField(documentSimilarityService, "maxAgeHours", 24L);
+    }
+
+    @Test
+    void updateSimilarDocuments_shouldStoreRankedNeighbours() throws IOException {
+        // Arrange
+        GetResponse getResponse = mock(GetResponse.class);
+        when(getResponse.isExists()).thenReturn(true);
+        when(getResponse.getSourceAsMap()).thenReturn(Map.of(
+                "majors", List.of("Computer Science"),
+                "courseLevel", "Intermediate",
+                "tags", List.of("java")));
+        when(openSearchClient.get(any(GetRequest.class), eq(RequestOptions.DEFAULT))).thenReturn(getResponse);
+
+        SearchResponse searchResponse = createSearchResponse(
+                createHit("doc-456", 12.5f),
+                createHit("doc-789", 4.0f));
+        when(openSearchClient.search(any(SearchRequest.class), eq(RequestOptions.DEFAULT))).thenReturn(searchResponse);
+
+        // Act
+        documentSimilarityService.updateSimilarDocuments(DOCUMENT_ID);
+
+        // Assert
+        verify(documentSimilarityRepository).save(similarityCaptor.capture());
+        DocumentSimilarity saved = similarityCaptor.getValue();
+        assertThat(saved.getId()).isEqualTo(DOCUMENT_ID);
+        assertThat(saved.getComputedAt()).isNotNull();
+        assertThat(saved.getSimilarDocuments())
+                .extracting(DocumentSimilarity.SimilarDocument::getDocumentId)
+                .containsExactly("doc-456", "doc-789");
+
+        // The source document is referenced by id and its content is never fetched
+        verify(openSearchClient).get(argThat(request ->
+                request.fetchSourceContext() != null &&
+                !List.of(request.fetchSourceContext().includes()).contains("content")
+        ), eq(RequestOptions.DEFAULT));
+        verify(openSearchClient).search(argThat(request -> {
+            String source = request.source().toString();
+            return source.contains("more_like_this") && source.contains(DOCUMENT_ID);
+        }), eq(RequestOptions.DEFAULT));
+    }
+
+    @Test
+    void updateSimilarDocuments_whenDocumentMissing_shouldRemoveEntry() throws IOException {
+        // Arrange
+        GetResponse getResponse = mock(GetResponse.class);
+        when(getResponse.isExists()).thenReturn(false);
+        when(openSearchClient.get(any(GetRequest.class), eq(RequestOptions.DEFAULT))).thenReturn(getResponse);
+
+        // Act
+        documentSimilarityService.updateSimilarDocuments(DOCUMENT_ID);
+
+        // Assert
+        verify(documentSimilarityRepository).deleteById(DOCUMENT_ID);
+        verify(openSearchClient, never()).search(any(SearchRequest.class), any(RequestOptions.class));
+    }
+
+    @Test
+    void updateSimilarDocuments_whenSearchFails_shouldThrowException() throws IOException {
+        // Arrange
+        when(openSearchClient.get(any(GetRequest.class), eq(RequestOptions.DEFAULT)))
+                .thenThrow(new IOException("Connection refused"));
+
+        // Act & Assert
+        assertThrows(RuntimeException.class, () -> documentSimilarityService.updateSimilarDocuments(DOCUMENT_ID));
+        verify(documentSimilarityRepository, never()).save(any());
+    }
+
+    @Test
+    void refreshStaleSimilarities_shouldRecomputeOldestEntries() throws IOException {
+        // Arrange
+        DocumentSimilarity stale = DocumentSimilarity.builder()
+                .id(DOCUMENT_ID)
+                .similarDocuments(List.of())
+                .computedAt(Instant.now().minusSeconds(172800))
+                .build();
+        when(documentSimilarityRepository.findByComputedAtBeforeOrderByComputedAtAsc(any(Instant.class), any(Pageable.class)))
+                .thenReturn(List.of(stale));
+
+        GetResponse getResponse = mock(GetResponse.class);
+        when(getResponse.isExists()).thenReturn(true);
+        when(getResponse.getSourceAsMap()).thenReturn(Map.of());
+        when(openSearchClient.get(any(GetRequest.class), eq(RequestOptions.DEFAULT))).thenReturn(getResponse);
+        SearchResponse searchResponse = createSearchResponse();
+        when(openSearchClient.search(any(SearchRequest.class), eq(RequestOptions.DEFAULT))).thenReturn(searchResponse);
+
+        // Act
+        int refreshed = documentSimilarityService.refreshStaleSimilarities();
+
+        // Assert
+        assertThat(refreshed).isEqualTo(1);
+        verify(documentSimilarityRepository).save(any(DocumentSimilarity.class));
+    }
+
+    private SearchHit createHit(String id, float score) {
+        SearchHit hit = mock(SearchHit.class);
+        when(hit.getId()).thenReturn(id);
+        when(hit.getScore()).thenReturn(score);
+        return hit;
+    }
+
+    private SearchResponse createSearchResponse(SearchHit... hits) {
+        SearchHits searchHits = mock(SearchHits.class);
+        lenient().when(searchHits.getHits()).thenReturn(hits);
+        lenient().when(searchHits.getTotalHits()).thenReturn(new TotalHits(hits.length, TotalHits.Relation.EQUAL_TO));
+        SearchResponse response = mock(SearchResponse.class);
+        when(response.getHits()).thenReturn(searchHits);
+        return response;
+    }
+}